@@ -0,0 +1,258 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.benchmarks.jmh.encryption;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.internal.benchmarks.jmh.JmhAbstractBenchmark;
+import org.apache.ignite.internal.managers.encryption.GroupKey;
+import org.apache.ignite.internal.processors.cache.persistence.file.EncryptionUtil;
+import org.apache.ignite.internal.util.typedef.internal.U;
+import org.apache.ignite.spi.encryption.keystore.KeystoreEncryptionSpi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static org.apache.ignite.internal.util.IgniteUtils.resolveIgnitePath;
+
+/**
+ * Page level counterpart of {@link JmhKeystoreEncryptionSpiBenchmark}: measures encryption and decryption of runs of
+ * pages in the encrypted page store format (data, CRC and key id), sequentially and split between threads the way
+ * {@code EncryptedFileIO} processes runs of contiguous pages. Throughput is reported in runs per second.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+public class JmhPageEncryptionBenchmark extends JmhAbstractBenchmark {
+    /** Page size. */
+    private static final int PAGE_SIZE = 4096;
+
+    /**
+     * @param args Arguments.
+     * @throws Exception If failed.
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+            .include(JmhPageEncryptionBenchmark.class.getSimpleName())
+            .threads(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    /** Encryption SPI, key and executor shared by benchmark threads. */
+    @State(Scope.Benchmark)
+    public static class EncryptionState {
+        /** Number of threads processing a run, {@code 1} for sequential processing. */
+        @Param({"1", "4"})
+        int parallelism;
+
+        /** Minimum number of pages processed by a single task. */
+        @Param({"8"})
+        int batchPages;
+
+        /** Encryption SPI. */
+        KeystoreEncryptionSpi encSpi;
+
+        /** Encryption utility. */
+        EncryptionUtil encUtil;
+
+        /** Group key. */
+        GroupKey grpKey;
+
+        /** Executor. */
+        ExecutorService exec;
+
+        /** */
+        @Setup
+        public void setup() {
+            encSpi = new KeystoreEncryptionSpi();
+
+            encSpi.setKeyStorePath(resolveIgnitePath("modules/core/src/test/resources/tde.jks").getAbsolutePath());
+            encSpi.setKeyStorePassword("tde-password".toCharArray());
+
+            encSpi.onBeforeStart();
+            encSpi.spiStart("test-instance");
+
+            encUtil = new EncryptionUtil(encSpi, PAGE_SIZE);
+
+            grpKey = new GroupKey(1, encSpi.create());
+
+            exec = Executors.newFixedThreadPool(parallelism);
+        }
+
+        /** */
+        @TearDown
+        public void tearDown() {
+            exec.shutdownNow();
+
+            encSpi.spiStop();
+        }
+    }
+
+    /** Buffers of a benchmark thread. */
+    @State(Scope.Thread)
+    public static class RunState {
+        /** Number of pages in a run. */
+        @Param({"1", "16", "64"})
+        int runLen;
+
+        /** Plain pages. */
+        ByteBuffer plain;
+
+        /** Encrypted pages. */
+        ByteBuffer encrypted;
+
+        /** Decrypted pages. */
+        ByteBuffer decrypted;
+
+        /**
+         * @param enc Encryption state.
+         */
+        @Setup
+        public void setup(EncryptionState enc) {
+            plain = ByteBuffer.allocateDirect(PAGE_SIZE * runLen).order(ByteOrder.nativeOrder());
+            encrypted = ByteBuffer.allocate(PAGE_SIZE * runLen);
+            decrypted = ByteBuffer.allocateDirect(PAGE_SIZE * runLen).order(ByteOrder.nativeOrder());
+
+            // The tail of a plain page reserved for the encryption overhead stays empty.
+            byte[] data = new byte[enc.encUtil.plainDataSize()];
+
+            for (int i = 0; i < runLen; i++) {
+                ThreadLocalRandom.current().nextBytes(data);
+
+                plain.position(i * PAGE_SIZE);
+                plain.put(data);
+            }
+
+            plain.clear();
+
+            for (int i = 0; i < runLen; i++)
+                enc.encUtil.encrypt(page(plain, i), page(encrypted, i), enc.grpKey);
+        }
+    }
+
+    /**
+     * Encrypts a run of pages.
+     *
+     * @param enc Encryption state.
+     * @param run Run buffers.
+     * @return Encrypted pages.
+     */
+    @Benchmark
+    public ByteBuffer encryptRun(EncryptionState enc, RunState run) {
+        forEachPage(enc, run.runLen,
+            i -> enc.encUtil.encrypt(page(run.plain, i), page(run.encrypted, i), enc.grpKey));
+
+        return run.encrypted;
+    }
+
+    /**
+     * Decrypts a run of pages.
+     *
+     * @param enc Encryption state.
+     * @param run Run buffers.
+     * @return Decrypted pages.
+     */
+    @Benchmark
+    public ByteBuffer decryptRun(EncryptionState enc, RunState run) {
+        forEachPage(enc, run.runLen, i -> {
+            try {
+                enc.encUtil.decrypt(page(run.encrypted, i), page(run.decrypted, i), enc.grpKey);
+            }
+            catch (IOException e) {
+                throw new IgniteCheckedException(e);
+            }
+        });
+
+        return run.decrypted;
+    }
+
+    /**
+     * @param enc Encryption state.
+     * @param pages Number of pages in the run.
+     * @param c Closure accepting the page index in the run.
+     */
+    private static void forEachPage(EncryptionState enc, int pages, PageClosure c) {
+        int parallelism = Math.min(enc.parallelism, pages / enc.batchPages);
+
+        try {
+            if (parallelism <= 1) {
+                for (int i = 0; i < pages; i++)
+                    c.apply(i);
+
+                return;
+            }
+
+            List<Integer> idxs = IntStream.range(0, pages).boxed().collect(Collectors.toList());
+
+            U.doInParallel(parallelism, enc.exec, idxs, i -> {
+                c.apply(i);
+
+                return null;
+            });
+        }
+        catch (IgniteCheckedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param buf Buffer containing a run of pages.
+     * @param idx Page index in the run.
+     * @return View of the page with the byte order of the buffer.
+     */
+    private static ByteBuffer page(ByteBuffer buf, int idx) {
+        ByteBuffer page = buf.duplicate();
+
+        page.limit((idx + 1) * PAGE_SIZE);
+        page.position(idx * PAGE_SIZE);
+
+        return page.slice().order(buf.order());
+    }
+
+    /**
+     * Closure processing a page of a run.
+     */
+    private interface PageClosure {
+        /**
+         * @param idx Page index in the run.
+         * @throws IgniteCheckedException If failed.
+         */
+        void apply(int idx) throws IgniteCheckedException;
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.benchmarks.jmh.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.ignite.internal.benchmarks.jmh.JmhAbstractBenchmark;
+import org.apache.ignite.internal.processors.cache.persistence.file.AsyncFileIOFactory;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileIO;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileIOFactory;
+import org.apache.ignite.internal.processors.cache.persistence.file.IoUringFileIOFactory;
+import org.apache.ignite.internal.processors.cache.persistence.file.RandomAccessFileIOFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Compares file I/O factories on the access patterns of page stores and WAL: random page reads of page misses,
+ * checkpoint writes of page runs and WAL buffer writes followed by fsync.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+public class JmhFileIOBenchmark extends JmhAbstractBenchmark {
+    /** Page size. */
+    private static final int PAGE_SIZE = 4096;
+
+    /** File size. */
+    private static final long FILE_SIZE = 256L * 1024 * 1024;
+
+    /**
+     * @param args Arguments.
+     * @throws Exception If failed.
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+            .include(JmhFileIOBenchmark.class.getSimpleName())
+            .threads(4)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    /** File shared by benchmark threads. */
+    @State(Scope.Benchmark)
+    public static class FileState {
+        /** Factory. */
+        @Param({"RandomAccess", "Async", "IoUring"})
+        String factory;
+
+        /** File. */
+        File file;
+
+        /** File I/O. */
+        FileIO io;
+
+        /**
+         * @throws IOException If failed.
+         */
+        @Setup
+        public void setup() throws IOException {
+            file = File.createTempFile("jmh-file-io", ".bin");
+
+            io = factory(factory).create(file, CREATE, READ, WRITE);
+
+            ByteBuffer buf = ByteBuffer.allocateDirect(1024 * 1024);
+
+            for (long pos = 0; pos < FILE_SIZE; pos += buf.capacity()) {
+                buf.clear();
+
+                io.writeFully(buf, pos);
+            }
+
+            io.force();
+        }
+
+        /**
+         * @throws IOException If failed.
+         */
+        @TearDown
+        public void tearDown() throws IOException {
+            io.close();
+
+            file.delete();
+        }
+    }
+
+    /** Buffers of a benchmark thread. */
+    @State(Scope.Thread)
+    public static class BufferState {
+        /** Number of pages in a run. */
+        @Param({"16"})
+        int runLen;
+
+        /** Page buffer. */
+        ByteBuffer page;
+
+        /** Buffer of a page run. */
+        ByteBuffer run;
+
+        /** */
+        @Setup
+        public void setup() {
+            page = ByteBuffer.allocateDirect(PAGE_SIZE).order(ByteOrder.nativeOrder());
+            run = ByteBuffer.allocateDirect(PAGE_SIZE * runLen).order(ByteOrder.nativeOrder());
+
+            byte[] bytes = new byte[run.capacity()];
+
+            ThreadLocalRandom.current().nextBytes(bytes);
+
+            run.put(bytes);
+        }
+    }
+
+    /**
+     * Reads a random page.
+     *
+     * @param file File.
+     * @param bufs Buffers.
+     * @return Number of read bytes.
+     * @throws IOException If failed.
+     */
+    @Benchmark
+    public int readPage(FileState file, BufferState bufs) throws IOException {
+        bufs.page.clear();
+
+        return file.io.readFully(bufs.page, randomPage(1) * PAGE_SIZE);
+    }
+
+    /**
+     * Writes a run of pages at a random position.
+     *
+     * @param file File.
+     * @param bufs Buffers.
+     * @return Number of written bytes.
+     * @throws IOException If failed.
+     */
+    @Benchmark
+    public int writePageRun(FileState file, BufferState bufs) throws IOException {
+        bufs.run.clear();
+
+        return file.io.writeFully(bufs.run, randomPage(bufs.runLen) * PAGE_SIZE);
+    }
+
+    /**
+     * Writes a run of pages at a random position and flushes it to the device.
+     *
+     * @param file File.
+     * @param bufs Buffers.
+     * @return Number of written bytes.
+     * @throws IOException If failed.
+     */
+    @Benchmark
+    public int writeAndFsync(FileState file, BufferState bufs) throws IOException {
+        int written = writePageRun(file, bufs);
+
+        file.io.force();
+
+        return written;
+    }
+
+    /**
+     * @param cnt Number of pages.
+     * @return Random index of the first of {@code cnt} pages.
+     */
+    private static long randomPage(int cnt) {
+        return ThreadLocalRandom.current().nextLong(FILE_SIZE / PAGE_SIZE - cnt);
+    }
+
+    /**
+     * @param name Factory name.
+     * @return Factory.
+     */
+    private static FileIOFactory factory(String name) {
+        switch (name) {
+            case "RandomAccess":
+                return new RandomAccessFileIOFactory();
+
+            case "Async":
+                return new AsyncFileIOFactory();
+
+            case "IoUring":
+                if (!IoUringFileIOFactory.isIoUringAvailable())
+                    throw new IllegalStateException(IoUringFileIOFactory.unavailableReason());
+
+                return new IoUringFileIOFactory();
+
+            default:
+                throw new IllegalArgumentException(name);
+        }
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.compress;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.github.luben.zstd.ZstdException;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.IgniteLogger;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.ZstdDictionaryCompressionConfiguration;
+import org.apache.ignite.internal.GridKernalContext;
+import org.apache.ignite.internal.processors.cache.compress.EntryCompressionStrategy;
+import org.apache.ignite.internal.util.typedef.internal.U;
+
+/**
+ * Entry compression strategy which compresses entries with zstd against a dictionary trained on sampled entries,
+ * see {@link ZstdDictionaryCompressionConfiguration}.
+ * <p>
+ * Dictionaries are versioned in the distributed metastorage under {@link #DICT_KEY_PREFIX} and the cache group name.
+ * A server node samples entries until a dictionary is available and publishes the trained one as the next version,
+ * if another node published the version first its dictionary is used instead. Every compressed entry is a plain
+ * zstd frame which carries the ID of its dictionary, so entries compressed with the previous versions are still
+ * readable.
+ */
+public class ZstdDictionaryCompressionStrategy implements EntryCompressionStrategy {
+    /** Distributed metastorage key prefix of the dictionaries. */
+    public static final String DICT_KEY_PREFIX = "entry.compression.zstd.";
+
+    /** Entries shorter than this are neither sampled nor compressed. */
+    private static final int MIN_SIZE = 32;
+
+    /** Mutex. */
+    private final Object mux = new Object();
+
+    /** Dictionaries by zstd dictionary ID. */
+    private final Map<Long, Dictionary> dicts = new ConcurrentHashMap<>();
+
+    /** Kernal context. */
+    private GridKernalContext ctx;
+
+    /** Logger. */
+    private IgniteLogger log;
+
+    /** Configuration. */
+    private ZstdDictionaryCompressionConfiguration cfg;
+
+    /** Distributed metastorage key prefix of the dictionaries of the cache group. */
+    private String keyPrefix;
+
+    /** Dictionary of the latest version to compress entries with, {@code null} until the first one is trained. */
+    private volatile Dictionary cur;
+
+    /** Latest known dictionary version. */
+    private int lastVer;
+
+    /** Samples collector, {@code null} if sampling is not in progress. */
+    private volatile ZstdDictTrainer trainer;
+
+    /** Size of the collected samples. */
+    private long sampledSize;
+
+    /** Closed flag. */
+    private volatile boolean closed;
+
+    /** {@inheritDoc} */
+    @Override public void start(GridKernalContext ctx, CacheConfiguration ccfg) {
+        this.ctx = ctx;
+
+        log = ctx.log(ZstdDictionaryCompressionStrategy.class);
+        cfg = (ZstdDictionaryCompressionConfiguration)ccfg.getEntryCompressionConfiguration();
+        keyPrefix = DICT_KEY_PREFIX + (ccfg.getGroupName() != null ? ccfg.getGroupName() : ccfg.getName()) + '.';
+
+        ctx.distributedMetastorage().listen(key -> key.startsWith(keyPrefix), (key, oldVal, newVal) -> {
+            if (newVal != null)
+                onDictionary(key, newVal);
+        });
+
+        loadDictionaries();
+
+        synchronized (mux) {
+            if (cur == null && !ctx.clientNode())
+                startSampling();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public byte[] tryCompress(byte[] bytes) {
+        if (bytes.length < MIN_SIZE)
+            return null;
+
+        Dictionary dict = cur;
+
+        if (dict == null) {
+            sample(bytes);
+
+            return null;
+        }
+
+        byte[] res = Zstd.compress(bytes, dict.compress);
+
+        return res.length < bytes.length ? res : null;
+    }
+
+    /** {@inheritDoc} */
+    @Override public byte[] decompress(byte[] bytes) {
+        long dictId = Zstd.getDictIdFromFrame(bytes);
+
+        Dictionary dict = dicts.get(dictId);
+
+        if (dict == null) {
+            // The dictionary may be published but not delivered to the listener yet.
+            loadDictionaries();
+
+            dict = dicts.get(dictId);
+
+            if (dict == null)
+                throw new IgniteException("Failed to decompress entry, dictionary is not found [dictId=" + dictId +
+                    ", prefix=" + keyPrefix + ']');
+        }
+
+        return Zstd.decompress(bytes, dict.decompress, (int)Zstd.decompressedSize(bytes));
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean compressKeys() {
+        return cfg.isCompressKeys();
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean stateless() {
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void close() {
+        synchronized (mux) {
+            closed = true;
+            trainer = null;
+            cur = null;
+
+            for (Dictionary dict : dicts.values()) {
+                dict.compress.close();
+                dict.decompress.close();
+            }
+
+            dicts.clear();
+        }
+    }
+
+    /**
+     * @return Version of the dictionary the entries are compressed with, {@code 0} if there is no dictionary yet.
+     */
+    public int dictionaryVersion() {
+        Dictionary dict = cur;
+
+        return dict != null ? dict.ver : 0;
+    }
+
+    /**
+     * Reads the published dictionaries of the cache group from the distributed metastorage.
+     */
+    private void loadDictionaries() {
+        try {
+            ctx.distributedMetastorage().iterate(keyPrefix, this::onDictionary);
+        }
+        catch (IgniteCheckedException e) {
+            U.warn(log, "Failed to read entry compression dictionaries [prefix=" + keyPrefix + ']', e);
+        }
+    }
+
+    /**
+     * Registers a published dictionary.
+     *
+     * @param key Distributed metastorage key.
+     * @param val Dictionary.
+     */
+    private void onDictionary(String key, Serializable val) {
+        int ver = version(key);
+
+        if (ver <= 0 || !(val instanceof byte[]))
+            return;
+
+        byte[] dictBytes = (byte[])val;
+
+        synchronized (mux) {
+            if (closed)
+                return;
+
+            long dictId = Zstd.getDictIdFromDict(dictBytes);
+
+            Dictionary dict = dicts.get(dictId);
+
+            if (dict == null) {
+                dict = new Dictionary(ver, new ZstdDictCompress(dictBytes, cfg.getCompressionLevel()),
+                    new ZstdDictDecompress(dictBytes));
+
+                dicts.put(dictId, dict);
+            }
+
+            lastVer = Math.max(lastVer, ver);
+
+            if (cur == null || cur.ver < ver) {
+                cur = dict;
+                trainer = null;
+
+                if (log.isInfoEnabled())
+                    log.info("Entry compression dictionary is activated [key=" + key + ", dictId=" + dictId + ']');
+            }
+        }
+    }
+
+    /**
+     * @param key Distributed metastorage key.
+     * @return Dictionary version or {@code -1} if the key belongs to another cache group.
+     */
+    private int version(String key) {
+        String ver = key.substring(keyPrefix.length());
+
+        for (int i = 0; i < ver.length(); i++) {
+            if (!Character.isDigit(ver.charAt(i)))
+                return -1;
+        }
+
+        return ver.isEmpty() || ver.length() > 9 ? -1 : Integer.parseInt(ver);
+    }
+
+    /**
+     * Starts collecting samples for the next dictionary.
+     */
+    private void startSampling() {
+        assert Thread.holdsLock(mux);
+
+        if (closed)
+            return;
+
+        sampledSize = 0;
+        trainer = new ZstdDictTrainer(cfg.getSamplesSize(), cfg.getDictionarySize());
+    }
+
+    /**
+     * Adds an entry to the samples and schedules training when enough samples are collected.
+     *
+     * @param bytes Entry bytes.
+     */
+    private void sample(byte[] bytes) {
+        if (trainer == null)
+            return;
+
+        synchronized (mux) {
+            ZstdDictTrainer trainer0 = trainer;
+
+            if (trainer0 == null)
+                return;
+
+            if (trainer0.addSample(bytes) && (sampledSize += bytes.length) < cfg.getSamplesSize())
+                return;
+
+            trainer = null;
+
+            ctx.pools().getSystemExecutorService().execute(() -> train(trainer0));
+        }
+    }
+
+    /**
+     * Trains a dictionary and publishes it as the next version.
+     *
+     * @param trainer0 Samples.
+     */
+    private void train(ZstdDictTrainer trainer0) {
+        byte[] dictBytes;
+
+        try {
+            dictBytes = trainer0.trainSamples();
+        }
+        catch (ZstdException e) {
+            U.warn(log, "Failed to train entry compression dictionary, will retry with new samples [prefix=" +
+                keyPrefix + ']', e);
+
+            restartSampling();
+
+            return;
+        }
+
+        int ver;
+
+        synchronized (mux) {
+            if (closed || cur != null)
+                return;
+
+            ver = lastVer + 1;
+        }
+
+        try {
+            // The dictionary becomes current on all nodes once the listener receives it.
+            ctx.distributedMetastorage().compareAndSetAsync(keyPrefix + ver, null, dictBytes).listen(fut -> {
+                try {
+                    fut.get();
+                }
+                catch (IgniteCheckedException e) {
+                    U.warn(log, "Failed to publish entry compression dictionary [key=" + keyPrefix + ver + ']', e);
+
+                    restartSampling();
+                }
+            });
+        }
+        catch (IgniteCheckedException e) {
+            U.warn(log, "Failed to publish entry compression dictionary [key=" + keyPrefix + ver + ']', e);
+
+            restartSampling();
+        }
+    }
+
+    /**
+     * Starts sampling again if there is still no dictionary.
+     */
+    private void restartSampling() {
+        synchronized (mux) {
+            if (cur == null)
+                startSampling();
+        }
+    }
+
+    /**
+     * Dictionary prepared for compression and decompression.
+     */
+    private static class Dictionary {
+        /** Version. */
+        private final int ver;
+
+        /** Compression dictionary. */
+        private final ZstdDictCompress compress;
+
+        /** Decompression dictionary. */
+        private final ZstdDictDecompress decompress;
+
+        /**
+         * @param ver Version.
+         * @param compress Compression dictionary.
+         * @param decompress Decompression dictionary.
+         */
+        private Dictionary(int ver, ZstdDictCompress compress, ZstdDictDecompress decompress) {
+            this.ver = ver;
+            this.compress = compress;
+            this.decompress = decompress;
+        }
+    }
+}
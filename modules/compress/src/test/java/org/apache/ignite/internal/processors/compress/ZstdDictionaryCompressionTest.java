@@ -0,0 +1,203 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.compress;
+
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.cluster.ClusterState;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.DataRegionConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.configuration.ZstdDictionaryCompressionConfiguration;
+import org.apache.ignite.internal.IgniteEx;
+import org.apache.ignite.internal.binary.BinaryObjectImpl;
+import org.apache.ignite.internal.util.typedef.internal.S;
+import org.apache.ignite.testframework.GridTestUtils;
+import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
+import org.junit.Test;
+
+import static org.apache.ignite.cache.CacheAtomicityMode.ATOMIC;
+
+/**
+ * Checks entry compression with zstd dictionaries.
+ */
+public class ZstdDictionaryCompressionTest extends GridCommonAbstractTest {
+    /** */
+    private static final int NODES = 2;
+
+    /** */
+    private static final int KEYS = 5_000;
+
+    /** {@inheritDoc} */
+    @Override protected IgniteConfiguration getConfiguration(String igniteInstanceName) throws Exception {
+        return super.getConfiguration(igniteInstanceName)
+            .setDataStorageConfiguration(new DataStorageConfiguration()
+                .setDefaultDataRegionConfiguration(new DataRegionConfiguration()
+                    .setPersistenceEnabled(true)))
+            .setCacheConfiguration(new CacheConfiguration<Integer, Person>(DEFAULT_CACHE_NAME)
+                .setAtomicityMode(ATOMIC)
+                .setBackups(1)
+                .setEntryCompressionConfiguration(new ZstdDictionaryCompressionConfiguration()
+                    .setDictionarySize(4 * 1024)
+                    .setSamplesSize(256 * 1024)));
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void beforeTest() throws Exception {
+        super.beforeTest();
+
+        cleanPersistenceDir();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        stopAllGrids();
+
+        cleanPersistenceDir();
+
+        super.afterTest();
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testCompression() throws Exception {
+        IgniteEx ignite = startGrids(NODES);
+
+        ignite.cluster().state(ClusterState.ACTIVE);
+
+        IgniteCache<Integer, Person> cache = ignite.cache(DEFAULT_CACHE_NAME);
+
+        // Entries put before the dictionary is trained stay uncompressed.
+        for (int i = 0; i < KEYS; i++)
+            cache.put(i, person(i));
+
+        assertTrue(GridTestUtils.waitForCondition(() -> {
+            for (int i = 0; i < NODES; i++) {
+                if (strategy(grid(i)).dictionaryVersion() == 0)
+                    return false;
+            }
+
+            return true;
+        }, getTestTimeout()));
+
+        for (int i = 0; i < NODES; i++)
+            assertEquals(strategy(ignite).dictionaryVersion(), strategy(grid(i)).dictionaryVersion());
+
+        byte[] bytes = ((BinaryObjectImpl)ignite.binary().toBinary(person(KEYS))).array();
+
+        byte[] compressed = strategy(ignite).tryCompress(bytes);
+
+        assertNotNull(compressed);
+        assertTrue("Poor compression [len=" + bytes.length + ", compressedLen=" + compressed.length + ']',
+            compressed.length * 2 < bytes.length);
+
+        for (int i = 0; i < KEYS; i += 2)
+            cache.put(i, person(i + 1));
+
+        checkData(cache);
+
+        stopAllGrids();
+
+        ignite = startGrids(NODES);
+
+        ignite.cluster().state(ClusterState.ACTIVE);
+
+        checkData(ignite.cache(DEFAULT_CACHE_NAME));
+    }
+
+    /**
+     * @param cache Cache.
+     */
+    private void checkData(IgniteCache<Integer, Person> cache) {
+        for (int i = 0; i < KEYS; i++)
+            assertEquals(person(i % 2 == 0 ? i + 1 : i), cache.get(i));
+    }
+
+    /**
+     * @param ignite Node.
+     * @return Compression strategy of the cache.
+     */
+    private static ZstdDictionaryCompressionStrategy strategy(IgniteEx ignite) {
+        return (ZstdDictionaryCompressionStrategy)ignite.cachex(DEFAULT_CACHE_NAME).context().group()
+            .entryCompressionStrategy();
+    }
+
+    /**
+     * @param id ID.
+     * @return Value with a lot of redundancy between entries.
+     */
+    private static Person person(int id) {
+        return new Person(id, "Person " + id, "{\"street\": \"Main street\", \"building\": " + (id % 100) +
+            ", \"city\": \"Springfield\", \"country\": \"United States\", \"zip\": \"" + (10000 + id % 1000) + "\"}",
+            "{\"status\": \"active\", \"tags\": [\"customer\", \"newsletter\"], \"score\": " + (id % 10) +
+            ", \"comment\": \"Regular customer, contact by email only\"}");
+    }
+
+    /** */
+    private static class Person {
+        /** */
+        private final int id;
+
+        /** */
+        private final String name;
+
+        /** */
+        private final String address;
+
+        /** */
+        private final String attrs;
+
+        /**
+         * @param id ID.
+         * @param name Name.
+         * @param address Address.
+         * @param attrs Attributes.
+         */
+        private Person(int id, String name, String address, String attrs) {
+            this.id = id;
+            this.name = name;
+            this.address = address;
+            this.attrs = attrs;
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean equals(Object o) {
+            if (this == o)
+                return true;
+
+            if (o == null || getClass() != o.getClass())
+                return false;
+
+            Person person = (Person)o;
+
+            return id == person.id && name.equals(person.name) && address.equals(person.address) &&
+                attrs.equals(person.attrs);
+        }
+
+        /** {@inheritDoc} */
+        @Override public int hashCode() {
+            return id;
+        }
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return S.toString(Person.class, this);
+        }
+    }
+}
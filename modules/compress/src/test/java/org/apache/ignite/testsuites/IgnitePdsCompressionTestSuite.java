@@ -23,6 +23,7 @@ import org.apache.ignite.internal.processors.cache.persistence.db.wal.IgnitePdsC
 import org.apache.ignite.internal.processors.cache.persistence.db.wal.WalCompactionAndPageCompressionTest;
 import org.apache.ignite.internal.processors.cache.persistence.db.wal.WalRecoveryWithPageCompressionTest;
 import org.apache.ignite.internal.processors.compress.WalPageCompressionIntegrationTest;
+import org.apache.ignite.internal.processors.compress.ZstdDictionaryCompressionTest;
 import org.apache.ignite.testframework.junits.DynamicSuite;
 import org.junit.runner.RunWith;
 
@@ -46,6 +47,9 @@ public class IgnitePdsCompressionTestSuite {
         suite.add(IgnitePdsCheckpointSimulationWithRealCpDisabledAndWalCompressionTest.class);
         suite.add(HistoricalRebalanceWithWalPageCompressionTest.class);
 
+        // Cache entries compression.
+        suite.add(ZstdDictionaryCompressionTest.class);
+
         enableCompressionByDefault();
         IgnitePdsTestSuite.addRealPageStoreTests(suite, null);
 
@@ -99,6 +99,9 @@ public enum CommandList {
     /** Start checkpoint on a cluster */
     CHECKPOINT("--checkpoint", new CheckpointCommand()),
 
+    /** Background page integrity scrubbing. */
+    SCRUB("--scrub", new ScrubCommand()),
+
     /** Kill command. */
     KILL("--kill", new KillCommand());
 
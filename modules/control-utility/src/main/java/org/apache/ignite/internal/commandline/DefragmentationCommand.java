@@ -35,8 +35,10 @@ import org.apache.ignite.internal.visor.defragmentation.VisorDefragmentationTask
 import org.apache.ignite.internal.visor.defragmentation.VisorDefragmentationTaskResult;
 
 import static org.apache.ignite.internal.commandline.Command.usage;
+import static org.apache.ignite.internal.commandline.CommandLogger.optional;
 import static org.apache.ignite.internal.commandline.CommandList.DEFRAGMENTATION;
 import static org.apache.ignite.internal.commandline.defragmentation.DefragmentationSubcommands.CANCEL;
+import static org.apache.ignite.internal.commandline.defragmentation.DefragmentationSubcommands.ONLINE;
 import static org.apache.ignite.internal.commandline.defragmentation.DefragmentationSubcommands.SCHEDULE;
 import static org.apache.ignite.internal.commandline.util.TopologyUtils.anyConnectableServerNode;
 
@@ -48,6 +50,9 @@ public class DefragmentationCommand extends AbstractCommand<DefragmentationArgum
     /** */
     private static final String CACHES_ARG = "--caches";
 
+    /** */
+    private static final String RATE_ARG = "--rate";
+
     /** */
     private DefragmentationArguments args;
 
@@ -118,6 +123,7 @@ public class DefragmentationCommand extends AbstractCommand<DefragmentationArgum
 
         switch (cmd) {
             case SCHEDULE:
+            case ONLINE:
                 List<String> consistentIds = null;
                 List<String> cacheNames = null;
 
@@ -158,6 +164,17 @@ public class DefragmentationCommand extends AbstractCommand<DefragmentationArgum
                             break;
                         }
 
+                        case RATE_ARG: {
+                            if (cmd != ONLINE)
+                                throw new IllegalArgumentException(RATE_ARG + " is only supported by online.");
+
+                            argIter.nextArg("");
+
+                            args.setRate(argIter.nextNonNegativeIntArg(RATE_ARG));
+
+                            break;
+                        }
+
                         default:
                             subarg = null;
                     }
@@ -209,6 +226,18 @@ public class DefragmentationCommand extends AbstractCommand<DefragmentationArgum
             cacheNames
         );
 
+        usage(
+            log,
+            "Start online PDS defragmentation on given nodes, optionally only for given caches " +
+                "and with limited number of moved rows per second:",
+            DEFRAGMENTATION,
+            ONLINE.text(),
+            NODES_ARG,
+            consistentIds,
+            optional(CACHES_ARG, cacheNames),
+            optional(RATE_ARG, "rowsPerSecond")
+        );
+
         usage(
             log,
             "Cancel scheduled or active PDS defragmentation on underlying node:",
@@ -226,7 +255,8 @@ public class DefragmentationCommand extends AbstractCommand<DefragmentationArgum
     private VisorDefragmentationTaskArg convertArguments() {
         return new VisorDefragmentationTaskArg(
             convertSubcommand(args.subcommand()),
-            args.cacheNames()
+            args.cacheNames(),
+            args.rate()
         );
     }
 
@@ -242,6 +272,9 @@ public class DefragmentationCommand extends AbstractCommand<DefragmentationArgum
             case CANCEL:
                 return VisorDefragmentationOperation.CANCEL;
 
+            case ONLINE:
+                return VisorDefragmentationOperation.ONLINE;
+
             default:
                 throw new IllegalArgumentException(subcmd.name());
         }
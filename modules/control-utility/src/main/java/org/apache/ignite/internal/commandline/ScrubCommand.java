@@ -0,0 +1,170 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.ignite.internal.commandline;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import org.apache.ignite.internal.client.GridClient;
+import org.apache.ignite.internal.client.GridClientCompute;
+import org.apache.ignite.internal.client.GridClientConfiguration;
+import org.apache.ignite.internal.client.GridClientDisconnectedException;
+import org.apache.ignite.internal.client.GridClientNode;
+import org.apache.ignite.internal.util.typedef.F;
+import org.apache.ignite.internal.visor.VisorTaskArgument;
+import org.apache.ignite.internal.visor.scrub.VisorScrubOperation;
+import org.apache.ignite.internal.visor.scrub.VisorScrubTask;
+import org.apache.ignite.internal.visor.scrub.VisorScrubTaskArg;
+
+import static org.apache.ignite.internal.commandline.Command.usage;
+import static org.apache.ignite.internal.commandline.CommandList.SCRUB;
+import static org.apache.ignite.internal.commandline.CommandLogger.optional;
+import static org.apache.ignite.internal.visor.scrub.VisorScrubOperation.START;
+
+/**
+ * Command to start, cancel or print the status of the background page scrubbing on all server nodes.
+ */
+public class ScrubCommand extends AbstractCommand<VisorScrubTaskArg> {
+    /** */
+    private static final String CACHES_ARG = "--caches";
+
+    /** */
+    private static final String RATE_ARG = "--rate";
+
+    /** */
+    private VisorScrubTaskArg arg;
+
+    /** {@inheritDoc} */
+    @Override public Object execute(GridClientConfiguration clientCfg, Logger log) throws Exception {
+        try (GridClient client = Command.startClient(clientCfg)) {
+            GridClientCompute compute = client.compute();
+
+            Collection<GridClientNode> nodes = compute.nodes(n -> n.connectable() && !n.isClient());
+
+            if (F.isEmpty(nodes))
+                throw new GridClientDisconnectedException("Connectable nodes not found", null);
+
+            String res = compute.projection(nodes).execute(
+                VisorScrubTask.class.getName(),
+                new VisorTaskArgument<>(nodes.stream().map(GridClientNode::nodeId).collect(Collectors.toList()),
+                    arg, false)
+            );
+
+            log.info(res);
+        }
+        catch (Throwable t) {
+            log.severe("Failed to execute page scrubbing command='" +
+                arg.operation().name().toLowerCase(Locale.ENGLISH) + "'");
+            log.severe(CommandLogger.errorMessage(t));
+
+            throw t;
+        }
+
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void parseArguments(CommandArgIterator argIter) {
+        String op = argIter.nextArg("Expected page scrubbing subcommand.");
+
+        VisorScrubOperation cmd;
+
+        try {
+            cmd = VisorScrubOperation.valueOf(op.toUpperCase(Locale.ENGLISH));
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Expected correct page scrubbing subcommand: " + op);
+        }
+
+        List<String> cacheNames = null;
+        int rate = -1;
+
+        if (cmd == START) {
+            String subarg;
+
+            do {
+                subarg = argIter.peekNextArg();
+
+                if (subarg == null)
+                    break;
+
+                subarg = subarg.toLowerCase(Locale.ENGLISH);
+
+                switch (subarg) {
+                    case CACHES_ARG: {
+                        argIter.nextArg("");
+
+                        Set<String> names = argIter.nextStringSet(CACHES_ARG);
+
+                        if (names.isEmpty())
+                            throw new IllegalArgumentException("Caches list is empty.");
+
+                        cacheNames = new ArrayList<>(names);
+
+                        break;
+                    }
+
+                    case RATE_ARG: {
+                        argIter.nextArg("");
+
+                        rate = argIter.nextNonNegativeIntArg(RATE_ARG);
+
+                        break;
+                    }
+
+                    default:
+                        subarg = null;
+                }
+            }
+            while (subarg != null);
+        }
+
+        arg = new VisorScrubTaskArg(cmd, cacheNames, rate);
+    }
+
+    /** {@inheritDoc} */
+    @Override public VisorScrubTaskArg arg() {
+        return arg;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void printUsage(Logger log) {
+        usage(
+            log,
+            "Start background check of CRC and structure of persistent pages on all server nodes, optionally only " +
+                "for given caches and with limited read rate (0 for unlimited):",
+            SCRUB,
+            START.name().toLowerCase(Locale.ENGLISH),
+            optional(CACHES_ARG, "cache1,cache2,cache3"),
+            optional(RATE_ARG, "megabytesPerSecond")
+        );
+
+        usage(log, "Print status of page scrubbing on all server nodes:", SCRUB, "status");
+
+        usage(log, "Cancel page scrubbing on all server nodes:", SCRUB, "cancel");
+    }
+
+    /** {@inheritDoc} */
+    @Override public String name() {
+        return SCRUB.toCommandName();
+    }
+}
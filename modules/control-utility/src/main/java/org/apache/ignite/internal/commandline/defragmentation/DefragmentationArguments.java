@@ -30,6 +30,9 @@ public class DefragmentationArguments {
     /** */
     private List<String> cacheNames;
 
+    /** */
+    private int rate;
+
     /** */
     public DefragmentationArguments(DefragmentationSubcommands subcmd) {
         this.subcmd = subcmd;
@@ -59,4 +62,14 @@ public class DefragmentationArguments {
     public List<String> cacheNames() {
         return cacheNames;
     }
+
+    /** */
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    /** */
+    public int rate() {
+        return rate;
+    }
 }
@@ -45,7 +45,10 @@ public enum DefragmentationSubcommands {
     STATUS("status", VisorDefragmentationOperation.STATUS),
 
     /** */
-    CANCEL("cancel", VisorDefragmentationOperation.CANCEL);
+    CANCEL("cancel", VisorDefragmentationOperation.CANCEL),
+
+    /** */
+    ONLINE("online", VisorDefragmentationOperation.ONLINE);
 
     /** */
     private final String name;
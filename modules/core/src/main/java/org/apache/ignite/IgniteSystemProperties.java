@@ -95,10 +95,14 @@ import static org.apache.ignite.internal.processors.cache.persistence.checkpoint
 import static org.apache.ignite.internal.processors.cache.persistence.diagnostic.pagelocktracker.PageLockTrackerFactory.DFLT_PAGE_LOCK_TRACKER_CAPACITY;
 import static org.apache.ignite.internal.processors.cache.persistence.diagnostic.pagelocktracker.PageLockTrackerFactory.HEAP_LOG;
 import static org.apache.ignite.internal.processors.cache.persistence.diagnostic.pagelocktracker.SharedPageLockTracker.DFLT_PAGE_LOCK_TRACKER_CHECK_INTERVAL;
+import static org.apache.ignite.internal.processors.cache.persistence.file.EncryptedFileIO.DFLT_PDS_ENCRYPTION_BATCH_PAGES;
 import static org.apache.ignite.internal.processors.cache.persistence.pagemem.FullPageIdTable.DFLT_LONG_LONG_HASH_MAP_LOAD_FACTOR;
 import static org.apache.ignite.internal.processors.cache.persistence.pagemem.PageMemoryImpl.DFLT_DELAYED_REPLACED_PAGE_WRITE;
 import static org.apache.ignite.internal.processors.cache.persistence.pagemem.PageMemoryImpl.DFLT_LOADED_PAGES_BACKWARD_SHIFT_MAP;
 import static org.apache.ignite.internal.processors.cache.persistence.pagemem.PagesWriteThrottlePolicy.DFLT_THROTTLE_LOG_THRESHOLD;
+import static org.apache.ignite.internal.processors.cache.persistence.scrub.PageScrubber.DFLT_PDS_SCRUB_INTERVAL;
+import static org.apache.ignite.internal.processors.cache.persistence.scrub.PageScrubber.DFLT_PDS_SCRUB_RATE;
+import static org.apache.ignite.internal.processors.cache.persistence.tree.BPlusTree.DFLT_BPLUS_TREE_OPTIMISTIC_READS;
 import static org.apache.ignite.internal.processors.cache.persistence.tree.BPlusTree.IGNITE_BPLUS_TREE_LOCK_RETRIES_DEFAULT;
 import static org.apache.ignite.internal.processors.cache.persistence.wal.FileWriteAheadLogManager.DFLT_CHECKPOINT_TRIGGER_ARCHIVE_SIZE_PERCENTAGE;
 import static org.apache.ignite.internal.processors.cache.persistence.wal.FileWriteAheadLogManager.DFLT_THRESHOLD_WAIT_TIME_NEXT_WAL_SEGMENT;
@@ -1145,6 +1149,17 @@ public final class IgniteSystemProperties {
         "0 means that inline index store is disabled", type = Integer.class, defaults = "10")
     public static final String IGNITE_MAX_INDEX_PAYLOAD_SIZE = "IGNITE_MAX_INDEX_PAYLOAD_SIZE";
 
+    /**
+     * When set to {@code true}, new secondary indexes with a string first column are created with compressed
+     * inlined keys: the common prefix of the keys of a page is stored once per page and the rest of the key is
+     * truncated to a half of the inline size in leaf pages and to a quarter in inner pages. This allows more keys to
+     * fit into a page, comparisons which can't be resolved by a truncated key read the row. Existing indexes keep
+     * their format.
+     */
+    @SystemProperty(value = "Enables compression of inlined keys for new secondary indexes with a string first column",
+        defaults = "false")
+    public static final String IGNITE_SQL_INDEX_KEY_COMPRESSION = "IGNITE_SQL_INDEX_KEY_COMPRESSION";
+
     /**
      * Time interval for calculating rebalance rate statistics, in milliseconds. Defaults to 60000.
      * @deprecated Use {@link MetricsMxBean#configureHitRateMetric(String, long)} instead.
@@ -1214,6 +1229,52 @@ public final class IgniteSystemProperties {
         "This property is intended for integration or performance tests")
     public static final String IGNITE_PREFER_WAL_REBALANCE = "IGNITE_PREFER_WAL_REBALANCE";
 
+    /**
+     * Enables full rebalance of persistent partitions by sending checkpointed partition files instead of entries.
+     * Cache groups with SQL indexes, encrypted and MVCC cache groups are rebalanced by entries.
+     * Default is {@code false}.
+     */
+    @SystemProperty("Enables full rebalance of persistent partitions by sending checkpointed partition files " +
+        "instead of entries")
+    public static final String IGNITE_PDS_FILE_REBALANCE_ENABLED = "IGNITE_PDS_FILE_REBALANCE_ENABLED";
+
+    /**
+     * Enables eviction of persistent partitions by destroying the partition file on a checkpoint instead of removing
+     * the rows one by one. Cache groups with SQL indexes, MVCC cache groups, groups with local cache stores and groups
+     * recording object unload events are evicted by rows.
+     * Default is {@code false}.
+     */
+    @SystemProperty("Enables eviction of persistent partitions by destroying the partition file instead of " +
+        "removing the rows")
+    public static final String IGNITE_PDS_DROP_PARTITION_ON_EVICTION = "IGNITE_PDS_DROP_PARTITION_ON_EVICTION";
+
+    /**
+     * Maximum read rate of the page scrubber in megabytes per second, {@code 0} for unlimited. The rate is reduced
+     * while a checkpoint writes pages.
+     */
+    @SystemProperty(value = "Maximum read rate of the page scrubber in megabytes per second, 0 for unlimited",
+        type = Integer.class, defaults = "" + DFLT_PDS_SCRUB_RATE)
+    public static final String IGNITE_PDS_SCRUB_RATE = "IGNITE_PDS_SCRUB_RATE";
+
+    /**
+     * Interval in milliseconds between scheduled runs of the page scrubber, which checks CRC and structure of
+     * the persistent pages in background. Scheduled runs are disabled by default, the scrubber can be started
+     * with the control utility.
+     */
+    @SystemProperty(value = "Interval in milliseconds between scheduled runs of the page scrubber, 0 disables " +
+        "scheduled runs", type = Long.class, defaults = "" + DFLT_PDS_SCRUB_INTERVAL)
+    public static final String IGNITE_PDS_SCRUB_INTERVAL = "IGNITE_PDS_SCRUB_INTERVAL";
+
+    /**
+     * Minimum number of pages encrypted or decrypted by a single task when a run of pages with contiguous indexes
+     * of an encrypted cache group is written or read. Longer runs are processed in parallel by the system pool
+     * together with the thread performing the IO, {@code 0} disables the parallel processing.
+     */
+    @SystemProperty(value = "Minimum number of pages encrypted or decrypted by a single task when a run of " +
+        "contiguous pages of an encrypted cache group is written or read, 0 disables parallel processing",
+        type = Integer.class, defaults = "" + DFLT_PDS_ENCRYPTION_BATCH_PAGES)
+    public static final String IGNITE_PDS_ENCRYPTION_BATCH_PAGES = "IGNITE_PDS_ENCRYPTION_BATCH_PAGES";
+
     /**
      * Threshold of the checkpoint quantity since the last earliest checkpoint map snapshot.
      * After this thresold is reached, a snapshot of the earliest checkpoint map will be captured.
@@ -1526,6 +1587,14 @@ public final class IgniteSystemProperties {
         defaults = "" + IGNITE_BPLUS_TREE_LOCK_RETRIES_DEFAULT)
     public static final String IGNITE_BPLUS_TREE_LOCK_RETRIES = "IGNITE_BPLUS_TREE_LOCK_RETRIES";
 
+    /**
+     * Enables optimistic reads of B+Tree inner pages which are validated by the page version instead of taking
+     * the page read lock.
+     */
+    @SystemProperty(value = "Enables optimistic reads of B+Tree inner pages which are validated by the page " +
+        "version instead of taking the page read lock", defaults = "" + DFLT_BPLUS_TREE_OPTIMISTIC_READS)
+    public static final String IGNITE_BPLUS_TREE_OPTIMISTIC_READS = "IGNITE_BPLUS_TREE_OPTIMISTIC_READS";
+
     /**
      * Amount of memory reserved in the heap at node start, which can be dropped to increase the chances of success when
      * handling OutOfMemoryError.
@@ -1852,6 +1921,15 @@ public final class IgniteSystemProperties {
     public static final String IGNITE_FAIL_NODE_ON_UNRECOVERABLE_PARTITION_INCONSISTENCY =
         "IGNITE_FAIL_NODE_ON_UNRECOVERABLE_PARTITION_INCONSISTENCY";
 
+    /**
+     * When set to {@code true}, partitions of in-memory non-MVCC cache groups maintain an extendible hash index
+     * of the keys next to the data tree. Point lookups by key are served by the hash index with a single bucket
+     * page access instead of a descent of the tree. The index is not persisted.
+     */
+    @SystemProperty(value = "Enables a per-partition hash index for point lookups by key in in-memory caches",
+        defaults = "false")
+    public static final String IGNITE_CACHE_DATA_HASH_INDEX = "IGNITE_CACHE_DATA_HASH_INDEX";
+
     /**
      * Allow use composite _key, _val columns at the INSERT/UPDATE/MERGE statements.
      */
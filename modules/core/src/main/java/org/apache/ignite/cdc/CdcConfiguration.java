@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.cdc;
+
+import org.apache.ignite.internal.util.typedef.internal.S;
+import org.apache.ignite.lang.IgniteExperimental;
+
+/**
+ * Configuration of the change data capture application.
+ * <p>
+ * The application runs as a separate process on the host of an Ignite server node. It reads the WAL archive
+ * of the node and passes the data changes to the {@link CdcConsumer}, so the changes are streamed without any load
+ * on the node. The position of the last consumed change is saved to the WAL archive directory. The node retains
+ * archive segments until the changes they contain are consumed if
+ * {@link org.apache.ignite.configuration.DataStorageConfiguration#setCdcEnabled(boolean)} is set.
+ * <p>
+ * Only changes of committed entries are captured, rebalancing, MVCC and encrypted caches are not supported.
+ */
+@IgniteExperimental
+public class CdcConfiguration {
+    /** Default archive check frequency in milliseconds. */
+    public static final long DFLT_CHECK_FREQ = 1000;
+
+    /** Default maximum number of changes in a batch. */
+    public static final int DFLT_MAX_BATCH_SIZE = 1024;
+
+    /** Consumer. */
+    private CdcConsumer consumer;
+
+    /** Keep binary flag. */
+    private boolean keepBinary = true;
+
+    /** Archive check frequency in milliseconds. */
+    private long checkFreq = DFLT_CHECK_FREQ;
+
+    /** Maximum number of changes in a batch. */
+    private int maxBatchSize = DFLT_MAX_BATCH_SIZE;
+
+    /**
+     * @return Consumer of the changes.
+     */
+    public CdcConsumer getConsumer() {
+        return consumer;
+    }
+
+    /**
+     * @param consumer Consumer of the changes.
+     * @return {@code this} for chaining.
+     */
+    public CdcConfiguration setConsumer(CdcConsumer consumer) {
+        this.consumer = consumer;
+
+        return this;
+    }
+
+    /**
+     * @return {@code True} if keys and values are passed to the consumer as binary objects.
+     */
+    public boolean isKeepBinary() {
+        return keepBinary;
+    }
+
+    /**
+     * Sets flag indicating whether keys and values are passed to the consumer as binary objects. If not set,
+     * the classes of the keys and values must be in the classpath of the application.
+     *
+     * @param keepBinary Keep binary flag.
+     * @return {@code this} for chaining.
+     */
+    public CdcConfiguration setKeepBinary(boolean keepBinary) {
+        this.keepBinary = keepBinary;
+
+        return this;
+    }
+
+    /**
+     * @return Frequency of the WAL archive checks for new segments in milliseconds.
+     */
+    public long getCheckFrequency() {
+        return checkFreq;
+    }
+
+    /**
+     * @param checkFreq Frequency of the WAL archive checks for new segments in milliseconds.
+     * @return {@code this} for chaining.
+     */
+    public CdcConfiguration setCheckFrequency(long checkFreq) {
+        this.checkFreq = checkFreq;
+
+        return this;
+    }
+
+    /**
+     * @return Maximum number of changes passed to {@link CdcConsumer#onEvents} at once.
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * @param maxBatchSize Maximum number of changes passed to {@link CdcConsumer#onEvents} at once.
+     * @return {@code this} for chaining.
+     */
+    public CdcConfiguration setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(CdcConfiguration.class, this);
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.cdc;
+
+import java.util.Iterator;
+import org.apache.ignite.lang.IgniteExperimental;
+
+/**
+ * Consumer of the changes captured from the WAL archive of a node.
+ * <p>
+ * The change data capture application calls the consumer from a single thread. Once the consumer confirms
+ * the changes, the WAL position after them is saved and the changes are not delivered again after restart.
+ * Unconfirmed changes are delivered again after restart of the application.
+ *
+ * @see CdcConfiguration
+ */
+@IgniteExperimental
+public interface CdcConsumer {
+    /**
+     * Starts the consumer.
+     */
+    public void start();
+
+    /**
+     * Handles the next batch of changes in the order they were written to the WAL.
+     *
+     * @param evts Changes.
+     * @return {@code True} if the changes are consumed and the position after them can be saved.
+     */
+    public boolean onEvents(Iterator<CdcEvent> evts);
+
+    /**
+     * Stops the consumer.
+     */
+    public void stop();
+}
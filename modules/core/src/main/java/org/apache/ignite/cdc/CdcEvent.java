@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.cdc;
+
+import org.apache.ignite.lang.IgniteExperimental;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Change of a cache entry captured from the WAL archive of a node.
+ *
+ * @see CdcConsumer
+ */
+@IgniteExperimental
+public interface CdcEvent {
+    /**
+     * @return Key, a binary object if {@link CdcConfiguration#isKeepBinary()} is set.
+     */
+    public Object key();
+
+    /**
+     * @return Value, {@code null} if the entry was removed.
+     */
+    @Nullable public Object value();
+
+    /**
+     * @return {@code True} if the change was made on the primary node of the entry. Backup nodes capture
+     * the same changes with this flag unset.
+     */
+    public boolean primary();
+
+    /**
+     * @return Partition.
+     */
+    public int partition();
+
+    /**
+     * @return Cache ID.
+     */
+    public int cacheId();
+
+    /**
+     * @return Update counter of the partition.
+     */
+    public long partitionCounter();
+}
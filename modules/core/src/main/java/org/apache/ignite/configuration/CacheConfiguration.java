@@ -127,6 +127,12 @@ public class CacheConfiguration<K, V> extends MutableConfiguration<K, V> {
     /** Default maximum inline size for sql indexes. */
     public static final int DFLT_SQL_INDEX_MAX_INLINE_SIZE = -1;
 
+    /** Default inline size of cache data tree rows, {@code 0} means that rows are not inlined. */
+    public static final int DFLT_DATA_INLINE_SIZE = 0;
+
+    /** Maximum inline size of cache data tree rows. */
+    public static final int MAX_DATA_INLINE_SIZE = 512;
+
     /** Initial default near cache size. */
     public static final int DFLT_NEAR_START_SIZE = 1500000 / 4;
 
@@ -318,6 +324,9 @@ public class CacheConfiguration<K, V> extends MutableConfiguration<K, V> {
     /** Maximum inline size for sql indexes. */
     private int sqlIdxMaxInlineSize = DFLT_SQL_INDEX_MAX_INLINE_SIZE;
 
+    /** Inline size of cache data tree rows. */
+    private int dataInlineSize = DFLT_DATA_INLINE_SIZE;
+
     /** Write-behind feature. */
     private boolean writeBehindEnabled = DFLT_WRITE_BEHIND_ENABLED;
 
@@ -464,6 +473,7 @@ public class CacheConfiguration<K, V> extends MutableConfiguration<K, V> {
         cacheMode = cc.getCacheMode();
         cacheWriterFactory = cc.getCacheWriterFactory();
         cpOnRead = cc.isCopyOnRead();
+        dataInlineSize = cc.getDataInlineSize();
         dfltLockTimeout = cc.getDefaultLockTimeout();
         eagerTtl = cc.isEagerTtl();
         encryptionEnabled = cc.isEncryptionEnabled();
@@ -1377,6 +1387,33 @@ public class CacheConfiguration<K, V> extends MutableConfiguration<K, V> {
         return this;
     }
 
+    /**
+     * Gets inline size of cache data tree rows. A row whose serialized key, value, version and expire time
+     * fit this size is copied to the leaf page of the cache data tree, so a key lookup doesn't need to read
+     * the data page of the row. Rows are still written to data pages, so the inline copy costs extra space.
+     * <p>
+     * If not set, default value is {@link #DFLT_DATA_INLINE_SIZE}, rows are not inlined. Ignored for
+     * caches with {@link CacheAtomicityMode#TRANSACTIONAL_SNAPSHOT} atomicity mode.
+     *
+     * @return Inline size of cache data tree rows.
+     */
+    public int getDataInlineSize() {
+        return dataInlineSize;
+    }
+
+    /**
+     * Sets inline size of cache data tree rows. Must be in range from {@code 0} to {@link #MAX_DATA_INLINE_SIZE}.
+     * All caches of a cache group must have the same inline size.
+     *
+     * @param dataInlineSize Inline size of cache data tree rows, {@code 0} disables inlining.
+     * @return {@code this} for chaining.
+     */
+    public CacheConfiguration<K, V> setDataInlineSize(int dataInlineSize) {
+        this.dataInlineSize = dataInlineSize;
+
+        return this;
+    }
+
     /**
      * Flag indicating whether Ignite should use write-behind behaviour for the cache store.
      * By default write-behind is disabled which is defined via {@link #DFLT_WRITE_BEHIND_ENABLED}
@@ -125,6 +125,15 @@ public class DataStorageConfiguration implements Serializable {
     /** Default checkpoint write order. */
     public static final CheckpointWriteOrder DFLT_CHECKPOINT_WRITE_ORDER = CheckpointWriteOrder.SEQUENTIAL;
 
+    /** Default maximum number of contiguous pages written by one checkpoint write, pages are written one by one. */
+    public static final int DFLT_CHECKPOINT_WRITE_RUN_LENGTH = 1;
+
+    /** Default double-write buffer enabled flag. */
+    public static final boolean DFLT_DOUBLE_WRITE_BUFFER_ENABLED = false;
+
+    /** Default maximum size of the double-write file. */
+    public static final long DFLT_DOUBLE_WRITE_BUFFER_SIZE = 64L * 1024 * 1024;
+
     /** Default number of checkpoints to be kept in WAL after checkpoint is finished */
     public static final int DFLT_WAL_HISTORY_SIZE = 20;
 
@@ -164,6 +173,9 @@ public class DataStorageConfiguration implements Serializable {
     /** Default wal archive directory. */
     public static final String DFLT_WAL_ARCHIVE_PATH = "db/wal/archive";
 
+    /** Default size of the unit of WAL segment striping in bytes. */
+    public static final int DFLT_WAL_STRIPE_SIZE = 256 * 1024;
+
     /** Default path (relative to working directory) of binary metadata folder */
     public static final String DFLT_BINARY_METADATA_PATH = "db/binary_meta";
 
@@ -176,6 +188,15 @@ public class DataStorageConfiguration implements Serializable {
     /** Default wal compaction enabled. */
     public static final boolean DFLT_WAL_COMPACTION_ENABLED = false;
 
+    /** Default WAL compaction block format enabled flag. */
+    public static final boolean DFLT_WAL_COMPACTION_BLOCK_FORMAT_ENABLED = false;
+
+    /** Default WAL partition index enabled flag. */
+    public static final boolean DFLT_WAL_PARTITION_INDEX_ENABLED = false;
+
+    /** Default change data capture enabled flag. */
+    public static final boolean DFLT_CDC_ENABLED = false;
+
     /** Default wal compaction level. */
     public static final int DFLT_WAL_COMPACTION_LEVEL = Deflater.BEST_SPEED;
 
@@ -226,6 +247,15 @@ public class DataStorageConfiguration implements Serializable {
     /** Checkpoint write order. */
     private CheckpointWriteOrder checkpointWriteOrder = DFLT_CHECKPOINT_WRITE_ORDER;
 
+    /** Maximum number of contiguous pages written by one checkpoint write. */
+    private int checkpointWriteRunLen = DFLT_CHECKPOINT_WRITE_RUN_LENGTH;
+
+    /** Double-write buffer enabled flag. */
+    private boolean doubleWriteBufEnabled = DFLT_DOUBLE_WRITE_BUFFER_ENABLED;
+
+    /** Maximum size of the double-write file. */
+    private long doubleWriteBufSize = DFLT_DOUBLE_WRITE_BUFFER_SIZE;
+
     /** Number of checkpoints to keep */
     private int walHistSize = DFLT_WAL_HISTORY_SIZE;
 
@@ -244,6 +274,12 @@ public class DataStorageConfiguration implements Serializable {
     /** WAL archive path. */
     private String walArchivePath = DFLT_WAL_ARCHIVE_PATH;
 
+    /** Additional directories the WAL work segments are striped across. */
+    private String[] walStripePaths;
+
+    /** Size of the unit of WAL segment striping in bytes. */
+    private int walStripeSize = DFLT_WAL_STRIPE_SIZE;
+
     /** Metrics enabled flag. */
     private boolean metricsEnabled = DFLT_METRICS_ENABLED;
 
@@ -302,6 +338,15 @@ public class DataStorageConfiguration implements Serializable {
      */
     private boolean walCompactionEnabled = DFLT_WAL_COMPACTION_ENABLED;
 
+    /** WAL compaction block format enabled flag. */
+    private boolean walCompactionBlockFormatEnabled = DFLT_WAL_COMPACTION_BLOCK_FORMAT_ENABLED;
+
+    /** WAL partition index enabled flag. */
+    private boolean walPartIdxEnabled = DFLT_WAL_PARTITION_INDEX_ENABLED;
+
+    /** Change data capture enabled flag. */
+    private boolean cdcEnabled = DFLT_CDC_ENABLED;
+
     /**
      * ZIP level to WAL compaction.
      *
@@ -739,6 +784,60 @@ public class DataStorageConfiguration implements Serializable {
         return this;
     }
 
+    /**
+     * Gets paths to the additional directories the WAL work segments are striped across.
+     *
+     * @return WAL stripe directories or {@code null} if WAL striping is disabled.
+     * @see #setWalStripePaths(String...)
+     */
+    public String[] getWalStripePaths() {
+        return walStripePaths;
+    }
+
+    /**
+     * Sets paths to the additional directories the WAL work segments are striped across. Each work segment is split
+     * into units of {@link #getWalStripeSize()} bytes which are placed round-robin to the WAL work directory and
+     * these directories, so WAL records are written and synced on several disks in parallel. Segments are
+     * assembled back to regular files when they are copied to the WAL archive, so the WAL archiver must be enabled.
+     * If a path is relative, it will be resolved relatively to Ignite work directory.
+     * <p>
+     * Striping can be enabled on a node with existing WAL, but the number of stripes can't be changed and
+     * striping can't be disabled afterwards.
+     *
+     * @param walStripePaths WAL stripe directories, absolute or relative to Ignite work directory.
+     * @return {@code this} for chaining.
+     */
+    public DataStorageConfiguration setWalStripePaths(String... walStripePaths) {
+        this.walStripePaths = walStripePaths;
+
+        return this;
+    }
+
+    /**
+     * Gets size of the unit of WAL segment striping.
+     * Default value is {@link #DFLT_WAL_STRIPE_SIZE}.
+     *
+     * @return Stripe unit size in bytes.
+     */
+    public int getWalStripeSize() {
+        return walStripeSize;
+    }
+
+    /**
+     * Sets size of the unit of WAL segment striping.
+     * Default value is {@link #DFLT_WAL_STRIPE_SIZE}.
+     *
+     * @param walStripeSize Stripe unit size in bytes.
+     * @return {@code this} for chaining.
+     */
+    public DataStorageConfiguration setWalStripeSize(int walStripeSize) {
+        A.ensure(walStripeSize > 0, "WAL stripe size must be greater than 0.");
+
+        this.walStripeSize = walStripeSize;
+
+        return this;
+    }
+
     /**
      * Gets flag indicating whether persistence metrics collection is enabled.
      * Default value is {@link #DFLT_METRICS_ENABLED}.
@@ -930,8 +1029,10 @@ public class DataStorageConfiguration implements Serializable {
 
     /**
      * @return Property that allows to trade latency for throughput in {@link WALMode#FSYNC} mode.
-     * It limits minimum time interval between WAL fsyncs. First thread that initiates WAL fsync will wait for
-     * this number of nanoseconds, another threads will just wait fsync of first thread (similar to CyclicBarrier).
+     * Concurrent commits are grouped to be covered by one WAL fsync: first thread that initiates WAL fsync waits
+     * for other committing threads, another threads will just wait fsync of first thread (similar to CyclicBarrier).
+     * The wait time adapts to the measured fsync latency and the number of concurrent commits, this property is
+     * its lower bound under concurrency. A single committing thread doesn't wait.
      * Total throughput should increase under load as total WAL fsync rate will be limited.
      */
     public long getWalFsyncDelayNanos() {
@@ -940,8 +1041,10 @@ public class DataStorageConfiguration implements Serializable {
 
     /**
      * Sets property that allows to trade latency for throughput in {@link WALMode#FSYNC} mode.
-     * It limits minimum time interval between WAL fsyncs. First thread that initiates WAL fsync will wait for
-     * this number of nanoseconds, another threads will just wait fsync of first thread (similar to CyclicBarrier).
+     * Concurrent commits are grouped to be covered by one WAL fsync: first thread that initiates WAL fsync waits
+     * for other committing threads, another threads will just wait fsync of first thread (similar to CyclicBarrier).
+     * The wait time adapts to the measured fsync latency and the number of concurrent commits, this property is
+     * its lower bound under concurrency. A single committing thread doesn't wait.
      * Total throughput should increase under load as total WAL fsync rate will be limited.
      *
      * @param walFsyncDelayNanos Wal fsync delay, in nanoseconds.
@@ -1065,6 +1168,98 @@ public class DataStorageConfiguration implements Serializable {
         return this;
     }
 
+    /**
+     * Gets maximum number of pages with contiguous indexes in a partition file which are written to disk by a single
+     * write during checkpoint.
+     *
+     * @return Maximum number of pages written by one checkpoint write.
+     * @see #setCheckpointWriteRunLength(int)
+     */
+    public int getCheckpointWriteRunLength() {
+        return checkpointWriteRunLen;
+    }
+
+    /**
+     * Sets maximum number of pages with contiguous indexes in a partition file which are written to disk by a single
+     * write during checkpoint. Checkpoint threads write pages in the order of their indexes, so with
+     * {@link CheckpointWriteOrder#SEQUENTIAL} write order runs of adjacent dirty pages are coalesced into one write
+     * instead of a write per page. Each checkpoint thread buffers up to this number of pages. Value {@code 1}
+     * disables coalescing, it is the default.
+     * <p>
+     * Buffered pages are already removed from the checkpoint and stay pinned until the run is written, so page
+     * replacement can't evict them. Regions which rely on page replacement during checkpoint should keep the run
+     * short compared to the region size.
+     * <p>
+     * Pages of cache groups with disk page compression are written one by one regardless of this setting.
+     *
+     * @param checkpointWriteRunLen Maximum number of pages written by one checkpoint write.
+     * @return {@code this} for chaining.
+     */
+    public DataStorageConfiguration setCheckpointWriteRunLength(int checkpointWriteRunLen) {
+        A.ensure(checkpointWriteRunLen > 0, "Checkpoint write run length must be positive.");
+
+        this.checkpointWriteRunLen = checkpointWriteRunLen;
+
+        return this;
+    }
+
+    /**
+     * Gets flag indicating whether the double-write buffer is enabled.
+     *
+     * @return Double-write buffer enabled flag.
+     * @see #setDoubleWriteBufferEnabled(boolean)
+     */
+    public boolean isDoubleWriteBufferEnabled() {
+        return doubleWriteBufEnabled;
+    }
+
+    /**
+     * Sets flag indicating whether the double-write buffer is enabled. When enabled, checkpoint threads write pages
+     * to a sequential double-write file and sync it before writing the pages to partition files, so a page torn
+     * by a crash in the middle of a checkpoint can be restored from that file. As a result, the first change of a
+     * page after a checkpoint is logged to WAL as a delta record instead of a full page snapshot, which greatly
+     * reduces WAL volume under write-heavy load at the cost of additional sequential writes during checkpoint.
+     * <p>
+     * The double-write file is kept in the checkpoint directory and is removed after each checkpoint, its size is
+     * limited by {@link #getDoubleWriteBufferSize()}. Pages of encrypted cache groups are not written to the
+     * double-write file and are still protected by full page snapshots in WAL.
+     *
+     * @param doubleWriteBufEnabled Double-write buffer enabled flag.
+     * @return {@code this} for chaining.
+     */
+    public DataStorageConfiguration setDoubleWriteBufferEnabled(boolean doubleWriteBufEnabled) {
+        this.doubleWriteBufEnabled = doubleWriteBufEnabled;
+
+        return this;
+    }
+
+    /**
+     * Gets maximum size of the double-write file in bytes.
+     *
+     * @return Maximum size of the double-write file.
+     * @see #setDoubleWriteBufferSize(long)
+     */
+    public long getDoubleWriteBufferSize() {
+        return doubleWriteBufSize;
+    }
+
+    /**
+     * Sets maximum size of the double-write file in bytes. When the file is full, the partition files written since
+     * the previous wrap are synced and the file is written from the beginning again, so the smaller size results in
+     * more frequent partition syncs during a checkpoint. The file holds at least one batch of pages of each writer.
+     * Default is {@link #DFLT_DOUBLE_WRITE_BUFFER_SIZE}.
+     *
+     * @param doubleWriteBufSize Maximum size of the double-write file.
+     * @return {@code this} for chaining.
+     */
+    public DataStorageConfiguration setDoubleWriteBufferSize(long doubleWriteBufSize) {
+        A.ensure(doubleWriteBufSize > 0, "Double-write buffer size must be greater than 0.");
+
+        this.doubleWriteBufSize = doubleWriteBufSize;
+
+        return this;
+    }
+
     /**
      * @return Flag indicating whether WAL compaction is enabled.
      */
@@ -1084,6 +1279,86 @@ public class DataStorageConfiguration implements Serializable {
         return this;
     }
 
+    /**
+     * Gets flag indicating whether compacted WAL segments are written in the block format.
+     *
+     * @return WAL compaction block format enabled flag.
+     * @see #setWalCompactionBlockFormatEnabled(boolean)
+     */
+    public boolean isWalCompactionBlockFormatEnabled() {
+        return walCompactionBlockFormatEnabled;
+    }
+
+    /**
+     * Sets flag indicating whether compacted WAL segments are written in the block format. If enabled, a segment
+     * is compressed by independently deflated blocks with an index of record positions, so the segment is read in
+     * place and iteration starts close to the requested record. Otherwise a segment is compressed into a single
+     * ZIP entry and decompressed to a raw file before it is read.
+     * <p>
+     * Both formats use the same file suffix and are recognized on read regardless of this flag. Segments in the
+     * block format can't be read by versions and tools which only support the ZIP format.
+     *
+     * @param walCompactionBlockFormatEnabled WAL compaction block format enabled flag.
+     * @return {@code this} for chaining.
+     */
+    public DataStorageConfiguration setWalCompactionBlockFormatEnabled(boolean walCompactionBlockFormatEnabled) {
+        this.walCompactionBlockFormatEnabled = walCompactionBlockFormatEnabled;
+
+        return this;
+    }
+
+    /**
+     * Gets flag indicating whether WAL archive segments are indexed by partitions.
+     *
+     * @return WAL partition index enabled flag.
+     * @see #setWalPartitionIndexEnabled(boolean)
+     */
+    public boolean isWalPartitionIndexEnabled() {
+        return walPartIdxEnabled;
+    }
+
+    /**
+     * Sets flag indicating whether WAL archive segments are indexed by partitions. If enabled, each segment moved to
+     * the WAL archive is read once by a background thread and a sparse index file is written next to it. The index
+     * maps update counters of partitions to positions of data records in the segment, so historical rebalance starts
+     * reading WAL from the first record of the demanded partitions rather than from the checkpoint preceding the
+     * demanded update counters.
+     * <p>
+     * Segments which are not archived or not indexed yet are read as usual.
+     *
+     * @param walPartIdxEnabled WAL partition index enabled flag.
+     * @return {@code this} for chaining.
+     */
+    public DataStorageConfiguration setWalPartitionIndexEnabled(boolean walPartIdxEnabled) {
+        this.walPartIdxEnabled = walPartIdxEnabled;
+
+        return this;
+    }
+
+    /**
+     * Gets flag indicating whether WAL archive segments are retained for change data capture.
+     *
+     * @return Change data capture enabled flag.
+     * @see #setCdcEnabled(boolean)
+     */
+    public boolean isCdcEnabled() {
+        return cdcEnabled;
+    }
+
+    /**
+     * Sets flag indicating whether WAL archive segments are retained for change data capture. If enabled,
+     * archive segments are not removed until the change data capture application confirms that it consumed them,
+     * see {@link org.apache.ignite.cdc.CdcConfiguration}. The WAL archive must be enabled.
+     *
+     * @param cdcEnabled Change data capture enabled flag.
+     * @return {@code this} for chaining.
+     */
+    public DataStorageConfiguration setCdcEnabled(boolean cdcEnabled) {
+        this.cdcEnabled = cdcEnabled;
+
+        return this;
+    }
+
     /**
      * @return ZIP level to WAL compaction.
      */
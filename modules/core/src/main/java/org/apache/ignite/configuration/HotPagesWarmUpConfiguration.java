@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration;
+
+import org.apache.ignite.internal.util.typedef.internal.S;
+
+/**
+ * "Hot pages" warm-up configuration. The pages resident in a persistent data region are periodically
+ * recorded to a manifest, most recently used first. On start exactly those pages are loaded back into
+ * the data region, in the order of their offsets in the partition files, using several threads.
+ * <p>
+ * The manifest is written after a checkpoint if {@link #getDumpInterval} passed since the previous one,
+ * and after the last checkpoint on node stop.
+ */
+public class HotPagesWarmUpConfiguration implements WarmUpConfiguration {
+    /** Serial version uid. */
+    private static final long serialVersionUID = 0L;
+
+    /** Default interval between manifest dumps in milliseconds. */
+    public static final long DFLT_DUMP_INTERVAL = 5 * 60 * 1000L;
+
+    /** Default number of threads loading pages. */
+    public static final int DFLT_THREADS = 4;
+
+    /** Default maximum number of pages recorded to the manifest. */
+    public static final int DFLT_MAX_PAGES = 2 * 1024 * 1024;
+
+    /** Interval between manifest dumps in milliseconds. */
+    private long dumpInterval = DFLT_DUMP_INTERVAL;
+
+    /** Number of threads loading pages. */
+    private int threads = DFLT_THREADS;
+
+    /** Maximum number of pages recorded to the manifest. */
+    private int maxPages = DFLT_MAX_PAGES;
+
+    /**
+     * Gets the minimal interval between dumps of the hot pages manifest.
+     *
+     * @return Interval in milliseconds.
+     */
+    public long getDumpInterval() {
+        return dumpInterval;
+    }
+
+    /**
+     * Sets the minimal interval between dumps of the hot pages manifest.
+     *
+     * @param dumpInterval Interval in milliseconds.
+     * @return {@code this} for chaining.
+     */
+    public HotPagesWarmUpConfiguration setDumpInterval(long dumpInterval) {
+        this.dumpInterval = dumpInterval;
+
+        return this;
+    }
+
+    /**
+     * Gets the number of threads loading pages on warm-up.
+     *
+     * @return Number of threads.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of threads loading pages on warm-up. Each thread loads whole partitions.
+     *
+     * @param threads Number of threads.
+     * @return {@code this} for chaining.
+     */
+    public HotPagesWarmUpConfiguration setThreads(int threads) {
+        this.threads = threads;
+
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of pages recorded to the manifest.
+     *
+     * @return Maximum number of pages.
+     */
+    public int getMaxPages() {
+        return maxPages;
+    }
+
+    /**
+     * Sets the maximum number of pages recorded to the manifest. Only the most recently used pages are recorded
+     * if the data region holds more pages. The manifest writer keeps {@code 20} bytes of heap per recorded page.
+     *
+     * @param maxPages Maximum number of pages.
+     * @return {@code this} for chaining.
+     */
+    public HotPagesWarmUpConfiguration setMaxPages(int maxPages) {
+        this.maxPages = maxPages;
+
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(HotPagesWarmUpConfiguration.class, this);
+    }
+}
@@ -69,7 +69,24 @@ public enum PageReplacementMode {
      * This algorithm has near to zero maintenance cost and replacement policy efficiency between random-LRU and
      * segmented-LRU.
      */
-    CLOCK;
+    CLOCK,
+
+    /**
+     * Window TinyLFU algorithm.
+     *
+     * Window TinyLFU algorithm combines recency and frequency of page accesses. Access frequencies are estimated by a
+     * compact count-min sketch which is periodically aged and also remembers pages which were already replaced. New
+     * pages are added to a small window LRU list (1% of pages). Pages leaving the window are added to the
+     * probationary segment of a segmented-LRU list. When a page fault occurs, the page most recently added to the
+     * probationary segment competes with the least recently accessed page of the list and the page with the lower
+     * estimated frequency is replaced. Pages touched only once, e.g. by a full scan or an index rebuild, lose to the
+     * pages of the working set, so the working set stays in memory.
+     *
+     * This algorithm requires more memory than segmented-LRU (two lists and the sketch, about 24 bytes per page) and
+     * updates the sketch on each page access, but has the best page to replace selection policy for workloads which
+     * mix a stable working set with large one-time scans.
+     */
+    TINY_LFU;
 
     /** Enumerated values. */
     private static final PageReplacementMode[] VALS = values();
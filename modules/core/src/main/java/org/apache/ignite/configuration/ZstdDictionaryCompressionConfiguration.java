@@ -0,0 +1,171 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration;
+
+import org.apache.ignite.internal.util.typedef.internal.S;
+import org.apache.ignite.lang.IgniteExperimental;
+
+/**
+ * Entry compression configuration which compresses every entry with zstd against a dictionary
+ * trained on sampled entries of the cache group. Small entries with a lot of redundancy between
+ * each other compress well with a dictionary even if they barely compress one by one.
+ * <p>
+ * The first {@link #getSamplesSize} bytes of entries are stored uncompressed and used as samples, then
+ * the trained dictionary is published to the distributed metastorage and is used by all nodes of the cluster.
+ * Requires {@code ignite-compress} module in the classpath.
+ */
+@IgniteExperimental
+public class ZstdDictionaryCompressionConfiguration implements EntryCompressionConfiguration {
+    /** Serial version uid. */
+    private static final long serialVersionUID = 0L;
+
+    /** Default compression level. */
+    public static final int DFLT_COMPRESSION_LEVEL = 3;
+
+    /** Default dictionary size in bytes. */
+    public static final int DFLT_DICTIONARY_SIZE = 32 * 1024;
+
+    /** Default total size of the samples in bytes. */
+    public static final int DFLT_SAMPLES_SIZE = 4 * 1024 * 1024;
+
+    /** Compression level. */
+    private int compressionLevel = DFLT_COMPRESSION_LEVEL;
+
+    /** Dictionary size in bytes. */
+    private int dictSize = DFLT_DICTIONARY_SIZE;
+
+    /** Total size of the samples in bytes. */
+    private int samplesSize = DFLT_SAMPLES_SIZE;
+
+    /** Compress keys flag. */
+    private boolean compressKeys;
+
+    /**
+     * Gets zstd compression level.
+     *
+     * @return Compression level.
+     */
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Sets zstd compression level.
+     *
+     * @param compressionLevel Compression level.
+     * @return {@code this} for chaining.
+     */
+    public ZstdDictionaryCompressionConfiguration setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+
+        return this;
+    }
+
+    /**
+     * Gets the maximum size of a trained dictionary.
+     *
+     * @return Dictionary size in bytes.
+     */
+    public int getDictionarySize() {
+        return dictSize;
+    }
+
+    /**
+     * Sets the maximum size of a trained dictionary.
+     *
+     * @param dictSize Dictionary size in bytes.
+     * @return {@code this} for chaining.
+     */
+    public ZstdDictionaryCompressionConfiguration setDictionarySize(int dictSize) {
+        this.dictSize = dictSize;
+
+        return this;
+    }
+
+    /**
+     * Gets the total size of the entries sampled to train a dictionary.
+     *
+     * @return Samples size in bytes.
+     */
+    public int getSamplesSize() {
+        return samplesSize;
+    }
+
+    /**
+     * Sets the total size of the entries sampled to train a dictionary. It should be about 100 times
+     * larger than the dictionary size.
+     *
+     * @param samplesSize Samples size in bytes.
+     * @return {@code this} for chaining.
+     */
+    public ZstdDictionaryCompressionConfiguration setSamplesSize(int samplesSize) {
+        this.samplesSize = samplesSize;
+
+        return this;
+    }
+
+    /**
+     * Gets flag indicating whether cache keys are compressed.
+     *
+     * @return {@code True} if cache keys are compressed.
+     */
+    public boolean isCompressKeys() {
+        return compressKeys;
+    }
+
+    /**
+     * Sets flag indicating whether cache keys are compressed.
+     *
+     * @param compressKeys {@code True} if cache keys are compressed.
+     * @return {@code this} for chaining.
+     */
+    public ZstdDictionaryCompressionConfiguration setCompressKeys(boolean compressKeys) {
+        this.compressKeys = compressKeys;
+
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean equals(Object o) {
+        if (this == o)
+            return true;
+
+        if (o == null || getClass() != o.getClass())
+            return false;
+
+        ZstdDictionaryCompressionConfiguration that = (ZstdDictionaryCompressionConfiguration)o;
+
+        return compressionLevel == that.compressionLevel && dictSize == that.dictSize &&
+            samplesSize == that.samplesSize && compressKeys == that.compressKeys;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int hashCode() {
+        int res = compressionLevel;
+
+        res = 31 * res + dictSize;
+        res = 31 * res + samplesSize;
+        res = 31 * res + (compressKeys ? 1 : 0);
+
+        return res;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(ZstdDictionaryCompressionConfiguration.class, this);
+    }
+}
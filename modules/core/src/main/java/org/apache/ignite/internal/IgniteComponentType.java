@@ -103,6 +103,13 @@ public enum IgniteComponentType {
         "ignite-compress"
     ),
 
+    /** Entry compression, see {@link org.apache.ignite.configuration.ZstdDictionaryCompressionConfiguration}. */
+    ZSTD_ENTRY_COMPRESSION(
+        null,
+        "org.apache.ignite.internal.processors.compress.ZstdDictionaryCompressionStrategy",
+        "ignite-compress"
+    ),
+
     /** OpenCensus tracing implementation. */
     TRACING(
         null,
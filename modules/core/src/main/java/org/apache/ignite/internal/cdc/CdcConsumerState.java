@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.cdc;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.ignite.internal.processors.cache.persistence.wal.FileWALPointer;
+import org.jetbrains.annotations.Nullable;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Position of the last change consumed by the change data capture application. The position is stored
+ * in the WAL archive directory, so the node can retain the segments which are not consumed yet.
+ */
+public class CdcConsumerState {
+    /** State file name. */
+    public static final String STATE_FILE_NAME = "cdc-state.bin";
+
+    /** Temporary state file name. */
+    private static final String TMP_STATE_FILE_NAME = STATE_FILE_NAME + ".tmp";
+
+    /** State size: segment index, offset and length of the record. */
+    private static final int STATE_SIZE = 16;
+
+    /** State file. */
+    private final Path state;
+
+    /** Temporary state file. */
+    private final Path tmp;
+
+    /**
+     * @param walArchiveDir WAL archive directory of the node.
+     */
+    public CdcConsumerState(File walArchiveDir) {
+        state = new File(walArchiveDir, STATE_FILE_NAME).toPath();
+        tmp = new File(walArchiveDir, TMP_STATE_FILE_NAME).toPath();
+    }
+
+    /**
+     * Saves the position of the last consumed change. The previous position is replaced atomically.
+     *
+     * @param ptr WAL pointer of the last consumed record.
+     * @throws IOException If failed.
+     */
+    public void save(FileWALPointer ptr) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(STATE_SIZE);
+
+        buf.putLong(ptr.index()).putInt(ptr.fileOffset()).putInt(ptr.length()).flip();
+
+        try (FileChannel ch = FileChannel.open(tmp, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            while (buf.hasRemaining())
+                ch.write(buf);
+
+            ch.force(true);
+        }
+
+        Files.move(tmp, state, ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+
+    /**
+     * @return WAL pointer of the last consumed record or {@code null} if nothing is consumed yet.
+     * @throws IOException If failed.
+     */
+    @Nullable public FileWALPointer load() throws IOException {
+        if (!Files.exists(state))
+            return null;
+
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(state));
+
+        if (buf.remaining() != STATE_SIZE)
+            throw new IOException("Change data capture state is corrupted: " + state);
+
+        return new FileWALPointer(buf.getLong(), buf.getInt(), buf.getInt());
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.cdc;
+
+import org.apache.ignite.cdc.CdcEvent;
+import org.apache.ignite.internal.util.tostring.GridToStringInclude;
+import org.apache.ignite.internal.util.typedef.internal.S;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Change captured from a data record of the WAL.
+ */
+public class CdcEventImpl implements CdcEvent {
+    /** Key. */
+    @GridToStringInclude(sensitive = true)
+    private final Object key;
+
+    /** Value. */
+    @GridToStringInclude(sensitive = true)
+    private final Object val;
+
+    /** Primary flag. */
+    private final boolean primary;
+
+    /** Partition. */
+    private final int part;
+
+    /** Cache ID. */
+    private final int cacheId;
+
+    /** Partition update counter. */
+    private final long partCntr;
+
+    /**
+     * @param key Key.
+     * @param val Value, {@code null} on removal.
+     * @param primary Primary flag.
+     * @param part Partition.
+     * @param cacheId Cache ID.
+     * @param partCntr Partition update counter.
+     */
+    public CdcEventImpl(Object key, @Nullable Object val, boolean primary, int part, int cacheId, long partCntr) {
+        this.key = key;
+        this.val = val;
+        this.primary = primary;
+        this.part = part;
+        this.cacheId = cacheId;
+        this.partCntr = partCntr;
+    }
+
+    /** {@inheritDoc} */
+    @Override public Object key() {
+        return key;
+    }
+
+    /** {@inheritDoc} */
+    @Override public @Nullable Object value() {
+        return val;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean primary() {
+        return primary;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int partition() {
+        return part;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int cacheId() {
+        return cacheId;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long partitionCounter() {
+        return partCntr;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(CdcEventImpl.class, this);
+    }
+}
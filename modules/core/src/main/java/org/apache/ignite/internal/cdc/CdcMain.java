@@ -0,0 +1,322 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.cdc;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.IgniteLogger;
+import org.apache.ignite.cdc.CdcConfiguration;
+import org.apache.ignite.cdc.CdcConsumer;
+import org.apache.ignite.cdc.CdcEvent;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.internal.IgniteInterruptedCheckedException;
+import org.apache.ignite.internal.IgnitionEx;
+import org.apache.ignite.internal.pagemem.wal.WALIterator;
+import org.apache.ignite.internal.pagemem.wal.WALPointer;
+import org.apache.ignite.internal.pagemem.wal.record.DataEntry;
+import org.apache.ignite.internal.pagemem.wal.record.DataRecord;
+import org.apache.ignite.internal.pagemem.wal.record.UnwrappedDataEntry;
+import org.apache.ignite.internal.pagemem.wal.record.WALRecord;
+import org.apache.ignite.internal.processors.cache.persistence.filename.PdsFolderResolver;
+import org.apache.ignite.internal.processors.cache.persistence.wal.FileWALPointer;
+import org.apache.ignite.internal.processors.cache.persistence.wal.reader.IgniteWalIteratorFactory;
+import org.apache.ignite.internal.processors.cache.persistence.wal.reader.IgniteWalIteratorFactory.IteratorParametersBuilder;
+import org.apache.ignite.internal.util.typedef.internal.CU;
+import org.apache.ignite.internal.util.typedef.internal.U;
+import org.apache.ignite.lang.IgniteBiTuple;
+import org.jetbrains.annotations.Nullable;
+
+import static org.apache.ignite.internal.pagemem.wal.record.DataEntry.PRELOAD_FLAG;
+import static org.apache.ignite.internal.pagemem.wal.record.DataEntry.PRIMARY_FLAG;
+import static org.apache.ignite.internal.pagemem.wal.record.WALRecord.RecordType.CDC_DATA_RECORD;
+import static org.apache.ignite.internal.pagemem.wal.record.WALRecord.RecordType.DATA_RECORD_V2;
+import static org.apache.ignite.internal.processors.cache.GridCacheOperation.DELETE;
+import static org.apache.ignite.internal.processors.cache.GridCacheOperation.READ;
+
+/**
+ * Change data capture application, see {@link CdcConfiguration}.
+ * <p>
+ * Periodically reads the WAL archive of the node starting from the saved position and passes the changes
+ * to the consumer in batches. The position after a batch is saved once the consumer confirms the batch,
+ * unconfirmed changes are read again on the next check. Only one application may run for a node.
+ */
+public class CdcMain implements Runnable {
+    /** Name of the bean of {@link CdcConfiguration} in the Spring XML configuration. */
+    public static final String CDC_CFG_BEAN_NAME = "cdcConfiguration";
+
+    /** Node configuration. */
+    private final IgniteConfiguration cfg;
+
+    /** Change data capture configuration. */
+    private final CdcConfiguration cdcCfg;
+
+    /** WAL iterator factory. */
+    private final IgniteWalIteratorFactory factory;
+
+    /** Logger. */
+    private IgniteLogger log;
+
+    /** WAL archive directory of the node. */
+    private File walArchiveDir;
+
+    /** Binary metadata directory of the node. */
+    private File binaryMetaDir;
+
+    /** Marshaller mappings directory. */
+    private File marshallerDir;
+
+    /** Consumer state. */
+    private CdcConsumerState state;
+
+    /** WAL pointer of the last consumed record. */
+    private FileWALPointer consumed;
+
+    /** Stopped flag. */
+    private volatile boolean stopped;
+
+    /**
+     * @param cfg Node configuration.
+     * @param cdcCfg Change data capture configuration.
+     */
+    public CdcMain(IgniteConfiguration cfg, CdcConfiguration cdcCfg) {
+        this.cfg = cfg;
+        this.cdcCfg = cdcCfg;
+
+        factory = new IgniteWalIteratorFactory();
+    }
+
+    /**
+     * Starts the application with the configuration of the node and the {@link #CDC_CFG_BEAN_NAME} bean
+     * from the same Spring XML file.
+     *
+     * @param args Path to the Spring XML configuration.
+     * @throws Exception If failed.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            System.err.println("Usage: CdcMain <path to Spring XML configuration>");
+
+            System.exit(1);
+        }
+
+        IgniteConfiguration cfg = IgnitionEx.loadConfiguration(args[0]).get1();
+        CdcConfiguration cdcCfg = IgnitionEx.loadSpringBean(args[0], CDC_CFG_BEAN_NAME);
+
+        CdcMain cdc = new CdcMain(cfg, cdcCfg);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(cdc::stop, "cdc-shutdown-hook"));
+
+        cdc.run();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void run() {
+        try {
+            init();
+
+            CdcConsumer consumer = cdcCfg.getConsumer();
+
+            consumer.start();
+
+            try {
+                while (!stopped) {
+                    try {
+                        consumeArchive();
+                    }
+                    catch (IgniteCheckedException | IOException e) {
+                        // Segments may be compressed or removed by the node while they are read.
+                        U.warn(log, "Failed to consume WAL archive, will retry [walArchiveDir=" + walArchiveDir +
+                            ", consumed=" + consumed + ']', e);
+                    }
+
+                    if (!stopped)
+                        U.sleep(cdcCfg.getCheckFrequency());
+                }
+            }
+            finally {
+                consumer.stop();
+            }
+        }
+        catch (IgniteInterruptedCheckedException e) {
+            Thread.currentThread().interrupt();
+        }
+        catch (IgniteCheckedException | IOException e) {
+            throw new IgniteException("Change data capture failed", e);
+        }
+    }
+
+    /**
+     * Stops the application after the current batch.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Resolves the directories of the node and loads the saved position.
+     *
+     * @throws IgniteCheckedException If failed.
+     * @throws IOException If failed.
+     */
+    private void init() throws IgniteCheckedException, IOException {
+        log = U.initLogger(cfg, "ignite-cdc").getLogger(CdcMain.class);
+
+        DataStorageConfiguration dsCfg = cfg.getDataStorageConfiguration();
+
+        if (!CU.isPersistenceEnabled(cfg))
+            throw new IgniteCheckedException("Change data capture requires persistence to be enabled.");
+
+        if (cdcCfg.getConsumer() == null)
+            throw new IgniteCheckedException("Change data capture consumer is not set.");
+
+        String workDir = U.workDirectory(cfg.getWorkDirectory(), cfg.getIgniteHome());
+
+        File walArchiveRoot = U.resolveWorkDirectory(workDir, dsCfg.getWalArchivePath(), false);
+
+        String folderName = folderName(walArchiveRoot);
+
+        walArchiveDir = new File(walArchiveRoot, folderName);
+        binaryMetaDir = new File(U.resolveWorkDirectory(workDir, DataStorageConfiguration.DFLT_BINARY_METADATA_PATH,
+            false), folderName);
+        marshallerDir = U.resolveWorkDirectory(workDir, DataStorageConfiguration.DFLT_MARSHALLER_PATH, false);
+
+        state = new CdcConsumerState(walArchiveDir);
+        consumed = state.load();
+
+        if (log.isInfoEnabled()) {
+            log.info("Change data capture started [walArchiveDir=" + walArchiveDir + ", consumed=" + consumed +
+                ", cfg=" + cdcCfg + ']');
+        }
+    }
+
+    /**
+     * @param walArchiveRoot Root of the WAL archive directories.
+     * @return Name of the directory of the node.
+     * @throws IgniteCheckedException If the directory can't be resolved.
+     */
+    private String folderName(File walArchiveRoot) throws IgniteCheckedException {
+        if (cfg.getConsistentId() != null)
+            return U.maskForFileName(cfg.getConsistentId().toString());
+
+        File[] dirs = walArchiveRoot.listFiles(PdsFolderResolver.DB_SUBFOLDERS_NEW_STYLE_FILTER);
+
+        if (dirs == null || dirs.length != 1) {
+            throw new IgniteCheckedException("Failed to resolve WAL archive directory of the node, " +
+                "set consistent ID of the node [walArchiveRoot=" + walArchiveRoot + ']');
+        }
+
+        return dirs[0].getName();
+    }
+
+    /**
+     * Passes the changes after the saved position to the consumer.
+     *
+     * @throws IgniteCheckedException If failed.
+     * @throws IOException If failed to save the position.
+     */
+    private void consumeArchive() throws IgniteCheckedException, IOException {
+        IteratorParametersBuilder params = new IteratorParametersBuilder()
+            .log(log)
+            .filesOrDirs(walArchiveDir)
+            .binaryMetadataFileStoreDir(binaryMetaDir)
+            .marshallerMappingFileStoreDir(marshallerDir)
+            .keepBinary(cdcCfg.isKeepBinary())
+            .filter((type, ptr) -> type == DATA_RECORD_V2 || type == CDC_DATA_RECORD);
+
+        if (consumed != null)
+            params.from(consumed);
+
+        List<CdcEvent> batch = new ArrayList<>();
+
+        FileWALPointer last = null;
+
+        try (WALIterator it = factory.iterator(params)) {
+            while (it.hasNext() && !stopped) {
+                IgniteBiTuple<WALPointer, WALRecord> next = it.next();
+
+                FileWALPointer ptr = (FileWALPointer)next.get1();
+
+                if (consumed != null && ptr.compareTo(consumed) <= 0)
+                    continue;
+
+                for (DataEntry e : ((DataRecord)next.get2()).writeEntries()) {
+                    CdcEvent evt = event(e);
+
+                    if (evt != null)
+                        batch.add(evt);
+                }
+
+                last = ptr;
+
+                if (batch.size() >= cdcCfg.getMaxBatchSize()) {
+                    if (!commit(batch, last))
+                        return;
+
+                    last = null;
+                }
+            }
+        }
+
+        if (last != null)
+            commit(batch, last);
+    }
+
+    /**
+     * @param e Data entry.
+     * @return Change or {@code null} if the entry is not a change of a committed entry.
+     */
+    @Nullable private CdcEvent event(DataEntry e) {
+        // Encrypted entries are not unwrapped by the standalone iterator.
+        if (!(e instanceof UnwrappedDataEntry) || e.op() == READ || (e.flags() & PRELOAD_FLAG) != 0)
+            return null;
+
+        UnwrappedDataEntry unwrapped = (UnwrappedDataEntry)e;
+
+        return new CdcEventImpl(
+            unwrapped.unwrappedKey(),
+            e.op() == DELETE ? null : unwrapped.unwrappedValue(),
+            (e.flags() & PRIMARY_FLAG) != 0,
+            e.partitionId(),
+            e.cacheId(),
+            e.partitionCounter());
+    }
+
+    /**
+     * Passes the batch to the consumer and saves the position if the consumer confirms it.
+     *
+     * @param batch Changes.
+     * @param ptr WAL pointer of the last record of the batch.
+     * @return {@code True} if the batch is confirmed.
+     * @throws IOException If failed to save the position.
+     */
+    private boolean commit(List<CdcEvent> batch, FileWALPointer ptr) throws IOException {
+        if (!batch.isEmpty() && !cdcCfg.getConsumer().onEvents(batch.iterator()))
+            return false;
+
+        state.save(ptr);
+
+        consumed = ptr;
+
+        batch.clear();
+
+        return true;
+    }
+}
@@ -96,6 +96,8 @@ import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.Gri
 import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtForceKeysResponse;
 import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionDemandLegacyMessage;
 import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionDemandMessage;
+import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionFileDemandMessage;
+import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionFileSupplyMessage;
 import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionExchangeId;
 import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionSupplyMessage;
 import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionSupplyMessageV2;
@@ -378,8 +380,10 @@ public class GridIoMessageFactory implements MessageFactoryProvider {
         factory.register(SingleNodeMessage.TYPE_CODE, SingleNodeMessage::new); // TDE
         // [177, 178] - Incremental DR
         factory.register(TombstoneCacheObject.TYPE_CODE, TombstoneCacheObject::new);
+        factory.register((short)189, GridDhtPartitionFileDemandMessage::new);
+        factory.register((short)190, GridDhtPartitionFileSupplyMessage::new);
 
-        // [-3..119] [124..129] [-23..-28] [-36..-55] - this
+        // [-3..119] [124..129] [-23..-28] [-36..-55] [189, 190] - this
         // [120..123] [177, 178] - DR
         // [180..188] - Statistics
         // [-4..-22, -30..-35] - SQL
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.managers.systemview.walker;
+
+import org.apache.ignite.spi.systemview.view.PageScrubProblemView;
+import org.apache.ignite.spi.systemview.view.SystemViewRowAttributeWalker;
+
+/**
+ * Generated by {@code org.apache.ignite.codegen.SystemViewRowAttributeWalkerGenerator}.
+ * {@link PageScrubProblemView} attributes walker.
+ *
+ * @see PageScrubProblemView
+ */
+public class PageScrubProblemViewWalker implements SystemViewRowAttributeWalker<PageScrubProblemView> {
+    /** {@inheritDoc} */
+    @Override public void visitAll(AttributeVisitor v) {
+        v.accept(0, "cacheGroupName", String.class);
+        v.accept(1, "partitionId", int.class);
+        v.accept(2, "pageIndex", int.class);
+        v.accept(3, "pageId", long.class);
+        v.accept(4, "type", String.class);
+        v.accept(5, "description", String.class);
+        v.accept(6, "time", long.class);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void visitAll(PageScrubProblemView row, AttributeWithValueVisitor v) {
+        v.accept(0, "cacheGroupName", String.class, row.cacheGroupName());
+        v.acceptInt(1, "partitionId", row.partitionId());
+        v.acceptInt(2, "pageIndex", row.pageIndex());
+        v.acceptLong(3, "pageId", row.pageId());
+        v.accept(4, "type", String.class, row.type());
+        v.accept(5, "description", String.class, row.description());
+        v.acceptLong(6, "time", row.time());
+    }
+
+    /** {@inheritDoc} */
+    @Override public int count() {
+        return 7;
+    }
+}
@@ -84,6 +84,42 @@ public interface PageSupport {
      */
     public void readUnlock(int grpId, long pageId, long page);
 
+    /**
+     * Starts an optimistic read of the acquired page. The page may be read without a lock at the address returned
+     * by {@link #optimisticReadAddress(int, long, long)}, but the read data may be inconsistent and must be
+     * discarded unless {@link #validateOptimisticRead(int, long, long, long)} succeeds after the read.
+     *
+     * @param grpId Cache group ID.
+     * @param pageId Page ID.
+     * @param page Page pointer.
+     * @return Stamp to validate the read with or {@code 0L} if the page is write locked, was recycled or
+     *      optimistic reads are not supported.
+     */
+    public default long tryOptimisticRead(int grpId, long pageId, long page) {
+        return 0L;
+    }
+
+    /**
+     * @param grpId Cache group ID.
+     * @param pageId Page ID.
+     * @param page Page pointer.
+     * @return Pointer for reading the page optimistically.
+     */
+    public default long optimisticReadAddress(int grpId, long pageId, long page) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @param grpId Cache group ID.
+     * @param pageId Page ID.
+     * @param page Page pointer.
+     * @param stamp Stamp returned by {@link #tryOptimisticRead(int, long, long)}.
+     * @return {@code True} if the page was not write locked since the stamp was obtained.
+     */
+    public default boolean validateOptimisticRead(int grpId, long pageId, long page, long stamp) {
+        return false;
+    }
+
     /**
      *
      * @param grpId Cache group ID.
@@ -124,4 +160,18 @@ public interface PageSupport {
      * @return {@code True} if the page is dirty.
      */
     public boolean isDirty(int grpId, long pageId, long page);
+
+    /**
+     * Checks whether the next change of the page must be logged to WAL as a full page snapshot instead of a delta
+     * record. By default it's the first change of a clean page, which is either newly allocated or just written by
+     * a checkpoint.
+     *
+     * @param grpId Cache group ID.
+     * @param pageId Page ID.
+     * @param page Page pointer.
+     * @return {@code True} if the page snapshot must be logged on the next change of the page.
+     */
+    public default boolean isPageSnapshotNeeded(int grpId, long pageId, long page) {
+        return !isDirty(grpId, pageId, page);
+    }
 }
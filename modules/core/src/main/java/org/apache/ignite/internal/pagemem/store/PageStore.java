@@ -83,6 +83,31 @@ public interface PageStore {
      */
     public void write(long pageId, ByteBuffer pageBuf, int tag, boolean calculateCrc) throws IgniteCheckedException;
 
+    /**
+     * Writes pages with contiguous indexes. Implementation may write them to the file by a single write.
+     *
+     * @param pageIds Page IDs, the first {@code cnt} of them are written.
+     * @param cnt Number of pages.
+     * @param pagesBuf Buffer with the content of the pages one after another.
+     * @param tag Partition file version, 1-based incrementing counter. For outdated pages {@code tag} has lower value,
+     * and write does nothing.
+     * @param calculateCrc if {@code False} crc calculation will be forcibly skipped.
+     * @throws IgniteCheckedException If page writing failed (IO error occurred).
+     */
+    public default void writePages(long[] pageIds, int cnt, ByteBuffer pagesBuf, int tag, boolean calculateCrc)
+        throws IgniteCheckedException {
+        int pageSize = pagesBuf.remaining() / cnt;
+
+        for (int i = 0; i < cnt; i++) {
+            ByteBuffer pageBuf = pagesBuf.duplicate();
+
+            pageBuf.position(pagesBuf.position() + i * pageSize);
+            pageBuf.limit(pageBuf.position() + pageSize);
+
+            write(pageIds[i], pageBuf.slice().order(pagesBuf.order()), tag, calculateCrc);
+        }
+    }
+
     /**
      * Gets page offset within the store file.
      *
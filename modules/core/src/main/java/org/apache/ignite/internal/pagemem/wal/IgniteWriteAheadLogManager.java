@@ -16,6 +16,8 @@
 
 package org.apache.ignite.internal.pagemem.wal;
 
+import java.util.Collection;
+import java.util.Map;
 import org.apache.ignite.IgniteCheckedException;
 import org.apache.ignite.IgniteException;
 import org.apache.ignite.configuration.DataStorageConfiguration;
@@ -128,6 +130,24 @@ public interface IgniteWriteAheadLogManager extends GridCacheSharedManager, Igni
         @Nullable IgniteBiPredicate<WALRecord.RecordType, WALPointer> recordDeserializeFilter
     ) throws IgniteCheckedException, StorageException;
 
+    /**
+     * Finds a pointer from which historical rebalance of partitions can read WAL. All updates of the partitions with
+     * update counters greater than the given ones are located after the returned pointer.
+     *
+     * @param start Pointer from which WAL contains all the updates of the partitions, for example, a checkpoint
+     *      pointer.
+     * @param grpId Cache group ID.
+     * @param cacheIds Cache IDs of the group.
+     * @param partCntrs Update counters of the partitions, only greater counters are looked for.
+     * @return Pointer which is not less than {@code start}.
+     */
+    public WALPointer historicalStartPointer(
+        WALPointer start,
+        int grpId,
+        Collection<Integer> cacheIds,
+        Map<Integer, Long> partCntrs
+    );
+
     /**
      * Invoke this method to reserve WAL history since provided pointer and prevent it's deletion.
      *
@@ -41,6 +41,13 @@ public class CacheCompressionManager extends GridCacheManagerAdapter {
         diskPageCompression = DiskPageCompression.DISABLED;
     }
 
+    /**
+     * @return {@code True} if disk page compression is enabled.
+     */
+    public boolean pageCompressionEnabled() {
+        return diskPageCompression != DiskPageCompression.DISABLED;
+    }
+
     /**
      * @param page Page buffer.
      * @param store Page store.
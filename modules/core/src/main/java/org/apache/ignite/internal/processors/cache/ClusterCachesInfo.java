@@ -2524,6 +2524,9 @@ public class ClusterCachesInfo {
 
         CU.validateCacheGroupsAttributesMismatch(log, cfg, startCfg, "entryCompressionConfiguration", "Entry compression",
             cfg.getEntryCompressionConfiguration(), startCfg.getEntryCompressionConfiguration(), true);
+
+        CU.validateCacheGroupsAttributesMismatch(log, cfg, startCfg, "dataInlineSize", "Data inline size",
+            cfg.getDataInlineSize(), startCfg.getDataInlineSize(), true);
     }
 
     /**
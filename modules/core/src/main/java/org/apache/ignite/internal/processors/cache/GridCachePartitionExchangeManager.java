@@ -90,6 +90,8 @@ import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.Fin
 import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.ForceRebalanceExchangeTask;
 import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionDemandLegacyMessage;
 import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionDemandMessage;
+import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionFileDemandMessage;
+import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionFileSupplyMessage;
 import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionDemander.RebalanceFuture;
 import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionExchangeId;
 import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionFullMap;
@@ -511,6 +513,16 @@ public class GridCachePartitionExchangeManager<K, V> extends GridCacheSharedMana
 
                                     return;
                                 }
+                                else if (m instanceof GridDhtPartitionFileDemandMessage) {
+                                    grp.preloader().handleFileDemandMessage(id, (GridDhtPartitionFileDemandMessage)m);
+
+                                    return;
+                                }
+                                else if (m instanceof GridDhtPartitionFileSupplyMessage) {
+                                    grp.preloader().handleFileSupplyMessage(id, (GridDhtPartitionFileSupplyMessage)m);
+
+                                    return;
+                                }
                                 else
                                     U.error(log, "Unsupported message type: " + m.getClass().getName());
                             }
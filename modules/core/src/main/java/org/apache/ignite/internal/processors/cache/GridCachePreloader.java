@@ -28,6 +28,8 @@ import org.apache.ignite.internal.processors.cache.distributed.dht.atomic.GridNe
 import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionDemandMessage;
 import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionDemander.RebalanceFuture;
 import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionExchangeId;
+import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionFileDemandMessage;
+import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionFileSupplyMessage;
 import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionSupplyMessage;
 import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionsExchangeFuture;
 import org.apache.ignite.internal.util.future.GridCompoundFuture;
@@ -164,6 +166,22 @@ public interface GridCachePreloader {
      */
     public void handleDemandMessage(int idx, UUID id, GridDhtPartitionDemandMessage d);
 
+    /**
+     * Handles demand of partition files.
+     *
+     * @param id Node Id.
+     * @param d Demand message.
+     */
+    public void handleFileDemandMessage(UUID id, GridDhtPartitionFileDemandMessage d);
+
+    /**
+     * Handles result of the upload of a partition file.
+     *
+     * @param id Node Id.
+     * @param s Supply message.
+     */
+    public void handleFileSupplyMessage(UUID id, GridDhtPartitionFileSupplyMessage s);
+
     /**
      * @param lastFut Last future.
      */
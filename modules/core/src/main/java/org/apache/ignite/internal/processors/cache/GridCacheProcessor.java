@@ -2537,8 +2537,15 @@ public class GridCacheProcessor extends GridProcessorAdapter {
         EntryCompressionConfiguration compressionConfiguration = desc.config().getEntryCompressionConfiguration();
 
         if (compressionConfiguration != null) {
-            compressionStrategy = CU.entryCompressionStrategies(ctx).get(compressionConfiguration.getClass())
-                .apply(compressionConfiguration);
+            IgniteClosure<EntryCompressionConfiguration, EntryCompressionStrategy> factory =
+                CU.entryCompressionStrategies(ctx).get(compressionConfiguration.getClass());
+
+            if (factory == null) {
+                throw new IgniteCheckedException("Entry compression strategy is not found for configuration " +
+                    "(consider adding ignite-compress module to classpath): " + compressionConfiguration);
+            }
+
+            compressionStrategy = factory.apply(compressionConfiguration);
 
             compressionStrategy.start(ctx, cfg);
         }
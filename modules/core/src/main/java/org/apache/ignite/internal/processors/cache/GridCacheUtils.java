@@ -63,6 +63,7 @@ import org.apache.ignite.configuration.EntryCompressionConfiguration;
 import org.apache.ignite.configuration.IgniteConfiguration;
 import org.apache.ignite.configuration.TransactionConfiguration;
 import org.apache.ignite.configuration.WarmUpConfiguration;
+import org.apache.ignite.configuration.ZstdDictionaryCompressionConfiguration;
 import org.apache.ignite.internal.GridKernalContext;
 import org.apache.ignite.internal.IgniteClientDisconnectedCheckedException;
 import org.apache.ignite.internal.IgniteInternalFuture;
@@ -84,6 +85,7 @@ import org.apache.ignite.internal.processors.cache.persistence.metastorage.MetaS
 import org.apache.ignite.internal.processors.cache.transactions.IgniteInternalTx;
 import org.apache.ignite.internal.processors.cache.transactions.IgniteTxEntry;
 import org.apache.ignite.internal.processors.cache.version.GridCacheVersion;
+import org.apache.ignite.internal.processors.cache.warmup.HotPagesWarmUpStrategy;
 import org.apache.ignite.internal.processors.cache.warmup.LoadAllWarmUpStrategy;
 import org.apache.ignite.internal.processors.cache.warmup.NoOpWarmUpStrategy;
 import org.apache.ignite.internal.processors.cache.warmup.WarmUpStrategy;
@@ -133,6 +135,7 @@ import static org.apache.ignite.cache.CacheRebalanceMode.ASYNC;
 import static org.apache.ignite.cache.CacheWriteSynchronizationMode.PRIMARY_SYNC;
 import static org.apache.ignite.configuration.CacheConfiguration.DFLT_CACHE_MODE;
 import static org.apache.ignite.internal.GridTopic.TOPIC_REPLICATION;
+import static org.apache.ignite.internal.IgniteComponentType.ZSTD_ENTRY_COMPRESSION;
 import static org.apache.ignite.internal.processors.cache.GridCacheOperation.READ;
 import static org.apache.ignite.internal.processors.cache.persistence.GridCacheDatabaseSharedManager.DFLT_IGNITE_VALIDATE_CACHE_NAMES;
 import static org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager.cacheDirName;
@@ -2206,7 +2209,8 @@ public class GridCacheUtils {
             new LoadAllWarmUpStrategy(
                 kernalCtx.log(LoadAllWarmUpStrategy.class),
                 () -> kernalCtx.cache().cacheGroups()
-            )
+            ),
+            new HotPagesWarmUpStrategy(kernalCtx.log(HotPagesWarmUpStrategy.class), kernalCtx)
         };
 
         for (WarmUpStrategy<?> strategy : defStrats)
@@ -2236,6 +2240,20 @@ public class GridCacheUtils {
         entryCompressionStrategies(GridKernalContext kernalCtx) {
         Map strategies = new HashMap<>();
 
+        // Adding default strategies.
+        if (ZSTD_ENTRY_COMPRESSION.inClassPath()) {
+            IgniteClosure<EntryCompressionConfiguration, EntryCompressionStrategy> zstd = cfg -> {
+                try {
+                    return ZSTD_ENTRY_COMPRESSION.create(false);
+                }
+                catch (IgniteCheckedException e) {
+                    throw new IgniteException(e);
+                }
+            };
+
+            strategies.put(ZstdDictionaryCompressionConfiguration.class, zstd);
+        }
+
         // Adding strategies from plugins.
         EntryCompressionStrategySupplier[] suppliers = kernalCtx.plugins()
             .extensions(EntryCompressionStrategySupplier.class);
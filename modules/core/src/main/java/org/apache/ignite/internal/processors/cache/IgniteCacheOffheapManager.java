@@ -666,6 +666,31 @@ public interface IgniteCacheOffheapManager {
      */
     public void removePendingRow(PendingRow row) throws IgniteCheckedException;
 
+    /**
+     * Removes pending rows of a partition, rows sorted in the tree order are removed in batches.
+     *
+     * @param partId Partition ID.
+     * @param rows Rows.
+     * @throws IgniteCheckedException If failed.
+     */
+    public void removePendingRows(int partId, List<PendingRow> rows) throws IgniteCheckedException;
+
+    /**
+     * Defers the removal of pending rows and the release of data rows of the entries of a partition removed by the
+     * current thread until {@link #finishExpiredRemovals()}, so the pending rows of expired entries are removed
+     * from the tree in a batch. Both methods must be invoked under the same checkpoint read lock.
+     *
+     * @param partId Partition ID.
+     */
+    public void startExpiredRemovals(int partId);
+
+    /**
+     * Removes the pending rows and then releases the data rows deferred since {@link #startExpiredRemovals(int)}.
+     *
+     * @throws IgniteCheckedException If failed.
+     */
+    public void finishExpiredRemovals() throws IgniteCheckedException;
+
     /**
      *
      */
@@ -854,6 +879,18 @@ public interface IgniteCacheOffheapManager {
             long expireTime,
             @Nullable CacheDataRow oldRow) throws IgniteCheckedException;
 
+        /**
+         * Moves a row to another data page. The row is written through the free list, so it ends up in the fullest
+         * data page which fits it, and all structures referencing the row link are updated. Must be invoked
+         * under the entry lock.
+         *
+         * @param cctx Cache context.
+         * @param oldRow Current row with full data.
+         * @return New row.
+         * @throws IgniteCheckedException If failed.
+         */
+        public CacheDataRow relocate(GridCacheContext cctx, CacheDataRow oldRow) throws IgniteCheckedException;
+
         /**
          * @param cctx Cache context.
          * @param key Key.
@@ -76,6 +76,7 @@ import org.apache.ignite.internal.processors.cache.persistence.tree.io.PageIO;
 import org.apache.ignite.internal.processors.cache.persistence.tree.reuse.ReuseList;
 import org.apache.ignite.internal.processors.cache.persistence.tree.util.PageHandler;
 import org.apache.ignite.internal.processors.cache.query.GridCacheQueryManager;
+import org.apache.ignite.internal.processors.cache.tree.CacheDataHashIndex;
 import org.apache.ignite.internal.processors.cache.tree.CacheDataRowStore;
 import org.apache.ignite.internal.processors.cache.tree.CacheDataTree;
 import org.apache.ignite.internal.processors.cache.tree.DataRow;
@@ -158,6 +159,9 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
     /** Batch size for cache removals during destroy. */
     private static final int BATCH_SIZE = 1000;
 
+    /** Removals deferred by the current thread, see {@link #startExpiredRemovals(int)}. */
+    private static final ThreadLocal<ExpiredRemovals> EXPIRED_RMVS = new ThreadLocal<>();
+
     /** */
     protected GridCacheSharedContext ctx;
 
@@ -182,6 +186,9 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
     /** */
     protected GridStripedLock partStoreLock = new GridStripedLock(Runtime.getRuntime().availableProcessors());
 
+    /** Whether partitions of in-memory non-MVCC groups maintain a hash index of the keys. */
+    private final boolean dataHashIdxEnabled = getBoolean(IgniteSystemProperties.IGNITE_CACHE_DATA_HASH_INDEX);
+
     /** {@inheritDoc} */
     @Override public GridAtomicLong globalRemoveId() {
         return globalRmvId;
@@ -302,13 +309,7 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
                 if (pendingEntries != null) {
                     PendingRow row = new PendingRow(cacheId);
 
-                    GridCursor<PendingRow> cursor = pendingEntries.find(row, row, PendingEntriesTree.WITHOUT_KEY);
-
-                    while (cursor.next()) {
-                        boolean res = pendingEntries.removex(cursor.get());
-
-                        assert res;
-                    }
+                    pendingEntries.removeRange(row, row, PendingEntriesTree.WITHOUT_KEY, -1);
                 }
             }
         }
@@ -392,6 +393,33 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
             store.pendingTree().remove(row);
     }
 
+    /** {@inheritDoc} */
+    @Override public void removePendingRows(int partId, List<PendingRow> rows) throws IgniteCheckedException {
+        CacheDataStore store = dataStore(partId, true);
+
+        if (store != null)
+            store.pendingTree().removeAll(rows);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void startExpiredRemovals(int partId) {
+        assert EXPIRED_RMVS.get() == null;
+
+        EXPIRED_RMVS.set(new ExpiredRemovals(grp.groupId(), partId));
+    }
+
+    /** {@inheritDoc} */
+    @Override public void finishExpiredRemovals() throws IgniteCheckedException {
+        ExpiredRemovals rmvs = EXPIRED_RMVS.get();
+
+        assert rmvs != null;
+
+        EXPIRED_RMVS.remove();
+
+        if (rmvs.store != null)
+            rmvs.store.finishExpiredRemovals(rmvs);
+    }
+
     /** {@inheritDoc} */
     @Override public long cacheEntriesCount(
         int cacheId,
@@ -1352,7 +1380,21 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
 
         UpdateLogImpl updateLog = new UpdateLogImpl(factory);
 
-        return new CacheDataStoreImpl(p, rowStore, dataTree, updateLog, () -> pendingEntries, grp, busyLock, log, null);
+        CacheDataHashIndex hashIdx = null;
+
+        if (dataHashIdxEnabled && !grp.mvccEnabled()) {
+            hashIdx = new CacheDataHashIndex(
+                grp,
+                dataTreeName + "-hash",
+                dataTree,
+                rowStore,
+                grp.reuseList(),
+                ctx.diagnostic().pageLockTracker()
+            );
+        }
+
+        return new CacheDataStoreImpl(p, rowStore, dataTree, hashIdx, updateLog, () -> pendingEntries, grp, busyLock,
+            log, null);
     }
 
     /** {@inheritDoc} */
@@ -1577,6 +1619,9 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
         /** */
         private final CacheDataTree dataTree;
 
+        /** Hash index of the keys, {@code null} if point lookups are served by the data tree. */
+        @Nullable private final CacheDataHashIndex hashIdx;
+
         /** */
         private final UpdateLog logTree;
 
@@ -1641,9 +1686,34 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
                 IgniteLogger log,
                 @Nullable Supplier<GridQueryRowCacheCleaner> cleaner
             ) {
+            this(partId, rowStore, dataTree, null, logTree, pendingEntries, grp, busyLock, log, cleaner);
+        }
+
+        /**
+         * @param partId Partition number.
+         * @param rowStore Row store.
+         * @param dataTree Data tree.
+         * @param hashIdx Hash index of the keys.
+         * @param logTree Partition log tree.
+         */
+        public CacheDataStoreImpl(
+                int partId,
+                CacheDataRowStore rowStore,
+                CacheDataTree dataTree,
+                @Nullable CacheDataHashIndex hashIdx,
+                UpdateLog logTree,
+                Supplier<PendingEntriesTree> pendingEntries,
+                CacheGroupContext grp,
+                GridSpinBusyLock busyLock,
+                IgniteLogger log,
+                @Nullable Supplier<GridQueryRowCacheCleaner> cleaner
+            ) {
+            assert hashIdx == null || !grp.mvccEnabled();
+
             this.partId = partId;
             this.rowStore = rowStore;
             this.dataTree = dataTree;
+            this.hashIdx = hashIdx;
             this.logTree = logTree;
             this.pendingEntries = pendingEntries;
             this.grp = grp;
@@ -1844,6 +1914,10 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
                 || cctx.cacheObjectContext().compressionStrategy() != null || oldRow.shadow())
                 return false;
 
+            // The tree leaf keeps a copy of the row which must be replaced along with the data page row.
+            if (dataTree.inlineRows())
+                return false;
+
             oldRow.key().prepareForCache(cctx.cacheObjectContext(), false);
             oldRow.value().prepareForCache(cctx.cacheObjectContext(), false);
 
@@ -1919,6 +1993,10 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
                 }
 
                 case IN_PLACE:
+                    // The new row carries a value shadow, so the inlined copy is rebuilt from the data page row.
+                    if (dataTree.inlineRows())
+                        dataTree.putx(inlineRow(newRow));
+
                     finishInPlaceUpdate(cctx, newRow, c.oldRow());
 
                     break;
@@ -1931,6 +2009,24 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
             }
         }
 
+        /**
+         * @param row Row updated in place.
+         * @return Row read from the data page to be inlined to the cache data tree leaf.
+         * @throws IgniteCheckedException If failed.
+         */
+        private CacheDataRow inlineRow(CacheDataRow row) throws IgniteCheckedException {
+            CacheDataRowAdapter stored = new CacheDataRowAdapter(row.link());
+
+            stored.initFromLink(grp, CacheDataRowAdapter.RowData.FULL);
+
+            DataRow inlineRow = makeDataRow(stored.key(), stored.value(), stored.version(), stored.expireTime(),
+                row.cacheId());
+
+            inlineRow.link(row.link());
+
+            return inlineRow;
+        }
+
         /**
          * Check replication conditions.
          *
@@ -2771,6 +2867,40 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
             }
         }
 
+        /** {@inheritDoc} */
+        @Override public CacheDataRow relocate(GridCacheContext cctx, CacheDataRow oldRow)
+            throws IgniteCheckedException {
+            assert oldRow.link() != 0L && !oldRow.tombstone() : oldRow;
+
+            if (!busyLock.enterBusy())
+                throw new NodeStoppingException("Operation has been cancelled (node is stopping).");
+
+            try {
+                int cacheId = grp.storeCacheIdInDataPage() ? cctx.cacheId() : CU.UNDEFINED_CACHE_ID;
+
+                DataRow dataRow = makeDataRow(oldRow.key(), oldRow.value(), oldRow.version(), oldRow.expireTime(),
+                    cacheId);
+
+                assert cctx.shared().database().checkpointLockIsHeldByThread();
+
+                rowStore.addRow(dataRow, grp.statisticsHolderData());
+
+                assert dataRow.link() != 0 : dataRow;
+
+                if (grp.sharedGroup() && dataRow.cacheId() == CU.UNDEFINED_CACHE_ID)
+                    dataRow.cacheId(cctx.cacheId());
+
+                dataTree.putx(dataRow);
+
+                finishUpdate(cctx, dataRow, oldRow);
+
+                return dataRow;
+            }
+            finally {
+                busyLock.leaveBusy();
+            }
+        }
+
         /** {@inheritDoc} */
         @Override public void mvccApplyUpdate(GridCacheContext cctx,
             KeyCacheObject key,
@@ -2895,6 +3025,8 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
                     addUpdateToLog(new UpdateLogRow(cctx.cacheId(), newRow.version().updateCounter(), newRow.link()));
             }
 
+            updateHashIndex(cctx, newRow, oldRow);
+
             if (oldRow != null) {
                 assert oldRow.link() != 0 : oldRow;
 
@@ -3104,8 +3236,13 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
             boolean oldVal = oldRow != null && !oldRow.tombstone();
             boolean oldShadow = oldRow != null && oldRow.shadow();
 
+            ExpiredRemovals rmvs = oldRow != null ? expiredRemovals() : null;
+
+            // Whether the release of the old row is deferred together with the removal of its pending row.
+            boolean deferred = false;
+
             if (oldVal) {
-                clearPendingEntries(cctx, oldRow);
+                deferred = clearPendingEntries(cctx, oldRow, rmvs);
 
                 decrementSize(cctx.cacheId());
             }
@@ -3119,7 +3256,7 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
                 if (tombstoneRow == null) {
                     tombstoneRemoved();
 
-                    clearPendingEntries(cctx, oldRow);
+                    deferred = clearPendingEntries(cctx, oldRow, rmvs);
 
                     // On tombstone removal should move tombstone clear counter forward to avoid data desync.
                     grp.topology().localPartition(oldRow.partition()).dataStore().partUpdateCounter().
@@ -3147,8 +3284,81 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
                 removeFromLog(new UpdateLogRow(cctx.cacheId(), oldRow.version().updateCounter(), oldRow.link()));
             }
 
-            if (oldRow != null && (tombstoneRow == null || tombstoneRow.link() != oldRow.link()))
-                rowStore.removeRow(oldRow.link(), grp.statisticsHolderData());
+            if (tombstoneRow != null)
+                updateHashIndex(cctx, tombstoneRow, oldRow);
+            else if (oldRow != null && hashIdx != null)
+                hashIdx.remove(hashIndexCacheId(cctx.cacheId()), oldRow.hash(), oldRow.link());
+
+            if (oldRow != null && (tombstoneRow == null || tombstoneRow.link() != oldRow.link())) {
+                if (deferred)
+                    rmvs.links.add(oldRow.link());
+                else
+                    rowStore.removeRow(oldRow.link(), grp.statisticsHolderData());
+            }
+        }
+
+        /**
+         * @return Removals deferred by the current thread in this partition or {@code null} if not deferred.
+         */
+        @Nullable private ExpiredRemovals expiredRemovals() {
+            ExpiredRemovals rmvs = EXPIRED_RMVS.get();
+
+            if (rmvs == null || rmvs.grpId != grp.groupId() || rmvs.partId != partId)
+                return null;
+
+            assert rmvs.store == null || rmvs.store == this;
+
+            rmvs.store = this;
+
+            return rmvs;
+        }
+
+        /**
+         * Removes the deferred pending rows and then releases the data rows, so the pending rows never refer
+         * to the released or reused links.
+         *
+         * @param rmvs Deferred removals.
+         * @throws IgniteCheckedException If failed.
+         */
+        private void finishExpiredRemovals(ExpiredRemovals rmvs) throws IgniteCheckedException {
+            // Rows are collected in the order of expiration which is the order of the tree.
+            if (!rmvs.pendingRows.isEmpty())
+                pendingTree().removeAll(rmvs.pendingRows);
+
+            for (int i = 0; i < rmvs.links.size(); i++)
+                rowStore.removeRow(rmvs.links.get(i), grp.statisticsHolderData());
+        }
+
+        /**
+         * Reflects a new row of a key in the hash index. Must be called before the old row is released.
+         *
+         * @param cctx Cache context.
+         * @param newRow New row.
+         * @param oldRow Old row if available.
+         * @throws IgniteCheckedException If failed.
+         */
+        private void updateHashIndex(
+            GridCacheContext cctx,
+            CacheDataRow newRow,
+            @Nullable CacheDataRow oldRow
+        ) throws IgniteCheckedException {
+            if (hashIdx == null)
+                return;
+
+            int cacheId = hashIndexCacheId(cctx.cacheId());
+
+            if (oldRow == null)
+                hashIdx.put(cacheId, newRow.hash(), newRow.link());
+            else if (oldRow.link() != newRow.link())
+                hashIdx.replace(cacheId, newRow.hash(), oldRow.link(), newRow.link());
+        }
+
+        /**
+         * @param cacheId Cache ID.
+         * @return Cache ID the hash index items are stored with.
+         */
+        private int hashIndexCacheId(int cacheId) {
+            return grp.sharedGroup() ? cacheId : CU.UNDEFINED_CACHE_ID;
         }
 
         /**
@@ -3157,6 +3367,18 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
          * @throws IgniteCheckedException If failed.
          */
         private void clearPendingEntries(GridCacheContext cctx, CacheDataRow oldRow)
+            throws IgniteCheckedException {
+            clearPendingEntries(cctx, oldRow, null);
+        }
+
+        /**
+         * @param cctx Cache context.
+         * @param oldRow Old row.
+         * @param rmvs Deferred removals or {@code null} to remove the pending row immediately.
+         * @return {@code True} if the removal of the pending row is deferred.
+         * @throws IgniteCheckedException If failed.
+         */
+        private boolean clearPendingEntries(GridCacheContext cctx, CacheDataRow oldRow, @Nullable ExpiredRemovals rmvs)
             throws IgniteCheckedException {
             int cacheId = grp.sharedGroup() ? cctx.cacheId() : CU.UNDEFINED_CACHE_ID;
 
@@ -3164,8 +3386,20 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
             assert cacheId == CU.UNDEFINED_CACHE_ID || oldRow.cacheId() == cacheId :
                 "Incorrect cache ID [expected=" + cacheId + ", actual=" + oldRow.cacheId() + "].";
 
-            if (pendingTree() != null && oldRow.expireTime() != 0)
-                pendingTree().removex(new PendingRow(cacheId, oldRow.tombstone(), oldRow.expireTime(), oldRow.link()));
+            if (pendingTree() == null || oldRow.expireTime() == 0)
+                return false;
+
+            PendingRow row = new PendingRow(cacheId, oldRow.tombstone(), oldRow.expireTime(), oldRow.link());
+
+            if (rmvs != null) {
+                rmvs.pendingRows.add(row);
+
+                return true;
+            }
+
+            pendingTree().removex(row);
+
+            return false;
         }
 
         /** {@inheritDoc} */
@@ -3196,6 +3430,8 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
 
                 row = clo.row();
             }
+            else if (hashIdx != null)
+                row = hashIdx.findOne(cacheId, key, x);
             else
                 row = dataTree.findOne(new SearchRow(cacheId, key), x);
 
@@ -3388,6 +3624,9 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
 
             logTree.destroy();
 
+            if (hashIdx != null)
+                hashIdx.destroy();
+
             dataTree.destroy(row -> {
                 try {
                     rowStore.removeRow(row.link(), grp.statisticsHolderData());
@@ -3431,25 +3670,75 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
             GridCursor<? extends CacheDataRow> cur =
                 cursor(cacheId, null, null, CacheDataRowAdapter.RowData.FULL, null, DATA_AND_TOMBSTONES);
 
-            int rmv = 0;
+            // Rows of the cursor are sorted in the tree order, so they are removed from the tree in batches.
+            List<CacheDataRow> rows = new ArrayList<>();
 
             while (cur.next()) {
-                if (++rmv == BATCH_SIZE) {
-                    grp.shared().database().checkpointReadUnlock();
+                CacheDataRow row = cur.get();
+
+                assert row.link() != 0 : row;
 
-                    rmv = 0;
+                rows.add(row);
+
+                if (rows.size() == BATCH_SIZE) {
+                    ex = removeRows(cacheId, rows, ex);
+
+                    rows.clear();
+
+                    grp.shared().database().checkpointReadUnlock();
 
                     grp.shared().database().checkpointReadLock();
                 }
+            }
 
-                CacheDataRow row = cur.get();
+            boolean rmv = !rows.isEmpty();
 
-                assert row.link() != 0 : row;
+            ex = removeRows(cacheId, rows, ex);
 
-                try {
-                    boolean res = dataTree.removex(row);
+            if (ex != null)
+                throw new IgniteCheckedException("Fail destroy store", ex);
+
+            // Allow checkpointer to progress if a partition contains less than BATCH_SIZE keys.
+            if (rmv) {
+                grp.shared().database().checkpointReadUnlock();
+
+                grp.shared().database().checkpointReadLock();
+            }
+        }
 
-                    assert res : row;
+        /**
+         * Removes the rows of the cache from the tree and the row store.
+         *
+         * @param cacheId Cache ID.
+         * @param rows Rows sorted in the tree order.
+         * @param ex Previous error.
+         * @return Error if failed to remove some rows.
+         */
+        private Exception removeRows(int cacheId, List<CacheDataRow> rows, Exception ex) {
+            if (rows.isEmpty())
+                return ex;
+
+            try {
+                int res = dataTree.removeAll(rows);
+
+                assert res == rows.size() : "Expected=" + rows.size() + ", removed=" + res;
+            }
+            catch (IgniteCheckedException e) {
+                U.error(log, "Fail remove rows [firstLink=" + rows.get(0).link() + ", cnt=" + rows.size() + "]");
+
+                if (ex == null)
+                    ex = e;
+                else
+                    ex.addSuppressed(e);
+
+                // Rows can't be released if the tree still refers to them.
+                return ex;
+            }
+
+            for (CacheDataRow row : rows) {
+                try {
+                    if (hashIdx != null)
+                        hashIdx.remove(hashIndexCacheId(cacheId), row.hash(), row.link());
 
                     rowStore.removeRow(row.link(), grp.statisticsHolderData());
 
@@ -3466,15 +3755,7 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
                 }
             }
 
-            if (ex != null)
-                throw new IgniteCheckedException("Fail destroy store", ex);
-
-            // Allow checkpointer to progress if a partition contains less than BATCH_SIZE keys.
-            if (rmv > 0) {
-                grp.shared().database().checkpointReadUnlock();
-
-                grp.shared().database().checkpointReadLock();
-            }
+            return ex;
         }
 
         /** {@inheritDoc} */
@@ -4034,4 +4315,33 @@ public class IgniteCacheOffheapManagerImpl implements IgniteCacheOffheapManager
             return TRUE;
         }
     }
+
+    /**
+     * Pending rows and data rows of the entries of a partition removed while their removal is deferred.
+     */
+    private static class ExpiredRemovals {
+        /** Cache group ID. */
+        private final int grpId;
+
+        /** Partition ID. */
+        private final int partId;
+
+        /** Partition data store, set by the first deferred removal. */
+        private CacheDataStoreImpl store;
+
+        /** Pending rows to remove. */
+        private final List<PendingRow> pendingRows = new ArrayList<>();
+
+        /** Links of the data rows to release. */
+        private final GridLongList links = new GridLongList();
+
+        /**
+         * @param grpId Cache group ID.
+         * @param partId Partition ID.
+         */
+        ExpiredRemovals(int grpId, int partId) {
+            this.grpId = grpId;
+            this.partId = partId;
+        }
+    }
 }
@@ -304,6 +304,10 @@ public class ValidationOnNodeJoinUtils {
             apply(assertParam, cc.getRebalanceBatchesPrefetchCount() > 0, "rebalanceBatchesPrefetchCount > 0");
         }
 
+        apply(assertParam,
+            cc.getDataInlineSize() >= 0 && cc.getDataInlineSize() <= CacheConfiguration.MAX_DATA_INLINE_SIZE,
+            "dataInlineSize >= 0 && dataInlineSize <= " + CacheConfiguration.MAX_DATA_INLINE_SIZE);
+
         if (cc.getCacheMode() == PARTITIONED || cc.getCacheMode() == REPLICATED) {
             if (cc.getAtomicityMode() == ATOMIC && cc.getWriteSynchronizationMode() == FULL_ASYNC)
                 U.warn(log, "Cache write synchronization mode is set to FULL_ASYNC. All single-key 'put' and " +
@@ -16,12 +16,14 @@
 
 package org.apache.ignite.internal.processors.cache.distributed.dht.preloader;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableSet;
@@ -38,6 +40,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.ignite.IgniteCheckedException;
 import org.apache.ignite.IgniteLogger;
+import org.apache.ignite.IgniteSystemProperties;
 import org.apache.ignite.cache.CacheRebalanceMode;
 import org.apache.ignite.cluster.ClusterNode;
 import org.apache.ignite.configuration.CacheConfiguration;
@@ -58,6 +61,7 @@ import org.apache.ignite.internal.processors.cache.GridCacheEntryRemovedExceptio
 import org.apache.ignite.internal.processors.cache.GridCacheMvccEntryInfo;
 import org.apache.ignite.internal.processors.cache.GridCachePartitionExchangeManager;
 import org.apache.ignite.internal.processors.cache.GridCacheSharedContext;
+import org.apache.ignite.internal.processors.cache.PartitionUpdateCounter;
 import org.apache.ignite.internal.processors.cache.WalStateManager;
 import org.apache.ignite.internal.processors.cache.distributed.dht.topology.GridDhtInvalidPartitionException;
 import org.apache.ignite.internal.processors.cache.distributed.dht.topology.GridDhtLocalPartition;
@@ -65,7 +69,10 @@ import org.apache.ignite.internal.processors.cache.distributed.dht.topology.Grid
 import org.apache.ignite.internal.processors.cache.mvcc.MvccUpdateVersionAware;
 import org.apache.ignite.internal.processors.cache.mvcc.MvccVersionAware;
 import org.apache.ignite.internal.processors.cache.mvcc.txlog.TxState;
+import org.apache.ignite.internal.processors.cache.persistence.GridCacheOffheapManager;
 import org.apache.ignite.internal.processors.cache.persistence.checkpoint.CheckpointProgress;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileDownloader;
+import org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager;
 import org.apache.ignite.internal.processors.metric.MetricRegistry;
 import org.apache.ignite.internal.processors.timeout.GridTimeoutObject;
 import org.apache.ignite.internal.processors.timeout.GridTimeoutObjectAdapter;
@@ -85,15 +92,18 @@ import org.apache.ignite.internal.util.typedef.internal.CU;
 import org.apache.ignite.internal.util.typedef.internal.LT;
 import org.apache.ignite.internal.util.typedef.internal.S;
 import org.apache.ignite.internal.util.typedef.internal.U;
+import org.apache.ignite.lang.IgniteBiTuple;
 import org.apache.ignite.lang.IgniteInClosure;
 import org.apache.ignite.lang.IgnitePredicate;
 import org.apache.ignite.spi.IgniteSpiException;
+import org.apache.ignite.thread.IgniteThread;
 import org.jetbrains.annotations.Nullable;
 
 import static java.util.Objects.nonNull;
 import static java.util.stream.Collectors.counting;
 import static java.util.stream.Collectors.partitioningBy;
 import static java.util.stream.Collectors.toSet;
+import static org.apache.ignite.IgniteSystemProperties.IGNITE_PDS_FILE_REBALANCE_ENABLED;
 import static org.apache.ignite.events.EventType.EVT_CACHE_REBALANCE_OBJECT_LOADED;
 import static org.apache.ignite.events.EventType.EVT_CACHE_REBALANCE_PART_LOADED;
 import static org.apache.ignite.events.EventType.EVT_CACHE_REBALANCE_STARTED;
@@ -103,6 +113,7 @@ import static org.apache.ignite.internal.IgniteFeatures.allNodesSupports;
 import static org.apache.ignite.internal.processors.cache.distributed.dht.topology.GridDhtPartitionState.MOVING;
 import static org.apache.ignite.internal.processors.cache.persistence.CheckpointState.FINISHED;
 import static org.apache.ignite.internal.processors.cache.persistence.CheckpointState.PAGE_SNAPSHOT_TAKEN;
+import static org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager.TMP_SUFFIX;
 import static org.apache.ignite.internal.processors.dr.GridDrType.DR_NONE;
 import static org.apache.ignite.internal.processors.dr.GridDrType.DR_PRELOAD;
 import static org.apache.ignite.internal.processors.metric.impl.MetricUtils.cacheGroupMetricsRegistryName;
@@ -140,6 +151,12 @@ public class GridDhtPartitionDemander {
     /** Rebalancing last cancelled time. */
     private final AtomicLong lastCancelledTime = new AtomicLong(-1);
 
+    /** @see IgniteSystemProperties#IGNITE_PDS_FILE_REBALANCE_ENABLED */
+    private final boolean fileRebalanceEnabled = IgniteSystemProperties.getBoolean(IGNITE_PDS_FILE_REBALANCE_ENABLED);
+
+    /** Partitions which have failed to be rebalanced by files, they are rebalanced by entries. */
+    private final Set<Integer> fileRebalanceFailed = ConcurrentHashMap.newKeySet();
+
     /**
      * @param grp Ccahe group.
      */
@@ -497,6 +514,42 @@ public class GridDhtPartitionDemander {
         }
     }
 
+    /**
+     * Handles the result of uploading of a partition file.
+     *
+     * @param nodeId Supplier node ID.
+     * @param supplyMsg Supply message.
+     */
+    public void handleFileSupplyMessage(UUID nodeId, GridDhtPartitionFileSupplyMessage supplyMsg) {
+        RebalanceFuture fut = rebalanceFut;
+
+        if (fut.isActual(supplyMsg.rebalanceId()))
+            fut.onFileSupplied(nodeId, supplyMsg);
+        else if (log.isDebugEnabled()) {
+            log.debug("File supply message has been ignored [grp=" + grp.cacheOrGroupName() + ", supplier=" + nodeId +
+                ", part=" + supplyMsg.partition() + ", rebalanceId=" + supplyMsg.rebalanceId() + ']');
+        }
+    }
+
+    /**
+     * Checks whether partitions of the group can be rebalanced by sending checkpointed partition files. Index
+     * partition is not sent, so groups with SQL indexes are rebalanced by entries.
+     *
+     * @param grp Cache group.
+     * @return {@code True} if partition files of the group can be rebalanced.
+     */
+    static boolean fileRebalanceSupported(CacheGroupContext grp) {
+        if (!grp.persistenceEnabled() || grp.isLocal() || grp.mvccEnabled() || grp.config().isEncryptionEnabled())
+            return false;
+
+        for (GridCacheContext<?, ?> cctx : grp.caches()) {
+            if (cctx.isQueryEnabled())
+                return false;
+        }
+
+        return true;
+    }
+
     /**
      * Handles supply message, which contains entries to populate partitions.
      * <br/>
@@ -895,7 +948,7 @@ public class GridDhtPartitionDemander {
      * @param infos Entries info for preload.
      * @throws IgniteInterruptedCheckedException If interrupted.
      */
-    private void preloadEntries(
+    void preloadEntries(
         AffinityTopologyVersion topVer,
         ClusterNode node,
         int p,
@@ -1284,6 +1337,9 @@ public class GridDhtPartitionDemander {
         /** Received keys for historical rebalance by suppliers. */
         private final Map<UUID, LongAdder> histReceivedBytes = new ConcurrentHashMap<>();
 
+        /** Downloaders of partition files by supplier. */
+        private final Map<UUID, Map<Integer, FileDownloader>> downloaders = new ConcurrentHashMap<>();
+
         /**
          * Creates a new rebalance future.
          *
@@ -1443,6 +1499,8 @@ public class GridDhtPartitionDemander {
                     d.rebalanceId(rebalanceId);
                     d.timeout(grp.preloader().timeout());
 
+                    Set<Integer> fileParts = filePartitions(d.partitions());
+
                     GridCompoundIdentityFuture<Void> fut = new GridCompoundIdentityFuture<>();
 
                     for (Integer partId : d.partitions().fullSet()) {
@@ -1469,13 +1527,234 @@ public class GridDhtPartitionDemander {
                         }
                     }
 
-                    fut.listen(f -> ctx.kernalContext().closure().runLocalSafe(() -> requestPartitions0(node, parts, d)));
+                    if (fileParts.isEmpty()) {
+                        fut.listen(f -> ctx.kernalContext().closure().runLocalSafe(
+                            () -> requestPartitions0(node, parts, d)));
+                    }
+                    else {
+                        // Downloading of files blocks the thread till the whole routine is finished.
+                        fut.listen(f -> new IgniteThread(ctx.igniteInstanceName(),
+                            "rebalance-files-" + grp.cacheOrGroupName() + '-' + node.id(), () -> {
+                                requestPartitionFiles(node, fileParts);
+
+                                boolean requestEntries;
+
+                                synchronized (this) {
+                                    requestEntries = !isDone() && !parts.isEmpty();
+                                }
+
+                                if (requestEntries)
+                                    requestPartitions0(node, parts, d);
+                            }).start());
+                    }
 
                     fut.markInitialized();
                 }
             }
         }
 
+        /**
+         * @param parts Partitions demanded from a supplier.
+         * @return Full partitions which are rebalanced by sending partition files.
+         */
+        private Set<Integer> filePartitions(IgniteDhtDemandedPartitionsMap parts) {
+            GridDhtPartitionDemander demander = ((GridDhtPreloader)grp.preloader()).demander();
+
+            // Partitions are cleared on recovery only if local WAL is disabled, since replacing of files isn't logged.
+            if (!demander.fileRebalanceEnabled || grp.localWalEnabled() || !fileRebalanceSupported(grp) ||
+                ctx.snapshot().pageChangesTracked(grp.groupId()))
+                return Collections.emptySet();
+
+            return parts.fullSet().stream()
+                .filter(p -> !demander.fileRebalanceFailed.contains(p))
+                .collect(toSet());
+        }
+
+        /**
+         * Requests checkpointed files of the partitions from the supplier and installs them in the order of the
+         * request. Partitions which fail to be installed are left for rebalancing by entries.
+         *
+         * @param node Supplier node.
+         * @param fileParts Partitions.
+         */
+        private void requestPartitionFiles(ClusterNode node, Set<Integer> fileParts) {
+            GridDhtPartitionDemander demander = ((GridDhtPreloader)grp.preloader()).demander();
+
+            FilePageStoreManager pageStore = (FilePageStoreManager)ctx.pageStore();
+
+            Map<Integer, FileDownloader> nodeDownloaders = new LinkedHashMap<>();
+            Map<Integer, File> files = new HashMap<>();
+
+            try {
+                int[] partsArr = new int[fileParts.size()];
+                int[] ports = new int[fileParts.size()];
+
+                int i = 0;
+
+                for (int p : fileParts) {
+                    File file = new File(pageStore.getPath(grp.sharedGroup(), grp.cacheOrGroupName(), p) +
+                        TMP_SUFFIX);
+
+                    FileDownloader downloader = new FileDownloader(log, file.toPath());
+
+                    files.put(p, file);
+                    nodeDownloaders.put(p, downloader);
+
+                    partsArr[i] = p;
+                    ports[i++] = downloader.start().getPort();
+                }
+
+                synchronized (this) {
+                    if (isDone())
+                        return;
+
+                    downloaders.put(node.id(), nodeDownloaders);
+                }
+
+                if (log.isInfoEnabled()) {
+                    log.info("Starting rebalance routine of partition files [grp=" + grp.cacheOrGroupName() +
+                        ", topVer=" + topVer + ", supplier=" + node.id() + ", parts=" + S.compact(fileParts) +
+                        ", rebalanceId=" + rebalanceId + ']');
+                }
+
+                ctx.io().sendOrderedMessage(node, GridCachePartitionExchangeManager.rebalanceTopic(0),
+                    new GridDhtPartitionFileDemandMessage(rebalanceId, topVer, grp.groupId(), partsArr, ports),
+                    grp.ioPolicy(), grp.preloader().timeout());
+
+                for (Map.Entry<Integer, FileDownloader> e : nodeDownloaders.entrySet()) {
+                    int p = e.getKey();
+
+                    if (isDone())
+                        return;
+
+                    FileDownloader downloader = e.getValue();
+
+                    downloader.download();
+
+                    try {
+                        downloader.finishFuture().get();
+
+                        File file = files.get(p);
+
+                        // Empty file is sent for a partition which is empty on the supplier.
+                        if (file.length() > 0) {
+                            long size = installPartitionFile(demander, node, p, file);
+
+                            onReceivedBytes(p, size, node);
+
+                            receivedBytes.addAndGet(size);
+                        }
+
+                        partitionDone(node.id(), p, true);
+                    }
+                    catch (IgniteCheckedException ex) {
+                        demander.fileRebalanceFailed.add(p);
+
+                        U.delete(files.get(p));
+
+                        if (!isDone()) {
+                            U.warn(log, "Failed to rebalance partition file, the partition will be rebalanced by " +
+                                "entries [grp=" + grp.cacheOrGroupName() + ", supplier=" + node.id() + ", part=" + p +
+                                ", err=" + ex.getMessage() + ']');
+                        }
+                    }
+                }
+            }
+            catch (IgniteCheckedException e) {
+                demander.fileRebalanceFailed.addAll(fileParts);
+
+                U.warn(log, "Failed to request partition files, the partitions will be rebalanced by entries [grp=" +
+                    grp.cacheOrGroupName() + ", supplier=" + node.id() + ", err=" + e.getMessage() + ']');
+            }
+            finally {
+                downloaders.remove(node.id());
+
+                for (FileDownloader downloader : nodeDownloaders.values())
+                    downloader.onResult(0, new IgniteCheckedException("Partition file rebalancing has been finished"));
+
+                for (File file : files.values())
+                    U.delete(file);
+            }
+        }
+
+        /**
+         * Replaces the store of the partition with the downloaded file and applies the entries and the update counter
+         * of the replaced store, which have been updated while the file has been transferred.
+         *
+         * @param demander Demander.
+         * @param node Supplier node.
+         * @param p Partition.
+         * @param file Partition file.
+         * @return Size of the file.
+         * @throws IgniteCheckedException If failed.
+         */
+        private long installPartitionFile(
+            GridDhtPartitionDemander demander,
+            ClusterNode node,
+            int p,
+            File file
+        ) throws IgniteCheckedException {
+            GridDhtLocalPartition part = grp.topology().localPartition(p);
+
+            if (part == null || part.state() != MOVING)
+                throw new IgniteCheckedException("Partition is not moving [part=" + p + ']');
+
+            long size = file.length();
+
+            GridCacheOffheapManager offheap = (GridCacheOffheapManager)grp.offheap();
+
+            IgniteBiTuple<List<GridCacheEntryInfo>, PartitionUpdateCounter> old =
+                offheap.replacePartitionFile(part, file);
+
+            if (!part.reserve())
+                throw new IgniteCheckedException("Failed to reserve partition [part=" + p + ']');
+
+            try {
+                demander.preloadEntries(topVer, node, p, old.get1().iterator());
+            }
+            finally {
+                part.release();
+            }
+
+            if (old.get2() != null) {
+                IgniteInternalFuture<Void> mergeFut = offheap.mergeUpdateCounter(part, old.get2());
+
+                ctx.database().wakeupForCheckpoint("partition file rebalance");
+
+                mergeFut.get();
+            }
+
+            if (log.isDebugEnabled()) {
+                log.debug("Partition file has been installed [grp=" + grp.cacheOrGroupName() + ", part=" + p +
+                    ", size=" + size + ", localEntries=" + old.get1().size() + ']');
+            }
+
+            return size;
+        }
+
+        /**
+         * @param nodeId Supplier node ID.
+         * @param supplyMsg Supply message.
+         */
+        private void onFileSupplied(UUID nodeId, GridDhtPartitionFileSupplyMessage supplyMsg) {
+            Map<Integer, FileDownloader> nodeDownloaders = downloaders.get(nodeId);
+
+            FileDownloader downloader = nodeDownloaders == null ? null : nodeDownloaders.get(supplyMsg.partition());
+
+            if (downloader != null)
+                downloader.onResult(supplyMsg.size(), supplyMsg.error());
+        }
+
+        /**
+         * Fails downloading of all partition files.
+         */
+        private void cancelFileDownloads() {
+            for (Map<Integer, FileDownloader> nodeDownloaders : downloaders.values()) {
+                for (FileDownloader downloader : nodeDownloaders.values())
+                    downloader.onResult(0, new IgniteCheckedException("Rebalancing has been cancelled"));
+            }
+        }
+
         /**
          * @param supplierNode Supplier node.
          * @param parts Map.
@@ -1658,6 +1937,8 @@ public class GridDhtPartitionDemander {
             boolean isCancelled = res == Boolean.FALSE || isFailed();
 
             if (byThisCall) {
+                cancelFileDownloads();
+
                 if (isCancelled)
                     lastCancelledTime.accumulateAndGet(System.currentTimeMillis(), Math::max);
                 else if (startTime != -1)
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.distributed.dht.preloader;
+
+import java.nio.ByteBuffer;
+import org.apache.ignite.internal.managers.communication.GridIoPolicy;
+import org.apache.ignite.internal.processors.affinity.AffinityTopologyVersion;
+import org.apache.ignite.internal.processors.cache.GridCacheGroupIdMessage;
+import org.apache.ignite.internal.util.tostring.GridToStringInclude;
+import org.apache.ignite.internal.util.typedef.internal.S;
+import org.apache.ignite.plugin.extensions.communication.MessageReader;
+import org.apache.ignite.plugin.extensions.communication.MessageWriter;
+
+/**
+ * Demand of partition files. The supplier copies checkpointed partition files and uploads each of them to the given
+ * port of the demander, a {@link GridDhtPartitionFileSupplyMessage} is sent when a partition file is uploaded or
+ * can't be uploaded. Partitions are uploaded one by one in the order of the request.
+ */
+public class GridDhtPartitionFileDemandMessage extends GridCacheGroupIdMessage {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Rebalance ID. */
+    private long rebalanceId;
+
+    /** Topology version. */
+    private AffinityTopologyVersion topVer;
+
+    /** Partitions. */
+    @GridToStringInclude
+    private int[] parts;
+
+    /** Ports of the demander which accept partition files. */
+    @GridToStringInclude
+    private int[] ports;
+
+    /**
+     * Empty constructor required for direct marshalling.
+     */
+    public GridDhtPartitionFileDemandMessage() {
+        // No-op.
+    }
+
+    /**
+     * @param rebalanceId Rebalance ID.
+     * @param topVer Topology version.
+     * @param grpId Cache group ID.
+     * @param parts Partitions.
+     * @param ports Ports of the demander which accept partition files.
+     */
+    GridDhtPartitionFileDemandMessage(long rebalanceId, AffinityTopologyVersion topVer, int grpId, int[] parts,
+        int[] ports) {
+        assert parts.length == ports.length;
+
+        this.rebalanceId = rebalanceId;
+        this.topVer = topVer;
+        this.grpId = grpId;
+        this.parts = parts;
+        this.ports = ports;
+    }
+
+    /**
+     * @return Rebalance ID.
+     */
+    long rebalanceId() {
+        return rebalanceId;
+    }
+
+    /**
+     * @return Partitions.
+     */
+    int[] partitions() {
+        return parts;
+    }
+
+    /**
+     * @return Ports of the demander which accept partition files.
+     */
+    int[] ports() {
+        return ports;
+    }
+
+    /** {@inheritDoc} */
+    @Override public AffinityTopologyVersion topologyVersion() {
+        return topVer;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean addDeploymentInfo() {
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean writeTo(ByteBuffer buf, MessageWriter writer) {
+        writer.setBuffer(buf);
+
+        if (!super.writeTo(buf, writer))
+            return false;
+
+        if (!writer.isHeaderWritten()) {
+            if (!writer.writeHeader(directType(), fieldsCount()))
+                return false;
+
+            writer.onHeaderWritten();
+        }
+
+        switch (writer.state()) {
+            case 4:
+                if (!writer.writeIntArray("parts", parts))
+                    return false;
+
+                writer.incrementState();
+
+            case 5:
+                if (!writer.writeIntArray("ports", ports))
+                    return false;
+
+                writer.incrementState();
+
+            case 6:
+                if (!writer.writeLong("rebalanceId", rebalanceId))
+                    return false;
+
+                writer.incrementState();
+
+            case 7:
+                if (!writer.writeAffinityTopologyVersion("topVer", topVer))
+                    return false;
+
+                writer.incrementState();
+
+        }
+
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean readFrom(ByteBuffer buf, MessageReader reader) {
+        reader.setBuffer(buf);
+
+        if (!reader.beforeMessageRead())
+            return false;
+
+        if (!super.readFrom(buf, reader))
+            return false;
+
+        switch (reader.state()) {
+            case 4:
+                parts = reader.readIntArray("parts");
+
+                if (!reader.isLastRead())
+                    return false;
+
+                reader.incrementState();
+
+            case 5:
+                ports = reader.readIntArray("ports");
+
+                if (!reader.isLastRead())
+                    return false;
+
+                reader.incrementState();
+
+            case 6:
+                rebalanceId = reader.readLong("rebalanceId");
+
+                if (!reader.isLastRead())
+                    return false;
+
+                reader.incrementState();
+
+            case 7:
+                topVer = reader.readAffinityTopologyVersion("topVer");
+
+                if (!reader.isLastRead())
+                    return false;
+
+                reader.incrementState();
+
+        }
+
+        return reader.afterMessageRead(GridDhtPartitionFileDemandMessage.class);
+    }
+
+    /** {@inheritDoc} */
+    @Override public short directType() {
+        return 189;
+    }
+
+    /** {@inheritDoc} */
+    @Override public byte fieldsCount() {
+        return 8;
+    }
+
+    /** {@inheritDoc} */
+    @Override public byte policy() {
+        return GridIoPolicy.REBALANCE_POOL;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(GridDhtPartitionFileDemandMessage.class, this, "super", super.toString());
+    }
+}
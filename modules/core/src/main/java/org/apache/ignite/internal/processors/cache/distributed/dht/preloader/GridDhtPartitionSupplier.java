@@ -16,6 +16,10 @@
 
 package org.apache.ignite.internal.processors.cache.distributed.dht.preloader;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -33,12 +37,14 @@ import org.apache.ignite.cluster.ClusterNode;
 import org.apache.ignite.configuration.IgniteConfiguration;
 import org.apache.ignite.failure.FailureContext;
 import org.apache.ignite.failure.FailureType;
+import org.apache.ignite.internal.IgniteInternalFuture;
 import org.apache.ignite.internal.IgniteNodeAttributes;
 import org.apache.ignite.internal.cluster.ClusterTopologyCheckedException;
 import org.apache.ignite.internal.processors.affinity.AffinityTopologyVersion;
 import org.apache.ignite.internal.processors.cache.CacheGroupContext;
 import org.apache.ignite.internal.processors.cache.GridCacheEntryInfo;
 import org.apache.ignite.internal.processors.cache.GridCacheMvccEntryInfo;
+import org.apache.ignite.internal.processors.cache.GridCachePartitionExchangeManager;
 import org.apache.ignite.internal.processors.cache.IgniteRebalanceIterator;
 import org.apache.ignite.internal.processors.cache.TombstoneCacheObject;
 import org.apache.ignite.internal.processors.cache.distributed.dht.topology.GridDhtLocalPartition;
@@ -49,6 +55,10 @@ import org.apache.ignite.internal.processors.cache.mvcc.MvccUtils;
 import org.apache.ignite.internal.processors.cache.mvcc.MvccVersionAware;
 import org.apache.ignite.internal.processors.cache.mvcc.txlog.TxState;
 import org.apache.ignite.internal.processors.cache.persistence.CacheDataRow;
+import org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileUploader;
+import org.apache.ignite.internal.util.future.GridFinishedFuture;
+import org.apache.ignite.internal.util.future.GridFutureAdapter;
 import org.apache.ignite.internal.util.tostring.GridToStringExclude;
 import org.apache.ignite.internal.util.typedef.F;
 import org.apache.ignite.internal.util.typedef.T3;
@@ -58,10 +68,13 @@ import org.apache.ignite.internal.util.typedef.internal.S;
 import org.apache.ignite.internal.util.typedef.internal.U;
 import org.apache.ignite.lang.IgnitePredicate;
 import org.apache.ignite.spi.IgniteSpiException;
+import org.jetbrains.annotations.Nullable;
 
+import static java.lang.String.format;
 import static org.apache.ignite.events.EventType.EVT_CACHE_REBALANCE_PART_MISSED;
 import static org.apache.ignite.events.EventType.EVT_CACHE_REBALANCE_PART_SUPPLIED;
 import static org.apache.ignite.internal.processors.cache.distributed.dht.topology.GridDhtPartitionState.OWNING;
+import static org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager.PART_FILE_TEMPLATE;
 
 /**
  * Class for supplying partitions to demanding nodes.
@@ -575,6 +588,151 @@ public class GridDhtPartitionSupplier {
         }
     }
 
+    /**
+     * Copies checkpointed files of the demanded partitions and uploads them to the demander one by one in the order
+     * of the demand message.
+     *
+     * @param nodeId Demander node ID.
+     * @param demandMsg Demand message.
+     */
+    public void handleFileDemandMessage(UUID nodeId, GridDhtPartitionFileDemandMessage demandMsg) {
+        Set<Integer> parts = new HashSet<>();
+
+        for (int p : demandMsg.partitions()) {
+            GridDhtLocalPartition part = top.localPartition(p);
+
+            if (part != null && part.state() == OWNING)
+                parts.add(p);
+        }
+
+        if (log.isInfoEnabled()) {
+            log.info("Starting supplying partition files [grp=" + grp.cacheOrGroupName() + ", demander=" + nodeId +
+                ", topVer=" + demandMsg.topologyVersion() + ", parts=" + parts + ']');
+        }
+
+        IgniteInternalFuture<File> copyFut = parts.isEmpty() || !GridDhtPartitionDemander.fileRebalanceSupported(grp) ?
+            new GridFinishedFuture<>(new IgniteCheckedException("Partition files can't be supplied")) :
+            grp.shared().snapshot().copyPartitions(grp.groupId(), parts);
+
+        copyFut.listen(f -> grp.shared().kernalContext().pools().getRebalanceExecutorService().execute(() -> {
+            File dir = f.error() == null ? f.result() : null;
+
+            try {
+                uploadFiles(nodeId, demandMsg, parts, dir, f.error());
+            }
+            finally {
+                if (dir != null)
+                    U.delete(dir);
+            }
+        }));
+    }
+
+    /**
+     * @param nodeId Demander node ID.
+     * @param demandMsg Demand message.
+     * @param parts Partitions owned by the local node.
+     * @param dir Directory with the copies of partitions, {@code null} if partitions have not been copied.
+     * @param copyErr Error of the copying.
+     */
+    private void uploadFiles(
+        UUID nodeId,
+        GridDhtPartitionFileDemandMessage demandMsg,
+        Set<Integer> parts,
+        @Nullable File dir,
+        @Nullable Throwable copyErr
+    ) {
+        File cacheDir = null;
+
+        if (dir != null)
+            cacheDir = new File(dir, FilePageStoreManager.cacheDirName(grp.sharedGroup(), grp.cacheOrGroupName()));
+
+        for (int i = 0; i < demandMsg.partitions().length; i++) {
+            int p = demandMsg.partitions()[i];
+
+            ClusterNode demander = grp.shared().discovery().node(nodeId);
+
+            if (demander == null)
+                return;
+
+            long size = 0;
+            Throwable err = null;
+
+            if (copyErr != null)
+                err = copyErr;
+            else if (!parts.contains(p))
+                err = new IgniteCheckedException("Partition is not owned by the supplier [part=" + p + ']');
+            else {
+                GridFutureAdapter<Long> uploadFut = new GridFutureAdapter<>();
+
+                try {
+                    SocketChannel ch = connect(demander, demandMsg.ports()[i]);
+
+                    File file = new File(cacheDir, format(PART_FILE_TEMPLATE, p));
+
+                    // Partition without pages at the checkpoint isn't copied, it's sent as an empty file.
+                    if (file.exists()) {
+                        new FileUploader(file.toPath(), log).upload(ch, uploadFut);
+
+                        size = uploadFut.get();
+                    }
+                    else
+                        U.closeQuiet(ch);
+                }
+                catch (IgniteCheckedException e) {
+                    err = e;
+                }
+            }
+
+            try {
+                grp.shared().io().sendOrderedMessage(demander, GridCachePartitionExchangeManager.rebalanceTopic(0),
+                    new GridDhtPartitionFileSupplyMessage(demandMsg.rebalanceId(), demandMsg.topologyVersion(),
+                        grp.groupId(), p, size, err),
+                    grp.ioPolicy(), grp.preloader().timeout());
+            }
+            catch (IgniteCheckedException e) {
+                if (log.isDebugEnabled())
+                    log.debug("Failed to send partition file supply message [demander=" + nodeId + ", err=" + e + ']');
+
+                return;
+            }
+        }
+
+        if (log.isInfoEnabled()) {
+            log.info("Finished supplying partition files [grp=" + grp.cacheOrGroupName() + ", demander=" + nodeId +
+                ", topVer=" + demandMsg.topologyVersion() + ']');
+        }
+    }
+
+    /**
+     * @param node Node.
+     * @param port Port.
+     * @return Channel connected to the port of the node.
+     * @throws IgniteCheckedException If failed to connect.
+     */
+    private SocketChannel connect(ClusterNode node, int port) throws IgniteCheckedException {
+        IgniteCheckedException err = new IgniteCheckedException("Failed to connect to the demander [node=" +
+            node.id() + ", port=" + port + ']');
+
+        for (InetSocketAddress addr : U.toSocketAddresses(node, port)) {
+            SocketChannel ch = null;
+
+            try {
+                ch = SocketChannel.open();
+
+                ch.socket().connect(addr, (int)grp.shared().gridConfig().getNetworkTimeout());
+
+                return ch;
+            }
+            catch (IOException e) {
+                U.closeQuiet(ch);
+
+                err.addSuppressed(e);
+            }
+        }
+
+        throw err;
+    }
+
     /**
      * Extracts entry info from row.
      * @param row Cache data row.
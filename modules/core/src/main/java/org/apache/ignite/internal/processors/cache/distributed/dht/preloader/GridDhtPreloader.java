@@ -404,6 +404,32 @@ public class GridDhtPreloader extends GridCachePreloaderAdapter {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override public void handleFileDemandMessage(UUID nodeId, GridDhtPartitionFileDemandMessage d) {
+        if (!enterBusy())
+            return;
+
+        try {
+            supplier.handleFileDemandMessage(nodeId, d);
+        }
+        finally {
+            leaveBusy();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void handleFileSupplyMessage(UUID nodeId, GridDhtPartitionFileSupplyMessage s) {
+        if (!enterBusy())
+            return;
+
+        try {
+            demander.handleFileSupplyMessage(nodeId, s);
+        }
+        finally {
+            leaveBusy();
+        }
+    }
+
     /** {@inheritDoc} */
     @Override public GridDhtPartitionDemander.RebalanceFuture prepare(
         GridDhtPartitionExchangeId exchId,
@@ -164,6 +164,12 @@ public class GridDhtLocalPartition extends GridCacheConcurrentMapImpl implements
     /** Earliest checkpoint timestamp. */
     private volatile long earliestCpTs;
 
+    /**
+     * Set if the rows of the renting partition are not cleared, since they are dropped with the partition file when
+     * the partition is evicted.
+     */
+    private volatile boolean dropped;
+
     /**
      * @param ctx Context.
      * @param grp Cache group.
@@ -213,15 +219,7 @@ public class GridDhtLocalPartition extends GridCacheConcurrentMapImpl implements
             if (grp.walEnabled() && !recovery)
                 ctx.wal().log(new PartitionMetaStateRecord(grp.groupId(), id, state(), 0));
 
-            // Inject row cache cleaner on store creation
-            // Used in case the cache with enabled SqlOnheapCache is single cache at the cache group
-            if (ctx.kernalContext().query().moduleEnabled()) {
-                GridQueryRowCacheCleaner cleaner = ctx.kernalContext().query().getIndexing()
-                    .rowCacheCleaner(grp.groupId());
-
-                if (store != null && cleaner != null)
-                    store.setRowCacheCleaner(cleaner);
-            }
+            injectRowCacheCleaner(store);
         }
         catch (IgniteCheckedException e) {
             // TODO ignite-db
@@ -301,6 +299,36 @@ public class GridDhtLocalPartition extends GridCacheConcurrentMapImpl implements
         return store;
     }
 
+    /**
+     * Replaces the data store of the partition with the store of the rebalanced partition file. The previous store
+     * must be destroyed by the caller under the checkpoint write lock.
+     *
+     * @param store New data store.
+     */
+    public void dataStore(CacheDataStore store) {
+        assert state() == MOVING : this;
+
+        injectRowCacheCleaner(store);
+
+        this.store = store;
+    }
+
+    /**
+     * Injects row cache cleaner on store creation.
+     * Used in case the cache with enabled SqlOnheapCache is single cache at the cache group.
+     *
+     * @param store Data store.
+     */
+    private void injectRowCacheCleaner(@Nullable CacheDataStore store) {
+        if (ctx.kernalContext().query().moduleEnabled()) {
+            GridQueryRowCacheCleaner cleaner = ctx.kernalContext().query().getIndexing()
+                .rowCacheCleaner(grp.groupId());
+
+            if (store != null && cleaner != null)
+                store.setRowCacheCleaner(cleaner);
+        }
+    }
+
     /**
      * Adds group reservation to this partition.
      *
@@ -580,6 +608,9 @@ public class GridDhtLocalPartition extends GridCacheConcurrentMapImpl implements
                 "Only partitions in state OWNING or RENTING can be moved to MOVING state " + partState + " " + id;
 
             if (casState(state, MOVING)) {
+                // The rows are kept by the partition again.
+                dropped = false;
+
                 // The state is switched under global topology lock, safe to record version here.
                 updateClearVersion();
 
@@ -744,10 +775,30 @@ public class GridDhtLocalPartition extends GridCacheConcurrentMapImpl implements
         // Some entries still might be present in partition cache maps due to concurrent updates on backup nodes,
         // but it's safe to finish eviction because no physical updates are possible.
         // A partition is promoted to EVICTED state if it is not reserved and empty.
-        if (state == RENTING && store.isEmpty() && getReservations(state0) == 0)
+        if (state == RENTING && (dropped || store.isEmpty()) && getReservations(state0) == 0)
             casState(state0, EVICTED);
     }
 
+    /**
+     * Checks whether the rows of the partition can be dropped along with the partition file on eviction. The rows
+     * are not visited then, so nothing has to be done for them besides the removal from the partition file.
+     *
+     * @return {@code True} if the partition can be evicted by destroying its file.
+     */
+    private boolean dropOnEviction() {
+        if (!ctx.evict().dropPartitionOnEviction() || forceTestCheckpointOnEviction || !grp.persistenceEnabled() ||
+            grp.mvccEnabled() || grp.eventRecordable(EVT_CACHE_REBALANCE_OBJECT_UNLOADED))
+            return false;
+
+        // SQL indexes are stored in the index partition and refer to the rows by links.
+        for (GridCacheContext<?, ?> cctx : grp.caches()) {
+            if (cctx.isQueryEnabled() || cctx.store().isLocal())
+                return false;
+        }
+
+        return true;
+    }
+
     /**
      * @param topVer Topology version.
      * @return {@code True} if local node is primary for this partition.
@@ -949,6 +1000,13 @@ public class GridDhtLocalPartition extends GridCacheConcurrentMapImpl implements
         if (state0 == EVICTED && task.reason() == PartitionsEvictManager.EvictReason.EVICTION)
             return 0;
 
+        if (task.reason() == PartitionsEvictManager.EvictReason.EVICTION && dropOnEviction()) {
+            // The partition file is destroyed on a checkpoint after the partition is evicted.
+            dropped = true;
+
+            return fullSize();
+        }
+
         GridCacheVersion clearVer = ctx.versions().startVersion();
         GridCacheContext cctx = grp.sharedGroup() ? null : singleCacheEntryMap.cctx;
 
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.StringJoiner;
@@ -61,6 +62,8 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
 
 import static java.util.Objects.nonNull;
+import static org.apache.ignite.IgniteSystemProperties.IGNITE_PDS_DROP_PARTITION_ON_EVICTION;
+import static org.apache.ignite.IgniteSystemProperties.getBoolean;
 import static org.apache.ignite.IgniteSystemProperties.getInteger;
 import static org.apache.ignite.IgniteSystemProperties.getLong;
 import static org.apache.ignite.failure.FailureType.SYSTEM_WORKER_TERMINATION;
@@ -89,9 +92,15 @@ public class PartitionsEvictManager extends GridCacheSharedManagerAdapter {
     private final long evictionProgressFreqMs = getLong(SHOW_EVICTION_PROGRESS_FREQ,
         DEFAULT_SHOW_EVICTION_PROGRESS_FREQ_MS);
 
+    /** Drop persistent partition files on eviction instead of removing the rows. */
+    private final boolean dropPartOnEviction = getBoolean(IGNITE_PDS_DROP_PARTITION_ON_EVICTION);
+
     /** */
     private static final int MAX_EVICT_QUEUE_SIZE = getInteger("MAX_EVICT_QUEUE_SIZE", 10_000);
 
+    /** Maximum number of rows of a cache partition expired under one checkpoint read lock. */
+    private static final int EXPIRE_BATCH_SIZE = 128;
+
     /** */
     private static final IgniteUuid FILL_EVICT_QUEUE_TASK_ID_TTL = IgniteUuid.randomUuid();
 
@@ -401,6 +410,10 @@ public class PartitionsEvictManager extends GridCacheSharedManagerAdapter {
     }
 
     /**
+     * Expires the rows of the queue. Consecutive rows of the same cache partition are expired as a batch
+     * under one checkpoint read lock. The pending rows of the expired entries of a batch and the rows of an obsolete
+     * partition are removed from the pending tree at once.
+     *
      * @param tombstone {@code True} to expire tombstones.
      * @param c Closure.
      * @param amount The amount.
@@ -411,6 +424,11 @@ public class PartitionsEvictManager extends GridCacheSharedManagerAdapter {
     public boolean expire(boolean tombstone, IgniteClosure2X<GridCacheEntryEx, Long, Boolean> c, int amount, long now) {
         FastSizeDeque<PendingRow> queue = evictQueue(tombstone);
 
+        List<PendingRow> batch = new ArrayList<>(EXPIRE_BATCH_SIZE);
+
+        // Row of another partition polled while the batch was being collected.
+        PendingRow next = null;
+
         PendingRow row;
 
         int cleared = 0;
@@ -420,41 +438,33 @@ public class PartitionsEvictManager extends GridCacheSharedManagerAdapter {
         try {
             int before = queue.sizex();
 
-            while ((row = queue.pollFirst()) != null) {
-                GridCacheContext<Object, Object> ctx = cctx.cache().context().cacheContext(row.cacheId);
+            while ((row = next != null ? next : queue.pollFirst()) != null) {
+                next = null;
 
-                if (ctx != null && ctx.isNear())
-                    ctx = ctx.near().dht().context();
+                if (!batch.isEmpty() && !samePartition(batch.get(0), row)) {
+                    expireBatch(batch, c, now);
 
-                // Skip rows with outdated contexts.
-                if (ctx != null && ctx.dynamicDeploymentId().equals(row.deploymentId)) {
-                    try {
-                        GridCacheEntryEx entry = ctx.cache().entryEx(row.key);
+                    next = row;
 
-                        c.apply(entry, now); // Second argument is used for "forced expiration" logic.
-                    }
-                    catch (GridDhtInvalidPartitionException ignored) {
-                        // The row belongs to obsolete partition, remove it.
-                        try {
-                            ctx.offheap().removePendingRow(row);
-                        }
-                        catch (IgniteCheckedException e) {
-                            log.error("Failed to remove pending row [row=" + row + ']', e);
-                        }
-                    }
+                    continue;
                 }
 
+                batch.add(row);
+
                 cleared++;
 
-                if ((cleared & 127) == 0) {
-                    cctx.database().checkpointReadUnlock();
-                    cctx.database().checkpointReadLock();
-                }
+                boolean last = amount != -1 && cleared == amount;
+
+                if (batch.size() == EXPIRE_BATCH_SIZE || last) {
+                    expireBatch(batch, c, now);
 
-                if (amount != -1 && cleared == amount)
-                    break;
+                    if (last)
+                        break;
+                }
             }
 
+            expireBatch(batch, c, now);
+
             if (cleared > 0 && log.isDebugEnabled()) {
                 log.debug("After the expiration [cleared=" + cleared + ", tombstone=" + tombstone +
                     ", initialSize=" + before + ", remaining=" + queue.sizex() + ']');
@@ -470,6 +480,93 @@ public class PartitionsEvictManager extends GridCacheSharedManagerAdapter {
         }
     }
 
+    /**
+     * @param row1 First row.
+     * @param row2 Second row.
+     * @return {@code True} if the rows belong to the same cache partition.
+     */
+    private static boolean samePartition(PendingRow row1, PendingRow row2) {
+        return row1.cacheId == row2.cacheId && row1.key.partition() == row2.key.partition();
+    }
+
+    /**
+     * Expires the rows of a cache partition and clears the batch. Must be invoked under the checkpoint read lock,
+     * which is released after the batch to let the checkpointer progress.
+     *
+     * @param batch Rows of a cache partition.
+     * @param c Closure.
+     * @param now Expire time.
+     */
+    private void expireBatch(List<PendingRow> batch, IgniteClosure2X<GridCacheEntryEx, Long, Boolean> c, long now) {
+        if (batch.isEmpty())
+            return;
+
+        PendingRow first = batch.get(0);
+
+        GridCacheContext<Object, Object> ctx = cctx.cache().context().cacheContext(first.cacheId);
+
+        if (ctx != null && ctx.isNear())
+            ctx = ctx.near().dht().context();
+
+        // Skip rows with outdated contexts.
+        if (ctx != null) {
+            int part = first.key.partition();
+
+            List<PendingRow> invalid = null;
+
+            // The pending rows of the expired entries are removed from the tree at once after the batch.
+            ctx.offheap().startExpiredRemovals(part);
+
+            try {
+                for (PendingRow row : batch) {
+                    if (!ctx.dynamicDeploymentId().equals(row.deploymentId))
+                        continue;
+
+                    // The rest of the rows belongs to the same obsolete partition.
+                    if (invalid != null) {
+                        invalid.add(row);
+
+                        continue;
+                    }
+
+                    try {
+                        GridCacheEntryEx entry = ctx.cache().entryEx(row.key);
+
+                        c.apply(entry, now); // Second argument is used for "forced expiration" logic.
+                    }
+                    catch (GridDhtInvalidPartitionException ignored) {
+                        invalid = new ArrayList<>();
+
+                        invalid.add(row);
+                    }
+                }
+            }
+            finally {
+                try {
+                    ctx.offheap().finishExpiredRemovals();
+                }
+                catch (IgniteCheckedException e) {
+                    log.error("Failed to remove pending rows of expired entries [part=" + part + ']', e);
+                }
+            }
+
+            // The rows belong to obsolete partition, remove them.
+            if (invalid != null) {
+                try {
+                    ctx.offheap().removePendingRows(part, invalid);
+                }
+                catch (IgniteCheckedException e) {
+                    log.error("Failed to remove pending rows [part=" + part + ", cnt=" + invalid.size() + ']', e);
+                }
+            }
+        }
+
+        batch.clear();
+
+        cctx.database().checkpointReadUnlock();
+        cctx.database().checkpointReadLock();
+    }
+
     /** {@inheritDoc} */
     @Override protected void onKernalStop0(boolean cancel) {
         super.onKernalStop0(cancel);
@@ -504,6 +601,13 @@ public class PartitionsEvictManager extends GridCacheSharedManagerAdapter {
         return joiner.toString();
     }
 
+    /**
+     * @return {@code True} if rows of evicted persistent partitions may be dropped with the partition files.
+     */
+    public boolean dropPartitionOnEviction() {
+        return dropPartOnEviction;
+    }
+
     /**
      * Cleans up group eviction context when it's safe.
      *
@@ -164,6 +164,21 @@ public class CacheDataRowAdapter implements CacheDataRow {
         doInitFromLink(link, sharedCtx, coctx, pageMem, grpId, statHolder, readCacheId, rowData, null, skipVer);
     }
 
+    /**
+     * Read row from a copy inlined to a cache data tree leaf page. The copy has the format
+     * of a data page row without cache ID.
+     *
+     * @param grp Cache group.
+     * @param addr Address of the inlined row.
+     * @param rowData Required row data.
+     * @param skipVer Whether version read should be skipped.
+     * @throws IgniteCheckedException If failed.
+     */
+    public final void initFromInline(CacheGroupContext grp, long addr, RowData rowData, boolean skipVer)
+        throws IgniteCheckedException {
+        readFullRow(grp.shared(), grp.cacheObjectContext(), addr, rowData, false, skipVer);
+    }
+
     /**
      * @param io Data page IO.
      * @param pageAddr Data page address.
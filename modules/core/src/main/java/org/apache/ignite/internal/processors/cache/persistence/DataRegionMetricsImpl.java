@@ -117,6 +117,9 @@ public class DataRegionMetricsImpl implements DataRegionMetrics {
     /** */
     private final LongAdderMetric readPages;
 
+    /** */
+    private final LongAdderMetric hitPages;
+
     /** */
     private final LongAdderMetric writtenPages;
 
@@ -239,6 +242,13 @@ public class DataRegionMetricsImpl implements DataRegionMetrics {
         readPages = mreg.longAdderMetric("PagesRead",
             "Number of pages read from last restart.");
 
+        hitPages = mreg.longAdderMetric("PagesHit",
+            "Number of page accesses served from memory without reading from persistent storage from last restart.");
+
+        mreg.register("PagesHitRatio",
+            this::pagesHitRatio,
+            "Ratio of page accesses served from memory to all page accesses from last restart.");
+
         writtenPages = mreg.longAdderMetric("PagesWritten",
             "Number of pages written from last restart.");
 
@@ -537,6 +547,24 @@ public class DataRegionMetricsImpl implements DataRegionMetrics {
             readPages.increment();
     }
 
+    /**
+     * Updates page hits.
+     */
+    public void onPageHit() {
+        if (metricsEnabled)
+            hitPages.increment();
+    }
+
+    /**
+     * @return Ratio of page accesses served from memory to all page accesses.
+     */
+    private double pagesHitRatio() {
+        long hits = hitPages.value();
+        long total = hits + readPages.value();
+
+        return total == 0 ? 0 : (double)hits / total;
+    }
+
     /**
      * Updates page written.
      */
@@ -781,6 +809,7 @@ public class DataRegionMetricsImpl implements DataRegionMetrics {
         largeEntriesPages.reset();
         dirtyPages.reset();
         readPages.reset();
+        hitPages.reset();
         writtenPages.reset();
         replacedPages.reset();
         offHeapSize.reset();
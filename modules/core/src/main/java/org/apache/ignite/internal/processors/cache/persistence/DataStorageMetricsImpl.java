@@ -167,6 +167,36 @@ public class DataStorageMetricsImpl implements DataStorageMetricsMXBean {
     /** Total size of the compressed segments in bytes. */
     private final LongAdderMetric walCompressedBytes;
 
+    /** Number of commits covered by one WAL fsync in FSYNC mode. */
+    private final HistogramMetricImpl walGroupCommitSizeHistogram;
+
+    /** Time spent by the WAL fsync initiator waiting for other commits in FSYNC mode. */
+    private final HistogramMetricImpl walGroupCommitWaitHistogram;
+
+    /** Current WAL group commit window in FSYNC mode. */
+    private final AtomicLongMetric walGroupCommitWindow;
+
+    /** Number of WAL records read by the recovery on node start. */
+    private final LongAdderMetric walRecoveryRecordsRead;
+
+    /** Number of updates applied by the recovery on node start. */
+    private final LongAdderMetric walRecoveryUpdatesApplied;
+
+    /** Number of updates applied by the recovery during the last time interval. */
+    private final HitRateMetric walRecoveryRate;
+
+    /** Index of the WAL segment read by the recovery. */
+    private final AtomicLongMetric walRecoverySegment;
+
+    /** Current stage of the recovery. */
+    private volatile String walRecoveryStage = "NONE";
+
+    /** Recovery start time. */
+    private volatile long walRecoveryStart;
+
+    /** Recovery end time. */
+    private volatile long walRecoveryEnd;
+
     /**
      * @param mmgr Metrics manager.
      * @param metricsEnabled Metrics enabled flag.
@@ -325,6 +355,37 @@ public class DataStorageMetricsImpl implements DataStorageMetricsMXBean {
             "WalCompressedBytes",
             "Total size of the compressed segments in bytes."
         );
+
+        walGroupCommitSizeHistogram = mreg.histogram("WalGroupCommitSizeHistogram",
+            new long[] {1, 2, 4, 8, 16, 32, 64, 128},
+            "Histogram of the number of commits covered by one WAL fsync in FSYNC mode.");
+
+        walGroupCommitWaitHistogram = mreg.histogram("WalGroupCommitWaitHistogram",
+            new long[] {10, 50, 100, 500, 1000, 5000, 10000},
+            "Histogram of the time the WAL fsync initiator waits for other commits in FSYNC mode in microseconds.");
+
+        walGroupCommitWindow = mreg.longMetric("WalGroupCommitWindow",
+            "Current maximum time the WAL fsync initiator waits for other commits in FSYNC mode in nanoseconds.");
+
+        walRecoveryRecordsRead = mreg.longAdderMetric("WalRecoveryRecordsRead",
+            "Number of WAL records read by the recovery on node start.");
+
+        walRecoveryUpdatesApplied = mreg.longAdderMetric("WalRecoveryUpdatesApplied",
+            "Number of page and logical updates applied by the recovery on node start.");
+
+        walRecoveryRate = mreg.hitRateMetric("WalRecoveryRate",
+            "Number of updates applied by the recovery during the last time interval.",
+            rateTimeInterval,
+            subInts);
+
+        walRecoverySegment = mreg.longMetric("WalRecoverySegment",
+            "Index of the WAL segment read by the recovery on node start.");
+
+        mreg.register("WalRecoveryStage", () -> walRecoveryStage, String.class,
+            "Stage of the recovery on node start: NONE, BINARY, LOGICAL or FINISHED.");
+
+        mreg.register("WalRecoveryDuration", this::walRecoveryDuration,
+            "Duration of the recovery on node start in milliseconds.");
     }
 
     /** {@inheritDoc} */
@@ -821,6 +882,80 @@ public class DataStorageMetricsImpl implements DataStorageMetricsMXBean {
         walFsyncTimeNum.increment();
     }
 
+    /**
+     * @param grpSize Number of commits covered by the fsync.
+     * @param waitTime Time the fsync initiator waited for other commits in nanoseconds.
+     * @param window Group commit window for the next fsync in nanoseconds.
+     */
+    public void onWalGroupCommit(int grpSize, long waitTime, long window) {
+        walGroupCommitSizeHistogram.value(grpSize);
+        walGroupCommitWaitHistogram.value(waitTime / 1_000);
+        walGroupCommitWindow.value(window);
+    }
+
+    /**
+     * Callback on start of a recovery stage.
+     *
+     * @param stage Stage: BINARY or LOGICAL.
+     */
+    public void onWalRecoveryStage(String stage) {
+        if (walRecoveryStart == 0)
+            walRecoveryStart = U.currentTimeMillis();
+
+        walRecoveryStage = stage;
+    }
+
+    /**
+     * Callback on a WAL record read by the recovery.
+     *
+     * @param segIdx Index of the WAL segment.
+     */
+    public void onWalRecoveryRecordRead(long segIdx) {
+        walRecoveryRecordsRead.increment();
+        walRecoverySegment.value(segIdx);
+    }
+
+    /**
+     * Callback on an update applied by the recovery.
+     */
+    public void onWalRecoveryUpdateApplied() {
+        walRecoveryUpdatesApplied.increment();
+        walRecoveryRate.increment();
+    }
+
+    /**
+     * Callback on the recovery end.
+     */
+    public void onWalRecoveryFinished() {
+        walRecoveryEnd = U.currentTimeMillis();
+        walRecoveryStage = "FINISHED";
+    }
+
+    /**
+     * @return Duration of the recovery in milliseconds.
+     */
+    private long walRecoveryDuration() {
+        long start = walRecoveryStart;
+
+        if (start == 0)
+            return 0;
+
+        long end = walRecoveryEnd;
+
+        return (end != 0 ? end : U.currentTimeMillis()) - start;
+    }
+
+    /**
+     * @return Progress of the recovery for logging.
+     */
+    public String walRecoveryProgress() {
+        return "stage=" + walRecoveryStage +
+            ", segment=" + walRecoverySegment.value() +
+            ", recordsRead=" + walRecoveryRecordsRead.value() +
+            ", updatesApplied=" + walRecoveryUpdatesApplied.value() +
+            ", time=" + walRecoveryDuration() + " ms";
+    }
+
     /**
      * @param num Number.
      */
@@ -120,6 +120,7 @@ import org.apache.ignite.internal.processors.cache.persistence.checkpoint.Checkp
 import org.apache.ignite.internal.processors.cache.persistence.checkpoint.CheckpointProgress;
 import org.apache.ignite.internal.processors.cache.persistence.checkpoint.CheckpointStatus;
 import org.apache.ignite.internal.processors.cache.persistence.checkpoint.Checkpointer;
+import org.apache.ignite.internal.processors.cache.persistence.checkpoint.DoubleWriteBuffer;
 import org.apache.ignite.internal.processors.cache.persistence.checkpoint.LightweightCheckpointManager;
 import org.apache.ignite.internal.processors.cache.persistence.checkpoint.ReservationReason;
 import org.apache.ignite.internal.processors.cache.persistence.defragmentation.CachePartitionDefragmentationManager;
@@ -135,6 +136,7 @@ import org.apache.ignite.internal.processors.cache.persistence.pagemem.PageMemor
 import org.apache.ignite.internal.processors.cache.persistence.pagemem.PageMemoryImpl;
 import org.apache.ignite.internal.processors.cache.persistence.pagemem.PageReadWriteManager;
 import org.apache.ignite.internal.processors.cache.persistence.partstate.GroupPartitionId;
+import org.apache.ignite.internal.processors.cache.persistence.scrub.PageScrubber;
 import org.apache.ignite.internal.processors.cache.persistence.snapshot.IgniteCacheSnapshotManager;
 import org.apache.ignite.internal.processors.cache.persistence.tree.io.PageIO;
 import org.apache.ignite.internal.processors.cache.persistence.tree.io.PagePartitionMetaIO;
@@ -308,6 +310,9 @@ public class GridCacheDatabaseSharedManager extends IgniteCacheDatabaseSharedMan
     /** Throttle queue size threshold. Async applying will be throttled starting from this queue size. */
     private static final int THROTTLE_QUEUE_SIZE_THRESHOLD = 10_000;
 
+    /** Interval between messages about the progress of WAL recovery in milliseconds. */
+    private static final long RECOVERY_PROGRESS_LOG_INTERVAL = TimeUnit.SECONDS.toMillis(30);
+
     /** */
     private FilePageStoreManager storeMgr;
 
@@ -378,6 +383,9 @@ public class GridCacheDatabaseSharedManager extends IgniteCacheDatabaseSharedMan
     /** */
     private CachePartitionDefragmentationManager defrgMgr;
 
+    /** Background scrubber of the page files, {@code null} on client nodes. */
+    private PageScrubber scrubber;
+
     /** Data regions which should be checkpointed. */
     protected final Set<DataRegion> checkpointedDataRegions = new GridConcurrentHashSet<>();
 
@@ -455,6 +463,13 @@ public class GridCacheDatabaseSharedManager extends IgniteCacheDatabaseSharedMan
             lsnr.onReadyForReadWrite(metaStorage);
     }
 
+    /**
+     * @return Background scrubber of the page files or {@code null} if this node is a client node.
+     */
+    public PageScrubber pageScrubber() {
+        return scrubber;
+    }
+
     /**
      *
      */
@@ -607,6 +622,8 @@ public class GridCacheDatabaseSharedManager extends IgniteCacheDatabaseSharedMan
                 cpFreqDeviation::get
             );
 
+            scrubber = new PageScrubber(kernalCtx, this);
+
             final NodeFileLockHolder preLocked = kernalCtx.pdsFolderResolver()
                 .resolveFolders()
                 .getLockedFileLockHolder();
@@ -949,6 +966,9 @@ public class GridCacheDatabaseSharedManager extends IgniteCacheDatabaseSharedMan
 
         if (!cctx.kernalContext().clientNode())
             finishRecovery();
+
+        if (scrubber != null)
+            scrubber.onActivate();
     }
 
     /** {@inheritDoc} */
@@ -1178,6 +1198,9 @@ public class GridCacheDatabaseSharedManager extends IgniteCacheDatabaseSharedMan
         if (defrgMgr != null)
             defrgMgr.cancel();
 
+        if (scrubber != null)
+            scrubber.stop();
+
         checkpointManager.stop(cancel);
 
         super.onKernalStop0(cancel);
@@ -1290,8 +1313,18 @@ public class GridCacheDatabaseSharedManager extends IgniteCacheDatabaseSharedMan
                 // We can write only page from disk into snapshot.
                 snapshotMgr.beforePageWrite(fullId);
 
+                DoubleWriteBuffer dwb = checkpointManager.doubleWriteBuffer();
+
                 // Write page to disk.
-                pmPageMgr.write(fullId.groupId(), fullId.pageId(), pageBuf, tag, true);
+                if (dwb != null && dwb.enabled(fullId.groupId())) {
+                    dwb.write(fullId, pageBuf, tag, (fullId0, pageBuf0, tag0) ->
+                        pmPageMgr.write(fullId0.groupId(), fullId0.pageId(), pageBuf0, tag0, true), null);
+
+                    // Evicted page must be written right away, concurrent evictions share the sync of the file.
+                    dwb.flush();
+                }
+                else
+                    pmPageMgr.write(fullId.groupId(), fullId.pageId(), pageBuf, tag, true);
 
                 getCheckpointer().currentProgress().updateEvictedPages(1);
             },
@@ -2182,6 +2215,8 @@ public class GridCacheDatabaseSharedManager extends IgniteCacheDatabaseSharedMan
             log.info("Checking memory state [lastValidPos=" + status.endPtr + ", lastMarked="
                 + status.startPtr + ", lastCheckpointId=" + status.cpStartId + ']');
 
+        persStoreMetrics.onWalRecoveryStage("BINARY");
+
         WALPointer recPtr = status.endPtr;
 
         boolean apply = status.needRestoreMemory();
@@ -2237,6 +2272,18 @@ public class GridCacheDatabaseSharedManager extends IgniteCacheDatabaseSharedMan
                 ", walArchive=" + persistenceCfg.getWalArchivePath() + "]");
         }
 
+        DoubleWriteBuffer dwb = checkpointManager.doubleWriteBuffer();
+
+        // Pages restored from the double-write buffer already have the state to which the memory is restored.
+        Set<FullPageId> dwbPages = Collections.emptySet();
+
+        if (dwb != null) {
+            if (apply)
+                dwbPages = dwb.restore(status.cpStartId, cacheGroupsPredicate, cctx.pageStore());
+            else
+                dwb.onCheckpointEnd();
+        }
+
         AtomicReference<Throwable> applyError = new AtomicReference<>();
 
         StripedExecutor exec = cctx.kernalContext().pools().getStripedExecutorService();
@@ -2276,11 +2323,15 @@ public class GridCacheDatabaseSharedManager extends IgniteCacheDatabaseSharedMan
                             if (skipRemovedIndexUpdates(groupId, partId))
                                 break;
 
+                            if (!dwbPages.isEmpty() && dwbPages.contains(pageSnapshot.fullPageId()))
+                                break;
+
                             stripedApplyPage((pageMem) -> {
                                     try {
                                         applyPageSnapshot(pageMem, pageSnapshot);
 
                                         applied.incrementAndGet();
+                                        persStoreMetrics.onWalRecoveryUpdateApplied();
                                     }
                                     catch (Throwable t) {
                                         U.error(log, "Failed to apply page snapshot. rec=[" + pageSnapshot + ']');
@@ -2354,11 +2405,15 @@ public class GridCacheDatabaseSharedManager extends IgniteCacheDatabaseSharedMan
                             if (skipRemovedIndexUpdates(groupId, partId))
                                 break;
 
+                            if (!dwbPages.isEmpty() && dwbPages.contains(new FullPageId(pageDelta.pageId(), groupId)))
+                                break;
+
                             stripedApplyPage((pageMem) -> {
                                 try {
                                     applyPageDelta(pageMem, pageDelta, true);
 
                                     applied.incrementAndGet();
+                                    persStoreMetrics.onWalRecoveryUpdateApplied();
                                 }
                                 catch (Throwable t) {
                                     U.error(log, "Failed to apply page delta. rec=[" + pageDelta + ']');
@@ -2864,6 +2919,8 @@ public class GridCacheDatabaseSharedManager extends IgniteCacheDatabaseSharedMan
         if (!restoreMeta)
             cctx.kernalContext().query().skipFieldLookup(true);
 
+        persStoreMetrics.onWalRecoveryStage("LOGICAL");
+
         long start = U.currentTimeMillis();
 
         AtomicReference<Throwable> applyError = new AtomicReference<>();
@@ -2971,6 +3028,8 @@ public class GridCacheDatabaseSharedManager extends IgniteCacheDatabaseSharedMan
                                 }
 
                                 applied.incrementAndGet();
+
+                                persStoreMetrics.onWalRecoveryUpdateApplied();
                             }, cacheDesc.groupId(), dataEntry.partitionId(), exec, semaphore);
                         }
 
@@ -3111,6 +3170,9 @@ public class GridCacheDatabaseSharedManager extends IgniteCacheDatabaseSharedMan
 
         awaitApplyComplete(exec, applyError);
 
+        if (!restoreMeta)
+            persStoreMetrics.onWalRecoveryFinished();
+
         if (log.isInfoEnabled())
             log.info("Finished applying WAL changes [updatesApplied=" + applied +
                 ", time=" + (U.currentTimeMillis() - start) + " ms]");
@@ -3669,6 +3731,9 @@ public class GridCacheDatabaseSharedManager extends IgniteCacheDatabaseSharedMan
         /** Only {@link WalRecordCacheGroupAware} records satisfied this predicate will be applied. */
         private final IgnitePredicate<Integer> cacheGroupPredicate;
 
+        /** Time of the last progress message. */
+        private long lastProgressLogTime = U.currentTimeMillis();
+
         /**
          * @param status Checkpoint status.
          * @param iterator WAL iterator.
@@ -3710,6 +3775,8 @@ public class GridCacheDatabaseSharedManager extends IgniteCacheDatabaseSharedMan
 
                     rec.position(ptr);
 
+                    onRecordRead(ptr);
+
                     // Filter out records by group id.
                     if (rec instanceof WalRecordCacheGroupAware) {
                         WalRecordCacheGroupAware grpAwareRecord = (WalRecordCacheGroupAware)rec;
@@ -3735,6 +3802,25 @@ public class GridCacheDatabaseSharedManager extends IgniteCacheDatabaseSharedMan
             }
         }
 
+        /**
+         * Updates recovery metrics and periodically logs the progress.
+         *
+         * @param ptr Pointer of the read record.
+         */
+        private void onRecordRead(WALPointer ptr) {
+            if (ptr instanceof FileWALPointer)
+                persStoreMetrics.onWalRecoveryRecordRead(((FileWALPointer)ptr).index());
+
+            long now = U.currentTimeMillis();
+
+            if (now - lastProgressLogTime >= RECOVERY_PROGRESS_LOG_INTERVAL) {
+                lastProgressLogTime = now;
+
+                if (log.isInfoEnabled())
+                    log.info("WAL recovery is in progress [" + persStoreMetrics.walRecoveryProgress() + ']');
+            }
+        }
+
         /**
          * Filter outs data entries from given data record that not satisfy {@link #cacheGroupPredicate}.
          *
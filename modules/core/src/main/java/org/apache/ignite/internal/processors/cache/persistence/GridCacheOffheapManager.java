@@ -16,6 +16,10 @@
 
 package org.apache.ignite.internal.processors.cache.persistence;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -26,7 +30,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -40,6 +46,7 @@ import org.apache.ignite.IgniteLogger;
 import org.apache.ignite.IgniteSystemProperties;
 import org.apache.ignite.SystemProperty;
 import org.apache.ignite.failure.FailureContext;
+import org.apache.ignite.internal.IgniteInternalFuture;
 import org.apache.ignite.internal.managers.discovery.DiscoCache;
 import org.apache.ignite.internal.managers.encryption.GridEncryptionManager;
 import org.apache.ignite.internal.managers.encryption.ReencryptStateUtils;
@@ -67,6 +74,7 @@ import org.apache.ignite.internal.processors.cache.CacheGroupContext;
 import org.apache.ignite.internal.processors.cache.CacheObject;
 import org.apache.ignite.internal.processors.cache.DynamicCacheDescriptor;
 import org.apache.ignite.internal.processors.cache.GridCacheContext;
+import org.apache.ignite.internal.processors.cache.GridCacheEntryInfo;
 import org.apache.ignite.internal.processors.cache.GridCacheEntryEx;
 import org.apache.ignite.internal.processors.cache.GridCacheMvccEntryInfo;
 import org.apache.ignite.internal.processors.cache.GridCacheOperation;
@@ -74,6 +82,7 @@ import org.apache.ignite.internal.processors.cache.GridCacheSharedContext;
 import org.apache.ignite.internal.processors.cache.IgniteCacheOffheapManagerImpl;
 import org.apache.ignite.internal.processors.cache.KeyCacheObject;
 import org.apache.ignite.internal.processors.cache.PartitionUpdateCounter;
+import org.apache.ignite.internal.processors.cache.TombstoneCacheObject;
 import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.CachePartitionPartialCountersMap;
 import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.GridDhtPartitionsExchangeFuture;
 import org.apache.ignite.internal.processors.cache.distributed.dht.preloader.IgniteHistoricalIterator;
@@ -83,6 +92,7 @@ import org.apache.ignite.internal.processors.cache.distributed.dht.topology.Grid
 import org.apache.ignite.internal.processors.cache.mvcc.MvccSnapshot;
 import org.apache.ignite.internal.processors.cache.mvcc.MvccVersion;
 import org.apache.ignite.internal.processors.cache.persistence.checkpoint.CheckpointListener;
+import org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager;
 import org.apache.ignite.internal.processors.cache.persistence.freelist.AbstractFreeList;
 import org.apache.ignite.internal.processors.cache.persistence.freelist.CacheFreeList;
 import org.apache.ignite.internal.processors.cache.persistence.freelist.PagesList;
@@ -121,6 +131,7 @@ import org.apache.ignite.internal.processors.cache.version.GridCacheVersion;
 import org.apache.ignite.internal.processors.query.GridQueryRowCacheCleaner;
 import org.apache.ignite.internal.util.GridLongList;
 import org.apache.ignite.internal.util.GridSpinBusyLock;
+import org.apache.ignite.internal.util.future.GridFutureAdapter;
 import org.apache.ignite.internal.util.lang.GridCursor;
 import org.apache.ignite.internal.util.lang.IgniteClosure2X;
 import org.apache.ignite.internal.util.tostring.GridToStringInclude;
@@ -133,6 +144,8 @@ import org.apache.ignite.lang.IgniteBiTuple;
 import org.jetbrains.annotations.Nullable;
 
 import static java.lang.Boolean.TRUE;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static org.apache.ignite.failure.FailureType.CRITICAL_ERROR;
 import static org.apache.ignite.internal.processors.cache.distributed.dht.topology.GridDhtPartitionState.EVICTED;
 import static org.apache.ignite.internal.processors.cache.distributed.dht.topology.GridDhtPartitionState.LOST;
@@ -165,6 +178,12 @@ public class GridCacheOffheapManager extends IgniteCacheOffheapManagerImpl imple
     private final long walAtomicCacheMargin = IgniteSystemProperties.getLong(
         WAL_MARGIN_FOR_ATOMIC_CACHE_HISTORICAL_REBALANCE, DFLT_WAL_MARGIN_FOR_ATOMIC_CACHE_HISTORICAL_REBALANCE);
 
+    /** Maximum number of attempts to replace a partition store which is updated while its entries are read. */
+    private static final int PART_REPLACE_MAX_ATTEMPTS = 50;
+
+    /** Delay between the attempts to replace a partition store in milliseconds. */
+    private static final long PART_REPLACE_RETRY_DELAY = 100;
+
     /** Cache descriptor. */
     private final DynamicCacheDescriptor cacheDescriptor;
 
@@ -183,6 +202,9 @@ public class GridCacheOffheapManager extends IgniteCacheOffheapManagerImpl imple
     /** */
     private DataStorageMetricsImpl persStoreMetrics;
 
+    /** Tasks which change partition stores of the group under the checkpoint write lock. */
+    private final Queue<PartitionStoreTask<?>> partStoreTasks = new ConcurrentLinkedQueue<>();
+
     /**
      * Constructor.
      *
@@ -275,9 +297,32 @@ public class GridCacheOffheapManager extends IgniteCacheOffheapManagerImpl imple
     @Override public void onMarkCheckpointBegin(Context ctx) throws IgniteCheckedException {
         assert grp.dataRegion().pageMemory() instanceof PageMemoryEx;
 
+        runPartitionStoreTasks();
+
         syncMetadata(ctx);
     }
 
+    /**
+     * Runs pending partition store tasks.
+     */
+    private void runPartitionStoreTasks() {
+        for (Iterator<PartitionStoreTask<?>> it = partStoreTasks.iterator(); it.hasNext(); ) {
+            PartitionStoreTask<?> task = it.next();
+
+            it.remove();
+
+            try {
+                task.run();
+            }
+            catch (Throwable e) {
+                task.onDone(e);
+
+                if (e instanceof Error)
+                    throw (Error)e;
+            }
+        }
+    }
+
     /** {@inheritDoc} */
     @Override public void beforeCheckpointBegin(Context ctx) throws IgniteCheckedException {
         assert F.size(cacheDataStores().iterator(), CacheDataStore::destroyed) == 0;
@@ -818,7 +863,8 @@ public class GridCacheOffheapManager extends IgniteCacheOffheapManagerImpl imple
     private void tryAddEmptyPartitionToSnapshot(CacheDataStore store, Context ctx) {
         GridDhtLocalPartition locPart = getPartition(store);
 
-        if (locPart != null && locPart.state() == OWNING) {
+        // Partition is reserved the same way as non-empty ones to be released by the snapshot manager.
+        if (locPart != null && locPart.state() == OWNING && locPart.reserve()) {
             ctx.partitionStatMap().put(
                 new GroupPartitionId(grp.groupId(), store.partId()),
                 new PagesAllocationRange(0, 0));
@@ -1097,6 +1143,261 @@ public class GridCacheOffheapManager extends IgniteCacheOffheapManagerImpl imple
         ctx.pageStore().truncate(grp.groupId(), partId, tag);
     }
 
+    /**
+     * Replaces the store of a moving partition with the given checkpointed partition file on the next checkpoint. The
+     * entries of the replaced store, which are applied while the file has been transferred, are returned to be applied
+     * to the new store along with the update counter of the replaced store. The partition file is moved to the page
+     * store directory, so it must be located on the same file system.
+     * <p>
+     * The entries are read before the checkpoint write lock is acquired, only the store is swapped under the lock. The
+     * replacement is retried if the store is updated after its entries are read.
+     * <p>
+     * Updates of the partition are not logged to WAL, so the caller must make sure the local WAL of the group is
+     * disabled: the partition is cleared on recovery then.
+     *
+     * @param part Moving partition.
+     * @param file Checkpointed partition file.
+     * @return Entries and the update counter of the replaced store.
+     * @throws IgniteCheckedException If failed.
+     */
+    public IgniteBiTuple<List<GridCacheEntryInfo>, PartitionUpdateCounter> replacePartitionFile(
+        GridDhtLocalPartition part,
+        File file
+    ) throws IgniteCheckedException {
+        for (int i = 0; i < PART_REPLACE_MAX_ATTEMPTS; i++) {
+            checkMoving(part);
+
+            // Heap entries of the partition may refer to the state of the replaced store.
+            if (part.internalSize() > 0) {
+                U.sleep(PART_REPLACE_RETRY_DELAY);
+
+                continue;
+            }
+
+            CacheDataStore old = part.dataStore();
+
+            PartitionUpdateCounter cntr = old.partUpdateCounter();
+
+            long[] state = storeState(old);
+
+            List<GridCacheEntryInfo> entries = entries(old);
+
+            IgniteInternalFuture<Boolean> fut = addPartitionStoreTask(new PartitionStoreTask<Boolean>(part) {
+                @Override void run() throws IgniteCheckedException {
+                    checkMoving(part);
+
+                    if (part.dataStore() != old || part.internalSize() > 0 || !Arrays.equals(state, storeState(old))) {
+                        onDone(false);
+
+                        return;
+                    }
+
+                    swapPartitionFile(part, file);
+
+                    onDone(true);
+                }
+            });
+
+            ctx.database().wakeupForCheckpoint("partition file rebalance");
+
+            if (fut.get())
+                return new IgniteBiTuple<>(entries, cntr);
+        }
+
+        throw new IgniteCheckedException("Partition store has been updated too many times while its entries have " +
+            "been read [grp=" + grp.cacheOrGroupName() + ", part=" + part.id() + ']');
+    }
+
+    /**
+     * @param store Partition data store.
+     * @return Entries of the store.
+     * @throws IgniteCheckedException If failed.
+     */
+    private static List<GridCacheEntryInfo> entries(CacheDataStore store) throws IgniteCheckedException {
+        List<GridCacheEntryInfo> entries = new ArrayList<>();
+
+        GridCursor<? extends CacheDataRow> cur = store.cursor(DATA_AND_TOMBSTONES);
+
+        while (cur.next()) {
+            CacheDataRow row = cur.get();
+
+            GridCacheEntryInfo info = new GridCacheEntryInfo();
+
+            info.key(row.key());
+            info.cacheId(row.cacheId());
+            info.value(row.value() == TombstoneCacheObject.INSTANCE ? null : row.value());
+            info.version(row.version());
+            info.expireTime(row.expireTime());
+
+            entries.add(info);
+        }
+
+        return entries;
+    }
+
+    /**
+     * @param store Partition data store.
+     * @return State of the store which is changed by every update of the store.
+     */
+    private static long[] storeState(CacheDataStore store) {
+        PartitionUpdateCounter cntr = store.partUpdateCounter();
+
+        GridLongList state = new GridLongList();
+
+        state.add(store.fullSize());
+        state.add(store.tombstonesCount());
+
+        if (cntr != null) {
+            state.add(cntr.get());
+            state.add(cntr.reserved());
+
+            for (long[] gap : cntr) {
+                state.add(gap[0]);
+                state.add(gap[1]);
+            }
+        }
+
+        return state.array();
+    }
+
+    /**
+     * Swaps the store of the partition with the partition file. Must be called under the checkpoint write lock.
+     *
+     * @param part Moving partition.
+     * @param file Checkpointed partition file.
+     * @throws IgniteCheckedException If failed.
+     */
+    private void swapPartitionFile(GridDhtLocalPartition part, File file) throws IgniteCheckedException {
+        int p = part.id();
+
+        part.dataStore().markDestroyed();
+
+        PageMemoryEx pageMem = (PageMemoryEx)grp.dataRegion().pageMemory();
+
+        int grpId = grp.groupId();
+
+        int pages = ctx.pageStore().pages(grpId, p);
+
+        int tag = pageMem.invalidate(grpId, p);
+
+        // Outdated meta page would be refreshed as a new one, so pages are evicted to be read from the file.
+        pageMem.clearOutdatedPages(grpId, p, pages);
+
+        ctx.pageStore().truncate(grpId, p, tag);
+
+        GridCacheDataStore store = createGridCacheDataStore(grp, p, true, log);
+
+        try {
+            Path path = ((FilePageStoreManager)ctx.pageStore()).getPath(grp.sharedGroup(), grp.cacheOrGroupName(), p);
+
+            Files.move(file.toPath(), path, ATOMIC_MOVE, REPLACE_EXISTING);
+
+            part.dataStore(store);
+
+            store.init0(false);
+        }
+        catch (IOException e) {
+            // The partition is left empty, so it can be rebalanced by entries.
+            part.dataStore(createGridCacheDataStore(grp, p, false, log));
+
+            throw new IgniteCheckedException("Failed to move the partition file [file=" + file +
+                ", part=" + p + ']', e);
+        }
+    }
+
+    /**
+     * Adds the ranges of updates applied to the given update counter which are missing in the update counter of the
+     * moving partition on the next checkpoint.
+     *
+     * @param part Moving partition.
+     * @param cntr Update counter of the replaced store of the partition.
+     * @return Future completed when the counters are merged.
+     */
+    public IgniteInternalFuture<Void> mergeUpdateCounter(GridDhtLocalPartition part, PartitionUpdateCounter cntr) {
+        return addPartitionStoreTask(new PartitionStoreTask<Void>(part) {
+            @Override void run() throws IgniteCheckedException {
+                checkMoving(part);
+
+                PartitionUpdateCounter dst = part.dataStore().partUpdateCounter();
+
+                if (dst == null)
+                    throw new IgniteCheckedException("Partition store is not initialized [part=" + part.id() + ']');
+
+                mergeUpdateCounters(dst, cntr);
+
+                dst.updateTombstoneClearCounter(cntr.tombstoneClearCounter());
+
+                onDone();
+            }
+        });
+    }
+
+    /**
+     * @param dst Update counter to add the missing ranges to.
+     * @param src Update counter.
+     */
+    static void mergeUpdateCounters(PartitionUpdateCounter dst, PartitionUpdateCounter src) {
+        List<long[]> applied = appliedUpdates(dst);
+
+        for (long[] range : appliedUpdates(src)) {
+            long start = range[0];
+
+            for (long[] r : applied) {
+                if (r[1] <= start)
+                    continue;
+
+                if (r[0] >= range[1])
+                    break;
+
+                if (r[0] > start)
+                    dst.update(start, r[0] - start);
+
+                start = r[1];
+
+                if (start >= range[1])
+                    break;
+            }
+
+            if (start < range[1])
+                dst.update(start, range[1] - start);
+        }
+    }
+
+    /**
+     * @param cntr Update counter.
+     * @return Ordered ranges {@code (start, end]} of the applied updates.
+     */
+    private static List<long[]> appliedUpdates(PartitionUpdateCounter cntr) {
+        List<long[]> res = new ArrayList<>();
+
+        if (cntr.get() > 0)
+            res.add(new long[] {0, cntr.get()});
+
+        for (long[] item : cntr)
+            res.add(new long[] {item[0], item[0] + item[1]});
+
+        return res;
+    }
+
+    /**
+     * @param part Partition.
+     * @throws IgniteCheckedException If the partition is not moving or has been evicted.
+     */
+    private void checkMoving(GridDhtLocalPartition part) throws IgniteCheckedException {
+        if (grp.topology().localPartition(part.id()) != part || part.state() != MOVING)
+            throw new IgniteCheckedException("Partition is not moving [part=" + part + ']');
+    }
+
+    /**
+     * @param task Task.
+     * @return Future of the task.
+     */
+    private <T> IgniteInternalFuture<T> addPartitionStoreTask(PartitionStoreTask<T> task) {
+        partStoreTasks.add(task);
+
+        return task;
+    }
+
     /** {@inheritDoc} */
     @Override public RootPage rootPageForIndex(int cacheId, String idxName, int segment) throws IgniteCheckedException {
         return indexStorage.allocateCacheIndex(cacheId, idxName, segment);
@@ -1274,7 +1575,11 @@ public class GridCacheOffheapManager extends IgniteCacheOffheapManagerImpl imple
             if (latestReservedPointer == null)
                 log.warning("History for the preloading has not reserved yet.");
 
-            WALIterator it = grp.shared().wal().replay(minPtr);
+            // Skip segments which have no updates of the partitions.
+            WALPointer startPtr = grp.shared().wal().historicalStartPointer(minPtr, grp.groupId(), grp.cacheIds(),
+                partsCounters);
+
+            WALIterator it = grp.shared().wal().replay(startPtr);
 
             WALHistoricalIterator iterator = new WALHistoricalIterator(log, grp, partCntrs, partsCounters, it);
 
@@ -1583,6 +1888,34 @@ public class GridCacheOffheapManager extends IgniteCacheOffheapManagerImpl imple
         return cacheDescriptor;
     }
 
+    /**
+     * Task which changes a partition store under the checkpoint write lock.
+     */
+    private abstract static class PartitionStoreTask<T> extends GridFutureAdapter<T> {
+        /** Partition. */
+        @GridToStringInclude
+        private final GridDhtLocalPartition part;
+
+        /**
+         * @param part Partition.
+         */
+        PartitionStoreTask(GridDhtLocalPartition part) {
+            this.part = part;
+        }
+
+        /**
+         * Runs the task and completes it.
+         *
+         * @throws IgniteCheckedException If failed.
+         */
+        abstract void run() throws IgniteCheckedException;
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return S.toString(PartitionStoreTask.class, this);
+        }
+    }
+
     /**
      *
      */
@@ -2940,6 +3273,16 @@ public class GridCacheOffheapManager extends IgniteCacheOffheapManagerImpl imple
             delegate.update(cctx, key, val, ver, expireTime, oldRow);
         }
 
+        /** {@inheritDoc} */
+        @Override public CacheDataRow relocate(GridCacheContext cctx, CacheDataRow oldRow)
+            throws IgniteCheckedException {
+            assert grp.shared().database().checkpointLockIsHeldByThread();
+
+            CacheDataStore delegate = init0(false);
+
+            return delegate.relocate(cctx, oldRow);
+        }
+
         /** {@inheritDoc} */
         @Override public boolean mvccInitialValue(
             GridCacheContext cctx,
@@ -3331,17 +3674,7 @@ public class GridCacheOffheapManager extends IgniteCacheOffheapManagerImpl imple
             if (pendingTree != null) {
                 PendingRow row = new PendingRow(cacheId);
 
-                GridCursor<PendingRow> cursor = pendingTree.find(row, row, PendingEntriesTree.WITHOUT_KEY);
-
-                while (cursor.next()) {
-                    PendingRow row0 = cursor.get();
-
-                    assert row0.link != 0 : row;
-
-                    boolean res = pendingTree.removex(row0);
-
-                    assert res;
-                }
+                pendingTree.removeRange(row, row, PendingEntriesTree.WITHOUT_KEY, -1);
             }
 
             delegate0.clear(cacheId);
@@ -21,6 +21,7 @@ import org.apache.ignite.IgniteCheckedException;
 import org.apache.ignite.internal.pagemem.FullPageId;
 import org.apache.ignite.internal.pagemem.store.PageStore;
 import org.apache.ignite.internal.processors.cache.persistence.pagemem.PageMemoryEx;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Interface for write page to {@link PageStore}.
@@ -36,4 +37,35 @@ public interface PageStoreWriter {
      * @throws IgniteCheckedException If write page failed.
      */
     void writePage(FullPageId fullPageId, ByteBuffer buf, int tag) throws IgniteCheckedException;
+
+    /**
+     * Callback for write page which may defer the write. The page is pinned in memory, so it isn't replaced and
+     * written by page replacement, until {@code onWritten} is run. Deferring writer must copy the buffer content.
+     *
+     * @param fullPageId Page ID to get byte buffer for. The page ID must be present in the collection returned by
+     *      the {@link PageMemoryEx#beginCheckpoint} method call.
+     * @param buf Temporary buffer to write changes into.
+     * @param tag Partition generation.
+     * @param onWritten Action to run once the page is written or the write failed.
+     * @throws IgniteCheckedException If write page failed.
+     */
+    default void writePage(FullPageId fullPageId, ByteBuffer buf, int tag, @Nullable Runnable onWritten)
+        throws IgniteCheckedException {
+        try {
+            writePage(fullPageId, buf, tag);
+        }
+        finally {
+            if (onWritten != null)
+                onWritten.run();
+        }
+    }
+
+    /**
+     * Writes the pages deferred by {@link #writePage(FullPageId, ByteBuffer, int, Runnable)}.
+     *
+     * @throws IgniteCheckedException If write failed.
+     */
+    default void flush() throws IgniteCheckedException {
+        // No-op.
+    }
 }
@@ -29,6 +29,8 @@ import org.apache.ignite.IgniteSystemProperties;
 import org.apache.ignite.configuration.DataStorageConfiguration;
 import org.apache.ignite.internal.IgniteInternalFuture;
 import org.apache.ignite.internal.LongJVMPauseDetector;
+import org.apache.ignite.internal.pagemem.FullPageId;
+import org.apache.ignite.internal.pagemem.store.PageStore;
 import org.apache.ignite.internal.pagemem.wal.IgniteWriteAheadLogManager;
 import org.apache.ignite.internal.pagemem.wal.WALPointer;
 import org.apache.ignite.internal.processors.cache.CacheGroupContext;
@@ -47,6 +49,7 @@ import org.apache.ignite.internal.util.lang.IgniteThrowableBiPredicate;
 import org.apache.ignite.internal.util.lang.IgniteThrowableFunction;
 import org.apache.ignite.internal.worker.WorkersRegistry;
 import org.apache.ignite.lang.IgniteInClosure;
+import org.apache.ignite.spi.encryption.noop.NoopEncryptionSpi;
 import org.jetbrains.annotations.Nullable;
 
 import static org.apache.ignite.IgniteSystemProperties.IGNITE_CHECKPOINT_READ_LOCK_TIMEOUT;
@@ -84,6 +87,9 @@ public class CheckpointManager {
     /** Checkpoint page writer factory. */
     private final CheckpointPagesWriterFactory checkpointPagesWriterFactory;
 
+    /** Double-write buffer or {@code null} if disabled. */
+    @Nullable private final DoubleWriteBuffer dwb;
+
     /** Checkpointer builder. It allows to create a new checkpointer on each call. */
     private final Supplier<Checkpointer> checkpointerProvider;
 
@@ -151,6 +157,17 @@ public class CheckpointManager {
             lock
         );
 
+        dwb = persistenceCfg.isDoubleWriteBufferEnabled() ? new DoubleWriteBuffer(
+            logger.apply(DoubleWriteBuffer.class),
+            checkpointMarkersStorage.cpDir,
+            ioFactory,
+            pageStoreManager,
+            persistenceCfg.getPageSize(),
+            persistenceCfg.getDoubleWriteBufferSize(),
+            cacheProcessor.context().gridConfig().getEncryptionSpi() instanceof NoopEncryptionSpi ? null :
+                cacheProcessor.context().kernalContext().encryption()
+        ) : null;
+
         checkpointWorkflow = new CheckpointWorkflow(
             logger,
             wal,
@@ -161,7 +178,8 @@ public class CheckpointManager {
             dataRegions,
             cacheGrpCtxSupplier::getAll,
             persistenceCfg.getCheckpointThreads(),
-            igniteInstanceName
+            igniteInstanceName,
+            dwb
         );
 
         ThreadLocal<ByteBuffer> threadBuf = new ThreadLocal<ByteBuffer>() {
@@ -177,10 +195,24 @@ public class CheckpointManager {
 
         checkpointPagesWriterFactory = new CheckpointPagesWriterFactory(
             logger, snapshotMgr,
-            (pageMemEx, fullPage, buf, tag) -> pageStoreManager.write(fullPage.groupId(), fullPage.pageId(), buf, tag, true),
+            new CheckpointPagesWriter.CheckpointPageWriter() {
+                /** {@inheritDoc} */
+                @Override public PageStore write(PageMemoryEx pageMemEx, FullPageId fullPage, ByteBuffer buf, int tag)
+                    throws IgniteCheckedException {
+                    return pageStoreManager.write(fullPage.groupId(), fullPage.pageId(), buf, tag, true);
+                }
+
+                /** {@inheritDoc} */
+                @Override public PageStore writePages(PageMemoryEx pageMemEx, int grpId, long[] pageIds, int cnt,
+                    ByteBuffer buf, int tag) throws IgniteCheckedException {
+                    return pageStoreManager.writePages(grpId, pageIds, cnt, buf, tag, true);
+                }
+            },
             persStoreMetrics,
             throttlingPolicy, threadBuf,
-            pageMemoryGroupResolver
+            pageMemoryGroupResolver,
+            dwb,
+            persistenceCfg.getCheckpointWriteRunLength()
         );
 
         checkpointerProvider = () -> new Checkpointer(
@@ -265,6 +297,13 @@ public class CheckpointManager {
         return checkpointMarkersStorage.cpDir;
     }
 
+    /**
+     * @return Double-write buffer or {@code null} if disabled.
+     */
+    @Nullable public DoubleWriteBuffer doubleWriteBuffer() {
+        return dwb;
+    }
+
     /**
      * @return Checkpoint storage.
      */
@@ -402,6 +441,9 @@ public class CheckpointManager {
 
         this.checkpointer = null;
 
+        if (dwb != null)
+            dwb.close();
+
         checkpointMarkersStorage.stop();
     }
 
@@ -38,6 +38,7 @@ import org.apache.ignite.internal.processors.cache.persistence.tree.io.PageIO;
 import org.apache.ignite.internal.util.GridConcurrentMultiPairQueue;
 import org.apache.ignite.internal.util.future.CountDownFuture;
 import org.apache.ignite.internal.util.lang.IgniteThrowableFunction;
+import org.jetbrains.annotations.Nullable;
 
 import static org.apache.ignite.internal.processors.cache.persistence.tree.io.PageIO.getType;
 import static org.apache.ignite.internal.processors.cache.persistence.tree.io.PageIO.getVersion;
@@ -89,6 +90,12 @@ public class CheckpointPagesWriter implements Runnable {
     /** Shutdown now. */
     private final BooleanSupplier shutdownNow;
 
+    /** Double-write buffer or {@code null} if disabled. */
+    @Nullable private final DoubleWriteBuffer dwb;
+
+    /** Thread local with runs of contiguous pages or {@code null} if pages are written one by one. */
+    @Nullable private final ThreadLocal<CheckpointWriteRun> writeRun;
+
     /** Pages store info helper class. */
     public static class CheckpointPageStoreInfo {
         /** Written pages tracker. */
@@ -120,6 +127,8 @@ public class CheckpointPagesWriter implements Runnable {
      * @param progress Checkpoint progress.
      * @param pageWriter File page store manager.
      * @param shutdownNow Shutdown supplier.
+     * @param dwb Double-write buffer or {@code null} if disabled.
+     * @param writeRun Thread local with runs of contiguous pages or {@code null} if pages are written one by one.
      */
     CheckpointPagesWriter(
         CheckpointMetricsTracker tracker,
@@ -135,7 +144,9 @@ public class CheckpointPagesWriter implements Runnable {
         IgniteThrowableFunction<Integer, PageMemoryEx> pageMemoryGroupResolver,
         CheckpointProgressImpl progress,
         CheckpointPageWriter pageWriter,
-        BooleanSupplier shutdownNow
+        BooleanSupplier shutdownNow,
+        @Nullable DoubleWriteBuffer dwb,
+        @Nullable ThreadLocal<CheckpointWriteRun> writeRun
     ) {
         this.tracker = tracker;
         this.writePageIds = writePageIds;
@@ -151,6 +162,8 @@ public class CheckpointPagesWriter implements Runnable {
         this.curCpProgress = progress;
         this.pageWriter = pageWriter;
         this.shutdownNow = shutdownNow;
+        this.dwb = dwb;
+        this.writeRun = writeRun;
     }
 
     /** {@inheritDoc} */
@@ -196,43 +209,60 @@ public class CheckpointPagesWriter implements Runnable {
 
         ByteBuffer tmpWriteBuf = threadBuf.get();
 
+        CheckpointWriteRun run = writeRun != null ? writeRun.get() : null;
+
         boolean throttlingEnabled = throttlingPolicy != PageMemoryImpl.ThrottlingPolicy.DISABLED;
 
         GridConcurrentMultiPairQueue.Result<PageMemoryEx, FullPageId> res =
             new GridConcurrentMultiPairQueue.Result<>();
 
-        while (writePageIds.next(res)) {
-            if (shutdownNow.getAsBoolean())
-                break;
+        try {
+            while (writePageIds.next(res)) {
+                if (shutdownNow.getAsBoolean())
+                    break;
 
-            beforePageWrite.run();
+                beforePageWrite.run();
 
-            FullPageId fullId = res.getValue();
+                FullPageId fullId = res.getValue();
 
-            PageMemoryEx pageMem = res.getKey();
+                PageMemoryEx pageMem = res.getKey();
 
-            snapshotMgr.beforePageWrite(fullId);
+                snapshotMgr.beforePageWrite(fullId);
 
-            tmpWriteBuf.rewind();
+                tmpWriteBuf.rewind();
 
-            PageStoreWriter pageStoreWriter = pageStoreWriters.computeIfAbsent(pageMem, pageMemEx -> createPageStoreWriter(pageMemEx, pagesToRetry));
+                PageStoreWriter pageStoreWriter = pageStoreWriters.computeIfAbsent(pageMem,
+                    pageMemEx -> createPageStoreWriter(pageMemEx, pagesToRetry, run));
 
-            pageMem.checkpointWritePage(fullId, tmpWriteBuf, pageStoreWriter, tracker);
+                pageMem.checkpointWritePage(fullId, tmpWriteBuf, pageStoreWriter, tracker);
 
-            if (throttlingEnabled) {
-                while (pageMem.isCpBufferOverflowThresholdExceeded()) {
-                    FullPageId cpPageId = pageMem.pullPageFromCpBuffer();
+                if (throttlingEnabled) {
+                    while (pageMem.isCpBufferOverflowThresholdExceeded()) {
+                        FullPageId cpPageId = pageMem.pullPageFromCpBuffer();
 
-                    if (cpPageId.equals(FullPageId.NULL_PAGE))
-                        break;
+                        if (cpPageId.equals(FullPageId.NULL_PAGE))
+                            break;
 
-                    snapshotMgr.beforePageWrite(cpPageId);
+                        snapshotMgr.beforePageWrite(cpPageId);
 
-                    tmpWriteBuf.rewind();
+                        tmpWriteBuf.rewind();
 
-                    pageMem.checkpointWritePage(cpPageId, tmpWriteBuf, pageStoreWriter, tracker);
+                        pageMem.checkpointWritePage(cpPageId, tmpWriteBuf, pageStoreWriter, tracker);
+                    }
                 }
             }
+
+            // Pages synced to the double-write buffer are added to the run, so it is written last.
+            if (dwb != null)
+                dwb.flush();
+
+            if (run != null)
+                run.flush(pageWriter, updStores);
+        }
+        finally {
+            // Unpins the pages which were not written due to an error.
+            if (run != null)
+                run.release();
         }
 
         return pagesToRetry.isEmpty() ?
@@ -245,17 +275,53 @@ public class CheckpointPagesWriter implements Runnable {
      *
      * @param pageMemEx
      * @param pagesToRetry List pages for retry.
+     * @param run Run of contiguous pages or {@code null} if pages are written one by one.
      * @return Checkpoint page write context.
      */
     private PageStoreWriter createPageStoreWriter(
         PageMemoryEx pageMemEx,
-        Map<PageMemoryEx, List<FullPageId>> pagesToRetry
+        Map<PageMemoryEx, List<FullPageId>> pagesToRetry,
+        @Nullable CheckpointWriteRun run
     ) {
+        PageStoreWriter storeWriter = run == null ? (fullPageId, buf, tag) -> {
+            PageStore store = pageWriter.write(pageMemEx, fullPageId, buf, tag);
+
+            CheckpointPageStoreInfo info
+                = updStores.computeIfAbsent(store, k -> new CheckpointPageStoreInfo(fullPageId.groupId()));
+
+            info.checkpointedPages.increment();
+        } : new PageStoreWriter() {
+            /** {@inheritDoc} */
+            @Override public void writePage(FullPageId fullPageId, ByteBuffer buf, int tag)
+                throws IgniteCheckedException {
+                writePage(fullPageId, buf, tag, null);
+            }
+
+            /** {@inheritDoc} */
+            @Override public void writePage(FullPageId fullPageId, ByteBuffer buf, int tag,
+                @Nullable Runnable onWritten) throws IgniteCheckedException {
+                run.add(pageMemEx, fullPageId, buf, tag, onWritten, pageWriter, updStores);
+            }
+
+            /** {@inheritDoc} */
+            @Override public void flush() throws IgniteCheckedException {
+                run.flush(pageWriter, updStores);
+            }
+        };
+
         return new PageStoreWriter() {
             /** {@inheritDoc} */
             @Override public void writePage(FullPageId fullPageId, ByteBuffer buf,
                 int tag) throws IgniteCheckedException {
+                writePage(fullPageId, buf, tag, null);
+            }
+
+            /** {@inheritDoc} */
+            @Override public void writePage(FullPageId fullPageId, ByteBuffer buf, int tag,
+                @Nullable Runnable onWritten) throws IgniteCheckedException {
                 if (tag == PageMemoryImpl.TRY_AGAIN_TAG) {
+                    assert onWritten == null;
+
                     pagesToRetry.computeIfAbsent(pageMemEx, k -> new ArrayList<>()).add(fullPageId);
 
                     return;
@@ -276,12 +342,14 @@ public class CheckpointPagesWriter implements Runnable {
 
                 curCpProgress.updateWrittenPages(1);
 
-                PageStore store = pageWriter.write(pageMemEx, fullPageId, buf, tag);
+                // The page is written to the store when the batch of the double-write buffer is synced.
+                if (dwb != null && dwb.enabled(groupId)) {
+                    dwb.write(fullPageId, buf, tag, storeWriter, onWritten);
 
-                CheckpointPageStoreInfo info
-                    = updStores.computeIfAbsent(store, k -> new CheckpointPageStoreInfo(groupId));
+                    return;
+                }
 
-                info.checkpointedPages.increment();
+                storeWriter.writePage(fullPageId, buf, tag, onWritten);
             }
         };
     }
@@ -299,5 +367,35 @@ public class CheckpointPagesWriter implements Runnable {
          */
         PageStore write(PageMemoryEx pageMemEx, FullPageId fullPageId, ByteBuffer buf, int tag)
             throws IgniteCheckedException;
+
+        /**
+         * Writes pages with contiguous indexes of a partition.
+         *
+         * @param pageMemEx Page memory from which pages should be written.
+         * @param grpId Cache group ID.
+         * @param pageIds Page IDs, the first {@code cnt} of them are written.
+         * @param cnt Number of pages.
+         * @param buf Buffer with the content of the pages one after another.
+         * @param tag Page tag.
+         * @return {@link PageStore} which was used to write.
+         * @throws IgniteCheckedException if fail.
+         */
+        default PageStore writePages(PageMemoryEx pageMemEx, int grpId, long[] pageIds, int cnt, ByteBuffer buf,
+            int tag) throws IgniteCheckedException {
+            int pageSize = buf.remaining() / cnt;
+
+            PageStore store = null;
+
+            for (int i = 0; i < cnt; i++) {
+                ByteBuffer pageBuf = buf.duplicate();
+
+                pageBuf.position(buf.position() + i * pageSize);
+                pageBuf.limit(pageBuf.position() + pageSize);
+
+                store = write(pageMemEx, new FullPageId(pageIds[i], grpId), pageBuf.slice().order(buf.order()), tag);
+            }
+
+            return store;
+        }
     }
 }
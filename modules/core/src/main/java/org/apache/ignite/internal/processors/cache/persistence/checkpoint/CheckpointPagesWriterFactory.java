@@ -24,6 +24,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BooleanSupplier;
 import java.util.function.Function;
+import org.apache.ignite.IgniteCheckedException;
 import org.apache.ignite.IgniteLogger;
 import org.apache.ignite.internal.pagemem.FullPageId;
 import org.apache.ignite.internal.pagemem.store.PageStore;
@@ -38,6 +39,7 @@ import org.apache.ignite.internal.util.GridConcurrentMultiPairQueue;
 import org.apache.ignite.internal.util.future.CountDownFuture;
 import org.apache.ignite.internal.util.lang.IgniteThrowableFunction;
 import org.apache.ignite.internal.util.typedef.internal.U;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Factory class for checkpoint pages writer.
@@ -66,6 +68,12 @@ public class CheckpointPagesWriterFactory {
     /** Writer which writes pages to page store during the checkpoint. */
     private final CheckpointPagesWriter.CheckpointPageWriter checkpointPageWriter;
 
+    /** Double-write buffer or {@code null} if disabled. */
+    @Nullable private final DoubleWriteBuffer dwb;
+
+    /** Thread local with runs of contiguous pages or {@code null} if pages are written one by one. */
+    @Nullable private final ThreadLocal<CheckpointWriteRun> writeRun;
+
     /**
      * @param logger Logger.
      * @param snapshotMgr Snapshot manager.
@@ -74,6 +82,8 @@ public class CheckpointPagesWriterFactory {
      * @param throttlingPolicy Throttling policy.
      * @param threadBuf Thread write buffer.
      * @param pageMemoryGroupResolver Page memory resolver.
+     * @param dwb Double-write buffer or {@code null} if disabled.
+     * @param writeRunLen Maximum number of contiguous pages written by one write.
      */
     CheckpointPagesWriterFactory(
         Function<Class<?>, IgniteLogger> logger,
@@ -82,7 +92,9 @@ public class CheckpointPagesWriterFactory {
         DataStorageMetricsImpl persStoreMetrics,
         PageMemoryImpl.ThrottlingPolicy throttlingPolicy,
         ThreadLocal<ByteBuffer> threadBuf,
-        IgniteThrowableFunction<Integer, PageMemoryEx> pageMemoryGroupResolver
+        IgniteThrowableFunction<Integer, PageMemoryEx> pageMemoryGroupResolver,
+        @Nullable DoubleWriteBuffer dwb,
+        int writeRunLen
     ) {
         this.snapshotMgr = snapshotMgr;
         this.log = logger.apply(getClass());
@@ -91,6 +103,10 @@ public class CheckpointPagesWriterFactory {
         this.throttlingPolicy = throttlingPolicy;
         this.pageMemoryGroupResolver = pageMemoryGroupResolver;
         this.checkpointPageWriter = checkpointPageWriter;
+        this.dwb = dwb;
+
+        writeRun = writeRunLen > 1 ?
+            ThreadLocal.withInitial(() -> new CheckpointWriteRun(writeRunLen, this.threadBuf.get().capacity())) : null;
     }
 
     /**
@@ -126,7 +142,9 @@ public class CheckpointPagesWriterFactory {
             pageMemoryGroupResolver,
             curCpProgress,
             checkpointPageWriter,
-            shutdownNow
+            shutdownNow,
+            dwb,
+            writeRun
         );
     }
 
@@ -161,14 +179,43 @@ public class CheckpointPagesWriterFactory {
 
                     PageStoreWriter pageStoreWriter = pageStoreWriters.computeIfAbsent(
                         pageMem,
-                        (pageMemEx) -> (fullPageId, buf, tag) -> {
-                            assert tag != PageMemoryImpl.TRY_AGAIN_TAG : "Lock is held by other thread for page " + fullPageId;
-
-                            // Write buf to page store.
-                            PageStore store = checkpointPageWriter.write(pageMemEx, fullPageId, buf, tag);
-
-                            // Save store for future fsync.
-                            updStores.computeIfAbsent(store, key -> new CheckpointPageStoreInfo(fullPageId.groupId()));
+                        (pageMemEx) -> {
+                            PageStoreWriter storeWriter = (fullPageId, buf, tag) -> {
+                                // Write buf to page store.
+                                PageStore store = checkpointPageWriter.write(pageMemEx, fullPageId, buf, tag);
+
+                                // Save store for future fsync.
+                                updStores.computeIfAbsent(store, key -> new CheckpointPageStoreInfo(fullPageId.groupId()));
+                            };
+
+                            return new PageStoreWriter() {
+                                /** {@inheritDoc} */
+                                @Override public void writePage(FullPageId fullPageId, ByteBuffer buf, int tag)
+                                    throws IgniteCheckedException {
+                                    writePage(fullPageId, buf, tag, null);
+                                }
+
+                                /** {@inheritDoc} */
+                                @Override public void writePage(FullPageId fullPageId, ByteBuffer buf, int tag,
+                                    @Nullable Runnable onWritten) throws IgniteCheckedException {
+                                    assert tag != PageMemoryImpl.TRY_AGAIN_TAG :
+                                        "Lock is held by other thread for page " + fullPageId;
+
+                                    if (dwb != null && dwb.enabled(fullPageId.groupId())) {
+                                        dwb.write(fullPageId, buf, tag, storeWriter, onWritten);
+
+                                        return;
+                                    }
+
+                                    try {
+                                        storeWriter.writePage(fullPageId, buf, tag);
+                                    }
+                                    finally {
+                                        if (onWritten != null)
+                                            onWritten.run();
+                                    }
+                                }
+                            };
                         }
                     );
 
@@ -179,6 +226,9 @@ public class CheckpointPagesWriterFactory {
                     // Add number of handled pages.
                     pagesWritten++;
                 }
+
+                if (dwb != null)
+                    dwb.flush();
             }
             catch (Throwable e) {
                 U.error(log, "Failed to write page to pageStore: " + res);
@@ -162,6 +162,9 @@ public class CheckpointWorkflow {
     /** Pointer to a memory recovery record that should be included into the next checkpoint record. */
     private volatile WALPointer memoryRecoveryRecordPtr;
 
+    /** Double-write buffer or {@code null} if disabled. */
+    @Nullable private final DoubleWriteBuffer dwb;
+
     /**
      * @param logger Logger.
      * @param wal WAL manager.
@@ -173,6 +176,7 @@ public class CheckpointWorkflow {
      * @param cacheGroupContexts Cache group context for checkpoint.
      * @param checkpointCollectInfoThreads Number of threads which should collect info for checkpoint.
      * @param igniteInstanceName Ignite instance name.
+     * @param dwb Double-write buffer or {@code null} if disabled.
      */
     CheckpointWorkflow(
         Function<Class<?>, IgniteLogger> logger,
@@ -184,7 +188,8 @@ public class CheckpointWorkflow {
         Supplier<Collection<DataRegion>> dataRegions,
         Supplier<Collection<CacheGroupContext>> cacheGroupContexts,
         int checkpointCollectInfoThreads,
-        String igniteInstanceName
+        String igniteInstanceName,
+        @Nullable DoubleWriteBuffer dwb
     ) {
         this.wal = wal;
         this.snapshotMgr = snapshotManager;
@@ -196,6 +201,7 @@ public class CheckpointWorkflow {
         this.checkpointMarkersStorage = checkpointMarkersStorage;
         this.checkpointWriteOrder = checkpointWriteOrder;
         this.igniteInstanceName = igniteInstanceName;
+        this.dwb = dwb;
         this.checkpointCollectPagesInfoPool = initializeCheckpointPool();
 
         SyncFsUtils.logStartup(log);
@@ -291,6 +297,9 @@ public class CheckpointWorkflow {
             if (curr.nextSnapshot())
                 snapFut = snapshotMgr.onMarkCheckPointBegin(curr.snapshotOperation(), cpRec, ctx0.partitionStatMap());
 
+            if (dwb != null)
+                dwb.onCheckpointBegin(cpRec.checkpointId());
+
             //There are allowable to replace pages only after checkpoint entry was stored to disk.
             cpPagesHolder = beginAllCheckpoints(checkpointedRegions, curr);
 
@@ -598,6 +607,9 @@ public class CheckpointWorkflow {
                 wal.notchLastCheckpointPtr(chp.cpEntry.checkpointMark());
         }
 
+        if (dwb != null)
+            dwb.onCheckpointEnd();
+
         if (checkpointMarkersStorage != null)
             checkpointMarkersStorage.onCheckpointFinished(chp);
 
@@ -667,6 +679,10 @@ public class CheckpointWorkflow {
 
         Collection<DataRegion> regions = dataRegions.get();
 
+        // Pages of the restored memory state are appended to the double-write file of the unfinished checkpoint.
+        if (dwb != null)
+            dwb.onCheckpointBegin(cpId);
+
         CheckpointPagesInfoHolder cpPagesHolder = beginAllCheckpoints(regions, null);
 
         // Sort and split all dirty pages set to several stripes.
@@ -707,6 +723,9 @@ public class CheckpointWorkflow {
 
         checkpointMarkersStorage.writeCheckpointEntry(cpTs, cpId, walPtr, null, CheckpointEntryType.END, skipSync);
 
+        if (dwb != null)
+            dwb.onCheckpointEnd();
+
         if (log.isInfoEnabled())
             log.info(String.format("Checkpoint finished [cpId=%s, pages=%d, markPos=%s, " +
                     "pagesWrite=%dms, fsync=%dms, total=%dms]",
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.checkpoint;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.internal.pagemem.FullPageId;
+import org.apache.ignite.internal.pagemem.PageIdUtils;
+import org.apache.ignite.internal.pagemem.store.PageStore;
+import org.apache.ignite.internal.processors.cache.persistence.checkpoint.CheckpointPagesWriter.CheckpointPageStoreInfo;
+import org.apache.ignite.internal.processors.cache.persistence.checkpoint.CheckpointPagesWriter.CheckpointPageWriter;
+import org.apache.ignite.internal.processors.cache.persistence.pagemem.PageMemoryEx;
+import org.apache.ignite.internal.util.tostring.GridToStringExclude;
+import org.apache.ignite.internal.util.typedef.internal.S;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Run of pages with contiguous indexes in a partition file which are copied by a checkpoint thread and written to
+ * the page store by a single write. Pages stay pinned in page memory until the run is written, so page replacement
+ * can't write a newer version of a page before the run.
+ * <p>
+ * Instance is used by a single checkpoint thread.
+ */
+class CheckpointWriteRun {
+    /** Maximum number of pages. */
+    private final int maxLen;
+
+    /** Page size. */
+    private final int pageSize;
+
+    /** Content of the pages one after another. */
+    @GridToStringExclude
+    private final ByteBuffer buf;
+
+    /** Page IDs. */
+    @GridToStringExclude
+    private final long[] pageIds;
+
+    /** Actions to run once the pages are written. */
+    @GridToStringExclude
+    private final Runnable[] onWritten;
+
+    /** Page memory of the pages. */
+    @GridToStringExclude
+    private PageMemoryEx pageMem;
+
+    /** Cache group ID of the pages. */
+    private int grpId;
+
+    /** Partition generation. */
+    private int tag;
+
+    /** Number of pages. */
+    private int cnt;
+
+    /**
+     * @param maxLen Maximum number of pages.
+     * @param pageSize Page size.
+     */
+    CheckpointWriteRun(int maxLen, int pageSize) {
+        assert maxLen > 1 : maxLen;
+
+        this.maxLen = maxLen;
+        this.pageSize = pageSize;
+
+        buf = ByteBuffer.allocateDirect(maxLen * pageSize).order(ByteOrder.nativeOrder());
+        pageIds = new long[maxLen];
+        onWritten = new Runnable[maxLen];
+    }
+
+    /**
+     * Adds the page to the run. The run is written first if the page doesn't continue it.
+     *
+     * @param pageMem Page memory.
+     * @param fullId Full page ID.
+     * @param page Page content, it is copied to the run.
+     * @param tag Partition generation.
+     * @param onWritten Action to run once the page is written.
+     * @param pageWriter Page writer.
+     * @param updStores Updated page stores.
+     * @throws IgniteCheckedException If failed to write the run.
+     */
+    void add(
+        PageMemoryEx pageMem,
+        FullPageId fullId,
+        ByteBuffer page,
+        int tag,
+        @Nullable Runnable onWritten,
+        CheckpointPageWriter pageWriter,
+        ConcurrentMap<PageStore, CheckpointPageStoreInfo> updStores
+    ) throws IgniteCheckedException {
+        if (cnt > 0 && !continues(pageMem, fullId, tag))
+            flush(pageWriter, updStores);
+
+        if (cnt == 0) {
+            this.pageMem = pageMem;
+            this.grpId = fullId.groupId();
+            this.tag = tag;
+        }
+
+        ByteBuffer src = page.duplicate();
+
+        src.limit(src.position() + pageSize);
+
+        buf.limit((cnt + 1) * pageSize);
+        buf.position(cnt * pageSize);
+
+        buf.put(src);
+
+        pageIds[cnt] = fullId.pageId();
+        this.onWritten[cnt] = onWritten;
+
+        if (++cnt == maxLen)
+            flush(pageWriter, updStores);
+    }
+
+    /**
+     * Writes the run to the page store.
+     *
+     * @param pageWriter Page writer.
+     * @param updStores Updated page stores.
+     * @throws IgniteCheckedException If failed.
+     */
+    void flush(
+        CheckpointPageWriter pageWriter,
+        ConcurrentMap<PageStore, CheckpointPageStoreInfo> updStores
+    ) throws IgniteCheckedException {
+        if (cnt == 0)
+            return;
+
+        try {
+            buf.limit(cnt * pageSize);
+            buf.position(0);
+
+            PageStore store = pageWriter.writePages(pageMem, grpId, pageIds, cnt, buf, tag);
+
+            updStores.computeIfAbsent(store, k -> new CheckpointPageStoreInfo(grpId)).checkpointedPages.add(cnt);
+        }
+        finally {
+            release();
+        }
+    }
+
+    /**
+     * Drops the pages of the run and unpins them.
+     */
+    void release() {
+        for (int i = 0; i < cnt; i++) {
+            if (onWritten[i] != null)
+                onWritten[i].run();
+
+            onWritten[i] = null;
+        }
+
+        cnt = 0;
+        pageMem = null;
+
+        buf.clear();
+    }
+
+    /**
+     * @param pageMem Page memory.
+     * @param fullId Full page ID.
+     * @param tag Partition generation.
+     * @return {@code True} if the page is adjacent to the last page of the run in the same file.
+     */
+    private boolean continues(PageMemoryEx pageMem, FullPageId fullId, int tag) {
+        long lastPageId = pageIds[cnt - 1];
+
+        return pageMem == this.pageMem &&
+            fullId.groupId() == grpId &&
+            tag == this.tag &&
+            PageIdUtils.partId(fullId.pageId()) == PageIdUtils.partId(lastPageId) &&
+            PageIdUtils.pageIndex(fullId.pageId()) == PageIdUtils.pageIndex(lastPageId) + 1;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(CheckpointWriteRun.class, this);
+    }
+}
@@ -0,0 +1,807 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.checkpoint;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.IgniteLogger;
+import org.apache.ignite.internal.managers.encryption.GridEncryptionManager;
+import org.apache.ignite.internal.pagemem.FullPageId;
+import org.apache.ignite.internal.pagemem.PageIdUtils;
+import org.apache.ignite.internal.pagemem.store.IgnitePageStoreManager;
+import org.apache.ignite.internal.pagemem.store.PageStore;
+import org.apache.ignite.internal.processors.cache.persistence.PageStoreWriter;
+import org.apache.ignite.internal.processors.cache.persistence.StorageException;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileIO;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileIOFactory;
+import org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager;
+import org.apache.ignite.internal.processors.cache.persistence.wal.crc.FastCrc;
+import org.apache.ignite.internal.util.GridConcurrentHashSet;
+import org.apache.ignite.internal.util.tostring.GridToStringExclude;
+import org.apache.ignite.internal.util.typedef.T2;
+import org.apache.ignite.internal.util.typedef.internal.S;
+import org.apache.ignite.internal.util.typedef.internal.U;
+import org.apache.ignite.lang.IgnitePredicate;
+import org.jetbrains.annotations.Nullable;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Double-write buffer protects page stores from pages torn by a crash in the middle of a checkpoint.
+ * <p>
+ * Pages written by a checkpoint or by page replacement are first appended to a sequential double-write file in
+ * batches, and only after the batch is synced they are written to the page stores. So every page which could have
+ * been written to a page store by an unfinished checkpoint has its complete copy in the double-write file. Such copy
+ * holds the state of the page at the beginning of that checkpoint, which is exactly the state binary recovery
+ * restores the memory to. On recovery the copies are written back to the page stores and physical WAL records of
+ * these pages are skipped, all other pages are not touched by the unfinished checkpoint and hold the state of the
+ * last finished one. Thus physical WAL records can always be applied to the page store content, and the first change
+ * of a page after a checkpoint doesn't need to be logged as a full page snapshot.
+ * <p>
+ * Each record of the file has a fixed size and consists of the header and the page content. The header contains the
+ * checkpoint ID, the full page ID, the partition generation and the CRC of the record. Records of several batches are
+ * written in parallel to the reserved file regions, so the file may contain holes of incomplete records which are
+ * ignored on recovery. The file is removed when the checkpoint is finished.
+ * <p>
+ * The file is a ring of a limited size. When it is full, the partition files written since the previous wrap are
+ * synced, the IDs of the pages whose records are about to be overwritten are appended to the IDs file and the records
+ * are written from the beginning of the file again. On recovery such pages are not written back, since their store
+ * content is already durable, but their physical WAL records are skipped as well. After a failed page write the file
+ * is not wrapped anymore, since the page may be torn and its record is the only complete copy. Syncs of the
+ * double-write file by concurrent writers, e.g. by threads evicting pages one by one, are grouped into a single sync.
+ */
+public class DoubleWriteBuffer {
+    /** Double-write file name. */
+    public static final String FILE_NAME = "dwb.bin";
+
+    /** IDs file name. */
+    public static final String IDS_FILE_NAME = "dwb.ids";
+
+    /** Record header size: checkpoint ID, group ID, page ID, partition generation and CRC. */
+    static final int HEADER_SIZE = 2 * Long.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    /** Offset of the CRC in the record header. */
+    private static final int CRC_OFF = HEADER_SIZE - Integer.BYTES;
+
+    /** Maximum number of pages in a batch. */
+    static final int BATCH_PAGES = 64;
+
+    /** IDs chunk header size: checkpoint ID and number of IDs. */
+    private static final int IDS_HEADER_SIZE = 2 * Long.BYTES + Integer.BYTES;
+
+    /** Size of a page ID in the IDs chunk: group ID and page ID. */
+    private static final int ID_SIZE = Integer.BYTES + Long.BYTES;
+
+    /** Logger. */
+    private final IgniteLogger log;
+
+    /** Double-write file. */
+    private final File file;
+
+    /** IDs file. */
+    private final File idsFile;
+
+    /** File I/O factory. */
+    private final FileIOFactory ioFactory;
+
+    /** Page store manager. */
+    private final FilePageStoreManager pageStoreMgr;
+
+    /** Page size. */
+    private final int pageSize;
+
+    /** Record size. */
+    private final int recSize;
+
+    /** Maximum size of the double-write file, a multiple of the record size. */
+    private final long capacity;
+
+    /** Encryption manager, pages of encrypted groups are not written to the double-write file. */
+    @Nullable private final GridEncryptionManager encMgr;
+
+    /** Batches of the writer threads. */
+    private final ThreadLocal<Batch> batches = ThreadLocal.withInitial(Batch::new);
+
+    /** Position of the next batch in the file. */
+    private final AtomicLong pos = new AtomicLong();
+
+    /** Lap lock, batches are written under the read lock and the file is wrapped under the write lock. */
+    private final ReentrantReadWriteLock lapLock = new ReentrantReadWriteLock();
+
+    /** Pages written since the last wrap. */
+    @GridToStringExclude
+    private final Set<FullPageId> lapPages = new GridConcurrentHashSet<>();
+
+    /** Partitions written since the last wrap. */
+    @GridToStringExclude
+    private final Set<T2<Integer, Integer>> lapParts = new GridConcurrentHashSet<>();
+
+    /** Number of batches written to the double-write file. */
+    private final AtomicLong writeSeq = new AtomicLong();
+
+    /** Mutex of the double-write file sync. */
+    private final Object forceMux = new Object();
+
+    /** Number of batches synced to the double-write file. */
+    private long forcedSeq;
+
+    /** ID of the current checkpoint. */
+    private volatile UUID cpId;
+
+    /** File I/O, opened on the first write of the checkpoint. */
+    private volatile FileIO io;
+
+    /** IDs file I/O, opened on the first wrap of the checkpoint. Guarded by the lap write lock. */
+    private FileIO idsIo;
+
+    /** Position of the next chunk in the IDs file. Guarded by the lap write lock. */
+    private long idsPos;
+
+    /** A page of the lap may be torn in its store, so the records of the lap must not be overwritten. */
+    private volatile boolean lapFailed;
+
+    /**
+     * @param log Logger.
+     * @param cpDir Checkpoint directory.
+     * @param ioFactory File I/O factory.
+     * @param pageStoreMgr Page store manager.
+     * @param pageSize Page size.
+     * @param maxSize Maximum size of the double-write file.
+     * @param encMgr Encryption manager or {@code null} if encryption is disabled.
+     */
+    public DoubleWriteBuffer(
+        IgniteLogger log,
+        File cpDir,
+        FileIOFactory ioFactory,
+        FilePageStoreManager pageStoreMgr,
+        int pageSize,
+        long maxSize,
+        @Nullable GridEncryptionManager encMgr
+    ) {
+        this.log = log;
+        this.ioFactory = ioFactory;
+        this.pageStoreMgr = pageStoreMgr;
+        this.pageSize = pageSize;
+        this.encMgr = encMgr;
+
+        file = new File(cpDir, FILE_NAME);
+        idsFile = new File(cpDir, IDS_FILE_NAME);
+        recSize = HEADER_SIZE + pageSize;
+        capacity = Math.max(maxSize / recSize, BATCH_PAGES) * recSize;
+    }
+
+    /**
+     * @param grpId Cache group ID.
+     * @return {@code True} if pages of the group are written through the double-write buffer.
+     */
+    public boolean enabled(int grpId) {
+        // Plain content of encrypted pages must not be written to disk.
+        return encMgr == null || encMgr.getActiveKey(grpId) == null;
+    }
+
+    /**
+     * Must be invoked before the pages of the checkpoint can be written.
+     *
+     * @param cpId Checkpoint ID.
+     */
+    public void onCheckpointBegin(UUID cpId) {
+        this.cpId = cpId;
+    }
+
+    /**
+     * Must be invoked after the checkpoint end marker is stored, removes the double-write file.
+     *
+     * @throws StorageException If failed.
+     */
+    public synchronized void onCheckpointEnd() throws StorageException {
+        lapLock.writeLock().lock();
+
+        try {
+            FileIO io0 = io;
+            FileIO idsIo0 = idsIo;
+
+            io = null;
+            idsIo = null;
+
+            try {
+                if (io0 != null)
+                    io0.close();
+
+                if (idsIo0 != null)
+                    idsIo0.close();
+            }
+            catch (IOException e) {
+                throw new StorageException("Failed to close double-write file: " + file, e);
+            }
+
+            if (file.exists() && !U.delete(file))
+                throw new StorageException("Failed to delete double-write file: " + file);
+
+            if (idsFile.exists() && !U.delete(idsFile))
+                throw new StorageException("Failed to delete double-write IDs file: " + idsFile);
+
+            pos.set(0);
+            idsPos = 0;
+            lapFailed = false;
+
+            lapPages.clear();
+            lapParts.clear();
+        }
+        finally {
+            lapLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Closes the double-write file on node stop, the file is kept for recovery if the checkpoint is not finished.
+     */
+    public synchronized void close() {
+        lapLock.writeLock().lock();
+
+        try {
+            U.closeQuiet(io);
+            U.closeQuiet(idsIo);
+
+            io = null;
+            idsIo = null;
+        }
+        finally {
+            lapLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the page to the batch of the current thread. The page is written to the store by the given writer after
+     * the batch is synced to the double-write file, it happens when the batch is full or on {@link #flush()}.
+     *
+     * @param fullId Full page ID.
+     * @param buf Page content.
+     * @param tag Partition generation.
+     * @param storeWriter Writer of the page to the store.
+     * @param onWritten Action to run once the page is written to the store or the write failed.
+     * @throws IgniteCheckedException If failed.
+     */
+    public void write(
+        FullPageId fullId,
+        ByteBuffer buf,
+        int tag,
+        PageStoreWriter storeWriter,
+        @Nullable Runnable onWritten
+    ) throws IgniteCheckedException {
+        Batch batch = batches.get();
+
+        batch.add(fullId, buf, tag, storeWriter, onWritten);
+
+        if (batch.size() == BATCH_PAGES)
+            batch.flush();
+    }
+
+    /**
+     * Syncs the batch of the current thread to the double-write file and writes its pages to the stores.
+     *
+     * @throws IgniteCheckedException If failed.
+     */
+    public void flush() throws IgniteCheckedException {
+        batches.get().flush();
+    }
+
+    /**
+     * Writes back to the page stores the pages of the unfinished checkpoint. The pages whose records were overwritten
+     * after a wrap are not written, they are only added to the result.
+     *
+     * @param cpId ID of the unfinished checkpoint.
+     * @param grpPred Predicate of cache groups to restore.
+     * @param pageStore Page store manager.
+     * @return IDs of the restored pages, physical WAL records of these pages must be skipped.
+     * @throws IgniteCheckedException If failed.
+     */
+    public Set<FullPageId> restore(
+        UUID cpId,
+        IgnitePredicate<Integer> grpPred,
+        IgnitePageStoreManager pageStore
+    ) throws IgniteCheckedException {
+        Set<FullPageId> restored = new HashSet<>();
+
+        int wrapped = restoreIds(cpId, grpPred, restored);
+
+        if (!file.exists())
+            return restored;
+
+        Set<T2<Integer, Integer>> parts = new HashSet<>();
+
+        Set<FullPageId> written = new HashSet<>();
+
+        ByteBuffer rec = ByteBuffer.allocateDirect(recSize).order(ByteOrder.nativeOrder());
+
+        int skipped = 0;
+
+        try (FileIO io = ioFactory.create(file, READ)) {
+            long size = io.size();
+
+            for (long off = 0; off + recSize <= size; off += recSize) {
+                rec.clear();
+
+                io.readFully(rec, off);
+
+                rec.flip();
+
+                int crc = rec.getInt(CRC_OFF);
+
+                rec.putInt(CRC_OFF, 0);
+
+                // Holes and torn records belong to batches whose pages were not written to the stores.
+                if (FastCrc.calcCrc(rec, recSize) != crc) {
+                    skipped++;
+
+                    continue;
+                }
+
+                if (rec.getLong(0) != cpId.getMostSignificantBits() || rec.getLong(8) != cpId.getLeastSignificantBits())
+                    continue;
+
+                int grpId = rec.getInt(16);
+                long pageId = rec.getLong(20);
+                int tag = rec.getInt(28);
+
+                if (!grpPred.apply(grpId))
+                    continue;
+
+                rec.position(HEADER_SIZE);
+
+                pageStore.write(grpId, pageId, rec.slice().order(ByteOrder.nativeOrder()), tag, true);
+
+                written.add(new FullPageId(pageId, grpId));
+                parts.add(new T2<>(grpId, PageIdUtils.partId(pageId)));
+            }
+        }
+        catch (IOException e) {
+            throw new StorageException("Failed to read double-write file: " + file, e);
+        }
+
+        for (T2<Integer, Integer> part : parts)
+            pageStore.sync(part.get1(), part.get2());
+
+        restored.addAll(written);
+
+        // Pages of the unfinished checkpoint may be written again by the recovery, so the restored records
+        // belong to the current lap and their IDs are kept on the next wrap.
+        lapPages.addAll(written);
+        lapParts.addAll(parts);
+
+        if (!restored.isEmpty() && log.isInfoEnabled()) {
+            log.info("Restored pages from double-write buffer [cpId=" + cpId + ", pages=" + restored.size() +
+                ", wrappedPages=" + wrapped + ", skippedRecords=" + skipped + ']');
+        }
+
+        return restored;
+    }
+
+    /**
+     * Reads the IDs of the pages whose records were overwritten after a wrap.
+     *
+     * @param cpId ID of the unfinished checkpoint.
+     * @param grpPred Predicate of cache groups to restore.
+     * @param restored IDs of the restored pages.
+     * @return Number of the read IDs.
+     * @throws StorageException If failed.
+     */
+    private int restoreIds(
+        UUID cpId,
+        IgnitePredicate<Integer> grpPred,
+        Set<FullPageId> restored
+    ) throws StorageException {
+        if (!idsFile.exists())
+            return 0;
+
+        int cnt = 0;
+
+        try (FileIO io = ioFactory.create(idsFile, READ)) {
+            long size = io.size();
+
+            ByteBuffer hdr = ByteBuffer.allocate(IDS_HEADER_SIZE).order(ByteOrder.nativeOrder());
+
+            long off = 0;
+
+            while (off + IDS_HEADER_SIZE <= size) {
+                hdr.clear();
+
+                io.readFully(hdr, off);
+
+                int ids = hdr.getInt(2 * Long.BYTES);
+
+                long len = IDS_HEADER_SIZE + (long)ids * ID_SIZE + Integer.BYTES;
+
+                // Chunks are appended one by one, only the last one can be torn.
+                if (ids < 0 || off + len > size)
+                    break;
+
+                ByteBuffer chunk = ByteBuffer.allocate((int)len).order(ByteOrder.nativeOrder());
+
+                io.readFully(chunk, off);
+
+                chunk.flip();
+
+                if (FastCrc.calcCrc(chunk, (int)len - Integer.BYTES) != chunk.getInt((int)len - Integer.BYTES))
+                    break;
+
+                off += len;
+
+                if (chunk.getLong(0) != cpId.getMostSignificantBits() ||
+                    chunk.getLong(Long.BYTES) != cpId.getLeastSignificantBits())
+                    continue;
+
+                chunk.position(IDS_HEADER_SIZE);
+
+                for (int i = 0; i < ids; i++) {
+                    int grpId = chunk.getInt();
+                    long pageId = chunk.getLong();
+
+                    if (grpPred.apply(grpId)) {
+                        restored.add(new FullPageId(pageId, grpId));
+
+                        cnt++;
+                    }
+                }
+            }
+
+            lapLock.writeLock().lock();
+
+            try {
+                // Chunks of the next wraps overwrite the torn tail.
+                idsPos = off;
+            }
+            finally {
+                lapLock.writeLock().unlock();
+            }
+        }
+        catch (IOException e) {
+            throw new StorageException("Failed to read double-write IDs file: " + idsFile, e);
+        }
+
+        return cnt;
+    }
+
+    /**
+     * Reserves a region of the double-write file and acquires the lap read lock, the file is wrapped if it is full.
+     *
+     * @param len Region length.
+     * @return Region offset.
+     * @throws IgniteCheckedException If failed to wrap the file.
+     */
+    private long reserve(int len) throws IgniteCheckedException {
+        while (true) {
+            lapLock.readLock().lock();
+
+            long off = pos.getAndAdd(len);
+
+            if (off + len <= capacity)
+                return off;
+
+            lapLock.readLock().unlock();
+
+            wrap(len);
+        }
+    }
+
+    /**
+     * Syncs the partitions written since the last wrap, saves IDs of their pages and starts writing the double-write
+     * file from the beginning. All batches of the lap are written to the stores, since they are written under the
+     * lap read lock.
+     *
+     * @param len Length of the region which didn't fit the file.
+     * @throws IgniteCheckedException If failed.
+     */
+    private void wrap(int len) throws IgniteCheckedException {
+        lapLock.writeLock().lock();
+
+        try {
+            // Wrapped by another writer.
+            if (pos.get() + len <= capacity)
+                return;
+
+            if (lapFailed)
+                throw new StorageException("Failed to wrap double-write file after a failed page write: " + file);
+
+            for (T2<Integer, Integer> part : lapParts) {
+                PageStore store;
+
+                try {
+                    store = pageStoreMgr.getStore(part.get1(), part.get2());
+                }
+                catch (IgniteCheckedException ignore) {
+                    // Cache group is stopped, its pages are not restored.
+                    continue;
+                }
+
+                store.sync();
+            }
+
+            appendIds(lapPages);
+
+            if (log.isDebugEnabled()) {
+                log.debug("Double-write file wrapped [cpId=" + cpId + ", pages=" + lapPages.size() +
+                    ", partitions=" + lapParts.size() + ']');
+            }
+
+            lapPages.clear();
+            lapParts.clear();
+
+            pos.set(0);
+        }
+        finally {
+            lapLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Appends a chunk of page IDs to the IDs file and syncs it.
+     *
+     * @param pageIds Page IDs.
+     * @throws StorageException If failed.
+     */
+    private void appendIds(Collection<FullPageId> pageIds) throws StorageException {
+        assert lapLock.isWriteLockedByCurrentThread();
+
+        UUID cpId0 = cpId;
+
+        int len = IDS_HEADER_SIZE + pageIds.size() * ID_SIZE + Integer.BYTES;
+
+        ByteBuffer chunk = ByteBuffer.allocate(len).order(ByteOrder.nativeOrder());
+
+        chunk.putLong(cpId0.getMostSignificantBits());
+        chunk.putLong(cpId0.getLeastSignificantBits());
+        chunk.putInt(pageIds.size());
+
+        for (FullPageId pageId : pageIds) {
+            chunk.putInt(pageId.groupId());
+            chunk.putLong(pageId.pageId());
+        }
+
+        // The limit stays at the end of the chunk, so the CRC is put after the bytes it covers.
+        chunk.rewind();
+
+        chunk.putInt(len - Integer.BYTES, FastCrc.calcCrc(chunk, len - Integer.BYTES));
+
+        chunk.position(0);
+
+        try {
+            if (idsIo == null)
+                idsIo = ioFactory.create(idsFile, CREATE, READ, WRITE);
+
+            idsIo.writeFully(chunk, idsPos);
+
+            idsIo.force();
+
+            idsPos += len;
+        }
+        catch (IOException e) {
+            throw new StorageException("Failed to write double-write IDs file: " + idsFile, e);
+        }
+    }
+
+    /**
+     * Syncs the double-write file, the writer returns once its batch is synced by its own or by a concurrent sync.
+     *
+     * @param io0 File I/O.
+     * @param seq Sequence number of the written batch.
+     * @throws IOException If failed.
+     */
+    private void force(FileIO io0, long seq) throws IOException {
+        synchronized (forceMux) {
+            if (forcedSeq >= seq)
+                return;
+
+            // All batches counted by now are completely written.
+            long seq0 = writeSeq.get();
+
+            io0.force();
+
+            forcedSeq = seq0;
+        }
+    }
+
+    /**
+     * @return File I/O, the records are appended to the existing file content.
+     * @throws StorageException If failed.
+     */
+    private FileIO io() throws StorageException {
+        FileIO io0 = io;
+
+        if (io0 != null)
+            return io0;
+
+        synchronized (this) {
+            if (io == null) {
+                try {
+                    io0 = ioFactory.create(file, CREATE, READ, WRITE);
+
+                    pos.set((io0.size() + recSize - 1) / recSize * recSize);
+
+                    io = io0;
+                }
+                catch (IOException e) {
+                    throw new StorageException("Failed to open double-write file: " + file, e);
+                }
+            }
+
+            return io;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(DoubleWriteBuffer.class, this);
+    }
+
+    /**
+     * Pages of a writer thread which are not synced to the double-write file yet.
+     */
+    private class Batch {
+        /** Records. */
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(BATCH_PAGES * recSize).order(ByteOrder.nativeOrder());
+
+        /** Page IDs. */
+        private final FullPageId[] ids = new FullPageId[BATCH_PAGES];
+
+        /** Partition generations. */
+        private final int[] tags = new int[BATCH_PAGES];
+
+        /** Writers of the pages to the stores. */
+        private final PageStoreWriter[] writers = new PageStoreWriter[BATCH_PAGES];
+
+        /** Actions to run once the pages are written. */
+        private final Runnable[] onWritten = new Runnable[BATCH_PAGES];
+
+        /** Number of pages. */
+        private int cnt;
+
+        /**
+         * @return Number of pages.
+         */
+        int size() {
+            return cnt;
+        }
+
+        /**
+         * @param fullId Full page ID.
+         * @param page Page content.
+         * @param tag Partition generation.
+         * @param writer Writer of the page to the store.
+         * @param onWritten Action to run once the page is written.
+         */
+        void add(FullPageId fullId, ByteBuffer page, int tag, PageStoreWriter writer, @Nullable Runnable onWritten) {
+            assert cnt < BATCH_PAGES;
+
+            UUID cpId0 = cpId;
+
+            int off = cnt * recSize;
+
+            buf.limit(off + recSize);
+            buf.position(off);
+
+            buf.putLong(cpId0.getMostSignificantBits());
+            buf.putLong(cpId0.getLeastSignificantBits());
+            buf.putInt(fullId.groupId());
+            buf.putLong(fullId.pageId());
+            buf.putInt(tag);
+            buf.putInt(0);
+
+            ByteBuffer src = page.duplicate();
+
+            src.limit(src.position() + pageSize);
+
+            buf.put(src);
+
+            buf.position(off);
+
+            buf.putInt(off + CRC_OFF, FastCrc.calcCrc(buf, recSize));
+
+            ids[cnt] = fullId;
+            tags[cnt] = tag;
+            writers[cnt] = writer;
+            this.onWritten[cnt] = onWritten;
+
+            cnt++;
+        }
+
+        /**
+         * @throws IgniteCheckedException If failed.
+         */
+        void flush() throws IgniteCheckedException {
+            if (cnt == 0)
+                return;
+
+            int len = cnt * recSize;
+
+            buf.limit(len);
+            buf.position(0);
+
+            try {
+                FileIO io0 = io();
+
+                long off = reserve(len);
+
+                boolean written = false;
+
+                try {
+                    try {
+                        io0.writeFully(buf, off);
+
+                        force(io0, writeSeq.incrementAndGet());
+                    }
+                    catch (IOException e) {
+                        throw new StorageException("Failed to write double-write file: " + file, e);
+                    }
+
+                    for (int i = 0; i < cnt; i++) {
+                        lapPages.add(ids[i]);
+                        lapParts.add(new T2<>(ids[i].groupId(), PageIdUtils.partId(ids[i].pageId())));
+
+                        buf.limit((i + 1) * recSize);
+                        buf.position(i * recSize + HEADER_SIZE);
+
+                        Runnable onWritten0 = onWritten[i];
+
+                        // The writer may defer the write as well, the action is passed to it.
+                        onWritten[i] = null;
+
+                        writers[i].writePage(ids[i], buf.slice().order(ByteOrder.nativeOrder()), tags[i], onWritten0);
+                    }
+
+                    // The pages must be written to the stores before the records can be overwritten by a wrap.
+                    for (int i = 0; i < cnt; i++) {
+                        if (i == 0 || writers[i] != writers[i - 1])
+                            writers[i].flush();
+                    }
+
+                    written = true;
+                }
+                finally {
+                    if (!written)
+                        lapFailed = true;
+
+                    lapLock.readLock().unlock();
+                }
+            }
+            finally {
+                for (int i = 0; i < cnt; i++) {
+                    if (onWritten[i] != null)
+                        onWritten[i].run();
+
+                    ids[i] = null;
+                    writers[i] = null;
+                    onWritten[i] = null;
+                }
+
+                cnt = 0;
+
+                buf.clear();
+            }
+        }
+    }
+}
@@ -29,6 +29,8 @@ import org.apache.ignite.IgniteSystemProperties;
 import org.apache.ignite.configuration.DataStorageConfiguration;
 import org.apache.ignite.internal.IgniteInternalFuture;
 import org.apache.ignite.internal.LongJVMPauseDetector;
+import org.apache.ignite.internal.pagemem.FullPageId;
+import org.apache.ignite.internal.pagemem.store.PageStore;
 import org.apache.ignite.internal.pagemem.wal.WALPointer;
 import org.apache.ignite.internal.processors.cache.CacheGroupContext;
 import org.apache.ignite.internal.processors.cache.GridCacheProcessor;
@@ -117,7 +119,8 @@ public class LightweightCheckpointManager {
             dataRegions,
             Collections::emptyList,
             persistenceCfg.getCheckpointThreads(),
-            igniteInstanceName
+            igniteInstanceName,
+            null
         );
 
         ThreadLocal<ByteBuffer> threadBuf = new ThreadLocal<ByteBuffer>() {
@@ -134,12 +137,25 @@ public class LightweightCheckpointManager {
         checkpointPagesWriterFactory = new CheckpointPagesWriterFactory(
             logger,
             snapshotMgr,
-            (pageMemEx, fullPage, buf, tag) ->
-                pageMemEx.pageManager().write(fullPage.groupId(), fullPage.pageId(), buf, tag, true),
+            new CheckpointPagesWriter.CheckpointPageWriter() {
+                /** {@inheritDoc} */
+                @Override public PageStore write(PageMemoryEx pageMemEx, FullPageId fullPage, ByteBuffer buf, int tag)
+                    throws IgniteCheckedException {
+                    return pageMemEx.pageManager().write(fullPage.groupId(), fullPage.pageId(), buf, tag, true);
+                }
+
+                /** {@inheritDoc} */
+                @Override public PageStore writePages(PageMemoryEx pageMemEx, int grpId, long[] pageIds, int cnt,
+                    ByteBuffer buf, int tag) throws IgniteCheckedException {
+                    return pageMemEx.pageManager().writePages(grpId, pageIds, cnt, buf, tag, true);
+                }
+            },
             persStoreMetrics,
             throttlingPolicy,
             threadBuf,
-            pageMemoryGroupResolver
+            pageMemoryGroupResolver,
+            null,
+            persistenceCfg.getCheckpointWriteRunLength()
         );
 
         checkpointerProvider = () -> new Checkpointer(
@@ -17,6 +17,7 @@
 package org.apache.ignite.internal.processors.cache.persistence.defragmentation;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -112,6 +113,9 @@ public class CachePartitionDefragmentationManager {
     /** */
     public static final String DEFRAGMENTATION_MNTC_TASK_NAME = "defragmentationMaintenanceTask";
 
+    /** Number of rows put to the new data tree at once. */
+    private static final int ROWS_BATCH_SIZE = 256;
+
     /** */
     private final Set<String> cachesForDefragmentation;
 
@@ -699,6 +703,9 @@ public class CachePartitionDefragmentationManager {
 
         long cpLockThreshold = 150L;
 
+        // Rows are copied in the tree order, so they are put to the new tree in batches.
+        List<CacheDataRow> rows = new ArrayList<>(ROWS_BATCH_SIZE);
+
         defragmentationCheckpoint.checkpointTimeoutLock().checkpointReadLock();
 
         try {
@@ -709,6 +716,8 @@ public class CachePartitionDefragmentationManager {
                 checkCancellation();
 
                 if (System.currentTimeMillis() - lastCpLockTs.get() >= cpLockThreshold) {
+                    putRows(newTree, rows);
+
                     defragmentationCheckpoint.checkpointTimeoutLock().checkpointReadUnlock();
 
                     defragmentationCheckpoint.checkpointTimeoutLock().checkpointReadLock();
@@ -739,7 +748,10 @@ public class CachePartitionDefragmentationManager {
                 if (row instanceof DataRow)
                     row.cacheId(cacheId);
 
-                newTree.putx(row);
+                rows.add(row);
+
+                if (rows.size() == ROWS_BATCH_SIZE)
+                    putRows(newTree, rows);
 
                 long newLink = row.link();
 
@@ -755,6 +767,8 @@ public class CachePartitionDefragmentationManager {
 
             checkCancellation();
 
+            putRows(newTree, rows);
+
             defragmentationCheckpoint.checkpointTimeoutLock().checkpointReadUnlock();
 
             defragmentationCheckpoint.checkpointTimeoutLock().checkpointReadLock();
@@ -770,6 +784,19 @@ public class CachePartitionDefragmentationManager {
         }
     }
 
+    /**
+     * Puts the rows to the tree and clears the list.
+     *
+     * @param tree Tree.
+     * @param rows Rows sorted in the tree order.
+     * @throws IgniteCheckedException If failed.
+     */
+    private static void putRows(CacheDataTree tree, List<CacheDataRow> rows) throws IgniteCheckedException {
+        tree.putAll(rows);
+
+        rows.clear();
+    }
+
     /** */
     private void copyCacheMetadata(
         PartitionContext partCtx
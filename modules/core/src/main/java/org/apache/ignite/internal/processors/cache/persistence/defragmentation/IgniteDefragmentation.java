@@ -37,6 +37,17 @@ public interface IgniteDefragmentation {
      */
     ScheduleResult schedule(List<String> cacheNames) throws IgniteCheckedException;
 
+    /**
+     * Start defragmentation of the data pages of the node partitions without maintenance mode. Rows from sparse
+     * data pages are moved to denser ones while the node keeps serving the load.
+     *
+     * @param cacheNames Names of caches or cache groups to run defragmentation on, all persistent caches if empty.
+     * @param rate Maximum number of moved rows per second, {@code 0} for unlimited.
+     * @return Result of the start.
+     * @throws IgniteCheckedException If failed.
+     */
+    OnlineResult startOnline(List<String> cacheNames, int rate) throws IgniteCheckedException;
+
     /**
      * Cancel scheduled or ongoing defragmentation.
      * @return Result of the cancellation.
@@ -84,6 +95,19 @@ public interface IgniteDefragmentation {
         SUCCESS_SUPERSEDED_PREVIOUS
     }
 
+    /** Result of the online defragmentation start. */
+    public enum OnlineResult {
+        /**
+         * Successfully started.
+         */
+        STARTED,
+
+        /**
+         * Online defragmentation is already in progress.
+         */
+        ALREADY_IN_PROGRESS
+    }
+
     /** Result of the cancellation. */
     public enum CancelResult {
         /**
@@ -27,6 +27,7 @@ import org.apache.ignite.internal.GridKernalContext;
 import org.apache.ignite.internal.processors.cache.persistence.GridCacheDatabaseSharedManager;
 import org.apache.ignite.internal.processors.cache.persistence.IgniteCacheDatabaseSharedManager;
 import org.apache.ignite.internal.processors.cache.persistence.defragmentation.CachePartitionDefragmentationManager.Status;
+import org.apache.ignite.internal.util.typedef.internal.CU;
 import org.apache.ignite.maintenance.MaintenanceAction;
 import org.apache.ignite.maintenance.MaintenanceRegistry;
 import org.apache.ignite.maintenance.MaintenanceTask;
@@ -41,6 +42,9 @@ public class IgniteDefragmentationImpl implements IgniteDefragmentation {
     /** Kernal context. */
     private final GridKernalContext ctx;
 
+    /** Online defragmentation, created on the first start. */
+    private volatile OnlineDefragmentation online;
+
     public IgniteDefragmentationImpl(GridKernalContext ctx) {
         this.ctx = ctx;
     }
@@ -61,10 +65,30 @@ public class IgniteDefragmentationImpl implements IgniteDefragmentation {
         return oldTask != null ? ScheduleResult.SUCCESS_SUPERSEDED_PREVIOUS : ScheduleResult.SUCCESS;
     }
 
+    /** {@inheritDoc} */
+    @Override public synchronized OnlineResult startOnline(List<String> cacheNames, int rate)
+        throws IgniteCheckedException {
+        if (ctx.maintenanceRegistry().isMaintenanceMode())
+            throw new IgniteCheckedException("Online defragmentation can't be started in maintenance mode.");
+
+        if (!CU.isPersistenceEnabled(ctx.config()))
+            throw new IgniteCheckedException("Online defragmentation requires persistence.");
+
+        if (online == null)
+            online = new OnlineDefragmentation(ctx);
+
+        return online.start(cacheNames, rate) ? OnlineResult.STARTED : OnlineResult.ALREADY_IN_PROGRESS;
+    }
+
     /** {@inheritDoc} */
     @Override public CancelResult cancel() throws IgniteCheckedException {
         final MaintenanceRegistry maintenanceRegistry = ctx.maintenanceRegistry();
 
+        OnlineDefragmentation online0 = online;
+
+        if (online0 != null && online0.inProgress())
+            return online0.cancel() ? CancelResult.CANCELLED : CancelResult.COMPLETED_OR_CANCELLED;
+
         if (!maintenanceRegistry.isMaintenanceMode()) {
             boolean deleted = maintenanceRegistry.unregisterMaintenanceTask(DEFRAGMENTATION_MNTC_TASK_NAME);
 
@@ -103,8 +127,14 @@ public class IgniteDefragmentationImpl implements IgniteDefragmentation {
     @Override public DefragmentationStatus status() throws IgniteCheckedException {
         final MaintenanceRegistry maintenanceRegistry = ctx.maintenanceRegistry();
 
-        if (!maintenanceRegistry.isMaintenanceMode())
-            throw new IgniteCheckedException("Node is not in maintenance mode.");
+        if (!maintenanceRegistry.isMaintenanceMode()) {
+            DefragmentationStatus onlineStatus = online != null ? online.status() : null;
+
+            if (onlineStatus == null)
+                throw new IgniteCheckedException("Node is not in maintenance mode.");
+
+            return onlineStatus;
+        }
 
         IgniteCacheDatabaseSharedManager dbMgr = ctx.cache().context().database();
 
@@ -161,6 +191,11 @@ public class IgniteDefragmentationImpl implements IgniteDefragmentation {
 
     /** {@inheritDoc} */
     @Override public boolean inProgress() {
+        OnlineDefragmentation online0 = online;
+
+        if (online0 != null && online0.inProgress())
+            return true;
+
         final Status status = getStatus();
 
         return status != null && status.getFinishTs() == 0;
@@ -168,6 +203,11 @@ public class IgniteDefragmentationImpl implements IgniteDefragmentation {
 
     /** {@inheritDoc} */
     @Override public int processedPartitions() {
+        OnlineDefragmentation online0 = online;
+
+        if (online0 != null && online0.inProgress())
+            return online0.processedPartitions();
+
         final Status status = getStatus();
 
         if (status == null)
@@ -178,6 +218,11 @@ public class IgniteDefragmentationImpl implements IgniteDefragmentation {
 
     /** {@inheritDoc} */
     @Override public int totalPartitions() {
+        OnlineDefragmentation online0 = online;
+
+        if (online0 != null && online0.inProgress())
+            return online0.totalPartitions();
+
         final CachePartitionDefragmentationManager.Status status = getStatus();
 
         if (status == null)
@@ -188,6 +233,11 @@ public class IgniteDefragmentationImpl implements IgniteDefragmentation {
 
     /** {@inheritDoc} */
     @Override public long startTime() {
+        OnlineDefragmentation online0 = online;
+
+        if (online0 != null && online0.inProgress())
+            return online0.startTime();
+
         final CachePartitionDefragmentationManager.Status status = getStatus();
 
         if (status == null)
@@ -0,0 +1,509 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.defragmentation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.IgniteLogger;
+import org.apache.ignite.internal.GridKernalContext;
+import org.apache.ignite.internal.IgniteInterruptedCheckedException;
+import org.apache.ignite.internal.NodeStoppingException;
+import org.apache.ignite.internal.pagemem.PageMemory;
+import org.apache.ignite.internal.processors.cache.CacheGroupContext;
+import org.apache.ignite.internal.processors.cache.GridCacheContext;
+import org.apache.ignite.internal.processors.cache.GridCacheEntryEx;
+import org.apache.ignite.internal.processors.cache.IgniteCacheOffheapManager.CacheDataStore;
+import org.apache.ignite.internal.processors.cache.distributed.dht.topology.GridDhtLocalPartition;
+import org.apache.ignite.internal.processors.cache.persistence.CacheDataRow;
+import org.apache.ignite.internal.processors.cache.persistence.CacheDataRowAdapter;
+import org.apache.ignite.internal.processors.cache.persistence.IgniteCacheDatabaseSharedManager;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.DataPageIO;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.PageIO;
+import org.apache.ignite.internal.processors.cache.persistence.tree.reuse.ReuseList;
+import org.apache.ignite.internal.util.BasicRateLimiter;
+import org.apache.ignite.internal.util.lang.GridCursor;
+import org.apache.ignite.internal.util.typedef.F;
+import org.apache.ignite.internal.util.typedef.internal.U;
+import org.apache.ignite.internal.util.worker.GridWorker;
+import org.apache.ignite.thread.IgniteThread;
+import org.jetbrains.annotations.Nullable;
+
+import static org.apache.ignite.internal.pagemem.PageIdUtils.pageId;
+import static org.apache.ignite.internal.processors.cache.distributed.dht.topology.GridDhtPartitionState.OWNING;
+
+/**
+ * Online defragmentation of the partitions owned by the node, which runs without maintenance mode.
+ * <p>
+ * Rows stored in sparse data pages are moved one by one through the free list, which places them to the fullest
+ * data pages that fit them. Each row is moved under its entry lock and a checkpoint read lock, so concurrent
+ * updates are simply serialized with the move and nothing has to be captured or replayed. Emptied data pages
+ * are recycled and reused by the partition instead of growing its file.
+ */
+public class OnlineDefragmentation {
+    /** Minimal share of free space in a data page for its rows to be moved. */
+    public static final double SPARSE_PAGE_FREE_SPACE_RATIO = 0.5;
+
+    /** Kernal context. */
+    private final GridKernalContext ctx;
+
+    /** Logger. */
+    private final IgniteLogger log;
+
+    /** Current or last run. */
+    private volatile Run run;
+
+    /**
+     * @param ctx Kernal context.
+     */
+    public OnlineDefragmentation(GridKernalContext ctx) {
+        this.ctx = ctx;
+
+        log = ctx.log(OnlineDefragmentation.class);
+    }
+
+    /**
+     * Starts defragmentation.
+     *
+     * @param cacheNames Names of caches or cache groups, all persistent caches if empty.
+     * @param rate Maximum number of moved rows per second, {@code 0} for unlimited.
+     * @return {@code False} if defragmentation is already in progress.
+     * @throws IgniteCheckedException If failed.
+     */
+    public synchronized boolean start(@Nullable List<String> cacheNames, int rate) throws IgniteCheckedException {
+        if (inProgress())
+            return false;
+
+        if (rate < 0)
+            throw new IgniteCheckedException("Rate must be non-negative: " + rate);
+
+        List<CacheGroupContext> grps = new ArrayList<>();
+
+        for (CacheGroupContext grp : ctx.cache().cacheGroups()) {
+            if (!grp.userCache() || !grp.persistenceEnabled() || grp.mvccEnabled() || grp.isLocal())
+                continue;
+
+            if (F.isEmpty(cacheNames) || cacheNames.contains(grp.cacheOrGroupName())
+                || grp.caches().stream().anyMatch(cctx -> cacheNames.contains(cctx.name())))
+                grps.add(grp);
+        }
+
+        Run run0 = new Run(grps, rate);
+
+        run = run0;
+
+        new IgniteThread(run0).start();
+
+        return true;
+    }
+
+    /**
+     * Cancels defragmentation.
+     *
+     * @return {@code False} if there is no defragmentation in progress.
+     */
+    public synchronized boolean cancel() {
+        Run run0 = run;
+
+        if (run0 == null || run0.finishTs != 0)
+            return false;
+
+        run0.cancel();
+
+        return true;
+    }
+
+    /**
+     * @return {@code True} if defragmentation is in progress.
+     */
+    public boolean inProgress() {
+        Run run0 = run;
+
+        return run0 != null && run0.finishTs == 0;
+    }
+
+    /**
+     * @return Status of the current or last run, {@code null} if defragmentation has not been started.
+     */
+    @Nullable public IgniteDefragmentation.DefragmentationStatus status() {
+        Run run0 = run;
+
+        if (run0 == null)
+            return null;
+
+        long now = U.currentTimeMillis();
+
+        Map<String, IgniteDefragmentation.CompletedDefragmentationInfo> completed = new HashMap<>();
+        Map<String, IgniteDefragmentation.InProgressDefragmentationInfo> inProgress = new HashMap<>();
+        Set<String> awaiting = new HashSet<>();
+
+        run0.progress.forEach((name, grpProgress) -> {
+            if (grpProgress.finishTs != 0) {
+                completed.put(name, new IgniteDefragmentation.CompletedDefragmentationInfo(
+                    grpProgress.finishTs - grpProgress.startTs, grpProgress.sizeBefore, grpProgress.sizeAfter));
+            }
+            else if (grpProgress.startTs != 0 && run0.finishTs == 0) {
+                inProgress.put(name, new IgniteDefragmentation.InProgressDefragmentationInfo(
+                    now - grpProgress.startTs, grpProgress.partsCompleted, grpProgress.partsTotal));
+            }
+            else if (run0.finishTs == 0)
+                awaiting.add(name);
+        });
+
+        return new IgniteDefragmentation.DefragmentationStatus(
+            completed,
+            inProgress,
+            awaiting,
+            Collections.emptySet(),
+            run0.totalParts,
+            run0.processedParts,
+            run0.startTs,
+            (run0.finishTs != 0 ? run0.finishTs : now) - run0.startTs
+        );
+    }
+
+    /**
+     * @return Number of processed partitions of the current or last run.
+     */
+    public int processedPartitions() {
+        Run run0 = run;
+
+        return run0 == null ? 0 : run0.processedParts;
+    }
+
+    /**
+     * @return Number of partitions of the current or last run.
+     */
+    public int totalPartitions() {
+        Run run0 = run;
+
+        return run0 == null ? 0 : run0.totalParts;
+    }
+
+    /**
+     * @return Start time of the current or last run.
+     */
+    public long startTime() {
+        Run run0 = run;
+
+        return run0 == null ? 0 : run0.startTs;
+    }
+
+    /**
+     * @return Number of rows moved by the current or last run.
+     */
+    public long movedRows() {
+        Run run0 = run;
+
+        return run0 == null ? 0 : run0.movedRows;
+    }
+
+    /**
+     * Defragmentation run.
+     */
+    class Run extends GridWorker {
+        /** Cache groups to process. */
+        private final List<CacheGroupContext> grps;
+
+        /** Rate limiter, {@code null} if unlimited. */
+        @Nullable private final BasicRateLimiter limiter;
+
+        /** Progress of cache groups. */
+        final Map<String, GroupProgress> progress = new LinkedHashMap<>();
+
+        /** Start time. */
+        final long startTs = U.currentTimeMillis();
+
+        /** Finish time or {@code 0} if in progress. */
+        volatile long finishTs;
+
+        /** Total number of partitions. */
+        volatile int totalParts;
+
+        /** Number of processed partitions. */
+        volatile int processedParts;
+
+        /** Number of moved rows. */
+        volatile long movedRows;
+
+        /**
+         * @param grps Cache groups to process.
+         * @param rate Maximum number of moved rows per second, {@code 0} for unlimited.
+         */
+        Run(List<CacheGroupContext> grps, int rate) {
+            super(ctx.igniteInstanceName(), "online-defragmentation", OnlineDefragmentation.this.log);
+
+            this.grps = grps;
+
+            limiter = rate > 0 ? new BasicRateLimiter(rate) : null;
+
+            for (CacheGroupContext grp : grps)
+                progress.put(grp.cacheOrGroupName(), new GroupProgress());
+        }
+
+        /** {@inheritDoc} */
+        @Override protected void body() throws InterruptedException, IgniteInterruptedCheckedException {
+            if (log.isInfoEnabled())
+                log.info("Online defragmentation started [grps=" + progress.keySet() + ']');
+
+            try {
+                for (CacheGroupContext grp : grps)
+                    totalParts += grp.topology().localPartitions().size();
+
+                for (CacheGroupContext grp : grps) {
+                    if (isCancelled())
+                        break;
+
+                    defragmentGroup(grp);
+                }
+            }
+            catch (NodeStoppingException ignore) {
+                // No-op.
+            }
+            catch (IgniteCheckedException e) {
+                U.error(log, "Online defragmentation failed.", e);
+            }
+            finally {
+                finishTs = U.currentTimeMillis();
+
+                if (log.isInfoEnabled()) {
+                    log.info("Online defragmentation " + (isCancelled() ? "cancelled" : "finished")
+                        + " [processedParts=" + processedParts + ", movedRows=" + movedRows
+                        + ", time=" + (finishTs - startTs) + "ms]");
+                }
+            }
+        }
+
+        /**
+         * @param grp Cache group.
+         * @throws IgniteCheckedException If failed.
+         */
+        private void defragmentGroup(CacheGroupContext grp) throws IgniteCheckedException {
+            GroupProgress grpProgress = progress.get(grp.cacheOrGroupName());
+
+            List<GridDhtLocalPartition> parts = grp.topology().localPartitions();
+
+            grpProgress.startTs = U.currentTimeMillis();
+            grpProgress.partsTotal = parts.size();
+            grpProgress.sizeBefore = occupiedSize(grp, parts);
+
+            for (GridDhtLocalPartition part : parts) {
+                if (isCancelled())
+                    return;
+
+                // Moving partitions are skipped, rebalancing writes them densely anyway.
+                if (part.state() == OWNING && part.reserve()) {
+                    try {
+                        defragmentPartition(grp, part);
+                    }
+                    finally {
+                        part.release();
+                    }
+                }
+
+                grpProgress.partsCompleted++;
+                processedParts++;
+            }
+
+            grpProgress.sizeAfter = occupiedSize(grp, parts);
+            grpProgress.finishTs = U.currentTimeMillis();
+        }
+
+        /**
+         * @param grp Cache group.
+         * @param part Partition.
+         * @throws IgniteCheckedException If failed.
+         */
+        private void defragmentPartition(CacheGroupContext grp, GridDhtLocalPartition part)
+            throws IgniteCheckedException {
+            int minFreeSpace = (int)(grp.dataRegion().pageMemory().realPageSize(grp.groupId())
+                * SPARSE_PAGE_FREE_SPACE_RATIO);
+
+            // Decisions are made once per page, it only gets sparser while its rows are moved out.
+            Map<Long, Boolean> sparsePages = new HashMap<>();
+
+            GridCursor<? extends CacheDataRow> cur = part.dataStore().cursor(CacheDataRowAdapter.RowData.KEY_ONLY);
+
+            while (cur.next()) {
+                if (isCancelled())
+                    return;
+
+                CacheDataRow row = cur.get();
+
+                long pageId = pageId(row.link());
+
+                Boolean sparse = sparsePages.get(pageId);
+
+                if (sparse == null) {
+                    sparse = freeSpace(grp, pageId) >= minFreeSpace;
+
+                    sparsePages.put(pageId, sparse);
+                }
+
+                if (!sparse)
+                    continue;
+
+                if (limiter != null)
+                    limiter.acquire(1);
+
+                if (moveRow(grp, part.dataStore(), row))
+                    movedRows++;
+
+                updateHeartbeat();
+            }
+        }
+
+        /**
+         * @param grp Cache group.
+         * @param store Partition data store.
+         * @param row Row found by the cursor.
+         * @return {@code True} if the row was moved.
+         * @throws IgniteCheckedException If failed.
+         */
+        private boolean moveRow(CacheGroupContext grp, CacheDataStore store, CacheDataRow row)
+            throws IgniteCheckedException {
+            GridCacheContext cctx = grp.sharedGroup()
+                ? grp.shared().cacheContext(row.cacheId())
+                : grp.singleCacheContext();
+
+            if (cctx == null)
+                return false;
+
+            if (cctx.isNear())
+                cctx = cctx.near().dht().context();
+
+            IgniteCacheDatabaseSharedManager db = grp.shared().database();
+
+            GridCacheEntryEx entry = cctx.cache().entryEx(row.key());
+
+            db.checkpointReadLock();
+
+            try {
+                entry.lockEntry();
+
+                try {
+                    if (entry.obsolete())
+                        return false;
+
+                    CacheDataRow cur = store.find(cctx, row.key());
+
+                    // The row was updated or removed concurrently.
+                    if (cur == null || cur.link() != row.link() || cur.tombstone())
+                        return false;
+
+                    store.relocate(cctx, cur);
+
+                    return true;
+                }
+                finally {
+                    entry.unlockEntry();
+                }
+            }
+            finally {
+                db.checkpointReadUnlock();
+
+                entry.touch();
+            }
+        }
+
+        /**
+         * @param grp Cache group.
+         * @param pageId Data page ID.
+         * @return Free space of the data page or {@code 0} if it is not a data page anymore.
+         * @throws IgniteCheckedException If failed.
+         */
+        private int freeSpace(CacheGroupContext grp, long pageId) throws IgniteCheckedException {
+            PageMemory pageMem = grp.dataRegion().pageMemory();
+
+            int grpId = grp.groupId();
+
+            long page = pageMem.acquirePage(grpId, pageId);
+
+            try {
+                long pageAddr = pageMem.readLock(grpId, pageId, page);
+
+                if (pageAddr == 0L)
+                    return 0;
+
+                try {
+                    if (PageIO.getType(pageAddr) != PageIO.T_DATA)
+                        return 0;
+
+                    return DataPageIO.VERSIONS.forPage(pageAddr).getFreeSpace(pageAddr);
+                }
+                finally {
+                    pageMem.readUnlock(grpId, pageId, page);
+                }
+            }
+            finally {
+                pageMem.releasePage(grpId, pageId, page);
+            }
+        }
+
+        /**
+         * @param grp Cache group.
+         * @param parts Partitions.
+         * @return Size of the allocated and not recycled pages of the partitions.
+         * @throws IgniteCheckedException If failed.
+         */
+        private long occupiedSize(CacheGroupContext grp, Collection<GridDhtLocalPartition> parts)
+            throws IgniteCheckedException {
+            long pages = 0;
+
+            for (GridDhtLocalPartition part : parts) {
+                CacheDataStore store = part.dataStore();
+
+                pages += grp.shared().pageStore().pages(grp.groupId(), part.id());
+
+                if (store.rowStore() != null && store.rowStore().freeList() instanceof ReuseList)
+                    pages -= ((ReuseList)store.rowStore().freeList()).recycledPagesCount();
+            }
+
+            return pages * grp.dataRegion().pageMemory().pageSize();
+        }
+    }
+
+    /**
+     * Progress of a cache group.
+     */
+    static class GroupProgress {
+        /** Start time. */
+        volatile long startTs;
+
+        /** Finish time or {@code 0} if in progress. */
+        volatile long finishTs;
+
+        /** Total number of partitions. */
+        volatile int partsTotal;
+
+        /** Number of processed partitions. */
+        volatile int partsCompleted;
+
+        /** Size of occupied pages before defragmentation. */
+        volatile long sizeBefore;
+
+        /** Size of occupied pages after defragmentation. */
+        volatile long sizeAfter;
+    }
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.file;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static org.apache.ignite.internal.processors.cache.persistence.file.BlockCompressedOutputStream.HEADER_SIZE;
+import static org.apache.ignite.internal.processors.cache.persistence.file.BlockCompressedOutputStream.MAGIC;
+import static org.apache.ignite.internal.processors.cache.persistence.file.BlockCompressedOutputStream.TAIL_SIZE;
+import static org.apache.ignite.internal.processors.cache.persistence.file.BlockCompressedOutputStream.VERSION;
+
+/**
+ * {@link FileIO} that allows to read a file written by {@link BlockCompressedOutputStream}.
+ * Unlike {@link UnzipFileIO} allows random access, only the block containing the position is inflated.
+ * Not thread safe.
+ */
+public class BlockCompressedFileIO extends AbstractFileIO {
+    /** File channel. */
+    private final FileChannel ch;
+
+    /** Uncompressed size. */
+    private final long size;
+
+    /** Uncompressed block size. */
+    private final int blockSize;
+
+    /** File offsets of the blocks, the last element is the offset of the footer. */
+    private final long[] blockOffs;
+
+    /** Keys of the position index. */
+    private final long[] idxKeys;
+
+    /** Positions of the position index. */
+    private final long[] idxPositions;
+
+    /** Inflater. */
+    private final Inflater inflater = new Inflater();
+
+    /** Uncompressed data of the current block. */
+    private final byte[] block;
+
+    /** Index of the current block or {@code -1} if none is loaded. */
+    private int blockIdx = -1;
+
+    /** Length of the current block. */
+    private int blockLen;
+
+    /** Buffer for compressed data. */
+    private ByteBuffer buf;
+
+    /** Current position. */
+    private long pos;
+
+    /**
+     * @param file Compressed file.
+     * @throws IOException If failed.
+     */
+    public BlockCompressedFileIO(File file) throws IOException {
+        ch = FileChannel.open(file.toPath(), READ);
+
+        try {
+            long fileSize = ch.size();
+
+            if (fileSize < HEADER_SIZE + TAIL_SIZE)
+                throw new IOException("Compressed file is too short: " + file.getCanonicalPath());
+
+            ByteBuffer hdr = readRaw(0, HEADER_SIZE);
+
+            if (hdr.getInt() != MAGIC || hdr.getInt() != VERSION)
+                throw new IOException("Unsupported compressed file format: " + file.getCanonicalPath());
+
+            blockSize = hdr.getInt();
+
+            ByteBuffer tail = readRaw(fileSize - TAIL_SIZE, TAIL_SIZE);
+
+            size = tail.getLong();
+
+            int blocks = tail.getInt();
+            int entries = tail.getInt();
+
+            if (tail.getInt() != MAGIC)
+                throw new IOException("Compressed file is incomplete: " + file.getCanonicalPath());
+
+            long footerOff = fileSize - TAIL_SIZE - blocks * 8L - entries * 16L;
+
+            ByteBuffer footer = readRaw(footerOff, (int)(fileSize - TAIL_SIZE - footerOff));
+
+            blockOffs = new long[blocks + 1];
+
+            for (int i = 0; i < blocks; i++)
+                blockOffs[i] = footer.getLong();
+
+            blockOffs[blocks] = footerOff;
+
+            idxKeys = new long[entries];
+            idxPositions = new long[entries];
+
+            for (int i = 0; i < entries; i++) {
+                idxKeys[i] = footer.getLong();
+                idxPositions[i] = footer.getLong();
+            }
+
+            block = new byte[blockSize];
+        }
+        catch (IOException | RuntimeException e) {
+            ch.close();
+
+            throw e;
+        }
+    }
+
+    /**
+     * @param file File.
+     * @return {@code True} if the file is written by {@link BlockCompressedOutputStream}.
+     * @throws IOException If failed.
+     */
+    public static boolean isBlockCompressed(File file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file.toPath(), READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+
+            while (magic.hasRemaining()) {
+                if (ch.read(magic) < 0)
+                    return false;
+            }
+
+            return magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Opens a compressed file of either format.
+     *
+     * @param file Compressed file.
+     * @return File I/O.
+     * @throws IOException If failed.
+     */
+    public static FileIO open(File file) throws IOException {
+        return isBlockCompressed(file) ? new BlockCompressedFileIO(file) : new UnzipFileIO(file);
+    }
+
+    /**
+     * Finds the position to start looking for the data of a key, see
+     * {@link BlockCompressedOutputStream#markPosition}.
+     *
+     * @param key Key.
+     * @return Position of the greatest indexed key not greater than the given one or {@code 0} if there is none.
+     */
+    public long indexedPosition(long key) {
+        int lo = 0;
+        int hi = idxKeys.length - 1;
+        long res = 0;
+
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+
+            if (idxKeys[mid] <= key) {
+                res = idxPositions[mid];
+                lo = mid + 1;
+            }
+            else
+                hi = mid - 1;
+        }
+
+        return res;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getFileSystemBlockSize() {
+        return -1;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getSparseSize() {
+        return -1;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int punchHole(long position, int len) {
+        throw new UnsupportedOperationException();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long position() throws IOException {
+        return pos;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void position(long newPosition) throws IOException {
+        pos = newPosition;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int read(ByteBuffer dstBuf) throws IOException {
+        int read = read(dstBuf, pos);
+
+        if (read > 0)
+            pos += read;
+
+        return read;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int read(ByteBuffer dstBuf, long position) throws IOException {
+        if (position >= size)
+            return -1;
+
+        int read = 0;
+
+        while (dstBuf.hasRemaining() && position < size) {
+            int idx = (int)(position / blockSize);
+
+            loadBlock(idx);
+
+            int off = (int)(position - (long)idx * blockSize);
+            int len = Math.min(dstBuf.remaining(), blockLen - off);
+
+            dstBuf.put(block, off, len);
+
+            position += len;
+            read += len;
+        }
+
+        return read;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int read(byte[] buf, int off, int len) throws IOException {
+        return read(ByteBuffer.wrap(buf, off, len));
+    }
+
+    /** {@inheritDoc} */
+    @Override public int write(ByteBuffer srcBuf) throws IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    /** {@inheritDoc} */
+    @Override public int write(ByteBuffer srcBuf, long position) throws IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    /** {@inheritDoc} */
+    @Override public int write(byte[] buf, int off, int len) throws IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void force() throws IOException {
+        force(false);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void force(boolean withMetadata) throws IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    /** {@inheritDoc} */
+    @Override public long size() throws IOException {
+        return size;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void clear() throws IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    /** {@inheritDoc} */
+    @Override public MappedByteBuffer map(int sizeBytes) throws IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void close() throws IOException {
+        inflater.end();
+
+        ch.close();
+    }
+
+    /**
+     * Inflates the block unless it is already loaded.
+     *
+     * @param idx Block index.
+     * @throws IOException If failed.
+     */
+    private void loadBlock(int idx) throws IOException {
+        if (idx == blockIdx)
+            return;
+
+        blockIdx = -1;
+
+        int len = (int)(blockOffs[idx + 1] - blockOffs[idx]);
+
+        if (buf == null || buf.capacity() < len)
+            buf = ByteBuffer.allocate(Math.max(len, blockSize));
+
+        buf.clear().limit(len);
+
+        readAt(buf, blockOffs[idx]);
+
+        inflater.reset();
+        inflater.setInput(buf.array(), 0, len);
+
+        try {
+            int off = 0;
+
+            while (!inflater.finished() && off < blockSize) {
+                int n = inflater.inflate(block, off, blockSize - off);
+
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    throw new IOException("Compressed block is truncated [idx=" + idx + ']');
+
+                off += n;
+            }
+
+            blockLen = off;
+        }
+        catch (DataFormatException e) {
+            throw new IOException("Failed to inflate compressed block [idx=" + idx + ']', e);
+        }
+
+        blockIdx = idx;
+    }
+
+    /**
+     * @param off File offset.
+     * @param len Length.
+     * @return Buffer with the read data.
+     * @throws IOException If failed.
+     */
+    private ByteBuffer readRaw(long off, int len) throws IOException {
+        ByteBuffer res = ByteBuffer.allocate(len);
+
+        readAt(res, off);
+
+        res.flip();
+
+        return res;
+    }
+
+    /**
+     * @param dst Destination buffer.
+     * @param off File offset.
+     * @throws IOException If failed.
+     */
+    private void readAt(ByteBuffer dst, long off) throws IOException {
+        while (dst.hasRemaining()) {
+            int n = ch.read(dst, off);
+
+            if (n < 0)
+                throw new EOFException("Unexpected end of compressed file [off=" + off + ']');
+
+            off += n;
+        }
+    }
+}
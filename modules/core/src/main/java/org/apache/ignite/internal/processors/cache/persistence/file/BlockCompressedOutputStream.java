@@ -0,0 +1,212 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.file;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+import org.apache.ignite.internal.util.GridLongList;
+
+/**
+ * Output stream which writes a file readable with random access by {@link BlockCompressedFileIO}.
+ * The data is split to blocks of the same uncompressed size and every block is deflated independently.
+ * <p>
+ * File format:
+ * <ul>
+ *     <li>Header: magic, format version and uncompressed block size.</li>
+ *     <li>Compressed blocks.</li>
+ *     <li>Footer: file offsets of the blocks, entries of the position index, uncompressed size,
+ *     number of blocks, number of index entries and magic.</li>
+ * </ul>
+ * The position index maps caller defined keys to the uncompressed positions, see {@link #markPosition}.
+ * All numbers are big-endian.
+ */
+public class BlockCompressedOutputStream extends OutputStream {
+    /** Magic number, differs from the local file header signature of ZIP. */
+    static final int MAGIC = 0x49474257;
+
+    /** Format version. */
+    static final int VERSION = 1;
+
+    /** Header size. */
+    static final int HEADER_SIZE = 12;
+
+    /** Size of the fixed part of the footer. */
+    static final int TAIL_SIZE = 20;
+
+    /** Default uncompressed block size. */
+    public static final int DFLT_BLOCK_SIZE = 128 * 1024;
+
+    /** Underlying stream. */
+    private final OutputStream out;
+
+    /** Deflater. */
+    private final Deflater deflater;
+
+    /** Uncompressed data of the current block. */
+    private final byte[] block;
+
+    /** Buffer for compressed data. */
+    private final byte[] buf;
+
+    /** Length of the current block. */
+    private int blockLen;
+
+    /** Number of bytes written to the underlying stream. */
+    private long written;
+
+    /** Uncompressed size. */
+    private long size;
+
+    /** File offsets of the blocks. */
+    private final GridLongList blockOffs = new GridLongList();
+
+    /** Keys of the position index. */
+    private final GridLongList idxKeys = new GridLongList();
+
+    /** Positions of the position index. */
+    private final GridLongList idxPositions = new GridLongList();
+
+    /** Closed flag. */
+    private boolean closed;
+
+    /**
+     * @param out Underlying stream.
+     * @param blockSize Uncompressed block size.
+     * @param level Compression level.
+     * @throws IOException If failed.
+     */
+    public BlockCompressedOutputStream(OutputStream out, int blockSize, int level) throws IOException {
+        this.out = out;
+
+        deflater = new Deflater(level);
+        block = new byte[blockSize];
+        buf = new byte[blockSize];
+
+        ByteBuffer hdr = ByteBuffer.allocate(HEADER_SIZE);
+
+        hdr.putInt(MAGIC).putInt(VERSION).putInt(blockSize);
+
+        writeRaw(hdr.array(), HEADER_SIZE);
+    }
+
+    /**
+     * Maps the key to the current uncompressed position, so a reader can start from this position when
+     * it looks for the data of the key. At most one position per block is kept, keys must grow.
+     *
+     * @param key Key.
+     */
+    public void markPosition(long key) {
+        long blockIdx = size / block.length;
+
+        if (!idxPositions.isEmpty() && idxPositions.last() / block.length == blockIdx)
+            return;
+
+        assert idxKeys.isEmpty() || idxKeys.last() < key : "Keys must grow [last=" + idxKeys.last() +
+            ", key=" + key + ']';
+
+        idxKeys.add(key);
+        idxPositions.add(size);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void write(int b) throws IOException {
+        block[blockLen++] = (byte)b;
+
+        size++;
+
+        if (blockLen == block.length)
+            flushBlock();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            int cnt = Math.min(len, block.length - blockLen);
+
+            System.arraycopy(b, off, block, blockLen, cnt);
+
+            blockLen += cnt;
+            size += cnt;
+            off += cnt;
+            len -= cnt;
+
+            if (blockLen == block.length)
+                flushBlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void close() throws IOException {
+        if (closed)
+            return;
+
+        closed = true;
+
+        try {
+            if (blockLen > 0)
+                flushBlock();
+
+            ByteBuffer footer = ByteBuffer.allocate(blockOffs.size() * 8 + idxKeys.size() * 16 + TAIL_SIZE);
+
+            for (int i = 0; i < blockOffs.size(); i++)
+                footer.putLong(blockOffs.get(i));
+
+            for (int i = 0; i < idxKeys.size(); i++)
+                footer.putLong(idxKeys.get(i)).putLong(idxPositions.get(i));
+
+            footer.putLong(size).putInt(blockOffs.size()).putInt(idxKeys.size()).putInt(MAGIC);
+
+            writeRaw(footer.array(), footer.position());
+        }
+        finally {
+            deflater.end();
+
+            out.close();
+        }
+    }
+
+    /**
+     * Compresses the current block.
+     *
+     * @throws IOException If failed.
+     */
+    private void flushBlock() throws IOException {
+        blockOffs.add(written);
+
+        deflater.reset();
+        deflater.setInput(block, 0, blockLen);
+        deflater.finish();
+
+        while (!deflater.finished())
+            writeRaw(buf, deflater.deflate(buf));
+
+        blockLen = 0;
+    }
+
+    /**
+     * @param b Bytes.
+     * @param len Length.
+     * @throws IOException If failed.
+     */
+    private void writeRaw(byte[] b, int len) throws IOException {
+        out.write(b, 0, len);
+
+        written += len;
+    }
+}
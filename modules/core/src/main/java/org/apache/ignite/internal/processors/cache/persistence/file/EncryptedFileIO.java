@@ -19,9 +19,16 @@ package org.apache.ignite.internal.processors.cache.persistence.file;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.ignite.IgniteCheckedException;
 import org.apache.ignite.internal.managers.encryption.GridEncryptionManager;
 import org.apache.ignite.internal.managers.encryption.GroupKey;
+import org.apache.ignite.internal.util.typedef.internal.U;
 import org.apache.ignite.spi.encryption.EncryptionSpi;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Implementation of {@code FileIO} that supports encryption(decryption) of pages written(readed) to(from) file.
@@ -29,6 +36,9 @@ import org.apache.ignite.spi.encryption.EncryptionSpi;
  * @see EncryptedFileIOFactory
  */
 public class EncryptedFileIO implements FileIO {
+    /** Default minimum number of pages encrypted or decrypted by a single task of a multi-page run. */
+    public static final int DFLT_PDS_ENCRYPTION_BATCH_PAGES = 8;
+
     /**
      * Underlying file.
      */
@@ -62,24 +72,53 @@ public class EncryptedFileIO implements FileIO {
     /** Encryption utililty class. */
     private final EncryptionUtil encUtil;
 
+    /** Executor to encrypt and decrypt pages of multi-page runs in parallel, {@code null} to do it sequentially. */
+    @Nullable private final ExecutorService encExec;
+
+    /** Maximum number of threads processing a multi-page run. */
+    private final int encParallelism;
+
+    /** Minimum number of pages processed by a single task of a multi-page run. */
+    private final int batchPages;
+
     /**
      * @param plainFileIO Underlying file.
      * @param groupId Group id.
      * @param pageSize Size of plain data page in bytes.
      * @param headerSize Size of file header in bytes.
      * @param encMgr Encryption manager.
+     * @param encSpi Encryption SPI.
      */
     EncryptedFileIO(FileIO plainFileIO, int groupId, int pageSize, int headerSize,
         GridEncryptionManager encMgr, EncryptionSpi encSpi) {
+        this(plainFileIO, groupId, pageSize, headerSize, encMgr, encSpi, null, 1, DFLT_PDS_ENCRYPTION_BATCH_PAGES);
+    }
+
+    /**
+     * @param plainFileIO Underlying file.
+     * @param groupId Group id.
+     * @param pageSize Size of plain data page in bytes.
+     * @param headerSize Size of file header in bytes.
+     * @param encMgr Encryption manager.
+     * @param encSpi Encryption SPI.
+     * @param encExec Executor to process pages of multi-page runs in parallel, {@code null} to do it sequentially.
+     * @param encParallelism Maximum number of threads processing a multi-page run.
+     * @param batchPages Minimum number of pages processed by a single task, {@code 0} to process runs sequentially.
+     */
+    EncryptedFileIO(FileIO plainFileIO, int groupId, int pageSize, int headerSize,
+        GridEncryptionManager encMgr, EncryptionSpi encSpi, @Nullable ExecutorService encExec, int encParallelism,
+        int batchPages) {
         this.plainFileIO = plainFileIO;
         this.groupId = groupId;
         this.pageSize = pageSize;
         this.headerSize = headerSize;
         this.encMgr = encMgr;
         this.encSpi = encSpi;
+        this.encExec = encExec;
+        this.encParallelism = encParallelism;
+        this.batchPages = batchPages;
 
         this.encUtil = new EncryptionUtil(encSpi, pageSize);
-
     }
 
     /** {@inheritDoc} */
@@ -145,9 +184,13 @@ public class EncryptedFileIO implements FileIO {
 
     /** {@inheritDoc} */
     @Override public int readFully(ByteBuffer destBuf, long position) throws IOException {
-        assert destBuf.capacity() == pageSize;
         assert position() != 0;
 
+        if (destBuf.remaining() > pageSize)
+            return readPages(destBuf, position);
+
+        assert destBuf.capacity() == pageSize;
+
         ByteBuffer encrypted = ByteBuffer.allocate(pageSize);
 
         int res = plainFileIO.readFully(encrypted, position);
@@ -203,15 +246,126 @@ public class EncryptedFileIO implements FileIO {
 
     /** {@inheritDoc} */
     @Override public int writeFully(ByteBuffer srcBuf, long position) throws IOException {
-        ByteBuffer encrypted = ByteBuffer.allocate(pageSize);
+        int pages = Math.max(1, srcBuf.remaining() / pageSize);
 
-        encrypt(srcBuf, encrypted);
+        if (pages == 1) {
+            ByteBuffer encrypted = ByteBuffer.allocate(pageSize);
 
-        encrypted.rewind();
+            encrypt(srcBuf, encrypted);
+
+            encrypted.rewind();
+
+            return plainFileIO.writeFully(encrypted, position);
+        }
+
+        assert position() != 0;
+
+        ByteBuffer encrypted = ByteBuffer.allocate(pages * pageSize);
+
+        int srcPos = srcBuf.position();
+
+        // The whole run is encrypted with the same key and written by a single write.
+        GroupKey grpKey = encMgr.getActiveKey(groupId);
+
+        forEachPage(pages, i -> encUtil.encrypt(page(srcBuf, srcPos, i), page(encrypted, 0, i), grpKey));
+
+        srcBuf.position(srcPos + pages * pageSize);
+
+        encrypted.clear();
 
         return plainFileIO.writeFully(encrypted, position);
     }
 
+    /**
+     * Reads and decrypts several pages with contiguous indexes.
+     *
+     * @param destBuf Destination buffer, its remaining size must be a multiple of the page size.
+     * @param position Position of the first page in the file.
+     * @return Number of read bytes or {@code -1} if the position is beyond the end of the file.
+     * @throws IOException If failed.
+     */
+    private int readPages(ByteBuffer destBuf, long position) throws IOException {
+        assert destBuf.remaining() % pageSize == 0 : destBuf.remaining();
+
+        int len = destBuf.remaining();
+
+        ByteBuffer encrypted = ByteBuffer.allocate(len);
+
+        int res = plainFileIO.readFully(encrypted, position);
+
+        if (res < 0)
+            return res;
+
+        if (res != len) {
+            throw new IllegalStateException("Expecting to read " + len / pageSize + " whole pages[" + len +
+                " bytes], but read only " + res + " bytes");
+        }
+
+        int destPos = destBuf.position();
+
+        forEachPage(len / pageSize, i -> decrypt(page(encrypted, 0, i), page(destBuf, destPos, i)));
+
+        destBuf.position(destPos + len);
+
+        return res;
+    }
+
+    /**
+     * Applies the closure to every page of a multi-page run. Long runs are split into batches processed by
+     * the encryption executor, the calling thread processes the batches not yet taken by the executor.
+     *
+     * @param pages Number of pages.
+     * @param c Closure accepting the page index in the run.
+     * @throws IOException If failed.
+     */
+    private void forEachPage(int pages, PageClosure c) throws IOException {
+        ExecutorService exec = encExec;
+
+        int parallelism = exec == null || batchPages <= 0 ? 1 : Math.min(encParallelism, pages / batchPages);
+
+        if (parallelism <= 1) {
+            for (int i = 0; i < pages; i++)
+                c.apply(i);
+
+            return;
+        }
+
+        List<Integer> idxs = IntStream.range(0, pages).boxed().collect(Collectors.toList());
+
+        try {
+            U.doInParallel(parallelism, exec, idxs, i -> {
+                try {
+                    c.apply(i);
+                }
+                catch (IOException e) {
+                    throw new IgniteCheckedException(e);
+                }
+
+                return null;
+            });
+        }
+        catch (IgniteCheckedException e) {
+            IOException ioe = e.getCause(IOException.class);
+
+            throw ioe != null ? ioe : new IOException(e);
+        }
+    }
+
+    /**
+     * @param buf Buffer containing pages with contiguous indexes.
+     * @param off Offset of the first page in the buffer.
+     * @param idx Page index in the run.
+     * @return View of the page with the byte order of the buffer.
+     */
+    private ByteBuffer page(ByteBuffer buf, int off, int idx) {
+        ByteBuffer page = buf.duplicate();
+
+        page.limit(off + (idx + 1) * pageSize);
+        page.position(off + idx * pageSize);
+
+        return page.slice().order(buf.order());
+    }
+
     /**
      * @param srcBuf Source buffer.
      * @param res Destination buffer.
@@ -285,4 +439,15 @@ public class EncryptedFileIO implements FileIO {
     @Override public void close() throws IOException {
         plainFileIO.close();
     }
+
+    /**
+     * Closure processing a page of a multi-page run.
+     */
+    private interface PageClosure {
+        /**
+         * @param idx Page index in the run.
+         * @throws IOException If failed.
+         */
+        void apply(int idx) throws IOException;
+    }
 }
@@ -19,8 +19,10 @@ package org.apache.ignite.internal.processors.cache.persistence.file;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.OpenOption;
+import java.util.concurrent.ExecutorService;
 import org.apache.ignite.spi.encryption.EncryptionSpi;
 import org.apache.ignite.internal.managers.encryption.GridEncryptionManager;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Factory to produce {@code EncryptedFileIO}.
@@ -59,11 +61,27 @@ public class EncryptedFileIOFactory implements FileIOFactory {
      */
     private EncryptionSpi encSpi;
 
+    /**
+     * Executor to encrypt and decrypt pages of multi-page runs in parallel.
+     */
+    @Nullable private transient ExecutorService encExec;
+
+    /**
+     * Maximum number of threads processing a multi-page run.
+     */
+    private int encParallelism = 1;
+
+    /**
+     * Minimum number of pages processed by a single task of a multi-page run.
+     */
+    private int batchPages = EncryptedFileIO.DFLT_PDS_ENCRYPTION_BATCH_PAGES;
+
     /**
      * @param plainIOFactory Underlying file factory.
      * @param groupId Group id.
      * @param pageSize Size of plain data page in bytes.
      * @param encMgr Encryption manager.
+     * @param encSpi Encryption SPI.
      */
     EncryptedFileIOFactory(FileIOFactory plainIOFactory, int groupId, int pageSize, GridEncryptionManager encMgr,
         EncryptionSpi encSpi) {
@@ -78,7 +96,22 @@ public class EncryptedFileIOFactory implements FileIOFactory {
     @Override public FileIO create(File file, OpenOption... modes) throws IOException {
         FileIO io = plainIOFactory.create(file, modes);
 
-        return new EncryptedFileIO(io, groupId, pageSize, headerSize, encMgr, encSpi);
+        return new EncryptedFileIO(io, groupId, pageSize, headerSize, encMgr, encSpi, encExec, encParallelism,
+            batchPages);
+    }
+
+    /**
+     * Sets executor to encrypt and decrypt pages of multi-page runs in parallel. The thread performing the IO
+     * takes part in the processing, so the executor may be busy with other tasks.
+     *
+     * @param encExec Executor, {@code null} to process pages sequentially.
+     * @param encParallelism Maximum number of threads processing a multi-page run.
+     * @param batchPages Minimum number of pages processed by a single task, {@code 0} to process pages sequentially.
+     */
+    void parallelEncryption(@Nullable ExecutorService encExec, int encParallelism, int batchPages) {
+        this.encExec = encExec;
+        this.encParallelism = encParallelism;
+        this.batchPages = batchPages;
     }
 
     /**
@@ -174,6 +174,8 @@ public class FileDownloader {
 
                 finishFut.onDone(th);
 
+                // Unblocks the download which waits for the connection.
+                U.closeQuiet(srvChan);
                 U.closeQuiet(readChan);
             }
             else {
@@ -603,6 +603,55 @@ public class FilePageStore implements PageStore {
     @Override public void write(long pageId, ByteBuffer pageBuf, int tag, boolean calculateCrc) throws IgniteCheckedException {
         init();
 
+        assert pageBuf.position() == 0;
+
+        writeContiguous(new long[] {pageId}, new ByteBuffer[] {pageBuf}, pageBuf, tag, calculateCrc);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void writePages(long[] pageIds, int cnt, ByteBuffer pagesBuf, int tag, boolean calculateCrc)
+        throws IgniteCheckedException {
+        assert pagesBuf.position() == 0 && pagesBuf.limit() == cnt * pageSize : pagesBuf;
+
+        if (cnt == 1) {
+            write(pageIds[0], pagesBuf, tag, calculateCrc);
+
+            return;
+        }
+
+        init();
+
+        ByteBuffer[] pageBufs = new ByteBuffer[cnt];
+
+        for (int i = 0; i < cnt; i++) {
+            pagesBuf.limit((i + 1) * pageSize);
+            pagesBuf.position(i * pageSize);
+
+            pageBufs[i] = pagesBuf.slice().order(ByteOrder.nativeOrder());
+        }
+
+        pagesBuf.limit(cnt * pageSize);
+        pagesBuf.position(0);
+
+        writeContiguous(pageIds, pageBufs, pagesBuf, tag, calculateCrc);
+    }
+
+    /**
+     * Calculates CRC of the pages and writes them by a single write, reopening the file if the channel was closed
+     * by an interrupt of another thread.
+     *
+     * @param pageIds IDs of pages with contiguous indexes.
+     * @param pageBufs Page buffers, views of {@code buf} if several pages are written.
+     * @param buf Buffer with all the pages starting from position {@code 0}.
+     * @param tag Partition file version, pages of an older version are not written.
+     * @param calculateCrc If {@code false} CRC calculation will be forcibly skipped.
+     * @throws StorageException If failed.
+     */
+    private void writeContiguous(long[] pageIds, ByteBuffer[] pageBufs, ByteBuffer buf, int tag,
+        boolean calculateCrc) throws StorageException {
+        int cnt = pageBufs.length;
+        int lim = buf.limit();
+
         boolean interrupted = false;
 
         while (true) {
@@ -615,33 +664,41 @@ public class FilePageStore implements PageStore {
                     if (tag < this.tag)
                         return;
 
-                    long off = pageOffset(pageId);
+                    long off = pageOffset(pageIds[0]);
 
-                    assert (off >= 0 && off <= allocated.get()) || recover :
-                        "off=" + U.hexLong(off) + ", allocated=" + U.hexLong(allocated.get()) +
-                            ", pageId=" + U.hexLong(pageId) + ", file=" + getFileAbsolutePath();
+                    assert (off >= 0 && off + (long)(cnt - 1) * pageSize <= allocated.get()) || recover :
+                        "off=" + U.hexLong(off) + ", cnt=" + cnt + ", allocated=" + U.hexLong(allocated.get()) +
+                            ", pageId=" + U.hexLong(pageIds[0]) + ", file=" + getFileAbsolutePath();
 
-                    assert pageBuf.position() == 0;
-                    assert pageBuf.order() == ByteOrder.nativeOrder() : "Page buffer order " + pageBuf.order()
+                    assert buf.order() == ByteOrder.nativeOrder() : "Page buffer order " + buf.order()
                         + " should be same with " + ByteOrder.nativeOrder();
-                    assert PageIO.getType(pageBuf) != 0 : "Invalid state. Type is 0! pageId = " + U.hexLong(pageId);
-                    assert PageIO.getVersion(pageBuf) != 0 : "Invalid state. Version is 0! pageId = " + U.hexLong(pageId);
 
-                    if (calculateCrc && !skipCrc) {
-                        assert PageIO.getCrc(pageBuf) == 0 : U.hexLong(pageId);
+                    for (int i = 0; i < cnt; i++) {
+                        ByteBuffer pageBuf = pageBufs[i];
 
-                        PageIO.setCrc(pageBuf, calcCrc32(pageBuf, getCrcSize(pageId, pageBuf)));
-                    }
+                        assert pageOffset(pageIds[i]) == off + (long)i * pageSize : "Pages are not contiguous " +
+                            "[pageId=" + U.hexLong(pageIds[i]) + ", firstPageId=" + U.hexLong(pageIds[0]) + ']';
+                        assert PageIO.getType(pageBuf) != 0 : "Invalid state. Type is 0! pageId = " +
+                            U.hexLong(pageIds[i]);
+                        assert PageIO.getVersion(pageBuf) != 0 : "Invalid state. Version is 0! pageId = " +
+                            U.hexLong(pageIds[i]);
 
-                    // Check whether crc was calculated somewhere above the stack if it is forcibly skipped.
-                    assert skipCrc || PageIO.getCrc(pageBuf) != 0 || calcCrc32(pageBuf, pageSize) == 0 :
-                        "CRC hasn't been calculated, crc=0";
+                        if (calculateCrc && !skipCrc) {
+                            assert PageIO.getCrc(pageBuf) == 0 : U.hexLong(pageIds[i]);
 
-                    assert pageBuf.position() == 0 : pageBuf.position();
+                            PageIO.setCrc(pageBuf, calcCrc32(pageBuf, getCrcSize(pageIds[i], pageBuf)));
+                        }
 
-                    fileIO.writeFully(pageBuf, off);
+                        // Check whether crc was calculated somewhere above the stack if it is forcibly skipped.
+                        assert skipCrc || PageIO.getCrc(pageBuf) != 0 || calcCrc32(pageBuf, pageSize) == 0 :
+                            "CRC hasn't been calculated, crc=0";
+                    }
+
+                    assert buf.position() == 0 : buf.position();
 
-                    PageIO.setCrc(pageBuf, 0);
+                    fileIO.writeFully(buf, off);
+
+                    resetAfterWrite(pageBufs, buf, lim);
 
                     if (interrupted)
                         Thread.currentThread().interrupt();
@@ -663,9 +720,7 @@ public class FilePageStore implements PageStore {
 
                         reinit(fileIO);
 
-                        pageBuf.position(0);
-
-                        PageIO.setCrc(pageBuf, 0);
+                        resetAfterWrite(pageBufs, buf, lim);
 
                         continue;
                     }
@@ -676,12 +731,32 @@ public class FilePageStore implements PageStore {
                     }
                 }
 
-                throw new StorageException("Failed to write page [file=" + getFileAbsolutePath()
-                    + ", pageId=" + pageId + ", tag=" + tag + "]", e);
+                if (cnt == 1) {
+                    throw new StorageException("Failed to write page [file=" + getFileAbsolutePath()
+                        + ", pageId=" + pageIds[0] + ", tag=" + tag + "]", e);
+                }
+
+                throw new StorageException("Failed to write pages [file=" + getFileAbsolutePath()
+                    + ", pageId=" + pageIds[0] + ", cnt=" + cnt + ", tag=" + tag + "]", e);
             }
         }
     }
 
+    /**
+     * Restores the buffer bounds and resets the CRC of written pages: callers expect it to be {@code 0}.
+     *
+     * @param pageBufs Page buffers.
+     * @param buf Buffer with all the pages.
+     * @param lim Limit of the buffer before the write.
+     */
+    private static void resetAfterWrite(ByteBuffer[] pageBufs, ByteBuffer buf, int lim) {
+        buf.limit(lim);
+        buf.position(0);
+
+        for (ByteBuffer pageBuf : pageBufs)
+            PageIO.setCrc(pageBuf, 0);
+    }
+
     /**
      * @param pageBuf Page buffer.
      * @param pageSize Page size.
@@ -53,6 +53,7 @@ import java.util.stream.Collectors;
 import org.apache.ignite.IgniteCheckedException;
 import org.apache.ignite.IgniteException;
 import org.apache.ignite.IgniteLogger;
+import org.apache.ignite.IgniteSystemProperties;
 import org.apache.ignite.configuration.CacheConfiguration;
 import org.apache.ignite.configuration.DataStorageConfiguration;
 import org.apache.ignite.configuration.IgniteConfiguration;
@@ -99,6 +100,7 @@ import static java.lang.String.format;
 import static java.nio.file.Files.delete;
 import static java.nio.file.Files.newDirectoryStream;
 import static java.util.Objects.requireNonNull;
+import static org.apache.ignite.IgniteSystemProperties.IGNITE_PDS_ENCRYPTION_BATCH_PAGES;
 
 /**
  * File page store manager.
@@ -199,6 +201,10 @@ public class FilePageStoreManager extends GridCacheSharedManagerAdapter implemen
     /** */
     private final Set<Integer> grpsWithoutIdx = ConcurrentHashMap.newKeySet();
 
+    /** Minimum number of pages encrypted or decrypted by a single task of a multi-page run. */
+    private final int encBatchPages = IgniteSystemProperties.getInteger(IGNITE_PDS_ENCRYPTION_BATCH_PAGES,
+        EncryptedFileIO.DFLT_PDS_ENCRYPTION_BATCH_PAGES);
+
     /** */
     private final GridStripedReadWriteLock initDirLock =
         new GridStripedReadWriteLock(Math.max(Runtime.getRuntime().availableProcessors(), 8));
@@ -621,6 +627,18 @@ public class FilePageStoreManager extends GridCacheSharedManagerAdapter implemen
         return pmPageMgr.write(grpId, pageId, pageBuf, tag, calculateCrc);
     }
 
+    /** {@inheritDoc} */
+    @Override public PageStore writePages(
+        int grpId,
+        long[] pageIds,
+        int cnt,
+        ByteBuffer pagesBuf,
+        int tag,
+        boolean calculateCrc
+    ) throws IgniteCheckedException {
+        return pmPageMgr.writePages(grpId, pageIds, cnt, pagesBuf, tag, calculateCrc);
+    }
+
     /** {@inheritDoc} */
     @Override public long pageOffset(int grpId, long pageId) throws IgniteCheckedException {
         PageStore store = getStore(grpId, PageIdUtils.partId(pageId));
@@ -659,6 +677,27 @@ public class FilePageStoreManager extends GridCacheSharedManagerAdapter implemen
         );
     }
 
+    /**
+     * @param plainIoFactory Underlying file IO factory.
+     * @param grpId Cache group id.
+     * @return Factory of file IO encrypting pages of the cache group.
+     */
+    private EncryptedFileIOFactory encryptedFileIoFactory(FileIOFactory plainIoFactory, int grpId) {
+        EncryptedFileIOFactory factory = new EncryptedFileIOFactory(
+            plainIoFactory,
+            grpId,
+            pageSize(),
+            cctx.kernalContext().encryption(),
+            cctx.gridConfig().getEncryptionSpi());
+
+        factory.parallelEncryption(
+            cctx.kernalContext().pools().getSystemExecutorService(),
+            igniteCfg.getSystemThreadPoolSize(),
+            encBatchPages);
+
+        return factory;
+    }
+
     /**
      * @param grpId Cache group id.
      * @param encrypted {@code true} if cache group encryption enabled.
@@ -669,19 +708,9 @@ public class FilePageStoreManager extends GridCacheSharedManagerAdapter implemen
         FileIOFactory pageStoreV1FileIoFactory = this.pageStoreV1FileIoFactory;
 
         if (encrypted) {
-            pageStoreFileIoFactory = new EncryptedFileIOFactory(
-                this.pageStoreFileIoFactory,
-                grpId,
-                pageSize(),
-                cctx.kernalContext().encryption(),
-                cctx.gridConfig().getEncryptionSpi());
+            pageStoreFileIoFactory = encryptedFileIoFactory(this.pageStoreFileIoFactory, grpId);
 
-            pageStoreV1FileIoFactory = new EncryptedFileIOFactory(
-                this.pageStoreV1FileIoFactory,
-                grpId,
-                pageSize(),
-                cctx.kernalContext().encryption(),
-                cctx.gridConfig().getEncryptionSpi());
+            pageStoreV1FileIoFactory = encryptedFileIoFactory(this.pageStoreV1FileIoFactory, grpId);
         }
 
         FileVersionCheckingFactory pageStoreFactory = new FileVersionCheckingFactory(
@@ -733,19 +762,9 @@ public class FilePageStoreManager extends GridCacheSharedManagerAdapter implemen
             FileIOFactory pageStoreV1FileIoFactory = this.pageStoreV1FileIoFactory;
 
             if (encrypted) {
-                pageStoreFileIoFactory = new EncryptedFileIOFactory(
-                    this.pageStoreFileIoFactory,
-                    grpId,
-                    pageSize(),
-                    cctx.kernalContext().encryption(),
-                    cctx.gridConfig().getEncryptionSpi());
-
-                pageStoreV1FileIoFactory = new EncryptedFileIOFactory(
-                    this.pageStoreV1FileIoFactory,
-                    grpId,
-                    pageSize(),
-                    cctx.kernalContext().encryption(),
-                    cctx.gridConfig().getEncryptionSpi());
+                pageStoreFileIoFactory = encryptedFileIoFactory(this.pageStoreFileIoFactory, grpId);
+
+                pageStoreV1FileIoFactory = encryptedFileIoFactory(this.pageStoreV1FileIoFactory, grpId);
             }
 
             FileVersionCheckingFactory pageStoreFactory = new FileVersionCheckingFactory(
@@ -995,7 +1014,7 @@ public class FilePageStoreManager extends GridCacheSharedManagerAdapter implemen
      * @return Cache data.
      * @throws IgniteCheckedException If failed.
      */
-    private StoredCacheData readCacheData(File conf) throws IgniteCheckedException {
+    public StoredCacheData readCacheData(File conf) throws IgniteCheckedException {
         try (InputStream stream = new BufferedInputStream(new FileInputStream(conf))) {
             return marshaller.unmarshal(stream, U.resolveClassLoader(igniteCfg));
         }
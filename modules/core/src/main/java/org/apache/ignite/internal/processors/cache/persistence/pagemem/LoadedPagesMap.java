@@ -116,7 +116,18 @@ public interface LoadedPagesMap {
      *
      * @param act Visitor/action to be applied to each not empty cell.
      */
-    public void forEach(BiConsumer<FullPageId, Long> act);
+    public default void forEach(BiConsumer<FullPageId, Long> act) {
+        forEach(0, capacity(), act);
+    }
+
+    /**
+     * Scans the elements at specified mapping range.
+     *
+     * @param startIdx Index to start scanning from, inclusive. Bounded with {@link #capacity()}.
+     * @param endIdx Index to stop scanning at, exclusive. Bounded with {@link #capacity()}.
+     * @param act Visitor/action to be applied to each not empty cell.
+     */
+    public void forEach(int startIdx, int endIdx, BiConsumer<FullPageId, Long> act);
 
     /**
      * Interface describing a predicate for Key (cache group ID, page ID). Usage of this predicate prevents odd object
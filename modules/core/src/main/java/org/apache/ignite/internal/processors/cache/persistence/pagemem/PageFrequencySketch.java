@@ -0,0 +1,200 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.pagemem;
+
+import org.apache.ignite.configuration.PageReplacementMode;
+import org.apache.ignite.internal.util.GridUnsafe;
+import org.apache.ignite.internal.util.typedef.internal.U;
+
+/**
+ * Count-min sketch of page access frequencies with 4-bit counters (TinyLFU). Each table word holds 16 counters,
+ * a page is mapped to 4 counters of 4 different words. When the number of increments reaches the sample size,
+ * all counters are halved, so the sketch keeps the recent popularity of pages, including the pages which were
+ * already replaced.
+ *
+ * @see PageReplacementMode#TINY_LFU
+ */
+public class PageFrequencySketch {
+    /** Hash seeds. */
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    /** Mask to halve all counters of a word. */
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    /** Mask of the lowest bits of all counters of a word. */
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    /** Maximum value of a counter. */
+    public static final int MAX_FREQUENCY = 15;
+
+    /** Pointer to memory region to store counters. */
+    private final long tablePtr;
+
+    /** Table words count - 1. */
+    private final int tableMask;
+
+    /** Increments count which triggers counters aging. */
+    private final int sampleSize;
+
+    /** Increments count since the last aging. */
+    private int size;
+
+    /**
+     * @param pagesCnt Total pages count.
+     * @param memPtr Pointer to memory region.
+     */
+    public PageFrequencySketch(int pagesCnt, long memPtr) {
+        int tableLen = tableLength(pagesCnt);
+
+        tablePtr = memPtr;
+        tableMask = tableLen - 1;
+        sampleSize = (int)Math.min(10L * pagesCnt, Integer.MAX_VALUE);
+
+        GridUnsafe.zeroMemory(tablePtr, ((long)tableLen) << 3);
+    }
+
+    /**
+     * Increments the access frequency of a page. Not thread safe, must be invoked under the policy lock.
+     *
+     * @param key Page key.
+     */
+    public void increment(long key) {
+        int hash = spread(key);
+        int start = (hash & 3) << 2;
+
+        boolean added = false;
+
+        for (int i = 0; i < 4; i++)
+            added |= incrementAt(indexOf(hash, i), start + i);
+
+        if (added && ++size >= sampleSize)
+            reset();
+    }
+
+    /**
+     * @param key Page key.
+     * @return Estimated access frequency of a page, from {@code 0} to {@link #MAX_FREQUENCY}.
+     */
+    public int frequency(long key) {
+        int hash = spread(key);
+        int start = (hash & 3) << 2;
+
+        int freq = MAX_FREQUENCY;
+
+        for (int i = 0; i < 4; i++) {
+            long word = GridUnsafe.getLong(wordPtr(indexOf(hash, i)));
+
+            int cnt = (int)((word >>> ((start + i) << 2)) & 0xfL);
+
+            freq = Math.min(freq, cnt);
+        }
+
+        return freq;
+    }
+
+    /**
+     * @param idx Word index.
+     * @param cntIdx Counter index within the word, from {@code 0} to {@code 15}.
+     * @return {@code True} if the counter was incremented, {@code false} if it is saturated.
+     */
+    private boolean incrementAt(int idx, int cntIdx) {
+        long ptr = wordPtr(idx);
+
+        int off = cntIdx << 2;
+        long mask = 0xfL << off;
+
+        long word = GridUnsafe.getLong(ptr);
+
+        if ((word & mask) == mask)
+            return false;
+
+        GridUnsafe.putLong(ptr, word + (1L << off));
+
+        return true;
+    }
+
+    /**
+     * Halves all counters.
+     */
+    private void reset() {
+        int odd = 0;
+
+        for (int i = 0; i <= tableMask; i++) {
+            long ptr = wordPtr(i);
+            long word = GridUnsafe.getLong(ptr);
+
+            odd += Long.bitCount(word & ONE_MASK);
+
+            GridUnsafe.putLong(ptr, (word >>> 1) & RESET_MASK);
+        }
+
+        size = (size >>> 1) - (odd >>> 2);
+    }
+
+    /**
+     * @param idx Word index.
+     * @return Pointer to the word.
+     */
+    private long wordPtr(int idx) {
+        return tablePtr + (((long)idx) << 3);
+    }
+
+    /**
+     * @param hash Spread hash of a page key.
+     * @param i Hash function index.
+     * @return Word index.
+     */
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+
+        h += h >>> 32;
+
+        return ((int)h) & tableMask;
+    }
+
+    /**
+     * @param key Page key.
+     * @return Spread hash.
+     */
+    private static int spread(long key) {
+        int x = (int)(key ^ (key >>> 32));
+
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+
+        return (x >>> 16) ^ x;
+    }
+
+    /**
+     * @param pagesCnt Total pages count.
+     * @return Table words count.
+     */
+    private static int tableLength(int pagesCnt) {
+        return U.ceilPow2(Math.max(pagesCnt, 16));
+    }
+
+    /**
+     * Memory required to service {@code pagesCnt} pages.
+     *
+     * @param pagesCnt Pages count.
+     */
+    public static long requiredMemory(int pagesCnt) {
+        return ((long)tableLength(pagesCnt)) << 3 /* 16 4-bit counters per word, 1 word per page */;
+    }
+}
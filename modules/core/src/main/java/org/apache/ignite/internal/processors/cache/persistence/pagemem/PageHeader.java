@@ -47,6 +47,9 @@ class PageHeader {
     /** Page temp copy buffer relative pointer offset. */
     private static final int PAGE_TMP_BUF_OFFSET = 40;
 
+    /** Page version offset. */
+    private static final int PAGE_VERSION_OFFSET = 48;
+
     /**
      * @param absPtr Absolute pointer to initialize.
      * @param relative Relative pointer to write.
@@ -58,6 +61,7 @@ class PageHeader {
 
         GridUnsafe.putLong(absPtr, PAGE_MARKER);
         GridUnsafe.putInt(absPtr + PAGE_PIN_CNT_OFFSET, 0);
+        GridUnsafe.putLong(absPtr + PAGE_VERSION_OFFSET, 1L);
     }
 
     /**
@@ -147,6 +151,23 @@ class PageHeader {
         return GridUnsafe.getIntVolatile(null, absPtr);
     }
 
+    /**
+     * @param absPtr Absolute pointer.
+     * @return Page version which is incremented on each release of the page write lock.
+     */
+    public static long version(long absPtr) {
+        return GridUnsafe.getLongVolatile(null, absPtr + PAGE_VERSION_OFFSET);
+    }
+
+    /**
+     * Increments the page version. Must be called under the page write lock before it is released.
+     *
+     * @param absPtr Absolute pointer.
+     */
+    public static void incrementVersion(long absPtr) {
+        GridUnsafe.putLongVolatile(null, absPtr + PAGE_VERSION_OFFSET, version(absPtr) + 1);
+    }
+
     /**
      * Reads relative pointer from the page at the given absolute position.
      *
@@ -175,6 +175,16 @@ public interface PageMemoryEx extends PageMemory {
      */
     public IgniteInternalFuture<Void> clearAsync(LoadedPagesMap.KeyPredicate pred, boolean cleanDirty);
 
+    /**
+     * Removes the pages of an invalidated partition from memory, dirty pages are dropped. Unlike {@link #clearAsync}
+     * only the pages with the given indexes are looked up, so the cost depends on the partition size only.
+     *
+     * @param grpId Cache group ID.
+     * @param partId Partition ID.
+     * @param pages Number of pages allocated in the partition before it was invalidated.
+     */
+    public void clearOutdatedPages(int grpId, int partId, int pages);
+
     /**
      * Pull page from checkpoint buffer.
      */
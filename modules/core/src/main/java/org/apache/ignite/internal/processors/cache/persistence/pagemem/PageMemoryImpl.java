@@ -39,6 +39,7 @@ import org.apache.ignite.IgniteException;
 import org.apache.ignite.IgniteLogger;
 import org.apache.ignite.IgniteSystemProperties;
 import org.apache.ignite.configuration.DataRegionConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
 import org.apache.ignite.configuration.PageReplacementMode;
 import org.apache.ignite.events.EventType;
 import org.apache.ignite.events.PageReplacementStartEvent;
@@ -55,6 +56,7 @@ import org.apache.ignite.internal.pagemem.FullPageId;
 import org.apache.ignite.internal.pagemem.PageIdAllocator;
 import org.apache.ignite.internal.pagemem.PageIdUtils;
 import org.apache.ignite.internal.pagemem.PageUtils;
+import org.apache.ignite.internal.pagemem.store.IgnitePageStoreManager;
 import org.apache.ignite.internal.pagemem.wal.IgniteWriteAheadLogManager;
 import org.apache.ignite.internal.pagemem.wal.WALIterator;
 import org.apache.ignite.internal.pagemem.wal.WALPointer;
@@ -70,6 +72,7 @@ import org.apache.ignite.internal.processors.cache.persistence.DataRegionMetrics
 import org.apache.ignite.internal.processors.cache.persistence.PageStoreWriter;
 import org.apache.ignite.internal.processors.cache.persistence.StorageException;
 import org.apache.ignite.internal.processors.cache.persistence.checkpoint.CheckpointProgress;
+import org.apache.ignite.internal.processors.cache.persistence.checkpoint.DoubleWriteBuffer;
 import org.apache.ignite.internal.processors.cache.persistence.partstate.GroupPartitionId;
 import org.apache.ignite.internal.processors.cache.persistence.tree.io.DataPageIO;
 import org.apache.ignite.internal.processors.cache.persistence.tree.io.PageIO;
@@ -98,12 +101,14 @@ import org.jetbrains.annotations.TestOnly;
 
 import static java.lang.Boolean.FALSE;
 import static java.lang.Boolean.TRUE;
+import static org.apache.ignite.IgniteSystemProperties.IGNITE_BPLUS_TREE_OPTIMISTIC_READS;
 import static org.apache.ignite.IgniteSystemProperties.IGNITE_DELAYED_REPLACED_PAGE_WRITE;
 import static org.apache.ignite.IgniteSystemProperties.IGNITE_LOADED_PAGES_BACKWARD_SHIFT_MAP;
 import static org.apache.ignite.IgniteSystemProperties.getBoolean;
 import static org.apache.ignite.internal.pagemem.FullPageId.NULL_PAGE;
 import static org.apache.ignite.internal.processors.cache.persistence.DataRegionMetricsImpl.DATAREGION_METRICS_PREFIX;
 import static org.apache.ignite.internal.processors.cache.persistence.IgniteCacheDatabaseSharedManager.INTERNAL_DATA_REGION_NAMES;
+import static org.apache.ignite.internal.processors.cache.persistence.tree.BPlusTree.DFLT_BPLUS_TREE_OPTIMISTIC_READS;
 import static org.apache.ignite.internal.util.GridUnsafe.wrapPointer;
 
 /**
@@ -120,11 +125,11 @@ import static org.apache.ignite.internal.util.GridUnsafe.wrapPointer;
  * <p/>
  * When page is allocated and is in use:
  * <pre>
- * +------------------+--------+--------+----+----+--------+--------+----------------------+
- * |     8 bytes      |8 bytes |8 bytes |4 b |4 b |8 bytes |8 bytes |       PAGE_SIZE      |
- * +------------------+--------+--------+----+----+--------+--------+----------------------+
- * | Marker/Timestamp |Rel ptr |Page ID |C ID|PIN | LOCK   |TMP BUF |       Page data      |
- * +------------------+--------+--------+----+----+--------+--------+----------------------+
+ * +------------------+--------+--------+----+----+--------+--------+--------+----------------------+
+ * |     8 bytes      |8 bytes |8 bytes |4 b |4 b |8 bytes |8 bytes |8 bytes |       PAGE_SIZE      |
+ * +------------------+--------+--------+----+----+--------+--------+--------+----------------------+
+ * | Marker/Timestamp |Rel ptr |Page ID |C ID|PIN | LOCK   |TMP BUF |VERSION |       Page data      |
+ * +------------------+--------+--------+----+----+--------+--------+--------+----------------------+
  * </pre>
  *
  * Note that first 8 bytes of page header are used either for page marker or for next relative pointer depending
@@ -152,12 +157,16 @@ public class PageMemoryImpl implements PageMemoryEx {
      * 4b Pin count
      * 8b Lock
      * 8b Temporary buffer
+     * 8b Version
      */
-    public static final int PAGE_OVERHEAD = 48;
+    public static final int PAGE_OVERHEAD = 56;
 
     /** Try again tag. */
     public static final int TRY_AGAIN_TAG = -1;
 
+    /** Number of cells of the loaded pages table visited under a single segment lock by {@link #forEachLoadedPage}. */
+    private static final int LOADED_PAGES_SCAN_CHUNK = 4096;
+
     /** @see IgniteSystemProperties#IGNITE_DELAYED_REPLACED_PAGE_WRITE */
     public static final boolean DFLT_DELAYED_REPLACED_PAGE_WRITE = true;
 
@@ -187,6 +196,10 @@ public class PageMemoryImpl implements PageMemoryEx {
     private final boolean useBackwardShiftMap = IgniteSystemProperties.getBoolean(
         IGNITE_LOADED_PAGES_BACKWARD_SHIFT_MAP, DFLT_LOADED_PAGES_BACKWARD_SHIFT_MAP);
 
+    /** Page versions are incremented by writes only if B+Tree inner pages may be read optimistically. */
+    private final boolean trackVersions = IgniteSystemProperties.getBoolean(
+        IGNITE_BPLUS_TREE_OPTIMISTIC_READS, DFLT_BPLUS_TREE_OPTIMISTIC_READS);
+
     /** Page replacement policy factory. */
     private final PageReplacementPolicyFactory pageReplacementPolicyFactory;
 
@@ -205,6 +218,9 @@ public class PageMemoryImpl implements PageMemoryEx {
     /** */
     private final boolean encryptionDisabled;
 
+    /** Double-write buffer enabled flag, page stores are protected from torn pages without full page snapshots. */
+    private final boolean dwbEnabled;
+
     /** */
     private final IgniteLogger log;
 
@@ -326,6 +342,10 @@ public class PageMemoryImpl implements PageMemoryEx {
         encMgr = ctx.kernalContext().encryption();
         encryptionDisabled = ctx.gridConfig().getEncryptionSpi() instanceof NoopEncryptionSpi;
 
+        DataStorageConfiguration dsCfg = ctx.gridConfig().getDataStorageConfiguration();
+
+        dwbEnabled = dsCfg != null && dsCfg.isDoubleWriteBufferEnabled();
+
         assert pmPageMgr != null;
         assert walMgr != null;
         assert encMgr != null;
@@ -360,6 +380,10 @@ public class PageMemoryImpl implements PageMemoryEx {
             case CLOCK:
                 pageReplacementPolicyFactory = new ClockPageReplacementPolicyFactory();
 
+                break;
+            case TINY_LFU:
+                pageReplacementPolicyFactory = new TinyLfuPageReplacementPolicyFactory();
+
                 break;
             default:
                 throw new IgniteException("Unexpected page replacement mode: " + pageReplacementMode);
@@ -545,6 +569,53 @@ public class PageMemoryImpl implements PageMemoryEx {
         return isDirty(page);
     }
 
+    /** {@inheritDoc} */
+    @Override public boolean isPageSnapshotNeeded(int grpId, long pageId, long page) {
+        assert started;
+
+        return isPageSnapshotNeeded(grpId, page);
+    }
+
+    /**
+     * @param grpId Cache group ID.
+     * @param absPtr Absolute page pointer.
+     * @return {@code True} if the page snapshot must be logged on the next change of the page.
+     * @see DoubleWriteBuffer
+     */
+    private boolean isPageSnapshotNeeded(int grpId, long absPtr) {
+        if (isDirty(absPtr))
+            return false;
+
+        // Pages which are written through the double-write buffer are never torn, so deltas are applied to the page
+        // content read from the store on recovery.
+        return !dwbEnabled || !(encryptionDisabled || encMgr.getActiveKey(grpId) == null);
+    }
+
+    /**
+     * @param grpId Cache group ID.
+     * @param pageId Page ID.
+     * @return {@code True} if the page is restored on recovery from its content in the store, since deltas of the
+     *      page are not preceded by a page snapshot.
+     * @throws IgniteCheckedException If failed.
+     * @see #isPageSnapshotNeeded(int, long)
+     */
+    private boolean isStoredPageRestored(int grpId, long pageId) throws IgniteCheckedException {
+        if (!dwbEnabled || !(encryptionDisabled || encMgr.getActiveKey(grpId) == null))
+            return false;
+
+        IgnitePageStoreManager storeMgr = ctx.pageStore();
+
+        int partId = PageIdUtils.partId(pageId);
+
+        if (storeMgr == null || !storeMgr.exists(grpId, partId))
+            return false;
+
+        storeMgr.ensure(grpId, partId);
+
+        // Pages allocated after the last write of the store are initialized by their deltas.
+        return PageIdUtils.pageIndex(pageId) < storeMgr.pages(grpId, partId);
+    }
+
     /** {@inheritDoc} */
     @Override public long allocatePage(int grpId, int partId, byte flags) throws IgniteCheckedException {
         assert flags != PageIdAllocator.FLAG_IDX && partId <= PageIdAllocator.MAX_PARTITION_ID ||
@@ -576,6 +647,8 @@ public class PageMemoryImpl implements PageMemoryEx {
 
         FullPageId fullId = new FullPageId(pageId, grpId);
 
+        long absPtr;
+
         try {
             long relPtr = seg.loadedPages.get(
                 grpId,
@@ -604,7 +677,7 @@ public class PageMemoryImpl implements PageMemoryEx {
                 pageReplaced = true;
             }
 
-            long absPtr = seg.absolute(relPtr);
+            absPtr = seg.absolute(relPtr);
 
             GridUnsafe.zeroMemory(absPtr + PAGE_OVERHEAD, pageSize());
 
@@ -681,7 +754,14 @@ public class PageMemoryImpl implements PageMemoryEx {
         }
 
         //we have allocated 'tracking' page, we need to allocate regular one
-        return isTrackingPage ? allocatePage(grpId, partId, flags) : pageId;
+        if (isTrackingPage)
+            return allocatePage(grpId, partId, flags);
+
+        // New page is marked dirty on allocation, so it will not be tracked on the first write.
+        if (changeTracker != null)
+            changeTracker.apply(absPtr, fullId, this);
+
+        return pageId;
     }
 
     /** {@inheritDoc} */
@@ -761,6 +841,8 @@ public class PageMemoryImpl implements PageMemoryEx {
 
                 seg.pageReplacementPolicy.onHit(relPtr);
 
+                dataRegionMetrics.onPageHit();
+
                 statHolder.trackLogicalRead(absPtr + PAGE_OVERHEAD);
 
                 return absPtr;
@@ -833,6 +915,8 @@ public class PageMemoryImpl implements PageMemoryEx {
 
                     readPageFromStore = true;
                 }
+                else if (isStoredPageRestored(grpId, pageId))
+                    readPageFromStore = true;
                 else {
                     GridUnsafe.zeroMemory(absPtr + PAGE_OVERHEAD, pageSize());
 
@@ -880,6 +964,8 @@ public class PageMemoryImpl implements PageMemoryEx {
                 absPtr = seg.absolute(relPtr);
 
                 seg.pageReplacementPolicy.onHit(relPtr);
+
+                dataRegionMetrics.onPageHit();
             }
 
             seg.acquirePage(absPtr);
@@ -919,6 +1005,10 @@ public class PageMemoryImpl implements PageMemoryEx {
 
                     actualPageId = PageIO.getPageId(buf);
 
+                    // Must init page ID of a page which is not written yet in order to ensure RWLock tag consistency.
+                    if (restore && actualPageId == 0)
+                        PageIO.setPageId(pageAddr, actualPageId = pageId);
+
                     dataRegionMetrics.onPageRead();
 
                     if (PageIO.isIndexPage(PageIO.getType(buf)))
@@ -943,6 +1033,9 @@ public class PageMemoryImpl implements PageMemoryEx {
                     dataRegionMetrics.onPageRead();
                 }
                 finally {
+                    if (trackVersions)
+                        PageHeader.incrementVersion(lockedPageAbsPtr);
+
                     rwLock.writeUnlock(lockedPageAbsPtr + PAGE_LOCK_OFFSET,
                         actualPageId == 0 ? OffheapReadWriteLock.TAG_LOCK_ALWAYS : PageIdUtils.tag(actualPageId));
                 }
@@ -1353,19 +1446,19 @@ public class PageMemoryImpl implements PageMemoryEx {
         finally {
             rwLock.writeUnlock(absPtr + PAGE_LOCK_OFFSET, OffheapReadWriteLock.TAG_LOCK_ALWAYS);
 
+            // We pinned the page either when allocated the temp buffer, or when resolved abs pointer.
+            // Must release the page only after write unlock and the page is written.
             if (canWrite) {
                 buf.rewind();
 
-                pageStoreWriter.writePage(fullId, buf, tag);
+                pageStoreWriter.writePage(fullId, buf, tag, () -> PageHeader.releasePage(absPtr));
 
                 dataRegionMetrics.onPageWritten();
 
                 buf.rewind();
             }
-
-            // We pinned the page either when allocated the temp buffer, or when resolved abs pointer.
-            // Must release the page only after write unlock.
-            PageHeader.releasePage(absPtr);
+            else
+                PageHeader.releasePage(absPtr);
         }
     }
 
@@ -1487,6 +1580,35 @@ public class PageMemoryImpl implements PageMemoryEx {
         return completeFut;
     }
 
+    /** {@inheritDoc} */
+    @Override public void clearOutdatedPages(int grpId, int partId, int pages) {
+        for (int idx = 0; idx < pages; idx++) {
+            FullPageId fullId = new FullPageId(PageIdUtils.pageId(partId, PageIdAllocator.FLAG_DATA, idx), grpId);
+
+            Segment seg = segment(grpId, fullId.pageId());
+
+            seg.writeLock().lock();
+
+            try {
+                long relPtr = resolveRelativePointer(seg, fullId, generationTag(seg, fullId));
+
+                if (relPtr != OUTDATED_REL_PTR)
+                    continue;
+
+                relPtr = seg.refreshOutdatedPage(grpId, fullId.effectivePageId(), true);
+
+                dataRegionMetrics.decrementPagesWithTimestamp(PageHeader.readTimestamp(seg.absolute(relPtr)));
+
+                seg.pageReplacementPolicy.onRemove(relPtr);
+
+                seg.pool.releaseFreePage(relPtr);
+            }
+            finally {
+                seg.writeLock().unlock();
+            }
+        }
+    }
+
     /** {@inheritDoc} */
     @Override public long loadedPages() {
         long total = 0;
@@ -1541,6 +1663,48 @@ public class PageMemoryImpl implements PageMemoryEx {
         return total;
     }
 
+    /**
+     * Visits pages resident in memory together with their last access timestamps. A segment is visited in chunks
+     * of {@link #LOADED_PAGES_SCAN_CHUNK} cells of the loaded pages table, replacement is blocked in the segment
+     * while a chunk is visited, so the visitor must be cheap. Pages moved in the table between the chunks may be
+     * missed or visited twice.
+     *
+     * @param visitor Loaded page visitor.
+     */
+    public void forEachLoadedPage(LoadedPageVisitor visitor) {
+        Segment[] segments = this.segments;
+
+        if (segments == null)
+            return;
+
+        for (Segment seg : segments) {
+            if (seg == null)
+                break;
+
+            for (int idx = 0; ; idx += LOADED_PAGES_SCAN_CHUNK) {
+                seg.readLock().lock();
+
+                try {
+                    int cap = seg.loadedPages.capacity();
+
+                    if (seg.closed || idx >= cap)
+                        break;
+
+                    seg.loadedPages.forEach(idx, Math.min(cap, idx + LOADED_PAGES_SCAN_CHUNK), (fullId, relPtr) -> {
+                        if (relPtr != OUTDATED_REL_PTR) {
+                            long ts = PageHeader.readTimestamp(seg.absolute(relPtr));
+
+                            visitor.visit(fullId.groupId(), fullId.pageId(), ts);
+                        }
+                    });
+                }
+                finally {
+                    seg.readLock().unlock();
+                }
+            }
+        }
+    }
+
     /**
      * @param fullPageId Full page ID to check.
      * @return {@code true} if the page is contained in the loaded pages table, {@code false} otherwise.
@@ -1594,6 +1758,33 @@ public class PageMemoryImpl implements PageMemoryEx {
         return absPtr + PAGE_OVERHEAD;
     }
 
+    /** {@inheritDoc} */
+    @Override public long tryOptimisticRead(int grpId, long pageId, long page) {
+        assert started;
+
+        if (!trackVersions)
+            return 0L;
+
+        // The version must be read before the lock state, see validateOptimisticRead.
+        long ver = PageHeader.version(page);
+
+        return rwLock.isReadAllowed(page + PAGE_LOCK_OFFSET, PageIdUtils.tag(pageId)) ? ver : 0L;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long optimisticReadAddress(int grpId, long pageId, long page) {
+        return page + PAGE_OVERHEAD;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean validateOptimisticRead(int grpId, long pageId, long page, long stamp) {
+        // Page reads must not be reordered with the validation. A writer increments the version before
+        // it releases the lock, so a concurrent write is seen either as the held lock or as a new version.
+        GridUnsafe.loadFence();
+
+        return !rwLock.isWriteLocked(page + PAGE_LOCK_OFFSET) && PageHeader.version(page) == stamp;
+    }
+
     /** {@inheritDoc} */
     @Override public long readLockForce(int grpId, long pageId, long page) {
         assert started;
@@ -1713,7 +1904,8 @@ public class PageMemoryImpl implements PageMemoryEx {
             if (!restore && markDirty && !wasDirty && changeTracker != null)
                 changeTracker.apply(page, fullId, this);
 
-            boolean pageWalRec = markDirty && walPlc != FALSE && (walPlc == TRUE || !wasDirty);
+            boolean pageWalRec = markDirty && walPlc != FALSE &&
+                (walPlc == TRUE || !wasDirty && isPageSnapshotNeeded(fullId.groupId(), page));
 
             assert PageIO.getCrc(page + PAGE_OVERHEAD) == 0; //TODO GG-11480
 
@@ -1732,6 +1924,9 @@ public class PageMemoryImpl implements PageMemoryEx {
             try {
                 assert pageId != 0 : U.hexLong(PageHeader.readPageId(page));
 
+                if (trackVersions)
+                    PageHeader.incrementVersion(page);
+
                 rwLock.writeUnlock(page + PAGE_LOCK_OFFSET, PageIdUtils.tag(pageId));
 
                 assert PageIO.getVersion(page + PAGE_OVERHEAD) != 0 : dumpPage(pageId, fullId.groupId());
@@ -2686,4 +2881,17 @@ public class PageMemoryImpl implements PageMemoryEx {
     public boolean pageReplacementOccurred() {
         return pageReplacementWarned > 0;
     }
+
+    /**
+     * Visitor of pages resident in memory.
+     */
+    @FunctionalInterface
+    public interface LoadedPageVisitor {
+        /**
+         * @param grpId Cache group ID.
+         * @param pageId Page ID.
+         * @param ts Last access timestamp of the page.
+         */
+        public void visit(int grpId, long pageId, long ts);
+    }
 }
@@ -44,6 +44,42 @@ public interface PageReadWriteManager {
      */
     public PageStore write(int grpId, long pageId, ByteBuffer pageBuf, int tag, boolean calculateCrc) throws IgniteCheckedException;
 
+    /**
+     * Writes pages with contiguous indexes of a partition for the given cache ID.
+     *
+     * @param grpId Cache group ID.
+     * @param pageIds Page IDs, the first {@code cnt} of them are written.
+     * @param cnt Number of pages.
+     * @param pagesBuf Buffer with the content of the pages one after another.
+     * @param tag Partition generation.
+     * @param calculateCrc If {@code false} crc calculation will be forcibly skipped.
+     * @return Page store the pages were written to.
+     * @throws IgniteCheckedException If failed to write pages.
+     */
+    public default PageStore writePages(
+        int grpId,
+        long[] pageIds,
+        int cnt,
+        ByteBuffer pagesBuf,
+        int tag,
+        boolean calculateCrc
+    ) throws IgniteCheckedException {
+        int pageSize = pagesBuf.remaining() / cnt;
+
+        PageStore store = null;
+
+        for (int i = 0; i < cnt; i++) {
+            ByteBuffer pageBuf = pagesBuf.duplicate();
+
+            pageBuf.position(pagesBuf.position() + i * pageSize);
+            pageBuf.limit(pageBuf.position() + pageSize);
+
+            store = write(grpId, pageIds[i], pageBuf.slice().order(pagesBuf.order()), tag, calculateCrc);
+        }
+
+        return store;
+    }
+
     /**
      * Allocates a page for the given page space.
      *
@@ -120,6 +120,35 @@ public class PageReadWriteManagerImpl implements PageReadWriteManager {
         return store;
     }
 
+    /** {@inheritDoc} */
+    @Override public PageStore writePages(
+        int grpId,
+        long[] pageIds,
+        int cnt,
+        ByteBuffer pagesBuf,
+        int tag,
+        boolean calculateCrc
+    ) throws IgniteCheckedException {
+        GridCacheContext<?, ?> cctx0 = ctx.cache().context().cacheContext(grpId);
+
+        // Compressed pages have different sizes on disk, so they are written one by one.
+        if (cctx0 != null && cctx0.compress().pageCompressionEnabled())
+            return PageReadWriteManager.super.writePages(grpId, pageIds, cnt, pagesBuf, tag, calculateCrc);
+
+        PageStore store = pageStores.getStore(grpId, PageIdUtils.partId(pageIds[0]));
+
+        try {
+            store.writePages(pageIds, cnt, pagesBuf, tag, calculateCrc);
+        }
+        catch (StorageException e) {
+            ctx.failure().process(new FailureContext(FailureType.CRITICAL_ERROR, e));
+
+            throw e;
+        }
+
+        return store;
+    }
+
     /** {@inheritDoc} */
     @Override public long allocatePage(int grpId, int partId, byte flags) throws IgniteCheckedException {
         assert partId <= MAX_PARTITION_ID || partId == INDEX_PARTITION;
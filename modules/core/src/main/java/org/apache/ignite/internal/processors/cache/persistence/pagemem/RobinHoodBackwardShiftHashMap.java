@@ -637,8 +637,8 @@ public class RobinHoodBackwardShiftHashMap implements LoadedPagesMap {
     }
 
     /** {@inheritDoc} */
-    @Override public void forEach(BiConsumer<FullPageId, Long> act) {
-        for (int i = 0; i < numBuckets; i++) {
+    @Override public void forEach(int startIdx, int endIdx, BiConsumer<FullPageId, Long> act) {
+        for (int i = startIdx; i < endIdx; i++) {
             if (isEmptyAt(i))
                 continue;
 
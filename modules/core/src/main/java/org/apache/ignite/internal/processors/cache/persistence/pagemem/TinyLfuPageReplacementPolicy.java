@@ -0,0 +1,227 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.pagemem;
+
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.configuration.PageReplacementMode;
+import org.apache.ignite.internal.pagemem.FullPageId;
+import org.apache.ignite.internal.pagemem.PageIdUtils;
+
+import static org.apache.ignite.internal.processors.cache.persistence.pagemem.PageMemoryImpl.INVALID_REL_PTR;
+import static org.apache.ignite.internal.processors.cache.persistence.pagemem.PageMemoryImpl.OUTDATED_REL_PTR;
+import static org.apache.ignite.internal.processors.cache.persistence.pagemem.SegmentedLruPageList.NULL_IDX;
+
+/**
+ * Window TinyLFU page replacement policy implementation.
+ *
+ * @see PageReplacementMode#TINY_LFU
+ */
+public class TinyLfuPageReplacementPolicy extends PageReplacementPolicy {
+    /** Ratio of the window segment size to the total pages count. */
+    private static final double WINDOW_TO_TOTAL_PAGES_RATIO = 0.01;
+
+    /** LRU list of recently loaded pages, only the probationary segment of the list is used. */
+    private final SegmentedLruPageList window;
+
+    /** Main segmented LRU list. */
+    private final SegmentedLruPageList main;
+
+    /** Flags of the pages which reside in the window list. */
+    private final ClockPageReplacementFlags windowFlags;
+
+    /** Page access frequencies. */
+    private final PageFrequencySketch sketch;
+
+    /** Window pages limit. */
+    private final int windowLimit;
+
+    /** Count of pages in the window list. */
+    private int windowSize;
+
+    /**
+     * @param seg Page memory segment.
+     * @param ptr Pointer to memory region.
+     * @param pagesCnt Pages count.
+     */
+    protected TinyLfuPageReplacementPolicy(PageMemoryImpl.Segment seg, long ptr, int pagesCnt) {
+        super(seg);
+
+        long listMem = SegmentedLruPageList.requiredMemory(pagesCnt);
+
+        window = new SegmentedLruPageList(pagesCnt, ptr);
+        ptr += listMem;
+
+        main = new SegmentedLruPageList(pagesCnt, ptr);
+        ptr += listMem;
+
+        windowFlags = new ClockPageReplacementFlags(pagesCnt, ptr);
+        ptr += ClockPageReplacementFlags.requiredMemory(pagesCnt);
+
+        sketch = new PageFrequencySketch(pagesCnt, ptr);
+
+        windowLimit = Math.max(1, (int)(pagesCnt * WINDOW_TO_TOTAL_PAGES_RATIO));
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized void onHit(long relPtr) {
+        int pageIdx = (int)seg.pageIndex(relPtr);
+
+        sketch.increment(pageKey(relPtr));
+
+        if (windowFlags.getFlag(pageIdx)) {
+            window.remove(pageIdx);
+            window.addToTail(pageIdx, false);
+        }
+        else
+            main.moveToTail(pageIdx);
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized void onMiss(long relPtr) {
+        int pageIdx = (int)seg.pageIndex(relPtr);
+
+        sketch.increment(pageKey(relPtr));
+
+        window.addToTail(pageIdx, false);
+        windowFlags.setFlag(pageIdx);
+        windowSize++;
+
+        // The least recently used window page becomes a candidate to stay in the main list.
+        while (windowSize > windowLimit) {
+            int candidateIdx = window.poll();
+
+            windowFlags.clearFlag(candidateIdx);
+            windowSize--;
+
+            main.addToTail(candidateIdx, false);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized void onRemove(long relPtr) {
+        int pageIdx = (int)seg.pageIndex(relPtr);
+
+        if (windowFlags.getFlag(pageIdx)) {
+            window.remove(pageIdx);
+            windowFlags.clearFlag(pageIdx);
+            windowSize--;
+        }
+        else
+            main.remove(pageIdx);
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized long replace() throws IgniteCheckedException {
+        LoadedPagesMap loadedPages = seg.loadedPages();
+
+        for (int i = 0; i < loadedPages.size(); i++) {
+            int pageIdx = pollVictim();
+
+            if (pageIdx == NULL_IDX)
+                break;
+
+            long relPtr = seg.relative(pageIdx);
+            long absPtr = seg.absolute(relPtr);
+
+            FullPageId fullId = PageHeader.fullPageId(absPtr);
+
+            // Check loaded pages map for outdated page.
+            relPtr = loadedPages.get(
+                fullId.groupId(),
+                fullId.effectivePageId(),
+                seg.partGeneration(fullId.groupId(), PageIdUtils.partId(fullId.pageId())),
+                INVALID_REL_PTR,
+                OUTDATED_REL_PTR
+            );
+
+            assert relPtr != INVALID_REL_PTR;
+
+            if (relPtr == OUTDATED_REL_PTR)
+                return seg.refreshOutdatedPage(fullId.groupId(), fullId.pageId(), true);
+
+            if (seg.tryToRemovePage(fullId, absPtr))
+                return relPtr;
+
+            // Return page to the main list.
+            main.addToTail(pageIdx, true);
+        }
+
+        throw seg.oomException("no pages to replace");
+    }
+
+    /**
+     * Chooses a page to replace. The most recently admitted page of the probationary segment of the main list
+     * (candidate) competes with the least recently used page of the list (victim), a page with the lower access
+     * frequency is replaced. So pages touched once by a scan are replaced before the pages of the working set
+     * even if the working set pages were not accessed for a while.
+     *
+     * @return Index of a page removed from the lists or {@link SegmentedLruPageList#NULL_IDX} if there are no pages.
+     */
+    private int pollVictim() {
+        int victimIdx = main.headIdx();
+
+        if (victimIdx == NULL_IDX) {
+            int pageIdx = window.poll();
+
+            if (pageIdx != NULL_IDX) {
+                windowFlags.clearFlag(pageIdx);
+                windowSize--;
+            }
+
+            return pageIdx;
+        }
+
+        int candidateIdx = main.probTailIdx();
+
+        if (candidateIdx != NULL_IDX && candidateIdx != victimIdx &&
+            frequency(candidateIdx) <= frequency(victimIdx)) {
+            main.remove(candidateIdx);
+
+            return candidateIdx;
+        }
+
+        return main.poll();
+    }
+
+    /**
+     * @param pageIdx Page index.
+     * @return Estimated access frequency of a page.
+     */
+    private int frequency(int pageIdx) {
+        return sketch.frequency(pageKey(seg.relative(pageIdx)));
+    }
+
+    /**
+     * @param relPtr Relative pointer to page.
+     * @return Key of a page in the frequency sketch.
+     */
+    private long pageKey(long relPtr) {
+        long absPtr = seg.absolute(relPtr);
+
+        return PageIdUtils.effectivePageId(PageHeader.readPageId(absPtr)) * 31 + PageHeader.readPageGroupId(absPtr);
+    }
+
+    /**
+     * Memory required to service {@code pagesCnt} pages.
+     *
+     * @param pagesCnt Pages count.
+     */
+    public static long requiredMemory(int pagesCnt) {
+        return 2 * SegmentedLruPageList.requiredMemory(pagesCnt) + ClockPageReplacementFlags.requiredMemory(pagesCnt) +
+            PageFrequencySketch.requiredMemory(pagesCnt);
+    }
+}
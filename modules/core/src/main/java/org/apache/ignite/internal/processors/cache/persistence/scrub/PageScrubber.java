@@ -0,0 +1,765 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.scrub;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.IgniteLogger;
+import org.apache.ignite.IgniteSystemProperties;
+import org.apache.ignite.internal.GridKernalContext;
+import org.apache.ignite.internal.IgniteInterruptedCheckedException;
+import org.apache.ignite.internal.managers.systemview.walker.PageScrubProblemViewWalker;
+import org.apache.ignite.internal.pagemem.PageIdUtils;
+import org.apache.ignite.internal.pagemem.store.PageStore;
+import org.apache.ignite.internal.processors.cache.CacheGroupContext;
+import org.apache.ignite.internal.processors.cache.distributed.dht.topology.GridDhtLocalPartition;
+import org.apache.ignite.internal.processors.cache.persistence.GridCacheDatabaseSharedManager;
+import org.apache.ignite.internal.processors.cache.persistence.checkpoint.CheckpointProgress;
+import org.apache.ignite.internal.processors.cache.persistence.checkpoint.Checkpointer;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.BPlusIO;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.BPlusInnerIO;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.BPlusMetaIO;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.PageIO;
+import org.apache.ignite.internal.processors.cache.persistence.wal.crc.IgniteDataIntegrityViolationException;
+import org.apache.ignite.internal.processors.metric.MetricRegistry;
+import org.apache.ignite.internal.processors.metric.impl.AtomicLongMetric;
+import org.apache.ignite.internal.processors.metric.impl.LongAdderMetric;
+import org.apache.ignite.internal.processors.timeout.GridTimeoutProcessor;
+import org.apache.ignite.internal.util.BasicRateLimiter;
+import org.apache.ignite.internal.util.GridUnsafe;
+import org.apache.ignite.internal.util.typedef.F;
+import org.apache.ignite.internal.util.typedef.internal.U;
+import org.apache.ignite.internal.util.worker.GridWorker;
+import org.apache.ignite.spi.systemview.view.PageScrubProblemView;
+import org.apache.ignite.thread.IgniteThread;
+import org.jetbrains.annotations.Nullable;
+
+import static java.util.function.Function.identity;
+import static org.apache.ignite.IgniteSystemProperties.IGNITE_PDS_SCRUB_INTERVAL;
+import static org.apache.ignite.IgniteSystemProperties.IGNITE_PDS_SCRUB_RATE;
+import static org.apache.ignite.internal.pagemem.PageIdAllocator.FLAG_DATA;
+import static org.apache.ignite.internal.pagemem.PageIdAllocator.FLAG_IDX;
+import static org.apache.ignite.internal.pagemem.PageIdAllocator.INDEX_PARTITION;
+import static org.apache.ignite.internal.processors.cache.distributed.dht.topology.GridDhtPartitionState.OWNING;
+import static org.apache.ignite.internal.processors.cache.persistence.CheckpointState.FINISHED;
+import static org.apache.ignite.internal.processors.metric.impl.MetricUtils.metricName;
+
+/**
+ * Background scrubber of the persistent page files, which finds corrupted pages before a regular read hits them.
+ * <p>
+ * The index file and the owned partition files of persistent cache groups are read sequentially straight from
+ * the page stores, pages are not loaded to page memory. Every written page is checked for:
+ * <ul>
+ *     <li>CRC, which is validated by the page store on read;</li>
+ *     <li>page ID in the header matching the position of the page in the file and a known page IO;</li>
+ *     <li>B+Tree invariants which do not need other pages: item count within the page capacity, forward and
+ *     child links and the roots of the meta page pointing to the allocated pages of the same file.</li>
+ * </ul>
+ * A checkpoint may write a page while it is read, so a failed page is read again after the checkpoint finishes
+ * and is reported only if it fails on a read which no checkpoint overlapped.
+ * <p>
+ * Reads are throttled to {@link IgniteSystemProperties#IGNITE_PDS_SCRUB_RATE}, the rate is divided by
+ * {@link #CHECKPOINT_RATE_DIVISOR} while a checkpoint writes pages. Found problems are logged, counted in the
+ * {@link #SCRUB_METRICS} registry and the last {@link #MAX_PROBLEMS} of them are kept in the
+ * {@link #SCRUB_PROBLEMS_VIEW} system view.
+ */
+public class PageScrubber {
+    /** Default scrubbing rate in megabytes per second. */
+    public static final int DFLT_PDS_SCRUB_RATE = 16;
+
+    /** Default interval between scheduled runs, {@code 0} disables scheduled runs. */
+    public static final long DFLT_PDS_SCRUB_INTERVAL = 0;
+
+    /** Scrubbing rate is divided by this value while a checkpoint writes pages. */
+    public static final int CHECKPOINT_RATE_DIVISOR = 4;
+
+    /** Maximum number of problems kept in the system view. */
+    public static final int MAX_PROBLEMS = 1000;
+
+    /** Metrics registry name. */
+    public static final String SCRUB_METRICS = metricName("io", "scrub");
+
+    /** System view name. */
+    public static final String SCRUB_PROBLEMS_VIEW = "pageScrubProblems";
+
+    /** System view description. */
+    public static final String SCRUB_PROBLEMS_VIEW_DESC = "Page problems found by the page scrubber";
+
+    /** Maximum number of reads of a failed page. */
+    private static final int MAX_ATTEMPTS = 3;
+
+    /** Maximum number of levels of a sane B+Tree, also keeps the level references within the meta page. */
+    private static final int MAX_TREE_LEVELS = 64;
+
+    /** Problem type of a page with a wrong CRC. */
+    public static final String CRC = "CRC";
+
+    /** Problem type of a page with broken structure. */
+    public static final String STRUCTURE = "STRUCTURE";
+
+    /** Problem type of a file which failed to be read. */
+    public static final String IO = "IO";
+
+    /** Kernal context. */
+    private final GridKernalContext ctx;
+
+    /** Database manager. */
+    private final GridCacheDatabaseSharedManager db;
+
+    /** Logger. */
+    private final IgniteLogger log;
+
+    /** Default scrubbing rate in megabytes per second. */
+    private final int dfltRate = IgniteSystemProperties.getInteger(IGNITE_PDS_SCRUB_RATE, DFLT_PDS_SCRUB_RATE);
+
+    /** Interval between scheduled runs. */
+    private final long interval = IgniteSystemProperties.getLong(IGNITE_PDS_SCRUB_INTERVAL, DFLT_PDS_SCRUB_INTERVAL);
+
+    /** Last found problems. */
+    private final Deque<PageScrubProblemView> problems = new ArrayDeque<>();
+
+    /** Number of scanned pages. */
+    private final LongAdderMetric scannedPagesMetric;
+
+    /** Number of pages with a wrong CRC. */
+    private final LongAdderMetric corruptedPagesMetric;
+
+    /** Number of pages with broken structure. */
+    private final LongAdderMetric invalidPagesMetric;
+
+    /** Number of files which failed to be read. */
+    private final LongAdderMetric fileErrorsMetric;
+
+    /** Start time of the last run. */
+    private final AtomicLongMetric lastStartTimeMetric;
+
+    /** Finish time of the last run. */
+    private final AtomicLongMetric lastFinishTimeMetric;
+
+    /** Scheduled runs. */
+    private GridTimeoutProcessor.CancelableTask schedule;
+
+    /** Current or last run. */
+    private volatile Run run;
+
+    /**
+     * @param ctx Kernal context.
+     * @param db Database manager.
+     */
+    public PageScrubber(GridKernalContext ctx, GridCacheDatabaseSharedManager db) {
+        this.ctx = ctx;
+        this.db = db;
+
+        log = ctx.log(PageScrubber.class);
+
+        MetricRegistry mreg = ctx.metric().registry(SCRUB_METRICS);
+
+        scannedPagesMetric = mreg.longAdderMetric("ScannedPages", "Number of pages checked by the page scrubber.");
+        corruptedPagesMetric = mreg.longAdderMetric("CorruptedPages",
+            "Number of pages with a wrong CRC found by the page scrubber.");
+        invalidPagesMetric = mreg.longAdderMetric("InvalidPages",
+            "Number of pages with broken structure found by the page scrubber.");
+        fileErrorsMetric = mreg.longAdderMetric("FileErrors",
+            "Number of page files which the page scrubber failed to read.");
+        lastStartTimeMetric = mreg.longMetric("LastStartTime", "Start time of the last page scrubber run.");
+        lastFinishTimeMetric = mreg.longMetric("LastFinishTime", "Finish time of the last page scrubber run.");
+
+        mreg.register("InProgress", this::inProgress, "True if the page scrubber is running.");
+
+        ctx.systemView().registerView(SCRUB_PROBLEMS_VIEW, SCRUB_PROBLEMS_VIEW_DESC,
+            new PageScrubProblemViewWalker(), this::problems, identity());
+    }
+
+    /**
+     * Schedules periodic runs if {@link IgniteSystemProperties#IGNITE_PDS_SCRUB_INTERVAL} is set.
+     */
+    public synchronized void onActivate() {
+        if (interval <= 0 || schedule != null)
+            return;
+
+        schedule = ctx.timeout().schedule(() -> {
+            try {
+                start(null, -1);
+            }
+            catch (IgniteCheckedException e) {
+                U.error(log, "Failed to start scheduled page scrubbing.", e);
+            }
+        }, interval, interval);
+    }
+
+    /**
+     * Cancels scheduled runs and the current run and waits for it to finish.
+     */
+    public void stop() {
+        Run run0;
+
+        synchronized (this) {
+            if (schedule != null) {
+                schedule.close();
+
+                schedule = null;
+            }
+
+            run0 = run;
+        }
+
+        if (run0 != null && run0.finishTs == 0) {
+            run0.cancel();
+
+            try {
+                U.join(run0);
+            }
+            catch (IgniteInterruptedCheckedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Starts scrubbing.
+     *
+     * @param cacheNames Names of caches or cache groups, all persistent caches if empty.
+     * @param rate Maximum read rate in megabytes per second, {@code 0} for unlimited,
+     *      negative for {@link IgniteSystemProperties#IGNITE_PDS_SCRUB_RATE}.
+     * @return {@code False} if scrubbing is already in progress.
+     * @throws IgniteCheckedException If failed.
+     */
+    public synchronized boolean start(@Nullable Collection<String> cacheNames, int rate) throws IgniteCheckedException {
+        if (inProgress())
+            return false;
+
+        if (rate < 0)
+            rate = dfltRate;
+
+        List<CacheGroupContext> grps = new ArrayList<>();
+
+        for (CacheGroupContext grp : ctx.cache().cacheGroups()) {
+            if (!grp.persistenceEnabled() || grp.isLocal())
+                continue;
+
+            if (F.isEmpty(cacheNames) || cacheNames.contains(grp.cacheOrGroupName())
+                || grp.caches().stream().anyMatch(cctx -> cacheNames.contains(cctx.name())))
+                grps.add(grp);
+        }
+
+        Run run0 = new Run(grps, rate);
+
+        run = run0;
+
+        new IgniteThread(run0).start();
+
+        return true;
+    }
+
+    /**
+     * Cancels scrubbing.
+     *
+     * @return {@code False} if there is no scrubbing in progress.
+     */
+    public synchronized boolean cancel() {
+        Run run0 = run;
+
+        if (run0 == null || run0.finishTs != 0)
+            return false;
+
+        run0.cancel();
+
+        return true;
+    }
+
+    /**
+     * @return {@code True} if scrubbing is in progress.
+     */
+    public boolean inProgress() {
+        Run run0 = run;
+
+        return run0 != null && run0.finishTs == 0;
+    }
+
+    /**
+     * @return Status of the current or last run, {@code null} if scrubbing has not been started.
+     */
+    @Nullable public String status() {
+        Run run0 = run;
+
+        if (run0 == null)
+            return null;
+
+        long finishTs = run0.finishTs;
+
+        String state = finishTs == 0 ? "in progress" : run0.isCancelled() ? "cancelled" : "finished";
+
+        return "Page scrubbing " + state + " [grps=" + run0.processedGrps + '/' + run0.grps.size() +
+            ", scannedPages=" + run0.scannedPages + ", problems=" + run0.foundProblems +
+            ", time=" + ((finishTs != 0 ? finishTs : U.currentTimeMillis()) - run0.startTs) + "ms]";
+    }
+
+    /**
+     * @return Last found problems.
+     */
+    public Collection<PageScrubProblemView> problems() {
+        synchronized (problems) {
+            return new ArrayList<>(problems);
+        }
+    }
+
+    /**
+     * Scrubbing run.
+     */
+    class Run extends GridWorker {
+        /** Cache groups to scrub. */
+        private final List<CacheGroupContext> grps;
+
+        /** Read rate in bytes per second, {@code 0} for unlimited. */
+        private final double rate;
+
+        /** Rate limiter. */
+        private final BasicRateLimiter limiter;
+
+        /** Whether the rate is currently reduced because of a checkpoint. */
+        private boolean cpThrottled;
+
+        /** Start time. */
+        final long startTs = U.currentTimeMillis();
+
+        /** Finish time or {@code 0} if in progress. */
+        volatile long finishTs;
+
+        /** Number of processed cache groups. */
+        volatile int processedGrps;
+
+        /** Number of scanned pages. */
+        volatile long scannedPages;
+
+        /** Number of found problems. */
+        volatile int foundProblems;
+
+        /**
+         * @param grps Cache groups to scrub.
+         * @param rate Maximum read rate in megabytes per second, {@code 0} for unlimited.
+         */
+        Run(List<CacheGroupContext> grps, int rate) {
+            super(ctx.igniteInstanceName(), "page-scrubber", PageScrubber.this.log);
+
+            this.grps = grps;
+            this.rate = (double)rate * U.MB;
+
+            limiter = new BasicRateLimiter(this.rate);
+        }
+
+        /** {@inheritDoc} */
+        @Override protected void body() throws InterruptedException, IgniteInterruptedCheckedException {
+            if (log.isInfoEnabled())
+                log.info("Page scrubbing started [grps=" +
+                    grps.stream().map(CacheGroupContext::cacheOrGroupName).collect(Collectors.toList()) +
+                    ", rate=" + (long)(rate / U.MB) + "MB/s]");
+
+            lastStartTimeMetric.value(startTs);
+
+            ByteBuffer buf = GridUnsafe.allocateBuffer(db.pageSize());
+
+            try {
+                for (CacheGroupContext grp : grps) {
+                    if (isCancelled())
+                        break;
+
+                    scrubGroup(grp, buf);
+
+                    processedGrps++;
+                }
+            }
+            catch (IgniteInterruptedCheckedException e) {
+                if (!isCancelled())
+                    throw e;
+            }
+            finally {
+                GridUnsafe.freeBuffer(buf);
+
+                finishTs = U.currentTimeMillis();
+
+                lastFinishTimeMetric.value(finishTs);
+
+                if (log.isInfoEnabled()) {
+                    log.info("Page scrubbing " + (isCancelled() ? "cancelled" : "finished") +
+                        " [scannedPages=" + scannedPages + ", problems=" + foundProblems +
+                        ", time=" + (finishTs - startTs) + "ms]");
+                }
+            }
+        }
+
+        /**
+         * @param grp Cache group.
+         * @param buf Page buffer.
+         * @throws IgniteInterruptedCheckedException If interrupted.
+         */
+        private void scrubGroup(CacheGroupContext grp, ByteBuffer buf) throws IgniteInterruptedCheckedException {
+            scrubFile(grp, INDEX_PARTITION, buf);
+
+            for (GridDhtLocalPartition part : grp.topology().localPartitions()) {
+                if (isCancelled())
+                    return;
+
+                // Moving partitions are skipped, they are being rewritten by rebalancing anyway.
+                if (part.state() == OWNING && part.reserve()) {
+                    try {
+                        scrubFile(grp, part.id(), buf);
+                    }
+                    finally {
+                        part.release();
+                    }
+                }
+            }
+        }
+
+        /**
+         * @param grp Cache group.
+         * @param partId Partition ID.
+         * @param buf Page buffer.
+         * @throws IgniteInterruptedCheckedException If interrupted.
+         */
+        private void scrubFile(CacheGroupContext grp, int partId, ByteBuffer buf)
+            throws IgniteInterruptedCheckedException {
+            byte flag = partId == INDEX_PARTITION ? FLAG_IDX : FLAG_DATA;
+
+            int idx = 0;
+
+            try {
+                PageStore store = db.getFileStoreManager().getStore(grp.groupId(), partId);
+
+                if (!store.exists())
+                    return;
+
+                for (; idx < store.pages(); idx++) {
+                    if (isCancelled())
+                        return;
+
+                    throttle(store.getPageSize());
+
+                    long pageId = PageIdUtils.pageId(partId, flag, idx);
+
+                    Problem problem = checkPage(store, pageId, buf);
+
+                    if (problem != null)
+                        problem = recheckPage(store, pageId, buf);
+
+                    if (problem != null)
+                        onProblem(grp, partId, idx, problem);
+
+                    scannedPages++;
+
+                    scannedPagesMetric.increment();
+
+                    updateHeartbeat();
+                }
+            }
+            catch (IgniteInterruptedCheckedException e) {
+                throw e;
+            }
+            catch (IgniteCheckedException e) {
+                // The cache group was stopped concurrently.
+                if (ctx.cache().cacheGroup(grp.groupId()) != grp)
+                    return;
+
+                onProblem(grp, partId, idx, new Problem(IO, 0, e.getMessage()));
+            }
+        }
+
+        /**
+         * Reads the page again once it can not be overlapped by a checkpoint.
+         *
+         * @param store Page store.
+         * @param pageId Page ID.
+         * @param buf Page buffer.
+         * @return Problem found on the last read, {@code null} if the page is correct.
+         * @throws IgniteCheckedException If failed.
+         */
+        @Nullable private Problem recheckPage(PageStore store, long pageId, ByteBuffer buf)
+            throws IgniteCheckedException {
+            Checkpointer cp = db.getCheckpointer();
+
+            Problem problem = null;
+
+            for (int i = 0; i < MAX_ATTEMPTS; i++) {
+                CheckpointProgress progress = cp.currentProgress();
+
+                if (progress != null) {
+                    try {
+                        progress.futureFor(FINISHED).get();
+                    }
+                    catch (IgniteInterruptedCheckedException e) {
+                        throw e;
+                    }
+                    catch (IgniteCheckedException ignore) {
+                        // Failed checkpoint does not write pages anymore.
+                    }
+                }
+
+                problem = checkPage(store, pageId, buf);
+
+                // No checkpoint has started since the previous one finished, so nothing was written during the read.
+                if (problem == null || cp.currentProgress() == progress)
+                    return problem;
+            }
+
+            return problem;
+        }
+
+        /**
+         * @param store Page store.
+         * @param pageId Page ID.
+         * @param buf Page buffer.
+         * @return Found problem or {@code null} if the page is correct or has never been written.
+         * @throws IgniteCheckedException If failed to read the page.
+         */
+        @Nullable private Problem checkPage(PageStore store, long pageId, ByteBuffer buf)
+            throws IgniteCheckedException {
+            buf.clear();
+
+            try {
+                store.read(pageId, buf, false);
+            }
+            catch (IgniteDataIntegrityViolationException e) {
+                if (isZero(buf))
+                    return null;
+
+                return new Problem(CRC, PageIO.getPageId(buf), "CRC validation failed");
+            }
+
+            int pageSize = store.getPageSize();
+
+            long pageAddr = GridUnsafe.bufferAddress(buf);
+
+            if (PageIO.getType(pageAddr) == 0)
+                return null;
+
+            try {
+                ctx.compress().decompressPage(buf, pageSize);
+            }
+            catch (IgniteCheckedException e) {
+                return new Problem(STRUCTURE, PageIO.getPageId(pageAddr), "Failed to decompress page: " +
+                    e.getMessage());
+            }
+
+            long hdrPageId = PageIO.getPageId(pageAddr);
+
+            String err = checkStructure(pageAddr, pageId, hdrPageId, store.pages(), pageSize);
+
+            return err == null ? null : new Problem(STRUCTURE, hdrPageId, err);
+        }
+
+        /**
+         * @param pageAddr Page address.
+         * @param pageId Page ID by the position in the file.
+         * @param hdrPageId Page ID from the page header.
+         * @param pages Number of allocated pages in the file.
+         * @param pageSize Page size.
+         * @return Error description or {@code null} if the page is correct.
+         */
+        @Nullable private String checkStructure(long pageAddr, long pageId, long hdrPageId, int pages, int pageSize) {
+            if (PageIdUtils.pageIndex(hdrPageId) != PageIdUtils.pageIndex(pageId) ||
+                PageIdUtils.partId(hdrPageId) != PageIdUtils.partId(pageId))
+                return "Page ID does not match the page position [expected=" + U.hexLong(pageId) + ']';
+
+            int type = PageIO.getType(pageAddr);
+            int ver = PageIO.getVersion(pageAddr);
+
+            PageIO io;
+
+            try {
+                io = PageIO.getPageIO(type, ver);
+            }
+            catch (IgniteCheckedException | RuntimeException e) {
+                return "Unknown page IO [type=" + type + ", ver=" + ver + ']';
+            }
+
+            int partId = PageIdUtils.partId(pageId);
+
+            if (io instanceof BPlusMetaIO) {
+                BPlusMetaIO metaIo = (BPlusMetaIO)io;
+
+                int lvls = metaIo.getLevelsCount(pageAddr);
+
+                if (lvls > MAX_TREE_LEVELS)
+                    return "Too many B+Tree levels [lvls=" + lvls + ']';
+
+                for (int lvl = 0; lvl < lvls; lvl++) {
+                    String err = checkLink("first page of level " + lvl, metaIo.getFirstPageId(pageAddr, lvl),
+                        partId, pages);
+
+                    if (err != null)
+                        return err;
+                }
+            }
+            else if (io instanceof BPlusIO) {
+                BPlusIO<?> bpIo = (BPlusIO<?>)io;
+
+                int cnt = bpIo.getCount(pageAddr);
+                int maxCnt = bpIo.getMaxCount(pageAddr, pageSize);
+
+                if (cnt > maxCnt)
+                    return "Items count exceeds the page capacity [cnt=" + cnt + ", maxCnt=" + maxCnt + ']';
+
+                long fwdId = bpIo.getForward(pageAddr);
+
+                if (fwdId != 0) {
+                    String err = checkLink("forward page", fwdId, partId, pages);
+
+                    if (err != null)
+                        return err;
+                }
+
+                if (!bpIo.isLeaf() && cnt > 0) {
+                    BPlusInnerIO<?> innerIo = (BPlusInnerIO<?>)bpIo;
+
+                    for (int i = 0; i <= cnt; i++) {
+                        long childId = i < cnt ? innerIo.getLeft(pageAddr, i) : innerIo.getRight(pageAddr, cnt - 1);
+
+                        String err = checkLink("child " + i, childId, partId, pages);
+
+                        if (err != null)
+                            return err;
+                    }
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * @param name Link name.
+         * @param linkId Linked page ID.
+         * @param partId Partition ID of the file.
+         * @param pages Number of allocated pages in the file.
+         * @return Error description or {@code null} if the link points to an allocated page of the file.
+         */
+        @Nullable private String checkLink(String name, long linkId, int partId, int pages) {
+            int idx = PageIdUtils.pageIndex(linkId);
+
+            // Page 0 is the meta page of the file, it is never a tree page.
+            if (PageIdUtils.partId(linkId) != partId || idx <= 0 || idx >= pages)
+                return "Broken link to " + name + " [linkId=" + U.hexLong(linkId) + ", pages=" + pages + ']';
+
+            return null;
+        }
+
+        /**
+         * Throttles reads, the rate is reduced while a checkpoint writes pages.
+         *
+         * @param bytes Number of bytes to read.
+         * @throws IgniteInterruptedCheckedException If interrupted.
+         */
+        private void throttle(int bytes) throws IgniteInterruptedCheckedException {
+            if (rate == 0)
+                return;
+
+            CheckpointProgress progress = db.getCheckpointer().currentProgress();
+
+            boolean cpInProgress = progress != null && progress.inProgress();
+
+            if (cpInProgress != cpThrottled) {
+                cpThrottled = cpInProgress;
+
+                limiter.setRate(cpInProgress ? rate / CHECKPOINT_RATE_DIVISOR : rate);
+            }
+
+            limiter.acquire(bytes);
+        }
+
+        /**
+         * @param grp Cache group.
+         * @param partId Partition ID.
+         * @param idx Page index.
+         * @param problem Problem.
+         */
+        private void onProblem(CacheGroupContext grp, int partId, int idx, Problem problem) {
+            switch (problem.type) {
+                case CRC:
+                    corruptedPagesMetric.increment();
+
+                    break;
+
+                case STRUCTURE:
+                    invalidPagesMetric.increment();
+
+                    break;
+
+                default:
+                    fileErrorsMetric.increment();
+            }
+
+            foundProblems++;
+
+            U.warn(log, "Page scrubber found a problem [grp=" + grp.cacheOrGroupName() + ", partId=" + partId +
+                ", pageIdx=" + idx + ", pageId=" + U.hexLong(problem.pageId) + ", type=" + problem.type +
+                ", desc=" + problem.desc + ']');
+
+            PageScrubProblemView view = new PageScrubProblemView(grp.cacheOrGroupName(), partId, idx, problem.pageId,
+                problem.type, problem.desc, U.currentTimeMillis());
+
+            synchronized (problems) {
+                problems.addLast(view);
+
+                if (problems.size() > MAX_PROBLEMS)
+                    problems.removeFirst();
+            }
+        }
+    }
+
+    /**
+     * @param buf Buffer.
+     * @return {@code True} if all bytes of the buffer are zero.
+     */
+    private static boolean isZero(ByteBuffer buf) {
+        for (int i = 0; i < buf.capacity(); i += 8) {
+            if (buf.getLong(i) != 0)
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Problem of a page.
+     */
+    private static class Problem {
+        /** Type. */
+        private final String type;
+
+        /** Page ID from the page header. */
+        private final long pageId;
+
+        /** Description. */
+        private final String desc;
+
+        /**
+         * @param type Type.
+         * @param pageId Page ID from the page header.
+         * @param desc Description.
+         */
+        private Problem(String type, long pageId, String desc) {
+            this.type = type;
+            this.pageId = pageId;
+            this.desc = desc;
+        }
+    }
+}
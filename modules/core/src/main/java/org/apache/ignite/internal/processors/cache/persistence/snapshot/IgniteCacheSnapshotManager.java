@@ -16,26 +16,99 @@
 
 package org.apache.ignite.internal.processors.cache.persistence.snapshot;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.binary.BinaryType;
+import org.apache.ignite.configuration.DataStorageConfiguration;
 import org.apache.ignite.events.DiscoveryEvent;
 import org.apache.ignite.internal.GridKernalContext;
 import org.apache.ignite.internal.IgniteInternalFuture;
+import org.apache.ignite.internal.binary.BinaryMetadata;
+import org.apache.ignite.internal.events.DiscoveryCustomEvent;
+import org.apache.ignite.internal.managers.discovery.DiscoveryCustomMessage;
 import org.apache.ignite.internal.pagemem.FullPageId;
+import org.apache.ignite.internal.pagemem.PageIdAllocator;
+import org.apache.ignite.internal.pagemem.PageIdUtils;
 import org.apache.ignite.internal.pagemem.PageMemory;
+import org.apache.ignite.internal.pagemem.wal.IgniteWriteAheadLogManager;
 import org.apache.ignite.internal.pagemem.wal.record.CheckpointRecord;
+import org.apache.ignite.internal.pagemem.wal.record.delta.TrackingPageDeltaRecord;
 import org.apache.ignite.internal.processors.affinity.AffinityTopologyVersion;
 import org.apache.ignite.internal.processors.cache.CacheGroupContext;
+import org.apache.ignite.internal.processors.cache.CacheGroupDescriptor;
 import org.apache.ignite.internal.processors.cache.GridCacheContext;
 import org.apache.ignite.internal.processors.cache.GridCacheSharedManagerAdapter;
+import org.apache.ignite.internal.processors.cache.StoredCacheData;
+import org.apache.ignite.internal.processors.cache.binary.CacheObjectBinaryProcessorImpl;
+import org.apache.ignite.internal.processors.cache.distributed.dht.topology.GridDhtLocalPartition;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileIO;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileIOFactory;
+import org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager;
+import org.apache.ignite.internal.processors.cache.persistence.partstate.GroupPartitionId;
 import org.apache.ignite.internal.processors.cache.persistence.partstate.PartitionAllocationMap;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.TrackingPageIO;
+import org.apache.ignite.internal.processors.cache.persistence.tree.util.PageHandler;
 import org.apache.ignite.internal.processors.cluster.IgniteChangeGlobalStateSupport;
+import org.apache.ignite.internal.util.GridConcurrentHashSet;
+import org.apache.ignite.internal.util.distributed.DistributedProcess;
+import org.apache.ignite.internal.util.future.GridFinishedFuture;
+import org.apache.ignite.internal.util.future.GridFutureAdapter;
+import org.apache.ignite.internal.util.typedef.F;
+import org.apache.ignite.internal.util.typedef.internal.CU;
+import org.apache.ignite.internal.util.typedef.internal.U;
 import org.apache.ignite.lang.IgniteFuture;
+import org.apache.ignite.marshaller.Marshaller;
+import org.apache.ignite.marshaller.MarshallerUtils;
+import org.apache.ignite.thread.IgniteThreadPoolExecutor;
 import org.jetbrains.annotations.Nullable;
 
+import static org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager.CACHE_DATA_FILENAME;
+import static org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager.CACHE_DIR_PREFIX;
+import static org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager.CACHE_GRP_DIR_PREFIX;
+import static org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager.FILE_SUFFIX;
+import static org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager.INDEX_FILE_NAME;
+import static org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager.PART_FILE_PREFIX;
+import static org.apache.ignite.internal.processors.cache.persistence.snapshot.SnapshotFutureTask.INC_SUFFIX;
+import static org.apache.ignite.internal.util.distributed.DistributedProcess.DistributedProcessType.RESTORE_SNAPSHOT;
+import static org.apache.ignite.internal.util.distributed.DistributedProcess.DistributedProcessType.START_SNAPSHOT;
+
 /**
- * Snapshot manager stub.
+ * Snapshot manager.
+ * <p>
+ * Creates cluster-wide online snapshots of persistent cache groups. Snapshot creation is started by the
+ * {@link SnapshotStartDiscoveryMessage} which triggers partition map exchange, so each node forces the snapshot
+ * checkpoint when all cache operations are completed and new ones are blocked. The partition files of each node are
+ * then copied in the background while the load continues, see {@link SnapshotFutureTask}.
+ * <p>
+ * The snapshot files of a node are stored in {@code <work>/snapshots/<name>/<node folder>} with the same layout as the
+ * node persistence directory, so the partition files are consistent and can be used to start cache groups without
+ * the WAL replay.
  */
 public class IgniteCacheSnapshotManager<T extends SnapshotOperation> extends GridCacheSharedManagerAdapter implements IgniteChangeGlobalStateSupport {
     /** Snapshot started lock filename. */
@@ -44,6 +117,1009 @@ public class IgniteCacheSnapshotManager<T extends SnapshotOperation> extends Gri
     /** Temp files completeness marker. */
     public static final String TEMP_FILES_COMPLETENESS_MARKER = "finished.tmp";
 
+    /** Default snapshot directory relative to the Ignite work directory. */
+    public static final String DFLT_SNAPSHOT_DIRECTORY = "snapshots";
+
+    /** Local snapshot metadata file name. */
+    public static final String SNAPSHOT_METAFILE_NAME = "snapshot.meta";
+
+    /** Snapshot directory with binary metadata. */
+    public static final String BINARY_META_DIR = "binary_meta";
+
+    /** Snapshot directory with marshaller mappings. */
+    public static final String MARSHALLER_DIR = "marshaller";
+
+    /** Directory with partition copies in the root snapshot directory. */
+    private static final String PARTITION_COPIES_DIR = "partition-copies";
+
+    /** Snapshot runner thread name. */
+    private static final String SNAPSHOT_RUNNER_THREAD_PREFIX = "snapshot-runner";
+
+    /** Suffix of the file which keeps the next snapshot tag of the node in the root snapshot directory. */
+    private static final String SNAPSHOT_TAG_FILE_SUFFIX = ".tag";
+
+    /** Tracking page IO. */
+    private static final TrackingPageIO trackingIO = TrackingPageIO.VERSIONS.latest();
+
+    /** Current local snapshot task. */
+    private final AtomicReference<SnapshotFutureTask> curTask = new AtomicReference<>();
+
+    /** Partition copy tasks waiting for the completion of the current task. */
+    private final Deque<SnapshotFutureTask> pendingCopies = new ArrayDeque<>();
+
+    /** Mutex to start partition copy tasks. */
+    private final Object copyMux = new Object();
+
+    /** Futures of the snapshot operations started by the local node. */
+    private final Map<UUID, GridFutureAdapter<Void>> clusterOpFuts = new ConcurrentHashMap<>();
+
+    /** Local directories created by the snapshot operations which must be removed if the operation fails. */
+    private final Map<UUID, List<File>> locDirs = new ConcurrentHashMap<>();
+
+    /** Snapshot creation process. */
+    private DistributedProcess<SnapshotOperationRequest, Boolean> startSnpProc;
+
+    /** Snapshot restore process. */
+    private DistributedProcess<SnapshotOperationRequest, SnapshotRestoreResponse> restoreSnpProc;
+
+    /** Root snapshot directory. */
+    private File snpRootDir;
+
+    /** Directory with partition copies of the node. */
+    private File partCopiesDir;
+
+    /** Marshaller to store snapshot metadata. */
+    private Marshaller marsh;
+
+    /** Executor to copy snapshot files. */
+    private IgniteThreadPoolExecutor snpRunner;
+
+    /** Tag which marks the pages changed after the last snapshot checkpoint in tracking pages. */
+    private volatile long nextSnpTag = 1;
+
+    /** Last successful local snapshots of cache groups which are the base of the next incremental snapshot. */
+    private final Map<Integer, SnapshotMetadata> lastSnps = new ConcurrentHashMap<>();
+
+    /** Cache groups which pages changes are tracked. */
+    private final Set<Integer> trackedGrps = new GridConcurrentHashSet<>();
+
+    /** Local snapshots which have been created and wait for the completion of the cluster-wide operation. */
+    private final Map<UUID, SnapshotMetadata> createdSnps = new ConcurrentHashMap<>();
+
+    /** {@inheritDoc} */
+    @Override protected void start0() throws IgniteCheckedException {
+        GridKernalContext kctx = cctx.kernalContext();
+
+        // Processes are registered on all nodes, since the coordinator waits for the results from all server nodes.
+        startSnpProc = new DistributedProcess<>(kctx, START_SNAPSHOT, this::initLocalSnapshot,
+            this::finishSnapshot, SnapshotStartDiscoveryMessage::new);
+
+        restoreSnpProc = new DistributedProcess<>(kctx, RESTORE_SNAPSHOT, this::restoreLocalSnapshot,
+            this::finishRestore);
+
+        if (kctx.clientNode() || !CU.isPersistenceEnabled(kctx.config()))
+            return;
+
+        snpRootDir = U.resolveWorkDirectory(kctx.config().getWorkDirectory(), DFLT_SNAPSHOT_DIRECTORY, false);
+
+        marsh = MarshallerUtils.jdkMarshaller(kctx.igniteInstanceName());
+
+        snpRunner = new IgniteThreadPoolExecutor(
+            SNAPSHOT_RUNNER_THREAD_PREFIX,
+            kctx.igniteInstanceName(),
+            1,
+            1,
+            30_000,
+            new LinkedBlockingQueue<>()
+        );
+
+        // Partition copies are not needed after restart.
+        partCopiesDir = new File(new File(snpRootDir, PARTITION_COPIES_DIR),
+            kctx.pdsFolderResolver().resolveFolders().folderName());
+
+        U.delete(partCopiesDir);
+
+        loadLocalSnapshots();
+    }
+
+    /**
+     * Restores the next snapshot tag and the last snapshots of cache groups from the local snapshots of the node.
+     *
+     * @throws IgniteCheckedException If failed.
+     */
+    private void loadLocalSnapshots() throws IgniteCheckedException {
+        String folderName = cctx.kernalContext().pdsFolderResolver().resolveFolders().folderName();
+
+        long tag = readNextTag();
+
+        for (File dir : F.asList(snpRootDir.listFiles(File::isDirectory))) {
+            File nodeSnpDir = new File(dir, folderName);
+
+            if (!new File(nodeSnpDir, SNAPSHOT_METAFILE_NAME).exists())
+                continue;
+
+            SnapshotMetadata meta;
+
+            try {
+                meta = readMetadata(nodeSnpDir);
+            }
+            catch (IgniteCheckedException e) {
+                U.warn(log, "Failed to read local snapshot metadata, the snapshot will be ignored [dir=" +
+                    nodeSnpDir.getAbsolutePath() + ", err=" + e.getMessage() + ']');
+
+                continue;
+            }
+
+            tag = Math.max(tag, meta.tag() + 1);
+
+            for (Integer grpId : meta.cacheGroupIds())
+                lastSnps.merge(grpId, meta, (m1, m2) -> m1.tag() > m2.tag() ? m1 : m2);
+        }
+
+        nextSnpTag = tag;
+
+        trackedGrps.addAll(lastSnps.keySet());
+    }
+
+    /**
+     * @return Next snapshot tag stored by the node or {@code 1} if the node has not created snapshots yet.
+     * @throws IgniteCheckedException If failed.
+     */
+    private long readNextTag() throws IgniteCheckedException {
+        File tagFile = nextTagFile();
+
+        if (!tagFile.exists())
+            return 1;
+
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(tagFile.toPath()), StandardCharsets.UTF_8).trim());
+        }
+        catch (IOException | NumberFormatException e) {
+            throw new IgniteCheckedException("Failed to read snapshot tag file: " + tagFile, e);
+        }
+    }
+
+    /**
+     * Stores the tag the pages changed after the snapshot checkpoint are marked with. Tags must not be reused after
+     * the node restart even if the snapshot fails, since they are already stored in tracking pages.
+     *
+     * @param tag Next snapshot tag.
+     * @throws IgniteCheckedException If failed.
+     */
+    private void writeNextTag(long tag) throws IgniteCheckedException {
+        File tagFile = nextTagFile();
+        File tmp = new File(tagFile.getPath() + FilePageStoreManager.TMP_SUFFIX);
+
+        try (FileIO io = cctx.gridConfig().getDataStorageConfiguration().getFileIOFactory().create(tmp)) {
+            io.writeFully(ByteBuffer.wrap(Long.toString(tag).getBytes(StandardCharsets.UTF_8)), 0);
+
+            io.force();
+        }
+        catch (IOException e) {
+            throw new IgniteCheckedException("Failed to write snapshot tag file: " + tagFile, e);
+        }
+
+        try {
+            Files.move(tmp.toPath(), tagFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            throw new IgniteCheckedException("Failed to write snapshot tag file: " + tagFile, e);
+        }
+    }
+
+    /**
+     * @return File with the next snapshot tag of the node.
+     * @throws IgniteCheckedException If failed.
+     */
+    private File nextTagFile() throws IgniteCheckedException {
+        String folderName = cctx.kernalContext().pdsFolderResolver().resolveFolders().folderName();
+
+        return new File(snpRootDir, folderName + SNAPSHOT_TAG_FILE_SUFFIX);
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void onKernalStop0(boolean cancel) {
+        cancelPartitionCopies();
+
+        cancelLocalSnapshot();
+
+        IgniteException err = new IgniteException("Node is stopping.");
+
+        for (GridFutureAdapter<Void> fut : clusterOpFuts.values())
+            fut.onDone(err);
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void stop0(boolean cancel) {
+        if (snpRunner != null)
+            U.shutdownNow(getClass(), snpRunner, log);
+    }
+
+    /**
+     * Creates a cluster-wide snapshot of persistent cache groups.
+     *
+     * @param name Snapshot name.
+     * @param grpNames Names of cache groups to include to the snapshot or {@code null} to include all persistent
+     * user cache groups.
+     * @return Future which is completed when all nodes have created their local snapshots.
+     */
+    public IgniteInternalFuture<Void> createSnapshot(String name, @Nullable Collection<String> grpNames) {
+        return createSnapshot(name, grpNames, false);
+    }
+
+    /**
+     * Creates a cluster-wide incremental snapshot of persistent cache groups. Only pages changed since the previous
+     * snapshot of the cache groups are copied, so the cache groups must have been included to a snapshot before.
+     *
+     * @param name Snapshot name.
+     * @param grpNames Names of cache groups to include to the snapshot or {@code null} to include all persistent
+     * user cache groups.
+     * @return Future which is completed when all nodes have created their local snapshots.
+     */
+    public IgniteInternalFuture<Void> createIncrementalSnapshot(String name, @Nullable Collection<String> grpNames) {
+        return createSnapshot(name, grpNames, true);
+    }
+
+    /**
+     * @param name Snapshot name.
+     * @param grpNames Names of cache groups to include to the snapshot or {@code null} to include all persistent
+     * user cache groups.
+     * @param incremental Only pages changed since the previous snapshot of the cache groups must be copied.
+     * @return Future which is completed when all nodes have created their local snapshots.
+     */
+    private IgniteInternalFuture<Void> createSnapshot(
+        String name,
+        @Nullable Collection<String> grpNames,
+        boolean incremental
+    ) {
+        if (F.isEmpty(name) || !U.alphanumericUnderscore(name))
+            return new GridFinishedFuture<>(new IgniteException("Snapshot name must satisfy the following name " +
+                "pattern: a-zA-Z0-9_ [name=" + name + ']'));
+
+        if (!cctx.kernalContext().state().clusterState().active())
+            return new GridFinishedFuture<>(new IgniteException("Snapshot operation has been rejected. " +
+                "The cluster is inactive."));
+
+        Set<Integer> grpIds = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        Set<String> cacheNames = new HashSet<>();
+
+        for (CacheGroupDescriptor desc : cctx.cache().cacheGroupDescriptors().values()) {
+            if (!desc.persistenceEnabled() || CU.isReservedCacheName(desc.cacheOrGroupName()) ||
+                CU.isSystemCache(desc.cacheOrGroupName()))
+                continue;
+
+            if (grpNames != null && !grpNames.contains(desc.cacheOrGroupName()))
+                continue;
+
+            grpIds.add(desc.groupId());
+            names.add(desc.cacheOrGroupName());
+            cacheNames.addAll(desc.caches().keySet());
+        }
+
+        if (grpNames != null && !names.containsAll(grpNames)) {
+            Set<String> missed = new HashSet<>(grpNames);
+
+            missed.removeAll(names);
+
+            return new GridFinishedFuture<>(new IgniteException("Snapshot operation has been rejected. " +
+                "Persistent cache groups not found: " + missed));
+        }
+
+        if (grpIds.isEmpty())
+            return new GridFinishedFuture<>(new IgniteException("Snapshot operation has been rejected. " +
+                "There are no persistent cache groups to snapshot."));
+
+        UUID reqId = UUID.randomUUID();
+
+        GridFutureAdapter<Void> fut = new GridFutureAdapter<>();
+
+        clusterOpFuts.put(reqId, fut);
+
+        startSnpProc.start(reqId, new SnapshotOperationRequest(reqId, cctx.localNodeId(), name, grpIds, names,
+            cacheNames, incremental));
+
+        return fut;
+    }
+
+    /**
+     * Restores cache groups from the snapshot on all cluster nodes and starts the restored caches. Cache groups to
+     * restore must not exist in the cluster.
+     *
+     * @param name Snapshot name.
+     * @param grpNames Names of cache groups to restore or {@code null} to restore all cache groups of the snapshot.
+     * @return Future which is completed when the restored caches are started.
+     */
+    public IgniteInternalFuture<Void> restoreSnapshot(String name, @Nullable Collection<String> grpNames) {
+        if (F.isEmpty(name))
+            return new GridFinishedFuture<>(new IgniteException("Snapshot name must not be empty."));
+
+        if (!cctx.kernalContext().state().clusterState().active())
+            return new GridFinishedFuture<>(new IgniteException("Snapshot restore operation has been rejected. " +
+                "The cluster is inactive."));
+
+        UUID reqId = UUID.randomUUID();
+
+        GridFutureAdapter<Void> fut = new GridFutureAdapter<>();
+
+        clusterOpFuts.put(reqId, fut);
+
+        restoreSnpProc.start(reqId, new SnapshotOperationRequest(reqId, cctx.localNodeId(), name,
+            new HashSet<>(), grpNames == null ? null : new HashSet<>(grpNames), new HashSet<>(), false));
+
+        return fut;
+    }
+
+    /**
+     * @param name Snapshot name.
+     * @return Local snapshot directory of the node.
+     * @throws IgniteCheckedException If failed.
+     */
+    public File snapshotLocalDir(String name) throws IgniteCheckedException {
+        assert snpRootDir != null : "Snapshots are not supported on the node without persistence.";
+
+        String folderName = cctx.kernalContext().pdsFolderResolver().resolveFolders().folderName();
+
+        return new File(new File(snpRootDir, name), folderName);
+    }
+
+    /**
+     * @param req Snapshot operation request.
+     * @return Future which is completed when the local snapshot is created.
+     */
+    private IgniteInternalFuture<Boolean> initLocalSnapshot(SnapshotOperationRequest req) {
+        GridKernalContext kctx = cctx.kernalContext();
+
+        if (kctx.clientNode() || !CU.isPersistenceEnabled(kctx.config()))
+            return new GridFinishedFuture<>(false);
+
+        if (!kctx.state().clusterState().active())
+            return new GridFinishedFuture<>(new IgniteException("Snapshot operation has been rejected. " +
+                "The cluster is inactive."));
+
+        try {
+            File nodeSnpDir = snapshotLocalDir(req.snapshotName());
+
+            if (nodeSnpDir.exists())
+                throw new IgniteCheckedException("Snapshot with given name already exists [name=" +
+                    req.snapshotName() + ", dir=" + nodeSnpDir.getAbsolutePath() + ']');
+
+            SnapshotMetadata baseMeta = req.incremental() ? incrementalBase(req) : null;
+
+            // Partition copies are used by rebalancing which falls back to sending entries.
+            cancelPartitionCopies();
+
+            SnapshotFutureTask task = new SnapshotFutureTask(cctx, req, nodeSnpDir,
+                kctx.config().getDataStorageConfiguration().getFileIOFactory(), marsh, snpRunner, baseMeta);
+
+            if (!curTask.compareAndSet(null, task))
+                throw new IgniteCheckedException("Snapshot operation has been rejected. Another snapshot " +
+                    "operation in progress [name=" + curTask.get().request().snapshotName() + ']');
+
+            // Listeners are notified in the reverse order, so the distributed process listens to a separate future
+            // which is completed after the metadata of the created snapshot is registered.
+            GridFutureAdapter<Boolean> res = new GridFutureAdapter<>();
+
+            task.listen(f -> {
+                if (f.error() == null && task.metadata() != null)
+                    createdSnps.put(req.requestId(), task.metadata());
+
+                if (curTask.compareAndSet(task, null))
+                    startNextCopy();
+
+                res.onDone(f.result(), f.error());
+            });
+
+            try {
+                // Only the current snapshot task changes the tag, it is switched at the snapshot checkpoint.
+                writeNextTag(nextSnpTag + 1);
+            }
+            catch (IgniteCheckedException e) {
+                task.onDone(e);
+
+                throw e;
+            }
+
+            locDirs.put(req.requestId(), Collections.singletonList(nodeSnpDir));
+
+            return res;
+        }
+        catch (IgniteCheckedException e) {
+            return new GridFinishedFuture<>(e);
+        }
+    }
+
+    /**
+     * Copies checkpointed partition files of the cache group to a new directory. The copies are consistent and
+     * have the same layout as the node persistence directory: {@code <dir>/<cache dir>/part-<id>.bin}. Copies of
+     * partitions are not snapshots, so they are not tracked and don't affect incremental snapshots. The directory
+     * must be removed by the caller.
+     * <p>
+     * Local snapshot tasks are executed one by one, so the copy waits for the completion of the current task. The
+     * copy is cancelled if a snapshot is started.
+     *
+     * @param grpId Cache group ID.
+     * @param parts Partitions to copy.
+     * @return Future which is completed with the directory of copies when the partition files are copied.
+     */
+    public IgniteInternalFuture<File> copyPartitions(int grpId, Set<Integer> parts) {
+        CacheGroupContext grp = cctx.cache().cacheGroup(grpId);
+
+        if (partCopiesDir == null || grp == null || !grp.persistenceEnabled())
+            return new GridFinishedFuture<>(new IgniteCheckedException("Persistent cache group is not found " +
+                "[grpId=" + grpId + ']'));
+
+        UUID reqId = UUID.randomUUID();
+
+        File dir = new File(partCopiesDir, reqId.toString());
+
+        SnapshotOperationRequest req = new SnapshotOperationRequest(
+            reqId,
+            cctx.localNodeId(),
+            dir.getName(),
+            Collections.singleton(grpId),
+            Collections.singleton(grp.cacheOrGroupName()),
+            grp.caches().stream().map(GridCacheContext::name).collect(Collectors.toSet()),
+            false,
+            Collections.singletonMap(grpId, new HashSet<>(parts))
+        );
+
+        SnapshotFutureTask task = new SnapshotFutureTask(cctx, req, dir,
+            cctx.kernalContext().config().getDataStorageConfiguration().getFileIOFactory(), marsh, snpRunner, null);
+
+        synchronized (copyMux) {
+            pendingCopies.add(task);
+        }
+
+        task.listen(f -> {
+            synchronized (copyMux) {
+                pendingCopies.remove(task);
+            }
+
+            if (curTask.compareAndSet(task, null))
+                startNextCopy();
+        });
+
+        startNextCopy();
+
+        GridFutureAdapter<File> res = new GridFutureAdapter<>();
+
+        task.listen(f -> res.onDone(dir, f.error()));
+
+        return res;
+    }
+
+    /**
+     * Starts the next pending partition copy if there is no current local snapshot task.
+     */
+    private void startNextCopy() {
+        SnapshotFutureTask task;
+
+        synchronized (copyMux) {
+            task = pendingCopies.peek();
+
+            if (task == null || !curTask.compareAndSet(null, task))
+                return;
+
+            pendingCopies.poll();
+        }
+
+        task.start().listen(f -> {
+            if (f.error() != null)
+                task.onDone(f.error());
+        });
+    }
+
+    /**
+     * Cancels pending and current partition copies.
+     */
+    private void cancelPartitionCopies() {
+        List<SnapshotFutureTask> tasks;
+
+        synchronized (copyMux) {
+            tasks = new ArrayList<>(pendingCopies);
+
+            pendingCopies.clear();
+        }
+
+        SnapshotFutureTask task = curTask.get();
+
+        if (task != null && task.request().partitionCopy())
+            tasks.add(task);
+
+        for (SnapshotFutureTask t : tasks)
+            t.cancel();
+    }
+
+    /**
+     * @param req Incremental snapshot request.
+     * @return Previous local snapshot of the cache groups or {@code null} if the node has no groups of the request.
+     * @throws IgniteCheckedException If the incremental snapshot can't be created.
+     */
+    @Nullable private SnapshotMetadata incrementalBase(SnapshotOperationRequest req) throws IgniteCheckedException {
+        SnapshotMetadata base = null;
+
+        for (Integer grpId : req.cacheGroupIds()) {
+            CacheGroupContext grp = cctx.cache().cacheGroup(grpId);
+
+            if (grp == null)
+                continue;
+
+            SnapshotMetadata meta = lastSnps.get(grpId);
+
+            if (meta == null)
+                throw new IgniteCheckedException("Incremental snapshot requires a previous snapshot of the cache " +
+                    "group, create a full snapshot first [grp=" + grp.cacheOrGroupName() + ']');
+
+            if (base != null && !base.snapshotName().equals(meta.snapshotName()))
+                throw new IgniteCheckedException("Cache groups of the incremental snapshot must have the same " +
+                    "previous snapshot [grp=" + grp.cacheOrGroupName() + ", prev=" + meta.snapshotName() +
+                    ", expPrev=" + base.snapshotName() + ']');
+
+            base = meta;
+        }
+
+        if (base != null && !new File(snapshotLocalDir(base.snapshotName()), SNAPSHOT_METAFILE_NAME).exists())
+            throw new IgniteCheckedException("Previous snapshot not found, create a full snapshot first [prev=" +
+                base.snapshotName() + ']');
+
+        return base;
+    }
+
+    /**
+     * @param reqId Request ID.
+     * @param res Results.
+     * @param err Errors.
+     */
+    private void finishSnapshot(UUID reqId, Map<UUID, Boolean> res, Map<UUID, Exception> err) {
+        List<File> dirs = locDirs.remove(reqId);
+
+        SnapshotMetadata meta = createdSnps.remove(reqId);
+
+        if (err.isEmpty() && meta != null) {
+            for (Integer grpId : meta.cacheGroupIds())
+                lastSnps.put(grpId, meta);
+        }
+
+        // Local snapshot is not consistent without snapshots of other nodes.
+        if (!err.isEmpty() && dirs != null)
+            dirs.forEach(U::delete);
+
+        GridFutureAdapter<Void> fut = clusterOpFuts.remove(reqId);
+
+        if (fut == null)
+            return;
+
+        if (err.isEmpty())
+            fut.onDone();
+        else {
+            fut.onDone(new IgniteCheckedException("Snapshot operation has failed on nodes: " + err.keySet(),
+                F.first(err.values())));
+        }
+    }
+
+    /**
+     * Copies cache directories from the local snapshot to the persistence directory of the node.
+     *
+     * @param req Snapshot restore request.
+     * @return Future with configurations of the restored caches.
+     */
+    private IgniteInternalFuture<SnapshotRestoreResponse> restoreLocalSnapshot(SnapshotOperationRequest req) {
+        GridKernalContext kctx = cctx.kernalContext();
+
+        if (kctx.clientNode() || !CU.isPersistenceEnabled(kctx.config()))
+            return new GridFinishedFuture<>();
+
+        List<File> snpCacheDirs = new ArrayList<>();
+
+        List<SnapshotMetadata> chain;
+
+        try {
+            File nodeSnpDir = snapshotLocalDir(req.snapshotName());
+
+            if (!nodeSnpDir.isDirectory())
+                throw new IgniteCheckedException("Snapshot not found [name=" + req.snapshotName() + ']');
+
+            chain = snapshotChain(readMetadata(nodeSnpDir));
+
+            for (SnapshotMetadata meta : chain) {
+                if (meta.pageSize() != kctx.config().getDataStorageConfiguration().getPageSize())
+                    throw new IgniteCheckedException("Snapshot page size differs from the page size of the node " +
+                        "[snapshot=" + meta.snapshotName() + ", snpPageSize=" + meta.pageSize() + ']');
+            }
+
+            Set<String> existing = new HashSet<>();
+
+            for (CacheGroupDescriptor desc : cctx.cache().cacheGroupDescriptors().values())
+                existing.add(desc.cacheOrGroupName());
+
+            File[] dirs = nodeSnpDir.listFiles(f -> f.isDirectory() && (f.getName().startsWith(CACHE_DIR_PREFIX) ||
+                f.getName().startsWith(CACHE_GRP_DIR_PREFIX)));
+
+            for (File dir : F.asList(dirs)) {
+                String grpName = cacheGroupName(dir);
+
+                if (req.cacheGroupNames() != null && !req.cacheGroupNames().contains(grpName))
+                    continue;
+
+                if (existing.contains(grpName))
+                    throw new IgniteCheckedException("Unable to restore cache group, it already exists [grp=" +
+                        grpName + ']');
+
+                snpCacheDirs.add(dir);
+            }
+
+            if (req.cacheGroupNames() != null && snpCacheDirs.size() != req.cacheGroupNames().size())
+                throw new IgniteCheckedException("Cache groups not found in the snapshot [snapshot=" +
+                    req.snapshotName() + ", grps=" + req.cacheGroupNames() + ']');
+        }
+        catch (IgniteCheckedException e) {
+            return new GridFinishedFuture<>(e);
+        }
+
+        GridFutureAdapter<SnapshotRestoreResponse> fut = new GridFutureAdapter<>();
+
+        snpRunner.execute(() -> {
+            try {
+                fut.onDone(copyFromSnapshot(req, snpCacheDirs, chain));
+            }
+            catch (Throwable e) {
+                U.error(log, "Local snapshot restore has failed [name=" + req.snapshotName() + ']', e);
+
+                fut.onDone(e);
+            }
+        });
+
+        return fut;
+    }
+
+    /**
+     * @param req Snapshot restore request.
+     * @param snpCacheDirs Snapshot cache directories to restore.
+     * @param chain Restored snapshot and the previous snapshots it is based on.
+     * @return Configurations of the restored caches.
+     * @throws IgniteCheckedException If failed.
+     * @throws IOException If failed.
+     */
+    private SnapshotRestoreResponse copyFromSnapshot(
+        SnapshotOperationRequest req,
+        List<File> snpCacheDirs,
+        List<SnapshotMetadata> chain
+    ) throws IgniteCheckedException, IOException {
+        FilePageStoreManager storeMgr = (FilePageStoreManager)cctx.pageStore();
+
+        File nodeSnpDir = snapshotLocalDir(req.snapshotName());
+
+        List<StoredCacheData> ccfgs = new ArrayList<>();
+
+        for (File snpCacheDir : snpCacheDirs) {
+            File[] cfgs = snpCacheDir.listFiles(f -> f.isFile() && f.getName().endsWith(CACHE_DATA_FILENAME));
+
+            for (File cfg : F.asList(cfgs)) {
+                StoredCacheData cacheData = storeMgr.readCacheData(cfg);
+
+                if (cacheData.config().isEncryptionEnabled())
+                    throw new IgniteCheckedException("Restore of encrypted caches is not supported [cache=" +
+                        cacheData.config().getName() + ']');
+
+                ccfgs.add(cacheData);
+            }
+        }
+
+        List<File> restored = locDirs.computeIfAbsent(req.requestId(), k -> new ArrayList<>());
+
+        for (File snpCacheDir : snpCacheDirs) {
+            File cacheDir = new File(storeMgr.workDir(), snpCacheDir.getName());
+
+            if (cacheDir.exists() && !F.isEmpty(cacheDir.list()))
+                throw new IgniteCheckedException("Unable to restore cache group, the cache directory is not empty " +
+                    "[dir=" + cacheDir.getAbsolutePath() + ']');
+
+            U.ensureDirectory(cacheDir, "cache directory", log);
+
+            restored.add(cacheDir);
+
+            // The lock file makes the node remove an incomplete cache directory on restart.
+            File lockFile = new File(cacheDir, SNAPSHOT_RESTORE_STARTED_LOCK_FILENAME);
+
+            if (!lockFile.createNewFile())
+                throw new IgniteCheckedException("Failed to create snapshot restore lock file: " + lockFile);
+
+            File[] files = snpCacheDir.listFiles(File::isFile);
+
+            for (File file : F.asList(files)) {
+                String name = file.getName();
+
+                if (name.endsWith(INC_SUFFIX)) {
+                    restorePartition(chain, snpCacheDir.getName(), name.substring(0, name.length() -
+                        INC_SUFFIX.length()), cacheDir);
+                }
+                else
+                    U.copy(file, new File(cacheDir, name), false);
+            }
+
+            U.delete(lockFile);
+        }
+
+        // Marshaller mappings are read from the files on demand, so only the missing ones are copied.
+        File snpMappingDir = new File(nodeSnpDir, MARSHALLER_DIR);
+        File mappingDir = marshallerMappingDirectory(cctx.kernalContext());
+
+        for (File file : F.asList(snpMappingDir.listFiles(File::isFile))) {
+            File dst = new File(mappingDir, file.getName());
+
+            if (!dst.exists())
+                U.copy(file, dst, false);
+        }
+
+        Map<Integer, BinaryMetadata> metas = new HashMap<>();
+
+        GridKernalContext kctx = cctx.kernalContext();
+
+        for (File file : F.asList(new File(nodeSnpDir, BINARY_META_DIR).listFiles(File::isFile))) {
+            try (InputStream in = new FileInputStream(file)) {
+                BinaryMetadata meta = U.unmarshal(kctx.config().getMarshaller(), in,
+                    U.resolveClassLoader(kctx.config()));
+
+                metas.put(meta.typeId(), meta);
+            }
+        }
+
+        if (log.isInfoEnabled()) {
+            log.info("Cache groups have been copied from the local snapshot [name=" + req.snapshotName() +
+                ", dirs=" + restored + ']');
+        }
+
+        return new SnapshotRestoreResponse(ccfgs, metas);
+    }
+
+    /**
+     * Restores the partition file from the chain of snapshots. The partition file is copied from the latest snapshot
+     * which contains the whole file, then partition increments of the subsequent snapshots are applied to it.
+     *
+     * @param chain Restored snapshot and the previous snapshots it is based on.
+     * @param cacheDirName Cache directory name.
+     * @param partFileName Partition file name.
+     * @param cacheDir Cache directory to restore the partition file to.
+     * @throws IgniteCheckedException If failed.
+     * @throws IOException If failed.
+     */
+    private void restorePartition(
+        List<SnapshotMetadata> chain,
+        String cacheDirName,
+        String partFileName,
+        File cacheDir
+    ) throws IgniteCheckedException, IOException {
+        int grpId = CU.cacheId(cacheGroupName(new File(cacheDirName)));
+        int partId = partFileName.equals(INDEX_FILE_NAME) ? PageIdAllocator.INDEX_PARTITION :
+            Integer.parseInt(partFileName.substring(PART_FILE_PREFIX.length(),
+                partFileName.length() - FILE_SUFFIX.length()));
+
+        int base = -1;
+
+        for (int i = 0; i < chain.size() && base < 0; i++) {
+            File snpCacheDir = new File(snapshotLocalDir(chain.get(i).snapshotName()), cacheDirName);
+
+            if (new File(snpCacheDir, partFileName).exists())
+                base = i;
+            else if (!new File(snpCacheDir, partFileName + INC_SUFFIX).exists())
+                break;
+        }
+
+        if (base < 0)
+            throw new IgniteCheckedException("Partition file not found in the previous snapshots [snapshot=" +
+                chain.get(0).snapshotName() + ", dir=" + cacheDirName + ", part=" + partFileName + ']');
+
+        File full = new File(new File(snapshotLocalDir(chain.get(base).snapshotName()), cacheDirName), partFileName);
+        File dst = new File(cacheDir, partFileName);
+
+        U.copy(full, dst, false);
+
+        Integer basePages = chain.get(base).partitionPages(grpId, partId);
+
+        if (basePages == null)
+            throw new IgniteCheckedException("Partition is not found in the snapshot metadata [snapshot=" +
+                chain.get(base).snapshotName() + ", dir=" + cacheDirName + ", part=" + partFileName + ']');
+
+        int pageSize = chain.get(base).pageSize();
+
+        long hdrSize = full.length() - (long)basePages * pageSize;
+
+        ByteBuffer buf = ByteBuffer.allocateDirect(Integer.BYTES + pageSize).order(ByteOrder.nativeOrder());
+
+        FileIOFactory ioFactory = cctx.gridConfig().getDataStorageConfiguration().getFileIOFactory();
+
+        try (FileIO out = ioFactory.create(dst)) {
+            for (int i = base - 1; i >= 0; i--) {
+                SnapshotMetadata meta = chain.get(i);
+
+                Integer pages = meta.partitionPages(grpId, partId);
+
+                if (pages == null)
+                    throw new IgniteCheckedException("Partition is not found in the snapshot metadata [snapshot=" +
+                        meta.snapshotName() + ", dir=" + cacheDirName + ", part=" + partFileName + ']');
+
+                long len = hdrSize + (long)pages * pageSize;
+
+                // The partition could be recreated with the less number of pages since the previous snapshot.
+                if (out.size() > len) {
+                    try (FileChannel ch = FileChannel.open(dst.toPath(), StandardOpenOption.WRITE)) {
+                        ch.truncate(len);
+                    }
+                }
+
+                File inc = new File(new File(snapshotLocalDir(meta.snapshotName()), cacheDirName),
+                    partFileName + INC_SUFFIX);
+
+                try (FileIO in = ioFactory.create(inc, StandardOpenOption.READ)) {
+                    long size = in.size();
+
+                    for (long pos = 0; pos < size; pos += buf.capacity()) {
+                        buf.clear();
+
+                        in.readFully(buf, pos);
+
+                        buf.flip();
+
+                        int pageIdx = buf.getInt();
+
+                        out.writeFully(buf, hdrSize + (long)pageIdx * pageSize);
+                    }
+                }
+            }
+
+            out.force();
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Partition has been restored from the snapshot increments [snapshot=" +
+                chain.get(0).snapshotName() + ", dir=" + cacheDirName + ", part=" + partFileName +
+                ", base=" + chain.get(base).snapshotName() + ", increments=" + base + ']');
+        }
+    }
+
+    /**
+     * @param reqId Request ID.
+     * @param res Results.
+     * @param err Errors.
+     */
+    private void finishRestore(UUID reqId, Map<UUID, SnapshotRestoreResponse> res, Map<UUID, Exception> err) {
+        List<File> dirs = locDirs.remove(reqId);
+
+        if (!err.isEmpty() && dirs != null)
+            dirs.forEach(U::delete);
+
+        GridFutureAdapter<Void> fut = clusterOpFuts.remove(reqId);
+
+        if (fut == null)
+            return;
+
+        if (!err.isEmpty()) {
+            fut.onDone(new IgniteCheckedException("Snapshot restore has failed on nodes: " + err.keySet(),
+                F.first(err.values())));
+
+            return;
+        }
+
+        Map<String, StoredCacheData> ccfgs = new HashMap<>();
+        Map<Integer, BinaryMetadata> metas = new HashMap<>();
+
+        for (SnapshotRestoreResponse resp : res.values()) {
+            if (resp == null)
+                continue;
+
+            for (StoredCacheData cacheData : resp.cacheConfigurations())
+                ccfgs.putIfAbsent(cacheData.config().getName(), cacheData);
+
+            metas.putAll(resp.binaryMetadata());
+        }
+
+        // Metadata registration and cache start wait for discovery messages, so they are done out of discovery thread.
+        cctx.kernalContext().closure().runLocalSafe(() -> {
+            try {
+                CacheObjectBinaryProcessorImpl binProc =
+                    (CacheObjectBinaryProcessorImpl)cctx.kernalContext().cacheObjects();
+
+                for (BinaryMetadata meta : metas.values()) {
+                    BinaryType type = meta.wrap(binProc.binaryContext());
+
+                    binProc.addMeta(meta.typeId(), type, false);
+                }
+
+                if (ccfgs.isEmpty()) {
+                    fut.onDone();
+
+                    return;
+                }
+
+                cctx.cache().dynamicStartCachesByStoredConf(ccfgs.values(), true, false, false, null, false)
+                    .listen(f -> {
+                        try {
+                            f.get();
+
+                            fut.onDone();
+                        }
+                        catch (IgniteCheckedException e) {
+                            fut.onDone(e);
+                        }
+                    });
+            }
+            catch (Throwable e) {
+                fut.onDone(e);
+            }
+        });
+    }
+
+    /**
+     * @param nodeSnpDir Local snapshot directory.
+     * @return Local snapshot metadata.
+     * @throws IgniteCheckedException If failed.
+     */
+    private SnapshotMetadata readMetadata(File nodeSnpDir) throws IgniteCheckedException {
+        File metaFile = new File(nodeSnpDir, SNAPSHOT_METAFILE_NAME);
+
+        if (!metaFile.exists())
+            throw new IgniteCheckedException("Snapshot metadata not found, the snapshot is incomplete: " + metaFile);
+
+        try (InputStream in = new FileInputStream(metaFile)) {
+            return U.unmarshal(marsh, in, U.resolveClassLoader(cctx.gridConfig()));
+        }
+        catch (IOException e) {
+            throw new IgniteCheckedException("Failed to read snapshot metadata: " + metaFile, e);
+        }
+    }
+
+    /**
+     * @param meta Local snapshot metadata.
+     * @return Given local snapshot followed by the previous snapshots it is based on up to the full snapshot.
+     * @throws IgniteCheckedException If failed.
+     */
+    private List<SnapshotMetadata> snapshotChain(SnapshotMetadata meta) throws IgniteCheckedException {
+        List<SnapshotMetadata> chain = new ArrayList<>();
+
+        Set<String> names = new HashSet<>();
+
+        while (true) {
+            if (!names.add(meta.snapshotName()))
+                throw new IgniteCheckedException("Snapshot is based on itself [snapshot=" + meta.snapshotName() + ']');
+
+            chain.add(meta);
+
+            if (meta.baseSnapshotName() == null)
+                return chain;
+
+            File baseDir = snapshotLocalDir(meta.baseSnapshotName());
+
+            if (!baseDir.isDirectory())
+                throw new IgniteCheckedException("Previous snapshot of the incremental snapshot not found " +
+                    "[snapshot=" + meta.snapshotName() + ", prev=" + meta.baseSnapshotName() + ']');
+
+            meta = readMetadata(baseDir);
+        }
+    }
+
+    /**
+     * @param cacheDir Cache directory.
+     * @return Cache group name.
+     */
+    private static String cacheGroupName(File cacheDir) {
+        String name = cacheDir.getName();
+
+        return name.startsWith(CACHE_GRP_DIR_PREFIX) ? name.substring(CACHE_GRP_DIR_PREFIX.length()) :
+            name.substring(CACHE_DIR_PREFIX.length());
+    }
+
+    /**
+     * Cancels the current local snapshot task.
+     */
+    private void cancelLocalSnapshot() {
+        SnapshotFutureTask task = curTask.get();
+
+        if (task != null)
+            task.cancel();
+    }
+
     /**
      * Try to start local snapshot operation if it's required by discovery event.
      *
@@ -55,7 +1131,22 @@ public class IgniteCacheSnapshotManager<T extends SnapshotOperation> extends Gri
     @Nullable public IgniteInternalFuture tryStartLocalSnapshotOperation(
             @Nullable DiscoveryEvent discoveryEvt, AffinityTopologyVersion topVer
     ) throws IgniteCheckedException {
-        return null;
+        if (!(discoveryEvt instanceof DiscoveryCustomEvent))
+            return null;
+
+        DiscoveryCustomMessage msg = ((DiscoveryCustomEvent)discoveryEvt).customMessage();
+
+        if (!(msg instanceof SnapshotStartDiscoveryMessage))
+            return null;
+
+        SnapshotOperationRequest req = ((SnapshotStartDiscoveryMessage)msg).request();
+
+        SnapshotFutureTask task = curTask.get();
+
+        if (task == null || !task.request().requestId().equals(req.requestId()))
+            return null;
+
+        return task.start();
     }
 
     /**
@@ -82,9 +1173,46 @@ public class IgniteCacheSnapshotManager<T extends SnapshotOperation> extends Gri
         CheckpointRecord cpRec,
         PartitionAllocationMap map
     ) throws IgniteCheckedException {
+        SnapshotFutureTask task = curTask.get();
+
+        if (task != null && task.request() == snapshotOperation) {
+            task.onMarkCheckpointBegin(map, nextSnpTag);
+
+            if (!task.request().partitionCopy()) {
+                // Pages changed after the snapshot checkpoint belong to the next snapshot.
+                nextSnpTag++;
+
+                trackedGrps.addAll(task.request().cacheGroupIds());
+            }
+        }
+        else
+            releasePartitions(map);
+
         return null;
     }
 
+    /**
+     * Releases partitions reserved by the checkpoint for the snapshot which is not executed anymore.
+     *
+     * @param map Reserved partitions.
+     */
+    private void releasePartitions(PartitionAllocationMap map) {
+        map.prepareForSnapshot();
+
+        for (GroupPartitionId grpPartId : map.keySet()) {
+            if (grpPartId.getPartitionId() == PageIdAllocator.INDEX_PARTITION)
+                continue;
+
+            CacheGroupContext grp = cctx.cache().cacheGroup(grpPartId.getGroupId());
+
+            GridDhtLocalPartition part = grp == null ? null :
+                grp.topology().localPartition(grpPartId.getPartitionId());
+
+            if (part != null)
+                part.release();
+        }
+    }
+
     /**
      *
      */
@@ -92,6 +1220,14 @@ public class IgniteCacheSnapshotManager<T extends SnapshotOperation> extends Gri
         return false;
     }
 
+    /**
+     * @param grpId Cache group ID.
+     * @return {@code True} if changes of pages of the group are tracked for the next incremental snapshot.
+     */
+    public boolean pageChangesTracked(int grpId) {
+        return trackedGrps.contains(grpId);
+    }
+
     /**
      *
      */
@@ -115,14 +1251,20 @@ public class IgniteCacheSnapshotManager<T extends SnapshotOperation> extends Gri
      *
      */
     public void afterCheckpointPageWritten() {
-        // No-op.
+        SnapshotFutureTask task = curTask.get();
+
+        if (task != null)
+            task.onCheckpointPagesWritten();
     }
 
     /**
      * @param fullId Full id.
      */
     public void beforePageWrite(FullPageId fullId) {
-        // No-op.
+        SnapshotFutureTask task = curTask.get();
+
+        if (task != null)
+            task.beforePageWrite(fullId);
     }
 
     /**
@@ -138,18 +1280,85 @@ public class IgniteCacheSnapshotManager<T extends SnapshotOperation> extends Gri
      * @param destroy Destroy flag.
      */
     public void onCacheGroupStop(CacheGroupContext gctx, boolean destroy) {
-        // No-op.
+        List<SnapshotFutureTask> tasks;
+
+        synchronized (copyMux) {
+            tasks = new ArrayList<>(pendingCopies);
+        }
+
+        SnapshotFutureTask cur = curTask.get();
+
+        if (cur != null)
+            tasks.add(cur);
+
+        for (SnapshotFutureTask task : tasks) {
+            if (!task.containsGroup(gctx.groupId()))
+                continue;
+
+            task.onDone(new IgniteCheckedException("Cache group has been stopped during the snapshot operation " +
+                "[grp=" + gctx.cacheOrGroupName() + ", snapshot=" + task.request().snapshotName() + ']'));
+        }
+
+        if (destroy) {
+            trackedGrps.remove(gctx.groupId());
+            lastSnps.remove(gctx.groupId());
+        }
     }
 
     /**
+     * Marks the page as changed since the last snapshot in the tracking page the page belongs to. Invoked when a
+     * clean page becomes dirty or a new page is allocated.
      *
+     * @param page Page pointer.
+     * @param fullId Full page ID.
+     * @param pageMem Page memory.
+     * @throws IgniteCheckedException If failed.
      */
     public void onChangeTrackerPage(
         Long page,
         FullPageId fullId,
         PageMemory pageMem
     ) throws IgniteCheckedException {
-        // No-op.
+        int grpId = fullId.groupId();
+        long pageId = fullId.pageId();
+
+        if (!trackedGrps.contains(grpId) || PageIdUtils.pageIndex(pageId) == 0)
+            return;
+
+        int pageSize = pageMem.realPageSize(grpId);
+
+        long trackingPageId = trackingIO.trackingPageFor(pageId, pageSize);
+
+        if (PageIdUtils.pageIndex(trackingPageId) == PageIdUtils.pageIndex(pageId))
+            return;
+
+        SnapshotMetadata lastSnp = lastSnps.get(grpId);
+
+        long lastTag = lastSnp == null ? 0 : lastSnp.tag();
+        long nextTag = nextSnpTag;
+
+        long trackingPage = pageMem.acquirePage(grpId, trackingPageId);
+
+        try {
+            long trackingAddr = pageMem.writeLock(grpId, trackingPageId, trackingPage);
+
+            assert trackingAddr != 0L : U.hexLong(trackingPageId);
+
+            try {
+                trackingIO.markChanged(pageMem.pageBuffer(trackingAddr), pageId, nextTag, lastTag, pageSize);
+
+                IgniteWriteAheadLogManager wal = cctx.wal();
+
+                if (PageHandler.isWalDeltaRecordNeeded(pageMem, grpId, trackingPageId, trackingPage, wal, null))
+                    wal.log(new TrackingPageDeltaRecord(grpId, trackingPageId, pageId, nextTag, lastTag));
+            }
+            finally {
+                pageMem.writeUnlock(grpId, trackingPageId, trackingPage, null, true);
+            }
+        }
+        finally {
+            pageMem.releasePage(grpId, trackingPageId, trackingPage);
+        }
     }
 
     /** {@inheritDoc} */
@@ -159,7 +1368,7 @@ public class IgniteCacheSnapshotManager<T extends SnapshotOperation> extends Gri
 
     /** {@inheritDoc} */
     @Override public void onDeActivate(GridKernalContext kctx) {
-        // No-op.
+        cancelLocalSnapshot();
     }
 
     /**
@@ -168,4 +1377,25 @@ public class IgniteCacheSnapshotManager<T extends SnapshotOperation> extends Gri
     public boolean needTxReadLogging() {
         return false;
     }
+
+    /**
+     * @param kctx Kernal context.
+     * @return Binary metadata directory of the local node.
+     * @throws IgniteCheckedException If failed.
+     */
+    static File binaryMetadataDirectory(GridKernalContext kctx) throws IgniteCheckedException {
+        return new File(U.resolveWorkDirectory(kctx.config().getWorkDirectory(),
+            DataStorageConfiguration.DFLT_BINARY_METADATA_PATH, false),
+            kctx.pdsFolderResolver().resolveFolders().folderName());
+    }
+
+    /**
+     * @param kctx Kernal context.
+     * @return Marshaller mappings directory.
+     * @throws IgniteCheckedException If failed.
+     */
+    static File marshallerMappingDirectory(GridKernalContext kctx) throws IgniteCheckedException {
+        return U.resolveWorkDirectory(kctx.config().getWorkDirectory(), DataStorageConfiguration.DFLT_MARSHALLER_PATH,
+            false);
+    }
 }
@@ -0,0 +1,919 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.IgniteLogger;
+import org.apache.ignite.internal.IgniteFutureCancelledCheckedException;
+import org.apache.ignite.internal.IgniteInternalFuture;
+import org.apache.ignite.internal.pagemem.FullPageId;
+import org.apache.ignite.internal.pagemem.PageIdAllocator;
+import org.apache.ignite.internal.pagemem.PageIdUtils;
+import org.apache.ignite.internal.processors.cache.CacheGroupContext;
+import org.apache.ignite.internal.processors.cache.GridCacheSharedContext;
+import org.apache.ignite.internal.processors.cache.distributed.dht.topology.GridDhtLocalPartition;
+import org.apache.ignite.internal.processors.cache.persistence.GridCacheDatabaseSharedManager;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileIO;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileIOFactory;
+import org.apache.ignite.internal.processors.cache.persistence.file.FilePageStore;
+import org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager;
+import org.apache.ignite.internal.processors.cache.persistence.partstate.GroupPartitionId;
+import org.apache.ignite.internal.processors.cache.persistence.partstate.PartitionAllocationMap;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.PageIO;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.TrackingPageIO;
+import org.apache.ignite.internal.util.future.GridFutureAdapter;
+import org.apache.ignite.internal.util.typedef.internal.S;
+import org.apache.ignite.internal.util.typedef.internal.U;
+import org.apache.ignite.marshaller.Marshaller;
+import org.jetbrains.annotations.Nullable;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager.CACHE_DATA_FILENAME;
+
+/**
+ * Local snapshot of cache groups partition files.
+ * <p>
+ * The task is driven by a checkpoint:
+ * <ol>
+ *  <li>The checkpoint with the snapshot operation collects partitions of snapshotted cache groups and reserves them
+ *  under the checkpoint write lock, see {@link #onMarkCheckpointBegin(PartitionAllocationMap)}.</li>
+ *  <li>When all pages of the checkpoint are written and synced the partition files contain the consistent state,
+ *  so the task starts copying them, see {@link #onCheckpointPagesWritten()}.</li>
+ *  <li>Each page which is going to be overwritten in the partition file while it is being copied is saved to the
+ *  partition delta file before the write, see {@link #beforePageWrite(FullPageId)}.</li>
+ *  <li>When the partition file is copied, the saved original pages are applied to the copy over the pages which
+ *  might have been changed during the copying.</li>
+ * </ol>
+ */
+class SnapshotFutureTask extends GridFutureAdapter<Boolean> {
+    /** Partition delta file suffix. */
+    static final String DELTA_SUFFIX = ".delta";
+
+    /** Suffix of the partition file increment which contains pages changed since the previous snapshot. */
+    static final String INC_SUFFIX = ".inc";
+
+    /** Size of the buffer used to copy partition files. */
+    private static final int COPY_BUF_SIZE = 1024 * 1024;
+
+    /** Shared context. */
+    private final GridCacheSharedContext<?, ?> cctx;
+
+    /** Logger. */
+    private final IgniteLogger log;
+
+    /** Snapshot operation request. */
+    private final SnapshotOperationRequest req;
+
+    /** Local snapshot directory of the node. */
+    private final File nodeSnpDir;
+
+    /** Factory to provide I/O interfaces for read/write operations with files. */
+    private final FileIOFactory ioFactory;
+
+    /** Marshaller to store snapshot metadata. */
+    private final Marshaller marsh;
+
+    /** Executor to copy partition files. */
+    private final Executor exec;
+
+    /** Previous snapshot of the cache groups if only changed pages must be copied. */
+    @Nullable private final SnapshotMetadata baseMeta;
+
+    /** Snapshot tag, pages changed since the previous snapshot are tracked with this tag. */
+    private volatile long tag;
+
+    /** Metadata of the created snapshot. */
+    private volatile SnapshotMetadata meta;
+
+    /** Page size. */
+    private final int pageSize;
+
+    /** Thread local buffer to read a page with its index before the page is written. */
+    private final ThreadLocal<ByteBuffer> deltaBuf;
+
+    /** Partitions to copy. */
+    private final Map<GroupPartitionId, PartitionSnapshotContext> parts = new ConcurrentHashMap<>();
+
+    /** Partitions are collected by the snapshot checkpoint. */
+    private volatile boolean marked;
+
+    /** Copying of partition files is started. */
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    /** Page writes interception is enabled. */
+    private volatile boolean copying;
+
+    /**
+     * @param cctx Shared context.
+     * @param req Snapshot operation request.
+     * @param nodeSnpDir Local snapshot directory of the node.
+     * @param ioFactory Factory to provide I/O interfaces for read/write operations with files.
+     * @param marsh Marshaller to store snapshot metadata.
+     * @param exec Executor to copy partition files.
+     * @param baseMeta Previous snapshot of the cache groups if only changed pages must be copied.
+     */
+    SnapshotFutureTask(
+        GridCacheSharedContext<?, ?> cctx,
+        SnapshotOperationRequest req,
+        File nodeSnpDir,
+        FileIOFactory ioFactory,
+        Marshaller marsh,
+        Executor exec,
+        @Nullable SnapshotMetadata baseMeta
+    ) {
+        this.cctx = cctx;
+        this.req = req;
+        this.nodeSnpDir = nodeSnpDir;
+        this.ioFactory = ioFactory;
+        this.marsh = marsh;
+        this.exec = exec;
+        this.baseMeta = baseMeta;
+
+        log = cctx.logger(SnapshotFutureTask.class);
+        pageSize = cctx.gridConfig().getDataStorageConfiguration().getPageSize();
+        deltaBuf = ThreadLocal.withInitial(() ->
+            ByteBuffer.allocateDirect(Integer.BYTES + pageSize).order(ByteOrder.nativeOrder()));
+    }
+
+    /**
+     * @return Snapshot operation request.
+     */
+    SnapshotOperationRequest request() {
+        return req;
+    }
+
+    /**
+     * @return Local snapshot directory of the node.
+     */
+    File snapshotDirectory() {
+        return nodeSnpDir;
+    }
+
+    /**
+     * @return Metadata of the created snapshot or {@code null} if the snapshot has not been created yet.
+     */
+    @Nullable SnapshotMetadata metadata() {
+        return meta;
+    }
+
+    /**
+     * Forces the checkpoint which will start this snapshot.
+     *
+     * @return Future which is completed when the snapshot checkpoint has released the checkpoint write lock.
+     */
+    IgniteInternalFuture<?> start() {
+        return ((GridCacheDatabaseSharedManager)cctx.database()).getCheckpointer().wakeupForSnapshotCreation(req);
+    }
+
+    /**
+     * Collects partitions to copy. Called under the checkpoint write lock.
+     *
+     * @param map Partitions which were reserved by the checkpoint for the snapshot.
+     * @param tag Snapshot tag, pages changed since the previous snapshot are tracked with this tag.
+     * @throws IgniteCheckedException If failed.
+     */
+    void onMarkCheckpointBegin(PartitionAllocationMap map, long tag) throws IgniteCheckedException {
+        this.tag = tag;
+
+        map.prepareForSnapshot();
+
+        FilePageStoreManager storeMgr = (FilePageStoreManager)cctx.pageStore();
+
+        for (GroupPartitionId grpPartId : map.keySet()) {
+            if (!req.cacheGroupIds().contains(grpPartId.getGroupId()))
+                continue;
+
+            if (req.partitionCopy() &&
+                !req.partitions().get(grpPartId.getGroupId()).contains(grpPartId.getPartitionId())) {
+                // All partitions of the group are reserved by the checkpoint.
+                releasePartition(grpPartId);
+
+                continue;
+            }
+
+            FilePageStore store = (FilePageStore)storeMgr.getStore(grpPartId.getGroupId(), grpPartId.getPartitionId());
+
+            // Page allocation is not possible under the checkpoint write lock, so the number of pages is fixed.
+            parts.put(grpPartId, new PartitionSnapshotContext(grpPartId, store.getPath().toFile(), store.headerSize(),
+                store.pages()));
+        }
+
+        marked = true;
+
+        // Reservations must be released if the task has been completed before the checkpoint.
+        if (isDone()) {
+            for (PartitionSnapshotContext partCtx : parts.values())
+                partCtx.close();
+        }
+    }
+
+    /**
+     * Starts copying partition files. Called when all pages of the snapshot checkpoint are written.
+     */
+    void onCheckpointPagesWritten() {
+        if (!marked || isDone() || !started.compareAndSet(false, true))
+            return;
+
+        copying = true;
+
+        exec.execute(this::copy);
+    }
+
+    /**
+     * Saves the original page to the partition delta file if the partition is being copied.
+     *
+     * @param fullId Full page ID of the page which is going to be written.
+     */
+    void beforePageWrite(FullPageId fullId) {
+        if (!copying)
+            return;
+
+        PartitionSnapshotContext partCtx = parts.get(
+            new GroupPartitionId(fullId.groupId(), PageIdUtils.partId(fullId.pageId())));
+
+        if (partCtx == null)
+            return;
+
+        try {
+            partCtx.saveOriginalPage(PageIdUtils.pageIndex(fullId.pageId()));
+        }
+        catch (IOException | IgniteCheckedException e) {
+            onDone(new IgniteCheckedException("Failed to save original page to the partition delta file " +
+                "[snapshot=" + req.snapshotName() + ", part=" + partCtx.grpPartId + ']', e));
+        }
+    }
+
+    /**
+     * @param grpId Cache group ID.
+     * @return {@code True} if the given cache group is included to this snapshot.
+     */
+    boolean containsGroup(int grpId) {
+        return req.cacheGroupIds().contains(grpId);
+    }
+
+    /**
+     * Copies partition files, cache configurations and binary metadata to the snapshot directory. Only partition
+     * files are copied for the partition copy request.
+     */
+    private void copy() {
+        try {
+            U.ensureDirectory(nodeSnpDir, "snapshot directory", log);
+
+            Map<Integer, Set<Integer>> snpParts = new HashMap<>();
+
+            Set<File> cacheDirs = new HashSet<>();
+
+            Map<Integer, Map<Integer, Integer>> partPages = new HashMap<>();
+
+            int incParts = 0;
+
+            // Groups without local partitions are stored too, since the snapshot is their base for the next increment.
+            for (Integer grpId : req.cacheGroupIds()) {
+                if (cctx.cache().cacheGroup(grpId) != null)
+                    partPages.put(grpId, new HashMap<>());
+            }
+
+            for (PartitionSnapshotContext partCtx : parts.values()) {
+                if (isDone())
+                    return;
+
+                File dstDir = new File(nodeSnpDir, partCtx.src.getParentFile().getName());
+
+                if (cacheDirs.add(partCtx.src.getParentFile()))
+                    U.ensureDirectory(dstDir, "snapshot cache directory", log);
+
+                int grpId = partCtx.grpPartId.getGroupId();
+                int partId = partCtx.grpPartId.getPartitionId();
+
+                partPages.computeIfAbsent(grpId, k -> new HashMap<>()).put(partId, partCtx.pages);
+
+                try {
+                    Integer prevPages = incrementalBase(grpId, partId);
+
+                    boolean copied = false;
+
+                    if (prevPages != null) {
+                        File inc = new File(dstDir, partCtx.src.getName() + INC_SUFFIX);
+
+                        try {
+                            copied = partCtx.copyIncremental(inc, prevPages, baseMeta.tag());
+
+                            incParts++;
+                        }
+                        catch (TrackingPageIsCorruptedException e) {
+                            U.delete(inc);
+
+                            U.warn(log, "Tracking pages of the partition are not valid, the partition file will be " +
+                                "copied entirely [snapshot=" + req.snapshotName() + ", part=" + partCtx.grpPartId + ']');
+
+                            prevPages = null;
+                        }
+                    }
+
+                    if (prevPages == null)
+                        copied = partCtx.copy(new File(dstDir, partCtx.src.getName()));
+
+                    if (copied)
+                        snpParts.computeIfAbsent(grpId, k -> new HashSet<>()).add(partId);
+                }
+                finally {
+                    partCtx.close();
+                }
+            }
+
+            if (req.partitionCopy()) {
+                if (log.isInfoEnabled()) {
+                    log.info("Local partitions have been copied [dir=" + nodeSnpDir.getAbsolutePath() +
+                        ", parts=" + req.partitions() + ']');
+                }
+
+                onDone(true);
+
+                return;
+            }
+
+            for (File cacheDir : cacheDirs)
+                copyCacheConfigurations(cacheDir, new File(nodeSnpDir, cacheDir.getName()));
+
+            copyBinaryMetadata();
+
+            writeMetadata(snpParts, partPages);
+
+            if (log.isInfoEnabled()) {
+                log.info("Local snapshot has been created [name=" + req.snapshotName() +
+                    ", dir=" + nodeSnpDir.getAbsolutePath() + ", parts=" + parts.size() +
+                    ", incParts=" + incParts + ", base=" + (baseMeta == null ? null : baseMeta.snapshotName()) + ']');
+            }
+
+            onDone(true);
+        }
+        catch (Throwable e) {
+            onDone(e);
+        }
+    }
+
+    /**
+     * @param grpId Cache group ID.
+     * @param partId Partition ID.
+     * @return Number of pages of the partition in the previous snapshot if only changed pages of the partition can
+     * be copied, {@code null} if the partition must be copied entirely.
+     */
+    @Nullable private Integer incrementalBase(int grpId, int partId) {
+        if (baseMeta == null)
+            return null;
+
+        CacheGroupContext grp = cctx.cache().cacheGroup(grpId);
+
+        // Pages of encrypted partitions can't be read without decryption, so their tracking pages are not checked.
+        if (grp == null || grp.config().isEncryptionEnabled())
+            return null;
+
+        Integer prevPages = baseMeta.partitionPages(grpId, partId);
+
+        return prevPages == null || prevPages == 0 ? null : prevPages;
+    }
+
+    /**
+     * @param cacheDir Cache directory.
+     * @param dstDir Snapshot cache directory.
+     * @throws IOException If failed.
+     */
+    private void copyCacheConfigurations(File cacheDir, File dstDir) throws IOException {
+        File[] cfgs = cacheDir.listFiles(f -> f.isFile() && f.getName().endsWith(CACHE_DATA_FILENAME));
+
+        if (cfgs == null)
+            return;
+
+        for (File cfg : cfgs)
+            U.copy(cfg, new File(dstDir, cfg.getName()), true);
+    }
+
+    /**
+     * Copies binary metadata and marshaller mappings of the node.
+     *
+     * @throws IgniteCheckedException If failed.
+     * @throws IOException If failed.
+     */
+    private void copyBinaryMetadata() throws IgniteCheckedException, IOException {
+        File binaryMetaDir = IgniteCacheSnapshotManager.binaryMetadataDirectory(cctx.kernalContext());
+
+        if (binaryMetaDir.exists())
+            U.copy(binaryMetaDir, new File(nodeSnpDir, IgniteCacheSnapshotManager.BINARY_META_DIR), true);
+
+        File mappingDir = IgniteCacheSnapshotManager.marshallerMappingDirectory(cctx.kernalContext());
+
+        if (mappingDir.exists())
+            U.copy(mappingDir, new File(nodeSnpDir, IgniteCacheSnapshotManager.MARSHALLER_DIR), true);
+    }
+
+    /**
+     * @param snpParts Map of cache group ID to the set of copied partitions.
+     * @param partPages Map of cache group ID to the number of pages of each partition.
+     * @throws IgniteCheckedException If failed.
+     * @throws IOException If failed.
+     */
+    private void writeMetadata(
+        Map<Integer, Set<Integer>> snpParts,
+        Map<Integer, Map<Integer, Integer>> partPages
+    ) throws IgniteCheckedException, IOException {
+        SnapshotMetadata meta = new SnapshotMetadata(
+            req.snapshotName(),
+            cctx.kernalContext().pdsFolderResolver().resolveFolders().consistentId().toString(),
+            nodeSnpDir.getName(),
+            pageSize,
+            snpParts,
+            tag,
+            baseMeta == null ? null : baseMeta.snapshotName(),
+            partPages
+        );
+
+        try (OutputStream out = new BufferedOutputStream(
+            new FileOutputStream(new File(nodeSnpDir, IgniteCacheSnapshotManager.SNAPSHOT_METAFILE_NAME)))) {
+            U.marshal(marsh, meta, out);
+        }
+
+        this.meta = meta;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean cancel() {
+        return onDone(new IgniteFutureCancelledCheckedException("Snapshot operation has been cancelled " +
+            "[snapshot=" + req.snapshotName() + ']'));
+    }
+
+    /** {@inheritDoc} */
+    @Override protected boolean onDone(@Nullable Boolean res, @Nullable Throwable err, boolean cancel) {
+        copying = false;
+
+        for (PartitionSnapshotContext partCtx : parts.values())
+            partCtx.close();
+
+        if (err != null) {
+            U.delete(nodeSnpDir);
+
+            U.error(log, "Local snapshot has failed [name=" + req.snapshotName() + ']', err);
+        }
+
+        return super.onDone(res, err, cancel);
+    }
+
+    /**
+     * Releases the partition reservation made by the snapshot checkpoint.
+     *
+     * @param grpPartId Cache group and partition ID.
+     */
+    private void releasePartition(GroupPartitionId grpPartId) {
+        if (grpPartId.getPartitionId() == PageIdAllocator.INDEX_PARTITION)
+            return;
+
+        CacheGroupContext grp = cctx.cache().cacheGroup(grpPartId.getGroupId());
+
+        if (grp == null)
+            return;
+
+        GridDhtLocalPartition part = grp.topology().localPartition(grpPartId.getPartitionId());
+
+        if (part != null)
+            part.release();
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(SnapshotFutureTask.class, this);
+    }
+
+    /**
+     * Copy state of a single partition file.
+     */
+    private class PartitionSnapshotContext {
+        /** Cache group and partition ID. */
+        private final GroupPartitionId grpPartId;
+
+        /** Partition file. */
+        private final File src;
+
+        /** Partition file header size. */
+        private final int hdrSize;
+
+        /** Number of pages in the partition file at the moment of the snapshot checkpoint. */
+        private final int pages;
+
+        /** Lock which guards delta file against closing while the original page is being saved. */
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        /** Flag indicates that the partition reservation has been released. */
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        /** Position of the next record in the delta file. */
+        private final AtomicLong deltaPos = new AtomicLong();
+
+        /** Bit set of page indexes which were already saved to the delta file. */
+        private volatile AtomicLongArray saved;
+
+        /** Partition file I/O to read original pages. */
+        private FileIO srcIo;
+
+        /** Delta file. */
+        private File delta;
+
+        /** Delta file I/O. */
+        private FileIO deltaIo;
+
+        /** Interception of page writes has been finished. */
+        private boolean closed;
+
+        /**
+         * @param grpPartId Cache group and partition ID.
+         * @param src Partition file.
+         * @param hdrSize Partition file header size.
+         * @param pages Number of pages in the partition file at the moment of the snapshot checkpoint.
+         */
+        private PartitionSnapshotContext(GroupPartitionId grpPartId, File src, int hdrSize, int pages) {
+            this.grpPartId = grpPartId;
+            this.src = src;
+            this.hdrSize = hdrSize;
+            this.pages = pages;
+        }
+
+        /**
+         * @param pageIdx Index of the page which is going to be written.
+         * @throws IOException If failed.
+         * @throws IgniteCheckedException If failed.
+         */
+        private void saveOriginalPage(int pageIdx) throws IOException, IgniteCheckedException {
+            if (pageIdx >= pages || !markSaved(pageIdx))
+                return;
+
+            lock.readLock().lock();
+
+            try {
+                if (closed)
+                    return;
+
+                initDelta();
+
+                ByteBuffer buf = deltaBuf.get();
+
+                buf.clear();
+                buf.putInt(pageIdx);
+
+                srcIo.readFully(buf, hdrSize + (long)pageIdx * pageSize);
+
+                buf.flip();
+
+                deltaIo.writeFully(buf, deltaPos.getAndAdd(buf.capacity()));
+            }
+            finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * @param pageIdx Page index.
+         * @return {@code True} if the page has not been saved yet and the caller is responsible to save it.
+         */
+        private boolean markSaved(int pageIdx) {
+            AtomicLongArray saved = this.saved;
+
+            if (saved == null) {
+                synchronized (this) {
+                    if ((saved = this.saved) == null)
+                        this.saved = saved = new AtomicLongArray((pages + Long.SIZE - 1) / Long.SIZE);
+                }
+            }
+
+            int idx = pageIdx / Long.SIZE;
+            long mask = 1L << (pageIdx % Long.SIZE);
+
+            while (true) {
+                long bits = saved.get(idx);
+
+                if ((bits & mask) != 0)
+                    return false;
+
+                if (saved.compareAndSet(idx, bits, bits | mask))
+                    return true;
+            }
+        }
+
+        /**
+         * @throws IOException If failed.
+         * @throws IgniteCheckedException If failed.
+         */
+        private synchronized void initDelta() throws IOException, IgniteCheckedException {
+            if (deltaIo != null)
+                return;
+
+            File dstDir = new File(nodeSnpDir, src.getParentFile().getName());
+
+            U.ensureDirectory(dstDir, "snapshot cache directory", log);
+
+            delta = new File(dstDir, src.getName() + DELTA_SUFFIX);
+
+            srcIo = ioFactory.create(src, READ);
+            deltaIo = ioFactory.create(delta);
+        }
+
+        /**
+         * Copies the partition file and applies the saved original pages to the copy.
+         *
+         * @param dst Partition file copy.
+         * @return {@code True} if the partition file has been copied, {@code false} if the partition has no file.
+         * @throws IOException If failed.
+         * @throws IgniteCheckedException If failed.
+         */
+        private boolean copy(File dst) throws IOException, IgniteCheckedException {
+            if (!src.exists() || pages == 0)
+                return false;
+
+            long len = hdrSize + (long)pages * pageSize;
+
+            ByteBuffer buf = ByteBuffer.allocateDirect(COPY_BUF_SIZE).order(ByteOrder.nativeOrder());
+
+            try (FileIO in = ioFactory.create(src, READ); FileIO out = ioFactory.create(dst)) {
+                for (long pos = 0; pos < len; pos += buf.capacity()) {
+                    if (isDone())
+                        return false;
+
+                    buf.clear();
+                    buf.limit((int)Math.min(buf.capacity(), len - pos));
+
+                    in.readFully(buf, pos);
+
+                    buf.flip();
+
+                    out.writeFully(buf, pos);
+                }
+
+                stopInterception();
+
+                applyDelta(out, null);
+
+                out.force();
+            }
+
+            return true;
+        }
+
+        /**
+         * Copies pages of the partition which were changed since the previous snapshot to the partition increment.
+         * The increment consists of records {@code [page index, page]} sorted by the page index. Partition meta page
+         * and tracking pages are always copied.
+         *
+         * @param dst Partition increment.
+         * @param prevPages Number of pages of the partition in the previous snapshot.
+         * @param prevTag Tag of the previous snapshot.
+         * @return {@code True} if the partition increment has been created, {@code false} if the partition has no file.
+         * @throws TrackingPageIsCorruptedException If tracking pages can't be used to find changed pages.
+         * @throws IOException If failed.
+         * @throws IgniteCheckedException If failed.
+         */
+        private boolean copyIncremental(
+            File dst,
+            int prevPages,
+            long prevTag
+        ) throws TrackingPageIsCorruptedException, IOException, IgniteCheckedException {
+            if (!src.exists() || pages == 0)
+                return false;
+
+            TrackingPageIO io = TrackingPageIO.VERSIONS.latest();
+
+            int trackCnt = io.countOfPageToTrack(pageSize);
+
+            int partId = grpPartId.getPartitionId();
+
+            byte flag = partId == PageIdAllocator.INDEX_PARTITION ? PageIdAllocator.FLAG_IDX : PageIdAllocator.FLAG_DATA;
+
+            BitSet idxs = new BitSet(pages);
+
+            // Partition meta page is not tracked, new pages are copied in any case.
+            idxs.set(0);
+            idxs.set(Math.min(prevPages, pages), pages);
+
+            try (FileIO in = ioFactory.create(src, READ)) {
+                Map<Integer, ByteBuffer> trackPages = new HashMap<>();
+
+                for (int idx = TrackingPageIO.COUNT_OF_EXTRA_PAGE; idx < pages; idx += trackCnt) {
+                    ByteBuffer buf = ByteBuffer.allocate(pageSize).order(ByteOrder.nativeOrder());
+
+                    in.readFully(buf, hdrSize + (long)idx * pageSize);
+
+                    trackPages.put(idx, buf);
+
+                    idxs.set(idx);
+                }
+
+                // Tracking pages could be overwritten after the snapshot checkpoint, their original state is used.
+                readSaved(trackPages);
+
+                for (Map.Entry<Integer, ByteBuffer> e : trackPages.entrySet()) {
+                    int trackIdx = e.getKey();
+                    ByteBuffer buf = e.getValue();
+
+                    int limit = (int)Math.min((long)trackIdx + trackCnt, Math.min(prevPages, pages));
+
+                    if (trackIdx + 1 >= limit)
+                        continue;
+
+                    if (PageIO.getType(buf) != PageIO.T_PAGE_UPDATE_TRACKING)
+                        throw TrackingPageIsCorruptedException.INSTANCE;
+
+                    for (int idx = trackIdx + 1; idx < limit; ) {
+                        Long changed = io.findNextChangedPage(buf, PageIdUtils.pageId(partId, flag, idx), tag, prevTag,
+                            pageSize);
+
+                        if (changed == null || PageIdUtils.pageIndex(changed) >= limit)
+                            break;
+
+                        idx = PageIdUtils.pageIndex(changed);
+
+                        idxs.set(idx++);
+                    }
+                }
+
+                int[] sorted = idxs.stream().toArray();
+
+                ByteBuffer buf = ByteBuffer.allocateDirect(Integer.BYTES + pageSize).order(ByteOrder.nativeOrder());
+
+                try (FileIO out = ioFactory.create(dst)) {
+                    for (int i = 0; i < sorted.length; i++) {
+                        if (isDone())
+                            return false;
+
+                        buf.clear();
+                        buf.putInt(sorted[i]);
+
+                        in.readFully(buf, hdrSize + (long)sorted[i] * pageSize);
+
+                        buf.flip();
+
+                        out.writeFully(buf, (long)i * buf.capacity());
+                    }
+
+                    stopInterception();
+
+                    applyDelta(out, sorted);
+
+                    out.force();
+                }
+
+                if (log.isDebugEnabled()) {
+                    log.debug("Partition increment has been created [part=" + grpPartId + ", pages=" + pages +
+                        ", copied=" + sorted.length + ']');
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * Reads original versions of the given pages from the delta file. The pages which were not overwritten yet
+         * can't be overwritten before their original versions are saved, so they are not changed.
+         *
+         * @param pages Map of page index to the page buffer to update.
+         * @throws IOException If failed.
+         */
+        private void readSaved(Map<Integer, ByteBuffer> pages) throws IOException {
+            lock.writeLock().lock();
+
+            try {
+                if (deltaIo == null)
+                    return;
+
+                ByteBuffer idxBuf = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.nativeOrder());
+
+                long size = deltaPos.get();
+
+                for (long pos = 0; pos < size; pos += Integer.BYTES + pageSize) {
+                    idxBuf.clear();
+
+                    deltaIo.readFully(idxBuf, pos);
+
+                    ByteBuffer buf = pages.get(idxBuf.getInt(0));
+
+                    if (buf != null) {
+                        buf.clear();
+
+                        deltaIo.readFully(buf, pos + Integer.BYTES);
+                    }
+                }
+            }
+            finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Stops saving of the original pages to the delta file.
+         */
+        private void stopInterception() {
+            lock.writeLock().lock();
+
+            try {
+                closed = true;
+            }
+            finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * @param out Partition file copy or partition increment.
+         * @param idxs Sorted page indexes stored in the partition increment or {@code null} if the whole partition
+         * file is copied.
+         * @throws IOException If failed.
+         */
+        private void applyDelta(FileIO out, @Nullable int[] idxs) throws IOException {
+            if (deltaIo == null)
+                return;
+
+            ByteBuffer buf = ByteBuffer.allocateDirect(Integer.BYTES + pageSize).order(ByteOrder.nativeOrder());
+
+            long size = deltaPos.get();
+
+            for (long pos = 0; pos < size; pos += buf.capacity()) {
+                buf.clear();
+
+                deltaIo.readFully(buf, pos);
+
+                buf.flip();
+
+                int pageIdx = buf.getInt();
+
+                if (idxs == null)
+                    out.writeFully(buf, hdrSize + (long)pageIdx * pageSize);
+                else {
+                    int i = Arrays.binarySearch(idxs, pageIdx);
+
+                    if (i >= 0) {
+                        buf.rewind();
+
+                        out.writeFully(buf, (long)i * buf.capacity());
+                    }
+                }
+            }
+
+            if (log.isDebugEnabled()) {
+                log.debug("Partition delta has been applied to the snapshot [part=" + grpPartId +
+                    ", pages=" + size / buf.capacity() + ']');
+            }
+        }
+
+        /**
+         * Stops page writes interception, removes the delta file and releases the partition reservation.
+         */
+        private void close() {
+            lock.writeLock().lock();
+
+            try {
+                closed = true;
+
+                U.closeQuiet(srcIo);
+                U.closeQuiet(deltaIo);
+
+                if (delta != null)
+                    U.delete(delta);
+            }
+            finally {
+                lock.writeLock().unlock();
+            }
+
+            if (released.compareAndSet(false, true))
+                releasePartition(grpPartId);
+        }
+    }
+}
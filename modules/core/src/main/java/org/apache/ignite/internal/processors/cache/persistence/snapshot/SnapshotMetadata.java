@@ -0,0 +1,161 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.ignite.internal.processors.cache.persistence.snapshot;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Set;
+import org.apache.ignite.internal.util.tostring.GridToStringInclude;
+import org.apache.ignite.internal.util.typedef.internal.S;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Local snapshot metadata, stored next to the copied partition files of each node.
+ */
+public class SnapshotMetadata implements Serializable {
+    /** Serial version uid. */
+    private static final long serialVersionUID = 0L;
+
+    /** Snapshot name. */
+    private final String snpName;
+
+    /** Consistent ID of the node which has created the snapshot. */
+    private final String consId;
+
+    /** Node persistence folder name. */
+    private final String folderName;
+
+    /** Page size of the snapshot partition files. */
+    private final int pageSize;
+
+    /** Map of cache group ID to the set of partitions stored in the snapshot. */
+    @GridToStringInclude
+    private final Map<Integer, Set<Integer>> parts;
+
+    /** Snapshot tag which was used to track the pages changed since the previous snapshot. */
+    private final long tag;
+
+    /** Name of the previous snapshot this incremental snapshot is based on, {@code null} for a full snapshot. */
+    @Nullable private final String baseSnpName;
+
+    /** Map of cache group ID to the number of pages of each partition at the moment of the snapshot. */
+    private final Map<Integer, Map<Integer, Integer>> partPages;
+
+    /**
+     * @param snpName Snapshot name.
+     * @param consId Consistent ID of the node which has created the snapshot.
+     * @param folderName Node persistence folder name.
+     * @param pageSize Page size of the snapshot partition files.
+     * @param parts Map of cache group ID to the set of partitions stored in the snapshot.
+     * @param tag Snapshot tag which was used to track the pages changed since the previous snapshot.
+     * @param baseSnpName Name of the previous snapshot this incremental snapshot is based on.
+     * @param partPages Map of cache group ID to the number of pages of each partition.
+     */
+    public SnapshotMetadata(
+        String snpName,
+        String consId,
+        String folderName,
+        int pageSize,
+        Map<Integer, Set<Integer>> parts,
+        long tag,
+        @Nullable String baseSnpName,
+        Map<Integer, Map<Integer, Integer>> partPages
+    ) {
+        this.snpName = snpName;
+        this.consId = consId;
+        this.folderName = folderName;
+        this.pageSize = pageSize;
+        this.parts = parts;
+        this.tag = tag;
+        this.baseSnpName = baseSnpName;
+        this.partPages = partPages;
+    }
+
+    /**
+     * @return Snapshot name.
+     */
+    public String snapshotName() {
+        return snpName;
+    }
+
+    /**
+     * @return Consistent ID of the node which has created the snapshot.
+     */
+    public String consistentId() {
+        return consId;
+    }
+
+    /**
+     * @return Node persistence folder name.
+     */
+    public String folderName() {
+        return folderName;
+    }
+
+    /**
+     * @return Page size of the snapshot partition files.
+     */
+    public int pageSize() {
+        return pageSize;
+    }
+
+    /**
+     * @return Map of cache group ID to the set of partitions stored in the snapshot.
+     */
+    public Map<Integer, Set<Integer>> partitions() {
+        return parts;
+    }
+
+    /**
+     * @return IDs of cache groups included to the snapshot, including the groups without local partitions.
+     */
+    public Set<Integer> cacheGroupIds() {
+        return partPages.keySet();
+    }
+
+    /**
+     * @return Snapshot tag which was used to track the pages changed since the previous snapshot.
+     */
+    public long tag() {
+        return tag;
+    }
+
+    /**
+     * @return Name of the previous snapshot this incremental snapshot is based on, {@code null} for a full snapshot.
+     */
+    @Nullable public String baseSnapshotName() {
+        return baseSnpName;
+    }
+
+    /**
+     * @param grpId Cache group ID.
+     * @param partId Partition ID.
+     * @return Number of pages of the partition at the moment of the snapshot or {@code null} if the partition is not
+     * stored in the snapshot.
+     */
+    @Nullable public Integer partitionPages(int grpId, int partId) {
+        Map<Integer, Integer> grpPages = partPages.get(grpId);
+
+        return grpPages == null ? null : grpPages.get(partId);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(SnapshotMetadata.class, this);
+    }
+}
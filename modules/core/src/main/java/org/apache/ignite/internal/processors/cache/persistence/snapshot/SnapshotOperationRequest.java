@@ -0,0 +1,184 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.ignite.internal.processors.cache.persistence.snapshot;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.apache.ignite.internal.util.tostring.GridToStringInclude;
+import org.apache.ignite.internal.util.typedef.internal.S;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Snapshot operation request which is sent to all cluster nodes to start creation or restore of a snapshot.
+ */
+public class SnapshotOperationRequest implements SnapshotOperation {
+    /** Serial version uid. */
+    private static final long serialVersionUID = 0L;
+
+    /** Request ID. */
+    private final UUID reqId;
+
+    /** Initiator node ID. */
+    private final UUID srcNodeId;
+
+    /** Snapshot name. */
+    private final String snpName;
+
+    /** Cache group IDs included to this snapshot. */
+    @GridToStringInclude
+    private final Set<Integer> grpIds;
+
+    /** Cache group names included to this snapshot. */
+    @GridToStringInclude
+    private final Set<String> grpNames;
+
+    /** Cache names included to this snapshot. */
+    @GridToStringInclude
+    private final Set<String> cacheNames;
+
+    /** Only pages changed since the previous snapshot of the cache groups must be copied. */
+    private final boolean incremental;
+
+    /**
+     * Partitions to copy by cache group IDs, {@code null} for a snapshot. Copies of partitions are not snapshots:
+     * they include only partition files and don't affect incremental snapshots.
+     */
+    @GridToStringInclude
+    @Nullable private final Map<Integer, Set<Integer>> parts;
+
+    /**
+     * @param reqId Request ID.
+     * @param srcNodeId Initiator node ID.
+     * @param snpName Snapshot name.
+     * @param grpIds Cache group IDs included to this snapshot.
+     * @param grpNames Cache group names included to this snapshot.
+     * @param cacheNames Cache names included to this snapshot.
+     * @param incremental Only pages changed since the previous snapshot of the cache groups must be copied.
+     */
+    public SnapshotOperationRequest(
+        UUID reqId,
+        UUID srcNodeId,
+        String snpName,
+        Set<Integer> grpIds,
+        Set<String> grpNames,
+        Set<String> cacheNames,
+        boolean incremental
+    ) {
+        this(reqId, srcNodeId, snpName, grpIds, grpNames, cacheNames, incremental, null);
+    }
+
+    /**
+     * @param reqId Request ID.
+     * @param srcNodeId Initiator node ID.
+     * @param snpName Snapshot name.
+     * @param grpIds Cache group IDs included to this snapshot.
+     * @param grpNames Cache group names included to this snapshot.
+     * @param cacheNames Cache names included to this snapshot.
+     * @param incremental Only pages changed since the previous snapshot of the cache groups must be copied.
+     * @param parts Partitions to copy by cache group IDs, {@code null} for a snapshot.
+     */
+    public SnapshotOperationRequest(
+        UUID reqId,
+        UUID srcNodeId,
+        String snpName,
+        Set<Integer> grpIds,
+        Set<String> grpNames,
+        Set<String> cacheNames,
+        boolean incremental,
+        @Nullable Map<Integer, Set<Integer>> parts
+    ) {
+        this.reqId = reqId;
+        this.srcNodeId = srcNodeId;
+        this.snpName = snpName;
+        this.grpIds = grpIds;
+        this.grpNames = grpNames;
+        this.cacheNames = cacheNames;
+        this.incremental = incremental;
+        this.parts = parts;
+    }
+
+    /**
+     * @return Request ID.
+     */
+    public UUID requestId() {
+        return reqId;
+    }
+
+    /**
+     * @return Initiator node ID.
+     */
+    public UUID sourceNodeId() {
+        return srcNodeId;
+    }
+
+    /**
+     * @return Snapshot name.
+     */
+    public String snapshotName() {
+        return snpName;
+    }
+
+    /**
+     * @return Cache group names included to this snapshot.
+     */
+    public Set<String> cacheGroupNames() {
+        return grpNames;
+    }
+
+    /**
+     * @return {@code True} if only pages changed since the previous snapshot of the cache groups must be copied.
+     */
+    public boolean incremental() {
+        return incremental;
+    }
+
+    /**
+     * @return Partitions to copy by cache group IDs, {@code null} for a snapshot.
+     */
+    @Nullable public Map<Integer, Set<Integer>> partitions() {
+        return parts;
+    }
+
+    /**
+     * @return {@code True} if only partition files must be copied.
+     */
+    public boolean partitionCopy() {
+        return parts != null;
+    }
+
+    /** {@inheritDoc} */
+    @Override public Set<Integer> cacheGroupIds() {
+        return grpIds;
+    }
+
+    /** {@inheritDoc} */
+    @Override public Set<String> cacheNames() {
+        return cacheNames;
+    }
+
+    /** {@inheritDoc} */
+    @Override public Object extraParameter() {
+        return snpName;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(SnapshotOperationRequest.class, this);
+    }
+}
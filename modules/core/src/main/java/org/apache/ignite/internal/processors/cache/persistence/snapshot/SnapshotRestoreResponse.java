@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.snapshot;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import org.apache.ignite.internal.binary.BinaryMetadata;
+import org.apache.ignite.internal.processors.cache.StoredCacheData;
+import org.apache.ignite.internal.util.typedef.internal.S;
+
+/**
+ * Result of the local snapshot restore: configurations of the restored caches and the binary metadata of the
+ * snapshot which are required to start the restored caches.
+ */
+public class SnapshotRestoreResponse implements Serializable {
+    /** Serial version uid. */
+    private static final long serialVersionUID = 0L;
+
+    /** Configurations of the restored caches. */
+    private final List<StoredCacheData> ccfgs;
+
+    /** Binary metadata of the snapshot. */
+    private final Map<Integer, BinaryMetadata> metas;
+
+    /**
+     * @param ccfgs Configurations of the restored caches.
+     * @param metas Binary metadata of the snapshot.
+     */
+    public SnapshotRestoreResponse(List<StoredCacheData> ccfgs, Map<Integer, BinaryMetadata> metas) {
+        this.ccfgs = ccfgs;
+        this.metas = metas;
+    }
+
+    /**
+     * @return Configurations of the restored caches.
+     */
+    public List<StoredCacheData> cacheConfigurations() {
+        return ccfgs;
+    }
+
+    /**
+     * @return Binary metadata of the snapshot.
+     */
+    public Map<Integer, BinaryMetadata> binaryMetadata() {
+        return metas;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(SnapshotRestoreResponse.class, this);
+    }
+}
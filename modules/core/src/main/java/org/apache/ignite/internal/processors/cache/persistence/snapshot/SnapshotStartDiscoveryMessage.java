@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.ignite.internal.processors.cache.persistence.snapshot;
+
+import java.util.UUID;
+import org.apache.ignite.internal.managers.discovery.DiscoCache;
+import org.apache.ignite.internal.managers.discovery.GridDiscoveryManager;
+import org.apache.ignite.internal.processors.affinity.AffinityTopologyVersion;
+import org.apache.ignite.internal.util.distributed.DistributedProcess.DistributedProcessType;
+import org.apache.ignite.internal.util.distributed.InitMessage;
+import org.apache.ignite.internal.util.typedef.internal.S;
+
+/**
+ * Initial message of the snapshot creation process. Triggers partition map exchange, so the snapshot checkpoint is
+ * started on each node when all cache operations are completed and new ones are blocked.
+ */
+public class SnapshotStartDiscoveryMessage extends InitMessage<SnapshotOperationRequest>
+    implements SnapshotDiscoveryMessage {
+    /** Serial version uid. */
+    private static final long serialVersionUID = 0L;
+
+    /**
+     * @param processId Process id.
+     * @param req Snapshot operation request.
+     */
+    public SnapshotStartDiscoveryMessage(UUID processId, SnapshotOperationRequest req) {
+        super(processId, DistributedProcessType.START_SNAPSHOT, req);
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean needExchange() {
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean needAssignPartitions() {
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override public DiscoCache createDiscoCache(GridDiscoveryManager mgr, AffinityTopologyVersion topVer,
+        DiscoCache discoCache) {
+        return mgr.createDiscoCacheOnCacheChange(topVer, discoCache);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(SnapshotStartDiscoveryMessage.class, this, super.toString());
+    }
+}
@@ -81,6 +81,7 @@ import org.apache.ignite.lang.IgniteInClosure;
 import org.jetbrains.annotations.Nullable;
 
 import static org.apache.ignite.IgniteSystemProperties.IGNITE_BPLUS_TREE_LOCK_RETRIES;
+import static org.apache.ignite.IgniteSystemProperties.IGNITE_BPLUS_TREE_OPTIMISTIC_READS;
 import static org.apache.ignite.internal.processors.cache.persistence.tree.BPlusTree.Bool.DONE;
 import static org.apache.ignite.internal.processors.cache.persistence.tree.BPlusTree.Bool.FALSE;
 import static org.apache.ignite.internal.processors.cache.persistence.tree.BPlusTree.Bool.READY;
@@ -216,6 +217,9 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
     /** */
     private static final Object[] EMPTY = {};
 
+    /** Number of rows collected by a cursor of {@link #removeRange} before they are removed. */
+    private static final int REMOVE_RANGE_BATCH_SIZE = 512;
+
     /** Wrapper for tree pages operations. Noop by default. Override for test purposes. */
     public static PageHandlerWrapper<Result> testHndWrapper = null;
 
@@ -235,6 +239,16 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
     private static final int LOCK_RETRIES = IgniteSystemProperties.getInteger(
         IGNITE_BPLUS_TREE_LOCK_RETRIES, IGNITE_BPLUS_TREE_LOCK_RETRIES_DEFAULT);
 
+    /** @see IgniteSystemProperties#IGNITE_BPLUS_TREE_OPTIMISTIC_READS */
+    public static final boolean DFLT_BPLUS_TREE_OPTIMISTIC_READS = false;
+
+    /** Result of {@link #compareOptimistic} if the row can't be compared without the lock. */
+    protected static final int NEED_ROW = Integer.MIN_VALUE;
+
+    /** Whether inner pages are searched without taking the read lock. */
+    private static final boolean OPTIMISTIC_READS = IgniteSystemProperties.getBoolean(
+        IGNITE_BPLUS_TREE_OPTIMISTIC_READS, DFLT_BPLUS_TREE_OPTIMISTIC_READS);
+
     /** */
     private final AtomicBoolean destroyed = new AtomicBoolean(false);
 
@@ -524,6 +538,8 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
 
             p.replaceRowInPage(io, pageId, page, pageAddr, idx);
 
+            p.putBatchToLeaf(pageId, page, pageAddr, io);
+
             p.finish();
 
             return FOUND;
@@ -572,8 +588,12 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
 
                 assert p.rightId != 0;
             }
-            else
+            else {
+                if (lvl == 0)
+                    p.putBatchToLeaf(pageId, page, pageAddr, io);
+
                 p.finish();
+            }
 
             return FOUND;
         }
@@ -650,6 +670,8 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
 
             r.removeDataRowFromLeaf(leafId, leafPage, leafAddr, null, io, cnt, idx);
 
+            r.removeBatchFromLeaf(leafId, leafPage, leafAddr, io);
+
             return FOUND;
         }
     }
@@ -852,12 +874,16 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
             // Safe cast because we should never recycle meta page until the tree is destroyed.
             BPlusMetaIO io = (BPlusMetaIO)iox;
 
+            long flags = metaPageFlags();
+
             io.initRoot(pageAddr, rootId, pageSize());
             io.setInlineSize(pageAddr, inlineSize);
-            io.initFlagsAndVersion(pageAddr, BPlusMetaIO.DEFAULT_FLAGS, IgniteVersionUtils.VER);
+            io.initFlagsAndVersion(pageAddr, flags, IgniteVersionUtils.VER);
 
-            if (needWalDeltaRecord(metaId, metaPage, walPlc))
-                wal.log(new MetaPageInitRootInlineFlagsCreatedVersionRecord(cacheId, metaId, rootId, inlineSize));
+            if (needWalDeltaRecord(metaId, metaPage, walPlc)) {
+                wal.log(new MetaPageInitRootInlineFlagsCreatedVersionRecord(cacheId, metaId, rootId, inlineSize,
+                    flags, IgniteVersionUtils.VER));
+            }
 
             assert io.getRootLevel(pageAddr) == 0;
             assert io.getFirstPageId(pageAddr, 0) == rootId;
@@ -1037,6 +1063,13 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
         }
     }
 
+    /**
+     * @return Flags written to the meta page of a new tree.
+     */
+    protected long metaPageFlags() {
+        return BPlusMetaIO.DEFAULT_FLAGS;
+    }
+
     /**
      * @return Tree meta data.
      * @throws IgniteCheckedException If failed.
@@ -1573,7 +1606,7 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
                 g.pageId = pageId;
                 g.fwdId = fwdId;
 
-                Result res = read(pageId, page, search, g, lvl, RETRY);
+                Result res = search(pageId, page, g, lvl);
 
                 switch (res) {
                     case GO_DOWN:
@@ -2037,6 +2070,78 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
         return res != null ? res : false;
     }
 
+    /**
+     * Removes the rows. Rows sorted in the tree order are removed with one descent per leaf: the rows of the leaf are
+     * removed under a single write lock of the leaf, only removal of the last row of a leaf requires a separate
+     * descent. Rows in any other order are removed one by one.
+     *
+     * @param rows Lookup rows.
+     * @return Number of removed rows.
+     * @throws IgniteCheckedException If failed.
+     */
+    public final int removeAll(List<? extends L> rows) throws IgniteCheckedException {
+        int rmvd = 0;
+
+        for (int i = 0; i < rows.size(); ) {
+            Remove r = new Remove(rows.get(i), false);
+
+            r.batch = rows;
+            r.batchIdx = i + 1;
+
+            if (doRemove(r) != null)
+                rmvd++;
+
+            rmvd += r.batchRmvd;
+
+            i = r.batchIdx;
+        }
+
+        return rmvd;
+    }
+
+    /**
+     * Removes the rows within the bounds. The rows are collected by a cursor and removed with {@link #removeAll},
+     * so every leaf of the range takes a single descent and the leaves emptied by the removal are merged
+     * and freed as usual.
+     *
+     * @param lower Lower bound inclusive or {@code null} if unbounded.
+     * @param upper Upper bound inclusive or {@code null} if unbounded.
+     * @param x Implementation specific argument of the cursor.
+     * @param limit Maximum number of rows to remove, {@code -1} for no limit.
+     * @return Number of removed rows.
+     * @throws IgniteCheckedException If failed.
+     */
+    public final int removeRange(@Nullable L lower, @Nullable L upper, Object x, int limit)
+        throws IgniteCheckedException {
+        assert limit == -1 || limit >= 0 : limit;
+
+        int rmvd = 0;
+
+        List<L> batch = new ArrayList<>();
+
+        while (limit == -1 || rmvd < limit) {
+            int max = limit == -1 ? REMOVE_RANGE_BATCH_SIZE : Math.min(REMOVE_RANGE_BATCH_SIZE, limit - rmvd);
+
+            // Removal invalidates the cursor, the rest of the range is looked up from the lower bound again.
+            GridCursor<T> cur = find(lower, upper, x);
+
+            while (batch.size() < max && cur.next())
+                batch.add(cur.get());
+
+            if (batch.isEmpty())
+                break;
+
+            rmvd += removeAll(batch);
+
+            if (batch.size() < max)
+                break;
+
+            batch.clear();
+        }
+
+        return rmvd;
+    }
+
     /** {@inheritDoc} */
     @Override public void invoke(L row, Object z, InvokeClosure<T> c) throws IgniteCheckedException {
         checkDestroyed();
@@ -2118,7 +2223,7 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
                 x.fwdId(fwdId);
                 x.backId(backId);
 
-                res = read(pageId, page, search, x, lvl, RETRY);
+                res = search(pageId, page, x, lvl);
 
                 switch (res) {
                     case GO_DOWN_X:
@@ -2195,11 +2300,20 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
      * @throws IgniteCheckedException If failed.
      */
     private T doRemove(L row, boolean needOld) throws IgniteCheckedException {
+        return doRemove(new Remove(row, needOld));
+    }
+
+    /**
+     * @param r Remove operation.
+     * @return Removed row.
+     * @throws IgniteCheckedException If failed.
+     */
+    private T doRemove(Remove r) throws IgniteCheckedException {
         assert !sequentialWriteOptsEnabled;
 
         checkDestroyed();
 
-        Remove r = new Remove(row, needOld);
+        L row = r.row;
 
         try {
             for (;;) {
@@ -2278,7 +2392,7 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
                 r.fwdId = fwdId;
                 r.backId = backId;
 
-                Result res = read(pageId, page, search, r, lvl, RETRY);
+                Result res = search(pageId, page, r, lvl);
 
                 switch (res) {
                     case GO_DOWN_X:
@@ -2548,6 +2662,27 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
         return res != null ? res : false;
     }
 
+    /**
+     * Puts the rows. Rows sorted in the tree order are put with one descent per leaf: the rows of the leaf are
+     * inserted or replaced under a single write lock of the leaf, only a split of the leaf or a replace of its last
+     * row requires a separate descent. Rows in any other order are put one by one.
+     *
+     * @param rows New values.
+     * @throws IgniteCheckedException If failed.
+     */
+    public final void putAll(List<? extends T> rows) throws IgniteCheckedException {
+        for (int i = 0; i < rows.size(); ) {
+            Put p = new Put(rows.get(i), false);
+
+            p.batch = rows;
+            p.batchIdx = i + 1;
+
+            doPut(p);
+
+            i = p.batchIdx;
+        }
+    }
+
     /**
      * @param row New value.
      * @param needOld {@code True} If need return old value.
@@ -2555,9 +2690,18 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
      * @throws IgniteCheckedException If failed.
      */
     private T doPut(T row, boolean needOld) throws IgniteCheckedException {
+        return doPut(new Put(row, needOld));
+    }
+
+    /**
+     * @param p Put operation.
+     * @return Old row.
+     * @throws IgniteCheckedException If failed.
+     */
+    private T doPut(Put p) throws IgniteCheckedException {
         checkDestroyed();
 
-        Put p = new Put(row, needOld);
+        L row = p.row;
 
         try {
             for (;;) { // Go down with retries.
@@ -2922,6 +3066,89 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
         return read(pageId, askNeighbor, g, back ? TRUE.ordinal() : FALSE.ordinal(), RETRY);
     }
 
+    /**
+     * Searches the page for the operation row. Inner pages are read optimistically first, the page is read
+     * under the read lock if it was modified concurrently.
+     *
+     * @param pageId Page ID.
+     * @param page Page pointer.
+     * @param g Operation.
+     * @param lvl Level.
+     * @return Result code.
+     * @throws IgniteCheckedException If failed.
+     */
+    private Result search(long pageId, long page, Get g, int lvl) throws IgniteCheckedException {
+        if (lvl != 0 && optimisticReads()) {
+            Result res = searchOptimistic(pageId, page, g, lvl);
+
+            if (res != null)
+                return res;
+        }
+
+        return read(pageId, page, search, g, lvl, RETRY);
+    }
+
+    /**
+     * Searches the inner page without the lock. Only the page data is read: if the way down can't be found by
+     * {@link #compareOptimistic} or needs anything except the page itself (an exact match, the neighbor page
+     * or the bottom level of the operation), the page must be read under the lock.
+     *
+     * @param pageId Inner page ID.
+     * @param page Page pointer.
+     * @param g Operation.
+     * @param lvl Level.
+     * @return Result code or {@code null} if the page must be read under the lock.
+     */
+    private Result searchOptimistic(long pageId, long page, Get g, int lvl) {
+        if (g.findLast || sequentialWriteOptsEnabled)
+            return null;
+
+        long stamp = pageMem.tryOptimisticRead(grpId, pageId, page);
+
+        if (stamp == 0L)
+            return null;
+
+        long pageAddr = pageMem.optimisticReadAddress(grpId, pageId, page);
+
+        long downId;
+        long fwdId;
+
+        try {
+            // Any of the values below may be inconsistent, so they are checked before the search is done.
+            if (PageIO.getPageId(pageAddr) != pageId || PageIO.getType(pageAddr) != innerIos.getType())
+                return null;
+
+            BPlusInnerIO<L> io = innerIos.forVersion(PageIO.getVersion(pageAddr));
+
+            int cnt = io.getCount(pageAddr);
+
+            if (io.getForward(pageAddr) != g.fwdId || cnt <= 0 || cnt > io.getMaxCount(pageAddr, pageSize()))
+                return null;
+
+            int idx = findInsertionPointOptimistic(io, pageAddr, cnt, g.row, g.shift);
+
+            // Exact match or the right-most way down which needs the forward page.
+            if (idx == NEED_ROW || idx >= 0 || (idx = fix(idx)) == cnt || g.notFound(io, pageAddr, idx, lvl))
+                return null;
+
+            downId = io.getLeft(pageAddr, idx);
+            fwdId = io.getRight(pageAddr, idx);
+        }
+        catch (IgniteCheckedException | RuntimeException | AssertionError ignored) {
+            // The page was read in an inconsistent state or the error will be thrown on the locked read.
+            return null;
+        }
+
+        if (!pageMem.validateOptimisticRead(grpId, pageId, page, stamp))
+            return null;
+
+        g.pageId(downId);
+        g.fwdId(fwdId);
+        g.backId(0L);
+
+        return GO_DOWN;
+    }
+
     /**
      * @param p Put.
      * @param pageId Page ID.
@@ -2944,7 +3171,7 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
                 p.pageId = pageId;
                 p.fwdId = fwdId;
 
-                Result res = read(pageId, page, search, p, lvl, RETRY);
+                Result res = search(pageId, page, p, lvl);
 
                 switch (res) {
                     case GO_DOWN:
@@ -3033,7 +3260,7 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
                 v.pageId = pageId;
                 v.fwdId = fwdId;
 
-                Result res = read(pageId, page, search, v, lvl, RETRY);
+                Result res = search(pageId, page, v, lvl);
 
                 switch (res) {
                     case GO_DOWN:
@@ -3729,6 +3956,12 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
         /** */
         final boolean needOld;
 
+        /** Rows of the batch, {@code null} if a single row is put. */
+        List<? extends T> batch;
+
+        /** Index of the next row of the batch. */
+        int batchIdx;
+
         /**
          * @param row Row.
          * @param needOld {@code True} If need return old value.
@@ -3838,6 +4071,59 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
             addTail(tailId, tailPage, tailPageAddr, io, lvl, Tail.EXACT);
         }
 
+        /**
+         * Puts the next rows of the batch which belong to the write locked leaf. Stops at the first row which
+         * requires a split of the leaf or an update of an inner page, or which may belong to another leaf.
+         *
+         * @param pageId Leaf page ID.
+         * @param page Leaf page pointer.
+         * @param pageAddr Leaf page address.
+         * @param io Leaf IO.
+         * @throws IgniteCheckedException If failed.
+         */
+        private void putBatchToLeaf(long pageId, long page, long pageAddr, BPlusIO<L> io)
+            throws IgniteCheckedException {
+            if (batch == null)
+                return;
+
+            assert io.isLeaf() && invoke == null && !needOld;
+
+            int maxCnt = io.getMaxCount(pageAddr, pageSize());
+
+            // Rows greater than the last row of the leaf belong to it only if it is the rightmost leaf.
+            boolean rightmost = io.getForward(pageAddr) == 0L;
+
+            // Sequential write mode appends to the rightmost leaf only.
+            if (sequentialWriteOptsEnabled && !rightmost)
+                return;
+
+            for (; batchIdx < batch.size(); batchIdx++) {
+                T next = batch.get(batchIdx);
+
+                int cnt = io.getCount(pageAddr);
+                int idx = findInsertionPoint(0, io, pageAddr, 0, cnt, next, 0);
+
+                if (idx >= 0) {
+                    if (canGetRowFromInner && idx + 1 == cnt && !rightmost)
+                        return;
+
+                    row = next;
+
+                    replaceRowInPage(io, pageId, page, pageAddr, idx);
+                }
+                else {
+                    idx = fix(idx);
+
+                    if (cnt == maxCnt || (idx == 0 && cnt != 0) || (idx == cnt && !rightmost))
+                        return;
+
+                    row = next;
+
+                    insertSimple(pageId, page, pageAddr, io, idx, null);
+                }
+            }
+        }
+
         /**
          * Finish put.
          */
@@ -4582,6 +4868,15 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
         /** */
         final boolean needOld;
 
+        /** Rows of the batch, {@code null} if a single row is removed. */
+        List<? extends L> batch;
+
+        /** Index of the next row of the batch. */
+        int batchIdx;
+
+        /** Number of rows of the batch removed together with the row. */
+        int batchRmvd;
+
         /**
          * @param row Row.
          * @param needOld {@code True} If need return old value.
@@ -5037,6 +5332,56 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
             assert isRemoved();
         }
 
+        /**
+         * Removes the next rows of the batch which belong to the write locked leaf. Stops at the first row which
+         * requires a merge of the leaf or an update of an inner page, or which may belong to another leaf.
+         *
+         * @param pageId Leaf page ID.
+         * @param page Leaf page pointer.
+         * @param pageAddr Leaf page address.
+         * @param io Leaf IO.
+         * @throws IgniteCheckedException If failed.
+         */
+        private void removeBatchFromLeaf(long pageId, long page, long pageAddr, BPlusIO<L> io)
+            throws IgniteCheckedException {
+            if (batch == null)
+                return;
+
+            assert io.isLeaf() && !needOld;
+
+            int maxCnt = io.getMaxCount(pageAddr, pageSize());
+
+            boolean rightmost = io.getForward(pageAddr) == 0L;
+
+            for (; batchIdx < batch.size(); batchIdx++) {
+                L next = batch.get(batchIdx);
+
+                int cnt = io.getCount(pageAddr);
+
+                if (cnt == 1 || ((fwdId != 0L || backId != 0L) && mayMerge(cnt - 1, maxCnt)))
+                    return;
+
+                int idx = findInsertionPoint(0, io, pageAddr, 0, cnt, next, 0);
+
+                if (idx < 0) {
+                    idx = fix(idx);
+
+                    // The row is missing in the tree only if it is within the bounds of the leaf.
+                    if (idx == 0 || (idx == cnt && !rightmost))
+                        return;
+
+                    continue;
+                }
+
+                if (canGetRowFromInner && idx == cnt - 1 && !rightmost)
+                    return;
+
+                doRemove(pageId, page, pageAddr, null, io, cnt, idx);
+
+                batchRmvd++;
+            }
+        }
+
         /**
          *
          * @param pageId Page ID.
@@ -5517,6 +5862,46 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
         return -(low + 1);  // Not found.
     }
 
+    /**
+     * Binary search by {@link #compareOptimistic} on a page which is read without the lock.
+     *
+     * @param io IO.
+     * @param buf Buffer.
+     * @param cnt Row count.
+     * @param row Lookup row.
+     * @param shift Shift if equal.
+     * @return Insertion point as in {@link Arrays#binarySearch(Object[], Object, Comparator)} or {@link #NEED_ROW}
+     *      if some row can't be compared without the lock.
+     * @throws IgniteCheckedException If failed.
+     */
+    private int findInsertionPointOptimistic(BPlusIO<L> io, long buf, int cnt, L row, int shift)
+        throws IgniteCheckedException {
+        int low = 0;
+        int high = cnt - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+
+            int cmp = compareOptimistic(io, buf, mid, row);
+
+            if (cmp == NEED_ROW)
+                return NEED_ROW;
+
+            if (cmp == 0)
+                cmp = -shift;
+
+            //noinspection Duplicates
+            if (cmp < 0)
+                low = mid + 1;
+            else if (cmp > 0)
+                high = mid - 1;
+            else
+                return mid; // Found.
+        }
+
+        return -(low + 1);  // Not found.
+    }
+
     /**
      * @param pageAddr Page address.
      * @return IO.
@@ -5583,6 +5968,23 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
         return compare(io, pageAddr, idx, row);
     }
 
+    /**
+     * Compares the lookup row with the inner page row which is read without the lock, so the page data may be
+     * inconsistent. Must not read anything except the given page and must not allocate memory depending on the page
+     * data, e.g. must not follow the row link.
+     *
+     * @param io IO.
+     * @param pageAddr Page address.
+     * @param idx Index of row in the given buffer.
+     * @param row Lookup row.
+     * @return Comparison result as in {@link Comparator#compare(Object, Object)} or {@link #NEED_ROW} if the row
+     *      can't be compared by the page data.
+     * @throws IgniteCheckedException If failed.
+     */
+    protected int compareOptimistic(BPlusIO<L> io, long pageAddr, int idx, L row) throws IgniteCheckedException {
+        return NEED_ROW;
+    }
+
     /**
      * Get a full detached data row.
      *
@@ -6257,6 +6659,13 @@ public abstract class BPlusTree<L, T extends L> extends DataStructure implements
         return LOCK_RETRIES;
     }
 
+    /**
+     * @return {@code True} if inner pages are searched without taking the read lock.
+     */
+    protected boolean optimisticReads() {
+        return OPTIMISTIC_READS;
+    }
+
     /**
      * @param pageId Page ID.
      * @return Page absolute pointer.
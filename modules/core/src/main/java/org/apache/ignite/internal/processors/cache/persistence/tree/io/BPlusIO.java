@@ -84,6 +84,9 @@ public abstract class BPlusIO<L> extends PageIO implements CompactablePageIO {
     /** All the items must be of fixed size. */
     protected final int itemSize;
 
+    /** Offset of the first item, IO specific data may be stored between {@link #ITEMS_OFF} and this offset. */
+    private final int itemsOff;
+
     /**
      * @param type Page type.
      * @param ver Page format version.
@@ -91,14 +94,28 @@ public abstract class BPlusIO<L> extends PageIO implements CompactablePageIO {
      * @param canGetRow If we can get full row from this page.
      */
     protected BPlusIO(int type, int ver, boolean leaf, boolean canGetRow, int itemSize) {
+        this(type, ver, leaf, canGetRow, itemSize, ITEMS_OFF);
+    }
+
+    /**
+     * @param type Page type.
+     * @param ver Page format version.
+     * @param leaf If this is a leaf IO.
+     * @param canGetRow If we can get full row from this page.
+     * @param itemSize Single item size on page.
+     * @param itemsOff Offset of the first item.
+     */
+    protected BPlusIO(int type, int ver, boolean leaf, boolean canGetRow, int itemSize, int itemsOff) {
         super(type, ver);
 
         assert itemSize > 0 : itemSize;
+        assert itemsOff >= ITEMS_OFF : itemsOff;
         assert canGetRow || !leaf : "leaf page always must be able to get full row";
 
         this.leaf = leaf;
         this.canGetRow = canGetRow;
         this.itemSize = itemSize;
+        this.itemsOff = itemsOff;
     }
 
     /**
@@ -108,6 +125,13 @@ public abstract class BPlusIO<L> extends PageIO implements CompactablePageIO {
         return itemSize;
     }
 
+    /**
+     * @return Offset of the first item in bytes.
+     */
+    public final int getItemsOffset() {
+        return itemsOff;
+    }
+
     /** {@inheritDoc} */
     @Override public void initNewPage(long pageAddr, long pageId, int pageSize, PageMetrics metrics) {
         super.initNewPage(pageAddr, pageId, pageSize, metrics);
@@ -26,10 +26,10 @@ import org.apache.ignite.internal.processors.cache.persistence.tree.util.PageHan
  */
 public abstract class BPlusInnerIO<L> extends BPlusIO<L> {
     /** */
-    private static final int SHIFT_LEFT = ITEMS_OFF;
+    private final int SHIFT_LEFT = getItemsOffset();
 
     /** */
-    private static final int SHIFT_LINK = SHIFT_LEFT + 8;
+    private final int SHIFT_LINK = SHIFT_LEFT + 8;
 
     /** */
     private final int SHIFT_RIGHT = SHIFT_LINK + itemSize;
@@ -44,12 +44,23 @@ public abstract class BPlusInnerIO<L> extends BPlusIO<L> {
         super(type, ver, false, canGetRow, itemSize);
     }
 
+    /**
+     * @param type Page type.
+     * @param ver Page format version.
+     * @param canGetRow If we can get full row from this page.
+     * @param itemSize Single item size on page.
+     * @param itemsOff Offset of the first item.
+     */
+    protected BPlusInnerIO(int type, int ver, boolean canGetRow, int itemSize, int itemsOff) {
+        super(type, ver, false, canGetRow, itemSize, itemsOff);
+    }
+
     /** {@inheritDoc} */
     @Override public int getMaxCount(long pageAddr, int pageSize) {
         // The structure of the page is the following:
         // |ITEMS_OFF|w|A|x|B|y|C|z|
         // where capital letters are data items, lowercase letters are 8 byte page references.
-        return (pageSize - ITEMS_OFF - 8) / (getItemSize() + 8);
+        return (pageSize - getItemsOffset() - 8) / (getItemSize() + 8);
     }
 
     /**
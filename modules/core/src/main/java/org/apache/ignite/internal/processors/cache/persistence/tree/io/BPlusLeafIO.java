@@ -32,9 +32,19 @@ public abstract class BPlusLeafIO<L> extends BPlusIO<L> {
         super(type, ver, true, true, itemSize);
     }
 
+    /**
+     * @param type Page type.
+     * @param ver Page format version.
+     * @param itemSize Single item size on page.
+     * @param itemsOff Offset of the first item.
+     */
+    protected BPlusLeafIO(int type, int ver, int itemSize, int itemsOff) {
+        super(type, ver, true, true, itemSize, itemsOff);
+    }
+
     /** {@inheritDoc} */
     @Override public int getMaxCount(long pageAddr, int pageSize) {
-        return (pageSize - ITEMS_OFF) / getItemSize();
+        return (pageSize - getItemsOffset()) / getItemSize();
     }
 
     /** {@inheritDoc} */
@@ -51,6 +61,6 @@ public abstract class BPlusLeafIO<L> extends BPlusIO<L> {
     @Override public final int offset(int idx) {
         assert idx >= 0 : idx;
 
-        return ITEMS_OFF + idx * getItemSize();
+        return getItemsOffset() + idx * getItemSize();
     }
 }
@@ -62,6 +62,9 @@ public class BPlusMetaIO extends PageIO {
     /** */
     private static final long FLAG_DECIMAL_SUPPORTED = 8L;
 
+    /** Tree pages are written by IO versions which compress the inlined keys. */
+    public static final long FLAG_KEY_COMPRESSION = 16L;
+
     /** */
     public static final long DEFAULT_FLAGS = FLAG_UNWRAPPED_PK | FLAG_INLINE_OBJECT_SUPPORTED | FLAG_INLINE_OBJECT_HASH | FLAG_DECIMAL_SUPPORTED;
 
@@ -264,6 +267,16 @@ public class BPlusMetaIO extends PageIO {
         return (flags(pageAddr) & FLAG_DECIMAL_SUPPORTED) != 0L;
     }
 
+    /**
+     * @param pageAddr Page address.
+     * @return {@code true} In case the tree pages are written with compressed keys.
+     */
+    public boolean keyCompression(long pageAddr) {
+        assert supportFlags();
+
+        return (flags(pageAddr) & FLAG_KEY_COMPRESSION) != 0L;
+    }
+
     /**
      * @return {@code true} If flags are supported.
      */
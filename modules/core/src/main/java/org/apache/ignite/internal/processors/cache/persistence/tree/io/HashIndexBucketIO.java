@@ -0,0 +1,234 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.tree.io;
+
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.internal.pagemem.PageUtils;
+import org.apache.ignite.internal.processors.cache.persistence.pagemem.PageMetrics;
+import org.apache.ignite.internal.util.GridStringBuilder;
+
+/**
+ * Page IO for buckets of a cache data hash index. A bucket holds unordered items of cache ID, key hash and
+ * row link. A bucket which can't be split anymore is continued by a chain of overflow pages.
+ */
+public class HashIndexBucketIO extends PageIO {
+    /** */
+    private static final int LOCAL_DEPTH_OFF = COMMON_HEADER_END;
+
+    /** */
+    private static final int CNT_OFF = LOCAL_DEPTH_OFF + 1;
+
+    /** */
+    private static final int NEXT_PAGE_ID_OFF = CNT_OFF + 2;
+
+    /** */
+    private static final int ITEMS_OFF = NEXT_PAGE_ID_OFF + 8;
+
+    /** Item size: cache ID (4 bytes) + hash (4 bytes) + link (8 bytes). */
+    public static final int ITEM_SIZE = 16;
+
+    /** */
+    public static final IOVersions<HashIndexBucketIO> VERSIONS = new IOVersions<>(
+        new HashIndexBucketIO(1)
+    );
+
+    /**
+     * @param ver Page format version.
+     */
+    public HashIndexBucketIO(int ver) {
+        super(T_HASH_INDEX_BUCKET, ver);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void initNewPage(long pageAddr, long pageId, int pageSize, PageMetrics metrics) {
+        super.initNewPage(pageAddr, pageId, pageSize, metrics);
+
+        setLocalDepth(pageAddr, 0);
+        setCount(pageAddr, 0);
+        setNextPageId(pageAddr, 0);
+    }
+
+    /**
+     * @param pageSize Page size without encryption overhead.
+     * @return Maximum number of items in a page.
+     */
+    public int getCapacity(int pageSize) {
+        return (pageSize - ITEMS_OFF) / ITEM_SIZE;
+    }
+
+    /**
+     * @param pageAddr Page address.
+     * @return Number of hash bits shared by all the items of the bucket.
+     */
+    public int getLocalDepth(long pageAddr) {
+        return PageUtils.getByte(pageAddr, LOCAL_DEPTH_OFF);
+    }
+
+    /**
+     * @param pageAddr Page address.
+     * @param depth Number of hash bits shared by all the items of the bucket.
+     */
+    public void setLocalDepth(long pageAddr, int depth) {
+        assert depth >= 0 && depth <= Byte.MAX_VALUE : depth;
+        assertPageType(pageAddr);
+
+        PageUtils.putByte(pageAddr, LOCAL_DEPTH_OFF, (byte)depth);
+    }
+
+    /**
+     * @param pageAddr Page address.
+     * @return Items count.
+     */
+    public int getCount(long pageAddr) {
+        return PageUtils.getShort(pageAddr, CNT_OFF);
+    }
+
+    /**
+     * @param pageAddr Page address.
+     * @param cnt Items count.
+     */
+    public void setCount(long pageAddr, int cnt) {
+        assert cnt >= 0 && cnt <= Short.MAX_VALUE : cnt;
+        assertPageType(pageAddr);
+
+        PageUtils.putShort(pageAddr, CNT_OFF, (short)cnt);
+    }
+
+    /**
+     * @param pageAddr Page address.
+     * @return Next overflow page ID or {@code 0} if it does not exist.
+     */
+    public long getNextPageId(long pageAddr) {
+        return PageUtils.getLong(pageAddr, NEXT_PAGE_ID_OFF);
+    }
+
+    /**
+     * @param pageAddr Page address.
+     * @param pageId Next overflow page ID.
+     */
+    public void setNextPageId(long pageAddr, long pageId) {
+        assertPageType(pageAddr);
+
+        PageUtils.putLong(pageAddr, NEXT_PAGE_ID_OFF, pageId);
+    }
+
+    /**
+     * @param pageAddr Page address.
+     * @param idx Item index.
+     * @return Cache ID.
+     */
+    public int getCacheId(long pageAddr, int idx) {
+        return PageUtils.getInt(pageAddr, offset(idx));
+    }
+
+    /**
+     * @param pageAddr Page address.
+     * @param idx Item index.
+     * @return Key hash.
+     */
+    public int getHash(long pageAddr, int idx) {
+        return PageUtils.getInt(pageAddr, offset(idx) + 4);
+    }
+
+    /**
+     * @param pageAddr Page address.
+     * @param idx Item index.
+     * @return Row link.
+     */
+    public long getLink(long pageAddr, int idx) {
+        return PageUtils.getLong(pageAddr, offset(idx) + 8);
+    }
+
+    /**
+     * @param pageAddr Page address.
+     * @param idx Item index.
+     * @param link Row link.
+     */
+    public void setLink(long pageAddr, int idx, long link) {
+        assertPageType(pageAddr);
+
+        PageUtils.putLong(pageAddr, offset(idx) + 8, link);
+    }
+
+    /**
+     * Appends an item, the caller must check that the page has free space.
+     *
+     * @param pageAddr Page address.
+     * @param cacheId Cache ID.
+     * @param hash Key hash.
+     * @param link Row link.
+     */
+    public void addItem(long pageAddr, int cacheId, int hash, long link) {
+        int cnt = getCount(pageAddr);
+
+        int off = offset(cnt);
+
+        PageUtils.putInt(pageAddr, off, cacheId);
+        PageUtils.putInt(pageAddr, off + 4, hash);
+        PageUtils.putLong(pageAddr, off + 8, link);
+
+        setCount(pageAddr, cnt + 1);
+    }
+
+    /**
+     * Removes an item replacing it with the last item of the page.
+     *
+     * @param pageAddr Page address.
+     * @param idx Item index.
+     */
+    public void removeItem(long pageAddr, int idx) {
+        int cnt = getCount(pageAddr);
+
+        assert idx >= 0 && idx < cnt : idx;
+
+        if (idx != cnt - 1) {
+            int off = offset(idx);
+            int lastOff = offset(cnt - 1);
+
+            PageUtils.putLong(pageAddr, off, PageUtils.getLong(pageAddr, lastOff));
+            PageUtils.putLong(pageAddr, off + 8, PageUtils.getLong(pageAddr, lastOff + 8));
+        }
+
+        setCount(pageAddr, cnt - 1);
+    }
+
+    /**
+     * @param idx Item index.
+     * @return Item offset.
+     */
+    private static int offset(int idx) {
+        return ITEMS_OFF + idx * ITEM_SIZE;
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void printPage(long addr, int pageSize, GridStringBuilder sb) throws IgniteCheckedException {
+        int cnt = getCount(addr);
+
+        sb.a("HashIndexBucket [\n\tlocalDepth=").a(getLocalDepth(addr))
+            .a(",\n\tcount=").a(cnt)
+            .a(",\n\tnextPageId=").appendHex(getNextPageId(addr))
+            .a(",\n\titems={");
+
+        for (int i = 0; i < cnt; i++) {
+            sb.a("\n\t\t[cacheId=").a(getCacheId(addr, i))
+                .a(", hash=").a(getHash(addr, i))
+                .a(", link=").appendHex(getLink(addr, i)).a(']');
+        }
+
+        sb.a("\n\t}\n]");
+    }
+}
@@ -20,6 +20,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.configuration.CacheConfiguration;
 import org.apache.ignite.internal.metric.IndexPageType;
 import org.apache.ignite.internal.metric.IoStatisticsHolder;
 import org.apache.ignite.internal.pagemem.PageIdUtils;
@@ -37,10 +38,12 @@ import org.apache.ignite.internal.processors.cache.persistence.metastorage.Metas
 import org.apache.ignite.internal.processors.cache.persistence.pagemem.PageMetrics;
 import org.apache.ignite.internal.processors.cache.persistence.tree.util.PageHandler;
 import org.apache.ignite.internal.processors.cache.persistence.tree.util.PageLockListener;
+import org.apache.ignite.internal.processors.cache.tree.CacheIdAwareDataInlineLeafIO;
 import org.apache.ignite.internal.processors.cache.tree.CacheIdAwareDataInnerIO;
 import org.apache.ignite.internal.processors.cache.tree.CacheIdAwareDataLeafIO;
 import org.apache.ignite.internal.processors.cache.tree.CacheIdAwarePendingEntryInnerIO;
 import org.apache.ignite.internal.processors.cache.tree.CacheIdAwarePendingEntryLeafIO;
+import org.apache.ignite.internal.processors.cache.tree.DataInlineLeafIO;
 import org.apache.ignite.internal.processors.cache.tree.DataInnerIO;
 import org.apache.ignite.internal.processors.cache.tree.DataLeafIO;
 import org.apache.ignite.internal.processors.cache.tree.PendingEntryInnerIO;
@@ -270,6 +273,9 @@ public abstract class PageIO {
     /** */
     public static final short T_DEFRAG_LINK_MAPPING_LEAF = 35;
 
+    /** */
+    public static final short T_HASH_INDEX_BUCKET = 36;
+
     /** Index for payload == 1. */
     public static final short T_H2_EX_REF_LEAF_START = 10_000;
 
@@ -294,6 +300,20 @@ public abstract class PageIO {
     /** */
     public static final short T_H2_EX_REF_MVCC_INNER_END = T_H2_EX_REF_MVCC_INNER_START + MAX_PAYLOAD_SIZE - 1;
 
+    /** Index for cache data tree leaf with inline size == 1. */
+    public static final short T_DATA_REF_INLINE_LEAF_START = 13_000;
+
+    /** */
+    public static final short T_DATA_REF_INLINE_LEAF_END =
+        T_DATA_REF_INLINE_LEAF_START + CacheConfiguration.MAX_DATA_INLINE_SIZE - 1;
+
+    /** */
+    public static final short T_CACHE_ID_AWARE_DATA_REF_INLINE_LEAF_START = 14_000;
+
+    /** */
+    public static final short T_CACHE_ID_AWARE_DATA_REF_INLINE_LEAF_END =
+        T_CACHE_ID_AWARE_DATA_REF_INLINE_LEAF_START + CacheConfiguration.MAX_DATA_INLINE_SIZE - 1;
+
     // Gridgain specific codes.
     // Note: Ignite doesn't use negative types, so we can safely reserve them.
 
@@ -732,6 +752,9 @@ public abstract class PageIO {
             case T_MARKER_PAGE:
                 return (Q)MarkerPageIO.VERSIONS.forVersion(ver);
 
+            case T_HASH_INDEX_BUCKET:
+                return (Q)HashIndexBucketIO.VERSIONS.forVersion(ver);
+
             default:
                 if (testIO != null) {
                     if (testIO.type == type && testIO.ver == ver)
@@ -777,6 +800,14 @@ public abstract class PageIO {
         if (type0 >= T_H2_EX_REF_MVCC_INNER_START && type0 <= T_H2_EX_REF_MVCC_INNER_END)
             return (Q)H2_EXTRA_MVCC_INNER_IOS.get(type0 - T_H2_EX_REF_MVCC_INNER_START).forVersion(ver);
 
+        if (type0 >= T_DATA_REF_INLINE_LEAF_START && type0 <= T_DATA_REF_INLINE_LEAF_END)
+            return (Q)DataInlineLeafIO.getVersions(type0 - T_DATA_REF_INLINE_LEAF_START + 1).forVersion(ver);
+
+        if (type0 >= T_CACHE_ID_AWARE_DATA_REF_INLINE_LEAF_START && type0 <= T_CACHE_ID_AWARE_DATA_REF_INLINE_LEAF_END) {
+            return (Q)CacheIdAwareDataInlineLeafIO.getVersions(type0 - T_CACHE_ID_AWARE_DATA_REF_INLINE_LEAF_START + 1)
+                .forVersion(ver);
+        }
+
         switch (type0) {
             case T_UPDATE_LOG_REF_INNER:
                 return (Q)UpdateLogInnerIO.VERSIONS.forVersion(ver);
@@ -915,6 +946,12 @@ public abstract class PageIO {
                 )
                     return IndexPageType.LEAF;
 
+                if ((T_DATA_REF_INLINE_LEAF_START <= pageIoType && pageIoType <= T_DATA_REF_INLINE_LEAF_END) ||
+                    (T_CACHE_ID_AWARE_DATA_REF_INLINE_LEAF_START <= pageIoType &&
+                        pageIoType <= T_CACHE_ID_AWARE_DATA_REF_INLINE_LEAF_END)
+                )
+                    return IndexPageType.LEAF;
+
                 if ((T_H2_EX_REF_INNER_START <= pageIoType && pageIoType <= T_H2_EX_REF_INNER_END) ||
                     (T_H2_EX_REF_MVCC_INNER_START <= pageIoType && pageIoType <= T_H2_EX_REF_MVCC_INNER_END)
                 )
@@ -474,9 +474,9 @@ public abstract class PageHandler<X, R> {
         IgniteWriteAheadLogManager wal,
         @Nullable Boolean walPlc) {
         // If the page is clean, then it is either newly allocated or just after checkpoint.
-        // In both cases we have to write full page contents to WAL.
+        // In both cases we have to write full page contents to WAL unless the page store is protected otherwise.
         return wal != null && !wal.isAlwaysWriteFullPages() && walPlc != TRUE && !wal.disabled(cacheId) &&
-            (walPlc == FALSE || pageMem.isDirty(cacheId, pageId, page));
+            (walPlc == FALSE || !pageMem.isPageSnapshotNeeded(cacheId, pageId, page));
     }
 
     /**
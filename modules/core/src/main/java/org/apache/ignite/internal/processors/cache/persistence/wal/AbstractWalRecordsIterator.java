@@ -353,8 +353,16 @@ public abstract class AbstractWalRecordsIterator
 
             if (start != null && desc.idx() == start.index()) {
                 if (isCompacted) {
-                    if (start.fileOffset() != 0)
+                    if (start.fileOffset() != 0) {
+                        // Records are written one after another in a compacted segment, so the start record
+                        // is looked for from the nearest indexed one.
+                        long startOff = fileIO.compactedPosition(start.fileOffset());
+
+                        if (startOff > fileIO.position())
+                            in.seek(startOff);
+
                         serializerFactory.recordDeserializeFilter(new StartSeekingFilter(start));
+                    }
                 }
                 else {
                     // Make sure we skip header with serializer version.
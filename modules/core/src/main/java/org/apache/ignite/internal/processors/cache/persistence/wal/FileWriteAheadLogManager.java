@@ -16,19 +16,19 @@
 
 package org.apache.ignite.internal.processors.cache.persistence.wal;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.DataInput;
 import java.io.EOFException;
 import java.io.File;
 import java.io.FileFilter;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.ClosedByInterruptException;
+import java.nio.file.CopyOption;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.sql.Time;
@@ -36,21 +36,23 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 import org.apache.ignite.IgniteCheckedException;
 import org.apache.ignite.IgniteLogger;
@@ -66,13 +68,17 @@ import org.apache.ignite.failure.FailureType;
 import org.apache.ignite.internal.GridKernalContext;
 import org.apache.ignite.internal.IgniteInternalFuture;
 import org.apache.ignite.internal.IgniteInterruptedCheckedException;
+import org.apache.ignite.internal.cdc.CdcConsumerState;
 import org.apache.ignite.internal.managers.eventstorage.GridEventStorageManager;
 import org.apache.ignite.internal.pagemem.wal.IgniteWriteAheadLogManager;
 import org.apache.ignite.internal.pagemem.wal.WALIterator;
 import org.apache.ignite.internal.pagemem.wal.WALPointer;
+import org.apache.ignite.internal.pagemem.wal.record.DataEntry;
+import org.apache.ignite.internal.pagemem.wal.record.DataRecord;
 import org.apache.ignite.internal.pagemem.wal.record.MarshalledRecord;
 import org.apache.ignite.internal.pagemem.wal.record.MemoryRecoveryRecord;
 import org.apache.ignite.internal.pagemem.wal.record.PageSnapshot;
+import org.apache.ignite.internal.pagemem.wal.record.RollbackRecord;
 import org.apache.ignite.internal.pagemem.wal.record.RolloverType;
 import org.apache.ignite.internal.pagemem.wal.record.SwitchSegmentRecord;
 import org.apache.ignite.internal.pagemem.wal.record.WALRecord;
@@ -83,6 +89,8 @@ import org.apache.ignite.internal.processors.cache.WalStateManager.WALDisableCon
 import org.apache.ignite.internal.processors.cache.persistence.DataStorageMetricsImpl;
 import org.apache.ignite.internal.processors.cache.persistence.GridCacheDatabaseSharedManager;
 import org.apache.ignite.internal.processors.cache.persistence.StorageException;
+import org.apache.ignite.internal.processors.cache.persistence.file.BlockCompressedFileIO;
+import org.apache.ignite.internal.processors.cache.persistence.file.BlockCompressedOutputStream;
 import org.apache.ignite.internal.processors.cache.persistence.file.FileIO;
 import org.apache.ignite.internal.processors.cache.persistence.file.FileIOFactory;
 import org.apache.ignite.internal.processors.cache.persistence.file.RandomAccessFileIOFactory;
@@ -124,6 +132,7 @@ import org.apache.ignite.lang.IgniteInClosure;
 import org.apache.ignite.lang.IgnitePredicate;
 import org.apache.ignite.lang.IgniteUuid;
 import org.apache.ignite.thread.IgniteThread;
+import org.apache.ignite.thread.IgniteThreadPoolExecutor;
 import org.jetbrains.annotations.Nullable;
 
 import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
@@ -145,6 +154,7 @@ import static org.apache.ignite.events.EventType.EVT_WAL_SEGMENT_ARCHIVED;
 import static org.apache.ignite.events.EventType.EVT_WAL_SEGMENT_COMPACTED;
 import static org.apache.ignite.failure.FailureType.CRITICAL_ERROR;
 import static org.apache.ignite.failure.FailureType.SYSTEM_WORKER_TERMINATION;
+import static org.apache.ignite.internal.processors.cache.persistence.file.BlockCompressedOutputStream.DFLT_BLOCK_SIZE;
 import static org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager.TMP_SUFFIX;
 import static org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager.ZIP_SUFFIX;
 import static org.apache.ignite.internal.processors.cache.persistence.wal.FileDescriptor.fileName;
@@ -202,6 +212,20 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
     /** Buffer size. */
     private static final int BUF_SIZE = 1024 * 1024;
 
+    /** Types of the records which are indexed by {@link SegmentPartitionIndex}. */
+    private static final Set<WALRecord.RecordType> PART_INDEX_RECORD_TYPES = EnumSet.of(
+        WALRecord.RecordType.DATA_RECORD,
+        WALRecord.RecordType.DATA_RECORD_V2,
+        WALRecord.RecordType.ENCRYPTED_DATA_RECORD,
+        WALRecord.RecordType.ENCRYPTED_DATA_RECORD_V2,
+        WALRecord.RecordType.ENCRYPTED_DATA_RECORD_V3,
+        WALRecord.RecordType.OUT_OF_ORDER_UPDATE,
+        WALRecord.RecordType.ENCRYPTED_OUT_OF_ORDER_UPDATE,
+        WALRecord.RecordType.MVCC_DATA_RECORD,
+        WALRecord.RecordType.CDC_DATA_RECORD,
+        WALRecord.RecordType.ROLLBACK_TX_RECORD
+    );
+
     /** @see IgniteSystemProperties#IGNITE_WAL_MMAP */
     public static final boolean DFLT_WAL_MMAP = true;
 
@@ -218,7 +242,7 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
     public static final long DFLT_THRESHOLD_WAIT_TIME_NEXT_WAL_SEGMENT = 1000L;
 
     /** Use mapped byte buffer. */
-    private final boolean mmap = IgniteSystemProperties.getBoolean(IGNITE_WAL_MMAP, DFLT_WAL_MMAP);
+    private final boolean mmap;
 
     /**
      * Number of WAL compressor worker threads.
@@ -290,6 +314,12 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
     /** Factory to provide I/O interfaces for read primitives with files */
     private final SegmentFileInputFactory segmentFileInputFactory;
 
+    /** Stripes of the work segments or {@code null} if WAL striping is disabled. */
+    @Nullable private volatile SegmentStripes stripes;
+
+    /** Executor to write and sync WAL stripes in parallel. */
+    @Nullable private IgniteThreadPoolExecutor stripeExec;
+
     /** Holder of actual information of latest manipulation on WAL segments. */
     private volatile SegmentAware segmentAware;
 
@@ -315,6 +345,9 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
      */
     @Nullable private FileCleaner cleaner;
 
+    /** Writer of partition indexes of the archived segments. */
+    @Nullable private FileIndexer indexer;
+
     /** Current log segment handle. */
     private volatile FileWriteHandle currHnd;
 
@@ -403,6 +436,9 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
         flushFreq = dsCfg.getWalFlushFrequency();
         alwaysWriteFullPages = dsCfg.isAlwaysWriteFullPages();
         ioFactory = mode == WALMode.FSYNC ? dsCfg.getFileIOFactory() : new RandomAccessFileIOFactory();
+        // Striped segments can't be mapped to memory.
+        mmap = IgniteSystemProperties.getBoolean(IGNITE_WAL_MMAP, DFLT_WAL_MMAP) &&
+            F.isEmpty(dsCfg.getWalStripePaths());
         segmentFileInputFactory = new SimpleSegmentFileInputFactory();
         walAutoArchiveAfterInactivity = dsCfg.getWalAutoArchiveAfterInactivity();
 
@@ -459,6 +495,15 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
                 "write ahead log archive directory"
             );
 
+            if (!F.isEmpty(dsCfg.getWalStripePaths()))
+                initStripes(resolveFolders.folderName());
+            else if (new File(walWorkDir0, SegmentStripes.STRIPES_FILE_NAME).exists()) {
+                throw new IgniteCheckedException("WAL work segments are striped, WAL striping can't be disabled " +
+                    "[walWorkDir=" + walWorkDir0.getAbsolutePath() + ']');
+            }
+
+            final SegmentStripes stripes0 = stripes;
+
             serializer = new RecordSerializerFactoryImpl(cctx).createSerializer(serializerVer);
 
             GridCacheDatabaseSharedManager dbMgr = (GridCacheDatabaseSharedManager)cctx.database();
@@ -474,6 +519,13 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
                         for (File f : walWorkDir0.listFiles())
                             size += f.length();
 
+                        if (stripes0 != null) {
+                            for (int i = 1; i < stripes0.count(); i++) {
+                                for (File f : stripes0.directories()[i].listFiles())
+                                    size += f.length();
+                            }
+                        }
+
                         if (isArchiverEnabled()) {
                             for (File f : walArchiveDir0.listFiles())
                                 size += f.length();
@@ -506,6 +558,9 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
             if (!walArchiveUnlimited())
                 cleaner = new FileCleaner(log);
 
+            if (isArchiverEnabled() && dsCfg.isWalPartitionIndexEnabled())
+                indexer = new FileIndexer(log);
+
             prepareAndCheckWalFiles();
 
             if (compressor != null)
@@ -582,6 +637,9 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
 
             cleaner.restart();
         }
+
+        if (indexer != null && !cctx.kernalContext().recoveryMode())
+            indexer.restart();
     }
 
     /**
@@ -640,6 +698,7 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
 
     /**
      * @throws IgniteCheckedException if WAL store path is configured and archive path isn't (or vice versa)
+     * or WAL striping is enabled without WAL archiver.
      */
     private void checkWalConfiguration() throws IgniteCheckedException {
         if (dsCfg.getWalPath() == null ^ dsCfg.getWalArchivePath() == null) {
@@ -649,6 +708,132 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
                     ", walArchivePath = " + dsCfg.getWalArchivePath() + "]"
             );
         }
+
+        if (!F.isEmpty(dsCfg.getWalStripePaths()) && !isArchiverEnabled()) {
+            throw new IgniteCheckedException(
+                "WAL striping requires WAL archiver to be enabled, WAL archive path should differ from WAL path " +
+                    "[walStorePath = " + dsCfg.getWalPath() +
+                    ", walArchivePath = " + dsCfg.getWalArchivePath() +
+                    ", walStripePaths = " + Arrays.toString(dsCfg.getWalStripePaths()) + "]"
+            );
+        }
+
+        if (dsCfg.isCdcEnabled() && !isArchiverEnabled()) {
+            throw new IgniteCheckedException(
+                "Change data capture requires WAL archiver to be enabled, WAL archive path should differ from WAL " +
+                    "path [walStorePath = " + dsCfg.getWalPath() +
+                    ", walArchivePath = " + dsCfg.getWalArchivePath() + "]"
+            );
+        }
+    }
+
+    /**
+     * Initializes stripe directories of the work segments and wraps I/O factory to stripe them.
+     *
+     * @param consId Local node consistent ID.
+     * @throws IgniteCheckedException If failed.
+     */
+    private void initStripes(String consId) throws IgniteCheckedException {
+        String[] paths = dsCfg.getWalStripePaths();
+
+        File[] dirs = new File[paths.length + 1];
+
+        dirs[0] = walWorkDir;
+
+        for (int i = 0; i < paths.length; i++)
+            dirs[i + 1] = initDirectory(paths[i], paths[i], consId, "write ahead log stripe directory");
+
+        Set<File> uniqueDirs = new HashSet<>();
+
+        uniqueDirs.add(walArchiveDir.getAbsoluteFile());
+
+        for (File dir : dirs) {
+            if (!uniqueDirs.add(dir.getAbsoluteFile())) {
+                throw new IgniteCheckedException("WAL stripe directories should differ from each other and " +
+                    "from WAL archive directory [dir=" + dir.getAbsolutePath() + ']');
+            }
+        }
+
+        // The caller thread writes one of the stripes itself.
+        stripeExec = new IgniteThreadPoolExecutor(
+            "wal-stripe-io",
+            cctx.igniteInstanceName(),
+            paths.length,
+            paths.length,
+            0,
+            new LinkedBlockingQueue<>()
+        );
+
+        SegmentStripes stripes0 = new SegmentStripes(dirs, dsCfg.getWalStripeSize(), stripeExec, log);
+
+        stripes0.init(ioFactory);
+
+        ioFactory = stripes0.ioFactory(ioFactory);
+
+        stripes = stripes0;
+    }
+
+    /**
+     * @param file Work segment.
+     * @return Size of the work segment.
+     */
+    private long workSegmentLength(File file) {
+        SegmentStripes stripes0 = stripes;
+
+        return stripes0 != null && stripes0.striped(file) ? stripes0.length(file) : file.length();
+    }
+
+    /**
+     * Moves the work segment.
+     *
+     * @param src Source work segment.
+     * @param dst Destination file.
+     * @param opts Copy options.
+     * @throws IOException If failed.
+     */
+    private void moveWorkSegment(File src, File dst, CopyOption... opts) throws IOException {
+        SegmentStripes stripes0 = stripes;
+
+        if (stripes0 != null && stripes0.striped(src))
+            stripes0.move(src, dst, opts);
+        else
+            Files.move(src.toPath(), dst.toPath(), opts);
+    }
+
+    /**
+     * Copies the work segment to a regular file.
+     *
+     * @param src Work segment.
+     * @param dst Destination file.
+     * @throws IOException If failed.
+     */
+    private void copyWorkSegment(File src, File dst) throws IOException {
+        SegmentStripes stripes0 = stripes;
+
+        if (stripes0 != null && stripes0.striped(src))
+            stripes0.copy(ioFactory, src, dst, stripes0.length(src));
+        else
+            Files.copy(src.toPath(), dst.toPath());
+    }
+
+    /**
+     * Deletes the work segment.
+     *
+     * @param file Work segment.
+     * @throws IOException If failed.
+     */
+    private void deleteWorkSegment(File file) throws IOException {
+        SegmentStripes stripes0 = stripes;
+
+        if (stripes0 != null && stripes0.striped(file)) {
+            File[] files = stripes0.files(file);
+
+            // The first stripe is deleted last, so the segment exists until all its stripes are deleted.
+            for (int i = files.length - 1; i >= 0; i--)
+                Files.delete(files[i].toPath());
+        }
+        else
+            Files.delete(file.toPath());
     }
 
     /**
@@ -684,10 +869,16 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
 
             if (cleaner != null)
                 cleaner.shutdown();
+
+            if (indexer != null)
+                indexer.shutdown();
         }
         catch (IgniteInterruptedCheckedException e) {
             U.error(log, "Failed to gracefully shutdown WAL components, thread was interrupted.", e);
         }
+
+        if (stripeExec != null && isStopping())
+            stripeExec.shutdown();
     }
 
     /** {@inheritDoc} */
@@ -997,6 +1188,84 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
         return iter;
     }
 
+    /** {@inheritDoc} */
+    @Override public WALPointer historicalStartPointer(
+        WALPointer start,
+        int grpId,
+        Collection<Integer> cacheIds,
+        Map<Integer, Long> partCntrs
+    ) {
+        assert start instanceof FileWALPointer : "Invalid start pointer: " + start;
+
+        FileWALPointer startPtr = (FileWALPointer)start;
+
+        if (indexer == null)
+            return startPtr;
+
+        Set<Integer> parts = new HashSet<>(partCntrs.keySet());
+
+        FileWALPointer res = null;
+
+        long lastArchived = segmentAware.lastArchivedAbsoluteIndex();
+
+        long idx = startPtr.index();
+
+        // Segments are checked in order, so a pointer found in a segment is less than pointers of next segments.
+        for (; idx <= lastArchived && !parts.isEmpty(); idx++) {
+            File file = SegmentPartitionIndex.file(walArchiveDir, idx);
+
+            if (!file.exists())
+                break;
+
+            SegmentPartitionIndex segIdx;
+
+            try {
+                segIdx = SegmentPartitionIndex.read(file);
+            }
+            catch (IOException e) {
+                U.warn(log, "Failed to read WAL partition index [file=" + file.getAbsolutePath() + ']', e);
+
+                break;
+            }
+
+            for (Iterator<Integer> it = parts.iterator(); it.hasNext(); ) {
+                int p = it.next();
+
+                long cntr = partCntrs.get(p);
+
+                int off = segIdx.firstOffset(grpId, p, cntr);
+
+                for (int cacheId : cacheIds) {
+                    int cacheOff = segIdx.firstOffset(cacheId, p, cntr);
+
+                    if (cacheOff >= 0 && (off < 0 || cacheOff < off))
+                        off = cacheOff;
+                }
+
+                if (off >= 0) {
+                    it.remove();
+
+                    if (res == null || (res.index() == idx && off < res.fileOffset()))
+                        res = new FileWALPointer(idx, off, 0);
+                }
+            }
+        }
+
+        // Updates of the remaining partitions can be anywhere starting from the first segment which is not indexed.
+        if (res == null)
+            res = new FileWALPointer(idx, 0, 0);
+
+        if (res.compareTo(startPtr) <= 0)
+            return startPtr;
+
+        if (log.isDebugEnabled()) {
+            log.debug("Historical rebalance start pointer is moved by WAL partition index [grpId=" + grpId +
+                ", start=" + startPtr + ", res=" + res + ']');
+        }
+
+        return res;
+    }
+
     /** {@inheritDoc} */
     @Override public boolean reserve(WALPointer start) {
         assert start instanceof FileWALPointer : "Invalid start pointer: " + start;
@@ -1069,6 +1338,7 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
 
         List<String> deletedSegments = null;
         long lastCpIdx = lastCheckpointPtr.index();
+        long cdcIdx = cdcConsumedIndex();
 
         for (FileDescriptor desc : descs) {
             long archivedAbsIdx = segmentAware.lastArchivedAbsoluteIndex();
@@ -1078,6 +1348,7 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
             if (desc.idx >= lastCpIdx // We cannot delete segments needed for binary recovery.
                 || desc.idx >= lastArchived // We cannot delete last segment, it is needed at start of node and avoid gaps.
                 || desc.idx >= highPtr.index() // We cannot delete segments larger than the border.
+                || desc.idx >= cdcIdx // We cannot delete segments not consumed by change data capture.
                 || !segmentAware.minReserveIndex(desc.idx)) // We cannot delete reserved segment.
                 break;
 
@@ -1099,6 +1370,8 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
 
                 segmentSize.remove(idx);
                 segmentAware.addSize(idx, -len);
+
+                deleteArchiveFiles(SegmentPartitionIndex.file(walArchiveDir, idx));
             }
 
             // Bump up the oldest archive segment index.
@@ -1116,6 +1389,26 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
         return deleted;
     }
 
+    /**
+     * @return Index of the segment containing the last change consumed by change data capture, {@code 0} if nothing
+     * is consumed yet or {@link Long#MAX_VALUE} if change data capture is disabled.
+     */
+    private long cdcConsumedIndex() {
+        if (!dsCfg.isCdcEnabled())
+            return Long.MAX_VALUE;
+
+        try {
+            FileWALPointer ptr = new CdcConsumerState(walArchiveDir).load();
+
+            return ptr != null ? ptr.index() : 0;
+        }
+        catch (IOException e) {
+            U.warn(log, "Failed to read change data capture state, WAL archive segments are retained", e);
+
+            return 0;
+        }
+    }
+
     /**
      * Check if WAL segment locked (protected from move to archive) or reserved (protected from deletion from WAL
      * cleanup).
@@ -1635,15 +1928,17 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
         formatFile(tmp);
 
         try {
-            Files.move(tmp.toPath(), file.toPath());
+            moveWorkSegment(tmp, file);
         }
         catch (IOException e) {
             throw new StorageException("Failed to move temp file to a regular WAL segment file: " +
                 file.getAbsolutePath(), e);
         }
 
-        if (log.isDebugEnabled())
-            log.debug("Created WAL segment [file=" + file.getAbsolutePath() + ", size=" + file.length() + ']');
+        if (log.isDebugEnabled()) {
+            log.debug("Created WAL segment [file=" + file.getAbsolutePath() +
+                ", size=" + workSegmentLength(file) + ']');
+        }
     }
 
     /**
@@ -2060,7 +2355,7 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
             assert switchSegmentRecordOffset != null;
 
             long offs = switchSegmentRecordOffset.getAndSet((int)segIdx, 0);
-            long origLen = origFile.length();
+            long origLen = workSegmentLength(origFile);
 
             long currSize = 0;
             long reservedSize = offs > 0 && offs < origLen ? offs : origLen;
@@ -2068,7 +2363,11 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
             segmentAware.addSize(absIdx, reservedSize);
 
             try {
-                if (offs > 0 && offs < origLen)
+                SegmentStripes stripes0 = stripes;
+
+                if (stripes0 != null)
+                    stripes0.copy(ioFactory, origFile, dstTmpFile, reservedSize);
+                else if (offs > 0 && offs < origLen)
                     GridFileUtils.copy(origFile, dstTmpFile, offs);
                 else
                     Files.copy(origFile.toPath(), dstTmpFile.toPath());
@@ -2358,9 +2657,9 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
                     .getSerializerVersion();
             }
 
-            try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(zip)))) {
-                zos.setLevel(dsCfg.getWalCompactionLevel());
-                zos.putNextEntry(new ZipEntry(idx + ".wal"));
+            try (OutputStream zos = compressedSegmentStream(idx, zip)) {
+                BlockCompressedOutputStream blockZos = zos instanceof BlockCompressedOutputStream ?
+                    (BlockCompressedOutputStream)zos : null;
 
                 ByteBuffer buf = ByteBuffer.allocate(HEADER_RECORD_SIZE);
                 buf.order(ByteOrder.nativeOrder());
@@ -2371,6 +2670,10 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
                     @Override public void applyx(WALRecord record) throws IgniteCheckedException {
                         final MarshalledRecord marshRec = (MarshalledRecord)record;
 
+                        // Lets readers seek close to a record by its offset in the raw segment.
+                        if (blockZos != null && marshRec.position() instanceof FileWALPointer)
+                            blockZos.markPosition(((FileWALPointer)marshRec.position()).fileOffset());
+
                         try {
                             zos.write(marshRec.buffer().array(), 0, marshRec.buffer().remaining());
                         }
@@ -2395,6 +2698,33 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
             }
         }
 
+        /**
+         * @param idx Segment absolute index.
+         * @param zip Compressed segment file.
+         * @return Stream compressing the segment in the configured format.
+         * @throws IOException If failed.
+         */
+        private OutputStream compressedSegmentStream(long idx, File zip) throws IOException {
+            OutputStream out = new BufferedOutputStream(new FileOutputStream(zip));
+
+            if (dsCfg.isWalCompactionBlockFormatEnabled())
+                return new BlockCompressedOutputStream(out, DFLT_BLOCK_SIZE, dsCfg.getWalCompactionLevel());
+
+            ZipOutputStream zos = new ZipOutputStream(out);
+
+            try {
+                zos.setLevel(dsCfg.getWalCompactionLevel());
+                zos.putNextEntry(new ZipEntry(idx + ".wal"));
+            }
+            catch (IOException e) {
+                U.closeQuiet(zos);
+
+                throw e;
+            }
+
+            return zos;
+        }
+
         /**
          * @param idx Segment index.
          * @param ser Record Serializer.
@@ -2514,7 +2844,7 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
                     File unzip = new File(walArchiveDir, segmentFileName);
 
                     long currSize = 0;
-                    long reservedSize = U.uncompressedSize(zip);
+                    long reservedSize = uncompressedSize(zip);
 
                     segmentAware.addSize(segmentToDecompress, reservedSize);
 
@@ -2524,12 +2854,19 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
                         if (unzip.exists())
                             throw new FileAlreadyExistsException(unzip.getAbsolutePath());
 
-                        try (ZipInputStream zis = new ZipInputStream(new BufferedInputStream(new FileInputStream(zip)));
+                        try (FileIO zipIo = BlockCompressedFileIO.open(zip);
                              FileIO io = ioFactory.create(unzipTmp)) {
-                            zis.getNextEntry();
+                            ByteBuffer buf = ByteBuffer.wrap(arr);
+
+                            int read;
+
+                            while ((read = zipIo.read(buf)) > 0) {
+                                io.writeFully(arr, 0, read);
+
+                                buf.clear();
 
-                            while (io.writeFully(arr, 0, zis.read(arr)) > 0)
                                 updateHeartbeat();
+                            }
                         }
 
                         Files.move(unzipTmp.toPath(), unzip.toPath());
@@ -2648,11 +2985,11 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
                     throw new StorageException("Failed to initialize WAL log segment (a directory with " +
                         "the same name already exists): " + checkFile.getAbsolutePath());
                 }
-                else if (checkFile.length() != dsCfg.getWalSegmentSize() && mode == WALMode.FSYNC) {
+                else if (workSegmentLength(checkFile) != dsCfg.getWalSegmentSize() && mode == WALMode.FSYNC) {
                     throw new StorageException("Failed to initialize WAL log segment " +
                         "(WAL segment size change is not supported in 'DEFAULT' WAL mode) " +
                         "[filePath=" + checkFile.getAbsolutePath() +
-                        ", fileSize=" + checkFile.length() +
+                        ", fileSize=" + workSegmentLength(checkFile) +
                         ", configSize=" + dsCfg.getWalSegmentSize() + ']');
                 }
             }
@@ -2872,7 +3209,17 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
                         "[segmentIdx=" + desc.idx() + "]");
                 }
 
-                if (decompressor != null)
+                boolean blockCompressed;
+
+                try {
+                    blockCompressed = BlockCompressedFileIO.isBlockCompressed(zipFile.file);
+                }
+                catch (IOException e) {
+                    throw new IgniteCheckedException("Failed to read compressed segment: " + zipFile.file, e);
+                }
+
+                // Block compressed segments are read in place, there is no need to decompress them.
+                if (decompressor != null && !blockCompressed)
                     decompressor.decompressFile(desc.idx()).get();
                 else
                     currDesc = zipFile;
@@ -3211,6 +3558,20 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
         return maxWalArchiveSize == UNLIMITED_WAL_ARCHIVE;
     }
 
+    /**
+     * @param zip Compressed segment.
+     * @return Size of the decompressed segment.
+     * @throws IOException If failed.
+     */
+    private static long uncompressedSize(File zip) throws IOException {
+        if (!BlockCompressedFileIO.isBlockCompressed(zip))
+            return U.uncompressedSize(zip);
+
+        try (FileIO io = new BlockCompressedFileIO(zip)) {
+            return io.size();
+        }
+    }
+
     /**
      * Removing files from {@link #walArchiveDir}.
      *
@@ -3299,6 +3660,124 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
         }
     }
 
+    /**
+     * Writes {@link SegmentPartitionIndex} of each segment moved to the WAL archive. Historical rebalance reads
+     * entirely the first segment without an index and all the segments after it.
+     */
+    private class FileIndexer extends GridWorker {
+        /**
+         * @param log Logger.
+         */
+        FileIndexer(IgniteLogger log) {
+            super(cctx.igniteInstanceName(), "wal-file-indexer%" + cctx.igniteInstanceName(), log);
+        }
+
+        /** {@inheritDoc} */
+        @Override protected void body() {
+            long next = segmentAware.lastTruncatedArchiveIdx() + 1;
+
+            try {
+                while (!isCancelled()) {
+                    segmentAware.awaitSegmentArchived(next);
+
+                    next = Math.max(next, segmentAware.lastTruncatedArchiveIdx() + 1);
+
+                    long lastArchived = segmentAware.lastArchivedAbsoluteIndex();
+
+                    for (; next <= lastArchived && !isCancelled(); next++)
+                        indexSegment(next);
+                }
+            }
+            catch (IgniteInterruptedCheckedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * @param idx Absolute index of the archived segment.
+         */
+        private void indexSegment(long idx) {
+            File file = SegmentPartitionIndex.file(walArchiveDir, idx);
+
+            if (file.exists())
+                return;
+
+            // Segment is truncated.
+            if (!reserve(new FileWALPointer(idx, 0, 0)))
+                return;
+
+            try {
+                SegmentPartitionIndex segIdx = new SegmentPartitionIndex();
+
+                try (WALIterator it = replay(new FileWALPointer(idx, 0, 0),
+                    (type, ptr) -> PART_INDEX_RECORD_TYPES.contains(type))) {
+                    while (it.hasNext()) {
+                        IgniteBiTuple<WALPointer, WALRecord> tup = it.next();
+
+                        FileWALPointer ptr = (FileWALPointer)tup.get1();
+
+                        if (ptr.index() != idx)
+                            break;
+
+                        WALRecord rec = tup.get2();
+
+                        if (rec instanceof DataRecord) {
+                            for (DataEntry entry : ((DataRecord)rec).writeEntries()) {
+                                segIdx.onUpdate(entry.cacheId(), entry.partitionId(), entry.partitionCounter(),
+                                    ptr.fileOffset());
+                            }
+                        }
+                        else if (rec instanceof RollbackRecord) {
+                            RollbackRecord rbRec = (RollbackRecord)rec;
+
+                            segIdx.onUpdate(rbRec.groupId(), rbRec.partitionId(), rbRec.start() + rbRec.range(),
+                                ptr.fileOffset());
+                        }
+                        else {
+                            // Data record which can't be read, e.g. encrypted with an unknown key.
+                            if (log.isDebugEnabled())
+                                log.debug("WAL segment is not indexed [idx=" + idx + ", rec=" + rec.type() + ']');
+
+                            return;
+                        }
+                    }
+                }
+
+                segIdx.write(file);
+
+                if (log.isDebugEnabled())
+                    log.debug("WAL segment is indexed [idx=" + idx + ", parts=" + segIdx.size() + ']');
+            }
+            catch (IgniteCheckedException | IOException e) {
+                U.warn(log, "Failed to index WAL segment, historical rebalance will read it entirely [idx=" + idx +
+                    ']', e);
+            }
+            finally {
+                release(new FileWALPointer(idx, 0, 0));
+            }
+        }
+
+        /**
+         * Restart worker in IgniteThread.
+         */
+        void restart() {
+            assert runner() == null : "FileIndexer is still running [worker=" + this + ']';
+
+            isCancelled.set(false);
+
+            new IgniteThread(this).start();
+        }
+
+        /**
+         * @throws IgniteInterruptedCheckedException If failed to wait for worker shutdown.
+         */
+        void shutdown() throws IgniteInterruptedCheckedException {
+            U.cancel(this);
+
+            U.join(runner());
+        }
+    }
+
     /**
      * Worker for an asynchronous WAL archive cleanup that starts when the maximum size is exceeded.
      * {@link SegmentAware#awaitExceedMaxArchiveSize} is used to determine if the maximum is exceeded.
@@ -3438,11 +3917,11 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
                 File dst = new File(walArchiveDir, fd.file().getName());
 
                 try {
-                    Files.copy(fd.file().toPath(), tmpDst.toPath());
+                    copyWorkSegment(fd.file(), tmpDst);
 
                     Files.move(tmpDst.toPath(), dst.toPath());
 
-                    Files.delete(fd.file().toPath());
+                    deleteWorkSegment(fd.file());
 
                     if (log.isDebugEnabled()) {
                         log.debug("WAL segment moved [src=" + fd.file().getAbsolutePath() +
@@ -3489,11 +3968,15 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
             File dst = new File(walWorkDir, toRenFileName);
 
             try {
-                Files.copy(toRen.file().toPath(), tmpDst.toPath());
+                if (stripes != null)
+                    moveWorkSegment(toRen.file(), dst);
+                else {
+                    Files.copy(toRen.file().toPath(), tmpDst.toPath());
 
-                Files.move(tmpDst.toPath(), dst.toPath());
+                    Files.move(tmpDst.toPath(), dst.toPath());
 
-                Files.delete(toRen.file().toPath());
+                    Files.delete(toRen.file().toPath());
+                }
 
                 if (log.isInfoEnabled()) {
                     log.info("WAL segment renamed [src=" + toRen.file().getAbsolutePath() +
@@ -3517,7 +4000,7 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
 
         if (mode == WALMode.FSYNC || mmap) {
             List<FileDescriptor> toFormat = Arrays.stream(scan(walWorkDir.listFiles(WAL_SEGMENT_FILE_FILTER)))
-                .filter(fd -> fd.file().length() < dsCfg.getWalSegmentSize()).collect(toList());
+                .filter(fd -> workSegmentLength(fd.file()) < dsCfg.getWalSegmentSize()).collect(toList());
 
             if (!toFormat.isEmpty()) {
                 if (log.isInfoEnabled()) {
@@ -3533,18 +4016,24 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
                             .toPath().getParent().resolve(segFile.getName() + TMP_SUFFIX).toFile();
 
                     try {
-                        Files.copy(segFile.toPath(), tmpDst.toPath());
+                        // Striped segment is extended in place, appended zeros don't change its records.
+                        File fmtFile = stripes != null ? segFile : tmpDst;
+
+                        if (fmtFile == tmpDst)
+                            Files.copy(segFile.toPath(), tmpDst.toPath());
+
+                        long len = workSegmentLength(fmtFile);
 
                         if (log.isDebugEnabled()) {
-                            log.debug("Start formatting WAL segment [filePath=" + tmpDst.getAbsolutePath() +
-                                ", fileSize=" + U.humanReadableByteCount(tmpDst.length()) +
+                            log.debug("Start formatting WAL segment [filePath=" + fmtFile.getAbsolutePath() +
+                                ", fileSize=" + U.humanReadableByteCount(len) +
                                 ", toSize=" + U.humanReadableByteCount(dsCfg.getWalSegmentSize()) + ']');
                         }
 
-                        try (FileIO fileIO = ioFactory.create(tmpDst, CREATE, READ, WRITE)) {
-                            int left = (int)(dsCfg.getWalSegmentSize() - tmpDst.length());
+                        try (FileIO fileIO = ioFactory.create(fmtFile, CREATE, READ, WRITE)) {
+                            int left = (int)(dsCfg.getWalSegmentSize() - len);
 
-                            fileIO.position(tmpDst.length());
+                            fileIO.position(len);
 
                             while (left > 0)
                                 left -= fileIO.writeFully(FILL_BUF, 0, Math.min(FILL_BUF.length, left));
@@ -3552,7 +4041,8 @@ public class FileWriteAheadLogManager extends GridCacheSharedManagerAdapter impl
                             fileIO.force();
                         }
 
-                        Files.move(tmpDst.toPath(), segFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+                        if (fmtFile == tmpDst)
+                            Files.move(tmpDst.toPath(), segFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
 
                         if (log.isDebugEnabled())
                             log.debug("WAL segment formatted: " + segFile.getAbsolutePath());
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.wal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import org.apache.ignite.internal.util.typedef.internal.S;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager.TMP_SUFFIX;
+
+/**
+ * Sparse index of the updates of partitions in a WAL segment. Records of a partition are grouped into blocks, a block
+ * starts at the first record of the partition which is at least {@link #BLOCK_SIZE} bytes after the start of the
+ * previous block. For each block the position of its first record and the maximum update counter of its records are
+ * kept, so a reader interested in counters greater than a given one can start from the first block containing such a
+ * counter. Update counters of a partition are not necessarily ordered in WAL, so blocks are not skipped by the
+ * minimum counter.
+ * <p>
+ * Data entries are indexed by cache ID, rollback records are indexed by cache group ID.
+ */
+public class SegmentPartitionIndex {
+    /** Suffix of the index file, the index is kept next to the archived segment. */
+    public static final String INDEX_SUFFIX = ".idx";
+
+    /** Minimum distance in bytes between the starts of two blocks of a partition. */
+    static final int BLOCK_SIZE = 1024 * 1024;
+
+    /** Format version. */
+    private static final int VERSION = 1;
+
+    /** Blocks of partitions. */
+    private final Map<Long, Blocks> parts = new HashMap<>();
+
+    /**
+     * @param dir WAL archive directory.
+     * @param idx Absolute segment index.
+     * @return Index file of the segment.
+     */
+    public static File file(File dir, long idx) {
+        return new File(dir, FileDescriptor.fileName(idx) + INDEX_SUFFIX);
+    }
+
+    /**
+     * Adds an update of a partition.
+     *
+     * @param id Cache ID or cache group ID.
+     * @param partId Partition ID.
+     * @param cntr Update counter.
+     * @param off Position of the record in the segment.
+     */
+    public void onUpdate(int id, int partId, long cntr, int off) {
+        parts.computeIfAbsent(key(id, partId), k -> new Blocks()).onUpdate(cntr, off);
+    }
+
+    /**
+     * @param id Cache ID or cache group ID.
+     * @param partId Partition ID.
+     * @param cntr Update counter.
+     * @return Position of the first record of the first block which contains an update of the partition with
+     *      a counter greater than the given one, {@code -1} if the segment contains no such updates.
+     */
+    public int firstOffset(int id, int partId, long cntr) {
+        Blocks blocks = parts.get(key(id, partId));
+
+        return blocks == null ? -1 : blocks.firstOffset(cntr);
+    }
+
+    /**
+     * @return Number of indexed partitions.
+     */
+    public int size() {
+        return parts.size();
+    }
+
+    /**
+     * Writes the index to a temporary file and atomically moves it to the given one.
+     *
+     * @param file Index file.
+     * @throws IOException If failed.
+     */
+    public void write(File file) throws IOException {
+        File tmp = new File(file.getPath() + TMP_SUFFIX);
+
+        CRC32 crc = new CRC32();
+
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+            new BufferedOutputStream(new FileOutputStream(tmp)), crc))) {
+            out.writeInt(VERSION);
+            out.writeInt(parts.size());
+
+            for (Map.Entry<Long, Blocks> e : parts.entrySet()) {
+                Blocks blocks = e.getValue();
+
+                out.writeLong(e.getKey());
+                out.writeInt(blocks.cnt);
+
+                for (int i = 0; i < blocks.cnt; i++) {
+                    out.writeInt(blocks.offs[i]);
+                    out.writeLong(blocks.maxCntrs[i]);
+                }
+            }
+
+            out.flush();
+
+            out.writeLong(crc.getValue());
+        }
+
+        Files.move(tmp.toPath(), file.toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+
+    /**
+     * @param file Index file.
+     * @return Index.
+     * @throws IOException If failed to read the index or the file is corrupted.
+     */
+    public static SegmentPartitionIndex read(File file) throws IOException {
+        CRC32 crc = new CRC32();
+
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+            new BufferedInputStream(new FileInputStream(file)), crc))) {
+            int ver = in.readInt();
+
+            if (ver != VERSION)
+                throw new IOException("Unsupported WAL partition index version [file=" + file + ", ver=" + ver + ']');
+
+            SegmentPartitionIndex idx = new SegmentPartitionIndex();
+
+            int size = in.readInt();
+
+            for (int i = 0; i < size; i++) {
+                long key = in.readLong();
+                int cnt = in.readInt();
+
+                Blocks blocks = new Blocks(cnt);
+
+                for (int j = 0; j < cnt; j++) {
+                    blocks.offs[j] = in.readInt();
+                    blocks.maxCntrs[j] = in.readLong();
+                }
+
+                blocks.cnt = cnt;
+
+                idx.parts.put(key, blocks);
+            }
+
+            long expCrc = crc.getValue();
+
+            if (in.readLong() != expCrc)
+                throw new IOException("WAL partition index is corrupted: " + file);
+
+            return idx;
+        }
+    }
+
+    /**
+     * @param id Cache ID or cache group ID.
+     * @param partId Partition ID.
+     * @return Key of the partition.
+     */
+    private static long key(int id, int partId) {
+        return ((long)id << 32) | (partId & 0xFFFFFFFFL);
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(SegmentPartitionIndex.class, this, "parts", parts.size());
+    }
+
+    /**
+     * Blocks of a partition.
+     */
+    private static class Blocks {
+        /** Positions of the first records of blocks. */
+        private int[] offs;
+
+        /** Maximum update counters of blocks. */
+        private long[] maxCntrs;
+
+        /** Number of blocks. */
+        private int cnt;
+
+        /** */
+        Blocks() {
+            this(1);
+        }
+
+        /**
+         * @param cap Capacity.
+         */
+        Blocks(int cap) {
+            offs = new int[cap];
+            maxCntrs = new long[cap];
+        }
+
+        /**
+         * @param cntr Update counter.
+         * @param off Position of the record.
+         */
+        void onUpdate(long cntr, int off) {
+            if (cnt == 0 || off - offs[cnt - 1] >= BLOCK_SIZE) {
+                if (cnt == offs.length) {
+                    offs = Arrays.copyOf(offs, cnt * 2);
+                    maxCntrs = Arrays.copyOf(maxCntrs, cnt * 2);
+                }
+
+                offs[cnt] = off;
+                maxCntrs[cnt] = cntr;
+
+                cnt++;
+            }
+            else if (maxCntrs[cnt - 1] < cntr)
+                maxCntrs[cnt - 1] = cntr;
+        }
+
+        /**
+         * @param cntr Update counter.
+         * @return Position of the first block with a counter greater than the given one, {@code -1} if none.
+         */
+        int firstOffset(long cntr) {
+            for (int i = 0; i < cnt; i++) {
+                if (maxCntrs[i] > cntr)
+                    return offs[i];
+            }
+
+            return -1;
+        }
+    }
+}
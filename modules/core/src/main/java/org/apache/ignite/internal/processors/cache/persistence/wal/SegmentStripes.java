@@ -0,0 +1,381 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.wal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.CopyOption;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.IgniteLogger;
+import org.apache.ignite.internal.processors.cache.persistence.StorageException;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileIO;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileIOFactory;
+import org.apache.ignite.internal.processors.cache.persistence.wal.io.StripedFileIO;
+import org.apache.ignite.internal.util.typedef.F;
+import org.apache.ignite.internal.util.typedef.internal.U;
+import org.jetbrains.annotations.Nullable;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager.TMP_SUFFIX;
+import static org.apache.ignite.internal.processors.cache.persistence.wal.FileWriteAheadLogManager.WAL_NAME_PATTERN;
+import static org.apache.ignite.internal.processors.cache.persistence.wal.FileWriteAheadLogManager.WAL_SEGMENT_FILE_FILTER;
+import static org.apache.ignite.internal.processors.cache.persistence.wal.FileWriteAheadLogManager.WAL_TEMP_NAME_PATTERN;
+
+/**
+ * Layout of the WAL work segments striped across several directories. Each work segment is split into units of the
+ * stripe size which are placed to the stripe directories round-robin, so records are appended and synced on several
+ * disks in parallel while WAL pointers still address a single sequence of records. Stripe {@code 0} is the segment
+ * file in the WAL work directory, other stripes are the files with the same name in the stripe directories.
+ * Segments are assembled to regular files when they are copied to the WAL archive.
+ */
+public class SegmentStripes {
+    /** Name of the file in the WAL work directory which describes the stripes of the work segments. */
+    public static final String STRIPES_FILE_NAME = "wal.stripes";
+
+    /** Suffix of the copy of the work segment which is being striped. */
+    private static final String UNSTRIPED_SUFFIX = ".unstriped";
+
+    /** Stripe count property. */
+    private static final String COUNT_PROP = "count";
+
+    /** Stripe size property. */
+    private static final String SIZE_PROP = "size";
+
+    /** Stripe directories, the first one is the WAL work directory. */
+    private final File[] dirs;
+
+    /** Stripe unit size in bytes. */
+    private final int stripeSize;
+
+    /** Executor to write and sync stripes in parallel. */
+    @Nullable private final ExecutorService exec;
+
+    /** Logger. */
+    private final IgniteLogger log;
+
+    /**
+     * @param dirs Stripe directories, the first one is the WAL work directory.
+     * @param stripeSize Stripe unit size in bytes.
+     * @param exec Executor to write and sync stripes in parallel.
+     * @param log Logger.
+     */
+    public SegmentStripes(File[] dirs, int stripeSize, @Nullable ExecutorService exec, IgniteLogger log) {
+        assert dirs.length > 1;
+
+        this.dirs = new File[dirs.length];
+
+        for (int i = 0; i < dirs.length; i++)
+            this.dirs[i] = dirs[i].getAbsoluteFile();
+
+        this.stripeSize = stripeSize;
+        this.exec = exec;
+        this.log = log;
+    }
+
+    /**
+     * @return Number of stripes.
+     */
+    public int count() {
+        return dirs.length;
+    }
+
+    /**
+     * @return Stripe directories, the first one is the WAL work directory.
+     */
+    public File[] directories() {
+        return dirs;
+    }
+
+    /**
+     * @param file File.
+     * @return {@code True} if the file is a work segment or a temporary work segment which is striped.
+     */
+    public boolean striped(File file) {
+        String name = file.getName();
+
+        return dirs[0].equals(file.getAbsoluteFile().getParentFile()) &&
+            (WAL_NAME_PATTERN.matcher(name).matches() || WAL_TEMP_NAME_PATTERN.matcher(name).matches());
+    }
+
+    /**
+     * @param file Work segment file.
+     * @return Stripe files of the work segment.
+     */
+    public File[] files(File file) {
+        File[] files = new File[dirs.length];
+
+        for (int i = 0; i < dirs.length; i++)
+            files[i] = new File(dirs[i], file.getName());
+
+        return files;
+    }
+
+    /**
+     * @param delegate Factory of the stripe files I/O.
+     * @return Factory which stripes work segments and delegates I/O of other files.
+     */
+    public FileIOFactory ioFactory(FileIOFactory delegate) {
+        return new FileIOFactory() {
+            /** Serial version uid. */
+            private static final long serialVersionUID = 0L;
+
+            @Override public FileIO create(File file, OpenOption... modes) throws IOException {
+                return striped(file) ? open(delegate, file, modes) : delegate.create(file, modes);
+            }
+        };
+    }
+
+    /**
+     * @param ioFactory Factory of the stripe files I/O.
+     * @param file Work segment file.
+     * @param modes Open modes.
+     * @return Striped file I/O.
+     * @throws IOException If failed.
+     */
+    private FileIO open(FileIOFactory ioFactory, File file, OpenOption... modes) throws IOException {
+        File[] files = files(file);
+
+        FileIO[] ios = new FileIO[files.length];
+
+        try {
+            for (int i = 0; i < files.length; i++)
+                ios[i] = ioFactory.create(files[i], modes);
+        }
+        catch (IOException e) {
+            for (FileIO io : ios)
+                U.closeQuiet(io);
+
+            throw e;
+        }
+
+        return new StripedFileIO(ios, stripeSize, exec);
+    }
+
+    /**
+     * @param file Work segment file.
+     * @return Size of the work segment.
+     */
+    public long length(File file) {
+        File[] files = files(file);
+
+        long size = 0;
+
+        for (int i = 0; i < files.length; i++) {
+            long len = files[i].length();
+
+            if (len == 0)
+                continue;
+
+            // Position of the last byte of the stripe in the segment.
+            long last = ((len - 1) / stripeSize * files.length + i) * stripeSize + (len - 1) % stripeSize;
+
+            size = Math.max(size, last + 1);
+        }
+
+        return size;
+    }
+
+    /**
+     * Moves stripes of the work segment. The first stripe is moved last, so the segment exists only if all its
+     * stripes are moved.
+     *
+     * @param src Source work segment.
+     * @param dst Destination work segment.
+     * @param opts Copy options.
+     * @throws IOException If failed.
+     */
+    public void move(File src, File dst, CopyOption... opts) throws IOException {
+        File[] srcFiles = files(src);
+        File[] dstFiles = files(dst);
+
+        for (int i = srcFiles.length - 1; i >= 0; i--)
+            Files.move(srcFiles[i].toPath(), dstFiles[i].toPath(), opts);
+    }
+
+    /**
+     * Assembles the work segment to a regular file.
+     *
+     * @param ioFactory Striped file I/O factory.
+     * @param src Work segment.
+     * @param dst Destination file.
+     * @param len Number of bytes to copy.
+     * @throws IOException If failed.
+     */
+    public void copy(FileIOFactory ioFactory, File src, File dst, long len) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocateDirect(Math.max(stripeSize, 1024 * 1024));
+
+        try (FileIO in = ioFactory.create(src, READ); FileIO out = ioFactory.create(dst)) {
+            for (long pos = 0; pos < len; ) {
+                buf.clear();
+                buf.limit((int)Math.min(buf.capacity(), len - pos));
+
+                int read = in.readFully(buf, pos);
+
+                if (read <= 0)
+                    break;
+
+                buf.flip();
+
+                out.writeFully(buf, pos);
+
+                pos += read;
+            }
+        }
+    }
+
+    /**
+     * Checks that the work segments are striped with the same stripe count and size, removes stripes of temporary
+     * files and stripes the regular work segments left by the node started without WAL striping.
+     *
+     * @param ioFactory Factory of the stripe files I/O.
+     * @throws IgniteCheckedException If failed.
+     */
+    public void init(FileIOFactory ioFactory) throws IgniteCheckedException {
+        File propsFile = new File(dirs[0], STRIPES_FILE_NAME);
+
+        try {
+            for (int i = 1; i < dirs.length; i++) {
+                for (File file : F.asList(dirs[i].listFiles())) {
+                    String name = file.getName();
+
+                    boolean orphan = WAL_NAME_PATTERN.matcher(name).matches() && !new File(dirs[0], name).exists();
+
+                    if (orphan || WAL_TEMP_NAME_PATTERN.matcher(name).matches())
+                        Files.delete(file.toPath());
+                }
+            }
+
+            if (propsFile.exists()) {
+                Properties props = new Properties();
+
+                try (InputStream in = Files.newInputStream(propsFile.toPath())) {
+                    props.load(in);
+                }
+
+                int cnt = Integer.parseInt(props.getProperty(COUNT_PROP));
+                int size = Integer.parseInt(props.getProperty(SIZE_PROP));
+
+                if (cnt != dirs.length || size != stripeSize) {
+                    throw new IgniteCheckedException("WAL stripes configuration change is not supported " +
+                        "[stripes=" + cnt + ", stripeSize=" + size + ", cfgStripes=" + dirs.length +
+                        ", cfgStripeSize=" + stripeSize + ", dir=" + dirs[0].getAbsolutePath() + ']');
+                }
+
+                return;
+            }
+
+            File[] segments = dirs[0].listFiles(WAL_SEGMENT_FILE_FILTER);
+
+            for (File segment : F.asList(segments))
+                stripe(ioFactory, segment);
+
+            Properties props = new Properties();
+
+            props.setProperty(COUNT_PROP, String.valueOf(dirs.length));
+            props.setProperty(SIZE_PROP, String.valueOf(stripeSize));
+
+            File tmp = new File(propsFile.getPath() + TMP_SUFFIX);
+
+            try (OutputStream out = Files.newOutputStream(tmp.toPath())) {
+                props.store(out, null);
+            }
+
+            try (FileIO io = ioFactory.create(tmp, READ)) {
+                io.force();
+            }
+
+            Files.move(tmp.toPath(), propsFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+
+            for (File segment : F.asList(segments))
+                Files.deleteIfExists(new File(dirs[0], segment.getName() + UNSTRIPED_SUFFIX).toPath());
+
+            if (log.isInfoEnabled() && !F.isEmpty(segments)) {
+                log.info("WAL work segments have been striped [segments=" + segments.length +
+                    ", stripes=" + dirs.length + ", stripeSize=" + stripeSize + ']');
+            }
+        }
+        catch (IOException e) {
+            throw new StorageException("Failed to initialize WAL stripes [dir=" + dirs[0].getAbsolutePath() + ']', e);
+        }
+        catch (NumberFormatException e) {
+            throw new IgniteCheckedException("Failed to read WAL stripes file: " + propsFile.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Stripes the regular work segment. The segment content is saved to a separate file first, so the striping is
+     * repeated after a failure.
+     *
+     * @param ioFactory Factory of the stripe files I/O.
+     * @param segment Work segment.
+     * @throws IOException If failed.
+     */
+    private void stripe(FileIOFactory ioFactory, File segment) throws IOException {
+        File unstriped = new File(dirs[0], segment.getName() + UNSTRIPED_SUFFIX);
+
+        if (!unstriped.exists()) {
+            File tmp = new File(unstriped.getPath() + TMP_SUFFIX);
+
+            Files.copy(segment.toPath(), tmp.toPath(), REPLACE_EXISTING);
+
+            try (FileIO io = ioFactory.create(tmp, READ)) {
+                io.force();
+            }
+
+            Files.move(tmp.toPath(), unstriped.toPath(), ATOMIC_MOVE);
+        }
+
+        ByteBuffer buf = ByteBuffer.allocateDirect(Math.max(stripeSize, 1024 * 1024));
+
+        try (
+            FileIO in = ioFactory.create(unstriped, READ);
+            FileIO out = open(ioFactory, segment, CREATE, READ, WRITE)
+        ) {
+            out.clear();
+
+            long len = in.size();
+
+            for (long pos = 0; pos < len; ) {
+                buf.clear();
+
+                int read = in.readFully(buf, pos);
+
+                if (read <= 0)
+                    break;
+
+                buf.flip();
+
+                out.writeFully(buf, pos);
+
+                pos += read;
+            }
+
+            out.force();
+        }
+    }
+}
@@ -23,12 +23,10 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import org.apache.ignite.IgniteCheckedException;
 import org.apache.ignite.IgniteLogger;
 import org.apache.ignite.IgniteSystemProperties;
-import org.apache.ignite.configuration.DataStorageConfiguration;
 import org.apache.ignite.configuration.WALMode;
 import org.apache.ignite.failure.FailureContext;
 import org.apache.ignite.internal.IgniteInterruptedCheckedException;
@@ -88,14 +86,29 @@ class FsyncFileWriteHandle extends AbstractFileHandle implements FileWriteHandle
     private final AtomicBoolean stop = new AtomicBoolean(false);
 
     /** */
-    private final Lock lock = new ReentrantLock();
+    private final ReentrantLock lock = new ReentrantLock();
 
     /** Condition activated each time writeBuffer() completes. Used to wait previously flushed write to complete */
     private final Condition writeComplete = lock.newCondition();
 
-    /** Condition for timed wait of several threads, see {@link DataStorageConfiguration#getWalFsyncDelayNanos()} */
+    /** Condition for threads waiting for the fsync performed by the group leader. */
     private final Condition fsync = lock.newCondition();
 
+    /** Condition for the group leader waiting for other commits to join the group. */
+    private final Condition grpJoined = lock.newCondition();
+
+    /** Group commit window. */
+    private final FsyncGroupCommit grpCommit;
+
+    /** Number of threads waiting for the fsync performed by the group leader. Guarded by {@link #lock}. */
+    private int fsyncWaiters;
+
+    /** Group leader collects the group. Guarded by {@link #lock}. */
+    private boolean collecting;
+
+    /** Group leader performs fsync without holding {@link #lock}. Guarded by {@link #lock}. */
+    private boolean syncing;
+
     /**
      * Next segment available condition. Protection from "spurious wakeup" is provided by predicate {@link
      * #fileIO}=<code>null</code>
@@ -117,9 +130,6 @@ class FsyncFileWriteHandle extends AbstractFileHandle implements FileWriteHandle
     /** Logger. */
     protected final IgniteLogger log;
 
-    /** Fsync delay. */
-    private final long fsyncDelay;
-
     /** Switch segment record offset. */
     private int switchSegmentRecordOffset;
 
@@ -147,13 +157,13 @@ class FsyncFileWriteHandle extends AbstractFileHandle implements FileWriteHandle
      * @param mode WAL mode.
      * @param maxSegmentSize Max segment size.
      * @param size Thread local byte buffer size.
-     * @param fsyncDelay Fsync delay.
+     * @param grpCommit Group commit window.
      * @throws IOException If failed.
      */
     FsyncFileWriteHandle(
         GridCacheSharedContext cctx, SegmentIO fileIO,
         DataStorageMetricsImpl metrics, RecordSerializer serializer, long pos,
-        WALMode mode, long maxSegmentSize, int size, long fsyncDelay) throws IOException {
+        WALMode mode, long maxSegmentSize, int size, FsyncGroupCommit grpCommit) throws IOException {
         super(fileIO);
         assert serializer != null;
 
@@ -162,7 +172,7 @@ class FsyncFileWriteHandle extends AbstractFileHandle implements FileWriteHandle
         this.cctx = cctx;
         this.metrics = metrics;
         this.log = cctx.logger(FsyncFileWriteHandle.class);
-        this.fsyncDelay = fsyncDelay;
+        this.grpCommit = grpCommit;
         this.maxSegmentSize = maxSegmentSize;
         this.serializer = serializer;
         this.written = pos;
@@ -561,6 +571,10 @@ class FsyncFileWriteHandle extends AbstractFileHandle implements FileWriteHandle
     }
 
     /**
+     * Syncs the segment up to the pointer. Concurrent commits are grouped: the first thread (group leader) waits
+     * for other commits within the adaptive window of {@link FsyncGroupCommit}, writes all the records of the group
+     * and performs one fsync without holding the lock, other threads wait for the fsync of the leader.
+     *
      * @param ptr Pointer to sync.
      * @throws StorageException If failed.
      * @throws IgniteInterruptedCheckedException If interrupted.
@@ -569,48 +583,125 @@ class FsyncFileWriteHandle extends AbstractFileHandle implements FileWriteHandle
         lock.lock();
 
         try {
+            long waitTime = 0;
+
             if (ptr != null) {
                 if (!needFsync(ptr))
                     return;
 
-                if (fsyncDelay > 0 && !stopped()) {
-                    // Delay fsync to collect as many updates as possible: trade latency for throughput.
-                    U.await(fsync, fsyncDelay, TimeUnit.NANOSECONDS);
+                // Join the group of the current leader.
+                while (collecting || syncing) {
+                    fsyncWaiters++;
+
+                    try {
+                        if (collecting && fsyncWaiters + 1 >= grpCommit.groupSize())
+                            grpJoined.signal();
+
+                        U.await(fsync);
+                    }
+                    finally {
+                        fsyncWaiters--;
+                    }
 
                     if (!needFsync(ptr))
                         return;
                 }
+
+                long window = stopped() ? 0 : grpCommit.window(fsyncWaiters);
+
+                if (window > 0) {
+                    // Delay fsync to collect as many updates as possible: trade latency for throughput.
+                    collecting = true;
+
+                    long start = System.nanoTime();
+
+                    try {
+                        for (long left = window; left > 0 && fsyncWaiters + 1 < grpCommit.groupSize(); )
+                            left = grpJoined.awaitNanos(left);
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+
+                        fsync.signalAll();
+
+                        throw new IgniteInterruptedCheckedException(e);
+                    }
+                    finally {
+                        collecting = false;
+
+                        waitTime = System.nanoTime() - start;
+                    }
+
+                    if (!needFsync(ptr)) {
+                        fsync.signalAll();
+
+                        return;
+                    }
+                }
+            }
+
+            // Fsync without a pointer doesn't join the group, but must not overlap with the leader.
+            while (syncing)
+                U.await(fsync);
+
+            try {
+                flushOrWait(ptr, stop);
             }
+            catch (StorageException e) {
+                fsync.signalAll();
 
-            flushOrWait(ptr, stop);
+                throw e;
+            }
+
+            if (stopped()) {
+                fsync.signalAll();
 
-            if (stopped())
                 return;
+            }
 
             if (lastFsyncPos != written) {
                 assert lastFsyncPos < written; // Fsync position must be behind.
+                assert lock.getHoldCount() == 1 : lock.getHoldCount();
+
+                long syncPos = written;
+                int grpSize = fsyncWaiters + 1;
+                FileIO io = fileIO;
 
                 boolean metricsEnabled = metrics.metricsEnabled();
 
-                long start = metricsEnabled ? System.nanoTime() : 0;
+                long start = System.nanoTime();
+
+                // Other threads keep writing records while the leader waits for the disk.
+                syncing = true;
+
+                lock.unlock();
 
                 try {
-                    fileIO.force();
+                    io.force();
                 }
                 catch (IOException e) {
                     throw new StorageException(e);
                 }
+                finally {
+                    lock.lock();
 
-                lastFsyncPos = written;
+                    syncing = false;
 
-                if (fsyncDelay > 0)
                     fsync.signalAll();
+                }
+
+                long fsyncTime = System.nanoTime() - start;
 
-                long end = metricsEnabled ? System.nanoTime() : 0;
+                if (lastFsyncPos < syncPos)
+                    lastFsyncPos = syncPos;
+
+                grpCommit.onFsync(fsyncTime, grpSize, waitTime);
 
                 if (metricsEnabled)
-                    metrics.onFsync(end - start);
+                    metrics.onFsync(fsyncTime);
             }
+            else
+                fsync.signalAll();
         }
         finally {
             lock.unlock();
@@ -626,6 +717,10 @@ class FsyncFileWriteHandle extends AbstractFileHandle implements FileWriteHandle
             lock.lock();
 
             try {
+                // File can't be closed while the group leader syncs it.
+                while (syncing)
+                    U.awaitQuiet(fsync);
+
                 flushOrWait(null, true);
 
                 assert stopped() : "Segment is not closed after close flush: " + head.get();
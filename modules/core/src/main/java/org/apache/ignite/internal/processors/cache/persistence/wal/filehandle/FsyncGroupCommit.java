@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.wal.filehandle;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.internal.processors.cache.persistence.DataStorageMetricsImpl;
+import org.apache.ignite.internal.util.typedef.internal.S;
+
+/**
+ * Adaptive group commit window of the WAL in FSYNC mode. The thread which initiates WAL fsync (group leader) waits
+ * for other committing threads to join the group, so one fsync covers all of them. The window follows the measured
+ * fsync latency and the size of recent groups: a single committer doesn't wait at all, under concurrency the leader
+ * waits for a part of the fsync latency, but no longer than the expected number of committers have joined.
+ * <p>
+ * Statistics are updated by the group leader under the write handle lock, the instance is shared by write handles
+ * of all segments.
+ */
+class FsyncGroupCommit {
+    /** Weight of the last sample in the moving averages. */
+    private static final double ALPHA = 0.125;
+
+    /** Maximum window, guards against outliers of fsync latency. */
+    private static final long MAX_WINDOW = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /** Minimum window under concurrency, see {@link DataStorageConfiguration#getWalFsyncDelayNanos()}. */
+    private final long minWindow;
+
+    /** Persistence metrics tracker. */
+    private final DataStorageMetricsImpl metrics;
+
+    /** Moving average of fsync duration in nanoseconds. */
+    private volatile double avgFsyncTime;
+
+    /** Moving average of group size. */
+    private volatile double avgGrpSize = 1;
+
+    /**
+     * @param minWindow Minimum window under concurrency in nanoseconds.
+     * @param metrics Persistence metrics tracker.
+     */
+    FsyncGroupCommit(long minWindow, DataStorageMetricsImpl metrics) {
+        this.minWindow = minWindow;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @param waiters Number of threads already waiting for the fsync.
+     * @return Time the group leader should wait for other commits in nanoseconds.
+     */
+    long window(int waiters) {
+        double grpSize = Math.max(avgGrpSize, waiters + 1);
+
+        // Nobody commits concurrently: waiting would only add latency.
+        if (grpSize < 1.5)
+            return 0;
+
+        // The more commits arrive during one fsync, the bigger part of its latency is worth waiting.
+        long window = (long)(avgFsyncTime * (1 - 1 / grpSize));
+
+        return Math.min(MAX_WINDOW, Math.max(minWindow, window));
+    }
+
+    /**
+     * @return Number of commits after which the group leader stops waiting.
+     */
+    int groupSize() {
+        // Allow the group to grow above the average if commits keep arriving.
+        return (int)Math.ceil(avgGrpSize) + 1;
+    }
+
+    /**
+     * @param fsyncTime Fsync duration in nanoseconds.
+     * @param grpSize Number of commits covered by the fsync.
+     * @param waitTime Time the group leader waited for other commits in nanoseconds.
+     */
+    void onFsync(long fsyncTime, int grpSize, long waitTime) {
+        avgFsyncTime = avgFsyncTime == 0 ? fsyncTime : avgFsyncTime + ALPHA * (fsyncTime - avgFsyncTime);
+        avgGrpSize = avgGrpSize + ALPHA * (grpSize - avgGrpSize);
+
+        if (metrics.metricsEnabled())
+            metrics.onWalGroupCommit(grpSize, waitTime, window(0));
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(FsyncGroupCommit.class, this);
+    }
+}
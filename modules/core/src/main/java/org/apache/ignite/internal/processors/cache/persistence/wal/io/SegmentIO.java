@@ -16,6 +16,7 @@
 
 package org.apache.ignite.internal.processors.cache.persistence.wal.io;
 
+import org.apache.ignite.internal.processors.cache.persistence.file.BlockCompressedFileIO;
 import org.apache.ignite.internal.processors.cache.persistence.file.FileIO;
 import org.apache.ignite.internal.processors.cache.persistence.file.FileIODecorator;
 
@@ -41,4 +42,17 @@ public class SegmentIO extends FileIODecorator {
     public long getSegmentId() {
         return segmentId;
     }
+
+    /**
+     * Finds the position to start looking for a record from in a compacted segment.
+     *
+     * @param fileOff Offset of the record in the raw segment.
+     * @return Position in the compacted segment or {@code 0} if it is unknown.
+     */
+    public long compactedPosition(long fileOff) {
+        if (delegate instanceof BlockCompressedFileIO)
+            return ((BlockCompressedFileIO)delegate).indexedPosition(fileOff);
+
+        return 0;
+    }
 }
@@ -0,0 +1,391 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.wal.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.apache.ignite.internal.processors.cache.persistence.file.AbstractFileIO;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileIO;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * File I/O which stripes the file content across several files. The content is split into units of the stripe
+ * size, unit {@code i} is stored in the file {@code i % N} at the offset {@code (i / N) * stripeSize}. Writes and
+ * syncs which touch several stripes are performed in parallel.
+ */
+public class StripedFileIO extends AbstractFileIO {
+    /** Stripe files. */
+    private final FileIO[] stripes;
+
+    /** Stripe unit size in bytes. */
+    private final int stripeSize;
+
+    /** Executor to write and sync stripes in parallel or {@code null} to do it in the caller thread. */
+    @Nullable private final ExecutorService exec;
+
+    /** Flags of the stripes written since the last sync. */
+    private final AtomicIntegerArray dirty;
+
+    /** Position. */
+    private long pos;
+
+    /**
+     * @param stripes Stripe files.
+     * @param stripeSize Stripe unit size in bytes.
+     * @param exec Executor to write and sync stripes in parallel or {@code null} to do it in the caller thread.
+     */
+    public StripedFileIO(FileIO[] stripes, int stripeSize, @Nullable ExecutorService exec) {
+        assert stripes.length > 0;
+        assert stripeSize > 0;
+
+        this.stripes = stripes;
+        this.stripeSize = stripeSize;
+        this.exec = exec;
+
+        dirty = new AtomicIntegerArray(stripes.length);
+    }
+
+    /** {@inheritDoc} */
+    @Override public long position() throws IOException {
+        return pos;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void position(long newPosition) throws IOException {
+        pos = newPosition;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int read(ByteBuffer destBuf) throws IOException {
+        int n = read(destBuf, pos);
+
+        if (n > 0)
+            pos += n;
+
+        return n;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int read(ByteBuffer destBuf, long position) throws IOException {
+        long size = size();
+
+        if (position >= size)
+            return -1;
+
+        int len = (int)Math.min(destBuf.remaining(), size - position);
+
+        int lim = destBuf.limit();
+
+        try {
+            for (int done = 0; done < len; ) {
+                long unit = (position + done) / stripeSize;
+                int unitOff = (int)((position + done) % stripeSize);
+                int chunk = Math.min(len - done, stripeSize - unitOff);
+
+                destBuf.limit(destBuf.position() + chunk);
+
+                int read = stripes[(int)(unit % stripes.length)]
+                    .readFully(destBuf, unit / stripes.length * stripeSize + unitOff);
+
+                // Units which were never written are read as zeros like the holes of a regular file.
+                for (int i = Math.max(read, 0); i < chunk; i++)
+                    destBuf.put((byte)0);
+
+                done += chunk;
+            }
+        }
+        finally {
+            destBuf.limit(lim);
+        }
+
+        return len;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int read(byte[] buf, int off, int len) throws IOException {
+        return read(ByteBuffer.wrap(buf, off, len));
+    }
+
+    /** {@inheritDoc} */
+    @Override public int write(ByteBuffer srcBuf) throws IOException {
+        int n = write(srcBuf, pos);
+
+        pos += n;
+
+        return n;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int write(ByteBuffer srcBuf, long position) throws IOException {
+        int len = srcBuf.remaining();
+
+        if (len == 0)
+            return 0;
+
+        long firstUnit = position / stripeSize;
+        long lastUnit = (position + len - 1) / stripeSize;
+
+        int cnt = (int)Math.min(lastUnit - firstUnit + 1, stripes.length);
+
+        List<Future<?>> futs = null;
+
+        IOException err = null;
+
+        for (int i = cnt - 1; i >= 0; i--) {
+            int stripe = (int)((firstUnit + i) % stripes.length);
+
+            if (i > 0 && exec != null) {
+                try {
+                    if (futs == null)
+                        futs = new ArrayList<>(cnt - 1);
+
+                    futs.add(exec.submit(() -> {
+                        writeStripe(stripe, srcBuf, position, len);
+
+                        return null;
+                    }));
+
+                    continue;
+                }
+                catch (RejectedExecutionException ignored) {
+                    // Executor is stopped, the stripe is written in the caller thread.
+                }
+            }
+
+            try {
+                writeStripe(stripe, srcBuf, position, len);
+            }
+            catch (IOException e) {
+                err = e;
+            }
+        }
+
+        err = await(futs, err);
+
+        if (err != null)
+            throw err;
+
+        srcBuf.position(srcBuf.position() + len);
+
+        return len;
+    }
+
+    /**
+     * Writes the units of the buffer which belong to the stripe.
+     *
+     * @param stripe Stripe index.
+     * @param srcBuf Source buffer, its position is not changed.
+     * @param position File position of the first byte of the buffer.
+     * @param len Number of bytes to write.
+     * @throws IOException If failed.
+     */
+    private void writeStripe(int stripe, ByteBuffer srcBuf, long position, int len) throws IOException {
+        ByteBuffer buf = srcBuf.duplicate();
+
+        int start = buf.position();
+
+        long unit = position / stripeSize;
+
+        // Skip to the first unit of the stripe.
+        while (unit % stripes.length != stripe)
+            unit++;
+
+        for (; unit * stripeSize < position + len; unit += stripes.length) {
+            long from = Math.max(unit * stripeSize, position);
+            long to = Math.min((unit + 1) * stripeSize, position + len);
+
+            buf.limit(start + (int)(to - position));
+            buf.position(start + (int)(from - position));
+
+            stripes[stripe].writeFully(buf, unit / stripes.length * stripeSize + from - unit * stripeSize);
+        }
+
+        dirty.set(stripe, 1);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int write(byte[] buf, int off, int len) throws IOException {
+        return write(ByteBuffer.wrap(buf, off, len));
+    }
+
+    /** {@inheritDoc} */
+    @Override public MappedByteBuffer map(int sizeBytes) throws IOException {
+        throw new UnsupportedOperationException("Striped file can't be mapped to memory.");
+    }
+
+    /** {@inheritDoc} */
+    @Override public void force() throws IOException {
+        force(false);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void force(boolean withMetadata) throws IOException {
+        List<FileIO> toSync = new ArrayList<>(stripes.length);
+
+        for (int i = 0; i < stripes.length; i++) {
+            if (dirty.compareAndSet(i, 1, 0))
+                toSync.add(stripes[i]);
+        }
+
+        List<Future<?>> futs = null;
+
+        IOException err = null;
+
+        for (int i = toSync.size() - 1; i >= 0; i--) {
+            FileIO stripe = toSync.get(i);
+
+            // The first stripe is synced in the caller thread.
+            if (i > 0 && exec != null) {
+                try {
+                    if (futs == null)
+                        futs = new ArrayList<>(toSync.size() - 1);
+
+                    futs.add(exec.submit(() -> {
+                        stripe.force(withMetadata);
+
+                        return null;
+                    }));
+
+                    continue;
+                }
+                catch (RejectedExecutionException ignored) {
+                    // Executor is stopped, the stripe is synced in the caller thread.
+                }
+            }
+
+            try {
+                stripe.force(withMetadata);
+            }
+            catch (IOException e) {
+                err = e;
+            }
+        }
+
+        err = await(futs, err);
+
+        if (err != null)
+            throw err;
+    }
+
+    /**
+     * @param futs Futures of the stripe operations or {@code null} if there are no such operations.
+     * @param err Error of the operation performed in the caller thread.
+     * @return First error.
+     */
+    @Nullable private IOException await(@Nullable List<Future<?>> futs, @Nullable IOException err) {
+        if (futs == null)
+            return err;
+
+        boolean interrupted = false;
+
+        for (Future<?> fut : futs) {
+            while (true) {
+                try {
+                    fut.get();
+
+                    break;
+                }
+                catch (InterruptedException ignored) {
+                    interrupted = true;
+                }
+                catch (ExecutionException e) {
+                    if (err == null) {
+                        err = e.getCause() instanceof IOException ? (IOException)e.getCause() :
+                            new IOException("Failed to write file stripe.", e.getCause());
+                    }
+
+                    break;
+                }
+            }
+        }
+
+        if (interrupted)
+            Thread.currentThread().interrupt();
+
+        return err;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long size() throws IOException {
+        long size = 0;
+
+        for (int i = 0; i < stripes.length; i++) {
+            long len = stripes[i].size();
+
+            if (len == 0)
+                continue;
+
+            // Position of the last byte of the stripe in the file.
+            long last = ((len - 1) / stripeSize * stripes.length + i) * stripeSize + (len - 1) % stripeSize;
+
+            size = Math.max(size, last + 1);
+        }
+
+        return size;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void clear() throws IOException {
+        for (FileIO stripe : stripes)
+            stripe.clear();
+
+        pos = 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void close() throws IOException {
+        IOException err = null;
+
+        for (FileIO stripe : stripes) {
+            try {
+                stripe.close();
+            }
+            catch (IOException e) {
+                if (err == null)
+                    err = e;
+                else
+                    err.addSuppressed(e);
+            }
+        }
+
+        if (err != null)
+            throw err;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getFileSystemBlockSize() {
+        return stripes[0].getFileSystemBlockSize();
+    }
+
+    /** {@inheritDoc} */
+    @Override public int punchHole(long position, int len) {
+        return -1;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getSparseSize() {
+        return -1;
+    }
+}
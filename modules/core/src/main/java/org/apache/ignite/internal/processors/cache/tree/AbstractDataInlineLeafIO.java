@@ -0,0 +1,138 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.tree;
+
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.internal.pagemem.PageUtils;
+import org.apache.ignite.internal.processors.cache.CacheObject;
+import org.apache.ignite.internal.processors.cache.CacheObjectShadow;
+import org.apache.ignite.internal.processors.cache.KeyCacheObject;
+import org.apache.ignite.internal.processors.cache.persistence.CacheDataRow;
+import org.apache.ignite.internal.processors.cache.persistence.CacheSearchRow;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.BPlusIO;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.CacheVersionIO;
+import org.apache.ignite.internal.processors.cache.persistence.tree.util.PageHandler;
+import org.apache.ignite.internal.processors.cache.version.GridCacheVersion;
+
+/**
+ * Cache data tree leaf IO which keeps a copy of small rows next to the row link. The copy has the format
+ * of a data page row without cache ID: key, value, version and expire time. It is prefixed by a 2 bytes length,
+ * zero length means that the row is not inlined and has to be read by link.
+ * <p>
+ * Data pages keep the authoritative copy of a row, so the inlined copy only saves the data page access
+ * on reads and key comparisons.
+ */
+public abstract class AbstractDataInlineLeafIO extends AbstractDataLeafIO {
+    /** Offset of the inlined row length in an item. */
+    private final int inlineOff;
+
+    /** Maximum size of an inlined row. */
+    private final int inlineSize;
+
+    /**
+     * @param type Page type.
+     * @param ver Page format version.
+     * @param linkItemSize Size of link, hash and cache ID part of an item.
+     * @param inlineSize Maximum size of an inlined row.
+     */
+    protected AbstractDataInlineLeafIO(int type, int ver, int linkItemSize, int inlineSize) {
+        super(type, ver, linkItemSize + 2 + inlineSize);
+
+        inlineOff = linkItemSize;
+        this.inlineSize = inlineSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void storeByOffset(long pageAddr, int off, CacheSearchRow row) throws IgniteCheckedException {
+        super.storeByOffset(pageAddr, off, row);
+
+        off += inlineOff;
+
+        int len = row instanceof CacheDataRow ? inlineLength((CacheDataRow)row) : 0;
+
+        PageUtils.putShort(pageAddr, off, (short)len);
+
+        if (len == 0)
+            return;
+
+        CacheDataRow dataRow = (CacheDataRow)row;
+
+        long addr = pageAddr + off + 2;
+
+        addr += dataRow.key().putValue(addr);
+        addr += dataRow.value().putValue(addr);
+
+        CacheVersionIO.write(addr, dataRow.version(), false);
+        addr += CacheVersionIO.size(dataRow.version(), false);
+
+        PageUtils.putLong(addr, 0, dataRow.expireTime());
+    }
+
+    /** {@inheritDoc} */
+    @Override public void store(long dstPageAddr, int dstIdx, BPlusIO<CacheSearchRow> srcIo, long srcPageAddr,
+        int srcIdx) throws IgniteCheckedException {
+        super.store(dstPageAddr, dstIdx, srcIo, srcPageAddr, srcIdx);
+
+        int dstOff = offset(dstIdx) + inlineOff;
+
+        // The same type means the same inline size, so the inlined row is copied as is.
+        if (srcIo.getType() == getType()) {
+            int srcOff = offset(srcIdx) + inlineOff;
+
+            PageHandler.copyMemory(srcPageAddr, srcOff, dstPageAddr, dstOff, 2 + getInlineLength(srcPageAddr, srcIdx));
+        }
+        else
+            PageUtils.putShort(dstPageAddr, dstOff, (short)0);
+    }
+
+    /**
+     * @param pageAddr Page address.
+     * @param idx Item index.
+     * @return Length of the inlined row or {@code 0} if the row is not inlined.
+     */
+    public int getInlineLength(long pageAddr, int idx) {
+        return PageUtils.getShort(pageAddr, offset(idx) + inlineOff);
+    }
+
+    /**
+     * @param pageAddr Page address.
+     * @param idx Item index.
+     * @return Address of the inlined row, the row starts with the key length.
+     */
+    public long inlineAddress(long pageAddr, int idx) {
+        return pageAddr + offset(idx) + inlineOff + 2;
+    }
+
+    /**
+     * @param row Row.
+     * @return Size of the inlined row or {@code 0} if the row is incomplete or doesn't fit.
+     * @throws IgniteCheckedException If failed.
+     */
+    private int inlineLength(CacheDataRow row) throws IgniteCheckedException {
+        KeyCacheObject key = row.key();
+        CacheObject val = row.value();
+        GridCacheVersion ver = row.version();
+
+        // Rows updated in place carry a value shadow, the data page is the only source of the value then.
+        if (key == null || val == null || ver == null || val instanceof CacheObjectShadow)
+            return 0;
+
+        int len = key.valueBytesLength(null) + val.valueBytesLength(null) + CacheVersionIO.size(ver, false) + 8;
+
+        return len <= inlineSize ? len : 0;
+    }
+}
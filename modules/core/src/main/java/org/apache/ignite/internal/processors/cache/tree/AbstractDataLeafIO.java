@@ -42,7 +42,7 @@ public abstract class AbstractDataLeafIO extends BPlusLeafIO<CacheSearchRow> imp
     }
 
     /** {@inheritDoc} */
-    @Override public void storeByOffset(long pageAddr, int off, CacheSearchRow row) {
+    @Override public void storeByOffset(long pageAddr, int off, CacheSearchRow row) throws IgniteCheckedException {
         assert row.link() != 0;
         assertPageType(pageAddr);
 
@@ -86,7 +86,7 @@ public abstract class AbstractDataLeafIO extends BPlusLeafIO<CacheSearchRow> imp
 
     /** {@inheritDoc} */
     @Override public void store(long dstPageAddr, int dstIdx, BPlusIO<CacheSearchRow> srcIo, long srcPageAddr,
-        int srcIdx) {
+        int srcIdx) throws IgniteCheckedException {
         assertPageType(dstPageAddr);
 
         RowLinkIO rowIo = (RowLinkIO) srcIo;
@@ -0,0 +1,669 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.tree;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.internal.metric.IoStatisticsHolder;
+import org.apache.ignite.internal.processors.cache.CacheGroupContext;
+import org.apache.ignite.internal.processors.cache.KeyCacheObject;
+import org.apache.ignite.internal.processors.cache.persistence.CacheDataRow;
+import org.apache.ignite.internal.processors.cache.persistence.CacheDataRowAdapter;
+import org.apache.ignite.internal.processors.cache.persistence.DataStructure;
+import org.apache.ignite.internal.processors.cache.persistence.diagnostic.pagelocktracker.PageLockTrackerManager;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.HashIndexBucketIO;
+import org.apache.ignite.internal.processors.cache.persistence.tree.reuse.LongListReuseBag;
+import org.apache.ignite.internal.processors.cache.persistence.tree.reuse.ReuseList;
+import org.apache.ignite.internal.util.typedef.internal.U;
+
+import static org.apache.ignite.internal.pagemem.PageIdAllocator.FLAG_IDX;
+import static org.apache.ignite.internal.processors.cache.persistence.tree.io.PageIoResolver.DEFAULT_PAGE_IO_RESOLVER;
+
+/**
+ * Extendible hash index of the keys of a partition. Maps a key to the link of its row and serves point lookups
+ * with a single bucket page access. The index mirrors the rows of the {@link CacheDataTree} of the partition,
+ * the tree stays the primary structure for iteration and range operations.
+ * <p>
+ * The directory is kept on heap and is guarded by a stamped lock: updates of the items hold the read lock and
+ * the lock of the bucket page, splits of buckets and doubling of the directory hold the write lock. Lookups read
+ * the directory optimistically and take the read lock only if a split ran concurrently. A bucket which reached
+ * the maximum depth is continued by a chain of overflow pages.
+ * <p>
+ * The index is not logged to WAL and is not restored on start, so it is used for in-memory cache groups only.
+ */
+public class CacheDataHashIndex extends DataStructure {
+    /** Maximum number of hash bits resolved by the directory. */
+    static final int MAX_DEPTH = 16;
+
+    /** */
+    private final CacheDataTree dataTree;
+
+    /** */
+    private final CacheDataRowStore rowStore;
+
+    /** */
+    private final IoStatisticsHolder statHolder;
+
+    /** */
+    private final StampedLock dirLock = new StampedLock();
+
+    /** Bucket page IDs indexed by the low bits of the spread hash. */
+    private volatile long[] dir;
+
+    /** Number of hash bits resolved by the directory. */
+    private int globalDepth;
+
+    /**
+     * @param grp Cache group.
+     * @param name Index name.
+     * @param dataTree Data tree of the partition.
+     * @param rowStore Row store of the partition.
+     * @param reuseList Reuse list.
+     * @param pageLockTrackerManager Page lock tracker manager.
+     * @throws IgniteCheckedException If failed.
+     */
+    public CacheDataHashIndex(
+        CacheGroupContext grp,
+        String name,
+        CacheDataTree dataTree,
+        CacheDataRowStore rowStore,
+        ReuseList reuseList,
+        PageLockTrackerManager pageLockTrackerManager
+    ) throws IgniteCheckedException {
+        super(
+            name,
+            grp.groupId(),
+            grp.name(),
+            grp.dataRegion().pageMemory(),
+            null,
+            pageLockTrackerManager,
+            DEFAULT_PAGE_IO_RESOLVER,
+            FLAG_IDX
+        );
+
+        assert !grp.dataRegion().config().isPersistenceEnabled() : grp.cacheOrGroupName();
+        assert !grp.mvccEnabled() : grp.cacheOrGroupName();
+
+        this.dataTree = dataTree;
+        this.rowStore = rowStore;
+        this.reuseList = reuseList;
+
+        statHolder = grp.statisticsHolderIdx();
+
+        dir = new long[] {allocateBucket(0)};
+    }
+
+    /**
+     * @param cacheId Cache ID or {@link org.apache.ignite.internal.util.typedef.internal.CU#UNDEFINED_CACHE_ID}
+     *      if the cache group is not shared.
+     * @param key Key prepared for cache.
+     * @param x Required row data.
+     * @return Row or {@code null} if the key is absent.
+     * @throws IgniteCheckedException If failed.
+     */
+    public CacheDataRow findOne(int cacheId, KeyCacheObject key, CacheDataRowAdapter.RowData x)
+        throws IgniteCheckedException {
+        int hash = key.hashCode();
+
+        // A found row is valid even if the bucket is split concurrently, because it is read under the bucket lock
+        // and a split moves items under the same lock. A miss is trusted only if the directory wasn't changed.
+        long stamp = dirLock.tryOptimisticRead();
+
+        if (stamp != 0L) {
+            long[] dir0 = dir;
+
+            long pageId = dir0 != null ? dir0[spread(cacheId, hash) & (dir0.length - 1)] : 0L;
+
+            if (pageId != 0L && dirLock.validate(stamp)) {
+                CacheDataRow row = findOne(pageId, cacheId, hash, key, x);
+
+                if (row != null || dirLock.validate(stamp))
+                    return row;
+            }
+        }
+
+        stamp = dirLock.readLock();
+
+        try {
+            return findOne(bucket(cacheId, hash), cacheId, hash, key, x);
+        }
+        finally {
+            dirLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @param pageId First page of the bucket.
+     * @param cacheId Cache ID.
+     * @param hash Key hash.
+     * @param key Key prepared for cache.
+     * @param x Required row data.
+     * @return Row or {@code null} if the key is absent in the bucket.
+     * @throws IgniteCheckedException If failed.
+     */
+    private CacheDataRow findOne(long pageId, int cacheId, int hash, KeyCacheObject key,
+        CacheDataRowAdapter.RowData x) throws IgniteCheckedException {
+        while (pageId != 0L) {
+            long nextPageId;
+
+            long page = acquirePage(pageId, statHolder);
+
+            try {
+                long pageAddr = readLock(pageId, page);
+
+                // The page is recycled by a concurrent destroy, the directory can't be validated then.
+                if (pageAddr == 0L)
+                    return null;
+
+                try {
+                    HashIndexBucketIO io = HashIndexBucketIO.VERSIONS.forPage(pageAddr);
+
+                    int cnt = io.getCount(pageAddr);
+
+                    for (int i = 0; i < cnt; i++) {
+                        if (io.getHash(pageAddr, i) != hash || io.getCacheId(pageAddr, i) != cacheId)
+                            continue;
+
+                        long link = io.getLink(pageAddr, i);
+
+                        // The row is read under the bucket lock, so it can't be released concurrently.
+                        if (dataTree.compareKeys(key, link) == 0)
+                            return rowStore.dataRow(cacheId, hash, link, x);
+                    }
+
+                    nextPageId = io.getNextPageId(pageAddr);
+                }
+                finally {
+                    readUnlock(pageId, page, pageAddr);
+                }
+            }
+            finally {
+                releasePage(pageId, page);
+            }
+
+            pageId = nextPageId;
+        }
+
+        return null;
+    }
+
+    /**
+     * Adds the row of a key which is absent in the index.
+     *
+     * @param cacheId Cache ID.
+     * @param hash Key hash.
+     * @param link Row link.
+     * @throws IgniteCheckedException If failed.
+     */
+    public void put(int cacheId, int hash, long link) throws IgniteCheckedException {
+        assert link != 0L;
+
+        while (true) {
+            long stamp = dirLock.readLock();
+
+            try {
+                if (tryAdd(bucket(cacheId, hash), cacheId, hash, link))
+                    return;
+            }
+            finally {
+                dirLock.unlockRead(stamp);
+            }
+
+            stamp = dirLock.writeLock();
+
+            try {
+                grow(cacheId, hash);
+            }
+            finally {
+                dirLock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * @param cacheId Cache ID.
+     * @param hash Key hash.
+     * @param oldLink Link of the replaced row.
+     * @param newLink Link of the new row.
+     * @throws IgniteCheckedException If failed.
+     */
+    public void replace(int cacheId, int hash, long oldLink, long newLink) throws IgniteCheckedException {
+        assert newLink != 0L;
+
+        boolean found = update(cacheId, hash, oldLink, newLink);
+
+        assert found : "Row is not found in hash index [link=" + U.hexLong(oldLink) + ']';
+    }
+
+    /**
+     * @param cacheId Cache ID.
+     * @param hash Key hash.
+     * @param link Row link.
+     * @throws IgniteCheckedException If failed.
+     */
+    public void remove(int cacheId, int hash, long link) throws IgniteCheckedException {
+        boolean found = update(cacheId, hash, link, 0L);
+
+        assert found : "Row is not found in hash index [link=" + U.hexLong(link) + ']';
+    }
+
+    /**
+     * Releases all the pages of the index.
+     *
+     * @throws IgniteCheckedException If failed.
+     */
+    public void destroy() throws IgniteCheckedException {
+        close();
+
+        long stamp = dirLock.writeLock();
+
+        try {
+            if (dir == null)
+                return;
+
+            LongListReuseBag bag = new LongListReuseBag();
+
+            Set<Long> visited = new HashSet<>();
+
+            for (long headId : dir) {
+                if (!visited.add(headId))
+                    continue;
+
+                long pageId = headId;
+
+                while (pageId != 0L) {
+                    long nextPageId;
+
+                    long page = acquirePage(pageId, statHolder);
+
+                    try {
+                        long pageAddr = writeLock(pageId, page);
+
+                        assert pageAddr != 0L : U.hexLong(pageId);
+
+                        try {
+                            nextPageId = HashIndexBucketIO.VERSIONS.forPage(pageAddr).getNextPageId(pageAddr);
+
+                            bag.addFreePage(recyclePage(pageId, page, pageAddr, null));
+                        }
+                        finally {
+                            writeUnlock(pageId, page, pageAddr, true);
+                        }
+                    }
+                    finally {
+                        releasePage(pageId, page);
+                    }
+
+                    pageId = nextPageId;
+                }
+            }
+
+            dir = null;
+
+            if (reuseList != null)
+                reuseList.addForRecycle(bag);
+        }
+        finally {
+            dirLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return Number of hash bits resolved by the directory.
+     */
+    int globalDepth() {
+        long stamp = dirLock.readLock();
+
+        try {
+            return globalDepth;
+        }
+        finally {
+            dirLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @param cacheId Cache ID.
+     * @param hash Key hash.
+     * @return Spread hash, its low bits address the directory.
+     */
+    private static int spread(int cacheId, int hash) {
+        return U.hash(31 * cacheId + hash);
+    }
+
+    /**
+     * @param cacheId Cache ID.
+     * @param hash Key hash.
+     * @return ID of the first page of the bucket.
+     */
+    private long bucket(int cacheId, int hash) {
+        return dir[spread(cacheId, hash) & (dir.length - 1)];
+    }
+
+    /**
+     * @param depth Local depth.
+     * @return Page ID.
+     * @throws IgniteCheckedException If failed.
+     */
+    private long allocateBucket(int depth) throws IgniteCheckedException {
+        long pageId = allocatePage(null);
+
+        init(pageId, HashIndexBucketIO.VERSIONS.latest());
+
+        long page = acquirePage(pageId, statHolder);
+
+        try {
+            long pageAddr = writeLock(pageId, page);
+
+            assert pageAddr != 0L : U.hexLong(pageId);
+
+            try {
+                HashIndexBucketIO.VERSIONS.forPage(pageAddr).setLocalDepth(pageAddr, depth);
+            }
+            finally {
+                writeUnlock(pageId, page, pageAddr, true);
+            }
+        }
+        finally {
+            releasePage(pageId, page);
+        }
+
+        return pageId;
+    }
+
+    /**
+     * @param pageId First page of the bucket.
+     * @param cacheId Cache ID.
+     * @param hash Key hash.
+     * @param link Row link.
+     * @return {@code False} if the bucket is full.
+     * @throws IgniteCheckedException If failed.
+     */
+    private boolean tryAdd(long pageId, int cacheId, int hash, long link) throws IgniteCheckedException {
+        while (pageId != 0L) {
+            long nextPageId;
+
+            long page = acquirePage(pageId, statHolder);
+
+            try {
+                long pageAddr = writeLock(pageId, page);
+
+                assert pageAddr != 0L : U.hexLong(pageId);
+
+                boolean added = false;
+
+                try {
+                    HashIndexBucketIO io = HashIndexBucketIO.VERSIONS.forPage(pageAddr);
+
+                    if (io.getCount(pageAddr) < io.getCapacity(pageSize())) {
+                        io.addItem(pageAddr, cacheId, hash, link);
+
+                        added = true;
+                    }
+
+                    nextPageId = io.getNextPageId(pageAddr);
+                }
+                finally {
+                    writeUnlock(pageId, page, pageAddr, added);
+                }
+
+                if (added)
+                    return true;
+            }
+            finally {
+                releasePage(pageId, page);
+            }
+
+            pageId = nextPageId;
+        }
+
+        return false;
+    }
+
+    /**
+     * @param cacheId Cache ID.
+     * @param hash Key hash.
+     * @param link Row link.
+     * @param newLink New row link or {@code 0} to remove the item.
+     * @return {@code False} if the item is not found.
+     * @throws IgniteCheckedException If failed.
+     */
+    private boolean update(int cacheId, int hash, long link, long newLink) throws IgniteCheckedException {
+        long stamp = dirLock.readLock();
+
+        try {
+            long pageId = bucket(cacheId, hash);
+
+            while (pageId != 0L) {
+                long nextPageId;
+
+                long page = acquirePage(pageId, statHolder);
+
+                try {
+                    long pageAddr = writeLock(pageId, page);
+
+                    assert pageAddr != 0L : U.hexLong(pageId);
+
+                    boolean found = false;
+
+                    try {
+                        HashIndexBucketIO io = HashIndexBucketIO.VERSIONS.forPage(pageAddr);
+
+                        int cnt = io.getCount(pageAddr);
+
+                        for (int i = 0; i < cnt; i++) {
+                            if (io.getLink(pageAddr, i) != link)
+                                continue;
+
+                            assert io.getHash(pageAddr, i) == hash && io.getCacheId(pageAddr, i) == cacheId;
+
+                            if (newLink == 0L)
+                                io.removeItem(pageAddr, i);
+                            else
+                                io.setLink(pageAddr, i, newLink);
+
+                            found = true;
+
+                            break;
+                        }
+
+                        nextPageId = io.getNextPageId(pageAddr);
+                    }
+                    finally {
+                        writeUnlock(pageId, page, pageAddr, found);
+                    }
+
+                    if (found)
+                        return true;
+                }
+                finally {
+                    releasePage(pageId, page);
+                }
+
+                pageId = nextPageId;
+            }
+
+            return false;
+        }
+        finally {
+            dirLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Makes room for a key in its full bucket: splits the bucket or, if it has the maximum depth, appends
+     * an overflow page to it. Must be called under the directory write lock.
+     *
+     * @param cacheId Cache ID.
+     * @param hash Key hash.
+     * @throws IgniteCheckedException If failed.
+     */
+    private void grow(int cacheId, int hash) throws IgniteCheckedException {
+        assert dirLock.isWriteLocked();
+
+        long headId = bucket(cacheId, hash);
+
+        long lastId = 0L;
+        int depth = -1;
+
+        // The bucket could be split by a concurrent update before the write lock was acquired.
+        long pageId = headId;
+
+        while (pageId != 0L) {
+            long nextPageId;
+
+            long page = acquirePage(pageId, statHolder);
+
+            try {
+                long pageAddr = readLock(pageId, page);
+
+                assert pageAddr != 0L : U.hexLong(pageId);
+
+                try {
+                    HashIndexBucketIO io = HashIndexBucketIO.VERSIONS.forPage(pageAddr);
+
+                    if (io.getCount(pageAddr) < io.getCapacity(pageSize()))
+                        return;
+
+                    if (depth < 0)
+                        depth = io.getLocalDepth(pageAddr);
+
+                    nextPageId = io.getNextPageId(pageAddr);
+                }
+                finally {
+                    readUnlock(pageId, page, pageAddr);
+                }
+            }
+            finally {
+                releasePage(pageId, page);
+            }
+
+            lastId = pageId;
+            pageId = nextPageId;
+        }
+
+        if (depth < MAX_DEPTH)
+            split(headId, depth);
+        else
+            appendOverflowPage(lastId, depth);
+    }
+
+    /**
+     * @param pageId ID of the bucket page.
+     * @param depth Local depth of the bucket.
+     * @throws IgniteCheckedException If failed.
+     */
+    private void split(long pageId, int depth) throws IgniteCheckedException {
+        if (depth == globalDepth) {
+            long[] dir0 = Arrays.copyOf(dir, dir.length << 1);
+
+            System.arraycopy(dir, 0, dir0, dir.length, dir.length);
+
+            dir = dir0;
+
+            globalDepth++;
+        }
+
+        long newPageId = allocateBucket(depth + 1);
+
+        long page = acquirePage(pageId, statHolder);
+
+        try {
+            long pageAddr = writeLock(pageId, page);
+
+            assert pageAddr != 0L : U.hexLong(pageId);
+
+            try {
+                long newPage = acquirePage(newPageId, statHolder);
+
+                try {
+                    long newPageAddr = writeLock(newPageId, newPage);
+
+                    assert newPageAddr != 0L : U.hexLong(newPageId);
+
+                    try {
+                        HashIndexBucketIO io = HashIndexBucketIO.VERSIONS.forPage(pageAddr);
+
+                        assert io.getNextPageId(pageAddr) == 0L : "Overflow page of a bucket which can be split";
+
+                        // Items are moved from the tail, so the item moved in place of a removed one is already visited.
+                        for (int i = io.getCount(pageAddr) - 1; i >= 0; i--) {
+                            int cacheId = io.getCacheId(pageAddr, i);
+                            int hash = io.getHash(pageAddr, i);
+
+                            if ((spread(cacheId, hash) >>> depth & 1) == 0)
+                                continue;
+
+                            io.addItem(newPageAddr, cacheId, hash, io.getLink(pageAddr, i));
+
+                            io.removeItem(pageAddr, i);
+                        }
+
+                        io.setLocalDepth(pageAddr, depth + 1);
+                    }
+                    finally {
+                        writeUnlock(newPageId, newPage, newPageAddr, true);
+                    }
+                }
+                finally {
+                    releasePage(newPageId, newPage);
+                }
+            }
+            finally {
+                writeUnlock(pageId, page, pageAddr, true);
+            }
+        }
+        finally {
+            releasePage(pageId, page);
+        }
+
+        for (int i = 0; i < dir.length; i++) {
+            if (dir[i] == pageId && (i >>> depth & 1) == 1)
+                dir[i] = newPageId;
+        }
+    }
+
+    /**
+     * @param lastPageId ID of the last page of the bucket.
+     * @param depth Local depth of the bucket.
+     * @throws IgniteCheckedException If failed.
+     */
+    private void appendOverflowPage(long lastPageId, int depth) throws IgniteCheckedException {
+        long newPageId = allocateBucket(depth);
+
+        long page = acquirePage(lastPageId, statHolder);
+
+        try {
+            long pageAddr = writeLock(lastPageId, page);
+
+            assert pageAddr != 0L : U.hexLong(lastPageId);
+
+            try {
+                HashIndexBucketIO.VERSIONS.forPage(pageAddr).setNextPageId(pageAddr, newPageId);
+            }
+            finally {
+                writeUnlock(lastPageId, page, pageAddr, true);
+            }
+        }
+        finally {
+            releasePage(lastPageId, page);
+        }
+    }
+}
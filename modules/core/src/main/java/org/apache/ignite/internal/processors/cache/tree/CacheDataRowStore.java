@@ -123,6 +123,34 @@ public class CacheDataRowStore extends RowStore {
         return initDataRow(dataRow, cacheId);
     }
 
+    /**
+     * @param cacheId Cache ID.
+     * @param hash Hash code.
+     * @param link Link.
+     * @param rowData Required row data.
+     * @param inlineAddr Address of the row inlined to a leaf page.
+     * @return Data row.
+     */
+    protected CacheDataRow inlineDataRow(
+        int cacheId,
+        int hash,
+        long link,
+        CacheDataRowAdapter.RowData rowData,
+        long inlineAddr
+    ) {
+        DataRow dataRow = new DataRow(
+            grp,
+            hash,
+            link,
+            partId,
+            rowData,
+            inlineAddr,
+            SKIP_VER.get()
+        );
+
+        return initDataRow(dataRow, cacheId);
+    }
+
     /**
      * @param dataRow Data row.
      * @param cacheId Cache ID.
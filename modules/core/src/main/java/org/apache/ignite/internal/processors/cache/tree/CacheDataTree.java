@@ -341,6 +341,13 @@ public class CacheDataTree extends BPlusTree<CacheSearchRow, CacheDataRow> {
         if (grp.mvccEnabled())
             return grp.sharedGroup() ? MvccCacheIdAwareDataLeafIO.VERSIONS : MvccDataLeafIO.VERSIONS;
 
+        int inlineSize = grp.config().getDataInlineSize();
+
+        if (inlineSize > 0) {
+            return grp.sharedGroup() ? CacheIdAwareDataInlineLeafIO.getVersions(inlineSize) :
+                DataInlineLeafIO.getVersions(inlineSize);
+        }
+
         return grp.sharedGroup() ? CacheIdAwareDataLeafIO.VERSIONS : DataLeafIO.VERSIONS;
     }
 
@@ -351,6 +358,13 @@ public class CacheDataTree extends BPlusTree<CacheSearchRow, CacheDataRow> {
         return rowStore;
     }
 
+    /**
+     * @return {@code True} if leaf pages keep copies of small rows, so rows must not be updated in place.
+     */
+    public boolean inlineRows() {
+        return latestLeafIO() instanceof AbstractDataInlineLeafIO;
+    }
+
     /** {@inheritDoc} */
     @Override protected int compare(BPlusIO<CacheSearchRow> iox, long pageAddr, int idx, CacheSearchRow row)
         throws IgniteCheckedException {
@@ -392,7 +406,12 @@ public class CacheDataTree extends BPlusTree<CacheSearchRow, CacheDataRow> {
 
         assert row.key() != null : row;
 
-        cmp = compareKeys(row.key(), link);
+        long inlineAddr = inlineAddress(iox, pageAddr, idx);
+
+        if (inlineAddr != 0L && PageUtils.getByte(inlineAddr, 4) != CacheObject.TYPE_BINARY_COMPRESSED)
+            cmp = compareKeyBytes(inlineAddr, row.key().valueBytes(grp.cacheObjectContext()));
+        else
+            cmp = compareKeys(row.key(), link);
 
         if (cmp != 0 || !grp.mvccEnabled())
             return cmp;
@@ -406,6 +425,24 @@ public class CacheDataTree extends BPlusTree<CacheSearchRow, CacheDataRow> {
         return -MvccUtils.compare(crd, cntr, opCntr, row); // descending order
     }
 
+    /** {@inheritDoc} */
+    @Override protected int compareOptimistic(BPlusIO<CacheSearchRow> iox, long pageAddr, int idx,
+        CacheSearchRow row) {
+        RowLinkIO io = (RowLinkIO)iox;
+
+        if (grp.sharedGroup()) {
+            int cmp = Integer.compare(io.getCacheId(pageAddr, idx), row.cacheId());
+
+            if (cmp != 0 || row.key() == null)
+                return cmp;
+        }
+
+        int cmp = Integer.compare(io.getHash(pageAddr, idx), row.hash());
+
+        // Keys with the same hash are compared by the row link.
+        return cmp != 0 ? cmp : NEED_ROW;
+    }
+
     /** {@inheritDoc} */
     @Override public CacheDataRow getRow(BPlusIO<CacheSearchRow> io, long pageAddr, int idx, Object flags) {
         RowLinkIO rowIo = (RowLinkIO)io;
@@ -424,8 +461,46 @@ public class CacheDataTree extends BPlusTree<CacheSearchRow, CacheDataRow> {
 
             return rowStore.mvccRow(cacheId, hash, link, x, mvccCrdVer, mvccCntr, mvccOpCntr);
         }
-        else
-            return rowStore.dataRow(cacheId, hash, link, x);
+
+        long inlineAddr = canReadInline(x) ? inlineAddress(io, pageAddr, idx) : 0L;
+
+        if (inlineAddr != 0L)
+            return rowStore.inlineDataRow(cacheId, hash, link, x, inlineAddr);
+
+        return rowStore.dataRow(cacheId, hash, link, x);
+    }
+
+    /**
+     * @param io Page IO.
+     * @param pageAddr Page address.
+     * @param idx Item index.
+     * @return Address of the row inlined to the leaf page or {@code 0} if the row is not inlined.
+     */
+    private static long inlineAddress(BPlusIO<CacheSearchRow> io, long pageAddr, int idx) {
+        if (!(io instanceof AbstractDataInlineLeafIO))
+            return 0L;
+
+        AbstractDataInlineLeafIO inlineIo = (AbstractDataInlineLeafIO)io;
+
+        return inlineIo.getInlineLength(pageAddr, idx) > 0 ? inlineIo.inlineAddress(pageAddr, idx) : 0L;
+    }
+
+    /**
+     * @param rowData Required row data.
+     * @return {@code True} if the row data can be read from an inlined row.
+     */
+    private static boolean canReadInline(CacheDataRowAdapter.RowData rowData) {
+        switch (rowData) {
+            case FULL:
+            case KEY_ONLY:
+            case NO_KEY:
+            case NO_KEY_WITH_VALUE_META_INFO:
+            case NO_KEY_WITH_VALUE_TYPE_AND_EXPIRATION_TIME:
+                return true;
+
+            default:
+                return false;
+        }
     }
 
     /** {@inheritDoc} */
@@ -439,7 +514,7 @@ public class CacheDataTree extends BPlusTree<CacheSearchRow, CacheDataRow> {
      * @return Compare result.
      * @throws IgniteCheckedException If failed.
      */
-    private int compareKeys(KeyCacheObject key, final long link) throws IgniteCheckedException {
+    int compareKeys(KeyCacheObject key, final long link) throws IgniteCheckedException {
         byte[] bytes = key.valueBytes(grp.cacheObjectContext());
 
         final long pageId = pageId(link);
@@ -468,40 +543,8 @@ public class CacheDataTree extends BPlusTree<CacheSearchRow, CacheDataRow> {
 
                     byte type = PageUtils.getByte(addr, 4);
 
-                    if (type != CacheObject.TYPE_BINARY_COMPRESSED) {
-                        final int len = PageUtils.getInt(addr, 0);
-
-                        int lenCmp = Integer.compare(len, bytes.length);
-
-                        if (lenCmp != 0)
-                            return lenCmp;
-
-                        addr += 5; // Skip length and type byte.
-
-                        final int words = len / 8;
-
-                        for (int i = 0; i < words; i++) {
-                            int off = i * 8;
-
-                            long b1 = PageUtils.getLong(addr, off);
-                            long b2 = GridUnsafe.getLong(bytes, GridUnsafe.BYTE_ARR_OFF + off);
-
-                            int cmp = Long.compare(b1, b2);
-
-                            if (cmp != 0)
-                                return cmp;
-                        }
-
-                        for (int i = words * 8; i < len; i++) {
-                            byte b1 = PageUtils.getByte(addr, i);
-                            byte b2 = bytes[i];
-
-                            if (b1 != b2)
-                                return b1 > b2 ? 1 : -1;
-                        }
-
-                        return 0;
-                    }
+                    if (type != CacheObject.TYPE_BINARY_COMPRESSED)
+                        return compareKeyBytes(addr, bytes);
                 }
             }
             finally {
@@ -549,4 +592,44 @@ public class CacheDataTree extends BPlusTree<CacheSearchRow, CacheDataRow> {
 
         return 0;
     }
+
+    /**
+     * @param addr Address of a stored key which is not compressed: length, type byte and key bytes.
+     * @param bytes Key bytes.
+     * @return Compare result.
+     */
+    private static int compareKeyBytes(long addr, byte[] bytes) {
+        final int len = PageUtils.getInt(addr, 0);
+
+        int lenCmp = Integer.compare(len, bytes.length);
+
+        if (lenCmp != 0)
+            return lenCmp;
+
+        addr += 5; // Skip length and type byte.
+
+        final int words = len / 8;
+
+        for (int i = 0; i < words; i++) {
+            int off = i * 8;
+
+            long b1 = PageUtils.getLong(addr, off);
+            long b2 = GridUnsafe.getLong(bytes, GridUnsafe.BYTE_ARR_OFF + off);
+
+            int cmp = Long.compare(b1, b2);
+
+            if (cmp != 0)
+                return cmp;
+        }
+
+        for (int i = words * 8; i < len; i++) {
+            byte b1 = PageUtils.getByte(addr, i);
+            byte b2 = bytes[i];
+
+            if (b1 != b2)
+                return b1 > b2 ? 1 : -1;
+        }
+
+        return 0;
+    }
 }
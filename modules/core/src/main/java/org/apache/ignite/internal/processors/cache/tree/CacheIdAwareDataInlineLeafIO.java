@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.tree;
+
+import org.apache.ignite.internal.pagemem.PageUtils;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.IOVersions;
+
+import static org.apache.ignite.configuration.CacheConfiguration.MAX_DATA_INLINE_SIZE;
+
+/**
+ * Leaf IO of a shared cache group data tree with inlined rows, one page type per inline size.
+ */
+public final class CacheIdAwareDataInlineLeafIO extends AbstractDataInlineLeafIO {
+    /** IO versions indexed by inline size - 1. */
+    @SuppressWarnings("unchecked")
+    private static final IOVersions<CacheIdAwareDataInlineLeafIO>[] VERSIONS = new IOVersions[MAX_DATA_INLINE_SIZE];
+
+    static {
+        for (int i = 0; i < MAX_DATA_INLINE_SIZE; i++)
+            VERSIONS[i] = new IOVersions<>(new CacheIdAwareDataInlineLeafIO(1, i + 1));
+    }
+
+    /**
+     * @param ver Page format version.
+     * @param inlineSize Maximum size of an inlined row.
+     */
+    private CacheIdAwareDataInlineLeafIO(int ver, int inlineSize) {
+        super(T_CACHE_ID_AWARE_DATA_REF_INLINE_LEAF_START + inlineSize - 1, ver, 16, inlineSize);
+    }
+
+    /**
+     * @param inlineSize Maximum size of an inlined row.
+     * @return IO versions for the given inline size.
+     */
+    public static IOVersions<CacheIdAwareDataInlineLeafIO> getVersions(int inlineSize) {
+        assert inlineSize > 0 && inlineSize <= MAX_DATA_INLINE_SIZE : inlineSize;
+
+        return VERSIONS[inlineSize - 1];
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean storeCacheId() {
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getCacheId(long pageAddr, int idx) {
+        return PageUtils.getInt(pageAddr, offset(idx) + 12);
+    }
+}
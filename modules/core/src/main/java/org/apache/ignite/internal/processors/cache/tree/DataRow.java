@@ -61,6 +61,33 @@ public class DataRow extends CacheDataRowAdapter {
             key.partition(part);
     }
 
+    /**
+     * @param grp Cache group (used to initialize row).
+     * @param hash Hash code.
+     * @param link Link.
+     * @param part Partition.
+     * @param rowData Required row data.
+     * @param inlineAddr Address of the row inlined to a leaf page.
+     * @param skipVer Whether version read should be skipped.
+     */
+    protected DataRow(CacheGroupContext grp, int hash, long link, int part, RowData rowData, long inlineAddr,
+        boolean skipVer) {
+        super(link);
+
+        this.hash = hash;
+        this.part = part;
+
+        try {
+            initFromInline(grp, inlineAddr, rowData, skipVer);
+        }
+        catch (IgniteCheckedException e) {
+            throw new IgniteException(e);
+        }
+
+        if (key != null)
+            key.partition(part);
+    }
+
     /**
      * @param key Key.
      * @param val Value.
@@ -0,0 +1,594 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.warmup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.IgniteLogger;
+import org.apache.ignite.configuration.HotPagesWarmUpConfiguration;
+import org.apache.ignite.internal.GridKernalContext;
+import org.apache.ignite.internal.processors.cache.CacheGroupContext;
+import org.apache.ignite.internal.processors.cache.GridCacheSharedContext;
+import org.apache.ignite.internal.processors.cache.persistence.DataRegion;
+import org.apache.ignite.internal.processors.cache.persistence.DatabaseLifecycleListener;
+import org.apache.ignite.internal.processors.cache.persistence.GridCacheDatabaseSharedManager;
+import org.apache.ignite.internal.processors.cache.persistence.IgniteCacheDatabaseSharedManager;
+import org.apache.ignite.internal.processors.cache.persistence.checkpoint.CheckpointListener;
+import org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager;
+import org.apache.ignite.internal.processors.cache.persistence.pagemem.PageMemoryEx;
+import org.apache.ignite.internal.processors.cache.persistence.pagemem.PageMemoryImpl;
+import org.apache.ignite.internal.processors.cache.persistence.partstate.GroupPartitionId;
+import org.apache.ignite.internal.util.GridLongList;
+import org.apache.ignite.internal.util.tostring.GridToStringExclude;
+import org.apache.ignite.internal.util.typedef.internal.S;
+import org.apache.ignite.internal.util.typedef.internal.U;
+import org.apache.ignite.thread.IgniteThreadPoolExecutor;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.apache.ignite.configuration.IgniteConfiguration.DFLT_THREAD_KEEP_ALIVE_TIME;
+import static org.apache.ignite.internal.pagemem.PageIdAllocator.INDEX_PARTITION;
+import static org.apache.ignite.internal.pagemem.PageIdUtils.effectivePageId;
+import static org.apache.ignite.internal.pagemem.PageIdUtils.pageIndex;
+import static org.apache.ignite.internal.pagemem.PageIdUtils.partId;
+
+/**
+ * "Hot pages" warm-up strategy. Pages resident in a persistent data region are recorded to a manifest
+ * after checkpoints, most recently used first. On start the strategy loads the recorded pages back,
+ * as many as the data region can hold, partition by partition in the ascending order of page indexes,
+ * so every partition file is read sequentially.
+ */
+public class HotPagesWarmUpStrategy implements WarmUpStrategy<HotPagesWarmUpConfiguration> {
+    /** Manifests directory name. */
+    public static final String WARM_UP_DIR = "warmup";
+
+    /** Manifest file magic. */
+    private static final int MAGIC = 0x484F5450;
+
+    /** Manifest format version. */
+    private static final int VERSION = 1;
+
+    /** Logger. */
+    @GridToStringExclude
+    private final IgniteLogger log;
+
+    /** Kernal context. */
+    @GridToStringExclude
+    private final GridKernalContext ctx;
+
+    /** Stop flag. */
+    private volatile boolean stop;
+
+    /**
+     * Constructor.
+     *
+     * @param log Logger.
+     * @param ctx Kernal context.
+     */
+    public HotPagesWarmUpStrategy(IgniteLogger log, GridKernalContext ctx) {
+        this.log = log;
+        this.ctx = ctx;
+    }
+
+    /** {@inheritDoc} */
+    @Override public Class<HotPagesWarmUpConfiguration> configClass() {
+        return HotPagesWarmUpConfiguration.class;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void warmUp(
+        HotPagesWarmUpConfiguration cfg,
+        DataRegion region
+    ) throws IgniteCheckedException {
+        assert region.config().isPersistenceEnabled();
+
+        GridCacheSharedContext<?, ?> cctx = ctx.cache().context();
+
+        File manifest = manifestFile(cctx, region);
+
+        if (manifest == null)
+            return;
+
+        // Pages are recorded even if the warm-up itself is stopped.
+        boolean recordPages = region.pageMemory() instanceof PageMemoryImpl
+            && cctx.database() instanceof GridCacheDatabaseSharedManager;
+
+        if (recordPages) {
+            ManifestWriter writer = new ManifestWriter(cfg, region, manifest);
+
+            ((GridCacheDatabaseSharedManager)cctx.database()).addCheckpointListener(writer, region);
+
+            ctx.internalSubscriptionProcessor().registerDatabaseListener(writer);
+        }
+
+        if (stop)
+            return;
+
+        if (!manifest.exists()) {
+            if (log.isInfoEnabled())
+                log.info("Hot pages manifest is not found, skip warm-up [region=" + region.config().getName() + ']');
+
+            return;
+        }
+
+        Map<GroupPartitionId, GridLongList> parts;
+
+        try {
+            parts = readManifest(manifest, region, availableLoadPageCount(region));
+        }
+        catch (IOException e) {
+            U.warn(log, "Failed to read hot pages manifest, skip warm-up [region=" + region.config().getName()
+                + ", file=" + manifest.getAbsolutePath() + ", err=" + e.getMessage() + ']');
+
+            return;
+        }
+
+        if (log.isInfoEnabled()) {
+            log.info("Start warm-up of hot pages [region=" + region.config().getName() + ", partCnt=" + parts.size()
+                + ", pageCnt=" + parts.values().stream().mapToLong(GridLongList::size).sum() + ']');
+        }
+
+        PageMemoryEx pageMem = (PageMemoryEx)region.pageMemory();
+
+        Collection<Long> loaded = U.doInParallel(
+            Math.max(1, cfg.getThreads()),
+            ctx.pools().getSystemExecutorService(),
+            parts.entrySet(),
+            e -> loadPartition(cctx, pageMem, e.getKey(), e.getValue())
+        );
+
+        if (log.isInfoEnabled()) {
+            log.info((stop ? "Stop" : "Finish") + " warm-up of hot pages [region=" + region.config().getName()
+                + ", loadedPageCnt=" + loaded.stream().mapToLong(Long::longValue).sum() + ']');
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void stop() throws IgniteCheckedException {
+        stop = true;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(HotPagesWarmUpStrategy.class, this);
+    }
+
+    /**
+     * Getting count of pages available for loading into data region.
+     *
+     * @param region Data region.
+     * @return Count(non-negative) of pages available for loading into data region.
+     */
+    private long availableLoadPageCount(DataRegion region) {
+        long maxSize = region.config().getMaxSize();
+        long curSize = region.pageMemory().loadedPages() * region.pageMemory().systemPageSize();
+
+        return Math.max(0, (maxSize - curSize) / region.pageMemory().systemPageSize());
+    }
+
+    /**
+     * Reads the most recently used pages from a manifest, skipping the pages of cache groups and partitions
+     * which are absent on the node.
+     *
+     * @param manifest Manifest file.
+     * @param region Data region.
+     * @param maxCnt Maximum number of pages to read.
+     * @return Page indexes to load grouped by partitions.
+     * @throws IOException If failed.
+     */
+    private Map<GroupPartitionId, GridLongList> readManifest(
+        File manifest,
+        DataRegion region,
+        long maxCnt
+    ) throws IOException {
+        // Null value means that the partition is not loaded.
+        Map<GroupPartitionId, GridLongList> parts = new HashMap<>();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(manifest)))) {
+            if (in.readInt() != MAGIC)
+                throw new IOException("Invalid manifest magic");
+
+            int ver = in.readInt();
+
+            if (ver != VERSION)
+                throw new IOException("Unsupported manifest version: " + ver);
+
+            int cnt = in.readInt();
+
+            long readCnt = 0;
+
+            for (int i = 0; i < cnt && readCnt < maxCnt; i++) {
+                int grpId = in.readInt();
+                long pageId = in.readLong();
+
+                GroupPartitionId part = new GroupPartitionId(grpId, partId(pageId));
+
+                GridLongList idxs = parts.get(part);
+
+                if (idxs == null) {
+                    if (parts.containsKey(part))
+                        continue;
+
+                    idxs = loadable(part, region) ? new GridLongList() : null;
+
+                    parts.put(part, idxs);
+
+                    if (idxs == null)
+                        continue;
+                }
+
+                idxs.add(pageIndex(pageId));
+
+                readCnt++;
+            }
+        }
+
+        parts.values().removeIf(idxs -> idxs == null);
+
+        return parts;
+    }
+
+    /**
+     * @param part Cache group partition.
+     * @param region Data region.
+     * @return {@code True} if the partition is present in the data region of the node.
+     */
+    private boolean loadable(GroupPartitionId part, DataRegion region) {
+        CacheGroupContext grp = ctx.cache().cacheGroup(part.getGroupId());
+
+        if (grp == null || grp.dataRegion() != region)
+            return false;
+
+        return part.getPartitionId() == INDEX_PARTITION || grp.topology().localPartition(part.getPartitionId()) != null;
+    }
+
+    /**
+     * Loads pages of a partition in the order of their offsets in the partition file.
+     *
+     * @param cctx Cache shared context.
+     * @param pageMem Page memory.
+     * @param part Cache group partition.
+     * @param idxs Page indexes.
+     * @return Number of loaded pages.
+     * @throws IgniteCheckedException If failed.
+     */
+    private long loadPartition(
+        GridCacheSharedContext<?, ?> cctx,
+        PageMemoryEx pageMem,
+        GroupPartitionId part,
+        GridLongList idxs
+    ) throws IgniteCheckedException {
+        int grpId = part.getGroupId();
+
+        // Partition could shrink since the manifest was written.
+        long pages = cctx.pageStore().pages(grpId, part.getPartitionId());
+
+        long metaPageId = pageMem.partitionMetaPageId(grpId, part.getPartitionId());
+
+        idxs.sort();
+
+        long loaded = 0;
+
+        for (int i = 0; i < idxs.size() && !stop; i++) {
+            long pageIdx = idxs.get(i);
+
+            if (pageIdx >= pages)
+                break;
+
+            long pageId = metaPageId + pageIdx;
+            long pagePtr = -1;
+
+            try {
+                pagePtr = pageMem.acquirePage(grpId, pageId);
+            }
+            finally {
+                if (pagePtr != -1)
+                    pageMem.releasePage(grpId, pageId, pagePtr);
+            }
+
+            loaded++;
+        }
+
+        return loaded;
+    }
+
+    /**
+     * @param cctx Cache shared context.
+     * @param region Data region.
+     * @return Manifest file of the data region or {@code null} if page store is not file based.
+     */
+    private static File manifestFile(GridCacheSharedContext<?, ?> cctx, DataRegion region) {
+        if (!(cctx.pageStore() instanceof FilePageStoreManager))
+            return null;
+
+        File dir = new File(((FilePageStoreManager)cctx.pageStore()).workDir(), WARM_UP_DIR);
+
+        return new File(dir, "hot-pages-" + U.maskForFileName(region.config().getName()) + ".bin");
+    }
+
+    /**
+     * Writes the manifest of a data region after checkpoints. Manifests are written by a dedicated thread,
+     * so the checkpointer isn't delayed by a scan of the data region. The last manifest is written before
+     * the data region is stopped, whether the node is stopped with the last checkpoint or without it.
+     */
+    private class ManifestWriter implements CheckpointListener, DatabaseLifecycleListener {
+        /** Warm-up configuration. */
+        private final HotPagesWarmUpConfiguration cfg;
+
+        /** Data region. */
+        private final DataRegion region;
+
+        /** Manifest file. */
+        private final File manifest;
+
+        /** Dump executor, its thread is terminated while idle. */
+        private final IgniteThreadPoolExecutor dumpExec;
+
+        /** Future of the last submitted dump. */
+        private Future<?> dumpFut;
+
+        /** Time of the last dump. */
+        private long lastDumpTs = U.currentTimeMillis();
+
+        /**
+         * @param cfg Warm-up configuration.
+         * @param region Data region.
+         * @param manifest Manifest file.
+         */
+        ManifestWriter(HotPagesWarmUpConfiguration cfg, DataRegion region, File manifest) {
+            this.cfg = cfg;
+            this.region = region;
+            this.manifest = manifest;
+
+            dumpExec = new IgniteThreadPoolExecutor(
+                "hot-pages-dump",
+                ctx.igniteInstanceName(),
+                0,
+                1,
+                DFLT_THREAD_KEEP_ALIVE_TIME,
+                new LinkedBlockingQueue<>()
+            );
+        }
+
+        /** {@inheritDoc} */
+        @Override public void onMarkCheckpointBegin(Context ctx) {
+            // No-op.
+        }
+
+        /** {@inheritDoc} */
+        @Override public void onCheckpointBegin(Context ctx) {
+            // No-op.
+        }
+
+        /** {@inheritDoc} */
+        @Override public void beforeCheckpointBegin(Context ctx) {
+            // No-op.
+        }
+
+        /** {@inheritDoc} */
+        @Override public void afterCheckpointEnd(Context cpCtx) {
+            // The pages are recorded before the data region is stopped.
+            if (dumpExec.isShutdown() || ctx.isStopping())
+                return;
+
+            long now = U.currentTimeMillis();
+
+            // Skip the checkpoint if the previous dump is still in progress.
+            if (now - lastDumpTs < cfg.getDumpInterval() || (dumpFut != null && !dumpFut.isDone()))
+                return;
+
+            lastDumpTs = now;
+
+            dumpFut = dumpExec.submit(() -> dump(now));
+        }
+
+        /** {@inheritDoc} */
+        @Override public void beforeStop(IgniteCacheDatabaseSharedManager mgr) {
+            if (dumpExec.isShutdown())
+                return;
+
+            awaitDump();
+
+            dump(U.currentTimeMillis());
+
+            U.shutdownNow(getClass(), dumpExec, log);
+        }
+
+        /**
+         * Waits for the last submitted dump.
+         */
+        private void awaitDump() {
+            if (dumpFut == null)
+                return;
+
+            try {
+                dumpFut.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            catch (ExecutionException e) {
+                U.error(log, "Failed to write hot pages manifest [region=" + region.config().getName() + ']', e);
+            }
+        }
+
+        /**
+         * Records resident pages ordered by the last access time, most recent first.
+         *
+         * @param now Current time.
+         */
+        private void dump(long now) {
+            try {
+                dump((PageMemoryImpl)region.pageMemory(), now);
+            }
+            catch (IOException e) {
+                U.warn(log, "Failed to write hot pages manifest [region=" + region.config().getName()
+                    + ", file=" + manifest.getAbsolutePath() + ", err=" + e.getMessage() + ']');
+            }
+        }
+
+        /**
+         * Records at most {@link HotPagesWarmUpConfiguration#getMaxPages()} resident pages ordered by the last
+         * access time, most recent first.
+         *
+         * @param pageMem Page memory.
+         * @param now Current time.
+         * @throws IOException If failed.
+         */
+        private void dump(PageMemoryImpl pageMem, long now) throws IOException {
+            RecentPages pages = new RecentPages((int)Math.min(Math.max(0, cfg.getMaxPages()), pageMem.loadedPages()));
+
+            pageMem.forEachLoadedPage(pages::add);
+
+            // Page age in seconds in the high half and position in the heap in the low one.
+            long[] order = new long[pages.size];
+
+            long nowSec = now / 1000;
+
+            for (int i = 0; i < order.length; i++)
+                order[i] = (Math.max(0, nowSec - pages.ts[i] / 1000) << 32) | i;
+
+            Arrays.sort(order);
+
+            U.mkdirs(manifest.getParentFile());
+
+            File tmp = new File(manifest.getPath() + ".tmp");
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(order.length);
+
+                for (long o : order) {
+                    int idx = (int)o;
+
+                    out.writeInt(pages.grpIds[idx]);
+                    out.writeLong(pages.pageIds[idx]);
+                }
+            }
+
+            Files.move(tmp.toPath(), manifest.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+
+            if (log.isDebugEnabled()) {
+                log.debug("Hot pages manifest is written [region=" + region.config().getName()
+                    + ", pageCnt=" + order.length + ']');
+            }
+        }
+    }
+
+    /**
+     * Bounded set of the most recently used pages. Pages are kept in a binary min-heap by the last access time,
+     * so the least recently used page is evicted when a more recent one is added to the full set.
+     */
+    private static class RecentPages {
+        /** Last access timestamps. */
+        private final long[] ts;
+
+        /** Cache group IDs. */
+        private final int[] grpIds;
+
+        /** Effective page IDs. */
+        private final long[] pageIds;
+
+        /** Number of pages in the set. */
+        private int size;
+
+        /**
+         * @param cap Maximum number of pages.
+         */
+        RecentPages(int cap) {
+            ts = new long[cap];
+            grpIds = new int[cap];
+            pageIds = new long[cap];
+        }
+
+        /**
+         * @param grpId Cache group ID.
+         * @param pageId Page ID.
+         * @param accessTs Last access timestamp.
+         */
+        void add(int grpId, long pageId, long accessTs) {
+            if (size < ts.length) {
+                int i = size++;
+
+                // Sift up.
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+
+                    if (ts[parent] <= accessTs)
+                        break;
+
+                    set(i, ts[parent], grpIds[parent], pageIds[parent]);
+
+                    i = parent;
+                }
+
+                set(i, accessTs, grpId, effectivePageId(pageId));
+            }
+            else if (size > 0 && accessTs > ts[0]) {
+                int i = 0;
+
+                // Sift down the replaced root.
+                while (true) {
+                    int child = 2 * i + 1;
+
+                    if (child >= size)
+                        break;
+
+                    if (child + 1 < size && ts[child + 1] < ts[child])
+                        child++;
+
+                    if (ts[child] >= accessTs)
+                        break;
+
+                    set(i, ts[child], grpIds[child], pageIds[child]);
+
+                    i = child;
+                }
+
+                set(i, accessTs, grpId, effectivePageId(pageId));
+            }
+        }
+
+        /**
+         * @param i Heap position.
+         * @param accessTs Last access timestamp.
+         * @param grpId Cache group ID.
+         * @param pageId Effective page ID.
+         */
+        private void set(int i, long accessTs, int grpId, long pageId) {
+            ts[i] = accessTs;
+            grpIds[i] = grpId;
+            pageIds[i] = pageId;
+        }
+    }
+}
@@ -44,8 +44,8 @@ public class GridInternalSubscriptionProcessor extends GridProcessorAdapter {
     private final List<DistributedMetastorageLifecycleListener> distributedMetastorageListeners =
         new CopyOnWriteArrayList<>();
 
-    /** */
-    private final List<DatabaseLifecycleListener> dbListeners = new ArrayList<>();
+    /** Listeners may be registered by other listeners, e.g. by a warm-up strategy on binary memory restore. */
+    private final List<DatabaseLifecycleListener> dbListeners = new CopyOnWriteArrayList<>();
 
     /**
      * Listeners of distributed configuration controlled by {@link org.apache.ignite.internal.processors.configuration.distributed.DistributedConfigurationProcessor}.
@@ -256,6 +256,18 @@ public class OffheapReadWriteLock {
         return lockCount(GridUnsafe.getLongVolatile(null, lock)) == -1;
     }
 
+    /**
+     * @param lock Lock to check.
+     * @param tag Tag.
+     * @return {@code True} if the write lock is not held and the tag matches, so the protected data may be read
+     *      optimistically.
+     */
+    public boolean isReadAllowed(long lock, int tag) {
+        long state = GridUnsafe.getLongVolatile(null, lock);
+
+        return checkTag(state, tag) && canReadLock(state);
+    }
+
     /**
      * @param lock Lock to check.
      * @return {@code True} if at least one read lock is held by any thread for the given offheap RW lock.
@@ -17,11 +17,13 @@
 package org.apache.ignite.internal.util.distributed;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import org.apache.ignite.IgniteCheckedException;
 import org.apache.ignite.IgniteLogger;
@@ -32,6 +34,7 @@ import org.apache.ignite.internal.GridTopic;
 import org.apache.ignite.internal.IgniteInternalFuture;
 import org.apache.ignite.internal.managers.encryption.GridEncryptionManager;
 import org.apache.ignite.internal.processors.affinity.AffinityTopologyVersion;
+import org.apache.ignite.internal.processors.cache.persistence.snapshot.IgniteCacheSnapshotManager;
 import org.apache.ignite.internal.util.GridConcurrentHashSet;
 import org.apache.ignite.internal.util.future.GridFutureAdapter;
 import org.apache.ignite.internal.util.typedef.CI3;
@@ -79,6 +82,9 @@ public class DistributedProcess<I extends Serializable, R extends Serializable>
     /** Logger. */
     private final IgniteLogger log;
 
+    /** Factory which creates custom {@link InitMessage} for distributed process initialization. */
+    private final BiFunction<UUID, I, ? extends InitMessage<I>> initMsgFactory;
+
     /**
      * @param ctx Kernal context.
      * @param type Process type.
@@ -88,8 +94,23 @@ public class DistributedProcess<I extends Serializable, R extends Serializable>
     public DistributedProcess(GridKernalContext ctx, DistributedProcessType type,
         Function<I, IgniteInternalFuture<R>> exec,
         CI3<UUID, Map<UUID, R>, Map<UUID, Exception>> finish) {
+        this(ctx, type, exec, finish, (id, req) -> new InitMessage<>(id, type, req));
+    }
+
+    /**
+     * @param ctx Kernal context.
+     * @param type Process type.
+     * @param exec Execute action and returns future with the single node result to send to the coordinator.
+     * @param finish Finish process closure. Called on each node when all single nodes results received.
+     * @param initMsgFactory Factory which creates custom {@link InitMessage} for distributed process initialization.
+     */
+    public DistributedProcess(GridKernalContext ctx, DistributedProcessType type,
+        Function<I, IgniteInternalFuture<R>> exec,
+        CI3<UUID, Map<UUID, R>, Map<UUID, Exception>> finish,
+        BiFunction<UUID, I, ? extends InitMessage<I>> initMsgFactory) {
         this.ctx = ctx;
         this.type = type;
+        this.initMsgFactory = initMsgFactory;
 
         log = ctx.log(getClass());
 
@@ -217,7 +238,7 @@ public class DistributedProcess<I extends Serializable, R extends Serializable>
      */
     public void start(UUID id, I req) {
         try {
-            InitMessage<I> msg = new InitMessage<>(id, type, req);
+            InitMessage<I> msg = initMsgFactory.apply(id, req);
 
             ctx.discovery().sendCustomEvent(msg);
         }
@@ -239,7 +260,12 @@ public class DistributedProcess<I extends Serializable, R extends Serializable>
 
             assert p.remaining.isEmpty();
 
-            p.remaining.addAll(F.viewReadOnly(ctx.discovery().serverNodes(topVer), F.node2id()));
+            // Topology version is not registered yet if the initial message triggers exchange, but the set of nodes
+            // is not changed by custom messages, so the current topology is used.
+            Collection<ClusterNode> srvNodes = ctx.discovery().topologyVersionEx().compareTo(topVer) < 0 ?
+                ctx.discovery().discoCache().serverNodes() : ctx.discovery().serverNodes(topVer);
+
+            p.remaining.addAll(F.viewReadOnly(srvNodes, F.node2id()));
 
             p.initCrdFut.onDone();
         }
@@ -388,6 +414,20 @@ public class DistributedProcess<I extends Serializable, R extends Serializable>
         /**
          * Cache group encyption key change perform phase.
          */
-        CACHE_GROUP_KEY_CHANGE_FINISH
+        CACHE_GROUP_KEY_CHANGE_FINISH,
+
+        /**
+         * Cluster-wide snapshot creation process.
+         *
+         * @see IgniteCacheSnapshotManager
+         */
+        START_SNAPSHOT,
+
+        /**
+         * Cluster-wide snapshot restore process.
+         *
+         * @see IgniteCacheSnapshotManager
+         */
+        RESTORE_SNAPSHOT
     }
 }
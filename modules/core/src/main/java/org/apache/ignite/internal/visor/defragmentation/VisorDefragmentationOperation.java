@@ -23,5 +23,7 @@ public enum VisorDefragmentationOperation {
     /** */
     STATUS,
     /** */
-    CANCEL
+    CANCEL,
+    /** */
+    ONLINE
 }
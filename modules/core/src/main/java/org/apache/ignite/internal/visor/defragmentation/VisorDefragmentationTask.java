@@ -45,7 +45,8 @@ public class VisorDefragmentationTask extends VisorMultiNodeTask
 
     /** {@inheritDoc} */
     @Nullable @Override protected VisorDefragmentationTaskResult reduce0(List<ComputeJobResult> results) {
-        if (taskArg.operation() == VisorDefragmentationOperation.SCHEDULE) {
+        if (taskArg.operation() == VisorDefragmentationOperation.SCHEDULE
+            || taskArg.operation() == VisorDefragmentationOperation.ONLINE) {
             StringBuilder msg = new StringBuilder();
 
             for (ComputeJobResult res : results) {
@@ -102,6 +103,9 @@ public class VisorDefragmentationTask extends VisorMultiNodeTask
 
                 case CANCEL:
                     return runCancel(arg);
+
+                case ONLINE:
+                    return runOnline(arg);
             }
 
             throw new IllegalArgumentException("Operation: " + arg.operation());
@@ -135,6 +139,36 @@ public class VisorDefragmentationTask extends VisorMultiNodeTask
             return new VisorDefragmentationTaskResult(true, message);
         }
 
+        /** */
+        private VisorDefragmentationTaskResult runOnline(VisorDefragmentationTaskArg arg) {
+            final IgniteDefragmentation defragmentation = ignite.context().defragmentation();
+
+            final IgniteDefragmentation.OnlineResult onlineResult;
+
+            try {
+                onlineResult = defragmentation.startOnline(arg.cacheNames(), arg.rate());
+            }
+            catch (IgniteCheckedException e) {
+                return new VisorDefragmentationTaskResult(false, e.getMessage());
+            }
+
+            String message;
+
+            switch (onlineResult) {
+                case ALREADY_IN_PROGRESS:
+                    message = "Online defragmentation is already in progress.";
+                    break;
+                case STARTED:
+                default:
+                    message = "Online defragmentation started successfully.";
+                    break;
+            }
+
+            boolean started = onlineResult == IgniteDefragmentation.OnlineResult.STARTED;
+
+            return new VisorDefragmentationTaskResult(started, message);
+        }
+
         /** */
         private VisorDefragmentationTaskResult runStatus(VisorDefragmentationTaskArg arg) {
             final IgniteDefragmentation defragmentation = ignite.context().defragmentation();
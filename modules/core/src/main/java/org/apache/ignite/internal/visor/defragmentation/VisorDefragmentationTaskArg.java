@@ -35,6 +35,9 @@ public class VisorDefragmentationTaskArg extends IgniteDataTransferObject {
     /** */
     private List<String> cacheNames;
 
+    /** Maximum number of moved rows per second for online defragmentation, {@code 0} for unlimited. */
+    private int rate;
+
     /** Empty constructor for serialization. */
     public VisorDefragmentationTaskArg() {
         // No-op.
@@ -45,9 +48,18 @@ public class VisorDefragmentationTaskArg extends IgniteDataTransferObject {
         VisorDefragmentationOperation operation,
         List<String> cacheNames
     ) {
+        this(operation, cacheNames, 0);
+    }
 
+    /** */
+    public VisorDefragmentationTaskArg(
+        VisorDefragmentationOperation operation,
+        List<String> cacheNames,
+        int rate
+    ) {
         this.operation = operation;
         this.cacheNames = cacheNames;
+        this.rate = rate;
     }
 
     /** */
@@ -60,11 +72,23 @@ public class VisorDefragmentationTaskArg extends IgniteDataTransferObject {
         return cacheNames;
     }
 
+    /** */
+    public int rate() {
+        return rate;
+    }
+
+    /** {@inheritDoc} */
+    @Override public byte getProtocolVersion() {
+        return V2;
+    }
+
     /** {@inheritDoc} */
     @Override protected void writeExternalData(ObjectOutput out) throws IOException {
         U.writeEnum(out, operation);
 
         U.writeCollection(out, cacheNames);
+
+        out.writeInt(rate);
     }
 
     /** {@inheritDoc} */
@@ -72,5 +96,8 @@ public class VisorDefragmentationTaskArg extends IgniteDataTransferObject {
         operation = U.readEnum(in, VisorDefragmentationOperation.class);
 
         cacheNames = U.readList(in);
+
+        if (protoVer >= V2)
+            rate = in.readInt();
     }
 }
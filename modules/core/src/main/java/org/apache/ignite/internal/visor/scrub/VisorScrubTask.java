@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.ignite.internal.visor.scrub;
+
+import java.util.List;
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.compute.ComputeJobResult;
+import org.apache.ignite.internal.processors.cache.persistence.GridCacheDatabaseSharedManager;
+import org.apache.ignite.internal.processors.cache.persistence.IgniteCacheDatabaseSharedManager;
+import org.apache.ignite.internal.processors.cache.persistence.scrub.PageScrubber;
+import org.apache.ignite.internal.processors.task.GridInternal;
+import org.apache.ignite.internal.processors.task.GridVisorManagementTask;
+import org.apache.ignite.internal.util.typedef.internal.U;
+import org.apache.ignite.internal.visor.VisorJob;
+import org.apache.ignite.internal.visor.VisorMultiNodeTask;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Task to start, cancel or print the status of the page scrubber on the nodes, see {@link PageScrubber}.
+ */
+@GridInternal
+@GridVisorManagementTask
+public class VisorScrubTask extends VisorMultiNodeTask<VisorScrubTaskArg, String, String> {
+    /** Serial version uid. */
+    private static final long serialVersionUID = 0L;
+
+    /** {@inheritDoc} */
+    @Override protected VisorJob<VisorScrubTaskArg, String> job(VisorScrubTaskArg arg) {
+        return new VisorScrubJob(arg, debug);
+    }
+
+    /** {@inheritDoc} */
+    @Nullable @Override protected String reduce0(List<ComputeJobResult> results) {
+        StringBuilder msg = new StringBuilder();
+
+        for (ComputeJobResult res : results) {
+            msg.append(res.getNode().consistentId()).append(":\n");
+
+            if (res.getException() != null)
+                msg.append("    err=").append(res.getException()).append('\n');
+            else
+                msg.append("    ").append((String)res.getData()).append('\n');
+        }
+
+        return msg.toString();
+    }
+
+    /** */
+    private static class VisorScrubJob extends VisorJob<VisorScrubTaskArg, String> {
+        /** Serial version uid. */
+        private static final long serialVersionUID = 0L;
+
+        /**
+         * @param arg Job argument.
+         * @param debug Flag indicating whether debug information should be printed into node log.
+         */
+        protected VisorScrubJob(@Nullable VisorScrubTaskArg arg, boolean debug) {
+            super(arg, debug);
+        }
+
+        /** {@inheritDoc} */
+        @Override protected String run(@Nullable VisorScrubTaskArg arg) throws IgniteException {
+            IgniteCacheDatabaseSharedManager db = ignite.context().cache().context().database();
+
+            PageScrubber scrubber = db instanceof GridCacheDatabaseSharedManager
+                ? ((GridCacheDatabaseSharedManager)db).pageScrubber()
+                : null;
+
+            if (scrubber == null)
+                return "Persistence is not enabled on the node.";
+
+            switch (arg.operation()) {
+                case START:
+                    try {
+                        return scrubber.start(arg.cacheNames(), arg.rate())
+                            ? "Page scrubbing started."
+                            : "Page scrubbing is already in progress.";
+                    }
+                    catch (IgniteCheckedException e) {
+                        throw U.convertException(e);
+                    }
+
+                case STATUS:
+                    String status = scrubber.status();
+
+                    return status == null ? "Page scrubbing has not been started." : status;
+
+                case CANCEL:
+                    return scrubber.cancel() ? "Page scrubbing cancelled." : "Page scrubbing is not in progress.";
+            }
+
+            throw new IllegalArgumentException("Operation: " + arg.operation());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.ignite.internal.visor.scrub;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.List;
+import org.apache.ignite.internal.dto.IgniteDataTransferObject;
+import org.apache.ignite.internal.util.typedef.internal.S;
+import org.apache.ignite.internal.util.typedef.internal.U;
+
+/**
+ * Argument of {@link VisorScrubTask}.
+ */
+@SuppressWarnings("AssignmentOrReturnOfFieldWithMutableType")
+public class VisorScrubTaskArg extends IgniteDataTransferObject {
+    /** Serial version uid. */
+    private static final long serialVersionUID = 0L;
+
+    /** Operation. */
+    private VisorScrubOperation operation;
+
+    /** Names of caches or cache groups to scrub, all persistent caches if empty. */
+    private List<String> cacheNames;
+
+    /** Maximum read rate in megabytes per second, {@code 0} for unlimited, negative for the node default. */
+    private int rate;
+
+    /** Empty constructor for serialization. */
+    public VisorScrubTaskArg() {
+        // No-op.
+    }
+
+    /**
+     * @param operation Operation.
+     * @param cacheNames Names of caches or cache groups to scrub, all persistent caches if empty.
+     * @param rate Maximum read rate in megabytes per second, {@code 0} for unlimited, negative for the node default.
+     */
+    public VisorScrubTaskArg(VisorScrubOperation operation, List<String> cacheNames, int rate) {
+        this.operation = operation;
+        this.cacheNames = cacheNames;
+        this.rate = rate;
+    }
+
+    /** @return Operation. */
+    public VisorScrubOperation operation() {
+        return operation;
+    }
+
+    /** @return Names of caches or cache groups to scrub, all persistent caches if empty. */
+    public List<String> cacheNames() {
+        return cacheNames;
+    }
+
+    /** @return Maximum read rate in megabytes per second, {@code 0} for unlimited, negative for the node default. */
+    public int rate() {
+        return rate;
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void writeExternalData(ObjectOutput out) throws IOException {
+        U.writeEnum(out, operation);
+
+        U.writeCollection(out, cacheNames);
+
+        out.writeInt(rate);
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void readExternalData(byte protoVer, ObjectInput in) throws IOException, ClassNotFoundException {
+        operation = U.readEnum(in, VisorScrubOperation.class);
+
+        cacheNames = U.readList(in);
+
+        rate = in.readInt();
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(VisorScrubTaskArg.class, this);
+    }
+}
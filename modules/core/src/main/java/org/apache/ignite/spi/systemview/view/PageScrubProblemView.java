@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.spi.systemview.view;
+
+import org.apache.ignite.internal.managers.systemview.walker.Order;
+import org.apache.ignite.internal.processors.cache.persistence.scrub.PageScrubber;
+
+/**
+ * Page problem found by the {@link PageScrubber} representation for a {@link SystemView}.
+ */
+public class PageScrubProblemView {
+    /** Cache group name. */
+    private final String cacheGrpName;
+
+    /** Partition id. */
+    private final int partId;
+
+    /** Page index, {@code -1} if the whole file failed. */
+    private final int pageIdx;
+
+    /** Page id stored in the page header. */
+    private final long pageId;
+
+    /** Problem type. */
+    private final String type;
+
+    /** Description. */
+    private final String desc;
+
+    /** Detection time. */
+    private final long time;
+
+    /**
+     * @param cacheGrpName Cache group name.
+     * @param partId Partition id.
+     * @param pageIdx Page index, {@code -1} if the whole file failed.
+     * @param pageId Page id stored in the page header.
+     * @param type Problem type.
+     * @param desc Description.
+     * @param time Detection time.
+     */
+    public PageScrubProblemView(String cacheGrpName, int partId, int pageIdx, long pageId, String type, String desc,
+        long time) {
+        this.cacheGrpName = cacheGrpName;
+        this.partId = partId;
+        this.pageIdx = pageIdx;
+        this.pageId = pageId;
+        this.type = type;
+        this.desc = desc;
+        this.time = time;
+    }
+
+    /** @return Cache group name. */
+    @Order
+    public String cacheGroupName() {
+        return cacheGrpName;
+    }
+
+    /** @return Partition id, {@code 65535} for the index partition. */
+    @Order(1)
+    public int partitionId() {
+        return partId;
+    }
+
+    /** @return Page index in the file, {@code -1} if the whole file failed. */
+    @Order(2)
+    public int pageIndex() {
+        return pageIdx;
+    }
+
+    /** @return Page id stored in the page header. */
+    @Order(3)
+    public long pageId() {
+        return pageId;
+    }
+
+    /** @return Problem type: {@code CRC}, {@code STRUCTURE} or {@code IO}. */
+    @Order(4)
+    public String type() {
+        return type;
+    }
+
+    /** @return Description. */
+    @Order(5)
+    public String description() {
+        return desc;
+    }
+
+    /** @return Detection time. */
+    @Order(6)
+    public long time() {
+        return time;
+    }
+}
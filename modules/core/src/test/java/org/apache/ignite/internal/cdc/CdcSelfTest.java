@@ -0,0 +1,231 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.cdc;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.cdc.CdcConfiguration;
+import org.apache.ignite.cdc.CdcConsumer;
+import org.apache.ignite.cdc.CdcEvent;
+import org.apache.ignite.cluster.ClusterState;
+import org.apache.ignite.configuration.DataRegionConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.internal.IgniteEx;
+import org.apache.ignite.internal.IgniteInternalFuture;
+import org.apache.ignite.internal.pagemem.wal.IgniteWriteAheadLogManager;
+import org.apache.ignite.internal.pagemem.wal.record.CheckpointRecord;
+import org.apache.ignite.internal.processors.cache.persistence.wal.FileWALPointer;
+import org.apache.ignite.internal.processors.cache.persistence.wal.FileWriteAheadLogManager;
+import org.apache.ignite.internal.util.lang.GridAbsPredicate;
+import org.apache.ignite.internal.util.typedef.internal.CU;
+import org.apache.ignite.internal.util.typedef.internal.U;
+import org.apache.ignite.testframework.GridTestUtils;
+import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
+import org.junit.Test;
+
+import static org.apache.ignite.internal.pagemem.wal.record.RolloverType.CURRENT_SEGMENT;
+
+/**
+ * Checks change data capture from the WAL archive.
+ */
+public class CdcSelfTest extends GridCommonAbstractTest {
+    /** */
+    private static final int KEYS = 3_000;
+
+    /** {@inheritDoc} */
+    @Override protected IgniteConfiguration getConfiguration(String igniteInstanceName) throws Exception {
+        return super.getConfiguration(igniteInstanceName)
+            .setDataStorageConfiguration(new DataStorageConfiguration()
+                .setCdcEnabled(true)
+                .setWalSegmentSize(1024 * 1024)
+                .setDefaultDataRegionConfiguration(new DataRegionConfiguration()
+                    .setPersistenceEnabled(true)));
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void beforeTest() throws Exception {
+        super.beforeTest();
+
+        cleanPersistenceDir();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        stopAllGrids();
+
+        cleanPersistenceDir();
+
+        super.afterTest();
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testCaptureAndResume() throws Exception {
+        IgniteEx ignite = startGrid(0);
+
+        ignite.cluster().state(ClusterState.ACTIVE);
+
+        IgniteCache<Integer, String> cache = ignite.getOrCreateCache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < KEYS; i++)
+            cache.put(i, value(i));
+
+        for (int i = 0; i < KEYS; i += 10)
+            cache.remove(i);
+
+        rollOver(ignite);
+
+        forceCheckpoint();
+
+        FileWriteAheadLogManager wal = (FileWriteAheadLogManager)ignite.context().cache().context().wal();
+
+        // Nothing is consumed, so all archive segments are retained.
+        assertEquals(0, wal.truncate(new FileWALPointer(Long.MAX_VALUE, 0, 0)));
+
+        CollectingConsumer consumer = new CollectingConsumer();
+
+        // The last removal is the last change.
+        runCdc(ignite, consumer, () -> "".equals(consumer.data.get(KEYS - 10)));
+
+        assertEquals(KEYS, consumer.data.size());
+
+        for (int i = 0; i < KEYS; i++)
+            assertEquals(i % 10 == 0 ? "" : value(i), consumer.data.get(i));
+
+        FileWALPointer consumed = new CdcConsumerState(walArchiveDir(ignite)).load();
+
+        assertNotNull(consumed);
+
+        if (consumed.index() > 0)
+            assertTrue(wal.truncate(new FileWALPointer(Long.MAX_VALUE, 0, 0)) > 0);
+
+        for (int i = KEYS; i < KEYS * 2; i++)
+            cache.put(i, value(i));
+
+        rollOver(ignite);
+
+        CollectingConsumer consumer0 = new CollectingConsumer();
+
+        runCdc(ignite, consumer0, () -> consumer0.data.containsKey(KEYS * 2 - 1));
+
+        // Consumed changes are not delivered again.
+        assertEquals(KEYS, consumer0.data.size());
+
+        for (int i = KEYS; i < KEYS * 2; i++)
+            assertEquals(value(i), consumer0.data.get(i));
+    }
+
+    /**
+     * Runs change data capture until the condition is met.
+     *
+     * @param ignite Node.
+     * @param consumer Consumer.
+     * @param cond Condition.
+     * @throws Exception If failed.
+     */
+    private void runCdc(IgniteEx ignite, CdcConsumer consumer, GridAbsPredicate cond) throws Exception {
+        CdcMain cdc = new CdcMain(ignite.configuration(), new CdcConfiguration()
+            .setConsumer(consumer)
+            .setCheckFrequency(100)
+            .setMaxBatchSize(100));
+
+        IgniteInternalFuture<?> fut = GridTestUtils.runAsync(cdc);
+
+        try {
+            assertTrue(GridTestUtils.waitForCondition(cond, getTestTimeout()));
+        }
+        finally {
+            cdc.stop();
+        }
+
+        fut.get(getTestTimeout());
+    }
+
+    /**
+     * Switches the WAL to the next segment, so all the changes are archived.
+     *
+     * @param ignite Node.
+     * @throws Exception If failed.
+     */
+    private void rollOver(IgniteEx ignite) throws Exception {
+        IgniteWriteAheadLogManager wal = ignite.context().cache().context().wal();
+
+        ignite.context().cache().context().database().checkpointReadLock();
+
+        try {
+            wal.log(new CheckpointRecord(null), CURRENT_SEGMENT);
+        }
+        finally {
+            ignite.context().cache().context().database().checkpointReadUnlock();
+        }
+    }
+
+    /**
+     * @param ignite Node.
+     * @return WAL archive directory of the node.
+     * @throws Exception If failed.
+     */
+    private File walArchiveDir(IgniteEx ignite) throws Exception {
+        File root = U.resolveWorkDirectory(ignite.configuration().getWorkDirectory(),
+            DataStorageConfiguration.DFLT_WAL_ARCHIVE_PATH, false);
+
+        return new File(root, ignite.context().pdsFolderResolver().resolveFolders().folderName());
+    }
+
+    /**
+     * @param i Key.
+     * @return Value.
+     */
+    private static String value(int i) {
+        return String.valueOf(i) + new String(new char[1000]).replace('\0', 'x');
+    }
+
+    /** Collects primary changes, removed keys are mapped to the empty string. */
+    private static class CollectingConsumer implements CdcConsumer {
+        /** */
+        private final Map<Object, Object> data = new ConcurrentHashMap<>();
+
+        /** {@inheritDoc} */
+        @Override public void start() {
+            // No-op.
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean onEvents(Iterator<CdcEvent> evts) {
+            while (evts.hasNext()) {
+                CdcEvent evt = evts.next();
+
+                assertTrue(evt.primary());
+                assertEquals(CU.cacheId(DEFAULT_CACHE_NAME), evt.cacheId());
+
+                data.put(evt.key(), evt.value() != null ? evt.value() : "");
+            }
+
+            return true;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void stop() {
+            // No-op.
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.encryption;
+
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.internal.IgniteEx;
+import org.apache.ignite.internal.util.typedef.T2;
+import org.apache.ignite.testframework.junits.WithSystemProperty;
+import org.junit.Test;
+
+import static org.apache.ignite.IgniteSystemProperties.IGNITE_PDS_ENCRYPTION_BATCH_PAGES;
+
+/**
+ * Checks that pages of checkpoint runs encrypted in parallel are read back after restart.
+ */
+@WithSystemProperty(key = IGNITE_PDS_ENCRYPTION_BATCH_PAGES, value = "1")
+public class EncryptedCacheParallelPageEncryptionTest extends AbstractEncryptionTest {
+    /** {@inheritDoc} */
+    @Override protected IgniteConfiguration getConfiguration(String name) throws Exception {
+        IgniteConfiguration cfg = super.getConfiguration(name);
+
+        // Checkpoint coalesces adjacent pages into runs which are encrypted in parallel. The region keeps all
+        // the loaded pages, so they are written by the checkpoint rather than by page replacement.
+        cfg.getDataStorageConfiguration()
+            .setCheckpointWriteRunLength(32)
+            .getDefaultDataRegionConfiguration()
+            .setMaxSize(100L * 1024 * 1024);
+
+        return cfg;
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTestsStopped() throws Exception {
+        cleanPersistenceDir();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        stopAllGrids(false);
+
+        cleanPersistenceDir();
+    }
+
+    /** @throws Exception If failed. */
+    @Test
+    public void testRestart() throws Exception {
+        T2<IgniteEx, IgniteEx> grids = startTestGrids(true);
+
+        createEncryptedCache(grids.get1(), grids.get2(), cacheName(), null, false);
+
+        loadData(20_000);
+
+        forceCheckpoint();
+
+        stopAllGrids();
+
+        grids = startTestGrids(false);
+
+        checkEncryptedCaches(grids.get1(), grids.get2());
+
+        checkData(grids.get1());
+    }
+}
@@ -42,6 +42,8 @@ public abstract class AbstractExporterSpiTest extends GridCommonAbstractTest {
         "PagesReplaceRate",
         "AllocationRate",
         "PagesRead",
+        "PagesHit",
+        "PagesHitRatio",
         "OffHeapSize",
         "UsedCheckpointBufferSize",
         "OffheapUsedSize",
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.cache.affinity.rendezvous.RendezvousAffinityFunction;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.internal.IgniteEx;
+import org.apache.ignite.internal.metric.IoStatisticsHolder;
+import org.apache.ignite.internal.processors.cache.IgniteCacheOffheapManager.CacheDataStore;
+import org.apache.ignite.internal.processors.cache.persistence.CacheDataRow;
+import org.apache.ignite.internal.processors.cache.persistence.tree.BPlusTree;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.PageIO;
+import org.apache.ignite.internal.processors.cache.persistence.tree.util.PageHandler;
+import org.apache.ignite.internal.processors.cache.tree.CacheDataTree;
+import org.apache.ignite.internal.processors.cache.tree.SearchRow;
+import org.apache.ignite.internal.util.typedef.internal.CU;
+import org.apache.ignite.testframework.GridTestUtils;
+import org.apache.ignite.testframework.junits.WithSystemProperty;
+import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
+import org.junit.Test;
+
+import static org.apache.ignite.IgniteSystemProperties.IGNITE_CACHE_DATA_HASH_INDEX;
+import static org.apache.ignite.cache.CacheAtomicityMode.ATOMIC;
+
+/**
+ * Checks point lookups served by the hash index of in-memory partitions.
+ */
+@WithSystemProperty(key = IGNITE_CACHE_DATA_HASH_INDEX, value = "true")
+public class CacheDataHashIndexTest extends GridCommonAbstractTest {
+    /** */
+    private static final int KEYS = 20_000;
+
+    /** */
+    private static final String GROUP = "group";
+
+    /** Number of searches of data tree pages of the tested cache group. */
+    private final AtomicLong treeSearches = new AtomicLong();
+
+    /** {@inheritDoc} */
+    @Override protected void beforeTest() throws Exception {
+        super.beforeTest();
+
+        int grpId = CU.cacheId(DEFAULT_CACHE_NAME);
+
+        BPlusTree.testHndWrapper = (tree, hnd) -> {
+            if (!(tree instanceof CacheDataTree) || tree.groupId() != grpId || !(hnd instanceof BPlusTree.Search))
+                return hnd;
+
+            PageHandler<BPlusTree.Get, BPlusTree.Result> delegate = (PageHandler<BPlusTree.Get, BPlusTree.Result>)hnd;
+
+            return new PageHandler<BPlusTree.Get, BPlusTree.Result>() {
+                @Override public BPlusTree.Result run(int cacheId, long pageId, long page, long pageAddr, PageIO io,
+                    Boolean walPlc, BPlusTree.Get g, int lvl, IoStatisticsHolder statHolder)
+                    throws IgniteCheckedException {
+                    treeSearches.incrementAndGet();
+
+                    return delegate.run(cacheId, pageId, page, pageAddr, io, walPlc, g, lvl, statHolder);
+                }
+
+                @Override public boolean releaseAfterWrite(int cacheId, long pageId, long page, long pageAddr,
+                    BPlusTree.Get g, int lvl) {
+                    return delegate.releaseAfterWrite(cacheId, pageId, page, pageAddr, g, lvl);
+                }
+            };
+        };
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        try {
+            stopAllGrids();
+        }
+        finally {
+            BPlusTree.testHndWrapper = null;
+        }
+
+        super.afterTest();
+    }
+
+    /**
+     * @param name Cache name.
+     * @param grp Cache group name.
+     * @return Cache configuration.
+     */
+    private CacheConfiguration<Integer, String> cacheConfiguration(String name, String grp) {
+        return new CacheConfiguration<Integer, String>(name)
+            .setGroupName(grp)
+            .setAtomicityMode(ATOMIC)
+            .setAffinity(new RendezvousAffinityFunction(false, 4));
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testPutGetRemove() throws Exception {
+        IgniteEx ignite = startGrid(0);
+
+        IgniteCache<Integer, String> cache = ignite.createCache(cacheConfiguration(DEFAULT_CACHE_NAME, null));
+
+        for (int i = 0; i < KEYS; i++)
+            cache.put(i, value(i, 0));
+
+        checkIndex(ignite, DEFAULT_CACHE_NAME);
+
+        // Longer values don't fit the old rows, so the links of the keys are replaced.
+        for (int i = 0; i < KEYS; i += 2)
+            cache.put(i, value(i, 100));
+
+        checkIndex(ignite, DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < KEYS; i += 3)
+            cache.remove(i);
+
+        checkIndex(ignite, DEFAULT_CACHE_NAME);
+
+        long searches = treeSearches.get();
+
+        for (int i = 0; i < KEYS; i++)
+            assertEquals(expected(i), cache.get(i));
+
+        assertNull(cache.get(KEYS));
+
+        assertEquals("Gets must not search the data tree", searches, treeSearches.get());
+
+        cache.clear();
+
+        checkIndex(ignite, DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < KEYS; i++)
+            assertNull(cache.get(i));
+
+        for (int i = 0; i < KEYS; i++)
+            cache.put(i, value(i, 0));
+
+        checkIndex(ignite, DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < KEYS; i++)
+            assertEquals(value(i, 0), cache.get(i));
+
+        assertTrue("Puts must search the data tree", treeSearches.get() > searches);
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testSharedGroup() throws Exception {
+        IgniteEx ignite = startGrid(0);
+
+        IgniteCache<Integer, String> cache1 = ignite.createCache(cacheConfiguration("cache1", GROUP));
+        IgniteCache<Integer, String> cache2 = ignite.createCache(cacheConfiguration("cache2", GROUP));
+
+        for (int i = 0; i < KEYS; i++)
+            cache1.put(i, value(i, 0));
+
+        for (int i = 0; i < KEYS; i += 2)
+            cache2.put(i, value(i, 100));
+
+        for (int i = 0; i < KEYS; i++) {
+            assertEquals(value(i, 0), cache1.get(i));
+            assertEquals(i % 2 == 0 ? value(i, 100) : null, cache2.get(i));
+        }
+
+        checkIndex(ignite, "cache1");
+        checkIndex(ignite, "cache2");
+
+        ignite.destroyCache("cache2");
+
+        checkIndex(ignite, "cache1");
+
+        for (int i = 0; i < KEYS; i++)
+            assertEquals(value(i, 0), cache1.get(i));
+    }
+
+    /**
+     * Checks that the hash index and the data tree of each partition of the cache find the same rows
+     * for the present, removed and never inserted keys.
+     *
+     * @param ignite Node.
+     * @param cacheName Cache name.
+     * @throws IgniteCheckedException If failed.
+     */
+    private void checkIndex(IgniteEx ignite, String cacheName) throws IgniteCheckedException {
+        GridCacheContext<?, ?> cctx = ignite.cachex(cacheName).context();
+
+        int cacheId = cctx.group().sharedGroup() ? cctx.cacheId() : CU.UNDEFINED_CACHE_ID;
+
+        long rows = 0;
+
+        for (CacheDataStore store : cctx.group().offheap().cacheDataStores()) {
+            assertNotNull(GridTestUtils.getFieldValue(store, "hashIdx"));
+
+            for (int i = 0; i <= KEYS; i++) {
+                KeyCacheObject key = cctx.toCacheKeyObject(i).prepareForCache(cctx.cacheObjectContext(), false);
+
+                CacheDataRow idxRow = store.find(cctx, key);
+                CacheDataRow treeRow = store.tree().findOne(new SearchRow(cacheId, key));
+
+                if (treeRow == null)
+                    assertNull("Key: " + i, idxRow);
+                else {
+                    assertNotNull("Key: " + i, idxRow);
+                    assertEquals("Key: " + i, treeRow.link(), idxRow.link());
+
+                    // Tombstones of removed keys are indexed too, but are not counted by the cache size.
+                    if (!treeRow.tombstone())
+                        rows++;
+                }
+            }
+        }
+
+        assertEquals(ignite.cache(cacheName).localSizeLong(), rows);
+    }
+
+    /**
+     * @param key Key.
+     * @return Expected value after the updates of {@link #testPutGetRemove()}.
+     */
+    private static String expected(int key) {
+        if (key % 3 == 0)
+            return null;
+
+        return value(key, key % 2 == 0 ? 100 : 0);
+    }
+
+    /**
+     * @param key Key.
+     * @param pad Padding length.
+     * @return Value.
+     */
+    private static String value(int key, int pad) {
+        StringBuilder sb = new StringBuilder("val-").append(key);
+
+        for (int i = 0; i < pad; i++)
+            sb.append('x');
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,422 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.cache.expiry.Duration;
+import javax.cache.expiry.TouchedExpiryPolicy;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.cache.affinity.rendezvous.RendezvousAffinityFunction;
+import org.apache.ignite.cluster.ClusterState;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.DataRegionConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.internal.IgniteEx;
+import org.apache.ignite.internal.processors.cache.IgniteCacheOffheapManager.CacheDataStore;
+import org.apache.ignite.internal.processors.cache.persistence.CacheDataRow;
+import org.apache.ignite.internal.processors.cache.persistence.CacheDataRowAdapter;
+import org.apache.ignite.internal.processors.cache.persistence.CacheDataRowAdapter.RowData;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.CacheVersionIO;
+import org.apache.ignite.internal.processors.cache.tree.AbstractDataInlineLeafIO;
+import org.apache.ignite.internal.processors.cache.tree.CacheDataTree;
+import org.apache.ignite.internal.util.lang.GridCursor;
+import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
+import org.junit.Test;
+
+import static org.apache.ignite.cache.CacheAtomicityMode.ATOMIC;
+
+/**
+ * Checks caches which inline small rows to the leaf pages of the cache data tree.
+ */
+public class CacheDataInlineRowsTest extends GridCommonAbstractTest {
+    /** */
+    private static final int KEYS = 10_000;
+
+    /** */
+    private static final int INLINE_SIZE = 128;
+
+    /** */
+    private static final String GROUP = "group";
+
+    /** */
+    private boolean persistence;
+
+    /** {@inheritDoc} */
+    @Override protected IgniteConfiguration getConfiguration(String igniteInstanceName) throws Exception {
+        return super.getConfiguration(igniteInstanceName)
+            .setDataStorageConfiguration(new DataStorageConfiguration()
+                .setDefaultDataRegionConfiguration(new DataRegionConfiguration()
+                    .setPersistenceEnabled(persistence)));
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void beforeTest() throws Exception {
+        super.beforeTest();
+
+        cleanPersistenceDir();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        stopAllGrids();
+
+        cleanPersistenceDir();
+
+        super.afterTest();
+    }
+
+    /**
+     * @param name Cache name.
+     * @param grp Cache group name.
+     * @return Cache configuration.
+     */
+    private CacheConfiguration<Integer, String> cacheConfiguration(String name, String grp) {
+        return new CacheConfiguration<Integer, String>(name)
+            .setGroupName(grp)
+            .setAtomicityMode(ATOMIC)
+            .setDataInlineSize(INLINE_SIZE)
+            .setAffinity(new RendezvousAffinityFunction(false, 4));
+    }
+
+    /**
+     * Checks that rows of exactly the inline size are inlined and rows one byte longer are not.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testInlineThreshold() throws Exception {
+        IgniteEx ignite = startGrid(0);
+
+        IgniteCache<Integer, String> cache = ignite.createCache(cacheConfiguration(DEFAULT_CACHE_NAME, null));
+
+        checkInlineLeafIO(ignite, DEFAULT_CACHE_NAME);
+
+        Map<Integer, Integer> pads = thresholdPads(ignite, cache);
+
+        // Even keys get rows of exactly the inline size, odd keys get rows one byte longer.
+        for (int i = 0; i < KEYS; i++)
+            cache.put(i, value(i, pads.get(i) + i % 2));
+
+        Map<Integer, Integer> sizes = checkInlinedRows(ignite, DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < KEYS; i++) {
+            assertEquals("Key: " + i, INLINE_SIZE + i % 2, (int)sizes.get(i));
+
+            assertEquals(value(i, pads.get(i) + i % 2), cache.get(i));
+        }
+    }
+
+    /**
+     * Checks updates which move rows from the leaf pages to the data pages only and back.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testMoveBetweenInlineAndLink() throws Exception {
+        IgniteEx ignite = startGrid(0);
+
+        IgniteCache<Integer, String> cache = ignite.createCache(cacheConfiguration(DEFAULT_CACHE_NAME, null));
+
+        Map<Integer, Integer> pads = thresholdPads(ignite, cache);
+
+        // Even keys start inlined, odd keys start linked.
+        for (int i = 0; i < KEYS; i++)
+            cache.put(i, value(i, pads.get(i) + i % 2));
+
+        for (int round = 1; round <= 3; round++) {
+            // Each round moves every row to the other storage.
+            for (int i = 0; i < KEYS; i++)
+                cache.put(i, value(i, pads.get(i) + (i + round) % 2));
+
+            Map<Integer, Integer> sizes = checkInlinedRows(ignite, DEFAULT_CACHE_NAME);
+
+            for (int i = 0; i < KEYS; i++) {
+                assertEquals("Key: " + i, INLINE_SIZE + (i + round) % 2, (int)sizes.get(i));
+
+                assertEquals(value(i, pads.get(i) + (i + round) % 2), cache.get(i));
+            }
+        }
+
+        for (int i = 0; i < KEYS; i += 3)
+            cache.remove(i);
+
+        Map<Integer, Integer> sizes = checkInlinedRows(ignite, DEFAULT_CACHE_NAME);
+
+        assertEquals(KEYS - (KEYS + 2) / 3, sizes.size());
+
+        for (int i = 0; i < KEYS; i++)
+            assertEquals(i % 3 == 0 ? null : value(i, pads.get(i) + (i + 1) % 2), cache.get(i));
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testSharedGroup() throws Exception {
+        IgniteEx ignite = startGrid(0);
+
+        IgniteCache<Integer, String> cache1 = ignite.createCache(cacheConfiguration("cache1", GROUP));
+        IgniteCache<Integer, String> cache2 = ignite.createCache(cacheConfiguration("cache2", GROUP));
+
+        checkInlineLeafIO(ignite, "cache1");
+
+        for (int i = 0; i < KEYS; i++)
+            cache1.put(i, value(i, 0));
+
+        for (int i = 0; i < KEYS; i += 2)
+            cache2.put(i, value(i, INLINE_SIZE));
+
+        for (int i = 0; i < KEYS; i++) {
+            assertEquals(value(i, 0), cache1.get(i));
+            assertEquals(i % 2 == 0 ? value(i, INLINE_SIZE) : null, cache2.get(i));
+        }
+
+        assertEquals(KEYS, checkInlinedRows(ignite, "cache1").size());
+        assertEquals(KEYS / 2, checkInlinedRows(ignite, "cache2").size());
+    }
+
+    /**
+     * Checks that in-place TTL updates don't leave stale inlined rows.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testTouchedExpiry() throws Exception {
+        IgniteEx ignite = startGrid(0);
+
+        IgniteCache<Integer, String> cache = ignite.createCache(cacheConfiguration(DEFAULT_CACHE_NAME, null)
+            .setExpiryPolicyFactory(TouchedExpiryPolicy.factoryOf(new Duration(TimeUnit.MINUTES, 10))));
+
+        for (int i = 0; i < KEYS; i++)
+            cache.put(i, value(i, 0));
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < KEYS; i++)
+                assertEquals(value(i, 0), cache.get(i));
+        }
+
+        for (int i = 0; i < KEYS; i += 2)
+            cache.put(i, value(i + 1, 0));
+
+        for (int i = 0; i < KEYS; i++)
+            assertEquals(value(i % 2 == 0 ? i + 1 : i, 0), cache.get(i));
+
+        checkInlinedRows(ignite, DEFAULT_CACHE_NAME);
+    }
+
+    /**
+     * Checks that the inlined rows are restored from WAL when the leaf pages weren't checkpointed.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testWalRecovery() throws Exception {
+        persistence = true;
+
+        IgniteEx ignite = startGrid(0);
+
+        ignite.cluster().state(ClusterState.ACTIVE);
+
+        IgniteCache<Integer, String> cache = ignite.createCache(cacheConfiguration(DEFAULT_CACHE_NAME, null));
+
+        Map<Integer, Integer> pads = thresholdPads(ignite, cache);
+
+        forceCheckpoint();
+
+        // Everything below is recovered from WAL only.
+        dbMgr(ignite).enableCheckpoints(false).get(getTestTimeout());
+
+        for (int i = 0; i < KEYS; i++)
+            cache.put(i, value(i, pads.get(i) + i % 2));
+
+        // Rows change their storage, so both the leaf copies and the data page rows are replayed.
+        for (int i = 0; i < KEYS; i += 2)
+            cache.put(i, value(i, pads.get(i) + 1));
+
+        for (int i = 1; i < KEYS; i += 4)
+            cache.put(i, value(i, pads.get(i)));
+
+        for (int i = 0; i < KEYS; i += 3)
+            cache.remove(i);
+
+        stopGrid(0, true);
+
+        ignite = startGrid(0);
+
+        ignite.cluster().state(ClusterState.ACTIVE);
+
+        checkInlineLeafIO(ignite, DEFAULT_CACHE_NAME);
+
+        Map<Integer, Integer> sizes = checkInlinedRows(ignite, DEFAULT_CACHE_NAME);
+
+        assertEquals(KEYS - (KEYS + 2) / 3, sizes.size());
+
+        cache = ignite.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < KEYS; i++) {
+            if (i % 3 == 0) {
+                assertNull(cache.get(i));
+
+                continue;
+            }
+
+            int pad = pads.get(i) + (i % 4 == 1 ? 0 : 1);
+
+            assertEquals("Key: " + i, INLINE_SIZE + pad - pads.get(i), (int)sizes.get(i));
+
+            assertEquals(value(i, pad), cache.get(i));
+        }
+    }
+
+    /**
+     * Puts the keys with values which make the rows exactly of the inline size.
+     *
+     * @param ignite Node.
+     * @param cache Cache.
+     * @return Value padding of each key.
+     * @throws IgniteCheckedException If failed.
+     */
+    private Map<Integer, Integer> thresholdPads(IgniteEx ignite, IgniteCache<Integer, String> cache)
+        throws IgniteCheckedException {
+        Map<Integer, Integer> pads = new HashMap<>();
+
+        for (int i = 0; i < KEYS; i++) {
+            cache.put(i, value(i, 0));
+
+            pads.put(i, 0);
+        }
+
+        // Value bytes grow by one with each ASCII char of the padding. The version of an updated row may have
+        // a different size than the version of the inserted one, so the padding is corrected after the update.
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Map<Integer, Integer> sizes = checkInlinedRows(ignite, cache.getName());
+
+            for (int i = 0; i < KEYS; i++) {
+                int pad = pads.get(i) + INLINE_SIZE - sizes.get(i);
+
+                assertTrue("Key: " + i + ", pad: " + pad, pad >= 0);
+
+                pads.put(i, pad);
+
+                cache.put(i, value(i, pad));
+            }
+        }
+
+        Map<Integer, Integer> sizes = checkInlinedRows(ignite, cache.getName());
+
+        for (int i = 0; i < KEYS; i++)
+            assertEquals("Key: " + i, INLINE_SIZE, (int)sizes.get(i));
+
+        return pads;
+    }
+
+    /**
+     * Checks that each leaf item of the cache keeps an inlined copy of its row if and only if the row fits
+     * the inline size, and that the copy is equal to the row read by the link. Tombstones are checked too, but
+     * are not returned.
+     *
+     * @param ignite Node.
+     * @param cacheName Cache name.
+     * @return Row sizes by keys.
+     * @throws IgniteCheckedException If failed.
+     */
+    private Map<Integer, Integer> checkInlinedRows(IgniteEx ignite, String cacheName) throws IgniteCheckedException {
+        GridCacheContext<?, ?> cctx = ignite.cachex(cacheName).context();
+
+        CacheObjectContext coCtx = cctx.cacheObjectContext();
+
+        Map<Integer, Integer> sizes = new HashMap<>();
+
+        for (CacheDataStore store : cctx.group().offheap().cacheDataStores()) {
+            CacheDataTree tree = store.tree();
+
+            if (tree == null)
+                continue;
+
+            GridCursor<CacheDataRow> cur = tree.find(null, null, (t, io, pageAddr, idx) -> {
+                AbstractDataInlineLeafIO leafIo = (AbstractDataInlineLeafIO)io;
+
+                // The row read by the link from the data page.
+                CacheDataRowAdapter row = new CacheDataRowAdapter(leafIo.getLink(pageAddr, idx));
+
+                row.initFromLink(cctx.group(), RowData.FULL);
+
+                // Data page rows keep the cache ID only when page eviction is enabled, the leaf item always keeps it.
+                if (cctx.group().sharedGroup() && leafIo.getCacheId(pageAddr, idx) != cctx.cacheId())
+                    return false;
+
+                int size = row.key().valueBytesLength(null) + row.value().valueBytesLength(null) +
+                    CacheVersionIO.size(row.version(), false) + 8;
+
+                int inlineLen = leafIo.getInlineLength(pageAddr, idx);
+
+                assertEquals("Row: " + row, size <= INLINE_SIZE ? size : 0, inlineLen);
+
+                if (inlineLen != 0) {
+                    CacheDataRow inlined = tree.getRow(io, pageAddr, idx, RowData.FULL);
+
+                    assertEquals(row.key(), inlined.key());
+                    assertEquals(row.version(), inlined.version());
+                    assertEquals(row.expireTime(), inlined.expireTime());
+                    assertEquals(
+                        row.value().<String>value(coCtx, false),
+                        inlined.value().<String>value(coCtx, false));
+                }
+
+                // Removed rows stay in the tree as tombstones of atomic caches.
+                if (!row.tombstone())
+                    assertNull(sizes.put(row.key().value(coCtx, false), size));
+
+                return false;
+            }, null);
+
+            // The closure rejects all the rows, so the cursor visits all the leaves without returning any row.
+            assertFalse(cur.next());
+        }
+
+        return sizes;
+    }
+
+    /**
+     * @param ignite Node.
+     * @param cacheName Cache name.
+     */
+    private void checkInlineLeafIO(IgniteEx ignite, String cacheName) {
+        for (CacheDataStore store : ignite.cachex(cacheName).context().group().offheap().cacheDataStores()) {
+            if (store.tree() != null)
+                assertTrue(store.tree().latestLeafIO() instanceof AbstractDataInlineLeafIO);
+        }
+    }
+
+    /**
+     * @param key Key.
+     * @param pad Padding length.
+     * @return Value.
+     */
+    private static String value(int key, int pad) {
+        StringBuilder sb = new StringBuilder("val-").append(key);
+
+        for (int i = 0; i < pad; i++)
+            sb.append('x');
+
+        return sb.toString();
+    }
+}
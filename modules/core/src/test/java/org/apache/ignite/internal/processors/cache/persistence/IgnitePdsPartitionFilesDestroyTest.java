@@ -54,7 +54,7 @@ import static org.apache.ignite.internal.processors.cache.persistence.file.FileP
  */
 public class IgnitePdsPartitionFilesDestroyTest extends GridCommonAbstractTest {
     /** Partitions count. */
-    private static final int PARTS_CNT = 32;
+    protected static final int PARTS_CNT = 32;
 
     /** Set if I/O exception should be thrown on partition file truncation. */
     private boolean failFileIo;
@@ -114,7 +114,7 @@ public class IgnitePdsPartitionFilesDestroyTest extends GridCommonAbstractTest {
      * @param ignite Ignite.
      * @param keysCnt Keys count.
      */
-    private void loadData(IgniteEx ignite, int keysCnt, int multiplier) {
+    protected void loadData(IgniteEx ignite, int keysCnt, int multiplier) {
         log.info("Load data: keys=" + keysCnt);
 
         try (IgniteDataStreamer streamer = ignite.dataStreamer(DEFAULT_CACHE_NAME)) {
@@ -129,7 +129,7 @@ public class IgnitePdsPartitionFilesDestroyTest extends GridCommonAbstractTest {
      * @param ignite Ignite.
      * @param keysCnt Keys count.
      */
-    private void checkData(IgniteEx ignite, int keysCnt, int multiplier) {
+    protected void checkData(IgniteEx ignite, int keysCnt, int multiplier) {
         log.info("Check data: " + ignite.name() + ", keys=" + keysCnt);
 
         IgniteCache<Integer, Integer> cache = ignite.cache(DEFAULT_CACHE_NAME);
@@ -389,7 +389,7 @@ public class IgnitePdsPartitionFilesDestroyTest extends GridCommonAbstractTest {
      * doesn't exist.
      * @throws IgniteCheckedException If failed.
      */
-    private void checkPartitionFiles(IgniteEx ignite, boolean exists) throws IgniteCheckedException {
+    protected void checkPartitionFiles(IgniteEx ignite, boolean exists) throws IgniteCheckedException {
         int evicted = 0;
 
         GridDhtPartitionTopology top = ignite.cachex(DEFAULT_CACHE_NAME).context().topology();
@@ -420,7 +420,7 @@ public class IgnitePdsPartitionFilesDestroyTest extends GridCommonAbstractTest {
      * @param cacheName Cache name.
      * @param partId Partition id.
      */
-    private static File partitionFile(Ignite ignite, String cacheName, int partId) throws IgniteCheckedException {
+    protected static File partitionFile(Ignite ignite, String cacheName, int partId) throws IgniteCheckedException {
         File dbDir = U.resolveWorkDirectory(U.defaultWorkDirectory(), DFLT_STORE_DIR, false);
 
         String nodeName = ignite.name().replaceAll("\\.", "_");
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.processors.cache.persistence;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.internal.IgniteEx;
+import org.apache.ignite.internal.metric.IoStatisticsHolder;
+import org.apache.ignite.internal.processors.cache.distributed.dht.topology.GridDhtLocalPartition;
+import org.apache.ignite.internal.processors.cache.distributed.dht.topology.GridDhtPartitionState;
+import org.apache.ignite.internal.processors.cache.persistence.tree.BPlusTree;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.PageIO;
+import org.apache.ignite.internal.processors.cache.persistence.tree.util.PageHandler;
+import org.apache.ignite.internal.processors.cache.tree.CacheDataTree;
+import org.apache.ignite.internal.util.typedef.G;
+import org.apache.ignite.internal.util.typedef.internal.CU;
+import org.apache.ignite.testframework.junits.WithSystemProperty;
+import org.junit.Test;
+
+import static org.apache.ignite.IgniteSystemProperties.IGNITE_PDS_DROP_PARTITION_ON_EVICTION;
+
+/**
+ * Checks partition files destroy when the rows of evicted partitions are dropped with the files instead of clearing.
+ */
+@WithSystemProperty(key = IGNITE_PDS_DROP_PARTITION_ON_EVICTION, value = "true")
+public class IgnitePdsPartitionFilesDropOnEvictionTest extends IgnitePdsPartitionFilesDestroyTest {
+    /** Number of rows removed from the leaves of the data trees of the cache. */
+    private final AtomicLong treeRmvs = new AtomicLong();
+
+    /** {@inheritDoc} */
+    @Override protected void beforeTest() throws Exception {
+        super.beforeTest();
+
+        int grpId = CU.cacheId(DEFAULT_CACHE_NAME);
+
+        BPlusTree.testHndWrapper = (tree, hnd) -> {
+            if (!(tree instanceof CacheDataTree) || tree.groupId() != grpId ||
+                !"RemoveFromLeaf".equals(hnd.getClass().getSimpleName()))
+                return hnd;
+
+            PageHandler<Object, BPlusTree.Result> delegate = (PageHandler<Object, BPlusTree.Result>)hnd;
+
+            return new PageHandler<Object, BPlusTree.Result>() {
+                @Override public BPlusTree.Result run(int cacheId, long pageId, long page, long pageAddr, PageIO io,
+                    Boolean walPlc, Object arg, int lvl, IoStatisticsHolder statHolder) throws IgniteCheckedException {
+                    treeRmvs.incrementAndGet();
+
+                    return delegate.run(cacheId, pageId, page, pageAddr, io, walPlc, arg, lvl, statHolder);
+                }
+
+                @Override public boolean releaseAfterWrite(int cacheId, long pageId, long page, long pageAddr,
+                    Object arg, int lvl) {
+                    return delegate.releaseAfterWrite(cacheId, pageId, page, pageAddr, arg, lvl);
+                }
+            };
+        };
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        try {
+            super.afterTest();
+        }
+        finally {
+            BPlusTree.testHndWrapper = null;
+        }
+    }
+
+    /**
+     * Checks that evicted partitions are dropped without removal of the rows, their files are deleted on the next
+     * checkpoint and the partitions are created anew when they are assigned to the node again after restart.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testDropOnEviction() throws Exception {
+        IgniteEx crd = (IgniteEx)startGrids(2);
+
+        crd.cluster().baselineAutoAdjustEnabled(false);
+        crd.cluster().active(true);
+
+        int keysCnt = 50_000;
+
+        loadData(crd, keysCnt, 1);
+
+        treeRmvs.set(0);
+
+        startGridsMultiThreaded(2, 2);
+
+        // Trigger partitions eviction.
+        resetBaselineTopology();
+
+        awaitPartitionMapExchange(true, true, null);
+
+        assertEquals("Rows of evicted partitions must not be removed one by one", 0, treeRmvs.get());
+
+        checkPartitionFiles(crd, true);
+
+        // This checkpoint should delete partition files.
+        forceCheckpoint();
+
+        checkPartitionFiles(crd, false);
+
+        // Evicted partitions are not restored after a clean restart.
+        stopGrid(0);
+
+        crd = startGrid(0);
+
+        awaitPartitionMapExchange();
+
+        checkPartitionFiles(crd, false);
+
+        for (Ignite ignite : G.allGrids())
+            checkData((IgniteEx)ignite, keysCnt, 1);
+
+        // Return the partitions to the first nodes one node at a time to keep a copy of each partition.
+        for (int i = 3; i >= 2; i--) {
+            stopGrid(i);
+
+            resetBaselineTopology();
+
+            awaitPartitionMapExchange(true, true, null);
+        }
+
+        for (int p = 0; p < PARTS_CNT; p++) {
+            GridDhtLocalPartition part = crd.cachex(DEFAULT_CACHE_NAME).context().topology().localPartition(p);
+
+            assertNotNull("part=" + p, part);
+            assertEquals("part=" + p, GridDhtPartitionState.OWNING, part.state());
+            assertTrue("part=" + p, partitionFile(crd, DEFAULT_CACHE_NAME, p).exists());
+        }
+
+        for (Ignite ignite : G.allGrids())
+            checkData((IgniteEx)ignite, keysCnt, 1);
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence;
+
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.Duration;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.cache.affinity.rendezvous.RendezvousAffinityFunction;
+import org.apache.ignite.cluster.ClusterState;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.DataRegionConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.internal.IgniteEx;
+import org.apache.ignite.internal.processors.cache.CacheGroupContext;
+import org.apache.ignite.internal.processors.cache.GridCacheEntryEx;
+import org.apache.ignite.internal.processors.cache.GridCacheEntryRemovedException;
+import org.apache.ignite.internal.processors.cache.IgniteCacheOffheapManager.CacheDataStore;
+import org.apache.ignite.internal.processors.cache.distributed.dht.topology.GridDhtInvalidPartitionException;
+import org.apache.ignite.internal.processors.cache.tree.PendingRow;
+import org.apache.ignite.internal.util.lang.IgniteClosure2X;
+import org.apache.ignite.internal.util.typedef.internal.CU;
+import org.apache.ignite.internal.util.typedef.internal.U;
+import org.apache.ignite.testframework.junits.WithSystemProperty;
+import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
+import org.apache.ignite.util.deque.FastSizeDeque;
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+
+/**
+ * Checks the batch expiration of the rows of the eviction queue.
+ */
+@WithSystemProperty(key = "CLEANUP_WORKER_SLEEP_INTERVAL", value = "3000000")
+public class PendingRowsBatchExpirationTest extends GridCommonAbstractTest {
+    /** Partitions count. */
+    private static final int PARTS = 4;
+
+    /** Keys count. */
+    private static final int KEYS = 2_000;
+
+    /** {@inheritDoc} */
+    @Override protected void beforeTest() throws Exception {
+        super.beforeTest();
+
+        stopAllGrids();
+
+        cleanPersistenceDir();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        stopAllGrids();
+
+        cleanPersistenceDir();
+
+        super.afterTest();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected IgniteConfiguration getConfiguration(String igniteInstanceName) throws Exception {
+        return super.getConfiguration(igniteInstanceName)
+            .setDataStorageConfiguration(new DataStorageConfiguration()
+                .setDefaultDataRegionConfiguration(new DataRegionConfiguration().setPersistenceEnabled(true)))
+            .setCacheConfiguration(new CacheConfiguration<>(DEFAULT_CACHE_NAME)
+                .setAffinity(new RendezvousAffinityFunction(false, PARTS)));
+    }
+
+    /**
+     * Checks that the pending rows and the data rows of the expired entries are removed.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testExpireBatch() throws Exception {
+        IgniteEx ig = startGrid();
+
+        expire(ig, -1);
+
+        for (int p = 0; p < PARTS; p++)
+            checkPartition(ig, p, 0);
+
+        // Pages of the removed rows are consistent after recovery.
+        forceCheckpoint();
+
+        stopAllGrids();
+
+        ig = startGrid();
+
+        IgniteCache<Integer, Integer> cache = ig.cache(DEFAULT_CACHE_NAME);
+
+        assertEquals(0, cache.size());
+
+        for (int p = 0; p < PARTS; p++)
+            checkPartition(ig, p, 0);
+
+        for (int i = 0; i < KEYS; i++)
+            cache.put(i, i);
+
+        for (int i = 0; i < KEYS; i++)
+            assertEquals(i, (int)cache.get(i));
+    }
+
+    /**
+     * Checks that the pending rows of an obsolete partition are removed without the data rows.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testExpireObsoletePartition() throws Exception {
+        IgniteEx ig = startGrid();
+
+        int obsoletePart = 0;
+
+        expire(ig, obsoletePart);
+
+        for (int p = 0; p < PARTS; p++) {
+            long keys = 0;
+
+            if (p == obsoletePart) {
+                for (int i = 0; i < KEYS; i++) {
+                    if (ig.affinity(DEFAULT_CACHE_NAME).partition(i) == p)
+                        keys++;
+                }
+
+                assertTrue(keys > 0);
+            }
+
+            checkPartition(ig, p, keys);
+        }
+    }
+
+    /**
+     * Puts entries with a long time to live and forcibly expires all of them.
+     *
+     * @param ig Node.
+     * @param obsoletePart Partition to report obsolete on expiration or {@code -1}.
+     * @throws Exception If failed.
+     */
+    private void expire(IgniteEx ig, int obsoletePart) throws Exception {
+        ig.cluster().state(ClusterState.ACTIVE);
+
+        IgniteCache<Integer, Integer> cache = ig.<Integer, Integer>cache(DEFAULT_CACHE_NAME)
+            .withExpiryPolicy(new CreatedExpiryPolicy(new Duration(HOURS, 1)));
+
+        for (int i = 0; i < KEYS; i++)
+            cache.put(i, i);
+
+        // Rows don't expire for an hour, so the queue is only filled and processed by the test.
+        FastSizeDeque<PendingRow> queue = ig.context().cache().context().evict().evictQueue(false);
+
+        assertTrue(queue.isEmptyx());
+
+        group(ig).offheap().fillQueue(false, Long.MAX_VALUE, row -> {
+            queue.addLast(row);
+
+            return 0;
+        });
+
+        assertEquals(KEYS, queue.sizex());
+
+        IgniteClosure2X<GridCacheEntryEx, Long, Boolean> c = new IgniteClosure2X<GridCacheEntryEx, Long, Boolean>() {
+            @Override public Boolean applyx(GridCacheEntryEx entry, Long now) {
+                if (entry.partition() == obsoletePart)
+                    throw new GridDhtInvalidPartitionException(obsoletePart, "Test");
+
+                try {
+                    return entry.onTtlExpired(now);
+                }
+                catch (GridCacheEntryRemovedException ignored) {
+                    return false;
+                }
+            }
+        };
+
+        boolean remains = ig.context().cache().context().evict()
+            .expire(false, c, -1, U.currentTimeMillis() + HOURS.toMillis(2));
+
+        assertFalse(remains);
+        assertTrue(queue.isEmptyx());
+    }
+
+    /**
+     * @param ig Node.
+     * @param p Partition.
+     * @param expSize Expected number of data rows.
+     * @throws IgniteCheckedException If failed.
+     */
+    private void checkPartition(IgniteEx ig, int p, long expSize) throws IgniteCheckedException {
+        CacheDataStore store = group(ig).topology().localPartition(p).dataStore();
+
+        assertEquals("part=" + p, expSize, store.fullSize());
+
+        if (store.pendingTree() != null)
+            assertTrue("part=" + p, store.pendingTree().isEmpty());
+    }
+
+    /**
+     * @param ig Node.
+     * @return Cache group.
+     */
+    private CacheGroupContext group(IgniteEx ig) {
+        return ig.context().cache().cacheGroup(CU.cacheId(DEFAULT_CACHE_NAME));
+    }
+}
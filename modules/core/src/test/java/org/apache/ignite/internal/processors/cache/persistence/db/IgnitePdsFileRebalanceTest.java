@@ -0,0 +1,223 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.db;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.cache.affinity.rendezvous.RendezvousAffinityFunction;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.DataRegionConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.internal.IgniteEx;
+import org.apache.ignite.internal.IgniteInternalFuture;
+import org.apache.ignite.testframework.GridTestUtils;
+import org.apache.ignite.testframework.ListeningTestLogger;
+import org.apache.ignite.testframework.LogListener;
+import org.apache.ignite.testframework.junits.WithSystemProperty;
+import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
+import org.junit.Test;
+
+import static org.apache.ignite.IgniteSystemProperties.IGNITE_PDS_FILE_REBALANCE_ENABLED;
+import static org.apache.ignite.cluster.ClusterState.ACTIVE;
+
+/**
+ * Tests rebalancing of persistent partitions by sending checkpointed partition files.
+ */
+@WithSystemProperty(key = IGNITE_PDS_FILE_REBALANCE_ENABLED, value = "true")
+public class IgnitePdsFileRebalanceTest extends GridCommonAbstractTest {
+    /** Partitions count. */
+    private static final int PARTS_CNT = 16;
+
+    /** Number of entries. */
+    private static final int ENTRIES = 10_000;
+
+    /** Maximum checkpoint write lock hold time of a checkpoint installing partition files in milliseconds. */
+    private static final long MAX_LOCK_HOLD_TIME = 500;
+
+    /** Checkpoint write lock hold time of a checkpoint installing partition files. */
+    private static final Pattern LOCK_HOLD_TIME =
+        Pattern.compile("checkpointLockHoldTime=(\\d+)ms.*reason='partition file rebalance'");
+
+    /** Test logger. */
+    private final ListeningTestLogger log = new ListeningTestLogger(false, super.log);
+
+    /** {@inheritDoc} */
+    @Override protected IgniteConfiguration getConfiguration(String name) throws Exception {
+        return super.getConfiguration(name)
+            .setConsistentId(name)
+            .setGridLogger(log)
+            .setCacheConfiguration(new CacheConfiguration<>(DEFAULT_CACHE_NAME)
+                .setBackups(1)
+                .setAffinity(new RendezvousAffinityFunction(false, PARTS_CNT)))
+            .setDataStorageConfiguration(new DataStorageConfiguration()
+                .setDefaultDataRegionConfiguration(new DataRegionConfiguration().setPersistenceEnabled(true)));
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void beforeTest() throws Exception {
+        stopAllGrids();
+
+        cleanPersistenceDir();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        stopAllGrids();
+
+        cleanPersistenceDir();
+
+        log.clearListeners();
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testRebalanceFiles() throws Exception {
+        checkRebalanceFiles(false);
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testRebalanceFilesUnderLoad() throws Exception {
+        checkRebalanceFiles(true);
+    }
+
+    /**
+     * Checks that the entries of the replaced partition stores are not read under the checkpoint write lock.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testCheckpointLockHoldTime() throws Exception {
+        AtomicInteger cps = new AtomicInteger();
+        AtomicLong maxHoldTime = new AtomicLong();
+
+        log.registerListener(s -> {
+            Matcher m = LOCK_HOLD_TIME.matcher(s);
+
+            if (m.find()) {
+                cps.incrementAndGet();
+
+                maxHoldTime.accumulateAndGet(Long.parseLong(m.group(1)), Math::max);
+            }
+        });
+
+        checkRebalanceFiles(true);
+
+        assertTrue(cps.get() > 0);
+
+        assertTrue("maxHoldTime=" + maxHoldTime.get(), maxHoldTime.get() < MAX_LOCK_HOLD_TIME);
+    }
+
+    /**
+     * @param load {@code True} to update entries while partitions are rebalanced.
+     * @throws Exception If failed.
+     */
+    private void checkRebalanceFiles(boolean load) throws Exception {
+        IgniteEx ig = startGrids(2);
+
+        ig.cluster().state(ACTIVE);
+
+        IgniteCache<Integer, Integer> cache = ig.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < ENTRIES; i++)
+            cache.put(i, i);
+
+        LogListener filesLsnr = LogListener.matches("Starting rebalance routine of partition files").build();
+        LogListener failLsnr = LogListener.matches("Failed to rebalance partition file").build();
+
+        log.registerListener(filesLsnr);
+        log.registerListener(failLsnr);
+
+        startGrid(2);
+
+        AtomicBoolean stop = new AtomicBoolean();
+
+        IgniteInternalFuture<?> loadFut = GridTestUtils.runAsync(() -> {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+
+            while (load && !stop.get()) {
+                int key = rnd.nextInt(ENTRIES);
+
+                if (rnd.nextInt(10) == 0)
+                    cache.remove(key);
+                else
+                    cache.put(key, -key);
+            }
+        });
+
+        try {
+            resetBaselineTopology();
+
+            awaitPartitionMapExchange();
+        }
+        finally {
+            stop.set(true);
+        }
+
+        loadFut.get();
+
+        assertTrue(filesLsnr.check());
+        assertFalse(failLsnr.check());
+
+        assertPartitionsSame(idleVerify(ig, DEFAULT_CACHE_NAME));
+
+        checkLocalEntries();
+
+        // Installed partition files are restored after the restart.
+        stopAllGrids();
+
+        ig = startGrids(3);
+
+        awaitPartitionMapExchange();
+
+        assertPartitionsSame(idleVerify(ig, DEFAULT_CACHE_NAME));
+
+        checkLocalEntries();
+    }
+
+    /**
+     * Checks that the entries of the rebalanced node are the same as the entries of the cluster.
+     */
+    private void checkLocalEntries() {
+        IgniteEx ig = grid(2);
+
+        IgniteCache<Integer, Integer> cache = grid(0).cache(DEFAULT_CACHE_NAME);
+        IgniteCache<Integer, Integer> locCache = ig.cache(DEFAULT_CACHE_NAME);
+
+        int cnt = 0;
+
+        for (int i = 0; i < ENTRIES; i++) {
+            if (ig.affinity(DEFAULT_CACHE_NAME).isPrimaryOrBackup(ig.localNode(), i)) {
+                assertEquals(cache.get(i), locCache.localPeek(i));
+
+                cnt++;
+            }
+        }
+
+        assertTrue(cnt > 0);
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.db.checkpoint;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.OpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.cache.affinity.rendezvous.RendezvousAffinityFunction;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.DataRegionConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.internal.IgniteEx;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileIO;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileIODecorator;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileIOFactory;
+import org.apache.ignite.internal.processors.cache.persistence.file.RandomAccessFileIOFactory;
+import org.apache.ignite.internal.util.typedef.internal.U;
+import org.apache.ignite.spi.encryption.keystore.KeystoreEncryptionSpi;
+import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import static org.apache.ignite.cluster.ClusterState.ACTIVE;
+import static org.apache.ignite.internal.encryption.AbstractEncryptionTest.KEYSTORE_PASSWORD;
+import static org.apache.ignite.internal.encryption.AbstractEncryptionTest.KEYSTORE_PATH;
+
+/**
+ * Tests coalescing of contiguous pages into a single write during checkpoint.
+ */
+@RunWith(Parameterized.class)
+public class CheckpointWriteRunTest extends GridCommonAbstractTest {
+    /** Page size. */
+    private static final int PAGE_SIZE = 4096;
+
+    /** Number of entries. */
+    private static final int ENTRIES = 20_000;
+
+    /** Maximum number of pages written by one write. */
+    @Parameterized.Parameter
+    public int runLen;
+
+    /** Encryption enabled flag. */
+    @Parameterized.Parameter(1)
+    public boolean encrypted;
+
+    /** IO factory which collects sizes of writes to partition files. */
+    private final CountingIoFactory ioFactory = new CountingIoFactory();
+
+    /**
+     * @return Test parameters.
+     */
+    @Parameterized.Parameters(name = "runLen={0}, encrypted={1}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(
+            new Object[] {1, false},
+            new Object[] {16, false},
+            new Object[] {16, true}
+        );
+    }
+
+    /** {@inheritDoc} */
+    @Override protected IgniteConfiguration getConfiguration(String igniteInstanceName) throws Exception {
+        IgniteConfiguration cfg = super.getConfiguration(igniteInstanceName)
+            .setConsistentId(igniteInstanceName)
+            .setCacheConfiguration(new CacheConfiguration<>(DEFAULT_CACHE_NAME)
+                .setEncryptionEnabled(encrypted)
+                .setAffinity(new RendezvousAffinityFunction(false, 4)))
+            .setDataStorageConfiguration(new DataStorageConfiguration()
+                .setPageSize(PAGE_SIZE)
+                .setCheckpointWriteRunLength(runLen)
+                .setFileIOFactory(ioFactory)
+                .setCheckpointFrequency(getTestTimeout())
+                .setDefaultDataRegionConfiguration(new DataRegionConfiguration()
+                    .setPersistenceEnabled(true)
+                    .setMaxSize(256 * U.MB)));
+
+        if (encrypted) {
+            KeystoreEncryptionSpi encSpi = new KeystoreEncryptionSpi();
+
+            encSpi.setKeyStorePath(KEYSTORE_PATH);
+            encSpi.setKeyStorePassword(KEYSTORE_PASSWORD.toCharArray());
+
+            cfg.setEncryptionSpi(encSpi);
+        }
+
+        return cfg;
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void beforeTest() throws Exception {
+        super.beforeTest();
+
+        stopAllGrids();
+
+        cleanPersistenceDir();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        stopAllGrids();
+
+        cleanPersistenceDir();
+
+        super.afterTest();
+    }
+
+    /**
+     * Checks that runs of contiguous pages are written by a single write and read back after restart.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testCoalescedWrites() throws Exception {
+        IgniteEx ig = startGrid(0);
+
+        ig.cluster().state(ACTIVE);
+
+        IgniteCache<Integer, byte[]> cache = ig.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < ENTRIES; i++)
+            cache.put(i, value(i, 0));
+
+        forceCheckpoint();
+
+        int maxWrite = ioFactory.maxWrite.get();
+
+        if (runLen == 1)
+            assertEquals(PAGE_SIZE, maxWrite);
+        else {
+            assertEquals(runLen * PAGE_SIZE, maxWrite);
+
+            // Most of the pages of the new partitions are adjacent.
+            assertTrue("writes=" + ioFactory.writes.sum() + ", pages=" + ioFactory.pages.sum(),
+                ioFactory.writes.sum() * 4 < ioFactory.pages.sum());
+        }
+
+        // Runs are interleaved with clean pages which must not be overwritten.
+        for (int i = 0; i < ENTRIES; i += 3)
+            cache.put(i, value(i, 1));
+
+        forceCheckpoint();
+
+        stopAllGrids();
+
+        ig = startGrid(0);
+
+        ig.cluster().state(ACTIVE);
+
+        IgniteCache<Integer, byte[]> restored = ig.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < ENTRIES; i++)
+            assertTrue(Arrays.equals(value(i, i % 3 == 0 ? 1 : 0), restored.get(i)));
+    }
+
+    /**
+     * @param key Key.
+     * @param ver Version of the value.
+     * @return Value.
+     */
+    private static byte[] value(int key, int ver) {
+        byte[] val = new byte[256 + key % 256];
+
+        Arrays.fill(val, (byte)(key + ver));
+
+        return val;
+    }
+
+    /**
+     * IO factory which collects sizes of writes to partition files.
+     */
+    private static class CountingIoFactory implements FileIOFactory {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Maximum size of a write. */
+        private final AtomicInteger maxWrite = new AtomicInteger();
+
+        /** Number of writes. */
+        private final LongAdder writes = new LongAdder();
+
+        /** Number of written pages. */
+        private final LongAdder pages = new LongAdder();
+
+        /** {@inheritDoc} */
+        @Override public FileIO create(File file, OpenOption... modes) throws IOException {
+            FileIO delegate = new RandomAccessFileIOFactory().create(file, modes);
+
+            if (!file.getName().contains("part-"))
+                return delegate;
+
+            return new FileIODecorator(delegate) {
+                /** {@inheritDoc} */
+                @Override public int writeFully(ByteBuffer srcBuf, long position) throws IOException {
+                    int len = srcBuf.remaining();
+
+                    maxWrite.accumulateAndGet(len, Math::max);
+                    writes.increment();
+                    pages.add(len / PAGE_SIZE);
+
+                    return super.writeFully(srcBuf, position);
+                }
+            };
+        }
+    }
+}
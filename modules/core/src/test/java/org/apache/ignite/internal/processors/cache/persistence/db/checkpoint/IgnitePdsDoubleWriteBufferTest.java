@@ -0,0 +1,329 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.db.checkpoint;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.OpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.cache.affinity.rendezvous.RendezvousAffinityFunction;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.DataRegionConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.failure.StopNodeFailureHandler;
+import org.apache.ignite.internal.IgniteEx;
+import org.apache.ignite.internal.pagemem.wal.WALIterator;
+import org.apache.ignite.internal.pagemem.wal.record.WALRecord;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileIO;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileIODecorator;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileIOFactory;
+import org.apache.ignite.internal.processors.cache.persistence.file.RandomAccessFileIOFactory;
+import org.apache.ignite.internal.util.typedef.G;
+import org.apache.ignite.internal.util.typedef.internal.U;
+import org.apache.ignite.lang.IgniteBiTuple;
+import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
+import org.junit.Test;
+
+import static org.apache.ignite.cluster.ClusterState.ACTIVE;
+import static org.apache.ignite.internal.pagemem.wal.record.WALRecord.RecordType.PAGE_RECORD;
+import static org.apache.ignite.configuration.DataStorageConfiguration.DFLT_DOUBLE_WRITE_BUFFER_SIZE;
+import static org.apache.ignite.internal.processors.cache.persistence.checkpoint.DoubleWriteBuffer.FILE_NAME;
+import static org.apache.ignite.internal.processors.cache.persistence.checkpoint.DoubleWriteBuffer.IDS_FILE_NAME;
+import static org.apache.ignite.testframework.GridTestUtils.waitForCondition;
+
+/**
+ * Tests checkpoint with the double-write buffer enabled.
+ */
+public class IgnitePdsDoubleWriteBufferTest extends GridCommonAbstractTest {
+    /** Number of entries. */
+    private static final int ENTRIES = 5_000;
+
+    /** Double-write buffer enabled flag. */
+    private boolean dwbEnabled = true;
+
+    /** Maximum size of the double-write file. */
+    private long dwbSize = DFLT_DOUBLE_WRITE_BUFFER_SIZE;
+
+    /** IO factory which tears writes to partition files. */
+    private final TearingIoFactory ioFactory = new TearingIoFactory();
+
+    /** {@inheritDoc} */
+    @Override protected IgniteConfiguration getConfiguration(String igniteInstanceName) throws Exception {
+        return super.getConfiguration(igniteInstanceName)
+            .setConsistentId(igniteInstanceName)
+            .setFailureHandler(new StopNodeFailureHandler())
+            .setCacheConfiguration(new CacheConfiguration<>(DEFAULT_CACHE_NAME)
+                .setAffinity(new RendezvousAffinityFunction(false, 16)))
+            .setDataStorageConfiguration(new DataStorageConfiguration()
+                .setDoubleWriteBufferEnabled(dwbEnabled)
+                .setDoubleWriteBufferSize(dwbSize)
+                .setFileIOFactory(ioFactory)
+                // Checkpoints are triggered by the test only.
+                .setCheckpointFrequency(getTestTimeout())
+                .setDefaultDataRegionConfiguration(new DataRegionConfiguration()
+                    .setPersistenceEnabled(true)
+                    .setMaxSize(256 * U.MB)));
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void beforeTest() throws Exception {
+        super.beforeTest();
+
+        stopAllGrids();
+
+        cleanPersistenceDir();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        stopAllGrids();
+
+        cleanPersistenceDir();
+
+        super.afterTest();
+    }
+
+    /**
+     * Checks that page updates after the checkpoint are logged without full page snapshots.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testNoPageSnapshots() throws Exception {
+        int snapshots = pageSnapshotsAfterUpdate();
+
+        stopAllGrids();
+
+        cleanPersistenceDir();
+
+        dwbEnabled = false;
+
+        int snapshotsWithoutDwb = pageSnapshotsAfterUpdate();
+
+        assertTrue("snapshots=" + snapshots + ", snapshotsWithoutDwb=" + snapshotsWithoutDwb,
+            snapshots * 10 < snapshotsWithoutDwb);
+    }
+
+    /**
+     * Checks that pages torn by the crash during checkpoint are restored from the double-write buffer.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testRecoveryOfTornPages() throws Exception {
+        IgniteEx ig = startGrid(0);
+
+        ig.cluster().state(ACTIVE);
+
+        IgniteCache<Integer, Integer> cache = ig.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < ENTRIES; i++)
+            cache.put(i, i);
+
+        forceCheckpoint();
+
+        // Only delta records are logged for these updates.
+        for (int i = 0; i < ENTRIES; i++)
+            cache.put(i, -i);
+
+        File cpDir = dbMgr(ig).checkpointDirectory();
+
+        ioFactory.tear = true;
+
+        dbMgr(ig).wakeupForCheckpoint("test");
+
+        assertTrue(waitForCondition(() -> G.allGrids().isEmpty(), getTestTimeout()));
+
+        ioFactory.tear = false;
+
+        assertTrue(new File(cpDir, FILE_NAME).exists());
+
+        ig = startGrid(0);
+
+        ig.cluster().state(ACTIVE);
+
+        IgniteCache<Integer, Integer> restored = ig.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < ENTRIES; i++)
+            assertEquals(-i, (int)restored.get(i));
+
+        forceCheckpoint();
+
+        assertFalse(new File(cpDir, FILE_NAME).exists());
+    }
+
+    /**
+     * Checks that the double-write file doesn't exceed the configured size and the pages of the wrapped records are
+     * recovered after the crash.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testRecoveryAfterWrap() throws Exception {
+        dwbSize = U.MB;
+
+        IgniteEx ig = startGrid(0);
+
+        ig.cluster().state(ACTIVE);
+
+        IgniteCache<Integer, byte[]> cache = ig.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < ENTRIES; i++)
+            cache.put(i, value(i, 0));
+
+        forceCheckpoint();
+
+        for (int i = 0; i < ENTRIES; i++)
+            cache.put(i, value(i, 1));
+
+        File cpDir = dbMgr(ig).checkpointDirectory();
+
+        // Several laps of the double-write file are written before the crash.
+        ioFactory.tearAfter = 4 * dwbSize;
+        ioFactory.tear = true;
+
+        dbMgr(ig).wakeupForCheckpoint("test");
+
+        assertTrue(waitForCondition(() -> G.allGrids().isEmpty(), getTestTimeout()));
+
+        ioFactory.tear = false;
+
+        assertTrue(new File(cpDir, IDS_FILE_NAME).exists());
+        assertTrue("dwbSize=" + ioFactory.dwbSize.get(), ioFactory.dwbSize.get() <= dwbSize);
+
+        ig = startGrid(0);
+
+        ig.cluster().state(ACTIVE);
+
+        IgniteCache<Integer, byte[]> restored = ig.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < ENTRIES; i++)
+            assertTrue(Arrays.equals(value(i, 1), restored.get(i)));
+
+        forceCheckpoint();
+
+        assertFalse(new File(cpDir, FILE_NAME).exists());
+        assertFalse(new File(cpDir, IDS_FILE_NAME).exists());
+        assertTrue("dwbSize=" + ioFactory.dwbSize.get(), ioFactory.dwbSize.get() <= dwbSize);
+    }
+
+    /**
+     * @param key Key.
+     * @param ver Value version.
+     * @return Value which takes a quarter of a page.
+     */
+    private static byte[] value(int key, int ver) {
+        byte[] val = new byte[1024];
+
+        Arrays.fill(val, (byte)(key + ver));
+
+        return val;
+    }
+
+    /**
+     * @return Number of page snapshots logged by the updates following the checkpoint.
+     * @throws Exception If failed.
+     */
+    private int pageSnapshotsAfterUpdate() throws Exception {
+        IgniteEx ig = startGrid(0);
+
+        ig.cluster().state(ACTIVE);
+
+        IgniteCache<Integer, Integer> cache = ig.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < ENTRIES; i++)
+            cache.put(i, i);
+
+        forceCheckpoint();
+
+        for (int i = 0; i < ENTRIES; i++)
+            cache.put(i, -i);
+
+        int snapshots = 0;
+
+        try (WALIterator it = ig.context().cache().context().wal().replay(dbMgr(ig).lastCheckpointMarkWalPointer())) {
+            while (it.hasNext()) {
+                IgniteBiTuple<?, WALRecord> t = it.next();
+
+                if (t.get2().type() == PAGE_RECORD)
+                    snapshots++;
+            }
+        }
+
+        return snapshots;
+    }
+
+    /**
+     * IO factory which writes only a half of the buffer to partition files and fails when requested. It also tracks
+     * the size of the double-write file.
+     */
+    private static class TearingIoFactory implements FileIOFactory {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Tear writes flag. */
+        private volatile boolean tear;
+
+        /** Number of bytes written to partition files before the writes are torn. */
+        private volatile long tearAfter;
+
+        /** Number of bytes written to partition files since tearing was requested. */
+        private final AtomicLong written = new AtomicLong();
+
+        /** Maximum size of the double-write file. */
+        private final AtomicLong dwbSize = new AtomicLong();
+
+        /** {@inheritDoc} */
+        @Override public FileIO create(File file, OpenOption... modes) throws IOException {
+            FileIO delegate = new RandomAccessFileIOFactory().create(file, modes);
+
+            if (file.getName().equals(FILE_NAME)) {
+                return new FileIODecorator(delegate) {
+                    /** {@inheritDoc} */
+                    @Override public int write(ByteBuffer srcBuf, long position) throws IOException {
+                        long end = position + srcBuf.remaining();
+
+                        dwbSize.accumulateAndGet(end, Math::max);
+
+                        return super.write(srcBuf, position);
+                    }
+                };
+            }
+
+            if (!file.getName().contains("part-"))
+                return delegate;
+
+            return new FileIODecorator(delegate) {
+                /** {@inheritDoc} */
+                @Override public int write(ByteBuffer srcBuf, long position) throws IOException {
+                    if (!tear || written.addAndGet(srcBuf.remaining()) <= tearAfter)
+                        return super.write(srcBuf, position);
+
+                    srcBuf.limit(srcBuf.position() + srcBuf.remaining() / 2);
+
+                    super.write(srcBuf, position);
+
+                    throw new IOException("Torn write [file=" + file.getName() + ", pos=" + position + ']');
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.db.wal;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.DataRegionConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.internal.IgniteEx;
+import org.apache.ignite.internal.processors.metric.MetricRegistry;
+import org.apache.ignite.spi.metric.HistogramMetric;
+import org.apache.ignite.testframework.GridTestUtils;
+import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
+import org.junit.Test;
+
+import static org.apache.ignite.cache.CacheAtomicityMode.TRANSACTIONAL;
+import static org.apache.ignite.cluster.ClusterState.ACTIVE;
+import static org.apache.ignite.configuration.WALMode.FSYNC;
+import static org.apache.ignite.internal.processors.cache.persistence.DataStorageMetricsImpl.DATASTORAGE_METRIC_PREFIX;
+
+/**
+ * Tests group commit of the WAL in FSYNC mode.
+ */
+public class IgniteWalFsyncGroupCommitTest extends GridCommonAbstractTest {
+    /** Number of committing threads. */
+    private static final int THREADS = 16;
+
+    /** Number of commits per thread. */
+    private static final int COMMITS = 200;
+
+    /** {@inheritDoc} */
+    @Override protected IgniteConfiguration getConfiguration(String name) throws Exception {
+        return super.getConfiguration(name)
+            .setCacheConfiguration(new CacheConfiguration<>(DEFAULT_CACHE_NAME).setAtomicityMode(TRANSACTIONAL))
+            .setDataStorageConfiguration(new DataStorageConfiguration()
+                .setDefaultDataRegionConfiguration(new DataRegionConfiguration().setPersistenceEnabled(true))
+                .setWalMode(FSYNC)
+                .setMetricsEnabled(true));
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void beforeTest() throws Exception {
+        stopAllGrids();
+
+        cleanPersistenceDir();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        stopAllGrids();
+
+        cleanPersistenceDir();
+    }
+
+    /**
+     * Checks that concurrent commits share fsyncs and the group commit metrics are collected.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testConcurrentCommits() throws Exception {
+        IgniteEx ig = startGrid(0);
+
+        ig.cluster().state(ACTIVE);
+
+        IgniteCache<Integer, Integer> cache = ig.cache(DEFAULT_CACHE_NAME);
+
+        MetricRegistry mreg = ig.context().metric().registry(DATASTORAGE_METRIC_PREFIX);
+
+        HistogramMetric grpSize = mreg.findMetric("WalGroupCommitSizeHistogram");
+        HistogramMetric grpWait = mreg.findMetric("WalGroupCommitWaitHistogram");
+
+        long fsyncsBefore = Arrays.stream(grpSize.value()).sum();
+
+        AtomicInteger idx = new AtomicInteger();
+
+        GridTestUtils.runMultiThreaded(() -> {
+            int base = idx.getAndIncrement() * COMMITS;
+
+            for (int i = 0; i < COMMITS; i++)
+                cache.put(base + i, base + i);
+        }, THREADS, "committer");
+
+        long fsyncs = Arrays.stream(grpSize.value()).sum() - fsyncsBefore;
+
+        assertTrue("fsyncs=" + fsyncs, fsyncs > 0);
+        assertTrue("fsyncs=" + fsyncs, fsyncs < THREADS * COMMITS);
+
+        assertEquals(Arrays.stream(grpSize.value()).sum(), Arrays.stream(grpWait.value()).sum());
+
+        stopAllGrids();
+
+        ig = startGrid(0);
+
+        ig.cluster().state(ACTIVE);
+
+        IgniteCache<Integer, Integer> restored = ig.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < THREADS * COMMITS; i++)
+            assertEquals(i, (int)restored.get(i));
+    }
+}
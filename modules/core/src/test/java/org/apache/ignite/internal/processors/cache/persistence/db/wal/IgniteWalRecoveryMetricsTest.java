@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.db.wal;
+
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.DataRegionConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.internal.IgniteEx;
+import org.apache.ignite.internal.processors.metric.MetricRegistry;
+import org.apache.ignite.spi.metric.LongMetric;
+import org.apache.ignite.spi.metric.ObjectMetric;
+import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
+import org.junit.Test;
+
+import static org.apache.ignite.cluster.ClusterState.ACTIVE;
+import static org.apache.ignite.internal.processors.cache.persistence.DataStorageMetricsImpl.DATASTORAGE_METRIC_PREFIX;
+
+/**
+ * Tests metrics of the WAL recovery on node start.
+ */
+public class IgniteWalRecoveryMetricsTest extends GridCommonAbstractTest {
+    /** Number of entries. */
+    private static final int ENTRIES = 10_000;
+
+    /** {@inheritDoc} */
+    @Override protected IgniteConfiguration getConfiguration(String name) throws Exception {
+        return super.getConfiguration(name)
+            .setConsistentId(name)
+            .setCacheConfiguration(new CacheConfiguration<>(DEFAULT_CACHE_NAME))
+            .setDataStorageConfiguration(new DataStorageConfiguration()
+                // Updates are recovered from WAL.
+                .setCheckpointFrequency(getTestTimeout())
+                .setDefaultDataRegionConfiguration(new DataRegionConfiguration().setPersistenceEnabled(true)));
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void beforeTest() throws Exception {
+        stopAllGrids();
+
+        cleanPersistenceDir();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        stopAllGrids();
+
+        cleanPersistenceDir();
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testRecoveryMetrics() throws Exception {
+        IgniteEx ig = startGrid(0);
+
+        ig.cluster().state(ACTIVE);
+
+        forceCheckpoint();
+
+        IgniteCache<Integer, Integer> cache = ig.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < ENTRIES; i++)
+            cache.put(i, i);
+
+        stopGrid(0, true);
+
+        ig = startGrid(0);
+
+        MetricRegistry mreg = ig.context().metric().registry(DATASTORAGE_METRIC_PREFIX);
+
+        assertEquals("FINISHED", mreg.<ObjectMetric<String>>findMetric("WalRecoveryStage").value());
+
+        long read = mreg.<LongMetric>findMetric("WalRecoveryRecordsRead").value();
+        long applied = mreg.<LongMetric>findMetric("WalRecoveryUpdatesApplied").value();
+
+        assertTrue("read=" + read, read >= ENTRIES);
+        assertTrue("applied=" + applied, applied >= ENTRIES);
+
+        long duration = mreg.<LongMetric>findMetric("WalRecoveryDuration").value();
+
+        // Duration of the finished recovery doesn't change.
+        doSleep(10);
+
+        assertEquals(duration, mreg.<LongMetric>findMetric("WalRecoveryDuration").value());
+
+        cache = ig.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < ENTRIES; i++)
+            assertEquals(i, (int)cache.get(i));
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.db.wal;
+
+import java.io.File;
+import java.util.Collections;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.cache.affinity.rendezvous.RendezvousAffinityFunction;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.DataRegionConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.internal.IgniteEx;
+import org.apache.ignite.internal.processors.cache.CacheGroupContext;
+import org.apache.ignite.internal.processors.cache.persistence.wal.FileWALPointer;
+import org.apache.ignite.internal.processors.cache.persistence.wal.FileWriteAheadLogManager;
+import org.apache.ignite.internal.processors.cache.persistence.wal.SegmentPartitionIndex;
+import org.apache.ignite.internal.util.typedef.internal.U;
+import org.apache.ignite.testframework.junits.WithSystemProperty;
+import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
+import org.junit.Test;
+
+import static org.apache.ignite.IgniteSystemProperties.IGNITE_PDS_WAL_REBALANCE_THRESHOLD;
+import static org.apache.ignite.cluster.ClusterState.ACTIVE;
+import static org.apache.ignite.testframework.GridTestUtils.waitForCondition;
+
+/**
+ * Tests WAL partition index of the archived segments.
+ */
+@WithSystemProperty(key = IGNITE_PDS_WAL_REBALANCE_THRESHOLD, value = "0")
+public class WalPartitionIndexTest extends GridCommonAbstractTest {
+    /** Partitions count. */
+    private static final int PARTS_CNT = 16;
+
+    /** Partition which is updated at the end of the load. */
+    private static final int PART = 0;
+
+    /** {@inheritDoc} */
+    @Override protected IgniteConfiguration getConfiguration(String name) throws Exception {
+        return super.getConfiguration(name)
+            .setConsistentId(name)
+            .setCacheConfiguration(new CacheConfiguration<>(DEFAULT_CACHE_NAME)
+                .setBackups(1)
+                .setAffinity(new RendezvousAffinityFunction(false, PARTS_CNT)))
+            .setDataStorageConfiguration(new DataStorageConfiguration()
+                .setWalSegmentSize(1024 * 1024)
+                .setWalPartitionIndexEnabled(true)
+                .setCheckpointFrequency(getTestTimeout())
+                .setDefaultDataRegionConfiguration(new DataRegionConfiguration().setPersistenceEnabled(true)));
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void beforeTest() throws Exception {
+        stopAllGrids();
+
+        cleanPersistenceDir();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        stopAllGrids();
+
+        cleanPersistenceDir();
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testIndexFile() throws Exception {
+        SegmentPartitionIndex idx = new SegmentPartitionIndex();
+
+        idx.onUpdate(1, 0, 10, 100);
+        idx.onUpdate(1, 0, 5, 200);
+        idx.onUpdate(1, 0, 20, 2 * 1024 * 1024);
+        idx.onUpdate(1, 1, 7, 300);
+        idx.onUpdate(2, 0, 30, 400);
+
+        File file = new File(U.defaultWorkDirectory(), "wal-part-idx-test" + SegmentPartitionIndex.INDEX_SUFFIX);
+
+        try {
+            idx.write(file);
+
+            idx = SegmentPartitionIndex.read(file);
+        }
+        finally {
+            U.delete(file);
+        }
+
+        assertEquals(3, idx.size());
+
+        assertEquals(100, idx.firstOffset(1, 0, 0));
+        assertEquals(100, idx.firstOffset(1, 0, 9));
+        assertEquals(2 * 1024 * 1024, idx.firstOffset(1, 0, 10));
+        assertEquals(-1, idx.firstOffset(1, 0, 20));
+        assertEquals(300, idx.firstOffset(1, 1, 0));
+        assertEquals(400, idx.firstOffset(2, 0, 0));
+        assertEquals(-1, idx.firstOffset(2, 1, 0));
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testHistoricalRebalance() throws Exception {
+        IgniteEx ig = startGrids(2);
+
+        ig.cluster().state(ACTIVE);
+
+        IgniteCache<Integer, byte[]> cache = ig.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < 1_000; i++)
+            cache.put(i, new byte[64]);
+
+        forceCheckpoint();
+
+        stopGrid(1);
+
+        FileWriteAheadLogManager wal = (FileWriteAheadLogManager)ig.context().cache().context().wal();
+
+        CacheGroupContext grp = ig.cachex(DEFAULT_CACHE_NAME).context().group();
+
+        FileWALPointer start = (FileWALPointer)wal.lastWritePointer();
+
+        long cntr = grp.topology().localPartition(PART).updateCounter();
+        long otherCntr = grp.topology().localPartition(PART + 1).updateCounter();
+
+        // Updates of other partitions fill several segments.
+        for (int i = 0; i < 20_000; i++) {
+            if (ig.affinity(DEFAULT_CACHE_NAME).partition(i) != PART)
+                cache.put(i, new byte[256]);
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            if (ig.affinity(DEFAULT_CACHE_NAME).partition(i) == PART)
+                cache.put(i, new byte[128]);
+        }
+
+        assertTrue(wal.lastArchivedSegment() > start.index());
+
+        File archiveDir = wal.getSegmentRouter().getWalArchiveDir();
+
+        assertTrue(waitForCondition(
+            () -> SegmentPartitionIndex.file(archiveDir, wal.lastArchivedSegment()).exists(), getTestTimeout()));
+
+        FileWALPointer ptr = (FileWALPointer)wal.historicalStartPointer(start, grp.groupId(), grp.cacheIds(),
+            Collections.singletonMap(PART, cntr));
+
+        assertTrue("start=" + start + ", ptr=" + ptr, ptr.index() > start.index());
+
+        // Other partitions are updated before the partition.
+        FileWALPointer otherPtr = (FileWALPointer)wal.historicalStartPointer(start, grp.groupId(), grp.cacheIds(),
+            Collections.singletonMap(PART + 1, otherCntr));
+
+        assertTrue("ptr=" + ptr + ", otherPtr=" + otherPtr, otherPtr.compareTo(ptr) < 0);
+
+        startGrid(1);
+
+        awaitPartitionMapExchange();
+
+        assertPartitionsSame(idleVerify(ig, DEFAULT_CACHE_NAME));
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.defragmentation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.cache.affinity.rendezvous.RendezvousAffinityFunction;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.DataRegionConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.internal.IgniteEx;
+import org.apache.ignite.internal.IgniteInternalFuture;
+import org.apache.ignite.internal.processors.cache.persistence.defragmentation.IgniteDefragmentation.OnlineResult;
+import org.apache.ignite.testframework.GridTestUtils;
+import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
+import org.junit.Test;
+
+import static org.apache.ignite.cluster.ClusterState.ACTIVE;
+
+/**
+ * Checks online defragmentation of partition data pages.
+ */
+public class OnlineDefragmentationTest extends GridCommonAbstractTest {
+    /** */
+    private static final int KEYS = 20_000;
+
+    /** */
+    private static final int VAL_SIZE = 512;
+
+    /** {@inheritDoc} */
+    @Override protected void beforeTest() throws Exception {
+        super.beforeTest();
+
+        stopAllGrids();
+
+        cleanPersistenceDir();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        stopAllGrids();
+
+        cleanPersistenceDir();
+
+        super.afterTest();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected IgniteConfiguration getConfiguration(String igniteInstanceName) throws Exception {
+        return super.getConfiguration(igniteInstanceName)
+            .setDataStorageConfiguration(new DataStorageConfiguration()
+                .setDefaultDataRegionConfiguration(new DataRegionConfiguration()
+                    .setMaxSize(100L * 1024 * 1024)
+                    .setPersistenceEnabled(true)))
+            .setCacheConfiguration(new CacheConfiguration<Integer, byte[]>(DEFAULT_CACHE_NAME)
+                .setAffinity(new RendezvousAffinityFunction(false, 8)));
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testDefragmentation() throws Exception {
+        IgniteEx ignite = startGrid(0);
+
+        ignite.cluster().state(ACTIVE);
+
+        IgniteCache<Integer, byte[]> cache = fillSparse(ignite);
+
+        IgniteDefragmentation defragmentation = ignite.context().defragmentation();
+
+        assertEquals(OnlineResult.STARTED, defragmentation.startOnline(Collections.emptyList(), 0));
+
+        assertTrue(GridTestUtils.waitForCondition(() -> !defragmentation.inProgress(), getTestTimeout()));
+
+        IgniteDefragmentation.DefragmentationStatus status = defragmentation.status();
+
+        IgniteDefragmentation.CompletedDefragmentationInfo info = status.getCompletedCaches().get(DEFAULT_CACHE_NAME);
+
+        assertNotNull(status.toString(), info);
+        assertTrue(status.toString(), info.getSizeAfter() < info.getSizeBefore());
+        assertEquals(status.getTotalPartitions(), status.getProcessedPartitions());
+
+        checkData(cache);
+
+        forceCheckpoint();
+
+        stopGrid(0);
+
+        ignite = startGrid(0);
+
+        ignite.cluster().state(ACTIVE);
+
+        checkData(ignite.cache(DEFAULT_CACHE_NAME));
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        IgniteEx ignite = startGrid(0);
+
+        ignite.cluster().state(ACTIVE);
+
+        IgniteCache<Integer, byte[]> cache = fillSparse(ignite);
+
+        IgniteDefragmentation defragmentation = ignite.context().defragmentation();
+
+        AtomicBoolean stop = new AtomicBoolean();
+
+        IgniteInternalFuture<?> fut = GridTestUtils.runAsync(() -> {
+            while (!stop.get()) {
+                int key = ThreadLocalRandom.current().nextInt(KEYS / 3) * 3;
+
+                cache.put(key, value(key));
+            }
+        });
+
+        try {
+            assertEquals(OnlineResult.STARTED, defragmentation.startOnline(null, 10_000));
+
+            assertEquals(OnlineResult.ALREADY_IN_PROGRESS, defragmentation.startOnline(null, 0));
+
+            assertTrue(GridTestUtils.waitForCondition(() -> !defragmentation.inProgress(), getTestTimeout()));
+        }
+        finally {
+            stop.set(true);
+        }
+
+        fut.get();
+
+        checkData(cache);
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testCancel() throws Exception {
+        IgniteEx ignite = startGrid(0);
+
+        ignite.cluster().state(ACTIVE);
+
+        IgniteCache<Integer, byte[]> cache = fillSparse(ignite);
+
+        IgniteDefragmentation defragmentation = ignite.context().defragmentation();
+
+        assertEquals(OnlineResult.STARTED, defragmentation.startOnline(null, 10));
+
+        assertEquals(IgniteDefragmentation.CancelResult.CANCELLED, defragmentation.cancel());
+
+        assertTrue(GridTestUtils.waitForCondition(() -> !defragmentation.inProgress(), getTestTimeout()));
+
+        checkData(cache);
+    }
+
+    /**
+     * Fills the cache and removes two thirds of the keys, so most of the data pages become sparse.
+     *
+     * @param ignite Node.
+     * @return Cache.
+     * @throws Exception If failed.
+     */
+    private IgniteCache<Integer, byte[]> fillSparse(IgniteEx ignite) throws Exception {
+        IgniteCache<Integer, byte[]> cache = ignite.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < KEYS; i++)
+            cache.put(i, value(i));
+
+        for (int i = 0; i < KEYS; i++) {
+            if (i % 3 != 0)
+                cache.remove(i);
+        }
+
+        forceCheckpoint();
+
+        return cache;
+    }
+
+    /**
+     * @param cache Cache.
+     */
+    private void checkData(IgniteCache<Integer, byte[]> cache) {
+        for (int i = 0; i < KEYS; i++) {
+            byte[] val = cache.get(i);
+
+            if (i % 3 != 0)
+                assertNull(val);
+            else
+                assertTrue(Arrays.equals(value(i), val));
+        }
+    }
+
+    /**
+     * @param key Key.
+     * @return Value.
+     */
+    private static byte[] value(int key) {
+        byte[] val = new byte[VAL_SIZE];
+
+        for (int i = 0; i < val.length; i++)
+            val[i] = (byte)(key + i);
+
+        return val;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.file;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
+import org.junit.Test;
+
+/**
+ * Checks random access to the files written by {@link BlockCompressedOutputStream}.
+ */
+public class BlockCompressedFileIOTest extends GridCommonAbstractTest {
+    /** */
+    private static final int BLOCK_SIZE = 4 * 1024;
+
+    /** */
+    private File file;
+
+    /** {@inheritDoc} */
+    @Override protected void beforeTest() throws Exception {
+        super.beforeTest();
+
+        file = File.createTempFile("block-compressed", ".zip");
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        file.delete();
+
+        super.afterTest();
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testRandomAccess() throws Exception {
+        Random rnd = new Random();
+
+        byte[] data = new byte[BLOCK_SIZE * 10 + 123];
+
+        // Compressible data with some noise.
+        for (int i = 0; i < data.length; i++)
+            data[i] = (byte)(i % 31 == 0 ? rnd.nextInt() : i % 7);
+
+        try (BlockCompressedOutputStream out = new BlockCompressedOutputStream(new FileOutputStream(file),
+            BLOCK_SIZE, Deflater.DEFAULT_COMPRESSION)) {
+            int off = 0;
+
+            while (off < data.length) {
+                int len = Math.min(rnd.nextInt(1000) + 1, data.length - off);
+
+                // Keys are the positions multiplied by 2.
+                out.markPosition(off * 2L);
+                out.write(data, off, len);
+
+                off += len;
+            }
+        }
+
+        assertTrue(BlockCompressedFileIO.isBlockCompressed(file));
+        assertTrue(file.length() < data.length);
+
+        try (BlockCompressedFileIO io = new BlockCompressedFileIO(file)) {
+            assertEquals(data.length, io.size());
+
+            byte[] all = new byte[data.length];
+
+            ByteBuffer buf = ByteBuffer.wrap(all);
+
+            while (buf.hasRemaining())
+                assertTrue(io.read(buf) > 0);
+
+            assertTrue(Arrays.equals(data, all));
+            assertEquals(-1, io.read(ByteBuffer.allocate(1)));
+
+            for (int i = 0; i < 100; i++) {
+                int pos = rnd.nextInt(data.length);
+                int len = Math.min(rnd.nextInt(BLOCK_SIZE * 2) + 1, data.length - pos);
+
+                byte[] res = new byte[len];
+
+                io.position(pos);
+
+                assertEquals(len, io.read(res, 0, len));
+                assertEquals(pos + len, io.position());
+                assertTrue(Arrays.equals(Arrays.copyOfRange(data, pos, pos + len), res));
+
+                long idxPos = io.indexedPosition(pos * 2L);
+
+                assertTrue(idxPos <= pos);
+                assertTrue(pos - idxPos < BLOCK_SIZE + 1000);
+            }
+        }
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testOpenZip() throws Exception {
+        byte[] data = new byte[1000];
+
+        Arrays.fill(data, (byte)1);
+
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(file))) {
+            zos.putNextEntry(new ZipEntry("data"));
+            zos.write(data);
+        }
+
+        assertFalse(BlockCompressedFileIO.isBlockCompressed(file));
+
+        try (FileIO io = BlockCompressedFileIO.open(file)) {
+            assertTrue(io instanceof UnzipFileIO);
+
+            byte[] res = new byte[data.length];
+
+            ByteBuffer buf = ByteBuffer.wrap(res);
+
+            while (buf.hasRemaining())
+                assertTrue(io.read(buf) > 0);
+
+            assertTrue(Arrays.equals(data, res));
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.GeneralSecurityException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.apache.ignite.internal.managers.encryption.GridEncryptionManager;
+import org.apache.ignite.internal.managers.encryption.GroupKey;
+import org.apache.ignite.spi.IgniteSpiException;
+import org.apache.ignite.spi.encryption.keystore.KeystoreEncryptionKey;
+import org.apache.ignite.spi.encryption.keystore.KeystoreEncryptionSpi;
+import org.apache.ignite.testframework.GridTestUtils;
+import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Test;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static javax.crypto.Cipher.ENCRYPT_MODE;
+import static org.apache.ignite.internal.encryption.AbstractEncryptionTest.KEYSTORE_PASSWORD;
+import static org.apache.ignite.internal.encryption.AbstractEncryptionTest.KEYSTORE_PATH;
+import static org.apache.ignite.spi.encryption.keystore.KeystoreEncryptionSpi.CIPHER_ALGO;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks encryption and decryption of multi-page runs by {@link EncryptedFileIO}.
+ */
+public class EncryptedFileIOTest extends GridCommonAbstractTest {
+    /** */
+    private static final int GRP_ID = 1;
+
+    /** */
+    private static final int PAGE_SIZE = 4 * 1024;
+
+    /** Number of pages in a run. */
+    private static final int PAGES = 16;
+
+    /** Minimum number of pages processed by a single task. */
+    private static final int BATCH_PAGES = 2;
+
+    /** */
+    private static final int PARALLELISM = 4;
+
+    /** */
+    private KeystoreEncryptionSpi encSpi;
+
+    /** */
+    private GridEncryptionManager encMgr;
+
+    /** */
+    private EncryptionUtil encUtil;
+
+    /** */
+    private GroupKey grpKey;
+
+    /** */
+    private ExecutorService exec;
+
+    /** */
+    private File file;
+
+    /** {@inheritDoc} */
+    @Override protected void beforeTest() throws Exception {
+        super.beforeTest();
+
+        encSpi = new ZeroIvEncryptionSpi();
+
+        encSpi.setKeyStorePath(KEYSTORE_PATH);
+        encSpi.setKeyStorePassword(KEYSTORE_PASSWORD.toCharArray());
+
+        encSpi.onBeforeStart();
+        encSpi.spiStart("default");
+
+        encUtil = new EncryptionUtil(encSpi, PAGE_SIZE);
+
+        grpKey = new GroupKey(0, encSpi.create());
+
+        encMgr = mock(GridEncryptionManager.class);
+
+        when(encMgr.getActiveKey(GRP_ID)).thenReturn(grpKey);
+        when(encMgr.groupKey(GRP_ID, grpKey.unsignedId())).thenReturn(grpKey);
+
+        exec = Executors.newFixedThreadPool(PARALLELISM);
+
+        file = File.createTempFile("encrypted", ".bin");
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        exec.shutdownNow();
+
+        encSpi.spiStop();
+
+        file.delete();
+
+        super.afterTest();
+    }
+
+    /**
+     * Checks that a run encrypted in parallel is written exactly as its pages encrypted one by one.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testWritePages() throws Exception {
+        ByteBuffer run = plainPages(PAGES);
+
+        try (FileIO io = encryptedFileIO(new RandomAccessFileIOFactory().create(file, CREATE, READ, WRITE), exec)) {
+            assertEquals(PAGES * PAGE_SIZE, io.writeFully(run, PAGE_SIZE));
+        }
+
+        assertFalse(run.hasRemaining());
+
+        ByteBuffer encrypted = ByteBuffer.allocate(PAGES * PAGE_SIZE);
+
+        try (FileIO io = new RandomAccessFileIOFactory().create(file, READ)) {
+            assertEquals(PAGES * PAGE_SIZE, io.readFully(encrypted, PAGE_SIZE));
+        }
+
+        run.rewind();
+
+        for (int i = 0; i < PAGES; i++) {
+            ByteBuffer page = run.duplicate().order(run.order());
+
+            page.position(i * PAGE_SIZE).limit((i + 1) * PAGE_SIZE);
+
+            ByteBuffer exp = ByteBuffer.allocate(PAGE_SIZE);
+
+            encUtil.encrypt(page.slice().order(run.order()), exp, grpKey);
+
+            ByteBuffer act = encrypted.duplicate();
+
+            act.position(i * PAGE_SIZE).limit((i + 1) * PAGE_SIZE);
+
+            exp.rewind();
+
+            assertEquals("page=" + i, exp, act.slice());
+        }
+    }
+
+    /**
+     * Checks that a run read and decrypted in parallel matches the written pages.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testReadPages() throws Exception {
+        ByteBuffer run = plainPages(PAGES);
+
+        try (FileIO io = encryptedFileIO(new RandomAccessFileIOFactory().create(file, CREATE, READ, WRITE), null)) {
+            for (int i = 0; i < PAGES; i++) {
+                ByteBuffer page = run.duplicate().order(run.order());
+
+                page.position(i * PAGE_SIZE).limit((i + 1) * PAGE_SIZE);
+
+                io.writeFully(page.slice().order(run.order()), PAGE_SIZE + (long)i * PAGE_SIZE);
+            }
+        }
+
+        ByteBuffer read = ByteBuffer.allocate(PAGES * PAGE_SIZE).order(ByteOrder.nativeOrder());
+
+        try (FileIO io = encryptedFileIO(new RandomAccessFileIOFactory().create(file, READ, WRITE), exec)) {
+            assertEquals(PAGES * PAGE_SIZE, io.readFully(read, PAGE_SIZE));
+        }
+
+        assertFalse(read.hasRemaining());
+
+        run.rewind();
+        read.rewind();
+
+        assertEquals(run, read);
+    }
+
+    /**
+     * Checks that failures of the underlying file and of the decryption of a page are reported by the read.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testReadPagesFailure() throws Exception {
+        try (FileIO io = encryptedFileIO(new RandomAccessFileIOFactory().create(file, CREATE, READ, WRITE), exec)) {
+            io.writeFully(plainPages(PAGES), PAGE_SIZE);
+        }
+
+        FileIO failing = new FileIODecorator(new RandomAccessFileIOFactory().create(file, READ, WRITE)) {
+            @Override public int readFully(ByteBuffer destBuf, long position) throws IOException {
+                throw new IOException("Test");
+            }
+        };
+
+        try (FileIO io = encryptedFileIO(failing, exec)) {
+            GridTestUtils.assertThrows(log, () -> io.readFully(ByteBuffer.allocate(PAGES * PAGE_SIZE), PAGE_SIZE),
+                IOException.class, "Test");
+        }
+
+        // Break a page in the middle of the run, its decryption fails in a task of the run.
+        try (FileIO io = new RandomAccessFileIOFactory().create(file, READ, WRITE)) {
+            io.writeFully(ByteBuffer.wrap(new byte[] {1, 2, 3}), PAGE_SIZE + PAGES / 2 * PAGE_SIZE + 100);
+        }
+
+        try (FileIO io = encryptedFileIO(new RandomAccessFileIOFactory().create(file, READ, WRITE), exec)) {
+            GridTestUtils.assertThrows(log, () -> io.readFully(ByteBuffer.allocate(PAGES * PAGE_SIZE), PAGE_SIZE),
+                IOException.class, null);
+        }
+    }
+
+    /**
+     * @param plainIO Underlying file.
+     * @param encExec Executor processing multi-page runs or {@code null} to process them sequentially.
+     * @return Encrypted file with the header written, so the pages may be accessed.
+     * @throws IOException If failed.
+     */
+    private FileIO encryptedFileIO(FileIO plainIO, @Nullable ExecutorService encExec) throws IOException {
+        EncryptedFileIO io = new EncryptedFileIO(plainIO, GRP_ID, PAGE_SIZE, PAGE_SIZE, encMgr, encSpi, encExec,
+            PARALLELISM, BATCH_PAGES);
+
+        io.position(0);
+
+        io.write(ByteBuffer.allocate(PAGE_SIZE));
+
+        return io;
+    }
+
+    /**
+     * @param pages Number of pages.
+     * @return Buffer of random pages with the empty tail reserved for the encryption.
+     */
+    private ByteBuffer plainPages(int pages) {
+        Random rnd = new Random();
+
+        ByteBuffer buf = ByteBuffer.allocate(pages * PAGE_SIZE).order(ByteOrder.nativeOrder());
+
+        byte[] data = new byte[encUtil.plainDataSize()];
+
+        for (int i = 0; i < pages; i++) {
+            rnd.nextBytes(data);
+
+            buf.position(i * PAGE_SIZE);
+            buf.put(data);
+        }
+
+        buf.clear();
+
+        return buf;
+    }
+
+    /**
+     * Encryption SPI with a zero initialization vector. The vector of {@link KeystoreEncryptionSpi} is random, so
+     * the same page encrypted twice differs. Decryption reads the vector from the page and is not changed.
+     */
+    private static class ZeroIvEncryptionSpi extends KeystoreEncryptionSpi {
+        /** {@inheritDoc} */
+        @Override public void encryptNoPadding(ByteBuffer data, Serializable key, ByteBuffer res) {
+            try {
+                Cipher cipher = Cipher.getInstance("AES/CBC/NoPadding");
+
+                byte[] iv = new byte[cipher.getBlockSize()];
+
+                res.put(iv);
+
+                SecretKeySpec keySpec = new SecretKeySpec(((KeystoreEncryptionKey)key).key().getEncoded(), CIPHER_ALGO);
+
+                cipher.init(ENCRYPT_MODE, keySpec, new IvParameterSpec(iv));
+
+                cipher.doFinal(data, res);
+            }
+            catch (GeneralSecurityException e) {
+                throw new IgniteSpiException(e);
+            }
+        }
+    }
+}
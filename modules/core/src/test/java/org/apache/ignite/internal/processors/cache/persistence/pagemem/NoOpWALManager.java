@@ -16,6 +16,8 @@
 
 package org.apache.ignite.internal.processors.cache.persistence.pagemem;
 
+import java.util.Collection;
+import java.util.Map;
 import org.apache.ignite.IgniteCheckedException;
 import org.apache.ignite.internal.GridKernalContext;
 import org.apache.ignite.internal.pagemem.wal.IgniteWriteAheadLogManager;
@@ -83,6 +85,16 @@ public class NoOpWALManager implements IgniteWriteAheadLogManager {
         return null;
     }
 
+    /** {@inheritDoc} */
+    @Override public WALPointer historicalStartPointer(
+        WALPointer start,
+        int grpId,
+        Collection<Integer> cacheIds,
+        Map<Integer, Long> partCntrs
+    ) {
+        return start;
+    }
+
     /** {@inheritDoc} */
     @Override public boolean reserve(WALPointer start) {
         return false;
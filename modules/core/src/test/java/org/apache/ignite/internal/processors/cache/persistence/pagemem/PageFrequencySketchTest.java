@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.pagemem;
+
+import org.apache.ignite.internal.mem.DirectMemoryProvider;
+import org.apache.ignite.internal.mem.DirectMemoryRegion;
+import org.apache.ignite.internal.mem.unsafe.UnsafeMemoryProvider;
+import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.apache.ignite.internal.processors.cache.persistence.pagemem.PageFrequencySketch.MAX_FREQUENCY;
+
+/**
+ *
+ */
+public class PageFrequencySketchTest extends GridCommonAbstractTest {
+    /** Max pages count. */
+    private static final int MAX_PAGES_CNT = 1000;
+
+    /** Memory provider. */
+    private static DirectMemoryProvider provider;
+
+    /** Memory region. */
+    private static DirectMemoryRegion region;
+
+    /** */
+    @BeforeClass
+    public static void setUp() {
+        provider = new UnsafeMemoryProvider(log);
+        provider.initialize(new long[] {PageFrequencySketch.requiredMemory(MAX_PAGES_CNT)});
+
+        region = provider.nextRegion();
+    }
+
+    /** */
+    @AfterClass
+    public static void tearDown() {
+        provider.shutdown(true);
+    }
+
+    /**
+     * Test increment() and frequency() methods.
+     */
+    @Test
+    public void testIncrement() {
+        PageFrequencySketch sketch = new PageFrequencySketch(MAX_PAGES_CNT, region.address());
+
+        assertEquals(0, sketch.frequency(1));
+
+        for (int i = 1; i <= 5; i++) {
+            sketch.increment(1);
+
+            assertTrue(sketch.frequency(1) >= i);
+        }
+
+        for (int i = 0; i < MAX_FREQUENCY * 2; i++)
+            sketch.increment(2);
+
+        assertEquals(MAX_FREQUENCY, sketch.frequency(2));
+        assertTrue(sketch.frequency(1) < MAX_FREQUENCY);
+    }
+
+    /**
+     * Test that counters are halved once the sample size is reached.
+     */
+    @Test
+    public void testAging() {
+        PageFrequencySketch sketch = new PageFrequencySketch(MAX_PAGES_CNT, region.address());
+
+        for (int i = 0; i < MAX_FREQUENCY; i++)
+            sketch.increment(0);
+
+        assertEquals(MAX_FREQUENCY, sketch.frequency(0));
+
+        // Sample size is ten times the pages count.
+        for (int i = 1; i <= MAX_PAGES_CNT * 10; i++)
+            sketch.increment(i);
+
+        assertTrue(sketch.frequency(0) < MAX_FREQUENCY);
+        assertTrue(sketch.frequency(0) >= MAX_FREQUENCY / 2);
+    }
+}
@@ -41,6 +41,7 @@ import org.apache.ignite.internal.mem.DirectMemoryProvider;
 import org.apache.ignite.internal.mem.IgniteOutOfMemoryException;
 import org.apache.ignite.internal.mem.unsafe.UnsafeMemoryProvider;
 import org.apache.ignite.internal.pagemem.FullPageId;
+import org.apache.ignite.internal.pagemem.PageIdUtils;
 import org.apache.ignite.internal.pagemem.PageUtils;
 import org.apache.ignite.internal.pagemem.store.IgnitePageStoreManager;
 import org.apache.ignite.internal.pagemem.store.PageStore;
@@ -68,12 +69,14 @@ import org.apache.ignite.spi.eventstorage.NoopEventStorageSpi;
 import org.apache.ignite.spi.metric.noop.NoopMetricExporterSpi;
 import org.apache.ignite.testframework.GridTestUtils;
 import org.apache.ignite.testframework.junits.GridTestKernalContext;
+import org.apache.ignite.testframework.junits.WithSystemProperty;
 import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
 import org.apache.ignite.testframework.junits.logger.GridTestLog4jLogger;
 import org.jetbrains.annotations.Nullable;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import static org.apache.ignite.IgniteSystemProperties.IGNITE_BPLUS_TREE_OPTIMISTIC_READS;
 import static org.apache.ignite.internal.pagemem.PageIdAllocator.FLAG_IDX;
 import static org.apache.ignite.internal.pagemem.PageIdAllocator.INDEX_PARTITION;
 import static org.apache.ignite.internal.processors.cache.persistence.CheckpointState.MARKER_STORED_TO_DISK;
@@ -133,6 +136,85 @@ public class PageMemoryImplTest extends GridCommonAbstractTest {
         assertFalse(memory.safeToUpdate());
     }
 
+    /**
+     * Tests that an optimistic read is invalidated by a write lock taken after the read is started.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    @WithSystemProperty(key = IGNITE_BPLUS_TREE_OPTIMISTIC_READS, value = "true")
+    public void testOptimisticRead() throws Exception {
+        PageMemoryImpl memory = createPageMemory(PageMemoryImpl.ThrottlingPolicy.DISABLED, null, false);
+
+        long pageId = memory.allocatePage(1, INDEX_PARTITION, FLAG_IDX);
+
+        FullPageId fullPageId = new FullPageId(pageId, 1);
+
+        acquireAndReleaseWriteLock(memory, fullPageId);
+
+        long page = memory.acquirePage(1, pageId);
+
+        try {
+            long stamp = memory.tryOptimisticRead(1, pageId, page);
+
+            assertTrue(stamp != 0L);
+            assertEquals(pageId, PageIO.getPageId(memory.optimisticReadAddress(1, pageId, page)));
+            assertTrue(memory.validateOptimisticRead(1, pageId, page, stamp));
+
+            // Read locks do not invalidate optimistic reads.
+            memory.readLock(1, pageId, page);
+
+            assertTrue(memory.tryOptimisticRead(1, pageId, page) != 0L);
+            assertTrue(memory.validateOptimisticRead(1, pageId, page, stamp));
+
+            memory.readUnlock(1, pageId, page);
+
+            memory.writeLock(1, pageId, page);
+
+            assertEquals(0L, memory.tryOptimisticRead(1, pageId, page));
+            assertFalse(memory.validateOptimisticRead(1, pageId, page, stamp));
+
+            memory.writeUnlock(1, pageId, page, Boolean.FALSE, true);
+
+            assertFalse(memory.validateOptimisticRead(1, pageId, page, stamp));
+
+            stamp = memory.tryOptimisticRead(1, pageId, page);
+
+            assertTrue(stamp != 0L);
+            assertTrue(memory.validateOptimisticRead(1, pageId, page, stamp));
+
+            // Optimistic read of a recycled page is not allowed.
+            assertEquals(0L, memory.tryOptimisticRead(1, PageIdUtils.rotatePageId(pageId), page));
+        }
+        finally {
+            memory.releasePage(1, pageId, page);
+        }
+    }
+
+    /**
+     * Tests that pages are not read optimistically if optimistic reads are disabled, the page versions are not
+     * maintained then.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testOptimisticReadDisabled() throws Exception {
+        PageMemoryImpl memory = createPageMemory(PageMemoryImpl.ThrottlingPolicy.DISABLED, null, false);
+
+        long pageId = memory.allocatePage(1, INDEX_PARTITION, FLAG_IDX);
+
+        acquireAndReleaseWriteLock(memory, new FullPageId(pageId, 1));
+
+        long page = memory.acquirePage(1, pageId);
+
+        try {
+            assertEquals(0L, memory.tryOptimisticRead(1, pageId, page));
+        }
+        finally {
+            memory.releasePage(1, pageId, page);
+        }
+    }
+
     /**
      * @throws Exception If failed.
      */
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.scrub;
+
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.cache.affinity.rendezvous.RendezvousAffinityFunction;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.DataRegionConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.internal.IgniteEx;
+import org.apache.ignite.internal.processors.cache.persistence.GridCacheDatabaseSharedManager;
+import org.apache.ignite.internal.processors.cache.persistence.file.FilePageStore;
+import org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.PageIO;
+import org.apache.ignite.internal.processors.cache.persistence.wal.crc.FastCrc;
+import org.apache.ignite.internal.processors.metric.MetricRegistry;
+import org.apache.ignite.spi.metric.LongMetric;
+import org.apache.ignite.spi.systemview.view.PageScrubProblemView;
+import org.apache.ignite.spi.systemview.view.SystemView;
+import org.apache.ignite.testframework.GridTestUtils;
+import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
+import org.junit.Test;
+
+import static org.apache.ignite.cluster.ClusterState.ACTIVE;
+import static org.apache.ignite.internal.processors.cache.persistence.scrub.PageScrubber.CRC;
+import static org.apache.ignite.internal.processors.cache.persistence.scrub.PageScrubber.SCRUB_METRICS;
+import static org.apache.ignite.internal.processors.cache.persistence.scrub.PageScrubber.SCRUB_PROBLEMS_VIEW;
+import static org.apache.ignite.internal.processors.cache.persistence.scrub.PageScrubber.STRUCTURE;
+
+/**
+ * Checks that the page scrubber finds pages corrupted on disk.
+ */
+public class PageScrubberTest extends GridCommonAbstractTest {
+    /** */
+    private static final int KEYS = 10_000;
+
+    /** {@inheritDoc} */
+    @Override protected void beforeTest() throws Exception {
+        super.beforeTest();
+
+        stopAllGrids();
+
+        cleanPersistenceDir();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        stopAllGrids();
+
+        cleanPersistenceDir();
+
+        super.afterTest();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected IgniteConfiguration getConfiguration(String igniteInstanceName) throws Exception {
+        return super.getConfiguration(igniteInstanceName)
+            .setDataStorageConfiguration(new DataStorageConfiguration()
+                .setDefaultDataRegionConfiguration(new DataRegionConfiguration()
+                    .setMaxSize(100L * 1024 * 1024)
+                    .setPersistenceEnabled(true)))
+            .setCacheConfiguration(new CacheConfiguration<Integer, String>(DEFAULT_CACHE_NAME)
+                .setAffinity(new RendezvousAffinityFunction(false, 4)));
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testCorruptedPages() throws Exception {
+        IgniteEx ignite = startGrid(0);
+
+        ignite.cluster().state(ACTIVE);
+
+        IgniteCache<Integer, String> cache = ignite.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < KEYS; i++)
+            cache.put(i, "value-" + i);
+
+        forceCheckpoint();
+
+        scrub(ignite);
+
+        assertTrue(metric(ignite, "ScannedPages") > 0);
+        assertEquals(0, metric(ignite, "CorruptedPages"));
+        assertEquals(0, metric(ignite, "InvalidPages"));
+        assertTrue(problems(ignite).isEmpty());
+
+        // Garbage in the meta page of partition 0 breaks its CRC.
+        FilePageStore store0 = store(ignite, 0);
+
+        try (RandomAccessFile file = new RandomAccessFile(store0.getFileAbsolutePath(), "rw")) {
+            file.seek(store0.pageOffset(0) + PageIO.COMMON_HEADER_END);
+            file.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        }
+
+        // The meta page of partition 1 gets the page ID of another page and a valid CRC.
+        FilePageStore store1 = store(ignite, 1);
+
+        try (RandomAccessFile file = new RandomAccessFile(store1.getFileAbsolutePath(), "rw")) {
+            int pageSize = store1.getPageSize();
+
+            ByteBuffer page = ByteBuffer.allocate(pageSize).order(ByteOrder.nativeOrder());
+
+            file.seek(store1.pageOffset(0));
+            file.readFully(page.array());
+
+            page.putLong(PageIO.PAGE_ID_OFF, page.getLong(PageIO.PAGE_ID_OFF) + 1);
+
+            PageIO.setCrc(page, 0);
+
+            page.position(0);
+
+            PageIO.setCrc(page, FastCrc.calcCrc(page, pageSize));
+
+            file.seek(store1.pageOffset(0));
+            file.write(page.array());
+        }
+
+        scrub(ignite);
+
+        assertEquals(1, metric(ignite, "CorruptedPages"));
+        assertEquals(1, metric(ignite, "InvalidPages"));
+
+        List<PageScrubProblemView> problems = problems(ignite);
+
+        assertEquals(2, problems.size());
+
+        for (PageScrubProblemView problem : problems) {
+            assertEquals(DEFAULT_CACHE_NAME, problem.cacheGroupName());
+            assertEquals(0, problem.pageIndex());
+            assertEquals(problem.partitionId() == 0 ? CRC : STRUCTURE, problem.type());
+        }
+    }
+
+    /**
+     * Runs the scrubber and waits for it to finish.
+     *
+     * @param ignite Node.
+     * @throws Exception If failed.
+     */
+    private void scrub(IgniteEx ignite) throws Exception {
+        PageScrubber scrubber = ((GridCacheDatabaseSharedManager)ignite.context().cache().context().database())
+            .pageScrubber();
+
+        assertTrue(scrubber.start(null, 0));
+
+        assertTrue(GridTestUtils.waitForCondition(() -> !scrubber.inProgress(), getTestTimeout()));
+    }
+
+    /**
+     * @param ignite Node.
+     * @param partId Partition ID.
+     * @return Partition page store.
+     * @throws Exception If failed.
+     */
+    private FilePageStore store(IgniteEx ignite, int partId) throws Exception {
+        FilePageStoreManager storeMgr = (FilePageStoreManager)ignite.context().cache().context().pageStore();
+
+        return (FilePageStore)storeMgr.getStore(ignite.cachex(DEFAULT_CACHE_NAME).context().groupId(), partId);
+    }
+
+    /**
+     * @param ignite Node.
+     * @param name Metric name.
+     * @return Metric value.
+     */
+    private long metric(IgniteEx ignite, String name) {
+        MetricRegistry mreg = ignite.context().metric().registry(SCRUB_METRICS);
+
+        return mreg.<LongMetric>findMetric(name).value();
+    }
+
+    /**
+     * @param ignite Node.
+     * @return Found problems.
+     */
+    private List<PageScrubProblemView> problems(IgniteEx ignite) {
+        SystemView<PageScrubProblemView> view = ignite.context().systemView().view(SCRUB_PROBLEMS_VIEW);
+
+        List<PageScrubProblemView> res = new ArrayList<>();
+
+        view.forEach(res::add);
+
+        return res;
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.snapshot;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.OpenOption;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.cache.affinity.rendezvous.RendezvousAffinityFunction;
+import org.apache.ignite.cluster.ClusterState;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.DataRegionConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.internal.IgniteEx;
+import org.apache.ignite.internal.IgniteInternalFuture;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileIO;
+import org.apache.ignite.internal.processors.cache.persistence.file.FileIOFactory;
+import org.apache.ignite.internal.processors.cache.persistence.file.RandomAccessFileIOFactory;
+import org.apache.ignite.internal.util.typedef.internal.U;
+import org.apache.ignite.testframework.GridTestUtils;
+import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
+import org.junit.Test;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static org.apache.ignite.internal.processors.cache.persistence.snapshot.IgniteCacheSnapshotManager.DFLT_SNAPSHOT_DIRECTORY;
+
+/**
+ * Tests creation and restore of cluster-wide persistent snapshots.
+ */
+public class IgniteCacheSnapshotManagerTest extends GridCommonAbstractTest {
+    /** Number of keys. */
+    private static final int KEYS = 2_000;
+
+    /** Cache name. */
+    private static final String CACHE_NAME = "snp-cache";
+
+    /** Latch which blocks copying of partition files, or {@code null} if the copying is not blocked. */
+    private static volatile CountDownLatch copyLatch;
+
+    /** Number of snapshot threads blocked on the latch. */
+    private static final AtomicInteger blocked = new AtomicInteger();
+
+    /** {@inheritDoc} */
+    @Override protected IgniteConfiguration getConfiguration(String igniteInstanceName) throws Exception {
+        return super.getConfiguration(igniteInstanceName)
+            .setConsistentId(igniteInstanceName)
+            .setDataStorageConfiguration(new DataStorageConfiguration()
+                .setFileIOFactory(new BlockingFileIOFactory())
+                .setDefaultDataRegionConfiguration(new DataRegionConfiguration()
+                    .setMaxSize(100L * 1024 * 1024)
+                    .setPersistenceEnabled(true)));
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void beforeTest() throws Exception {
+        super.beforeTest();
+
+        stopAllGrids();
+
+        cleanPersistenceDir();
+        cleanSnapshotDir();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        if (copyLatch != null)
+            copyLatch.countDown();
+
+        copyLatch = null;
+        blocked.set(0);
+
+        stopAllGrids();
+
+        cleanPersistenceDir();
+        cleanSnapshotDir();
+
+        super.afterTest();
+    }
+
+    /**
+     * Checks that the snapshot contains data at the moment of the snapshot start even if the data are updated and
+     * checkpointed while partition files are being copied.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testSnapshotIsConsistentUnderLoad() throws Exception {
+        IgniteEx ignite = startGrids(2);
+
+        ignite.cluster().state(ClusterState.ACTIVE);
+
+        IgniteCache<Integer, Integer> cache = ignite.getOrCreateCache(cacheConfiguration());
+
+        for (int i = 0; i < KEYS; i++)
+            cache.put(i, i);
+
+        copyLatch = new CountDownLatch(1);
+
+        IgniteInternalFuture<Void> fut = ignite.context().cache().context().snapshot()
+            .createSnapshot("snp", null);
+
+        assertTrue(GridTestUtils.waitForCondition(() -> blocked.get() == 2, getTestTimeout()));
+
+        for (int i = 0; i < KEYS; i++)
+            cache.put(i, -i);
+
+        forceCheckpoint();
+
+        copyLatch.countDown();
+
+        fut.get(getTestTimeout());
+
+        ignite.destroyCache(CACHE_NAME);
+
+        awaitPartitionMapExchange();
+
+        ignite.context().cache().context().snapshot().restoreSnapshot("snp", null).get(getTestTimeout());
+
+        cache = ignite.cache(CACHE_NAME);
+
+        assertNotNull(cache);
+
+        for (int i = 0; i < KEYS; i++)
+            assertEquals(Integer.valueOf(i), cache.get(i));
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testSnapshotRestartAndRestore() throws Exception {
+        IgniteEx ignite = startGrids(2);
+
+        ignite.cluster().state(ClusterState.ACTIVE);
+
+        IgniteCache<Integer, Integer> cache = ignite.getOrCreateCache(cacheConfiguration());
+
+        for (int i = 0; i < KEYS; i++)
+            cache.put(i, i);
+
+        ignite.context().cache().context().snapshot().createSnapshot("snp", null).get(getTestTimeout());
+
+        ignite.destroyCache(CACHE_NAME);
+
+        stopAllGrids();
+
+        ignite = startGrids(2);
+
+        ignite.cluster().state(ClusterState.ACTIVE);
+
+        ignite.context().cache().context().snapshot()
+            .restoreSnapshot("snp", Collections.singleton(CACHE_NAME)).get(getTestTimeout());
+
+        cache = ignite.cache(CACHE_NAME);
+
+        for (int i = 0; i < KEYS; i++)
+            assertEquals(Integer.valueOf(i), cache.get(i));
+    }
+
+    /**
+     * Checks that the incremental snapshots contain only changed pages and the cache is restored from the chain of the
+     * full snapshot and its increments, including the increment created under load after the node restart.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testIncrementalSnapshotRestore() throws Exception {
+        IgniteEx ignite = startGrids(2);
+
+        ignite.cluster().state(ClusterState.ACTIVE);
+
+        IgniteCache<Integer, Integer> cache = ignite.getOrCreateCache(cacheConfiguration());
+
+        for (int i = 0; i < KEYS; i++)
+            cache.put(i, i);
+
+        IgniteCacheSnapshotManager<?> snpMgr = ignite.context().cache().context().snapshot();
+
+        GridTestUtils.assertThrowsAnyCause(log, () -> snpMgr.createIncrementalSnapshot("inc0", null)
+            .get(getTestTimeout()), IgniteCheckedException.class, "create a full snapshot first");
+
+        snpMgr.createSnapshot("full", null).get(getTestTimeout());
+
+        for (int i = 0; i < KEYS / 10; i++)
+            cache.put(i, -i);
+
+        for (int i = KEYS; i < KEYS * 2; i++)
+            cache.put(i, i);
+
+        snpMgr.createIncrementalSnapshot("inc1", null).get(getTestTimeout());
+
+        File fullDir = snpMgr.snapshotLocalDir("full");
+        File incDir = snpMgr.snapshotLocalDir("inc1");
+
+        assertTrue(U.dirSize(incDir.toPath()) < U.dirSize(fullDir.toPath()));
+        assertTrue(new File(new File(incDir, "cache-" + CACHE_NAME), "index.bin.inc").exists());
+
+        stopAllGrids();
+
+        ignite = startGrids(2);
+
+        ignite.cluster().state(ClusterState.ACTIVE);
+
+        cache = ignite.cache(CACHE_NAME);
+
+        for (int i = KEYS / 10; i < KEYS / 5; i++)
+            cache.put(i, -i);
+
+        copyLatch = new CountDownLatch(1);
+
+        IgniteInternalFuture<Void> fut = ignite.context().cache().context().snapshot()
+            .createIncrementalSnapshot("inc2", null);
+
+        assertTrue(GridTestUtils.waitForCondition(() -> blocked.get() == 2, getTestTimeout()));
+
+        for (int i = 0; i < KEYS * 2; i++)
+            cache.put(i, 0);
+
+        forceCheckpoint();
+
+        copyLatch.countDown();
+
+        fut.get(getTestTimeout());
+
+        ignite.destroyCache(CACHE_NAME);
+
+        awaitPartitionMapExchange();
+
+        ignite.context().cache().context().snapshot().restoreSnapshot("inc2", null).get(getTestTimeout());
+
+        cache = ignite.cache(CACHE_NAME);
+
+        for (int i = 0; i < KEYS * 2; i++)
+            assertEquals(Integer.valueOf(i < KEYS / 5 ? -i : i), cache.get(i));
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testSnapshotRejected() throws Exception {
+        IgniteEx ignite = startGrids(2);
+
+        ignite.cluster().state(ClusterState.ACTIVE);
+
+        ignite.getOrCreateCache(cacheConfiguration()).put(1, 1);
+
+        IgniteCacheSnapshotManager<?> snpMgr = ignite.context().cache().context().snapshot();
+
+        GridTestUtils.assertThrowsAnyCause(log, () -> snpMgr.createSnapshot("snp", Collections.singleton("missing"))
+            .get(getTestTimeout()), IgniteCheckedException.class, "Persistent cache groups not found");
+
+        snpMgr.createSnapshot("snp", null).get(getTestTimeout());
+
+        GridTestUtils.assertThrowsAnyCause(log, () -> snpMgr.createSnapshot("snp", null).get(getTestTimeout()),
+            IgniteCheckedException.class, "Snapshot with given name already exists");
+
+        GridTestUtils.assertThrowsAnyCause(log, () -> snpMgr.restoreSnapshot("snp", null).get(getTestTimeout()),
+            IgniteCheckedException.class, "Unable to restore cache group, it already exists");
+
+        assertEquals(Integer.valueOf(1), ignite.cache(CACHE_NAME).get(1));
+    }
+
+    /**
+     * @return Cache configuration.
+     */
+    private CacheConfiguration<Integer, Integer> cacheConfiguration() {
+        return new CacheConfiguration<Integer, Integer>(CACHE_NAME)
+            .setBackups(1)
+            .setAffinity(new RendezvousAffinityFunction(false, 16));
+    }
+
+    /**
+     * @throws IgniteCheckedException If failed.
+     */
+    private void cleanSnapshotDir() throws IgniteCheckedException {
+        U.delete(U.resolveWorkDirectory(U.defaultWorkDirectory(), DFLT_SNAPSHOT_DIRECTORY, false));
+    }
+
+    /**
+     * Blocks opening of partition files by the snapshot runner while {@link #copyLatch} is set.
+     */
+    private static class BlockingFileIOFactory implements FileIOFactory {
+        /** Serial version uid. */
+        private static final long serialVersionUID = 0L;
+
+        /** Delegate factory. */
+        private final FileIOFactory delegate = new RandomAccessFileIOFactory();
+
+        /** {@inheritDoc} */
+        @Override public FileIO create(File file, OpenOption... modes) throws IOException {
+            CountDownLatch latch = copyLatch;
+
+            if (latch != null && modes.length == 1 && modes[0] == READ &&
+                Thread.currentThread().getName().contains("snapshot-runner")) {
+                blocked.incrementAndGet();
+
+                try {
+                    latch.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+
+                    throw new IOException(e);
+                }
+                finally {
+                    blocked.decrementAndGet();
+                }
+            }
+
+            return delegate.create(file, modes);
+        }
+    }
+}
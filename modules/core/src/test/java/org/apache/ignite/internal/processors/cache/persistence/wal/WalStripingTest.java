@@ -0,0 +1,243 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.wal;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Consumer;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.cluster.ClusterState;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.DataRegionConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.configuration.WALMode;
+import org.apache.ignite.internal.IgniteEx;
+import org.apache.ignite.internal.pagemem.wal.WALIterator;
+import org.apache.ignite.internal.util.typedef.F;
+import org.apache.ignite.internal.util.typedef.internal.U;
+import org.apache.ignite.testframework.GridTestUtils;
+import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import static org.apache.ignite.internal.processors.cache.persistence.wal.FileWriteAheadLogManager.WAL_SEGMENT_FILE_FILTER;
+import static org.apache.ignite.internal.processors.cache.persistence.wal.SegmentStripes.STRIPES_FILE_NAME;
+
+/**
+ * Tests WAL work segments striped across several directories.
+ */
+@RunWith(Parameterized.class)
+public class WalStripingTest extends GridCommonAbstractTest {
+    /** Stripe directories. */
+    private static final String[] STRIPE_PATHS = {"db/wal_stripe_1", "db/wal_stripe_2"};
+
+    /** Number of entries to put. */
+    private static final int ENTRIES = 3_000;
+
+    /** WAL mode. */
+    @Parameterized.Parameter
+    public WALMode walMode;
+
+    /**
+     * @return Test parameters.
+     */
+    @Parameterized.Parameters(name = "walMode={0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(
+            new Object[] {WALMode.LOG_ONLY},
+            new Object[] {WALMode.FSYNC}
+        );
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void beforeTest() throws Exception {
+        super.beforeTest();
+
+        stopAllGrids();
+        cleanPersistenceDir();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        super.afterTest();
+
+        stopAllGrids();
+        cleanPersistenceDir();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected IgniteConfiguration getConfiguration(String igniteInstanceName) throws Exception {
+        return super.getConfiguration(igniteInstanceName)
+            .setCacheConfiguration(new CacheConfiguration<>(DEFAULT_CACHE_NAME))
+            .setDataStorageConfiguration(
+                new DataStorageConfiguration()
+                    .setWalSegments(4)
+                    .setWalSegmentSize((int)U.MB)
+                    .setWalMode(walMode)
+                    .setWalFsyncDelayNanos(100)
+                    .setWalStripePaths(STRIPE_PATHS)
+                    .setWalStripeSize(4096)
+                    .setDefaultDataRegionConfiguration(
+                        new DataRegionConfiguration()
+                            .setPersistenceEnabled(true)
+                            .setMaxSize(256 * U.MB)
+                    )
+            );
+    }
+
+    /**
+     * @param dsCfgOp Data storage configuration operation.
+     * @return Started and activated node.
+     * @throws Exception If failed.
+     */
+    private IgniteEx startNode(Consumer<DataStorageConfiguration> dsCfgOp) throws Exception {
+        IgniteEx n = startGrid(0, (Consumer<IgniteConfiguration>)cfg ->
+            dsCfgOp.accept(cfg.getDataStorageConfiguration()));
+
+        n.cluster().state(ClusterState.ACTIVE);
+
+        return n;
+    }
+
+    /**
+     * Checks that the node recovers from the striped WAL and archived segments are regular files.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testRecovery() throws Exception {
+        IgniteEx n = startNode(dsCfg -> {});
+
+        // Guaranteed recovery from WAL segments.
+        dbMgr(n).enableCheckpoints(false).get(getTestTimeout());
+
+        fill(n);
+
+        File workDir = walMgr(n).getSegmentRouter().getWalWorkDir();
+
+        assertTrue(walMgr(n).lastArchivedSegment() >= 0);
+
+        for (String path : STRIPE_PATHS) {
+            File stripeDir = new File(U.resolveWorkDirectory(U.defaultWorkDirectory(), path, false),
+                workDir.getName());
+
+            assertFalse(F.isEmpty(stripeDir.listFiles(WAL_SEGMENT_FILE_FILTER)));
+        }
+
+        assertTrue(new File(workDir, STRIPES_FILE_NAME).exists());
+
+        stopAllGrids();
+
+        n = startNode(dsCfg -> {});
+
+        check(n);
+
+        // Archived and work segments are read as a single sequence of records.
+        int records = 0;
+
+        try (WALIterator it = walMgr(n).replay(null)) {
+            while (it.hasNext()) {
+                it.next();
+
+                records++;
+            }
+        }
+
+        assertTrue(records > ENTRIES);
+    }
+
+    /**
+     * Checks that striping is enabled on the node with existing WAL.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testEnableStriping() throws Exception {
+        IgniteEx n = startNode(dsCfg -> dsCfg.setWalStripePaths());
+
+        dbMgr(n).enableCheckpoints(false).get(getTestTimeout());
+
+        fill(n);
+
+        stopAllGrids();
+
+        n = startNode(dsCfg -> {});
+
+        check(n);
+
+        assertTrue(new File(walMgr(n).getSegmentRouter().getWalWorkDir(), STRIPES_FILE_NAME).exists());
+    }
+
+    /**
+     * Checks that striping can't be disabled or changed.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testStripesChange() throws Exception {
+        fill(startNode(dsCfg -> {}));
+
+        stopAllGrids();
+
+        GridTestUtils.assertThrowsWithCause(
+            () -> startNode(dsCfg -> dsCfg.setWalStripePaths()),
+            Exception.class
+        );
+
+        GridTestUtils.assertThrowsWithCause(
+            () -> startNode(dsCfg -> dsCfg.setWalStripeSize(8192)),
+            Exception.class
+        );
+
+        check(startNode(dsCfg -> {}));
+    }
+
+    /**
+     * @param n Node.
+     */
+    private void fill(IgniteEx n) {
+        IgniteCache<Integer, byte[]> cache = n.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < ENTRIES; i++)
+            cache.put(i, value(i));
+    }
+
+    /**
+     * @param n Node.
+     */
+    private void check(IgniteEx n) {
+        IgniteCache<Integer, byte[]> cache = n.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < ENTRIES; i++)
+            assertTrue(Arrays.equals(value(i), cache.get(i)));
+    }
+
+    /**
+     * @param key Key.
+     * @return Value.
+     */
+    private static byte[] value(int key) {
+        byte[] val = new byte[1024 + key % 512];
+
+        Arrays.fill(val, (byte)key);
+
+        return val;
+    }
+}
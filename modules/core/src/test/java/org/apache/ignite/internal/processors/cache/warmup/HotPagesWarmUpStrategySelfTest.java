@@ -0,0 +1,200 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.warmup;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.cluster.ClusterState;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.configuration.DataRegionConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.configuration.HotPagesWarmUpConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.internal.IgniteEx;
+import org.apache.ignite.internal.processors.cache.persistence.file.FilePageStoreManager;
+import org.apache.ignite.testframework.GridTestUtils;
+import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
+import org.junit.Test;
+
+import static org.apache.ignite.internal.processors.cache.warmup.HotPagesWarmUpStrategy.WARM_UP_DIR;
+
+/**
+ * Test class for testing {@link HotPagesWarmUpStrategy}.
+ */
+public class HotPagesWarmUpStrategySelfTest extends GridCommonAbstractTest {
+    /** Data region name. */
+    private static final String REGION = "dr_0";
+
+    /** Keys count. */
+    private static final int KEYS = 20_000;
+
+    /** Hot keys count. */
+    private static final int HOT_KEYS = 2_000;
+
+    /** Flag for enabling warm-up. */
+    private boolean warmUp;
+
+    /** Maximum number of pages recorded to the manifest. */
+    private int maxPages = HotPagesWarmUpConfiguration.DFLT_MAX_PAGES;
+
+    /** {@inheritDoc} */
+    @Override protected void beforeTest() throws Exception {
+        super.beforeTest();
+
+        cleanPersistenceDir();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        super.afterTest();
+
+        stopAllGrids();
+
+        cleanPersistenceDir();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected IgniteConfiguration getConfiguration(String igniteInstanceName) throws Exception {
+        HotPagesWarmUpConfiguration warmUpCfg = new HotPagesWarmUpConfiguration().setDumpInterval(0)
+            .setMaxPages(maxPages);
+
+        return super.getConfiguration(igniteInstanceName)
+            .setDataStorageConfiguration(
+                new DataStorageConfiguration()
+                    .setDataRegionConfigurations(
+                        new DataRegionConfiguration().setName(REGION).setPersistenceEnabled(true)
+                            .setWarmUpConfiguration(!warmUp ? null : warmUpCfg)
+                    )
+            ).setCacheConfiguration(
+                new CacheConfiguration<>(DEFAULT_CACHE_NAME).setDataRegionName(REGION)
+            );
+    }
+
+    /**
+     * Test checks that recorded hot pages are loaded on restart.
+     * <p/>
+     * Steps:
+     * 1)Start a node and fill the cache in;
+     * 2)Restart the node with warm-up, read hot keys and make a checkpoint to record the manifest;
+     * 3)Restart the node without warm-up and get number of loaded pages;
+     * 4)Restart the node with warm-up and check that more pages are loaded.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testLoadHotPages() throws Exception {
+        IgniteEx n = startGrid(0);
+        n.cluster().state(ClusterState.ACTIVE);
+
+        IgniteCache<Integer, byte[]> cache = n.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < KEYS; i++)
+            cache.put(i, new byte[100]);
+
+        forceCheckpoint();
+
+        stopAllGrids();
+
+        warmUp = true;
+
+        n = startGrid(0);
+
+        cache = n.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < HOT_KEYS; i++)
+            assertNotNull(cache.get(i));
+
+        forceCheckpoint();
+
+        File manifest = manifestFile(n);
+
+        // Manifest is written asynchronously after the checkpoint.
+        assertTrue(GridTestUtils.waitForCondition(manifest::exists, getTestTimeout()));
+
+        stopAllGrids();
+
+        warmUp = false;
+
+        long coldPages = loadedPages(startGrid(0));
+
+        stopAllGrids();
+
+        warmUp = true;
+
+        long warmPages = loadedPages(startGrid(0));
+
+        assertTrue("cold=" + coldPages + ", warm=" + warmPages, warmPages > coldPages);
+    }
+
+    /**
+     * Test checks that the manifest doesn't record more pages than configured.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testMaxPages() throws Exception {
+        warmUp = true;
+        maxPages = 100;
+
+        IgniteEx n = startGrid(0);
+        n.cluster().state(ClusterState.ACTIVE);
+
+        IgniteCache<Integer, byte[]> cache = n.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < KEYS; i++)
+            cache.put(i, new byte[100]);
+
+        assertTrue(loadedPages(n) > maxPages);
+
+        File manifest = manifestFile(n);
+
+        // The manifest is written synchronously on node stop, even if the last checkpoint is skipped.
+        stopAllGrids();
+
+        assertTrue(manifest.exists());
+
+        try (DataInputStream in = new DataInputStream(new FileInputStream(manifest))) {
+            in.readInt(); // Magic.
+            in.readInt(); // Version.
+
+            assertEquals(maxPages, in.readInt());
+        }
+    }
+
+    /**
+     * @param n Node.
+     * @return Hot pages manifest of the data region.
+     */
+    private File manifestFile(IgniteEx n) {
+        return new File(
+            new File(((FilePageStoreManager)n.context().cache().context().pageStore()).workDir(), WARM_UP_DIR),
+            "hot-pages-" + REGION + ".bin"
+        );
+    }
+
+    /**
+     * @param n Node.
+     * @return Number of pages loaded to the data region.
+     * @throws IgniteCheckedException If failed.
+     */
+    private long loadedPages(IgniteEx n) throws IgniteCheckedException {
+        return n.context().cache().context().database().dataRegion(REGION).pageMemory().loadedPages();
+    }
+}
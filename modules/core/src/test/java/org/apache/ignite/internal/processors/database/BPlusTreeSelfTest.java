@@ -21,6 +21,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -1248,6 +1249,212 @@ public class BPlusTreeSelfTest extends GridCommonAbstractTest {
         assertNoLocks();
     }
 
+    /**
+     * @throws IgniteCheckedException If failed.
+     */
+    @Test
+    public void testPutAllRemoveAll_1_true() throws IgniteCheckedException {
+        MAX_PER_PAGE = 1;
+        CNT = 100;
+
+        doTestPutAllRemoveAll(true);
+    }
+
+    /**
+     * @throws IgniteCheckedException If failed.
+     */
+    @Test
+    public void testPutAllRemoveAll_1_false() throws IgniteCheckedException {
+        MAX_PER_PAGE = 1;
+        CNT = 100;
+
+        doTestPutAllRemoveAll(false);
+    }
+
+    /**
+     * @throws IgniteCheckedException If failed.
+     */
+    @Test
+    public void testPutAllRemoveAll_5_true() throws IgniteCheckedException {
+        MAX_PER_PAGE = 5;
+        CNT = 1000;
+
+        doTestPutAllRemoveAll(true);
+    }
+
+    /**
+     * @throws IgniteCheckedException If failed.
+     */
+    @Test
+    public void testPutAllRemoveAll_5_false() throws IgniteCheckedException {
+        MAX_PER_PAGE = 5;
+        CNT = 1000;
+
+        doTestPutAllRemoveAll(false);
+    }
+
+    /**
+     * @param canGetRow Can get row from inner page.
+     * @throws IgniteCheckedException If failed.
+     */
+    private void doTestPutAllRemoveAll(boolean canGetRow) throws IgniteCheckedException {
+        TestTree tree = createTestTree(canGetRow);
+
+        Map<Long, Long> map = new HashMap<>();
+
+        Random rnd = new GridRandom();
+
+        for (int i = 0; i < 2_000; i++) {
+            List<Long> rows = new ArrayList<>();
+
+            for (int j = rnd.nextInt(4 * MAX_PER_PAGE + 10); j > 0; j--)
+                rows.add((long)rnd.nextInt(CNT));
+
+            // Unsorted rows must be put one by one.
+            if (rnd.nextInt(5) != 0)
+                Collections.sort(rows);
+
+            if (rnd.nextBoolean()) {
+                tree.putAll(rows);
+
+                for (Long row : rows)
+                    map.put(row, row);
+            }
+            else {
+                int rmvd = 0;
+
+                for (Long row : new TreeSet<>(rows)) {
+                    if (map.remove(row) != null)
+                        rmvd++;
+                }
+
+                // Duplicates are removed once.
+                assertEquals(rmvd, tree.removeAll(rows));
+            }
+
+            assertNoLocks();
+
+            tree.validateTree();
+
+            if (i % 100 == 0)
+                assertEqualContents(tree, map);
+        }
+
+        assertEqualContents(tree, map);
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testPutAllRemoveAllMultithreaded() throws Exception {
+        MAX_PER_PAGE = 5;
+        CNT = 10_000;
+
+        TestTree tree = createTestTree(true);
+
+        int threads = 8;
+
+        AtomicInteger threadIdx = new AtomicInteger();
+
+        Map<Long, Long> map = new ConcurrentHashMap<>();
+
+        GridTestUtils.runMultiThreaded(() -> {
+            int idx = threadIdx.getAndIncrement();
+
+            Random rnd = new GridRandom();
+
+            // Each thread updates its own keys.
+            Set<Long> keys = new TreeSet<>();
+
+            for (int i = 0; i < 2_000; i++) {
+                TreeSet<Long> rows = new TreeSet<>();
+
+                for (int j = rnd.nextInt(50); j > 0; j--)
+                    rows.add((long)rnd.nextInt(CNT / threads) * threads + idx);
+
+                if (rnd.nextInt(3) != 0) {
+                    tree.putAll(new ArrayList<>(rows));
+
+                    keys.addAll(rows);
+                }
+                else {
+                    int rmvd = 0;
+
+                    for (Long row : rows) {
+                        if (keys.remove(row))
+                            rmvd++;
+                    }
+
+                    assertEquals(rmvd, tree.removeAll(new ArrayList<>(rows)));
+                }
+            }
+
+            for (Long key : keys)
+                map.put(key, key);
+
+            return null;
+        }, threads, "put-all");
+
+        tree.validateTree();
+
+        assertEqualContents(tree, map);
+    }
+
+    /**
+     * @throws IgniteCheckedException If failed.
+     */
+    @Test
+    public void testRemoveRange() throws IgniteCheckedException {
+        MAX_PER_PAGE = 5;
+        CNT = 10_000;
+
+        TestTree tree = createTestTree(true);
+
+        TreeMap<Long, Long> map = new TreeMap<>();
+
+        for (long i = 0; i < CNT; i++) {
+            tree.put(i);
+
+            map.put(i, i);
+        }
+
+        Random rnd = new GridRandom();
+
+        for (int i = 0; i < 50; i++) {
+            long lower = rnd.nextInt(CNT);
+            long upper = lower + rnd.nextInt(100);
+            int limit = rnd.nextBoolean() ? -1 : rnd.nextInt(50);
+
+            Map<Long, Long> range = map.subMap(lower, true, upper, true);
+
+            int expRmvd = limit == -1 ? range.size() : Math.min(limit, range.size());
+
+            assertEquals(expRmvd, tree.removeRange(lower, upper, null, limit));
+
+            // Rows are removed in the tree order.
+            for (int j = 0; j < expRmvd; j++)
+                map.remove(map.ceilingKey(lower));
+
+            assertNoLocks();
+
+            tree.validateTree();
+        }
+
+        // Unbounded lower range.
+        long upper = map.lastKey() / 2;
+
+        assertEquals(map.headMap(upper, true).size(), tree.removeRange(null, upper, null, -1));
+
+        map.headMap(upper, true).clear();
+
+        assertNoLocks();
+
+        tree.validateTree();
+
+        assertEqualContents(tree, map);
+    }
+
     /**
      * @throws IgniteCheckedException If failed.
      */
@@ -2150,6 +2357,115 @@ public class BPlusTreeSelfTest extends GridCommonAbstractTest {
         assertNoLocks();
     }
 
+    /**
+     * Checks that concurrent puts, removes and finds work correctly when inner pages are searched without the lock.
+     *
+     * @throws Exception If failed.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testPutRmvFindOptimisticReadsMultithreaded() throws Exception {
+        MAX_PER_PAGE = 5;
+
+        final int keys = 20_000;
+
+        final TestTree tree = createTestTree(false);
+
+        tree.optimisticReads = true;
+
+        // Even keys are never removed, odd keys are put and removed concurrently.
+        for (long k = 0; k < keys; k += 2)
+            assertNull(tree.put(k));
+
+        final int writers = Math.max(2, CPUS / 2);
+
+        final Set<Long>[] present = new Set[writers];
+
+        for (int i = 0; i < writers; i++)
+            present[i] = new HashSet<>();
+
+        final AtomicInteger writerIdx = new AtomicInteger();
+
+        IgniteInternalFuture<?> writeFut = multithreadedAsync(() -> {
+            int w = writerIdx.getAndIncrement();
+
+            Set<Long> own = present[w];
+
+            ThreadLocalRandom r = ThreadLocalRandom.current();
+
+            for (int i = 0; i < 50_000 && !stop.get(); i++) {
+                // Each writer owns the odd keys with the same remainder, so it knows which of them are present.
+                long k = (r.nextLong(keys / 2 / writers) * writers + w) * 2 + 1;
+
+                if (own.add(k))
+                    assertNull(tree.put(k));
+                else {
+                    assertEquals(Long.valueOf(k), tree.remove(k));
+
+                    own.remove(k);
+                }
+            }
+
+            return null;
+        }, writers, "put-rmv");
+
+        IgniteInternalFuture<?> findFut = multithreadedAsync(() -> {
+            ThreadLocalRandom r = ThreadLocalRandom.current();
+
+            while (!writeFut.isDone()) {
+                long k = r.nextLong(keys);
+
+                Long row = tree.findOne(k);
+
+                if ((k & 1) == 0)
+                    assertEquals(Long.valueOf(k), row);
+                else
+                    assertTrue(row == null || row == k);
+
+                assertNull(tree.findOne(keys + k));
+            }
+
+            return null;
+        }, Math.max(2, CPUS / 2), "find");
+
+        asyncRunFut = new GridCompoundFuture<>();
+
+        asyncRunFut.add((IgniteInternalFuture)writeFut);
+        asyncRunFut.add((IgniteInternalFuture)findFut);
+
+        asyncRunFut.markInitialized();
+
+        try {
+            writeFut.get(getTestTimeout(), TimeUnit.MILLISECONDS);
+        }
+        finally {
+            stop.set(true);
+
+            asyncRunFut.get();
+        }
+
+        tree.validateTree();
+
+        assertNoLocks();
+
+        TreeSet<Long> exp = new TreeSet<>();
+
+        for (long k = 0; k < keys; k += 2)
+            exp.add(k);
+
+        for (Set<Long> own : present)
+            exp.addAll(own);
+
+        assertEquals(exp.size(), tree.size());
+
+        for (Long k : exp)
+            assertEquals(k, tree.findOne(k));
+
+        // Page memory without the support of optimistic reads always falls back to the locked read.
+        if (!(pageMem instanceof PageMemoryNoStoreImpl))
+            assertTrue(tree.optimisticCmps.get() > 0);
+    }
+
     /**
      * @throws Exception If failed.
      */
@@ -2863,6 +3179,12 @@ public class BPlusTreeSelfTest extends GridCommonAbstractTest {
         /** Number of retries. */
         private int numRetries = super.getLockRetries();
 
+        /** Whether inner pages are searched without taking the read lock. */
+        private volatile boolean optimisticReads;
+
+        /** Number of rows compared on inner pages read without the lock. */
+        private final AtomicLong optimisticCmps = new AtomicLong();
+
         /**
          * @param reuseList Reuse list.
          * @param canGetRow Can get row from inner page.
@@ -2914,6 +3236,13 @@ public class BPlusTreeSelfTest extends GridCommonAbstractTest {
             return Long.compare(n1, n2);
         }
 
+        /** {@inheritDoc} */
+        @Override protected int compareOptimistic(BPlusIO<Long> io, long pageAddr, int idx, Long n2) {
+            optimisticCmps.incrementAndGet();
+
+            return Long.compare(PageUtils.getLong(pageAddr, io.offset(idx)), n2);
+        }
+
         /** {@inheritDoc} */
         @Override public Long getRow(BPlusIO<Long> io, long pageAddr, int idx, Object ignore)
             throws IgniteCheckedException {
@@ -2980,6 +3309,11 @@ public class BPlusTreeSelfTest extends GridCommonAbstractTest {
         @Override protected int getLockRetries() {
             return numRetries;
         }
+
+        /** {@inheritDoc} */
+        @Override protected boolean optimisticReads() {
+            return optimisticReads;
+        }
     }
 
     /**
@@ -30,6 +30,7 @@ import org.apache.ignite.internal.encryption.EncryptedCacheCreateTest;
 import org.apache.ignite.internal.encryption.EncryptedCacheDestroyTest;
 import org.apache.ignite.internal.encryption.EncryptedCacheGroupCreateTest;
 import org.apache.ignite.internal.encryption.EncryptedCacheNodeJoinTest;
+import org.apache.ignite.internal.encryption.EncryptedCacheParallelPageEncryptionTest;
 import org.apache.ignite.internal.encryption.EncryptedCachePreconfiguredRestartTest;
 import org.apache.ignite.internal.encryption.EncryptedCacheRestartTest;
 import org.apache.ignite.internal.encryption.EncryptionMXBeanTest;
@@ -71,6 +72,7 @@ import org.junit.runners.Suite;
     EncryptedCacheNodeJoinTest.class,
     EncryptedCacheRestartTest.class,
     EncryptedCachePreconfiguredRestartTest.class,
+    EncryptedCacheParallelPageEncryptionTest.class,
 
     SingleNodePersistenceSslTest.class,
 
@@ -21,6 +21,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import org.apache.ignite.IgniteSystemProperties;
+import org.apache.ignite.internal.processors.cache.CacheDataHashIndexTest;
+import org.apache.ignite.internal.processors.cache.CacheDataInlineRowsTest;
 import org.apache.ignite.internal.processors.cache.CacheIgniteOutOfMemoryExceptionOnTtlTest;
 import org.apache.ignite.internal.processors.cache.CacheIgniteOutOfMemoryExceptionTest;
 import org.apache.ignite.internal.processors.cache.PartitionedAtomicCacheGetsDistributionTest;
@@ -91,6 +93,8 @@ public class IgniteCacheMvccTestSuite6 {
         ignoredTests.add(IgniteCache150ClientsTest.class);
         ignoredTests.add(CacheIgniteOutOfMemoryExceptionTest.class);
         ignoredTests.add(CacheIgniteOutOfMemoryExceptionOnTtlTest.class);
+        ignoredTests.add(CacheDataHashIndexTest.class);
+        ignoredTests.add(CacheDataInlineRowsTest.class);
         ignoredTests.add(OnePhaseCommitAndNodeLeftTest.class);
 
         // Mixed local/dht tx test.
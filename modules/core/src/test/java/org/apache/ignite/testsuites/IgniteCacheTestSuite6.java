@@ -20,6 +20,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import org.apache.ignite.cache.affinity.PendingExchangeTest;
+import org.apache.ignite.internal.processors.cache.CacheDataHashIndexTest;
+import org.apache.ignite.internal.processors.cache.CacheDataInlineRowsTest;
 import org.apache.ignite.internal.processors.cache.CacheIgniteOutOfMemoryExceptionOnTtlTest;
 import org.apache.ignite.internal.processors.cache.CacheIgniteOutOfMemoryExceptionTest;
 import org.apache.ignite.internal.processors.cache.CacheNoAffinityExchangeTest;
@@ -168,6 +170,10 @@ public class IgniteCacheTestSuite6 {
 
         GridTestUtils.addTestIfNeeded(suite, CacheMetricsForNonAffinityCachesTest.class, ignoredTests);
 
+        GridTestUtils.addTestIfNeeded(suite, CacheDataHashIndexTest.class, ignoredTests);
+
+        GridTestUtils.addTestIfNeeded(suite, CacheDataInlineRowsTest.class, ignoredTests);
+
         return suite;
     }
 }
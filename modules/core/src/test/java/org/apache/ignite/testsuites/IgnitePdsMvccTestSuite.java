@@ -33,6 +33,7 @@ import org.apache.ignite.internal.processors.cache.persistence.db.file.IgnitePds
 import org.apache.ignite.internal.processors.cache.persistence.db.file.IgnitePdsPageReplacementTest;
 import org.apache.ignite.internal.processors.cache.persistence.db.file.IgniteRandomLruPageReplacementTest;
 import org.apache.ignite.internal.processors.cache.persistence.db.file.IgniteSegmentLruPageReplacementTest;
+import org.apache.ignite.internal.processors.cache.persistence.db.file.IgniteTinyLfuPageReplacementTest;
 import org.apache.ignite.internal.processors.cache.persistence.metastorage.IgniteMetaStorageBasicTest;
 import org.apache.ignite.internal.processors.cache.persistence.pagemem.BPlusTreePageMemoryImplTest;
 import org.apache.ignite.internal.processors.cache.persistence.pagemem.BPlusTreeReuseListPageMemoryImplTest;
@@ -73,6 +74,7 @@ public class IgnitePdsMvccTestSuite {
         ignoredTests.add(IgniteClockPageReplacementTest.class);
         ignoredTests.add(IgniteRandomLruPageReplacementTest.class);
         ignoredTests.add(IgniteSegmentLruPageReplacementTest.class);
+        ignoredTests.add(IgniteTinyLfuPageReplacementTest.class);
 
         ignoredTests.add(PageMemoryImplNoLoadTest.class);
         ignoredTests.add(PageMemoryNoStoreLeakTest.class);
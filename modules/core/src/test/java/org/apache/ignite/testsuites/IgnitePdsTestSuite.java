@@ -41,6 +41,7 @@ import org.apache.ignite.internal.processors.cache.persistence.db.file.IgnitePds
 import org.apache.ignite.internal.processors.cache.persistence.db.file.IgnitePdsPageReplacementTest;
 import org.apache.ignite.internal.processors.cache.persistence.db.file.IgniteRandomLruPageReplacementTest;
 import org.apache.ignite.internal.processors.cache.persistence.db.file.IgniteSegmentLruPageReplacementTest;
+import org.apache.ignite.internal.processors.cache.persistence.db.file.IgniteTinyLfuPageReplacementTest;
 import org.apache.ignite.internal.processors.cache.persistence.metastorage.IgniteMetaStorageBasicTest;
 import org.apache.ignite.internal.processors.configuration.distributed.DistributedConfigurationPersistentTest;
 import org.apache.ignite.internal.processors.database.IgniteDbDynamicCacheSelfTest;
@@ -92,6 +93,7 @@ public class IgnitePdsTestSuite {
         GridTestUtils.addTestIfNeeded(suite, IgniteClockPageReplacementTest.class, ignoredTests);
         GridTestUtils.addTestIfNeeded(suite, IgniteRandomLruPageReplacementTest.class, ignoredTests);
         GridTestUtils.addTestIfNeeded(suite, IgniteSegmentLruPageReplacementTest.class, ignoredTests);
+        GridTestUtils.addTestIfNeeded(suite, IgniteTinyLfuPageReplacementTest.class, ignoredTests);
     }
 
     /**
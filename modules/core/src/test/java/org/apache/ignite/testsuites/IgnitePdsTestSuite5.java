@@ -45,6 +45,7 @@ import org.apache.ignite.internal.processors.cache.persistence.wal.WalArchiveCon
 import org.apache.ignite.internal.processors.cache.persistence.wal.WalCorruptionTest;
 import org.apache.ignite.internal.processors.cache.persistence.wal.WalEnableDisableWithNodeShutdownTest;
 import org.apache.ignite.internal.processors.cache.persistence.wal.WalEnableDisableWithRestartsTest;
+import org.apache.ignite.internal.processors.cache.persistence.wal.WalStripingTest;
 import org.apache.ignite.internal.processors.cache.persistence.wal.aware.SegmentAwareTest;
 import org.apache.ignite.testframework.GridTestUtils;
 import org.apache.ignite.testframework.junits.DynamicSuite;
@@ -111,6 +112,8 @@ public class IgnitePdsTestSuite5 {
 
         GridTestUtils.addTestIfNeeded(suite, WalArchiveConsistencyTest.class, ignoredTests);
 
+        GridTestUtils.addTestIfNeeded(suite, WalStripingTest.class, ignoredTests);
+
         GridTestUtils.addTestIfNeeded(suite, RestorePartitionStateTest.class, ignoredTests);
 
         GridTestUtils.addTestIfNeeded(suite, FileWriteAheadLogManagerSelfTest.class, ignoredTests);
@@ -32,10 +32,12 @@ import org.apache.ignite.internal.processors.cache.persistence.MaintenanceAutoRe
 import org.apache.ignite.internal.processors.cache.persistence.MaintenanceClearCacheFolderTest;
 import org.apache.ignite.internal.processors.cache.persistence.MaintenancePersistenceTaskTest;
 import org.apache.ignite.internal.processors.cache.persistence.PagesPossibleCorruptionDiagnosticTest;
+import org.apache.ignite.internal.processors.cache.persistence.PendingRowsBatchExpirationTest;
 import org.apache.ignite.internal.processors.cache.persistence.PendingTreeCorruptionTest;
 import org.apache.ignite.internal.processors.cache.persistence.db.IgnitePdsPageReplacementDuringPartitionClearTest;
 import org.apache.ignite.internal.processors.cache.persistence.db.IgnitePdsTransactionsHangTest;
 import org.apache.ignite.internal.processors.cache.persistence.defragmentation.DefragmentationMXBeanTest;
+import org.apache.ignite.internal.processors.cache.persistence.defragmentation.OnlineDefragmentationTest;
 import org.apache.ignite.internal.processors.cache.persistence.diagnostic.pagelocktracker.PageLockTrackerManagerTest;
 import org.apache.ignite.internal.processors.cache.persistence.diagnostic.pagelocktracker.PageLockTrackerResourcesTest;
 import org.apache.ignite.internal.processors.cache.persistence.diagnostic.pagelocktracker.SharedPageLockTrackerTest;
@@ -45,6 +47,9 @@ import org.apache.ignite.internal.processors.cache.persistence.diagnostic.pagelo
 import org.apache.ignite.internal.processors.cache.persistence.diagnostic.pagelocktracker.log.OffHeapLockLogTest;
 import org.apache.ignite.internal.processors.cache.persistence.diagnostic.pagelocktracker.stack.HeapArrayLockStackTest;
 import org.apache.ignite.internal.processors.cache.persistence.diagnostic.pagelocktracker.stack.OffHeapLockStackTest;
+import org.apache.ignite.internal.processors.cache.persistence.scrub.PageScrubberTest;
+import org.apache.ignite.internal.processors.cache.persistence.snapshot.IgniteCacheSnapshotManagerTest;
+import org.apache.ignite.internal.processors.cache.warmup.HotPagesWarmUpStrategySelfTest;
 import org.apache.ignite.internal.processors.cache.warmup.LoadAllWarmUpStrategySelfTest;
 import org.apache.ignite.internal.processors.cache.warmup.WarmUpSelfTest;
 import org.apache.ignite.testframework.GridTestUtils;
@@ -88,16 +93,20 @@ public class IgnitePdsTestSuite8 {
         // Warm-up tests.
         GridTestUtils.addTestIfNeeded(suite, WarmUpSelfTest.class, ignoredTests);
         GridTestUtils.addTestIfNeeded(suite, LoadAllWarmUpStrategySelfTest.class, ignoredTests);
+        GridTestUtils.addTestIfNeeded(suite, HotPagesWarmUpStrategySelfTest.class, ignoredTests);
 
         GridTestUtils.addTestIfNeeded(suite, PendingTreeCorruptionTest.class, ignoredTests);
+        GridTestUtils.addTestIfNeeded(suite, PendingRowsBatchExpirationTest.class, ignoredTests);
 
         // Defragmentation.
         GridTestUtils.addTestIfNeeded(suite, IgnitePdsDefragmentationTest.class, ignoredTests);
         GridTestUtils.addTestIfNeeded(suite, IgnitePdsDefragmentationRandomLruEvictionTest.class, ignoredTests);
         GridTestUtils.addTestIfNeeded(suite, IgnitePdsDefragmentationEncryptionTest.class, ignoredTests);
         GridTestUtils.addTestIfNeeded(suite, DefragmentationMXBeanTest.class, ignoredTests);
+        GridTestUtils.addTestIfNeeded(suite, OnlineDefragmentationTest.class, ignoredTests);
 
         GridTestUtils.addTestIfNeeded(suite, PagesPossibleCorruptionDiagnosticTest.class, ignoredTests);
+        GridTestUtils.addTestIfNeeded(suite, PageScrubberTest.class, ignoredTests);
         GridTestUtils.addTestIfNeeded(suite, MaintenancePersistenceTaskTest.class, ignoredTests);
         GridTestUtils.addTestIfNeeded(suite, MaintenanceClearCacheFolderTest.class, ignoredTests);
         GridTestUtils.addTestIfNeeded(suite, MaintenanceAutoRecoveryTest.class, ignoredTests);
@@ -105,6 +114,9 @@ public class IgnitePdsTestSuite8 {
         // Tx record logging tests.
         GridTestUtils.addTestIfNeeded(suite, IgnitePdsTxRecordLoggingTest.class, ignoredTests);
 
+        // Snapshot tests.
+        GridTestUtils.addTestIfNeeded(suite, IgniteCacheSnapshotManagerTest.class, ignoredTests);
+
         return suite;
     }
 
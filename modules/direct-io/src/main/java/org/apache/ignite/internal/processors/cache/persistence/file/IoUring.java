@@ -0,0 +1,472 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.file;
+
+import com.sun.jna.Library;
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLong;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.apache.ignite.internal.util.GridUnsafe;
+import org.apache.ignite.internal.util.typedef.internal.S;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Linux io_uring instance: submission and completion queues shared with the kernel. Rings are set up with raw system
+ * calls through JNA, so liburing is not required. Kernel 5.6 or newer is required for {@code IORING_OP_READ} and
+ * {@code IORING_OP_WRITE}.
+ * <p>
+ * Instance is not thread-safe: it is {@link #acquire() taken} from the pool for a single batch of operations and
+ * {@link #release() returned} back once all the operations are completed.
+ */
+class IoUring {
+    /** {@code io_uring_setup} system call number, the same for x86-64 and AArch64. */
+    private static final long SYS_IO_URING_SETUP = 425;
+
+    /** {@code io_uring_enter} system call number, the same for x86-64 and AArch64. */
+    private static final long SYS_IO_URING_ENTER = 426;
+
+    /** Fsync operation. */
+    static final byte IORING_OP_FSYNC = 3;
+
+    /** Read operation. */
+    static final byte IORING_OP_READ = 22;
+
+    /** Write operation. */
+    static final byte IORING_OP_WRITE = 23;
+
+    /** Fsync flag: flush data only. */
+    static final int IORING_FSYNC_DATASYNC = 1;
+
+    /** Feature flag of the kernel which also supports {@link #IORING_OP_READ} and {@link #IORING_OP_WRITE}. */
+    private static final int IORING_FEAT_RW_CUR_POS = 1 << 3;
+
+    /** Enter flag: wait for completions. */
+    private static final int IORING_ENTER_GETEVENTS = 1;
+
+    /** Offset of the submission queue ring for mmap. */
+    private static final long IORING_OFF_SQ_RING = 0L;
+
+    /** Offset of the completion queue ring for mmap. */
+    private static final long IORING_OFF_CQ_RING = 0x8000000L;
+
+    /** Offset of the submission queue entries for mmap. */
+    private static final long IORING_OFF_SQES = 0x10000000L;
+
+    /** Size of {@code struct io_uring_params}. */
+    private static final int PARAMS_SIZE = 120;
+
+    /** Offset of {@code struct io_sqring_offsets} in {@code struct io_uring_params}. */
+    private static final int SQ_OFF = 40;
+
+    /** Offset of {@code struct io_cqring_offsets} in {@code struct io_uring_params}. */
+    private static final int CQ_OFF = 80;
+
+    /** Size of submission queue entry. */
+    private static final int SQE_SIZE = 64;
+
+    /** Size of completion queue entry. */
+    private static final int CQE_SIZE = 16;
+
+    /** Pages can be read and written. */
+    private static final int PROT_READ_WRITE = 0x1 | 0x2;
+
+    /** Shared populated mapping. */
+    private static final int MAP_SHARED_POPULATE = 0x01 | 0x8000;
+
+    /** Interrupted system call. */
+    private static final int EINTR = 4;
+
+    /** Number of submission queue entries of a ring. */
+    static final int ENTRIES = 32;
+
+    /** C library, {@code null} if io_uring is not available. */
+    @Nullable private static final LibC libc;
+
+    /** Reason why io_uring is not available, {@code null} if it is available. */
+    @Nullable private static final String unavailableReason;
+
+    /** Idle rings. */
+    private static final ConcurrentLinkedQueue<IoUring> pool = new ConcurrentLinkedQueue<>();
+
+    static {
+        LibC lib = null;
+        String reason = null;
+
+        if (!Platform.isLinux())
+            reason = "io_uring is available on Linux only";
+        else if (!Platform.isIntel() && !Platform.isARM() || !Platform.is64Bit())
+            reason = "io_uring is supported on x86-64 and AArch64 only [arch=" + System.getProperty("os.arch") + ']';
+        else {
+            try {
+                lib = Native.load(Platform.C_LIBRARY_NAME, LibC.class);
+
+                // Checks that the kernel allows to set up a ring with all required operations.
+                pool.add(new IoUring(lib));
+            }
+            catch (Throwable e) {
+                lib = null;
+                reason = e.getMessage();
+            }
+        }
+
+        libc = lib;
+        unavailableReason = reason;
+    }
+
+    /** C library. */
+    private final LibC lib;
+
+    /** Ring file descriptor. */
+    private final int ringFd;
+
+    /** Address of the submission queue ring. */
+    private long sqRing;
+
+    /** Size of the submission queue ring. */
+    private long sqRingSize;
+
+    /** Address of the completion queue ring. */
+    private long cqRing;
+
+    /** Size of the completion queue ring. */
+    private long cqRingSize;
+
+    /** Address of the submission queue entries. */
+    private long sqes;
+
+    /** Size of the submission queue entries. */
+    private long sqesSize;
+
+    /** Address of the submission queue tail. */
+    private long sqTail;
+
+    /** Submission queue index mask. */
+    private int sqMask;
+
+    /** Address of the submission queue index array. */
+    private long sqArray;
+
+    /** Address of the completion queue head. */
+    private long cqHead;
+
+    /** Address of the completion queue tail. */
+    private long cqTail;
+
+    /** Completion queue index mask. */
+    private int cqMask;
+
+    /** Address of the completion queue entries. */
+    private long cqes;
+
+    /** Local submission queue tail, published to the kernel on submit. */
+    private int tail;
+
+    /** Number of prepared operations. */
+    private int prepared;
+
+    /** Results of the last submitted operations. */
+    private final int[] res = new int[ENTRIES];
+
+    /** Broken flag, the ring is closed instead of returning to the pool. */
+    private boolean broken;
+
+    /**
+     * @param lib C library.
+     * @throws IOException If failed to set up the ring.
+     */
+    private IoUring(LibC lib) throws IOException {
+        this.lib = lib;
+
+        Memory params = new Memory(PARAMS_SIZE);
+
+        params.clear();
+
+        ringFd = lib.syscall(SYS_IO_URING_SETUP, (long)ENTRIES, params).intValue();
+
+        if (ringFd < 0)
+            throw new IOException("Failed to set up io_uring: " + lastError());
+
+        try {
+            if ((params.getInt(20) & IORING_FEAT_RW_CUR_POS) == 0)
+                throw new IOException("io_uring of the kernel doesn't support read and write operations " +
+                    "(Linux 5.6 or newer is required) [os.version=" + System.getProperty("os.version") + ']');
+
+            int sqEntries = params.getInt(0);
+            int cqEntries = params.getInt(4);
+
+            sqRingSize = params.getInt(SQ_OFF + 24) + sqEntries * 4L;
+            sqRing = mmap(sqRingSize, IORING_OFF_SQ_RING);
+
+            cqRingSize = params.getInt(CQ_OFF + 20) + (long)cqEntries * CQE_SIZE;
+            cqRing = mmap(cqRingSize, IORING_OFF_CQ_RING);
+
+            sqesSize = (long)sqEntries * SQE_SIZE;
+            sqes = mmap(sqesSize, IORING_OFF_SQES);
+
+            sqTail = sqRing + params.getInt(SQ_OFF + 4);
+            sqMask = GridUnsafe.getInt(sqRing + params.getInt(SQ_OFF + 8));
+            sqArray = sqRing + params.getInt(SQ_OFF + 24);
+
+            cqHead = cqRing + params.getInt(CQ_OFF);
+            cqTail = cqRing + params.getInt(CQ_OFF + 4);
+            cqMask = GridUnsafe.getInt(cqRing + params.getInt(CQ_OFF + 8));
+            cqes = cqRing + params.getInt(CQ_OFF + 20);
+
+            tail = GridUnsafe.getInt(sqTail);
+        }
+        catch (IOException | RuntimeException e) {
+            close();
+
+            throw e;
+        }
+    }
+
+    /**
+     * @return {@code True} if io_uring can be used.
+     */
+    static boolean available() {
+        return unavailableReason == null;
+    }
+
+    /**
+     * @return Reason why io_uring is not available, {@code null} if it is available.
+     */
+    @Nullable static String unavailableReason() {
+        return unavailableReason;
+    }
+
+    /**
+     * Takes an idle ring from the pool or sets up a new one.
+     *
+     * @return Ring.
+     * @throws IOException If failed to set up a ring.
+     */
+    static IoUring acquire() throws IOException {
+        assert libc != null : unavailableReason;
+
+        IoUring ring = pool.poll();
+
+        return ring != null ? ring : new IoUring(libc);
+    }
+
+    /**
+     * Returns the ring to the pool.
+     */
+    void release() {
+        assert prepared == 0 || broken : prepared;
+
+        if (broken)
+            close();
+        else
+            pool.add(this);
+    }
+
+    /**
+     * Prepares an operation. Operations are passed to the kernel by {@link #submitAndWait()}.
+     *
+     * @param op Operation code.
+     * @param fd File descriptor.
+     * @param addr Buffer address.
+     * @param len Number of bytes.
+     * @param off File offset.
+     * @param opFlags Operation flags.
+     */
+    void prepare(byte op, int fd, long addr, int len, long off, int opFlags) {
+        assert prepared < ENTRIES : prepared;
+
+        int idx = tail & sqMask;
+        long sqe = sqes + (long)idx * SQE_SIZE;
+
+        GridUnsafe.setMemory(sqe, SQE_SIZE, (byte)0);
+
+        GridUnsafe.putByte(sqe, op);
+        GridUnsafe.putInt(sqe + 4, fd);
+        GridUnsafe.putLong(sqe + 8, off);
+        GridUnsafe.putLong(sqe + 16, addr);
+        GridUnsafe.putInt(sqe + 24, len);
+        GridUnsafe.putInt(sqe + 28, opFlags);
+        GridUnsafe.putLong(sqe + 32, prepared);
+
+        GridUnsafe.putInt(sqArray + idx * 4L, idx);
+
+        tail++;
+        prepared++;
+    }
+
+    /**
+     * Submits all prepared operations by a single system call and waits for their completion.
+     *
+     * @throws IOException If failed to submit the operations.
+     * @see #result(int)
+     */
+    void submitAndWait() throws IOException {
+        int cnt = prepared;
+
+        // Publishes the entries before the kernel reads the tail.
+        GridUnsafe.putIntVolatile(null, sqTail, tail);
+
+        int submitted = 0;
+        int completed = 0;
+
+        try {
+            while (completed < cnt) {
+                int r = lib.syscall(SYS_IO_URING_ENTER, (long)ringFd, (long)(cnt - submitted), 1L,
+                    (long)IORING_ENTER_GETEVENTS, null, 0L).intValue();
+
+                if (r < 0) {
+                    if (Native.getLastError() == EINTR)
+                        continue;
+
+                    broken = true;
+
+                    throw new IOException("Failed to submit io_uring operations: " + lastError());
+                }
+
+                submitted += r;
+
+                int head = GridUnsafe.getInt(cqHead);
+                int cqTail0 = GridUnsafe.getIntVolatile(null, cqTail);
+
+                for (; head != cqTail0; head++, completed++) {
+                    long cqe = cqes + (long)(head & cqMask) * CQE_SIZE;
+
+                    res[(int)GridUnsafe.getLong(cqe)] = GridUnsafe.getInt(cqe + 8);
+                }
+
+                // Frees the entries for the kernel.
+                GridUnsafe.putIntVolatile(null, cqHead, head);
+            }
+        }
+        finally {
+            prepared = 0;
+        }
+    }
+
+    /**
+     * @param idx Index of the operation in the order of preparation.
+     * @return Result of the last submitted operation: number of bytes or negated error code.
+     */
+    int result(int idx) {
+        return res[idx];
+    }
+
+    /**
+     * Maps a region of the ring.
+     *
+     * @param size Size.
+     * @param off Region offset.
+     * @return Address.
+     * @throws IOException If failed.
+     */
+    private long mmap(long size, long off) throws IOException {
+        Pointer ptr = lib.mmap(null, new NativeLong(size), PROT_READ_WRITE, MAP_SHARED_POPULATE, ringFd,
+            new NativeLong(off));
+
+        long addr = Pointer.nativeValue(ptr);
+
+        if (addr == -1L)
+            throw new IOException("Failed to map io_uring: " + lastError());
+
+        return addr;
+    }
+
+    /**
+     * Unmaps the ring and closes its descriptor.
+     */
+    private void close() {
+        if (sqes != 0)
+            lib.munmap(new Pointer(sqes), new NativeLong(sqesSize));
+
+        if (cqRing != 0)
+            lib.munmap(new Pointer(cqRing), new NativeLong(cqRingSize));
+
+        if (sqRing != 0)
+            lib.munmap(new Pointer(sqRing), new NativeLong(sqRingSize));
+
+        sqes = cqRing = sqRing = 0;
+
+        IgniteNativeIoLib.close(ringFd);
+    }
+
+    /**
+     * @return Description of the last error.
+     */
+    private String lastError() {
+        return lib.strerror(Native.getLastError());
+    }
+
+    /**
+     * @param errno Error code.
+     * @return Error description.
+     */
+    static String strerror(int errno) {
+        return libc != null ? libc.strerror(errno) : "errno=" + errno;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return S.toString(IoUring.class, this);
+    }
+
+    /**
+     * C library functions used by the ring.
+     */
+    private interface LibC extends Library {
+        /**
+         * Invokes a system call. See "man 2 syscall".
+         *
+         * @param nr System call number.
+         * @param args Arguments.
+         * @return Result of the call, -1 on error.
+         */
+        public NativeLong syscall(long nr, Object... args);
+
+        /**
+         * Maps a file into memory. See "man 2 mmap".
+         *
+         * @param addr Address hint.
+         * @param len Length.
+         * @param prot Memory protection.
+         * @param flags Flags.
+         * @param fd File descriptor.
+         * @param off Offset.
+         * @return Address of the mapping, -1 on error.
+         */
+        public Pointer mmap(Pointer addr, NativeLong len, int prot, int flags, int fd, NativeLong off);
+
+        /**
+         * Unmaps memory. See "man 2 munmap".
+         *
+         * @param addr Address.
+         * @param len Length.
+         * @return 0 on success, -1 on error.
+         */
+        public int munmap(Pointer addr, NativeLong len);
+
+        /**
+         * See "man 3 strerror".
+         *
+         * @param errnum Error code.
+         * @return Error description.
+         */
+        public String strerror(int errnum);
+    }
+}
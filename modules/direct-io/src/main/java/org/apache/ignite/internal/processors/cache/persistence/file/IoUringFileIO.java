@@ -0,0 +1,258 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.file;
+
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import org.apache.ignite.internal.processors.compress.FileSystemUtils;
+import org.apache.ignite.internal.util.GridUnsafe;
+import org.apache.ignite.internal.util.typedef.internal.U;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static org.apache.ignite.internal.processors.cache.persistence.file.IoUring.IORING_FSYNC_DATASYNC;
+import static org.apache.ignite.internal.processors.cache.persistence.file.IoUring.IORING_OP_FSYNC;
+import static org.apache.ignite.internal.processors.cache.persistence.file.IoUring.IORING_OP_READ;
+import static org.apache.ignite.internal.processors.cache.persistence.file.IoUring.IORING_OP_WRITE;
+
+/**
+ * File I/O implementation based on Linux io_uring. Reads, writes and fsyncs of direct buffers are submitted to a ring,
+ * a buffer larger than {@link #CHUNK_SIZE} is split into several operations which are submitted by a single system
+ * call and processed by the kernel concurrently. Heap buffers, memory mapping and truncation are served by
+ * {@link FileChannel}.
+ * <p>
+ * Current position is maintained by this instance, so sequential reads and writes must not be called concurrently.
+ */
+public class IoUringFileIO extends AbstractFileIO {
+    /** Maximum number of bytes of a single operation. */
+    static final int CHUNK_SIZE = 128 * 1024;
+
+    /** File. */
+    private final File file;
+
+    /** File channel. */
+    private final FileChannel ch;
+
+    /** Native file descriptor. */
+    private final int fd;
+
+    /** File system block size. */
+    private final int fsBlockSize;
+
+    /** Position for sequential reads and writes. */
+    private long pos;
+
+    /**
+     * @param file File.
+     * @param modes Open modes.
+     * @throws IOException If failed to open the file.
+     */
+    public IoUringFileIO(File file, OpenOption... modes) throws IOException {
+        this.file = file;
+
+        ch = FileChannel.open(file.toPath(), modes);
+
+        FileDescriptor fdObj = U.field(ch, "fd");
+
+        fd = U.field(fdObj, "fd");
+        fsBlockSize = FileSystemUtils.getFileSystemBlockSize(fd);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getFileSystemBlockSize() {
+        return fsBlockSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getSparseSize() {
+        return FileSystemUtils.getSparseFileSize(fd);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int punchHole(long position, int len) {
+        return (int)FileSystemUtils.punchHole(fd, position, len, fsBlockSize);
+    }
+
+    /** {@inheritDoc} */
+    @Override public long position() {
+        return pos;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void position(long newPosition) {
+        pos = newPosition;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int read(ByteBuffer destBuf) throws IOException {
+        int n = read(destBuf, pos);
+
+        if (n > 0)
+            pos += n;
+
+        return n;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int read(ByteBuffer destBuf, long position) throws IOException {
+        if (!destBuf.isDirect())
+            return ch.read(destBuf, position);
+
+        int n = submit(IORING_OP_READ, destBuf, position);
+
+        // Reading at the end of the file.
+        return n == 0 && destBuf.hasRemaining() ? -1 : n;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int read(byte[] buf, int off, int len) throws IOException {
+        return read(ByteBuffer.wrap(buf, off, len));
+    }
+
+    /** {@inheritDoc} */
+    @Override public int write(ByteBuffer srcBuf) throws IOException {
+        int n = write(srcBuf, pos);
+
+        pos += n;
+
+        return n;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int write(ByteBuffer srcBuf, long position) throws IOException {
+        if (!srcBuf.isDirect())
+            return ch.write(srcBuf, position);
+
+        return submit(IORING_OP_WRITE, srcBuf, position);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int write(byte[] buf, int off, int len) throws IOException {
+        return write(ByteBuffer.wrap(buf, off, len));
+    }
+
+    /**
+     * Reads or writes the remaining bytes of the buffer by operations submitted to a ring together.
+     *
+     * @param op Operation code.
+     * @param buf Direct buffer.
+     * @param position File position.
+     * @return Number of bytes read or written.
+     * @throws IOException If failed.
+     */
+    private int submit(byte op, ByteBuffer buf, long position) throws IOException {
+        int len = buf.remaining();
+
+        if (len == 0)
+            return 0;
+
+        long addr = GridUnsafe.bufferAddress(buf) + buf.position();
+        int ops = Math.min(IoUring.ENTRIES, (len + CHUNK_SIZE - 1) / CHUNK_SIZE);
+
+        int done = 0;
+
+        IoUring ring = IoUring.acquire();
+
+        try {
+            for (int i = 0; i < ops; i++) {
+                int off = i * CHUNK_SIZE;
+
+                ring.prepare(op, fd, addr + off, Math.min(CHUNK_SIZE, len - off), position + off, 0);
+            }
+
+            ring.submitAndWait();
+
+            for (int i = 0; i < ops; i++) {
+                int res = ring.result(i);
+
+                if (res < 0) {
+                    // Bytes which are processed before the failed operation are reported, the caller retries the rest.
+                    if (done > 0)
+                        break;
+
+                    throw new IOException("Failed to " + (op == IORING_OP_READ ? "read" : "write") + " file [file=" +
+                        file.getAbsolutePath() + ", pos=" + position + ", len=" + len + ", err=" +
+                        IoUring.strerror(-res) + ']');
+                }
+
+                done += res;
+
+                if (res < Math.min(CHUNK_SIZE, len - i * CHUNK_SIZE))
+                    break;
+            }
+        }
+        finally {
+            ring.release();
+        }
+
+        buf.position(buf.position() + done);
+
+        return done;
+    }
+
+    /** {@inheritDoc} */
+    @Override public MappedByteBuffer map(int sizeBytes) throws IOException {
+        return ch.map(READ_WRITE, 0, sizeBytes);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void force() throws IOException {
+        force(false);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void force(boolean withMetadata) throws IOException {
+        IoUring ring = IoUring.acquire();
+
+        try {
+            ring.prepare(IORING_OP_FSYNC, fd, 0, 0, 0, withMetadata ? 0 : IORING_FSYNC_DATASYNC);
+
+            ring.submitAndWait();
+
+            int res = ring.result(0);
+
+            if (res < 0) {
+                throw new IOException("Failed to fsync file [file=" + file.getAbsolutePath() + ", err=" +
+                    IoUring.strerror(-res) + ']');
+            }
+        }
+        finally {
+            ring.release();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public long size() throws IOException {
+        return ch.size();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void clear() throws IOException {
+        ch.truncate(0);
+
+        pos = 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void close() throws IOException {
+        ch.close();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.OpenOption;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * File I/O factory which provides {@link IoUringFileIO} based on Linux io_uring. Can be used for both page stores and
+ * WAL, see {@link org.apache.ignite.configuration.DataStorageConfiguration#setFileIOFactory(FileIOFactory)}.
+ * <p>
+ * If io_uring is not available (not Linux, kernel older than 5.6, or the system calls are forbidden, for example, by
+ * seccomp profile of a container) files are created by the backup factory.
+ */
+public class IoUringFileIOFactory implements FileIOFactory {
+    /** */
+    private static final long serialVersionUID = 0L;
+
+    /** Backup factory for files in case io_uring is not available. */
+    private final FileIOFactory backupFactory;
+
+    /**
+     * Creates factory with {@link RandomAccessFileIOFactory} as the backup factory.
+     */
+    public IoUringFileIOFactory() {
+        this(new RandomAccessFileIOFactory());
+    }
+
+    /**
+     * @param backupFactory Backup factory for files in case io_uring is not available.
+     */
+    public IoUringFileIOFactory(FileIOFactory backupFactory) {
+        this.backupFactory = backupFactory;
+    }
+
+    /** {@inheritDoc} */
+    @Override public FileIO create(File file, OpenOption... modes) throws IOException {
+        if (!IoUring.available())
+            return backupFactory.create(file, modes);
+
+        return new IoUringFileIO(file, modes);
+    }
+
+    /**
+     * @return {@code True} if io_uring can be used on the current OS.
+     */
+    public static boolean isIoUringAvailable() {
+        return IoUring.available();
+    }
+
+    /**
+     * @return Reason why io_uring can't be used, {@code null} if it is available.
+     */
+    @Nullable public static String unavailableReason() {
+        return IoUring.unavailableReason();
+    }
+}
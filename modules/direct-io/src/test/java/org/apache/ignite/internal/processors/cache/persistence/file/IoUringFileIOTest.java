@@ -0,0 +1,203 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.cache.persistence.file;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.configuration.DataRegionConfiguration;
+import org.apache.ignite.configuration.DataStorageConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.internal.IgniteEx;
+import org.apache.ignite.internal.util.typedef.internal.U;
+import org.apache.ignite.testframework.junits.common.GridCommonAbstractTest;
+import org.junit.Test;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.apache.ignite.cluster.ClusterState.ACTIVE;
+
+/**
+ * Tests {@link IoUringFileIOFactory}. If io_uring is not available the backup factory is checked.
+ */
+public class IoUringFileIOTest extends GridCommonAbstractTest {
+    /** Number of entries. */
+    private static final int ENTRIES = 10_000;
+
+    /** {@inheritDoc} */
+    @Override protected IgniteConfiguration getConfiguration(String igniteInstanceName) throws Exception {
+        return super.getConfiguration(igniteInstanceName)
+            .setDataStorageConfiguration(new DataStorageConfiguration()
+                .setFileIOFactory(new IoUringFileIOFactory())
+                .setDefaultDataRegionConfiguration(new DataRegionConfiguration().setPersistenceEnabled(true)));
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void beforeTest() throws Exception {
+        super.beforeTest();
+
+        if (!IoUringFileIOFactory.isIoUringAvailable())
+            log.info("io_uring is not available: " + IoUringFileIOFactory.unavailableReason());
+
+        stopAllGrids();
+
+        cleanPersistenceDir();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected void afterTest() throws Exception {
+        stopAllGrids();
+
+        cleanPersistenceDir();
+
+        super.afterTest();
+    }
+
+    /**
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testReadWrite() throws Exception {
+        File file = new File(U.defaultWorkDirectory(), "io-uring-test.bin");
+
+        U.delete(file);
+
+        try (FileIO io = new IoUringFileIOFactory().create(file, CREATE, READ, WRITE)) {
+            if (IoUringFileIOFactory.isIoUringAvailable())
+                assertTrue(io instanceof IoUringFileIO);
+
+            // Split into several operations.
+            int len = IoUringFileIO.CHUNK_SIZE * 3 + 100;
+
+            ByteBuffer src = randomBuffer(len, true);
+
+            assertEquals(len, io.writeFully(src, 4096));
+            assertEquals(4096 + len, io.size());
+
+            io.force();
+
+            ByteBuffer dst = ByteBuffer.allocateDirect(len);
+
+            assertEquals(len, io.readFully(dst, 4096));
+
+            src.flip();
+            dst.flip();
+
+            assertEquals(src, dst);
+
+            // Heap buffers.
+            ByteBuffer heapSrc = randomBuffer(100, false);
+
+            assertEquals(100, io.writeFully(heapSrc, 0));
+
+            ByteBuffer heapDst = ByteBuffer.allocate(100);
+
+            assertEquals(100, io.readFully(heapDst, 0));
+
+            heapSrc.flip();
+            heapDst.flip();
+
+            assertEquals(heapSrc, heapDst);
+
+            // Sequential writes and reads.
+            io.position(0);
+
+            ByteBuffer seqSrc = randomBuffer(8192, true);
+
+            io.writeFully(seqSrc);
+
+            assertEquals(8192, io.position());
+
+            io.position(0);
+
+            ByteBuffer seqDst = ByteBuffer.allocateDirect(8192);
+
+            io.readFully(seqDst);
+
+            seqSrc.flip();
+            seqDst.flip();
+
+            assertEquals(seqSrc, seqDst);
+
+            // End of file.
+            assertEquals(-1, io.read(ByteBuffer.allocateDirect(16), io.size()));
+
+            io.force(true);
+
+            io.clear();
+
+            assertEquals(0, io.size());
+            assertEquals(0, io.position());
+        }
+        finally {
+            U.delete(file);
+        }
+    }
+
+    /**
+     * Checks page stores and WAL with the factory.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testPersistence() throws Exception {
+        IgniteEx ig = startGrid(0);
+
+        ig.cluster().state(ACTIVE);
+
+        IgniteCache<Integer, String> cache = ig.getOrCreateCache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < ENTRIES; i++)
+            cache.put(i, "value-" + i);
+
+        forceCheckpoint();
+
+        // Restored from WAL.
+        for (int i = 0; i < ENTRIES; i += 2)
+            cache.put(i, "updated-" + i);
+
+        stopGrid(0, true);
+
+        ig = startGrid(0);
+
+        ig.cluster().state(ACTIVE);
+
+        cache = ig.cache(DEFAULT_CACHE_NAME);
+
+        for (int i = 0; i < ENTRIES; i++)
+            assertEquals((i % 2 == 0 ? "updated-" : "value-") + i, cache.get(i));
+    }
+
+    /**
+     * @param len Length.
+     * @param direct Direct buffer flag.
+     * @return Buffer with random content.
+     */
+    private static ByteBuffer randomBuffer(int len, boolean direct) {
+        byte[] bytes = new byte[len];
+
+        ThreadLocalRandom.current().nextBytes(bytes);
+
+        ByteBuffer buf = direct ? ByteBuffer.allocateDirect(len) : ByteBuffer.allocate(len);
+
+        buf.put(bytes).flip();
+
+        return buf;
+    }
+}
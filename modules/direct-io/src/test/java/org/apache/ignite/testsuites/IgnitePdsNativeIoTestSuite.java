@@ -18,6 +18,7 @@ package org.apache.ignite.testsuites;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.ignite.internal.processors.cache.persistence.file.IgniteNativeIoWithNoPersistenceTest;
+import org.apache.ignite.internal.processors.cache.persistence.file.IoUringFileIOTest;
 import org.apache.ignite.testframework.junits.DynamicSuite;
 import org.junit.runner.RunWith;
 
@@ -39,6 +40,8 @@ public class IgnitePdsNativeIoTestSuite {
 
         suite.add(IgniteNativeIoWithNoPersistenceTest.class);
 
+        suite.add(IoUringFileIOTest.class);
+
         return suite;
     }
 }
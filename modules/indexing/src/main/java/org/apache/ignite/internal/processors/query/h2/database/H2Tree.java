@@ -51,6 +51,8 @@ import org.apache.ignite.internal.processors.failure.FailureProcessor;
 import org.apache.ignite.internal.processors.query.h2.H2RowCache;
 import org.apache.ignite.internal.processors.query.h2.H2Utils;
 import org.apache.ignite.internal.processors.query.h2.database.inlinecolumn.InlineIndexColumnFactory;
+import org.apache.ignite.internal.processors.query.h2.database.io.H2CompressedIO;
+import org.apache.ignite.internal.processors.query.h2.database.io.H2CompressedIOUtils;
 import org.apache.ignite.internal.processors.query.h2.database.io.H2ExtrasInnerIO;
 import org.apache.ignite.internal.processors.query.h2.database.io.H2ExtrasLeafIO;
 import org.apache.ignite.internal.processors.query.h2.database.io.H2RowLinkIO;
@@ -159,6 +161,9 @@ public class H2Tree extends BPlusTree<H2Row, H2Row> {
     /** Stub flag, check {@link GridH2ValueCacheObject#useLegacyComparator()} description. */
     private final boolean useLegacyComparator;
 
+    /** Whether inlined keys are compressed, see {@link H2CompressedIOUtils}. */
+    private final boolean keyCompression;
+
     /**
      * Constructor.
      *
@@ -274,14 +279,16 @@ public class H2Tree extends BPlusTree<H2Row, H2Row> {
 
             inlineSize = metaInfo.inlineSize();
 
+            keyCompression = metaInfo.keyCompression();
+
             List<InlineIndexColumn> inlineIdxs0 = getAvailableInlineColumns(affinityKey, cacheName, idxName, log, pk,
                 table, cols, factory, metaInfo.inlineObjectHash());
 
             // IOs must be set before calling inlineObjectSupported(),
             // because IOs will be used to traverse the tree.
             setIos(
-                H2ExtrasInnerIO.getVersions(inlineSize, mvccEnabled),
-                H2ExtrasLeafIO.getVersions(inlineSize, mvccEnabled)
+                H2ExtrasInnerIO.getVersions(inlineSize, mvccEnabled, keyCompression),
+                H2ExtrasLeafIO.getVersions(inlineSize, mvccEnabled, keyCompression)
             );
 
             boolean inlineObjSupported = inlineSize > 0 && inlineObjectSupported(metaInfo, inlineIdxs0);
@@ -332,9 +339,17 @@ public class H2Tree extends BPlusTree<H2Row, H2Row> {
             inlineSize = computeInlineSize(idxName, inlineIdxs, configuredInlineSize,
                     cctx.config().getSqlIndexMaxInlineSize(), log);
 
+            // Trees copied by the defragmentation use a custom IO resolver and store raw inlined keys.
+            keyCompression = IgniteSystemProperties.getBoolean(IgniteSystemProperties.IGNITE_SQL_INDEX_KEY_COMPRESSION)
+                && !mvccEnabled
+                && pageIoRslvr == PageIoResolver.DEFAULT_PAGE_IO_RESOLVER
+                && inlineSize >= H2CompressedIOUtils.MIN_COMPRESSED_INLINE_SIZE
+                && !inlineIdxs.isEmpty()
+                && H2CompressedIOUtils.compressible(inlineIdxs.get(0).type());
+
             setIos(
-                H2ExtrasInnerIO.getVersions(inlineSize, mvccEnabled),
-                H2ExtrasLeafIO.getVersions(inlineSize, mvccEnabled)
+                H2ExtrasInnerIO.getVersions(inlineSize, mvccEnabled, keyCompression),
+                H2ExtrasLeafIO.getVersions(inlineSize, mvccEnabled, keyCompression)
             );
 
             initTree(true, inlineSize);
@@ -615,6 +630,11 @@ public class H2Tree extends BPlusTree<H2Row, H2Row> {
     }
 
 
+    /** {@inheritDoc} */
+    @Override protected long metaPageFlags() {
+        return keyCompression ? BPlusMetaIO.DEFAULT_FLAGS | BPlusMetaIO.FLAG_KEY_COMPRESSION : BPlusMetaIO.DEFAULT_FLAGS;
+    }
+
     /** {@inheritDoc} */
     @SuppressWarnings("ForLoopReplaceableByForEach")
     @Override protected int compare(BPlusIO<H2Row> io, long pageAddr, int idx,
@@ -623,7 +643,18 @@ public class H2Tree extends BPlusTree<H2Row, H2Row> {
             if (inlineSize() == 0)
                 return compareRows(getRow(io, pageAddr, idx), row);
             else {
-                int off = io.offset(idx);
+                long payloadAddr = pageAddr;
+
+                int off;
+
+                if (io instanceof H2CompressedIO) {
+                    payloadAddr = H2CompressedIOUtils.payloadBuffer();
+                    off = 0;
+
+                    ((H2CompressedIO)io).restorePayload(pageAddr, idx, payloadAddr);
+                }
+                else
+                    off = io.offset(idx);
 
                 int fieldOff = 0;
 
@@ -636,7 +667,7 @@ public class H2Tree extends BPlusTree<H2Row, H2Row> {
                     if (v2 == null)
                         return 0;
 
-                    int c = inlineIdx.compare(pageAddr, off + fieldOff, inlineSize() - fieldOff, v2, comp);
+                    int c = inlineIdx.compare(payloadAddr, off + fieldOff, inlineSize() - fieldOff, v2, comp);
 
                     if (c == CANT_BE_COMPARE)
                         break;
@@ -646,7 +677,7 @@ public class H2Tree extends BPlusTree<H2Row, H2Row> {
                     if (c != 0)
                         return fixSort(c, inlineCols[i].sortType);
 
-                    fieldOff += inlineIdx.fullSize(pageAddr, off + fieldOff);
+                    fieldOff += inlineIdx.fullSize(payloadAddr, off + fieldOff);
 
                     if (fieldOff > inlineSize())
                         break;
@@ -696,6 +727,47 @@ public class H2Tree extends BPlusTree<H2Row, H2Row> {
         }
     }
 
+    /** {@inheritDoc} */
+    @SuppressWarnings("ForLoopReplaceableByForEach")
+    @Override protected int compareOptimistic(BPlusIO<H2Row> io, long pageAddr, int idx,
+        H2Row row) throws IgniteCheckedException {
+        // Compressed payload is restored to a shared buffer, so only plain inlined values are compared.
+        if (inlineSize() == 0 || io instanceof H2CompressedIO)
+            return NEED_ROW;
+
+        try {
+            int off = io.offset(idx);
+
+            int fieldOff = 0;
+
+            for (int i = 0; i < inlineIdxs.size(); i++) {
+                InlineIndexColumn inlineIdx = inlineIdxs.get(i);
+                Value v2 = row.getValue(inlineIdx.columnIndex());
+
+                if (v2 == null)
+                    return 0;
+
+                int c = inlineIdx.compare(pageAddr, off + fieldOff, inlineSize() - fieldOff, v2, comp);
+
+                if (c == CANT_BE_COMPARE)
+                    return NEED_ROW;
+
+                if (c != 0)
+                    return fixSort(c, inlineCols[i].sortType);
+
+                fieldOff += inlineIdx.fullSize(pageAddr, off + fieldOff);
+
+                if (fieldOff > inlineSize())
+                    return NEED_ROW;
+            }
+
+            return inlineIdxs.size() == cols.length ? mvccCompare((H2RowLinkIO)io, pageAddr, idx, row) : NEED_ROW;
+        }
+        catch (DbException ex) {
+            throw new IgniteCheckedException("Rows cannot be compared", ex);
+        }
+    }
+
     /**
      * Perform sort order correction.
      *
@@ -935,6 +1007,9 @@ public class H2Tree extends BPlusTree<H2Row, H2Row> {
         /** */
         boolean inlineDecimalSupported;
 
+        /** */
+        boolean keyCompression;
+
         /** */
         IgniteProductVersion createdVer;
 
@@ -951,6 +1026,7 @@ public class H2Tree extends BPlusTree<H2Row, H2Row> {
                 inlineObjSupported = io.inlineObjectSupported(pageAddr);
                 inlineObjHash = io.inlineObjectHash(pageAddr);
                 inlineDecimalSupported = io.inlineDecimalSupported(pageAddr);
+                keyCompression = io.keyCompression(pageAddr);
             }
 
             createdVer = io.createdVersion(pageAddr);
@@ -998,6 +1074,13 @@ public class H2Tree extends BPlusTree<H2Row, H2Row> {
             return inlineDecimalSupported;
         }
 
+        /**
+         * @return {@code true} In case inlined keys are compressed.
+         */
+        public boolean keyCompression() {
+            return keyCompression;
+        }
+
         /**
          * @return Created version.
          */
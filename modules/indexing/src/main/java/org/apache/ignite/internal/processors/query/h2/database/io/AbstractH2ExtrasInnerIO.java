@@ -51,7 +51,7 @@ public abstract class AbstractH2ExtrasInnerIO extends BPlusInnerIO<H2Row> implem
         short type = mvcc ? PageIO.T_H2_EX_REF_MVCC_INNER_START : PageIO.T_H2_EX_REF_INNER_START;
 
         for (short payload = 1; payload <= PageIO.MAX_PAYLOAD_SIZE; payload++) {
-            IOVersions<? extends AbstractH2ExtrasInnerIO> io =
+            IOVersions<? extends BPlusInnerIO<H2Row>> io =
                 getVersions((short)(type + payload - 1), payload, mvcc);
 
             PageIO.registerH2ExtraInner(io, mvcc);
@@ -72,14 +72,33 @@ public abstract class AbstractH2ExtrasInnerIO extends BPlusInnerIO<H2Row> implem
             return (IOVersions<BPlusInnerIO<H2Row>>)PageIO.getInnerVersions((short)(payload - 1), mvccEnabled);
     }
 
+    /**
+     * @param payload Payload size.
+     * @param mvccEnabled Mvcc flag.
+     * @param compressed Compressed inlined keys flag.
+     * @return IOVersions of a tree with the given format.
+     */
+    public static IOVersions<? extends BPlusInnerIO<H2Row>> getVersions(int payload, boolean mvccEnabled,
+        boolean compressed) {
+        IOVersions<? extends BPlusInnerIO<H2Row>> vers = getVersions(payload, mvccEnabled);
+
+        assert !compressed || vers.latest() instanceof H2CompressedIO : vers;
+
+        // Pages of a tree are written by a single IO version, which is fixed when the tree is created.
+        return compressed || payload == 0 || mvccEnabled ? vers : new IOVersions<>(vers.forVersion(1));
+    }
+
     /**
      * @param type Type.
      * @param payload Payload size.
      * @param mvcc Mvcc flag.
      * @return Instance of IO versions.
      */
-    private static IOVersions<? extends AbstractH2ExtrasInnerIO> getVersions(short type, short payload, boolean mvcc) {
-        return new IOVersions<>(mvcc ? new H2MvccExtrasInnerIO(type, 1, payload) : new H2ExtrasInnerIO(type, 1, payload));
+    private static IOVersions<? extends BPlusInnerIO<H2Row>> getVersions(short type, short payload, boolean mvcc) {
+        if (mvcc)
+            return new IOVersions<>(new H2MvccExtrasInnerIO(type, 1, payload));
+
+        return new IOVersions<>(new H2ExtrasInnerIO(type, 1, payload), new H2ExtrasCompressedInnerIO(type, 2, payload));
     }
 
     /**
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.query.h2.database.io;
+
+/**
+ * IO of the index pages with compressed inlined keys.
+ *
+ * @see H2CompressedIOUtils
+ */
+public interface H2CompressedIO extends H2RowLinkIO {
+    /**
+     * @return Offset of the page anchor.
+     */
+    public int getAnchorOffset();
+
+    /**
+     * @return Maximum length of the page anchor.
+     */
+    public int getMaxAnchorSize();
+
+    /**
+     * @return Size of the compressed inlined key of an item.
+     */
+    public int getItemPayloadSize();
+
+    /**
+     * Restores the inlined key of the item in the format of uncompressed IOs.
+     *
+     * @param pageAddr Page address.
+     * @param idx Index.
+     * @param dstAddr Destination address, at least {@link #getPayloadSize()} bytes must be available.
+     */
+    public void restorePayload(long pageAddr, int idx, long dstAddr);
+}
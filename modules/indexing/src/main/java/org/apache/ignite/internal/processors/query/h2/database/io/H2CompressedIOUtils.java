@@ -0,0 +1,306 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.query.h2.database.io;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import org.apache.ignite.internal.pagemem.PageUtils;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.BPlusIO;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.PageIO;
+import org.apache.ignite.internal.processors.cache.persistence.tree.util.PageHandler;
+import org.apache.ignite.internal.processors.query.h2.database.InlineIndexColumn;
+import org.apache.ignite.internal.processors.query.h2.database.inlinecolumn.InlineIndexColumnFactory;
+import org.apache.ignite.internal.processors.query.h2.opt.H2Row;
+import org.apache.ignite.internal.util.GridUnsafe;
+import org.gridgain.internal.h2.value.Value;
+
+/**
+ * Compressed format of the inlined keys.
+ * <p>
+ * Compression is applied to the indexes with a string first column. The prefix shared by the strings of a page
+ * ("anchor") is stored once right after the page header, items keep only the rest of the string:
+ * <pre>
+ * | anchor length (1 byte) | anchor | items...
+ * </pre>
+ * <pre>
+ * | shared length (1 byte) | type (1 byte) | string length (2 bytes) | string bytes after shared | next columns |
+ * </pre>
+ * The string length field is the one of the uncompressed format, so truncated strings keep the {@code 0x8000} flag.
+ * Items have a fixed size smaller than the inline size: the next columns are kept only if they fit, the string is
+ * truncated at a character boundary if it doesn't fit itself. In both cases comparisons that can't be resolved by
+ * the inlined key fall back to the row, as it is done for the keys that don't fit into the inline size.
+ */
+public class H2CompressedIOUtils {
+    /** Minimal inline size of an index to be created with compressed keys. */
+    public static final int MIN_COMPRESSED_INLINE_SIZE = 32;
+
+    /** Minimal size of a compressed inlined key. */
+    static final int MIN_ITEM_PAYLOAD_SIZE = 8;
+
+    /** Maximum anchor length, the shared length must fit into a byte. */
+    static final int MAX_ANCHOR_SIZE = 255;
+
+    /** Shared length, type and string length. */
+    private static final int ITEM_HEADER_SIZE = 4;
+
+    /** Uncompressed type and string length. */
+    private static final int STRING_HEADER_SIZE = 3;
+
+    /** Buffer for uncompressed inlined keys. */
+    private static final ThreadLocal<ByteBuffer> PAYLOAD_BUF = ThreadLocal.withInitial(
+        () -> ByteBuffer.allocateDirect(PageIO.MAX_PAYLOAD_SIZE).order(ByteOrder.nativeOrder()));
+
+    /**
+     *
+     */
+    private H2CompressedIOUtils() {}
+
+    /**
+     * @param type Value type.
+     * @return {@code True} if inlined values of the given type can be compressed.
+     */
+    public static boolean compressible(int type) {
+        return type == Value.STRING || type == Value.STRING_IGNORECASE || type == Value.STRING_FIXED;
+    }
+
+    /**
+     * @return Address of a thread local buffer able to hold an uncompressed inlined key of any size.
+     */
+    public static long payloadBuffer() {
+        return GridUnsafe.bufferAddress(PAYLOAD_BUF.get());
+    }
+
+    /**
+     * @param payloadSize Inline size.
+     * @return Maximum anchor length.
+     */
+    static int maxAnchorSize(int payloadSize) {
+        return Math.max(0, Math.min(MAX_ANCHOR_SIZE, payloadSize - STRING_HEADER_SIZE));
+    }
+
+    /**
+     * @param payloadSize Inline size.
+     * @param leaf Leaf page flag.
+     * @return Size of the compressed inlined key.
+     */
+    static int itemPayloadSize(int payloadSize, boolean leaf) {
+        return Math.max(leaf ? payloadSize / 2 : payloadSize / 4, MIN_ITEM_PAYLOAD_SIZE);
+    }
+
+    /**
+     * Writes the inlined key of the row in the uncompressed format.
+     *
+     * @param row Row.
+     * @param dstAddr Destination address.
+     * @param payloadSize Inline size.
+     */
+    @SuppressWarnings("ForLoopReplaceableByForEach")
+    static void encode(H2Row row, long dstAddr, int payloadSize) {
+        List<InlineIndexColumn> inlineIdxs = InlineIndexColumnFactory.getCurrentInlineIndexes();
+
+        assert inlineIdxs != null : "no inline index helpers";
+
+        GridUnsafe.zeroMemory(dstAddr, payloadSize);
+
+        int fieldOff = 0;
+
+        for (int i = 0; i < inlineIdxs.size(); i++) {
+            InlineIndexColumn idx = inlineIdxs.get(i);
+
+            int size = idx.put(dstAddr, fieldOff, row.getValue(idx.columnIndex()), payloadSize - fieldOff);
+
+            if (size == 0)
+                break;
+
+            fieldOff += size;
+        }
+    }
+
+    /**
+     * @param srcAddr Uncompressed inlined key address.
+     * @param payloadSize Inline size.
+     * @param anchorAddr Anchor address.
+     * @param itemAddr Item address.
+     * @param itemPayloadSize Compressed inlined key size.
+     */
+    static void compress(long srcAddr, int payloadSize, long anchorAddr, long itemAddr, int itemPayloadSize) {
+        byte type = PageUtils.getByte(srcAddr, 0);
+
+        if (!compressible(type)) {
+            // NULL or a key which didn't fit, next columns are never kept.
+            PageUtils.putByte(itemAddr, 0, (byte)0);
+            PageUtils.putByte(itemAddr, 1, type);
+
+            return;
+        }
+
+        short lenFld = PageUtils.getShort(srcAddr, 1);
+
+        int len = lenFld & 0x7FFF;
+        boolean full = (lenFld & 0x8000) == 0;
+
+        long strAddr = srcAddr + STRING_HEADER_SIZE;
+
+        int shared = commonPrefix(strAddr, len, anchorAddr + 1, PageUtils.getUnsignedByte(anchorAddr, 0));
+
+        int bodySize = itemPayloadSize - ITEM_HEADER_SIZE;
+
+        if (len - shared > bodySize) {
+            int end = shared + bodySize;
+
+            // Don't split a multibyte character.
+            while (end > 0 && (PageUtils.getByte(strAddr, end) & 0xC0) == 0x80)
+                end--;
+
+            shared = Math.min(shared, end);
+            len = end;
+            full = false;
+        }
+
+        int tail = len - shared;
+        int rest = payloadSize - STRING_HEADER_SIZE - len;
+
+        PageUtils.putUnsignedByte(itemAddr, 0, shared);
+        PageUtils.putByte(itemAddr, 1, type);
+        PageUtils.putShort(itemAddr, 2, (short)(full ? len : len | 0x8000));
+
+        PageHandler.copyMemory(strAddr, shared, itemAddr, ITEM_HEADER_SIZE, tail);
+
+        if (full && tail + rest <= bodySize)
+            PageHandler.copyMemory(strAddr, len, itemAddr, ITEM_HEADER_SIZE + tail, rest);
+    }
+
+    /**
+     * @param anchorAddr Anchor address.
+     * @param itemAddr Item address.
+     * @param itemPayloadSize Compressed inlined key size.
+     * @param dstAddr Destination address.
+     * @param payloadSize Inline size.
+     */
+    static void restore(long anchorAddr, long itemAddr, int itemPayloadSize, long dstAddr, int payloadSize) {
+        byte type = PageUtils.getByte(itemAddr, 1);
+
+        PageUtils.putByte(dstAddr, 0, type);
+
+        if (!compressible(type)) {
+            if (payloadSize > 1)
+                PageUtils.putByte(dstAddr, 1, (byte)Value.UNKNOWN);
+
+            return;
+        }
+
+        int shared = PageUtils.getUnsignedByte(itemAddr, 0);
+        short lenFld = PageUtils.getShort(itemAddr, 2);
+
+        int len = lenFld & 0x7FFF;
+        boolean full = (lenFld & 0x8000) == 0;
+
+        int tail = len - shared;
+        int rest = payloadSize - STRING_HEADER_SIZE - len;
+
+        PageUtils.putShort(dstAddr, 1, lenFld);
+
+        PageHandler.copyMemory(anchorAddr, 1, dstAddr, STRING_HEADER_SIZE, shared);
+        PageHandler.copyMemory(itemAddr, ITEM_HEADER_SIZE, dstAddr, STRING_HEADER_SIZE + shared, tail);
+
+        if (full && tail + rest <= itemPayloadSize - ITEM_HEADER_SIZE)
+            PageHandler.copyMemory(itemAddr, ITEM_HEADER_SIZE + tail, dstAddr, STRING_HEADER_SIZE + len, rest);
+        else if (rest > 0)
+            PageUtils.putByte(dstAddr, STRING_HEADER_SIZE + len, (byte)Value.UNKNOWN);
+    }
+
+    /**
+     * Chooses the longest prefix shared by the strings of the page as the anchor and compresses all the items with it.
+     *
+     * @param io Page IO.
+     * @param pageAddr Page address.
+     * @param from Index of the first item compressed with the anchor at {@code fromAnchorAddr}, the previous items
+     *      are compressed with the anchor of the page.
+     * @param fromAnchorAddr Anchor address.
+     */
+    static <IO extends BPlusIO<H2Row> & H2CompressedIO> void rebuildAnchor(
+        IO io,
+        long pageAddr,
+        int from,
+        long fromAnchorAddr
+    ) {
+        int cnt = io.getCount(pageAddr);
+        int payloadSize = io.getPayloadSize();
+        int itemPayloadSize = io.getItemPayloadSize();
+
+        long anchorAddr = pageAddr + io.getAnchorOffset();
+
+        long bufSize = (long)cnt * payloadSize;
+        long buf = GridUnsafe.allocateMemory(Math.max(bufSize, 1));
+
+        try {
+            GridUnsafe.zeroMemory(buf, bufSize);
+
+            long firstStrAddr = 0;
+            int anchorLen = 0;
+
+            for (int i = 0; i < cnt; i++) {
+                long dstAddr = buf + (long)i * payloadSize;
+
+                restore(i < from ? anchorAddr : fromAnchorAddr, pageAddr + io.offset(i), itemPayloadSize, dstAddr,
+                    payloadSize);
+
+                if (!compressible(PageUtils.getByte(dstAddr, 0)))
+                    continue;
+
+                int len = PageUtils.getShort(dstAddr, 1) & 0x7FFF;
+
+                if (firstStrAddr == 0) {
+                    firstStrAddr = dstAddr + STRING_HEADER_SIZE;
+                    anchorLen = Math.min(len, io.getMaxAnchorSize());
+                }
+                else
+                    anchorLen = commonPrefix(firstStrAddr, anchorLen, dstAddr + STRING_HEADER_SIZE, len);
+            }
+
+            PageUtils.putUnsignedByte(anchorAddr, 0, anchorLen);
+
+            if (anchorLen > 0)
+                PageHandler.copyMemory(firstStrAddr, 0, anchorAddr, 1, anchorLen);
+
+            for (int i = 0; i < cnt; i++)
+                compress(buf + (long)i * payloadSize, payloadSize, anchorAddr, pageAddr + io.offset(i), itemPayloadSize);
+        }
+        finally {
+            GridUnsafe.freeMemory(buf);
+        }
+    }
+
+    /**
+     * @param addr1 First address.
+     * @param len1 First length.
+     * @param addr2 Second address.
+     * @param len2 Second length.
+     * @return Length of the common prefix.
+     */
+    private static int commonPrefix(long addr1, int len1, long addr2, int len2) {
+        int len = Math.min(len1, len2);
+
+        int i = 0;
+
+        while (i < len && GridUnsafe.getByte(addr1 + i) == GridUnsafe.getByte(addr2 + i))
+            i++;
+
+        return i;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.query.h2.database.io;
+
+import org.apache.ignite.IgniteCheckedException;
+import org.apache.ignite.internal.pagemem.PageUtils;
+import org.apache.ignite.internal.processors.cache.persistence.pagemem.PageMetrics;
+import org.apache.ignite.internal.processors.cache.persistence.tree.BPlusTree;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.BPlusIO;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.BPlusInnerIO;
+import org.apache.ignite.internal.processors.cache.persistence.tree.util.PageHandler;
+import org.apache.ignite.internal.processors.query.h2.database.H2Tree;
+import org.apache.ignite.internal.processors.query.h2.opt.H2CacheRow;
+import org.apache.ignite.internal.processors.query.h2.opt.H2Row;
+import org.apache.ignite.internal.util.GridUnsafe;
+
+/**
+ * Inner page for H2 row references with compressed inlined keys.
+ *
+ * @see H2CompressedIOUtils
+ */
+public class H2ExtrasCompressedInnerIO extends BPlusInnerIO<H2Row> implements H2CompressedIO {
+    /** Payload size. */
+    private final int payloadSize;
+
+    /** Compressed payload size. */
+    private final int itemPayloadSize;
+
+    /** Maximum anchor length. */
+    private final int maxAnchorSize;
+
+    /**
+     * @param type Page type.
+     * @param ver Page format version.
+     * @param payloadSize Payload size.
+     */
+    public H2ExtrasCompressedInnerIO(short type, int ver, int payloadSize) {
+        super(type, ver, true, H2CompressedIOUtils.itemPayloadSize(payloadSize, false) + 8,
+            ITEMS_OFF + 1 + H2CompressedIOUtils.maxAnchorSize(payloadSize));
+
+        this.payloadSize = payloadSize;
+
+        itemPayloadSize = H2CompressedIOUtils.itemPayloadSize(payloadSize, false);
+        maxAnchorSize = H2CompressedIOUtils.maxAnchorSize(payloadSize);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void initNewPage(long pageAddr, long pageId, int pageSize, PageMetrics metrics) {
+        super.initNewPage(pageAddr, pageId, pageSize, metrics);
+
+        PageUtils.putByte(pageAddr, ITEMS_OFF, (byte)0);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void storeByOffset(long pageAddr, int off, H2Row row) {
+        assertPageType(pageAddr);
+
+        H2CacheRow row0 = (H2CacheRow)row;
+
+        assert row0.link() != 0;
+
+        long buf = H2CompressedIOUtils.payloadBuffer();
+
+        H2CompressedIOUtils.encode(row, buf, payloadSize);
+        H2CompressedIOUtils.compress(buf, payloadSize, pageAddr + ITEMS_OFF, pageAddr + off, itemPayloadSize);
+
+        H2IOUtils.storeRow(row0, pageAddr, off + itemPayloadSize, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void store(long dstPageAddr, int dstIdx, BPlusIO<H2Row> srcIo, long srcPageAddr, int srcIdx) {
+        assertPageType(dstPageAddr);
+
+        long buf = H2CompressedIOUtils.payloadBuffer();
+
+        GridUnsafe.zeroMemory(buf, payloadSize);
+
+        if (srcIo instanceof H2CompressedIO)
+            ((H2CompressedIO)srcIo).restorePayload(srcPageAddr, srcIdx, buf);
+        else
+            PageHandler.copyMemory(srcPageAddr, srcIo.offset(srcIdx), buf, 0, payloadSize);
+
+        int dstOff = offset(dstIdx);
+
+        H2CompressedIOUtils.compress(buf, payloadSize, dstPageAddr + ITEMS_OFF, dstPageAddr + dstOff,
+            itemPayloadSize);
+
+        H2IOUtils.store(dstPageAddr, dstOff + itemPayloadSize, srcIo, srcPageAddr, srcIdx, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void splitForwardPage(
+        long pageAddr,
+        long fwdId,
+        long fwdPageAddr,
+        int mid,
+        int cnt,
+        int pageSize,
+        PageMetrics metrics
+    ) throws IgniteCheckedException {
+        super.splitForwardPage(pageAddr, fwdId, fwdPageAddr, mid, cnt, pageSize, metrics);
+
+        H2CompressedIOUtils.rebuildAnchor(this, fwdPageAddr, 0, pageAddr + ITEMS_OFF);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void splitExistingPage(long pageAddr, int mid, long fwdId) {
+        super.splitExistingPage(pageAddr, mid, fwdId);
+
+        H2CompressedIOUtils.rebuildAnchor(this, pageAddr, mid, 0L);
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean merge(
+        BPlusIO<H2Row> prntIo,
+        long prntPageAddr,
+        int prntIdx,
+        long leftPageAddr,
+        long rightPageAddr,
+        boolean emptyBranch,
+        int pageSize
+    ) throws IgniteCheckedException {
+        int rightCnt = getCount(rightPageAddr);
+
+        if (!super.merge(prntIo, prntPageAddr, prntIdx, leftPageAddr, rightPageAddr, emptyBranch, pageSize))
+            return false;
+
+        // Items of the right page are compressed with its anchor.
+        H2CompressedIOUtils.rebuildAnchor(this, leftPageAddr, getCount(leftPageAddr) - rightCnt,
+            rightPageAddr + ITEMS_OFF);
+
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override public H2Row getLookupRow(BPlusTree<H2Row, ?> tree, long pageAddr, int idx)
+        throws IgniteCheckedException {
+        return ((H2Tree)tree).createRow(getLink(pageAddr, idx));
+    }
+
+    /** {@inheritDoc} */
+    @Override public void restorePayload(long pageAddr, int idx, long dstAddr) {
+        H2CompressedIOUtils.restore(pageAddr + ITEMS_OFF, pageAddr + offset(idx), itemPayloadSize, dstAddr,
+            payloadSize);
+    }
+
+    /** {@inheritDoc} */
+    @Override public long getLink(long pageAddr, int idx) {
+        return PageUtils.getLong(pageAddr, offset(idx) + itemPayloadSize);
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getPayloadSize() {
+        return payloadSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getAnchorOffset() {
+        return ITEMS_OFF;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getMaxAnchorSize() {
+        return maxAnchorSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int getItemPayloadSize() {
+        return itemPayloadSize;
+    }
+}
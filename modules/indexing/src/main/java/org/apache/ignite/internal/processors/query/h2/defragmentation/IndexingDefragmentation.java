@@ -16,6 +16,7 @@
 
 package org.apache.ignite.internal.processors.query.h2.defragmentation;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -52,12 +53,17 @@ import org.apache.ignite.internal.processors.query.h2.database.io.AbstractH2Extr
 import org.apache.ignite.internal.processors.query.h2.database.io.AbstractH2ExtrasLeafIO;
 import org.apache.ignite.internal.processors.query.h2.database.io.AbstractH2InnerIO;
 import org.apache.ignite.internal.processors.query.h2.database.io.AbstractH2LeafIO;
+import org.apache.ignite.internal.processors.query.h2.database.io.H2CompressedIO;
+import org.apache.ignite.internal.processors.query.h2.database.io.H2CompressedIOUtils;
+import org.apache.ignite.internal.processors.query.h2.database.io.H2ExtrasCompressedInnerIO;
+import org.apache.ignite.internal.processors.query.h2.database.io.H2ExtrasCompressedLeafIO;
 import org.apache.ignite.internal.processors.query.h2.database.io.H2IOUtils;
 import org.apache.ignite.internal.processors.query.h2.database.io.H2RowLinkIO;
 import org.apache.ignite.internal.processors.query.h2.opt.GridH2RowDescriptor;
 import org.apache.ignite.internal.processors.query.h2.opt.GridH2Table;
 import org.apache.ignite.internal.processors.query.h2.opt.H2CacheRow;
 import org.apache.ignite.internal.processors.query.h2.opt.H2Row;
+import org.apache.ignite.internal.util.GridUnsafe;
 import org.apache.ignite.internal.util.IgniteUtils;
 import org.apache.ignite.internal.util.collection.IntMap;
 import org.apache.ignite.internal.util.typedef.internal.S;
@@ -70,6 +76,9 @@ import org.gridgain.internal.h2.value.Value;
  *
  */
 public class IndexingDefragmentation {
+    /** Number of rows put to the new index tree at once. */
+    private static final int ROWS_BATCH_SIZE = 256;
+
     /** Indexing. */
     private final IgniteH2Indexing indexing;
 
@@ -225,10 +234,15 @@ public class IndexingDefragmentation {
 
                     AtomicBoolean warningPrinted = new AtomicBoolean();
 
+                    // Rows are copied in the index order, so they are put to the new tree in batches.
+                    List<H2Row> rows = new ArrayList<>(ROWS_BATCH_SIZE);
+
                     treeIterator.iterate(tree, oldCachePageMem, (theTree, io, pageAddr, idx) -> {
                         cancellationChecker.run();
 
                         if (System.currentTimeMillis() - lastCpLockTs.get() >= cpLockThreshold) {
+                            putRows(newTree, rows);
+
                             cpLock.checkpointReadUnlock();
 
                             cpLock.checkpointReadLock();
@@ -236,7 +250,7 @@ public class IndexingDefragmentation {
                             lastCpLockTs.set(System.currentTimeMillis());
                         }
 
-                        assert 1 == io.getVersion()
+                        assert 1 == io.getVersion() || io instanceof H2CompressedIO
                             : "IO version " + io.getVersion() + " is not supported by current defragmentation algorithm." +
                             " Please implement copying of tree in a new format.";
 
@@ -278,15 +292,18 @@ public class IndexingDefragmentation {
                                 ((H2RowLinkIO)io).storeMvccInfo()
                             );
 
-                            InlineIndexColumnFactory.setCurrentInlineIndexes(newTree.inlineIndexes());
-
                             assert cctx.shared().database().checkpointLockIsHeldByThread();
 
-                            newTree.putx(newRow);
+                            rows.add(newRow);
+
+                            if (rows.size() == ROWS_BATCH_SIZE)
+                                putRows(newTree, rows);
                         }
 
                         return true;
                     });
+
+                    putRows(newTree, rows);
                 }
             }
 
@@ -297,12 +314,28 @@ public class IndexingDefragmentation {
         }
     }
 
+    /**
+     * Puts the rows to the tree and clears the list.
+     *
+     * @param tree Tree.
+     * @param rows Rows sorted in the index order.
+     * @throws IgniteCheckedException If failed.
+     */
+    private static void putRows(H2Tree tree, List<H2Row> rows) throws IgniteCheckedException {
+        InlineIndexColumnFactory.setCurrentInlineIndexes(tree.inlineIndexes());
+
+        tree.putAll(rows);
+
+        rows.clear();
+    }
+
     /** */
     private static <T extends BPlusIO<H2Row> & H2RowLinkIO> H2Row lookupRow(
         BPlusTree<H2Row, ?> tree,
         long pageAddr,
         int idx,
-        T io
+        T io,
+        H2RowLinkIO origIo
     ) throws IgniteCheckedException {
         long link = io.getLink(pageAddr, idx);
 
@@ -314,10 +347,20 @@ public class IndexingDefragmentation {
 
         byte[] values;
 
-        if (inlineIdxs != null)
-            values = PageUtils.getBytes(pageAddr, off, payloadSize);
-        else
+        if (inlineIdxs == null)
             values = Utils.EMPTY_BYTES;
+        else if (origIo instanceof H2CompressedIO) {
+            // New trees are not compressed, so the inlined keys are copied in the uncompressed format.
+            long buf = H2CompressedIOUtils.payloadBuffer();
+
+            GridUnsafe.zeroMemory(buf, payloadSize);
+
+            ((H2CompressedIO)origIo).restorePayload(pageAddr, idx, buf);
+
+            values = PageUtils.getBytes(buf, 0, payloadSize);
+        }
+        else
+            values = PageUtils.getBytes(pageAddr, off, payloadSize);
 
         if (io.storeMvccInfo()) {
             long mvccCrdVer = io.getMvccCoordinatorVersion(pageAddr, idx);
@@ -341,12 +384,14 @@ public class IndexingDefragmentation {
 
         if (io instanceof BPlusInnerIO) {
             assert io instanceof AbstractH2ExtrasInnerIO
+                || io instanceof H2ExtrasCompressedInnerIO
                 || io instanceof AbstractH2InnerIO;
 
             return new BPlusInnerIoDelegate((BPlusInnerIO<H2Row>)io);
         }
         else {
             assert io instanceof AbstractH2ExtrasLeafIO
+                || io instanceof H2ExtrasCompressedLeafIO
                 || io instanceof AbstractH2LeafIO;
 
             return new BPlusLeafIoDelegate((BPlusLeafIO<H2Row>)io);
@@ -385,7 +430,7 @@ public class IndexingDefragmentation {
 
         /** */
         public BPlusInnerIoDelegate(IO io) {
-            super(io.getType(), io.getVersion(), io.canGetRow(), io.getItemSize());
+            super(io.getType(), io.getVersion(), io.canGetRow(), io.getItemSize(), io.getItemsOffset());
             this.io = io;
         }
 
@@ -407,7 +452,7 @@ public class IndexingDefragmentation {
         /** {@inheritDoc} */
         @Override public H2Row getLookupRow(BPlusTree<H2Row, ?> tree, long pageAddr, int idx)
             throws IgniteCheckedException {
-            return lookupRow(tree, pageAddr, idx, this);
+            return lookupRow(tree, pageAddr, idx, this, io);
         }
 
         /** {@inheritDoc} */
@@ -449,7 +494,7 @@ public class IndexingDefragmentation {
 
         /** */
         public BPlusLeafIoDelegate(IO io) {
-            super(io.getType(), io.getVersion(), io.getItemSize());
+            super(io.getType(), io.getVersion(), io.getItemSize(), io.getItemsOffset());
             this.io = io;
         }
 
@@ -471,7 +516,7 @@ public class IndexingDefragmentation {
         /** {@inheritDoc} */
         @Override public H2Row getLookupRow(BPlusTree<H2Row, ?> tree, long pageAddr, int idx)
             throws IgniteCheckedException {
-            return lookupRow(tree, pageAddr, idx, this);
+            return lookupRow(tree, pageAddr, idx, this, io);
         }
 
         /** {@inheritDoc} */
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2019 GridGain Systems, Inc. and Contributors.
+ *
+ * Licensed under the GridGain Community Edition License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.gridgain.com/products/software/community-edition/gridgain-community-edition-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.processors.query.h2.database.io;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.ignite.internal.processors.cache.index.AbstractIndexingCommonTest;
+import org.apache.ignite.internal.processors.cache.persistence.tree.io.PageIO;
+import org.apache.ignite.internal.processors.query.h2.database.InlineIndexColumn;
+import org.apache.ignite.internal.processors.query.h2.database.inlinecolumn.AbstractInlineIndexColumn;
+import org.apache.ignite.internal.processors.query.h2.database.inlinecolumn.InlineIndexColumnFactory;
+import org.apache.ignite.internal.util.GridUnsafe;
+import org.gridgain.internal.h2.table.Column;
+import org.gridgain.internal.h2.value.CompareMode;
+import org.gridgain.internal.h2.value.Value;
+import org.gridgain.internal.h2.value.ValueInt;
+import org.gridgain.internal.h2.value.ValueString;
+import org.junit.Test;
+
+import static org.apache.ignite.internal.processors.query.h2.database.inlinecolumn.AbstractInlineIndexColumn.CANT_BE_COMPARE;
+
+/**
+ * Tests for {@link H2CompressedIOUtils}.
+ */
+public class H2CompressedIOUtilsTest extends AbstractIndexingCommonTest {
+    /** */
+    private static final int PAYLOAD_SIZE = 64;
+
+    /** */
+    private static final int PAGE_SIZE = 4096;
+
+    /** */
+    private final CompareMode cmpMode = CompareMode.getInstance(CompareMode.OFF, 1);
+
+    /** */
+    private final Comparator<Value> comp = (v1, v2) -> v1.compareTo(v2, null, cmpMode);
+
+    /** */
+    private final InlineIndexColumnFactory factory = new InlineIndexColumnFactory(cmpMode);
+
+    /** Factory caches helpers by column names, so the columns are named differently. */
+    private final AbstractInlineIndexColumn strCol =
+        (AbstractInlineIndexColumn)factory.createInlineHelper(new Column("STR", Value.STRING), false);
+
+    /** */
+    private final InlineIndexColumn intCol = factory.createInlineHelper(new Column("INT", Value.INT), false);
+
+    /**
+     * Checks that compressed keys are either compared as uncompressed ones or fall back to the row.
+     */
+    @Test
+    public void testCompareConsistency() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+
+        long mem = GridUnsafe.allocateMemory(4 * PAYLOAD_SIZE);
+
+        try {
+            long src = mem;
+            long anchor = mem + PAYLOAD_SIZE;
+            long item = mem + 2 * PAYLOAD_SIZE;
+            long dst = mem + 3 * PAYLOAD_SIZE;
+
+            GridUnsafe.zeroMemory(mem, 4 * PAYLOAD_SIZE);
+
+            byte[] anchorBytes = "customer-€-".getBytes(StandardCharsets.UTF_8);
+
+            GridUnsafe.putByte(anchor, (byte)anchorBytes.length);
+
+            for (int i = 0; i < anchorBytes.length; i++)
+                GridUnsafe.putByte(anchor + 1 + i, anchorBytes[i]);
+
+            for (boolean leaf : new boolean[] {true, false}) {
+                int itemPayloadSize = H2CompressedIOUtils.itemPayloadSize(PAYLOAD_SIZE, leaf);
+
+                for (int i = 0; i < 1000; i++) {
+                    Value[] key = randomKey(rnd);
+
+                    put(src, key);
+
+                    H2CompressedIOUtils.compress(src, PAYLOAD_SIZE, anchor, item, itemPayloadSize);
+
+                    GridUnsafe.zeroMemory(dst, PAYLOAD_SIZE);
+
+                    H2CompressedIOUtils.restore(anchor, item, itemPayloadSize, dst, PAYLOAD_SIZE);
+
+                    for (int j = 0; j < 20; j++) {
+                        Value[] probe = j == 0 ? key : randomKey(rnd);
+
+                        int exp = compare(src, probe);
+                        int res = compare(dst, probe);
+
+                        assertTrue("key=" + key[0] + ", probe=" + probe[0] + ", exp=" + exp + ", res=" + res,
+                            res == exp || res == CANT_BE_COMPARE);
+                    }
+                }
+            }
+        }
+        finally {
+            GridUnsafe.freeMemory(mem);
+        }
+    }
+
+    /**
+     * Checks that the anchor is recomputed on split and merge.
+     */
+    @Test
+    public void testRebuildAnchor() throws Exception {
+        H2ExtrasCompressedLeafIO io = new H2ExtrasCompressedLeafIO(
+            (short)(PageIO.T_H2_EX_REF_LEAF_START + PAYLOAD_SIZE - 1), 2, PAYLOAD_SIZE);
+
+        long mem = GridUnsafe.allocateMemory(2 * PAGE_SIZE + PAYLOAD_SIZE);
+
+        try {
+            long pageAddr = mem;
+            long fwdPageAddr = mem + PAGE_SIZE;
+            long buf = mem + 2 * PAGE_SIZE;
+
+            GridUnsafe.zeroMemory(mem, 2 * PAGE_SIZE);
+
+            io.initNewPage(pageAddr, 1L, PAGE_SIZE, null);
+
+            List<String> keys = new ArrayList<>();
+
+            for (int i = 0; i < 40; i++) {
+                String key = (i < 20 ? "customer-00" : "customer-01") + String.format("%03d", i);
+
+                keys.add(key);
+
+                put(buf, new Value[] {ValueString.get(key), ValueInt.get(i)});
+
+                H2CompressedIOUtils.compress(buf, PAYLOAD_SIZE, pageAddr + io.getAnchorOffset(),
+                    pageAddr + io.offset(i), io.getItemPayloadSize());
+
+                io.setCount(pageAddr, i + 1);
+            }
+
+            assertEquals(0, anchorLength(io, pageAddr));
+
+            H2CompressedIOUtils.rebuildAnchor(io, pageAddr, keys.size(), 0L);
+
+            assertEquals(commonPrefix(keys), anchorLength(io, pageAddr));
+            checkKeys(io, pageAddr, keys);
+
+            io.splitForwardPage(pageAddr, 2L, fwdPageAddr, 20, keys.size(), PAGE_SIZE, null);
+            io.splitExistingPage(pageAddr, 20, 2L);
+
+            assertEquals(commonPrefix(keys.subList(0, 20)), anchorLength(io, pageAddr));
+            assertEquals(commonPrefix(keys.subList(20, keys.size())), anchorLength(io, fwdPageAddr));
+            checkKeys(io, pageAddr, keys.subList(0, 20));
+            checkKeys(io, fwdPageAddr, keys.subList(20, keys.size()));
+
+            assertTrue(io.merge(io, pageAddr, 0, pageAddr, fwdPageAddr, false, PAGE_SIZE));
+
+            assertEquals(commonPrefix(keys), anchorLength(io, pageAddr));
+            checkKeys(io, pageAddr, keys);
+        }
+        finally {
+            GridUnsafe.freeMemory(mem);
+        }
+    }
+
+    /**
+     * @param keys ASCII keys.
+     * @return Length of the common prefix.
+     */
+    private static int commonPrefix(List<String> keys) {
+        String prefix = keys.get(0);
+
+        for (String key : keys) {
+            while (!key.startsWith(prefix))
+                prefix = prefix.substring(0, prefix.length() - 1);
+        }
+
+        return prefix.length();
+    }
+
+    /**
+     * @param io IO.
+     * @param pageAddr Page address.
+     * @return Anchor length.
+     */
+    private static int anchorLength(H2CompressedIO io, long pageAddr) {
+        return GridUnsafe.getByte(pageAddr + io.getAnchorOffset()) & 0xFF;
+    }
+
+    /**
+     * @param io IO.
+     * @param pageAddr Page address.
+     * @param keys Expected keys.
+     */
+    private void checkKeys(H2ExtrasCompressedLeafIO io, long pageAddr, List<String> keys) {
+        assertEquals(keys.size(), io.getCount(pageAddr));
+
+        long buf = H2CompressedIOUtils.payloadBuffer();
+
+        for (int i = 0; i < keys.size(); i++) {
+            io.restorePayload(pageAddr, i, buf);
+
+            assertEquals(keys.get(i), strCol.get(buf, 0, PAYLOAD_SIZE).getString());
+        }
+    }
+
+    /**
+     * @param rnd Random.
+     * @return Key with a string and an integer column.
+     */
+    private static Value[] randomKey(ThreadLocalRandom rnd) {
+        String prefix = rnd.nextBoolean() ? "customer-€-" : rnd.nextBoolean() ? "customer-" : "";
+
+        StringBuilder sb = new StringBuilder(prefix);
+
+        int len = rnd.nextInt(40);
+
+        for (int i = 0; i < len; i++)
+            sb.append(rnd.nextInt(10) == 0 ? '€' : (char)('a' + rnd.nextInt(3)));
+
+        return new Value[] {ValueString.get(sb.toString()), ValueInt.get(rnd.nextInt(3))};
+    }
+
+    /**
+     * @param addr Address.
+     * @param key Key.
+     */
+    private void put(long addr, Value[] key) {
+        int size = strCol.put(addr, 0, key[0], PAYLOAD_SIZE);
+
+        if (size > 0)
+            intCol.put(addr, size, key[1], PAYLOAD_SIZE - size);
+    }
+
+    /**
+     * Compares the inlined key the same way the tree does.
+     *
+     * @param addr Address.
+     * @param key Key.
+     * @return Comparison result.
+     */
+    private int compare(long addr, Value[] key) {
+        int c = strCol.compare(addr, 0, PAYLOAD_SIZE, key[0], comp);
+
+        if (c != 0)
+            return c;
+
+        int off = strCol.fullSize(addr, 0);
+
+        return intCol.compare(addr, off, PAYLOAD_SIZE - off, key[1], comp);
+    }
+}
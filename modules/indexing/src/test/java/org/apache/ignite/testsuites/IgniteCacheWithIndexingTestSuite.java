@@ -55,6 +55,7 @@ import org.apache.ignite.internal.processors.cache.ttl.CacheTtlTransactionalPart
 import org.apache.ignite.internal.processors.client.IgniteDataStreamerTest;
 import org.apache.ignite.internal.processors.query.h2.database.H2ComputeInlineSizeTest;
 import org.apache.ignite.internal.processors.query.h2.database.inlinecolumn.InlineIndexColumnTest;
+import org.apache.ignite.internal.processors.query.h2.database.io.H2CompressedIOUtilsTest;
 import org.apache.ignite.internal.visor.VisorQueryTaskSelfTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -66,6 +67,7 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
     InlineIndexColumnTest.class,
     H2ComputeInlineSizeTest.class,
+    H2CompressedIOUtilsTest.class,
 
     GridIndexingWithNoopSwapSelfTest.class,
     GridCacheOffHeapSelfTest.class,